@@ -0,0 +1,151 @@
+package cz.vojtechsika.tennisclub.dto.mapper;
+
+import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.User;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.ReservationFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures mapping a list of reservations to response DTOs, as the paginated reads and the NDJSON export do.
+ * {@link #legacyLocalized()} is the mapping before the formatters were shared: it looks up a localized formatter
+ * for every field of every reservation. {@link #mapper(Output)} is the current {@link ReservationMapper} in each
+ * {@link ReservationFormat}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationMapperBenchmark {
+
+    @Param("10000")
+    private int size;
+
+    private final ReservationMapper reservationMapper = new ReservationMapper();
+
+    private List<Reservation> reservations;
+
+
+    @Setup
+    public void setUp() {
+        Fixtures fixtures = new Fixtures();
+        LocalDateTime start = LocalDateTime.of(2030, 4, 1, 7, 0);
+        reservations = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Reservation reservation = new Reservation();
+            reservation.setId((long) i);
+            reservation.setCourt(fixtures.court(i));
+            reservation.setUser(fixtures.user(i));
+            reservation.setStartTime(start.plusMinutes(30L * i));
+            reservation.setEndTime(start.plusMinutes(30L * i + 60));
+            reservation.setGameType(i % 2 == 0 ? GameType.SINGLES : GameType.DOUBLES);
+            reservation.setPrice(BigDecimal.valueOf(60 + i % 60));
+            reservation.setCreatedAt(start.minusDays(i % 30));
+            reservation.setVersion(0L);
+            reservations.add(reservation);
+        }
+    }
+
+
+    @Benchmark
+    public List<ReservationResponseDTO> mapper(Output output) {
+        List<ReservationResponseDTO> responses = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            responses.add(reservationMapper.toReservationResponseDTO(reservation, output.format));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<ReservationResponseDTO> legacyLocalized() {
+        List<ReservationResponseDTO> responses = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            responses.add(legacyToReservationResponseDTO(reservation));
+        }
+        return responses;
+    }
+
+
+    // ReservationMapper#toReservationResponseDTO(Reservation) before the formatters were resolved once
+    private static ReservationResponseDTO legacyToReservationResponseDTO(Reservation reservation) {
+        ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
+
+        reservationResponseDTO.setId(reservation.getId());
+        reservationResponseDTO.setCourtNumber(reservation.getCourt().getCourtNumber());
+        reservationResponseDTO.setUserName(reservation.getUser().getUserName());
+        reservationResponseDTO.setPhoneNumber(reservation.getUser().getPhoneNumber());
+        reservationResponseDTO.setStartTime(reservation.getStartTime().toLocalTime().
+                format(DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT)));
+        reservationResponseDTO.setEndTime(reservation.getEndTime().toLocalTime().
+                format(DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT)));
+        reservationResponseDTO.setGameDate(reservation.getStartTime().toLocalDate().
+                format(DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT)));
+        reservationResponseDTO.setGameType(reservation.getGameType());
+        reservationResponseDTO.setPrice(reservation.getPrice());
+        reservationResponseDTO.setCreatedAt(reservation.getCreatedAt().toLocalDate().
+                format(DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT)));
+        reservationResponseDTO.setVersion(reservation.getVersion());
+        return reservationResponseDTO;
+    }
+
+
+    // The format is a parameter of the current mapper only; the legacy mapping has the localized output alone
+    @State(Scope.Benchmark)
+    public static class Output {
+
+        @Param({"LOCALIZED", "ISO", "EPOCH"})
+        private ReservationFormat format;
+    }
+
+    // A dozen courts and a few hundred users shared by the reservations, like the rows of one result list
+    private static final class Fixtures {
+
+        private final List<Court> courts = new ArrayList<>();
+
+        private final List<User> users = new ArrayList<>();
+
+        Fixtures() {
+            for (int i = 0; i < 12; i++) {
+                Court court = new Court();
+                court.setCourtNumber(101 + i);
+                courts.add(court);
+            }
+            for (int i = 0; i < 300; i++) {
+                User user = new User();
+                user.setUserName("Player " + i);
+                user.setPhoneNumber(String.format("+420 700 %03d %03d", i / 1000, i % 1000));
+                users.add(user);
+            }
+        }
+
+        Court court(int i) {
+            return courts.get(i % courts.size());
+        }
+
+        User user(int i) {
+            return users.get(i % users.size());
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.cache.CollectionVersions;
+import cz.vojtechsika.tennisclub.cache.UserIdCacheImpl;
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dao.UserDAO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.dto.projection.UserIdentity;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.index.ReservationIndexImpl;
+import cz.vojtechsika.tennisclub.metrics.BookingMetricsImpl;
+import cz.vojtechsika.tennisclub.tariff.TariffEngineImpl;
+import cz.vojtechsika.tennisclub.tariff.TariffProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures the steps of a booking in {@link ReservationServiceImpl} and {@link UserResolverImpl} without a database: the DAOs are stubs
+ * answering from memory, so the scores are the cost of the service's own logic.
+ * <ul>
+ *     <li>{@link #isValidReservation(Day)} – time rules and the overlap check against the warm index,</li>
+ *     <li>{@link #hasOverlappingReservationIndexed(Day)} and {@link #hasOverlappingReservationLoaded(Day)} – the
+ *     overlap check against the index and against the day's reservations as the DAO returns them when the index
+ *     is cold,</li>
+ *     <li>{@link #courtPriceCalculatorSingles()} and {@link #courtPriceCalculatorDoubles()} – the price,</li>
+ *     <li>{@link #resolveUserUnchanged()} and {@link #resolveUserRenamed(Names)} – the upsert writing nothing,
+ *     whose ID comes from the phone number cache, and the upsert of a renamed user.</li>
+ * </ul>
+ * The overlap checks run at several densities of the checked court-day. The checked reservation never overlaps,
+ * so every reservation of the day is looked at.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationServiceBenchmark {
+
+    private static final int COURTS = 12;
+
+    private static final int DAYS = 7;
+
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(30);
+
+    private final Court court = court();
+
+    private final ReservationDTO singles = new ReservationDTO("John Doe", "+420 700 000 001",
+            FIRST_DAY.atTime(18, 0), FIRST_DAY.atTime(19, 30), 101, GameType.SINGLES);
+
+    private final ReservationDTO doubles = new ReservationDTO("John Doe", "+420 700 000 001",
+            FIRST_DAY.atTime(18, 0), FIRST_DAY.atTime(19, 30), 101, GameType.DOUBLES);
+
+    private ReservationServiceImpl reservationService;
+
+    private UserResolverImpl userResolver;
+
+
+    // The user stub writes, as the MERGE does, only a new phone number or a changed name
+    @Setup
+    public void setUp() {
+        Map<String, String> names = new HashMap<>();
+        Map<String, Long> ids = new HashMap<>();
+        UserDAO userDAO = stub(UserDAO.class, "upsertIfChanged", args -> {
+            String phoneNumber = (String) args[0];
+            if (args[1].equals(names.put(phoneNumber, (String) args[1]))) {
+                return Optional.empty();
+            }
+            return Optional.of(ids.computeIfAbsent(phoneNumber, phone -> ids.size() + 1L));
+        });
+        userResolver = new UserResolverImpl(userDAO, null,
+                new UserIdCacheImpl(10_000, 3_600_000, new SimpleMeterRegistry()));
+        reservationService = service(null, new ReservationIndexImpl(null, false));
+    }
+
+
+    @Benchmark
+    public boolean isValidReservation(Day day) {
+        return day.warmService.isValidReservation(day.startTime, day.endTime, 101, null);
+    }
+
+    @Benchmark
+    public boolean hasOverlappingReservationIndexed(Day day) {
+        return day.warmService.hasOverlappingReservation(day.startTime, day.endTime, 101, null);
+    }
+
+    @Benchmark
+    public boolean hasOverlappingReservationLoaded(Day day) {
+        return day.coldService.hasOverlappingReservation(day.startTime, day.endTime, 101, null);
+    }
+
+    @Benchmark
+    public BigDecimal courtPriceCalculatorSingles() {
+        return reservationService.courtPriceCalculator(court, singles);
+    }
+
+    @Benchmark
+    public BigDecimal courtPriceCalculatorDoubles() {
+        return reservationService.courtPriceCalculator(court, doubles);
+    }
+
+    @Benchmark
+    public UserIdentity resolveUserUnchanged() {
+        return userResolver.resolve(singles.getPhoneNumber(), singles.getUserName());
+    }
+
+    // Alternates the name of the same phone number, so every call writes the user
+    @Benchmark
+    public UserIdentity resolveUserRenamed(Names names) {
+        ReservationDTO reservation = names.next();
+        return userResolver.resolve(reservation.getPhoneNumber(), reservation.getUserName());
+    }
+
+
+    // A week of 12 courts, each court-day holding the given number of 10 minute reservations every 15 minutes
+    // from the opening; the checked reservation takes the free 5 minutes before the closing
+    @State(Scope.Benchmark)
+    public static class Day {
+
+        @Param({"0", "8", "24", "48"})
+        private int reservationsPerDay;
+
+        private final LocalDateTime startTime = FIRST_DAY.atTime(21, 55);
+
+        private final LocalDateTime endTime = FIRST_DAY.atTime(22, 0);
+
+        private ReservationServiceImpl warmService;
+
+        private ReservationServiceImpl coldService;
+
+        @Setup
+        public void setUp() {
+            List<ReservationInterval> intervals = new ArrayList<>();
+            List<Reservation> checkedDay = new ArrayList<>();
+            long id = 0;
+            for (int day = 0; day < DAYS; day++) {
+                for (int courtNumber = 101; courtNumber < 101 + COURTS; courtNumber++) {
+                    LocalDateTime opening = FIRST_DAY.plusDays(day).atTime(LocalTime.of(10, 0));
+                    for (int i = 0; i < reservationsPerDay; i++) {
+                        ReservationInterval interval = new ReservationInterval(++id, courtNumber,
+                                opening.plusMinutes(15L * i), opening.plusMinutes(15L * i + 10));
+                        intervals.add(interval);
+                        if (day == 0 && courtNumber == 101) {
+                            checkedDay.add(reservation(interval));
+                        }
+                    }
+                }
+            }
+
+            ReservationIndexImpl warmIndex = new ReservationIndexImpl(null, true);
+            warmIndex.load(intervals);
+            warmService = service(null, warmIndex);
+
+            ReservationDAO reservationDAO = stub(ReservationDAO.class, "findAllByDateAndCourtNumber",
+                    args -> checkedDay);
+            coldService = service(reservationDAO, new ReservationIndexImpl(null, false));
+        }
+
+        private static Reservation reservation(ReservationInterval interval) {
+            Reservation reservation = new Reservation();
+            reservation.setId(interval.getId());
+            reservation.setStartTime(interval.getStartTime());
+            reservation.setEndTime(interval.getEndTime());
+            return reservation;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Names {
+
+        private final ReservationDTO[] reservations = {
+                new ReservationDTO("John Doe", "+420 700 000 002", FIRST_DAY.atTime(18, 0),
+                        FIRST_DAY.atTime(19, 30), 101, GameType.SINGLES),
+                new ReservationDTO("Jane Doe", "+420 700 000 002", FIRST_DAY.atTime(18, 0),
+                        FIRST_DAY.atTime(19, 30), 101, GameType.SINGLES)
+        };
+
+        private int next;
+
+        ReservationDTO next() {
+            next ^= 1;
+            return reservations[next];
+        }
+    }
+
+
+    // Builds court 101 of a clay surface type priced 1.50 per minute
+    private static Court court() {
+        SurfaceType surfaceType = new SurfaceType();
+        surfaceType.setId(1L);
+        surfaceType.setName("Clay");
+        surfaceType.setMinutePrice(new BigDecimal("1.50"));
+
+        Court court = new Court();
+        court.setId(1L);
+        court.setCourtNumber(101);
+        court.setSurfaceType(surfaceType);
+        return court;
+    }
+
+    // Builds the service; collaborators a benchmark does not reach are left null
+    private static ReservationServiceImpl service(ReservationDAO reservationDAO, ReservationIndexImpl reservationIndex) {
+        return new ReservationServiceImpl(reservationDAO, null, null, null, null, reservationIndex,
+                null, null, new TariffEngineImpl(new TariffProperties()), stub(CollectionVersions.class, "reservationsChanged", args -> null), null,
+                new BookingMetricsImpl(new SimpleMeterRegistry()));
+    }
+
+    // Implements the interface with a single method answered from memory; any other call fails
+    private static <T> T stub(Class<T> type, String methodName, Function<Object[], Object> answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (method.getName().equals(methodName)) {
+                        return answer.apply(args);
+                    }
+                    throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                }));
+    }
+}
@@ -2,6 +2,7 @@ package cz.vojtechsika.tennisclub;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 /**
@@ -10,11 +11,14 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  *
  * <p>When the application starts, a message is printed to the console.</p>
  *
+ * <p>Scheduling is enabled for the nightly archival of past reservations.</p>
+ *
  *
  * @author Vojtěch Šika
  * @since 2025-06-01
  */
 @SpringBootApplication
+@EnableScheduling
 public class TennisClubApplication {
 
 	public static void main(String[] args) {
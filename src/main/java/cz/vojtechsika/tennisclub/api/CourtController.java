@@ -1,13 +1,23 @@
 package cz.vojtechsika.tennisclub.api;
 
 import cz.vojtechsika.tennisclub.dto.CourtDTO;
+import cz.vojtechsika.tennisclub.dto.response.CourtAvailabilityResponseDTO;
 import cz.vojtechsika.tennisclub.dto.response.CourtResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.FreeCourtResponseDTO;
+import cz.vojtechsika.tennisclub.enums.AvailabilityFormat;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.service.AvailabilityService;
 import cz.vojtechsika.tennisclub.service.CourtService;
+import cz.vojtechsika.tennisclub.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -25,15 +35,22 @@ public class CourtController {
      */
     private final CourtService courtService;
 
+    /**
+     * The service responsible for computing court availability.
+     */
+    private final AvailabilityService availabilityService;
+
 
     /**
-     * Constructs a new CourtController with the provided {@link CourtService}.
+     * Constructs a new CourtController with the provided {@link CourtService} and {@link AvailabilityService}.
      *
-     * @param theCourtService The service responsible for managing court-related logic.
+     * @param theCourtService        The service responsible for managing court-related logic.
+     * @param theAvailabilityService The service responsible for computing court availability.
      */
     @Autowired
-    public CourtController(CourtService theCourtService) {
+    public CourtController(CourtService theCourtService, AvailabilityService theAvailabilityService) {
         courtService = theCourtService;
+        availabilityService = theAvailabilityService;
     }
 
 
@@ -42,11 +59,12 @@ public class CourtController {
      * The court details are provided in the request body as a {@link CourtDTO}.
      *
      * @param courtDTO The details of the court to be created.
-     * @return ResponseEntity containing the created {@link CourtResponseDTO} and HTTP status 201 (Created).
+     * @return ResponseEntity containing the created {@link CourtResponseDTO}, its ETag and HTTP status 201 (Created).
      */
     @PostMapping("/create")
     public ResponseEntity<CourtResponseDTO> createCourt(@RequestBody CourtDTO courtDTO) {
-        return new ResponseEntity<>(courtService.save(courtDTO), HttpStatus.CREATED);
+        CourtResponseDTO court = courtService.save(courtDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(court.getVersion())).body(court);
     }
 
     /**
@@ -54,22 +72,31 @@ public class CourtController {
      * The court ID is passed as a path variable.
      *
      * @param id The ID of the court to be retrieved.
-     * @return ResponseEntity containing the {@link CourtResponseDTO} of the requested court and HTTP status 200 (OK).
+     * @return ResponseEntity containing the {@link CourtResponseDTO} of the requested court, its ETag and HTTP status 200 (OK).
      */
     @GetMapping("/{id}")
     public ResponseEntity<CourtResponseDTO> getCourt(@PathVariable Long id) {
-        return new ResponseEntity<>(courtService.getCourtById(id), HttpStatus.OK);
+        CourtResponseDTO court = courtService.getCourtById(id);
+        return ResponseEntity.status(HttpStatus.OK).eTag(ETags.of(court.getVersion())).body(court);
     }
 
     /**
      * Retrieves all tennis courts.
      * Returns a list of {@link CourtResponseDTO} for all courts in the system.
      *
-     * @return ResponseEntity containing a list of all {@link CourtResponseDTO} and HTTP status 200 (OK).
+     * When the {@code If-None-Match} header matches the current ETag of the list, HTTP status 304 (Not Modified)
+     * is returned without loading the courts.
+     *
+     * @param ifNoneMatch The optional {@code If-None-Match} header with the ETag of the client's copy.
+     * @return ResponseEntity containing a list of all {@link CourtResponseDTO}, the list's ETag and HTTP status 200 (OK).
      */
     @GetMapping
-    public ResponseEntity<List<CourtResponseDTO>> getAllCourts() {
-        return new ResponseEntity<>(courtService.getAllCourts(), HttpStatus.OK);
+    public ResponseEntity<List<CourtResponseDTO>> getAllCourts(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = courtService.getAllCourtsETag();
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.status(HttpStatus.OK).eTag(eTag).body(courtService.getAllCourts());
     }
 
 
@@ -77,13 +104,19 @@ public class CourtController {
      * Updates an existing tennis court.
      * The court ID is provided as a path variable, and the updated court details are provided in the request body.
      *
+     * When an {@code If-Match} header is sent, the update is only applied if it matches the current ETag
+     * of the court; otherwise HTTP status 412 (Precondition Failed) is returned.
+     *
      * @param id The ID of the court to be updated.
      * @param courtDTO The updated details of the court.
-     * @return ResponseEntity containing the updated {@link CourtResponseDTO} and HTTP status 200 (OK).
+     * @param ifMatch The optional {@code If-Match} header with the ETag the client based its change on.
+     * @return ResponseEntity containing the updated {@link CourtResponseDTO}, its new ETag and HTTP status 200 (OK).
      */
     @PutMapping("/{id}")
-    public ResponseEntity<CourtResponseDTO> updateCourt(@PathVariable Long id, @RequestBody CourtDTO courtDTO) {
-        return new ResponseEntity<>(courtService.updateCourt(courtDTO, id), HttpStatus.OK);
+    public ResponseEntity<CourtResponseDTO> updateCourt(@PathVariable Long id, @RequestBody CourtDTO courtDTO,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CourtResponseDTO court = courtService.updateCourt(courtDTO, id, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.status(HttpStatus.OK).eTag(ETags.of(court.getVersion())).body(court);
     }
 
 
@@ -102,9 +135,44 @@ public class CourtController {
     }
 
 
+    /**
+     * Retrieves the free time slots of a court for each day in the given date range.
+     * The court is identified by its court number; {@code to} defaults to {@code from} when omitted.
+     * With {@code format=BITMAP} each day is returned as a Base64 encoded slot bitmap instead of a list of free ranges.
+     *
+     * @param courtNumber The number of the court.
+     * @param from        The first day of the range (inclusive), in ISO format (yyyy-MM-dd).
+     * @param to          The last day of the range (inclusive), in ISO format (yyyy-MM-dd).
+     * @param format      The output format of each day, {@code RANGES} by default.
+     * @return ResponseEntity containing the {@link CourtAvailabilityResponseDTO} and HTTP status 200 (OK).
+     */
+    @GetMapping("/{courtNumber}/availability")
+    public ResponseEntity<CourtAvailabilityResponseDTO> getCourtAvailability(
+            @PathVariable int courtNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "RANGES") AvailabilityFormat format) {
+        LocalDate end = to == null ? from : to;
+        return new ResponseEntity<>(availabilityService.getCourtAvailability(courtNumber, from, end, format), HttpStatus.OK);
+    }
 
 
-
-
-
+    /**
+     * Searches for all courts that are free for the whole given time window.
+     * The result can be restricted to one surface type; the price of each court is computed for the given game type.
+     *
+     * @param startTime     The start of the window, in ISO format (e.g., "2025-06-15T18:00").
+     * @param endTime       The end of the window, in ISO format (e.g., "2025-06-15T19:30").
+     * @param surfaceTypeId The ID of the required surface type, or {@code null} for any surface type.
+     * @param gameType      The game type used to compute the price, {@code SINGLES} by default.
+     * @return ResponseEntity containing a list of {@link FreeCourtResponseDTO} ordered by price and HTTP status 200 (OK).
+     */
+    @GetMapping("/free")
+    public ResponseEntity<List<FreeCourtResponseDTO>> findFreeCourts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) Long surfaceTypeId,
+            @RequestParam(defaultValue = "SINGLES") GameType gameType) {
+        return new ResponseEntity<>(availabilityService.findFreeCourts(startTime, endTime, surfaceTypeId, gameType), HttpStatus.OK);
+    }
 }
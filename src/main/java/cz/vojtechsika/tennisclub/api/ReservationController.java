@@ -1,13 +1,27 @@
 package cz.vojtechsika.tennisclub.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import cz.vojtechsika.tennisclub.dto.ReservationBatchDTO;
 import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationBatchResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationPageResponseDTO;
 import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.enums.ReservationFormat;
+import cz.vojtechsika.tennisclub.service.ReservationBatchService;
 import cz.vojtechsika.tennisclub.service.ReservationService;
+import cz.vojtechsika.tennisclub.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
@@ -21,20 +35,47 @@ import java.util.Map;
 @RequestMapping("/api/reservations")
 public class ReservationController {
 
+    /**
+     * Media type of the streaming export, one JSON document per line.
+     */
+    private static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * Page size of the reservation lists when the client does not send {@code limit}.
+     */
+    private static final String DEFAULT_LIMIT = "${app.reservation.page.default-limit:50}";
+
     /**
      * The service responsible for managing reservation-related logic.
      */
     private final ReservationService reservationService;
 
+    /**
+     * The service responsible for creating reservations in batches.
+     */
+    private final ReservationBatchService reservationBatchService;
 
     /**
-     * Constructs a new ReservationController with the provided {@link ReservationService}.
+     * The object mapper writing the lines of the NDJSON export.
+     */
+    private final ObjectMapper objectMapper;
+
+
+    /**
+     * Constructs a new ReservationController with the provided {@link ReservationService},
+     * {@link ReservationBatchService} and {@link ObjectMapper}.
      *
-     * @param theReservationService The service responsible for managing reservation-related logic.
+     * @param theReservationService      The service responsible for managing reservation-related logic.
+     * @param theReservationBatchService The service responsible for creating reservations in batches.
+     * @param theObjectMapper            The object mapper writing the lines of the NDJSON export.
      */
     @Autowired
-    public ReservationController(ReservationService theReservationService) {
+    public ReservationController(ReservationService theReservationService,
+                                 ReservationBatchService theReservationBatchService,
+                                 ObjectMapper theObjectMapper) {
         reservationService = theReservationService;
+        reservationBatchService = theReservationBatchService;
+        objectMapper = theObjectMapper;
     }
 
 
@@ -43,51 +84,103 @@ public class ReservationController {
      * The reservation ID is passed as a path variable.
      *
      * @param id The ID of the reservation to be retrieved.
-     * @return ResponseEntity containing the {@link ReservationResponseDTO} of the requested reservation and HTTP status 200 (OK).
+     * @return ResponseEntity containing the {@link ReservationResponseDTO} of the requested reservation, its ETag and HTTP status 200 (OK).
      */
     @GetMapping("/{id}")
     public ResponseEntity<ReservationResponseDTO> getReservation(@PathVariable Long id) {
-        return new ResponseEntity<>(reservationService.getReservationById(id), HttpStatus.OK);
+        ReservationResponseDTO reservation = reservationService.getReservationById(id);
+        return ResponseEntity.status(HttpStatus.OK).eTag(ETags.of(reservation.getVersion())).body(reservation);
     }
 
 
     /**
-     * Retrieves all reservations for a specific court number.
-     * The court number is passed as a path variable.
+     * Retrieves one page of the reservations for a specific court number, ordered by start time.
+     * The court number is passed as a path variable. When more reservations follow, the {@code Link} header
+     * carries the URL of the next page with its opaque cursor.
      *
      * @param courtNumber The court number for which reservations are to be retrieved.
+     * @param cursor The cursor of the page from the previous {@code Link} header; omitted for the first page.
+     * @param limit The maximum number of reservations on the page.
+     * @param format The encoding of the dates and times: LOCALIZED (default), ISO or EPOCH.
      * @return ResponseEntity containing a list of {@link ReservationResponseDTO} for the specified court and HTTP status 200 (OK).
      */
     @GetMapping("/court/{courtNumber}")
-    public ResponseEntity<List<ReservationResponseDTO>> getReservationByCourtNumber(@PathVariable int courtNumber) {
-        return new ResponseEntity<>(reservationService.getReservationByCourtNumber(courtNumber), HttpStatus.OK);
+    public ResponseEntity<List<ReservationResponseDTO>> getReservationByCourtNumber(@PathVariable int courtNumber,
+                                                                                    @RequestParam(required = false) String cursor,
+                                                                                    @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+                                                                                    @RequestParam(defaultValue = "LOCALIZED") ReservationFormat format) {
+        return toPageResponse(reservationService.getReservationByCourtNumber(courtNumber, cursor, limit, format));
     }
 
 
     /**
-     * Retrieves all reservations for a specific phone number.
+     * Retrieves one page of the reservations for a specific phone number, ordered by start time.
      * Optionally, future reservations only can be filtered via the `futureOnly` query parameter.
+     * When more reservations follow, the {@code Link} header carries the URL of the next page.
+     * When the {@code If-None-Match} header matches the current ETag of the list, HTTP status 304 (Not Modified)
+     * is returned without loading the reservations.
      *
      * @param phoneNumber The phone number for which reservations are to be retrieved.
      * @param futureOnly Whether to only return future reservations (default is false).
-     * @return ResponseEntity containing a list of {@link ReservationResponseDTO} and HTTP status 200 (OK).
+     * @param cursor The cursor of the page from the previous {@code Link} header; omitted for the first page.
+     * @param limit The maximum number of reservations on the page.
+     * @param format The encoding of the dates and times: LOCALIZED (default), ISO or EPOCH.
+     * @param ifNoneMatch The optional {@code If-None-Match} header with the ETag of the client's copy.
+     * @return ResponseEntity containing a list of {@link ReservationResponseDTO}, the list's ETag and HTTP status 200 (OK).
      */
     @GetMapping("/phone/{phoneNumber}")
     public ResponseEntity<List<ReservationResponseDTO>> getReservationByPhoneNumber(@PathVariable String phoneNumber,
-                                                                                    @RequestParam(defaultValue = "false") boolean futureOnly) {
-        return new ResponseEntity<>(reservationService.
-                getReservationByPhoneNumber(phoneNumber, futureOnly), HttpStatus.OK);
+                                                                                    @RequestParam(defaultValue = "false") boolean futureOnly,
+                                                                                    @RequestParam(required = false) String cursor,
+                                                                                    @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+                                                                                    @RequestParam(defaultValue = "LOCALIZED") ReservationFormat format,
+                                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = reservationService.getReservationByPhoneNumberETag(phoneNumber, futureOnly);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return toPageResponse(reservationService.
+                getReservationByPhoneNumber(phoneNumber, futureOnly, cursor, limit, format),
+                ResponseEntity.status(HttpStatus.OK).eTag(eTag));
     }
 
     /**
-     * Retrieves all reservations.
-     * Returns a list of all reservations in the system.
+     * Retrieves one page of all reservations, ordered by start time.
+     * When more reservations follow, the {@code Link} header carries the URL of the next page.
      *
-     * @return ResponseEntity containing a list of all {@link ReservationResponseDTO} and HTTP status 200 (OK).
+     * @param cursor The cursor of the page from the previous {@code Link} header; omitted for the first page.
+     * @param limit The maximum number of reservations on the page.
+     * @param format The encoding of the dates and times: LOCALIZED (default), ISO or EPOCH.
+     * @return ResponseEntity containing a list of {@link ReservationResponseDTO} and HTTP status 200 (OK).
      */
     @GetMapping
-    public ResponseEntity<List<ReservationResponseDTO>> getAllReservations() {
-        return new ResponseEntity<>(reservationService.getAllReservations(), HttpStatus.OK);
+    public ResponseEntity<List<ReservationResponseDTO>> getAllReservations(@RequestParam(required = false) String cursor,
+                                                                           @RequestParam(defaultValue = DEFAULT_LIMIT) int limit,
+                                                                           @RequestParam(defaultValue = "LOCALIZED") ReservationFormat format) {
+        return toPageResponse(reservationService.getAllReservations(cursor, limit, format));
+    }
+
+    /**
+     * Exports all reservations, ordered by start time, as newline-delimited JSON when the client sends
+     * {@code Accept: application/x-ndjson}. Every reservation is written to the response as soon as it is read
+     * from the database, so the export is neither paged nor collected in memory.
+     *
+     * @param format The encoding of the dates and times: LOCALIZED (default), ISO or EPOCH.
+     * @return ResponseEntity streaming one {@link ReservationResponseDTO} per line and HTTP status 200 (OK).
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportAllReservations(
+            @RequestParam(defaultValue = "LOCALIZED") ReservationFormat format) {
+        ObjectWriter writer = objectMapper.writerFor(ReservationResponseDTO.class);
+        StreamingResponseBody body = outputStream -> reservationService.exportAllReservations(format, reservation -> {
+            try {
+                outputStream.write(writer.writeValueAsBytes(reservation));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
 
@@ -111,11 +204,29 @@ public class ReservationController {
      * The reservation details are provided in the request body as a {@link ReservationDTO}.
      *
      * @param reservationDTO The details of the reservation to be created.
-     * @return ResponseEntity containing the created {@link ReservationResponseDTO} and HTTP status 201 (Created).
+     * @return ResponseEntity containing the created {@link ReservationResponseDTO}, its ETag and HTTP status 201 (Created).
      */
     @PostMapping("create")
     public ResponseEntity<ReservationResponseDTO> createReservation(@RequestBody ReservationDTO reservationDTO) {
-        return new ResponseEntity<>(reservationService.createReservation(reservationDTO), HttpStatus.CREATED);
+        ReservationResponseDTO reservation = reservationService.createReservation(reservationDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(reservation.getVersion())).body(reservation);
+    }
+
+
+    /**
+     * Creates many reservations with a single request.
+     * The reservations and the batch mode are provided in the request body as a {@link ReservationBatchDTO}.
+     * The response reports the outcome of every item; it has HTTP status 201 (Created) if at least one reservation
+     * was created and 422 (Unprocessable Entity) otherwise.
+     *
+     * @param reservationBatchDTO The batch mode and the reservations to be created.
+     * @return ResponseEntity containing the {@link ReservationBatchResponseDTO} and HTTP status 201 or 422.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ReservationBatchResponseDTO> createReservations(@RequestBody ReservationBatchDTO reservationBatchDTO) {
+        ReservationBatchResponseDTO batch = reservationBatchService.createReservations(reservationBatchDTO);
+        HttpStatus status = batch.getCreated() > 0 ? HttpStatus.CREATED : HttpStatus.UNPROCESSABLE_ENTITY;
+        return new ResponseEntity<>(batch, status);
     }
 
 
@@ -123,14 +234,36 @@ public class ReservationController {
      * Updates an existing reservation.
      * The reservation ID is provided as a path variable, and the updated reservation details are provided in the request body.
      *
+     * When an {@code If-Match} header is sent, the update is only applied if it matches the current ETag
+     * of the reservation; otherwise HTTP status 412 (Precondition Failed) is returned.
+     *
      * @param id The ID of the reservation to be updated.
      * @param reservationDTO The updated details of the reservation.
-     * @return ResponseEntity containing the updated {@link ReservationResponseDTO} and HTTP status 200 (OK).
+     * @param ifMatch The optional {@code If-Match} header with the ETag the client based its change on.
+     * @return ResponseEntity containing the updated {@link ReservationResponseDTO}, its new ETag and HTTP status 200 (OK).
      */
     @PutMapping("/{id}")
-    public ResponseEntity<ReservationResponseDTO> updateReservation(@PathVariable Long id, @RequestBody ReservationDTO reservationDTO) {
-        return  new ResponseEntity<>(reservationService.updateReservation(reservationDTO, id), HttpStatus.OK);
+    public ResponseEntity<ReservationResponseDTO> updateReservation(@PathVariable Long id, @RequestBody ReservationDTO reservationDTO,
+                                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        ReservationResponseDTO reservation = reservationService.updateReservation(reservationDTO, id, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.status(HttpStatus.OK).eTag(ETags.of(reservation.getVersion())).body(reservation);
     }
 
 
+    // Returns the reservations of the page and links the next page, if any, in the Link header
+    private ResponseEntity<List<ReservationResponseDTO>> toPageResponse(ReservationPageResponseDTO page) {
+        return toPageResponse(page, ResponseEntity.status(HttpStatus.OK));
+    }
+
+    // Completes the given response with the reservations of the page and the Link header of the next page
+    private ResponseEntity<List<ReservationResponseDTO>> toPageResponse(ReservationPageResponseDTO page,
+                                                                        ResponseEntity.BodyBuilder response) {
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.getNextCursor())
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.getReservations());
+    }
 }
@@ -0,0 +1,96 @@
+package cz.vojtechsika.tennisclub.api;
+
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesMoveDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationSeriesResponseDTO;
+import cz.vojtechsika.tennisclub.service.ReservationSeriesService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+
+/**
+ * ReservationSeriesController is a REST controller that manages recurring reservation series.
+ * It provides endpoints for creating, retrieving, moving and cancelling a series as a whole.
+ * The controller interacts with the {@link ReservationSeriesService} to handle the business logic.
+ */
+@RestController
+@RequestMapping("/api/reservations/series")
+public class ReservationSeriesController {
+
+    /**
+     * The service responsible for managing reservation series.
+     */
+    private final ReservationSeriesService reservationSeriesService;
+
+
+    /**
+     * Constructs a new ReservationSeriesController with the provided {@link ReservationSeriesService}.
+     *
+     * @param theReservationSeriesService The service responsible for managing reservation series.
+     */
+    @Autowired
+    public ReservationSeriesController(ReservationSeriesService theReservationSeriesService) {
+        reservationSeriesService = theReservationSeriesService;
+    }
+
+
+    /**
+     * Creates a new recurring reservation series.
+     * The series details are provided in the request body as a {@link ReservationSeriesDTO}.
+     *
+     * @param reservationSeriesDTO The details of the series to be created.
+     * @return ResponseEntity containing the created {@link ReservationSeriesResponseDTO} and HTTP status 201 (Created).
+     */
+    @PostMapping
+    public ResponseEntity<ReservationSeriesResponseDTO> createSeries(@RequestBody ReservationSeriesDTO reservationSeriesDTO) {
+        return new ResponseEntity<>(reservationSeriesService.createSeries(reservationSeriesDTO), HttpStatus.CREATED);
+    }
+
+
+    /**
+     * Retrieves a reservation series with its active occurrences.
+     * The series ID is passed as a path variable.
+     *
+     * @param id The ID of the series to be retrieved.
+     * @return ResponseEntity containing the {@link ReservationSeriesResponseDTO} and HTTP status 200 (OK).
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ReservationSeriesResponseDTO> getSeries(@PathVariable Long id) {
+        return new ResponseEntity<>(reservationSeriesService.getSeriesById(id), HttpStatus.OK);
+    }
+
+
+    /**
+     * Moves all upcoming occurrences of a reservation series by the same number of minutes.
+     * The series ID is passed as a path variable and the shift in the request body.
+     *
+     * @param id                       The ID of the series to be moved.
+     * @param reservationSeriesMoveDTO The number of minutes the occurrences are moved by.
+     * @return ResponseEntity containing the moved {@link ReservationSeriesResponseDTO} and HTTP status 200 (OK).
+     */
+    @PutMapping("/{id}/move")
+    public ResponseEntity<ReservationSeriesResponseDTO> moveSeries(@PathVariable Long id,
+                                                                   @RequestBody ReservationSeriesMoveDTO reservationSeriesMoveDTO) {
+        return new ResponseEntity<>(reservationSeriesService.moveSeries(id, reservationSeriesMoveDTO), HttpStatus.OK);
+    }
+
+
+    /**
+     * Cancels a reservation series: all its upcoming occurrences are deleted.
+     * The series ID is passed as a path variable.
+     *
+     * @param id The ID of the series to be cancelled.
+     * @return ResponseEntity containing a message confirming the cancellation and HTTP status 200 (OK).
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, String>> cancelSeries(@PathVariable Long id) {
+        int deleted = reservationSeriesService.cancelSeries(id);
+        Map<String, String> response = Map.of("message", "Reservation series with id " + id
+                + " was cancelled, " + deleted + " upcoming reservations were deleted");
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
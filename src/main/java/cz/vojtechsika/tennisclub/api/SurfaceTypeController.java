@@ -3,7 +3,9 @@ package cz.vojtechsika.tennisclub.api;
 import cz.vojtechsika.tennisclub.dto.SurfaceTypeDTO;
 import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
 import cz.vojtechsika.tennisclub.service.SurfaceTypeService;
+import cz.vojtechsika.tennisclub.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -42,11 +44,12 @@ public class SurfaceTypeController {
      * The surface type details are provided in the request body as a {@link SurfaceTypeDTO}.
      *
      * @param surfaceTypeDTO The details of the surface type to be created.
-     * @return ResponseEntity containing the created {@link SurfaceTypeResponseDTO} and HTTP status 201 (Created).
+     * @return ResponseEntity containing the created {@link SurfaceTypeResponseDTO}, its ETag and HTTP status 201 (Created).
      */
     @PostMapping(value= "/create",produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<SurfaceTypeResponseDTO> createSurfaceType(@RequestBody SurfaceTypeDTO surfaceTypeDTO) {
-        return new ResponseEntity<>(surfaceTypeService.saveSurfaceType(surfaceTypeDTO), HttpStatus.CREATED);
+        SurfaceTypeResponseDTO surfaceType = surfaceTypeService.saveSurfaceType(surfaceTypeDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(surfaceType.getVersion())).body(surfaceType);
     }
 
 
@@ -55,11 +58,12 @@ public class SurfaceTypeController {
      * The surface type ID is passed as a path variable.
      *
      * @param id The ID of the surface type to be retrieved.
-     * @return ResponseEntity containing the {@link SurfaceTypeResponseDTO} of the requested surface type and HTTP status 200 (OK).
+     * @return ResponseEntity containing the {@link SurfaceTypeResponseDTO} of the requested surface type, its ETag and HTTP status 200 (OK).
      */
     @GetMapping("/{id}")
     public ResponseEntity<SurfaceTypeResponseDTO> getSurfaceType(@PathVariable Long id) {
-        return new ResponseEntity<>(surfaceTypeService.getSurfaceTypeById(id),HttpStatus.OK);
+        SurfaceTypeResponseDTO surfaceType = surfaceTypeService.getSurfaceTypeById(id);
+        return ResponseEntity.status(HttpStatus.OK).eTag(ETags.of(surfaceType.getVersion())).body(surfaceType);
     }
 
 
@@ -67,11 +71,19 @@ public class SurfaceTypeController {
      * Retrieves all surface types.
      * Returns a list of all surface types in the system.
      *
-     * @return ResponseEntity containing a list of all {@link SurfaceTypeResponseDTO} and HTTP status 200 (OK).
+     * When the {@code If-None-Match} header matches the current ETag of the list, HTTP status 304 (Not Modified)
+     * is returned without loading the surface types.
+     *
+     * @param ifNoneMatch The optional {@code If-None-Match} header with the ETag of the client's copy.
+     * @return ResponseEntity containing a list of all {@link SurfaceTypeResponseDTO}, the list's ETag and HTTP status 200 (OK).
      */
     @GetMapping
-    public ResponseEntity<List<SurfaceTypeResponseDTO>> getAllSurfaceTypes() {
-        return new ResponseEntity<>(surfaceTypeService.getAllSurfaceTypes(), HttpStatus.OK);
+    public ResponseEntity<List<SurfaceTypeResponseDTO>> getAllSurfaceTypes(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = surfaceTypeService.getAllSurfaceTypesETag();
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.status(HttpStatus.OK).eTag(eTag).body(surfaceTypeService.getAllSurfaceTypes());
     }
 
 
@@ -79,14 +91,20 @@ public class SurfaceTypeController {
      * Updates an existing surface type.
      * The surface type ID is provided as a path variable, and the updated surface type details are provided in the request body.
      *
+     * When an {@code If-Match} header is sent, the update is only applied if it matches the current ETag
+     * of the surface type; otherwise HTTP status 412 (Precondition Failed) is returned.
+     *
      * @param id The ID of the surface type to be updated.
      * @param surfaceTypeDTO The updated details of the surface type.
-     * @return ResponseEntity containing the updated {@link SurfaceTypeResponseDTO} and HTTP status 200 (OK).
+     * @param ifMatch The optional {@code If-Match} header with the ETag the client based its change on.
+     * @return ResponseEntity containing the updated {@link SurfaceTypeResponseDTO}, its new ETag and HTTP status 200 (OK).
      */
     @PutMapping("/{id}")
     public ResponseEntity<SurfaceTypeResponseDTO> updateSurfaceType(@PathVariable Long id,
-                                                                    @RequestBody SurfaceTypeDTO surfaceTypeDTO) {
-        return new ResponseEntity<>(surfaceTypeService.updateSurfaceType(surfaceTypeDTO, id), HttpStatus.OK);
+                                                                    @RequestBody SurfaceTypeDTO surfaceTypeDTO,
+                                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        SurfaceTypeResponseDTO surfaceType = surfaceTypeService.updateSurfaceType(surfaceTypeDTO, id, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.status(HttpStatus.OK).eTag(ETags.of(surfaceType.getVersion())).body(surfaceType);
     }
 
 
@@ -2,6 +2,7 @@ package cz.vojtechsika.tennisclub.api.advice;
 
 import cz.vojtechsika.tennisclub.dto.error.ApiErrorDTO;
 import cz.vojtechsika.tennisclub.exception.*;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -106,4 +107,105 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
 
     }
+
+
+    /**
+     * Handles the {@link InvalidDateRangeException}.
+     * When a requested date range is reversed or too long, it returns a response with HTTP status 400 (Bad Request).
+     *
+     * @param e The exception that was caught.
+     * @return ResponseEntity containing error details and HTTP status code 400.
+     */
+    @ExceptionHandler(InvalidDateRangeException.class)
+    public ResponseEntity<ApiErrorDTO> handleInvalidDateRangeException(RuntimeException e){
+
+        ApiErrorDTO error = new ApiErrorDTO();
+        error.setStatusCode(HttpStatus.BAD_REQUEST.value());
+        error.setMessage(e.getMessage());
+        error.setTimestamp(System.currentTimeMillis());
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+
+    /**
+     * Handles exceptions of type {@link InvalidBatchException}, {@link InvalidSeriesException} and
+     * {@link InvalidPageRequestException}. When a batch request is empty or too large, a reservation series
+     * cannot be expanded into occurrences, or a page is requested with an unknown cursor or size,
+     * it returns a response with HTTP status 400 (Bad Request).
+     *
+     * @param e The exception that was caught.
+     * @return ResponseEntity containing error details and HTTP status code 400.
+     */
+    @ExceptionHandler({InvalidBatchException.class, InvalidSeriesException.class,
+            InvalidPageRequestException.class})
+    public ResponseEntity<ApiErrorDTO> handleInvalidBatchException(RuntimeException e){
+
+        ApiErrorDTO error = new ApiErrorDTO();
+        error.setStatusCode(HttpStatus.BAD_REQUEST.value());
+        error.setMessage(e.getMessage());
+        error.setTimestamp(System.currentTimeMillis());
+
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+
+    /**
+     * Handles the {@link ReservationLockTimeoutException}.
+     * When the court and day are being booked by another request for too long, it returns a response
+     * with HTTP status 409 (Conflict) so the client can retry.
+     *
+     * @param e The exception that was caught.
+     * @return ResponseEntity containing error details and HTTP status code 409.
+     */
+    @ExceptionHandler(ReservationLockTimeoutException.class)
+    public ResponseEntity<ApiErrorDTO> handleReservationLockTimeoutException(RuntimeException e){
+
+        ApiErrorDTO error = new ApiErrorDTO();
+        error.setStatusCode(HttpStatus.CONFLICT.value());
+        error.setMessage(e.getMessage());
+        error.setTimestamp(System.currentTimeMillis());
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+
+    /**
+     * Handles the {@link VersionMismatchException}.
+     * When the client's {@code If-Match} version no longer matches the current version of the resource,
+     * it returns a response with HTTP status 412 (Precondition Failed) so the client can reload and retry.
+     *
+     * @param e The exception that was caught.
+     * @return ResponseEntity containing error details and HTTP status code 412.
+     */
+    @ExceptionHandler(VersionMismatchException.class)
+    public ResponseEntity<ApiErrorDTO> handleVersionMismatchException(RuntimeException e){
+
+        ApiErrorDTO error = new ApiErrorDTO();
+        error.setStatusCode(HttpStatus.PRECONDITION_FAILED.value());
+        error.setMessage(e.getMessage());
+        error.setTimestamp(System.currentTimeMillis());
+
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+    }
+
+
+    /**
+     * Handles the {@link OptimisticLockingFailureException}.
+     * When concurrent changes of the same entity keep colliding even after the automatic retries,
+     * it returns a response with HTTP status 409 (Conflict).
+     *
+     * @param e The exception that was caught.
+     * @return ResponseEntity containing error details and HTTP status code 409.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiErrorDTO> handleOptimisticLockingFailureException(RuntimeException e){
+
+        ApiErrorDTO error = new ApiErrorDTO();
+        error.setStatusCode(HttpStatus.CONFLICT.value());
+        error.setMessage("The resource was modified concurrently by another request. Please try again.");
+        error.setTimestamp(System.currentTimeMillis());
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
 }
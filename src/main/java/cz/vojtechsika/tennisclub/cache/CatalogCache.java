@@ -0,0 +1,85 @@
+package cz.vojtechsika.tennisclub.cache;
+
+import cz.vojtechsika.tennisclub.dto.response.CourtResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CatalogCache is a bounded read-through cache of the club's catalog: the active courts and surface types.
+ * These tables hold a few dozen rows and change rarely, while every court read and availability lookup needs them.
+ *
+ * <p>Entries are detached response DTOs, never managed entities, so they can be shared between requests
+ * and threads. Callers must not modify the returned objects. A missing court or surface type is not cached,
+ * so a newly created one is visible immediately.</p>
+ *
+ * <p>The cache does not watch the database. The services changing courts and surface types evict the
+ * affected entries once their transaction has been committed, on their own instance only; other instances see
+ * the change when their entries expire. Write paths therefore read the court from the database, never from
+ * this cache.</p>
+ */
+public interface CatalogCache {
+
+    /**
+     * Returns the active court with the given ID, loading it on a miss.
+     *
+     * @param id The ID of the court.
+     * @return An {@link Optional} containing the court, or empty if no active court has that ID.
+     */
+    Optional<CourtResponseDTO> findCourtById(Long id);
+
+
+    /**
+     * Returns the active court with the given number, loading it on a miss.
+     *
+     * @param courtNumber The number of the court.
+     * @return An {@link Optional} containing the court, or empty if no active court has that number.
+     */
+    Optional<CourtResponseDTO> findCourtByCourtNumber(int courtNumber);
+
+
+    /**
+     * Returns all active courts, loading them on a miss.
+     *
+     * @return An unmodifiable list of all active courts.
+     */
+    List<CourtResponseDTO> findAllCourts();
+
+
+    /**
+     * Returns the active surface type with the given ID, loading it on a miss.
+     *
+     * @param id The ID of the surface type.
+     * @return An {@link Optional} containing the surface type, or empty if no active surface type has that ID.
+     */
+    Optional<SurfaceTypeResponseDTO> findSurfaceTypeById(Long id);
+
+
+    /**
+     * Returns all active surface types, loading them on a miss.
+     *
+     * @return An unmodifiable list of all active surface types.
+     */
+    List<SurfaceTypeResponseDTO> findAllSurfaceTypes();
+
+
+    /**
+     * Evicts a court that has been created, changed or deleted: its entries by ID and by the given court
+     * numbers, and the list of all courts.
+     *
+     * @param id           The ID of the court, or {@code null} for a new court.
+     * @param courtNumbers The court numbers the court had or has now.
+     */
+    void evictCourt(Long id, int... courtNumbers);
+
+
+    /**
+     * Evicts a surface type that has been created, changed or deleted: its entry by ID, the list of all surface
+     * types, and every cached court of that surface type together with the list of all courts, because the courts
+     * carry the surface type's name and price.
+     *
+     * @param id The ID of the surface type.
+     */
+    void evictSurfaceType(Long id);
+}
@@ -0,0 +1,292 @@
+package cz.vojtechsika.tennisclub.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.SurfaceTypeDAO;
+import cz.vojtechsika.tennisclub.dto.mapper.CourtMapper;
+import cz.vojtechsika.tennisclub.dto.mapper.SurfaceTypeMapper;
+import cz.vojtechsika.tennisclub.dto.response.CourtResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+
+/**
+ * CatalogCacheImpl is a Caffeine based implementation of {@link CatalogCache}.
+ * <p>
+ * Courts are cached by ID, by court number and as the list of all courts; surface types by ID and as the list
+ * of all surface types. Each cache holds at most {@code app.catalog.cache.maximum-size} entries and drops an
+ * entry {@code app.catalog.cache.expire-after-write-ms} after it was loaded, which bounds the staleness should an
+ * eviction ever be missed. A miss loads the entry with one query through {@link CourtDAO} or {@link SurfaceTypeDAO};
+ * concurrent misses of the same key wait for a single load.
+ * </p>
+ * <p>
+ * The caches are asynchronous so that the query runs outside of the cache's internal map. A synchronous Caffeine
+ * cache loads inside {@code ConcurrentHashMap.compute}, whose bin lock is a {@code synchronized} block, and a
+ * virtual thread blocking on JDBC in there would pin its carrier thread. Here only an empty future is created
+ * inside the map; the thread that created it runs the query and completes it, while concurrent misses wait on
+ * the future without holding any monitor.
+ * </p>
+ * <p>
+ * Every cache publishes the Micrometer cache metrics tagged with {@code cache=catalog.<name>}:
+ * <ul>
+ *     <li>{@code cache.gets} with {@code result=hit} or {@code result=miss},</li>
+ *     <li>{@code cache.evictions} – entries dropped because of the size bound or expiry,</li>
+ *     <li>{@code cache.size} – the current number of entries.</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class CatalogCacheImpl implements CatalogCache {
+
+    /**
+     * The only key of the caches holding a whole list.
+     */
+    private static final String ALL = "all";
+
+    /**
+     * DAO for court persistence operations.
+     */
+    private final CourtDAO courtDAO;
+
+    /**
+     * DAO for surface type persistence operations.
+     */
+    private final SurfaceTypeDAO surfaceTypeDAO;
+
+    /**
+     * Mapper to convert a {@link Court} to a {@link CourtResponseDTO}.
+     */
+    private final CourtMapper courtMapper;
+
+    /**
+     * Mapper to convert a surface type to a {@link SurfaceTypeResponseDTO}.
+     */
+    private final SurfaceTypeMapper surfaceTypeMapper;
+
+    /**
+     * Active courts by ID.
+     */
+    private final AsyncCache<Long, CourtResponseDTO> courtsById;
+
+    /**
+     * Active courts by court number.
+     */
+    private final AsyncCache<Integer, CourtResponseDTO> courtsByNumber;
+
+    /**
+     * The list of all active courts under the key {@value #ALL}.
+     */
+    private final AsyncCache<String, List<CourtResponseDTO>> allCourts;
+
+    /**
+     * Active surface types by ID.
+     */
+    private final AsyncCache<Long, SurfaceTypeResponseDTO> surfaceTypesById;
+
+    /**
+     * The list of all active surface types under the key {@value #ALL}.
+     */
+    private final AsyncCache<String, List<SurfaceTypeResponseDTO>> allSurfaceTypes;
+
+
+    /**
+     * Constructs a new CatalogCacheImpl and registers the metrics of its caches.
+     *
+     * @param theCourtDAO              DAO for court persistence operations.
+     * @param theSurfaceTypeDAO        DAO for surface type persistence operations.
+     * @param theCourtMapper           Mapper to convert a court to a response DTO.
+     * @param theSurfaceTypeMapper     Mapper to convert a surface type to a response DTO.
+     * @param theMaximumSize           The maximum number of entries of each cache ({@code app.catalog.cache.maximum-size}).
+     * @param theExpireAfterWriteMillis How long an entry is kept after it was loaded, in milliseconds
+     *                                 ({@code app.catalog.cache.expire-after-write-ms}).
+     * @param theMeterRegistry         The registry to publish cache metrics to.
+     */
+    @Autowired
+    public CatalogCacheImpl(CourtDAO theCourtDAO,
+                            SurfaceTypeDAO theSurfaceTypeDAO,
+                            CourtMapper theCourtMapper,
+                            SurfaceTypeMapper theSurfaceTypeMapper,
+                            @Value("${app.catalog.cache.maximum-size:1000}") long theMaximumSize,
+                            @Value("${app.catalog.cache.expire-after-write-ms:600000}") long theExpireAfterWriteMillis,
+                            MeterRegistry theMeterRegistry) {
+        if (theMaximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size of the catalog cache must be positive, got " + theMaximumSize);
+        }
+        courtDAO = theCourtDAO;
+        surfaceTypeDAO = theSurfaceTypeDAO;
+        courtMapper = theCourtMapper;
+        surfaceTypeMapper = theSurfaceTypeMapper;
+
+        Duration expireAfterWrite = Duration.ofMillis(theExpireAfterWriteMillis);
+        courtsById = build("courts.by-id", theMaximumSize, expireAfterWrite, theMeterRegistry);
+        courtsByNumber = build("courts.by-number", theMaximumSize, expireAfterWrite, theMeterRegistry);
+        allCourts = build("courts.all", 1, expireAfterWrite, theMeterRegistry);
+        surfaceTypesById = build("surface-types.by-id", theMaximumSize, expireAfterWrite, theMeterRegistry);
+        allSurfaceTypes = build("surface-types.all", 1, expireAfterWrite, theMeterRegistry);
+    }
+
+
+    /**
+     * Returns the active court with the given ID from the cache, loading it with {@link CourtDAO#findById(Long)}
+     * on a miss.
+     *
+     * @param id The ID of the court.
+     * @return An {@link Optional} containing the court, or empty if no active court has that ID.
+     */
+    @Override
+    public Optional<CourtResponseDTO> findCourtById(Long id) {
+        return Optional.ofNullable(get(courtsById, id, key ->
+                courtDAO.findById(key).map(this::toCourtResponseDTO).orElse(null)));
+    }
+
+
+    /**
+     * Returns the active court with the given number from the cache, loading it with
+     * {@link CourtDAO#findByCourtNumber(int)} on a miss.
+     *
+     * @param courtNumber The number of the court.
+     * @return An {@link Optional} containing the court, or empty if no active court has that number.
+     */
+    @Override
+    public Optional<CourtResponseDTO> findCourtByCourtNumber(int courtNumber) {
+        return Optional.ofNullable(get(courtsByNumber, courtNumber, key ->
+                courtDAO.findByCourtNumber(key).map(this::toCourtResponseDTO).orElse(null)));
+    }
+
+
+    /**
+     * Returns all active courts from the cache, loading them with {@link CourtDAO#findAll()} on a miss.
+     *
+     * @return An unmodifiable list of all active courts.
+     */
+    @Override
+    public List<CourtResponseDTO> findAllCourts() {
+        return get(allCourts, ALL, key -> courtDAO.findAll().stream()
+                .map(this::toCourtResponseDTO)
+                .toList());
+    }
+
+
+    /**
+     * Returns the active surface type with the given ID from the cache, loading it with
+     * {@link SurfaceTypeDAO#findById(Long)} on a miss.
+     *
+     * @param id The ID of the surface type.
+     * @return An {@link Optional} containing the surface type, or empty if no active surface type has that ID.
+     */
+    @Override
+    public Optional<SurfaceTypeResponseDTO> findSurfaceTypeById(Long id) {
+        return Optional.ofNullable(get(surfaceTypesById, id, key ->
+                surfaceTypeDAO.findById(key).map(surfaceTypeMapper::toResponseDTO).orElse(null)));
+    }
+
+
+    /**
+     * Returns all active surface types from the cache, loading them with {@link SurfaceTypeDAO#findAll()} on a miss.
+     *
+     * @return An unmodifiable list of all active surface types.
+     */
+    @Override
+    public List<SurfaceTypeResponseDTO> findAllSurfaceTypes() {
+        return get(allSurfaceTypes, ALL, key -> surfaceTypeDAO.findAll().stream()
+                .map(surfaceTypeMapper::toResponseDTO)
+                .toList());
+    }
+
+
+    /**
+     * Evicts the court's entries by ID and by each given court number, and the list of all courts.
+     *
+     * @param id           The ID of the court, or {@code null} for a new court.
+     * @param courtNumbers The court numbers the court had or has now.
+     */
+    @Override
+    public void evictCourt(Long id, int... courtNumbers) {
+        if (id != null) {
+            courtsById.synchronous().invalidate(id);
+        }
+        for (int courtNumber : courtNumbers) {
+            courtsByNumber.synchronous().invalidate(courtNumber);
+        }
+        allCourts.synchronous().invalidateAll();
+    }
+
+
+    /**
+     * Evicts the surface type's entry by ID, the list of all surface types, every cached court of that surface
+     * type and the list of all courts.
+     *
+     * @param id The ID of the surface type.
+     */
+    @Override
+    public void evictSurfaceType(Long id) {
+        surfaceTypesById.synchronous().invalidate(id);
+        allSurfaceTypes.synchronous().invalidateAll();
+
+        courtsById.synchronous().asMap().values().removeIf(court -> hasSurfaceType(court, id));
+        courtsByNumber.synchronous().asMap().values().removeIf(court -> hasSurfaceType(court, id));
+        allCourts.synchronous().invalidateAll();
+    }
+
+
+    // Builds a bounded cache recording its statistics and binds them to the meter registry; the caches are small,
+    // so their maintenance runs on the calling thread and an eviction is counted before the call returns
+    private static <K, V> AsyncCache<K, V> build(String name, long maximumSize, Duration expireAfterWrite,
+                                                 MeterRegistry meterRegistry) {
+        AsyncCache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "catalog." + name);
+    }
+
+    // Returns the cached value, loading it on the calling thread on a miss; a load completing with null or
+    // an exception is not cached
+    private static <K, V> V get(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(loader.apply(key));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Another thread's load failed, rethrow its exception as is
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Converts a court, whose surface type has been fetched by the same query, to a detached response DTO
+    private CourtResponseDTO toCourtResponseDTO(Court court) {
+        return courtMapper.toResponseDTO(court, surfaceTypeMapper.toResponseDTO(court.getSurfaceType()));
+    }
+
+    // Checks whether a cached court has the given surface type
+    private static boolean hasSurfaceType(CourtResponseDTO court, Long surfaceTypeId) {
+        return court.getSurfaceTypeResponseDTO() != null
+                && surfaceTypeId.equals(court.getSurfaceTypeResponseDTO().getId());
+    }
+}
@@ -0,0 +1,76 @@
+package cz.vojtechsika.tennisclub.cache;
+
+/**
+ * CollectionVersions keeps a version stamp for each collection the clients poll: all courts, all surface types and
+ * the reservations of each phone number. The stamps are sent as the collections' ETags, so a client whose copy is
+ * still current is answered with {@code 304 Not Modified} without loading or mapping the collection. The stamps are
+ * shared by all application instances, whichever of them the client asks.
+ *
+ * <p>The services record every write inside the transaction making it, so the new stamp becomes visible exactly
+ * when the data does and is discarded with it on a rollback. A stamp is read before the data it describes, so a
+ * response may pair an old stamp with new data (and the client only downloads the collection once more), but never
+ * a new stamp with old data.</p>
+ *
+ * <p>Stamps only grow, also across restarts, so a stamp once seen by a client is never reused for different
+ * content. Two stamps are only ever compared for equality.</p>
+ */
+public interface CollectionVersions {
+
+    /**
+     * Returns the version stamp of the list of all courts.
+     *
+     * @return The current stamp.
+     */
+    long courts();
+
+
+    /**
+     * Returns the version stamp of the list of all surface types.
+     *
+     * @return The current stamp.
+     */
+    long surfaceTypes();
+
+
+    /**
+     * Returns the version stamp of the reservations made by the given phone number.
+     *
+     * @param phoneNumber The phone number of the user.
+     * @return The current stamp.
+     */
+    long reservationsByPhoneNumber(String phoneNumber);
+
+
+    /**
+     * Records a change of a court, or of a surface type embedded in the courts, in the current transaction.
+     *
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active.
+     */
+    void courtsChanged();
+
+
+    /**
+     * Records a change of a surface type in the current transaction.
+     *
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active.
+     */
+    void surfaceTypesChanged();
+
+
+    /**
+     * Records a change of reservations made by the given phone numbers in the current transaction.
+     *
+     * @param phoneNumbers The phone numbers whose reservations have been created, changed or deleted.
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active.
+     */
+    void reservationsChanged(String... phoneNumbers);
+
+
+    /**
+     * Records a change that may affect the reservations of any phone number, e.g. a renumbered or deleted court,
+     * in the current transaction.
+     *
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active.
+     */
+    void allReservationsChanged();
+}
@@ -0,0 +1,155 @@
+package cz.vojtechsika.tennisclub.cache;
+
+import cz.vojtechsika.tennisclub.entity.CollectionVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * CollectionVersionsImpl is the implementation of {@link CollectionVersions} keeping the stamps in the
+ * {@link CollectionVersion} table, so every application instance sharing the database hands out the same stamps
+ * and a change recorded by one instance turns the clients' copies stale on all of them.
+ * <p>
+ * Every change takes the next value of the {@code collection_version_seq} sequence, created by {@code schema.sql}
+ * when the database is created, beginning at that time in milliseconds shifted left by 20 bits, so the stamps keep
+ * growing when an in-memory database is created anew on a restart, as long as a run records fewer than about a
+ * million changes for every millisecond between its start and the next one.
+ * </p>
+ * <p>
+ * The stamp of a phone number is the newer of the stamp of its own row and the stamp of the last change of all
+ * reservations; a phone number without a row has only the latter. Reading a stamp costs one primary-key lookup.
+ * The changes are written by the transaction that made them, so a stamp is committed or rolled back together with
+ * its data. Writers of the same collection wait for each other's commit on its row. The phone numbers of one change
+ * are written in sorted order and the services touch the fixed collections in one order (surface types, courts, all
+ * reservations), so two writers never wait for each other in a cycle.
+ * </p>
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class CollectionVersionsImpl implements CollectionVersions {
+
+    /**
+     * The name of the stamp of the list of all courts.
+     */
+    static final String COURTS = "courts";
+
+    /**
+     * The name of the stamp of the list of all surface types.
+     */
+    static final String SURFACE_TYPES = "surface-types";
+
+    /**
+     * The name of the stamp of the last change that affected the reservations of every phone number.
+     */
+    static final String ALL_RESERVATIONS = "reservations";
+
+    /**
+     * The prefix of the names of the stamps of the reservations by phone number.
+     */
+    static final String RESERVATIONS_OF = "reservations:";
+
+    /**
+     * Sets the stamp of a collection to the next sequence value, inserting the row of a new collection.
+     */
+    private static final String TOUCH = "MERGE INTO collection_version v" +
+            " USING (VALUES (CAST(? AS VARCHAR(300)))) AS s(name) ON v.name = s.name" +
+            " WHEN MATCHED THEN UPDATE SET stamp = NEXT VALUE FOR collection_version_seq" +
+            " WHEN NOT MATCHED THEN INSERT (name, stamp) VALUES (s.name, NEXT VALUE FOR collection_version_seq)";
+
+    /**
+     * The JDBC template reading and writing the stamps.
+     */
+    private final JdbcTemplate jdbc;
+
+
+
+    /**
+     * Constructs a new CollectionVersionsImpl and creates the stamps of the fixed collections unless another
+     * instance has already done so.
+     *
+     * @param theJdbc The JDBC template reading and writing the stamps.
+     */
+    @Autowired
+    public CollectionVersionsImpl(JdbcTemplate theJdbc) {
+        jdbc = theJdbc;
+
+        jdbc.update("MERGE INTO collection_version v" +
+                        " USING (VALUES (?), (?), (?)) AS s(name) ON v.name = s.name" +
+                        " WHEN NOT MATCHED THEN INSERT (name, stamp)" +
+                        " VALUES (s.name, NEXT VALUE FOR collection_version_seq)",
+                COURTS, SURFACE_TYPES, ALL_RESERVATIONS);
+    }
+
+
+    @Override
+    public long courts() {
+        return stamp(COURTS);
+    }
+
+
+    @Override
+    public long surfaceTypes() {
+        return stamp(SURFACE_TYPES);
+    }
+
+
+    @Override
+    public long reservationsByPhoneNumber(String phoneNumber) {
+        return jdbc.queryForObject("SELECT MAX(stamp) FROM collection_version WHERE name IN (?, ?)", Long.class,
+                ALL_RESERVATIONS, RESERVATIONS_OF + phoneNumber);
+    }
+
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void courtsChanged() {
+        touch(COURTS);
+    }
+
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void surfaceTypesChanged() {
+        touch(SURFACE_TYPES);
+    }
+
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void reservationsChanged(String... phoneNumbers) {
+        touch(Arrays.stream(phoneNumbers)
+                .distinct()
+                .sorted()
+                .map(phoneNumber -> RESERVATIONS_OF + phoneNumber)
+                .toArray(String[]::new));
+    }
+
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void allReservationsChanged() {
+        touch(ALL_RESERVATIONS);
+    }
+
+
+    // The stamp of one of the fixed collections
+    private long stamp(String name) {
+        return jdbc.queryForObject("SELECT stamp FROM collection_version WHERE name = ?", Long.class, name);
+    }
+
+    // Gives the collections new stamps in one batch of the caller's transaction
+    private void touch(String... names) {
+        if (names.length == 0) {
+            return;
+        }
+        List<Object[]> batchArgs = Arrays.stream(names).map(name -> new Object[]{name}).toList();
+        jdbc.batchUpdate(TOUCH, batchArgs);
+    }
+}
@@ -0,0 +1,40 @@
+package cz.vojtechsika.tennisclub.cache;
+
+import java.util.Optional;
+
+/**
+ * UserIdCache is a bounded cache mapping the phone numbers of customers to their user ID. A user keeps its ID for
+ * good, as the phone number is unique and a deleted user is reactivated rather than inserted anew, so the mapping
+ * never turns stale, whichever application instance changes the user. The name is not cached: it may be changed by
+ * another instance at any time, so whether a booking renames its user is always decided by the database.
+ *
+ * <p>Only committed users are put into the cache, so an entry never refers to a user whose insert was rolled
+ * back.</p>
+ */
+public interface UserIdCache {
+
+    /**
+     * Returns the cached ID of the user with the given phone number. A miss does not query the database.
+     *
+     * @param phoneNumber The phone number of the user.
+     * @return An {@link Optional} containing the user's ID, or empty if it is not cached.
+     */
+    Optional<Long> findId(String phoneNumber);
+
+
+    /**
+     * Caches the ID of a committed user, replacing any previous entry of its phone number.
+     *
+     * @param phoneNumber The phone number of the user.
+     * @param id          The ID of the user.
+     */
+    void put(String phoneNumber, Long id);
+
+
+    /**
+     * Evicts the entry of the given phone number.
+     *
+     * @param phoneNumber The phone number of a user that has been changed.
+     */
+    void evict(String phoneNumber);
+}
@@ -0,0 +1,91 @@
+package cz.vojtechsika.tennisclub.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+
+/**
+ * UserIdCacheImpl is a Caffeine based implementation of {@link UserIdCache}.
+ * <p>
+ * The cache holds at most {@code app.user.cache.maximum-size} phone numbers and drops an entry
+ * {@code app.user.cache.expire-after-write-ms} after it was put. It publishes the Micrometer cache metrics
+ * ({@code cache.gets}, {@code cache.evictions}, {@code cache.size}) tagged with {@code cache=users.by-phone}.
+ * </p>
+ */
+@Component
+public class UserIdCacheImpl implements UserIdCache {
+
+    /**
+     * User IDs by phone number.
+     */
+    private final Cache<String, Long> usersByPhone;
+
+
+    /**
+     * Constructs a new UserIdCacheImpl and registers the metrics of its cache.
+     *
+     * @param theMaximumSize            The maximum number of cached phone numbers ({@code app.user.cache.maximum-size}).
+     * @param theExpireAfterWriteMillis How long an entry is kept after it was put, in milliseconds
+     *                                  ({@code app.user.cache.expire-after-write-ms}).
+     * @param theMeterRegistry          The registry to publish cache metrics to.
+     */
+    @Autowired
+    public UserIdCacheImpl(@Value("${app.user.cache.maximum-size:10000}") long theMaximumSize,
+                           @Value("${app.user.cache.expire-after-write-ms:3600000}") long theExpireAfterWriteMillis,
+                           MeterRegistry theMeterRegistry) {
+        if (theMaximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size of the user cache must be positive, got " + theMaximumSize);
+        }
+        // Maintenance runs on the calling thread, so an eviction is counted before the call returns
+        Cache<String, Long> cache = Caffeine.newBuilder()
+                .maximumSize(theMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(theExpireAfterWriteMillis))
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        usersByPhone = CaffeineCacheMetrics.monitor(theMeterRegistry, cache, "users.by-phone");
+    }
+
+
+    /**
+     * Returns the cached ID of the user with the given phone number.
+     *
+     * @param phoneNumber The phone number of the user.
+     * @return An {@link Optional} containing the user's ID, or empty if it is not cached.
+     */
+    @Override
+    public Optional<Long> findId(String phoneNumber) {
+        return Optional.ofNullable(usersByPhone.getIfPresent(phoneNumber));
+    }
+
+
+    /**
+     * Caches the ID of a user under its phone number.
+     *
+     * @param phoneNumber The phone number of the user.
+     * @param id          The ID of the user.
+     */
+    @Override
+    public void put(String phoneNumber, Long id) {
+        usersByPhone.put(phoneNumber, id);
+    }
+
+
+    /**
+     * Evicts the entry of the given phone number.
+     *
+     * @param phoneNumber The phone number of a user that has been changed.
+     */
+    @Override
+    public void evict(String phoneNumber) {
+        usersByPhone.invalidate(phoneNumber);
+    }
+}
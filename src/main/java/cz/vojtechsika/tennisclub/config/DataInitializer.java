@@ -1,5 +1,6 @@
 package cz.vojtechsika.tennisclub.config;
 
+import cz.vojtechsika.tennisclub.entity.IdSequences;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -55,6 +56,8 @@ public class DataInitializer implements CommandLineRunner {
      * Surface Types: "Clay" and "Grass" with associated prices.
      * Courts: Four courts with numbers 101, 102, 103, and 104, each associated with a surface type.
      *
+     * The IDs of the rows are taken from the first block reserved from the entity sequences.
+     *
      *
      * @param args Command-line arguments (not used in this implementation).
      * @throws Exception If any error occurs during data initialization.
@@ -67,16 +70,30 @@ public class DataInitializer implements CommandLineRunner {
         if (initData) {
             System.out.println("\n=====INITIALIZING DATA=====");
             System.out.println("Initialized Surface type data");
-            jdbc.execute("INSERT INTO surface_type (name, minute_price, deleted) VALUES ('Clay', 1.5, false)");
-            jdbc.execute("INSERT INTO surface_type (name, minute_price, deleted) VALUES ('Grass', 2.5, false)");
+            long clayId = reserveIdBlock(IdSequences.SURFACE_TYPE);
+            long grassId = clayId + 1;
+            jdbc.execute("INSERT INTO surface_type (id, name, minute_price, deleted) VALUES (" + clayId + ", 'Clay', 1.5, false)");
+            jdbc.execute("INSERT INTO surface_type (id, name, minute_price, deleted) VALUES (" + grassId + ", 'Grass', 2.5, false)");
 
             System.out.println("Initialized Court data");
-            jdbc.execute("INSERT INTO court (court_number, surface_type_id, deleted) VALUES (101, 1, false)");
-            jdbc.execute("INSERT INTO court (court_number, surface_type_id, deleted) VALUES (102, 1, false)");
-            jdbc.execute("INSERT INTO court (court_number, surface_type_id, deleted) VALUES (103, 1, false)");
-            jdbc.execute("INSERT INTO court (court_number, surface_type_id, deleted) VALUES (104, 2, false)");
+            long courtId = reserveIdBlock(IdSequences.COURT);
+            jdbc.execute("INSERT INTO court (id, court_number, surface_type_id, deleted) VALUES (" + courtId + ", 101, " + clayId + ", false)");
+            jdbc.execute("INSERT INTO court (id, court_number, surface_type_id, deleted) VALUES (" + (courtId + 1) + ", 102, " + clayId + ", false)");
+            jdbc.execute("INSERT INTO court (id, court_number, surface_type_id, deleted) VALUES (" + (courtId + 2) + ", 103, " + clayId + ", false)");
+            jdbc.execute("INSERT INTO court (id, court_number, surface_type_id, deleted) VALUES (" + (courtId + 3) + ", 104, " + grassId + ", false)");
         }
 
 
     }
+
+    /**
+     * Reserves one block of IDs from the given sequence the same way the {@code pooled-lo} optimizer of
+     * Hibernate does, so the seeded rows never collide with IDs Hibernate assigns later.
+     *
+     * @param sequence The name of the sequence.
+     * @return The first ID of the reserved block.
+     */
+    private long reserveIdBlock(String sequence) {
+        return jdbc.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+    }
 }
@@ -0,0 +1,29 @@
+package cz.vojtechsika.tennisclub.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MetricsConfig enables the Micrometer {@code @Timed} annotation.
+ * <p>
+ * The reservation, court and surface type services and every DAO are annotated on their class, so each of their
+ * methods is timed with a percentile histogram (see {@link cz.vojtechsika.tennisclub.metrics.MeterNames}). The
+ * timers are published at {@code /actuator/metrics} and scraped from {@code /actuator/prometheus}.
+ * </p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Creates the aspect recording the methods of the classes annotated with {@code @Timed}.
+     *
+     * @param theMeterRegistry Registry the timers are published to.
+     * @return The timing aspect.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry theMeterRegistry) {
+        return new TimedAspect(theMeterRegistry);
+    }
+}
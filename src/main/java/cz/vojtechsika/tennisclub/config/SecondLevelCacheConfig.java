@@ -0,0 +1,89 @@
+package cz.vojtechsika.tennisclub.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import cz.vojtechsika.tennisclub.entity.CacheRegions;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SecondLevelCacheConfig creates the caches behind the Hibernate second-level and query cache and hands them to
+ * Hibernate ({@code hibernate.cache.region.factory_class=jcache}).
+ * <p>
+ * The regions are Caffeine caches created through JCache, each bounded by its own size and expiry from
+ * {@link SecondLevelCacheProperties}. Hibernate is set to fail on a region that was not created here, so every
+ * cached entity and query is bounded. The update timestamps region is the only unbounded one: it holds one entry per
+ * table, and a lost entry would let stale query results pass as current.
+ * </p>
+ * <p>
+ * The caches live in this instance only. Nothing tells them about the writes of other instances, so the short
+ * expiry is what bounds how long such a write stays unseen.
+ * </p>
+ * <p>
+ * Entries are stored by reference. Hibernate caches the disassembled state of the entities, which is never changed
+ * in place, so the copy JCache would make on every read and write is not needed.
+ * </p>
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /**
+     * The bounded regions: the cached entities, the cached queries and Hibernate's default query results region.
+     */
+    private static final List<String> BOUNDED_REGIONS = List.of(CacheRegions.COURT, CacheRegions.SURFACE_TYPE,
+            CacheRegions.COURT_BY_NUMBER, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+
+    /**
+     * Creates the cache manager holding all second-level cache regions. Each application context gets its own
+     * manager, so contexts started side by side (e.g. in tests) do not share cached entities.
+     *
+     * @param theProperties The limits of the regions.
+     * @return The cache manager with all regions created.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties theProperties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("tennis-club-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : BOUNDED_REGIONS) {
+            cacheManager.createCache(region, region(OptionalLong.of(theProperties.maximumSizeOf(region)),
+                    OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(theProperties.getExpireAfterWriteMs()))));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                region(OptionalLong.empty(), OptionalLong.empty()));
+        return cacheManager;
+    }
+
+
+    /**
+     * Passes the cache manager to Hibernate.
+     *
+     * @param theSecondLevelCacheManager The cache manager holding all regions.
+     * @return The customizer adding the cache manager to the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager theSecondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, theSecondLevelCacheManager);
+    }
+
+
+    // Configuration of one region stored by reference, with the given limits (empty for none)
+    private static CaffeineConfiguration<Object, Object> region(OptionalLong maximumSize,
+                                                                OptionalLong expireAfterWriteNanos) {
+        return new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setMaximumSize(maximumSize)
+                .setExpireAfterWrite(expireAfterWriteNanos);
+    }
+}
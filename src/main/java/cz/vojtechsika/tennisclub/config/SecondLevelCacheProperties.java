@@ -0,0 +1,58 @@
+package cz.vojtechsika.tennisclub.config;
+
+import cz.vojtechsika.tennisclub.entity.CacheRegions;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SecondLevelCacheProperties holds the limits of the Hibernate second-level cache regions
+ * ({@code app.second-level-cache.*}).
+ * <p>
+ * Every region is bounded by its own number of entries, set by its name from {@link CacheRegions}; a region
+ * without an entry gets {@link #defaultMaximumSize}. Entries also expire a fixed time after they were written,
+ * which bounds how long a row changed outside of Hibernate, e.g. by another application instance, can be served
+ * stale.
+ * </p>
+ * <pre>
+ * app.second-level-cache.maximum-size[court]=1000
+ * app.second-level-cache.maximum-size[court-by-number]=1000
+ * app.second-level-cache.expire-after-write-ms=30000
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "app.second-level-cache")
+@Getter
+@Setter
+public class SecondLevelCacheProperties {
+
+    /**
+     * The maximum number of entries of a region without its own limit.
+     */
+    private long defaultMaximumSize = 1000;
+
+    /**
+     * The maximum number of entries by region name.
+     */
+    private Map<String, Long> maximumSize = new HashMap<>();
+
+    /**
+     * How long an entry lives after it was written, in milliseconds.
+     */
+    private long expireAfterWriteMs = 30_000;
+
+
+    /**
+     * Returns the maximum number of entries of the given region.
+     *
+     * @param region The name of the region.
+     * @return The region's own limit, or {@link #defaultMaximumSize} when it has none.
+     */
+    public long maximumSizeOf(String region) {
+        return maximumSize.getOrDefault(region, defaultMaximumSize);
+    }
+}
@@ -4,6 +4,7 @@ package cz.vojtechsika.tennisclub.dao;
 import cz.vojtechsika.tennisclub.entity.Court;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -61,4 +62,48 @@ public interface CourtDAO {
      */
     Optional<Court> findByCourtNumber(int courtNumber);
 
+    /**
+     * Retrieves a court by its court number straight from the database, bypassing the second-level and query
+     * caches. Bookings use it, so they never price or claim a court that another instance changed or deleted.
+     *
+     * @param courtNumber The court number to search for.
+     * @return An {@link Optional} containing the {@link Court} entity if found, or empty if not found.
+     */
+    Optional<Court> findCurrentByCourtNumber(int courtNumber);
+
+    /**
+     * Retrieves all active courts together with their surface type in a single query,
+     * optionally restricted to one surface type.
+     *
+     * @param surfaceTypeId The surface type ID to filter courts by, or {@code null} for all surface types.
+     * @return A list of {@link Court} entities with their {@link cz.vojtechsika.tennisclub.entity.SurfaceType} loaded.
+     */
+    List<Court> findAllWithSurfaceType(Long surfaceTypeId);
+
+    /**
+     * Retrieves all active courts with one of the given court numbers together with their surface type
+     * in a single query.
+     *
+     * @param courtNumbers The court numbers to search for.
+     * @return A list of the {@link Court} entities found; numbers without an active court are simply missing.
+     */
+    List<Court> findAllByCourtNumbers(Collection<Integer> courtNumbers);
+
+    /**
+     * Returns a reference to the court with the given ID without querying the database.
+     *
+     * @param id The ID of an existing court.
+     * @return A lazily loaded reference to the {@link Court}.
+     */
+    Court getReference(Long id);
+
+    /**
+     * Marks all active courts of the given surface type as deleted with a single bulk update,
+     * incrementing their versions.
+     *
+     * @param surfaceTypeId The ID of the surface type.
+     * @return The number of deleted courts.
+     */
+    int softDeleteAllBySurfaceTypeId(Long surfaceTypeId);
+
 }
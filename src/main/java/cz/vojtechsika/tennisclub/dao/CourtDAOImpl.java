@@ -1,13 +1,21 @@
 package cz.vojtechsika.tennisclub.dao;
 
 import cz.vojtechsika.tennisclub.dto.response.CourtResponseDTO;
+import cz.vojtechsika.tennisclub.entity.CacheRegions;
 import cz.vojtechsika.tennisclub.entity.Court;
 import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import cz.vojtechsika.tennisclub.metrics.MeterNames;
+import cz.vojtechsika.tennisclub.metrics.SlowQueryLog;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.CacheRetrieveMode;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,8 +23,10 @@ import java.util.Optional;
  * CourtDAOImpl is an implementation of the {@link CourtDAO} interface that provides database access for managing {@link Court} entities.
  * This implementation uses JPA (Jakarta Persistence API) and the {@link EntityManager} to interact with the underlying database.
  * It includes methods for performing CRUD operations on courts, including finding courts by various criteria (ID, court number, surface type).
+ * The JPQL queries are run through the {@link SlowQueryLog}.
  */
 @Repository
+@Timed(value = MeterNames.DAO_QUERIES, histogram = true)
 public class CourtDAOImpl implements CourtDAO {
 
     /**
@@ -24,15 +34,22 @@ public class CourtDAOImpl implements CourtDAO {
      */
     private final EntityManager entityManager;
 
+    /**
+     * The log the JPQL queries are run through, recording the slow ones with their parameters.
+     */
+    private final SlowQueryLog slowQueryLog;
+
 
     /**
-     * Constructs a new CourtDAOImpl with the provided {@link EntityManager}.
+     * Constructs a new CourtDAOImpl with the provided {@link EntityManager} and {@link SlowQueryLog}.
      *
      * @param theEntityManager The {@link EntityManager} used to interact with the database.
+     * @param theSlowQueryLog  The {@link SlowQueryLog} the JPQL queries are run through.
      */
     @Autowired
-    public CourtDAOImpl(EntityManager theEntityManager) {
+    public CourtDAOImpl(EntityManager theEntityManager, SlowQueryLog theSlowQueryLog) {
         entityManager = theEntityManager;
+        slowQueryLog = theSlowQueryLog;
     }
 
 
@@ -51,19 +68,19 @@ public class CourtDAOImpl implements CourtDAO {
 
     /**
      * Retrieves a {@link Court} by its ID.
-     * This method only retrieves courts that are not marked as deleted.
+     * This method only retrieves courts that are not marked as deleted; the surface type is fetched by the same query.
      *
      * @param id The ID of the court to be retrieved.
      * @return An {@link Optional} containing the {@link Court} if found, or empty if not found.
      */
     @Override
     public Optional<Court> findById(Long id) {
-        TypedQuery<Court> query = entityManager.createQuery("SELECT c FROM Court c WHERE " +
-                        "c.id = :id AND c.deleted = :isFalse", Court.class)
+        TypedQuery<Court> query = entityManager.createQuery("SELECT c FROM Court c LEFT JOIN FETCH c.surfaceType " +
+                        "WHERE c.id = :id AND c.deleted = :isFalse", Court.class)
                 .setParameter("id", id)
                 .setParameter("isFalse", false);
 
-        List<Court> result = query.getResultList();     // opakuje se asi přepsat do nějaké pomocné metody do nějaké utils
+        List<Court> result = slowQueryLog.getResultList(query);     // opakuje se asi přepsat do nějaké pomocné metody do nějaké utils
         if (result.isEmpty()) {
             return Optional.empty();
         } else {
@@ -75,19 +92,22 @@ public class CourtDAOImpl implements CourtDAO {
 
     /**
      * Retrieves a {@link Court} by its court number.
-     * This method only retrieves courts that are not marked as deleted.
+     * This method only retrieves courts that are not marked as deleted; the surface type is fetched by the same query.
+     * The result is kept in the {@link CacheRegions#COURT_BY_NUMBER} query cache region until a court changes.
      *
      * @param courtNumber The court number to search for.
      * @return An {@link Optional} containing the {@link Court} if found, or empty if not found.
      */
     @Override
     public Optional<Court> findByCourtNumber(int courtNumber) {
-        TypedQuery<Court> query = entityManager.createQuery("SELECT c FROM Court c WHERE " +
-                        "c.courtNumber = :courtNumber AND c.deleted = :isFalse", Court.class)
+        TypedQuery<Court> query = entityManager.createQuery("SELECT c FROM Court c LEFT JOIN FETCH c.surfaceType " +
+                        "WHERE c.courtNumber = :courtNumber AND c.deleted = :isFalse", Court.class)
                 .setParameter("courtNumber", courtNumber)
-                .setParameter("isFalse", false);
+                .setParameter("isFalse", false)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, CacheRegions.COURT_BY_NUMBER);
 
-        List<Court> result = query.getResultList();
+        List<Court> result = slowQueryLog.getResultList(query);
         if (result.isEmpty()) {
             return Optional.empty();
         } else {
@@ -98,17 +118,42 @@ public class CourtDAOImpl implements CourtDAO {
 
 
     /**
-     * Retrieves all courts that are not marked as deleted.
+     * Retrieves a {@link Court} by its court number with the same query as {@link #findByCourtNumber(int)}, but
+     * neither reads the query cache nor takes the court or its surface type from the second-level cache, which
+     * only this instance evicts.
+     *
+     * @param courtNumber The court number to search for.
+     * @return An {@link Optional} containing the {@link Court} if found, or empty if not found.
+     */
+    @Override
+    public Optional<Court> findCurrentByCourtNumber(int courtNumber) {
+        TypedQuery<Court> query = entityManager.createQuery("SELECT c FROM Court c LEFT JOIN FETCH c.surfaceType " +
+                        "WHERE c.courtNumber = :courtNumber AND c.deleted = :isFalse", Court.class)
+                .setParameter("courtNumber", courtNumber)
+                .setParameter("isFalse", false)
+                .setHint(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+
+        List<Court> result = slowQueryLog.getResultList(query);
+        if (result.isEmpty()) {
+            return Optional.empty();
+        } else {
+            return Optional.of(result.get(0));
+        }
+    }
+
+
+    /**
+     * Retrieves all courts that are not marked as deleted, fetching their surface type in the same query.
      *
      * @return A list of all {@link Court} entities.
      */
     @Override
     public List<Court> findAll() {
-        TypedQuery<Court> query = entityManager.createQuery("SELECT c FROM Court c WHERE " +
-                        "c.deleted = :isFalse", Court.class)
+        TypedQuery<Court> query = entityManager.createQuery("SELECT c FROM Court c LEFT JOIN FETCH c.surfaceType " +
+                        "WHERE c.deleted = :isFalse", Court.class)
                 .setParameter("isFalse", false);
 
-        return query.getResultList();
+        return slowQueryLog.getResultList(query);
     }
 
 
@@ -126,21 +171,99 @@ public class CourtDAOImpl implements CourtDAO {
                 .setParameter("id", id)
                 .setParameter("isFalse", false);
 
-        return query.getResultList();
+        return slowQueryLog.getResultList(query);
     }
 
 
     /**
      * Updates an existing {@link Court} entity in the database.
-     * This method merges the provided {@link Court} entity with the existing one.
+     * This method merges the provided {@link Court} entity with the existing one and flushes the change,
+     * so the returned entity already carries its incremented version.
      *
      * @param court The {@link Court} entity with updated values.
      * @return The updated {@link Court} entity.
      */
     @Override
     public Court update(Court court) {
-        return entityManager.merge(court);
+        Court merged = entityManager.merge(court);
+        entityManager.flush();
+        return merged;
+    }
+
+    /**
+     * Retrieves all active courts with an active surface type, fetching the surface type in the same query.
+     * When {@code surfaceTypeId} is provided, only courts of that surface type are returned.
+     *
+     * @param surfaceTypeId The surface type ID to filter courts by, or {@code null} for all surface types.
+     * @return A list of {@link Court} entities ordered by court number.
+     */
+    @Override
+    public List<Court> findAllWithSurfaceType(Long surfaceTypeId) {
+        String surfaceTypeFilter = surfaceTypeId == null ? "" : "AND s.id = :surfaceTypeId ";
+
+        TypedQuery<Court> query = entityManager.createQuery("SELECT c FROM Court c JOIN FETCH c.surfaceType s " +
+                        "WHERE c.deleted = :isFalse AND s.deleted = :isFalse " + surfaceTypeFilter +
+                        "ORDER BY c.courtNumber ASC", Court.class)
+                .setParameter("isFalse", false);
+
+        if (surfaceTypeId != null) {
+            query.setParameter("surfaceTypeId", surfaceTypeId);
+        }
+
+        return slowQueryLog.getResultList(query);
     }
 
 
+    /**
+     * Retrieves all active courts with one of the given court numbers, fetching their surface type
+     * in the same query.
+     *
+     * @param courtNumbers The court numbers to search for.
+     * @return A list of {@link Court} entities ordered by court number, or an empty list if {@code courtNumbers} is empty.
+     */
+    @Override
+    public List<Court> findAllByCourtNumbers(Collection<Integer> courtNumbers) {
+        if (courtNumbers.isEmpty()) {
+            return List.of();
+        }
+        TypedQuery<Court> query = entityManager.createQuery("SELECT c FROM Court c JOIN FETCH c.surfaceType " +
+                        "WHERE c.courtNumber IN :courtNumbers AND c.deleted = :isFalse " +
+                        "ORDER BY c.courtNumber ASC", Court.class)
+                .setParameter("courtNumbers", courtNumbers)
+                .setParameter("isFalse", false);
+
+        return slowQueryLog.getResultList(query);
+    }
+
+
+    /**
+     * Returns a reference to the {@link Court} with the given ID without loading it. The returned instance is
+     * a lazy proxy; it is enough to set the court of a new reservation and is loaded only when one of its
+     * other fields is read.
+     *
+     * @param id The ID of an existing court.
+     * @return A reference to the {@link Court} with the given ID.
+     */
+    @Override
+    public Court getReference(Long id) {
+        return entityManager.getReference(Court.class, id);
+    }
+
+
+    /**
+     * Marks the active courts of the given surface type as deleted with one JPQL bulk update. The statement
+     * bypasses the persistence context, so it increments the versions itself to keep optimistic locking of
+     * the deleted courts intact.
+     *
+     * @param surfaceTypeId The ID of the surface type.
+     * @return The number of deleted courts.
+     */
+    @Override
+    public int softDeleteAllBySurfaceTypeId(Long surfaceTypeId) {
+        return slowQueryLog.executeUpdate(entityManager.createQuery("UPDATE Court c " +
+                        "SET c.deleted = :isTrue, c.version = c.version + 1 WHERE c.surfaceType.id = :surfaceTypeId AND c.deleted = :isFalse")
+                .setParameter("isTrue", true)
+                .setParameter("surfaceTypeId", surfaceTypeId)
+                .setParameter("isFalse", false));
+    }
 }
@@ -0,0 +1,67 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.entity.ArchivedReservation;
+import cz.vojtechsika.tennisclub.util.ReservationCursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * ReservationArchiveDAO is an interface that defines the Data Access Object (DAO) for {@link ArchivedReservation}
+ * entities. It moves old reservations out of the live table and reads the archived ones in the same keyset order
+ * as {@link ReservationDAO}, so the two can be merged into one history list.
+ */
+public interface ReservationArchiveDAO {
+
+    /**
+     * Moves up to {@code chunkSize} reservations starting before the given date-time, deleted or not, from the live
+     * table to the archive and releases their slot claims. Must be called within a transaction.
+     *
+     * @param before    The upper bound (exclusive) for the start time of the moved reservations.
+     * @param chunkSize The maximum number of reservations to move.
+     * @return The IDs of the moved reservations; fewer than {@code chunkSize} when no more are left.
+     */
+    List<Long> moveStartedBefore(LocalDateTime before, int chunkSize);
+
+    /**
+     * Retrieves one page of the archived reservations not marked as deleted, ordered by start time and ID.
+     *
+     * @param after The cursor of the last reservation of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} {@link ArchivedReservation} entities following the cursor.
+     */
+    List<ArchivedReservation> findPage(ReservationCursor after, int limit);
+
+    /**
+     * Retrieves one page of the archived reservations of a specific court not marked as deleted, ordered by
+     * start time and ID.
+     *
+     * @param courtNumber The court number to search for.
+     * @param after The cursor of the last reservation of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} {@link ArchivedReservation} entities of the court following the cursor.
+     */
+    List<ArchivedReservation> findPageByCourtNumber(int courtNumber, ReservationCursor after, int limit);
+
+    /**
+     * Retrieves one page of the archived reservations of a specific phone number not marked as deleted, ordered by
+     * start time and ID.
+     *
+     * @param phoneNumber The phone number to search for.
+     * @param after The cursor of the last reservation of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} {@link ArchivedReservation} entities of the phone number following the cursor.
+     */
+    List<ArchivedReservation> findPageByPhoneNumber(String phoneNumber, ReservationCursor after, int limit);
+
+
+    /**
+     * Streams all archived reservations not marked as deleted, ordered by start time and ID, with their court and
+     * user. Must be called within a transaction that stays open while the stream is consumed.
+     *
+     * @param fetchSize The number of rows the JDBC driver fetches per round trip.
+     * @return A {@link Stream} of the non-deleted {@link ArchivedReservation} entities; it must be closed after use.
+     */
+    Stream<ArchivedReservation> streamAll(int fetchSize);
+}
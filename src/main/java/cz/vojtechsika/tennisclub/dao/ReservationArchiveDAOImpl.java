@@ -0,0 +1,216 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.entity.ArchivedReservation;
+import cz.vojtechsika.tennisclub.metrics.MeterNames;
+import cz.vojtechsika.tennisclub.metrics.SlowQueryLog;
+import cz.vojtechsika.tennisclub.util.ReservationCursor;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * ReservationArchiveDAOImpl is an implementation of the {@link ReservationArchiveDAO} interface.
+ * <p>
+ * Reservations are moved with plain SQL through {@link NamedParameterJdbcTemplate}: one chunk is copied by a
+ * single {@code INSERT ... SELECT} and removed from the live table by two deletes, so no entity is loaded. The
+ * template takes part in the surrounding JPA transaction, so a chunk is moved completely or not at all. Archived
+ * reservations are read with JPQL through the {@link EntityManager}, with their court and user fetched by the
+ * same query, like the live ones; the pages are run through the {@link SlowQueryLog}, the streamed export is not.
+ * </p>
+ */
+@Repository
+@Timed(value = MeterNames.DAO_QUERIES, histogram = true)
+public class ReservationArchiveDAOImpl implements ReservationArchiveDAO {
+
+    /**
+     * The entityManager used to read archived reservations.
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * The template used to move reservations to the archive.
+     */
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * The log the JPQL page queries are run through, recording the slow ones with their parameters.
+     */
+    private final SlowQueryLog slowQueryLog;
+
+    /**
+     * Order of the paged reservation lists, the same as the one of the live table.
+     */
+    private static final String KEYSET_ORDER = " ORDER BY r.startTime ASC, r.id ASC";
+
+    /**
+     * Statement locking the next chunk of active or deleted reservations to move, oldest first. The deleted flag is
+     * compared for equality, so the range is read from {@code idx_reservation_start}.
+     */
+    private static final String SELECT_CHUNK = "SELECT id FROM reservation WHERE deleted = :deleted " +
+            "AND start_time < :before ORDER BY start_time, id FETCH FIRST :chunkSize ROWS ONLY FOR UPDATE";
+
+    /**
+     * Statement copying a chunk of reservations into the archive.
+     */
+    private static final String COPY_CHUNK = "INSERT INTO reservation_archive (id, start_time, end_time, " +
+            "created_at, price, game_type, deleted, version, app_user_id, court_id, series_id, archived_at) " +
+            "SELECT id, start_time, end_time, created_at, price, game_type, deleted, version, app_user_id, court_id, " +
+            "series_id, :archivedAt FROM reservation WHERE id IN (:ids)";
+
+
+    /**
+     * Constructs a new ReservationArchiveDAOImpl.
+     *
+     * @param theEntityManager The {@link EntityManager} used to read archived reservations.
+     * @param theJdbc          The {@link NamedParameterJdbcTemplate} used to move reservations to the archive.
+     * @param theSlowQueryLog  The {@link SlowQueryLog} the JPQL page queries are run through.
+     */
+    @Autowired
+    public ReservationArchiveDAOImpl(EntityManager theEntityManager, NamedParameterJdbcTemplate theJdbc,
+                                     SlowQueryLog theSlowQueryLog) {
+        entityManager = theEntityManager;
+        jdbc = theJdbc;
+        slowQueryLog = theSlowQueryLog;
+    }
+
+
+    /**
+     * Locks the oldest active reservations starting before {@code before}, fills the rest of the chunk with deleted
+     * ones, copies them into the archive, deletes their slot claims and deletes them from the live table: at most
+     * five statements per chunk whatever its size. The lock keeps a concurrent update or deletion from being lost
+     * between the copy and the delete.
+     *
+     * @param before    The upper bound (exclusive) for the start time of the moved reservations.
+     * @param chunkSize The maximum number of reservations to move.
+     * @return The IDs of the moved reservations.
+     */
+    @Override
+    public List<Long> moveStartedBefore(LocalDateTime before, int chunkSize) {
+        List<Long> ids = new ArrayList<>(selectChunk(before, false, chunkSize));
+        if (ids.size() < chunkSize) {
+            ids.addAll(selectChunk(before, true, chunkSize - ids.size()));
+        }
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        MapSqlParameterSource chunk = new MapSqlParameterSource("ids", ids);
+        jdbc.update(COPY_CHUNK, new MapSqlParameterSource("ids", ids)
+                .addValue("archivedAt", Timestamp.valueOf(LocalDateTime.now())));
+        jdbc.update("DELETE FROM reservation_slot WHERE reservation_id IN (:ids)", chunk);
+        jdbc.update("DELETE FROM reservation WHERE id IN (:ids)", chunk);
+        return ids;
+    }
+
+
+    /**
+     * Retrieves one page of the archived reservations not marked as deleted, ordered by {@code startTime} and
+     * {@code id} ascending, starting right after the cursor, together with their court and user.
+     *
+     * @param after The cursor of the last reservation of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} {@link ArchivedReservation} entities following the cursor.
+     */
+    @Override
+    public List<ArchivedReservation> findPage(ReservationCursor after, int limit) {
+        TypedQuery<ArchivedReservation> query = entityManager.createQuery("SELECT r FROM ArchivedReservation r " +
+                        "JOIN FETCH r.court JOIN FETCH r.user WHERE r.deleted = :isFalse" + keysetCondition(after) +
+                        KEYSET_ORDER, ArchivedReservation.class)
+                .setParameter("isFalse", false);
+        return keysetPage(query, after, limit);
+    }
+
+
+    /**
+     * Retrieves one page of the archived reservations of a specific court not marked as deleted, ordered by
+     * {@code startTime} and {@code id} ascending, starting right after the cursor, together with their court and user.
+     *
+     * @param courtNumber The court number to filter reservations by.
+     * @param after The cursor of the last reservation of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} {@link ArchivedReservation} entities of the court following the cursor.
+     */
+    @Override
+    public List<ArchivedReservation> findPageByCourtNumber(int courtNumber, ReservationCursor after, int limit) {
+        TypedQuery<ArchivedReservation> query = entityManager.createQuery("SELECT r FROM ArchivedReservation r " +
+                        "JOIN FETCH r.court c JOIN FETCH r.user WHERE c.courtNumber = :courtNumber " +
+                        "AND r.deleted = :isFalse" + keysetCondition(after) + KEYSET_ORDER, ArchivedReservation.class)
+                .setParameter("courtNumber", courtNumber)
+                .setParameter("isFalse", false);
+        return keysetPage(query, after, limit);
+    }
+
+
+    /**
+     * Retrieves one page of the archived reservations of a specific phone number not marked as deleted, ordered
+     * by {@code startTime} and {@code id} ascending, starting right after the cursor, together with their court
+     * and user.
+     *
+     * @param phoneNumber The phone number to filter reservations by.
+     * @param after The cursor of the last reservation of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} {@link ArchivedReservation} entities of the phone number following the cursor.
+     */
+    @Override
+    public List<ArchivedReservation> findPageByPhoneNumber(String phoneNumber, ReservationCursor after, int limit) {
+        TypedQuery<ArchivedReservation> query = entityManager.createQuery("SELECT r FROM ArchivedReservation r " +
+                        "JOIN FETCH r.court JOIN FETCH r.user u WHERE u.phoneNumber = :phoneNumber " +
+                        "AND r.deleted = :isFalse" + keysetCondition(after) + KEYSET_ORDER, ArchivedReservation.class)
+                .setParameter("phoneNumber", phoneNumber)
+                .setParameter("isFalse", false);
+        return keysetPage(query, after, limit);
+    }
+
+
+    /**
+     * Streams all archived reservations not marked as deleted, ordered by {@code startTime} and {@code id}
+     * ascending, together with their court and user. The rows are read through a scrollable result with the given
+     * JDBC fetch size and the entities are loaded read-only, like the live ones of the export.
+     *
+     * @param fetchSize The number of rows the JDBC driver fetches per round trip.
+     * @return A {@link Stream} of the non-deleted {@link ArchivedReservation} entities; it must be closed after use.
+     */
+    @Override
+    public Stream<ArchivedReservation> streamAll(int fetchSize) {
+        return entityManager.createQuery("SELECT r FROM ArchivedReservation r JOIN FETCH r.court " +
+                        "JOIN FETCH r.user WHERE r.deleted = :isFalse" + KEYSET_ORDER, ArchivedReservation.class)
+                .setParameter("isFalse", false)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+
+    // Locks the IDs of up to chunkSize reservations with the given deleted flag starting before the given time
+    private List<Long> selectChunk(LocalDateTime before, boolean deleted, int chunkSize) {
+        return jdbc.queryForList(SELECT_CHUNK, new MapSqlParameterSource()
+                .addValue("deleted", deleted)
+                .addValue("before", Timestamp.valueOf(before))
+                .addValue("chunkSize", chunkSize), Long.class);
+    }
+
+    // Condition continuing right after the cursor in the (startTime, id) order
+    private static String keysetCondition(ReservationCursor after) {
+        return after == null ? "" : " AND (r.startTime, r.id) > (:afterStartTime, :afterId)";
+    }
+
+    // Binds the cursor, if any, and reads at most limit rows
+    private List<ArchivedReservation> keysetPage(TypedQuery<ArchivedReservation> query, ReservationCursor after,
+                                                 int limit) {
+        if (after != null) {
+            query.setParameter("afterStartTime", after.startTime())
+                    .setParameter("afterId", after.id());
+        }
+        return slowQueryLog.getResultList(query.setMaxResults(limit));
+    }
+}
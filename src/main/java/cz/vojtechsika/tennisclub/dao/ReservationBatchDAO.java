@@ -0,0 +1,31 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.User;
+
+import java.util.List;
+
+/**
+ * ReservationBatchDAO is an interface that defines the Data Access Object (DAO) for writing many
+ * {@link Reservation} and {@link User} rows at once, as needed when importing a batch of reservations.
+ * All writes take part in the surrounding transaction.
+ */
+public interface ReservationBatchDAO {
+
+    /**
+     * Inserts the given users, or renames the existing users with the same phone numbers, and sets their IDs.
+     * A user created concurrently by another transaction is renamed instead of failing on its phone number.
+     *
+     * @param users The users to insert or rename, each with a different phone number; their {@code id} is set
+     *              on return.
+     */
+    void upsertUsers(List<User> users);
+
+    /**
+     * Inserts the given new reservations and sets their generated IDs. The court and user of every
+     * reservation must already have an ID.
+     *
+     * @param reservations The reservations to insert; their {@code id} is set on return.
+     */
+    void insertReservations(List<Reservation> reservations);
+}
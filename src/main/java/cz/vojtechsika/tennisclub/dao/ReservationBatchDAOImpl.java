@@ -0,0 +1,179 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.entity.IdSequences;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.User;
+import cz.vojtechsika.tennisclub.metrics.MeterNames;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ReservationBatchDAOImpl is an implementation of the {@link ReservationBatchDAO} interface.
+ * <p>
+ * Rows are written through {@link JdbcTemplate} with one JDBC batch per table, which skips building and
+ * flushing an entity per row. IDs are reserved up front from the same sequences Hibernate uses, one
+ * sequence value per block of {@link IdSequences#ALLOCATION_SIZE} IDs as the {@code pooled-lo} optimizer
+ * does, so they never collide with IDs assigned by Hibernate. The template takes part in the surrounding
+ * JPA transaction, so the rows are committed or rolled back together with the rest of the batch.
+ * </p>
+ */
+@Repository
+@Timed(value = MeterNames.DAO_QUERIES, histogram = true)
+public class ReservationBatchDAOImpl implements ReservationBatchDAO {
+
+    /**
+     * The JdbcTemplate used to write rows in batches.
+     */
+    private JdbcTemplate jdbc;
+
+
+    /**
+     * Constructs a new ReservationBatchDAOImpl with the provided {@link JdbcTemplate}.
+     *
+     * @param theJdbc The {@link JdbcTemplate} used to interact with the database.
+     */
+    @Autowired
+    public ReservationBatchDAOImpl(JdbcTemplate theJdbc) {
+        jdbc = theJdbc;
+    }
+
+
+    /**
+     * Inserts or renames all users with a single JDBC batch of {@code MERGE} statements matching the users by
+     * their unique phone number, and sets the IDs of the written rows read back with one query.
+     * <p>
+     * A new user takes its ID from {@link IdSequences#USER}; the IDs reserved for users that already exist stay
+     * unused. When another transaction inserted one of the phone numbers in the meantime, the batch is repeated;
+     * the statements are idempotent, so the second run renames the committed rows.
+     * </p>
+     *
+     * @param users The users to insert or rename, each with a different phone number; their {@code id} is set
+     *              on return.
+     */
+    @Override
+    public void upsertUsers(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        List<Long> ids = reserveIds(IdSequences.USER, users.size());
+        try {
+            mergeUsers(users, ids);
+        } catch (DuplicateKeyException e) {
+            mergeUsers(users, ids);
+        }
+
+        Map<String, Long> idsByPhone = new HashMap<>();
+        jdbc.query("SELECT id, phone_number FROM app_user WHERE phone_number IN (" +
+                        String.join(", ", Collections.nCopies(users.size(), "?")) + ")",
+                (RowCallbackHandler) resultSet -> idsByPhone.put(resultSet.getString(2), resultSet.getLong(1)),
+                users.stream().map(User::getPhoneNumber).toArray());
+        for (User user : users) {
+            user.setId(idsByPhone.get(user.getPhoneNumber()));
+        }
+    }
+
+
+    /**
+     * Inserts all reservations with a single JDBC batch and sets their IDs reserved from the reservation sequence.
+     * The version of every inserted reservation starts at {@code 0}.
+     *
+     * @param reservations The reservations to insert; their {@code id} is set on return.
+     */
+    @Override
+    public void insertReservations(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        List<Long> ids = reserveIds(IdSequences.RESERVATION, reservations.size());
+        for (int i = 0; i < reservations.size(); i++) {
+            reservations.get(i).setId(ids.get(i));
+            reservations.get(i).setVersion(0);
+        }
+        jdbc.batchUpdate("INSERT INTO reservation (id, start_time, end_time, created_at, price, game_type, deleted, " +
+                        "version, app_user_id, court_id, series_id) VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Reservation reservation = reservations.get(i);
+                        ps.setLong(1, reservation.getId());
+                        ps.setTimestamp(2, Timestamp.valueOf(reservation.getStartTime()));
+                        ps.setTimestamp(3, Timestamp.valueOf(reservation.getEndTime()));
+                        ps.setTimestamp(4, Timestamp.valueOf(reservation.getCreatedAt()));
+                        ps.setBigDecimal(5, reservation.getPrice());
+                        ps.setString(6, reservation.getGameType().name());
+                        ps.setBoolean(7, reservation.isDeleted());
+                        ps.setLong(8, reservation.getUser().getId());
+                        ps.setLong(9, reservation.getCourt().getId());
+                        if (reservation.getSeries() == null) {
+                            ps.setNull(10, Types.BIGINT);
+                        } else {
+                            ps.setLong(10, reservation.getSeries().getId());
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return reservations.size();
+                    }
+                });
+    }
+
+
+    // Merges every user by its phone number; a new user is inserted under the ID reserved at its position
+    private void mergeUsers(List<User> users, List<Long> ids) {
+        jdbc.batchUpdate("MERGE INTO app_user u" +
+                        " USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255))))" +
+                        " AS s(id, phone_number, user_name)" +
+                        " ON u.phone_number = s.phone_number" +
+                        " WHEN MATCHED AND (u.user_name <> s.user_name OR u.deleted) THEN" +
+                        " UPDATE SET user_name = s.user_name, deleted = FALSE" +
+                        " WHEN NOT MATCHED THEN INSERT (id, phone_number, user_name, deleted)" +
+                        " VALUES (s.id, s.phone_number, s.user_name, FALSE)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, ids.get(i));
+                        ps.setString(2, users.get(i).getPhoneNumber());
+                        ps.setString(3, users.get(i).getUserName());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                });
+    }
+
+    // Reserves the given number of IDs with one query, taking one sequence value per block of IDs
+    private List<Long> reserveIds(String sequence, int count) {
+        int blocks = (count + IdSequences.ALLOCATION_SIZE - 1) / IdSequences.ALLOCATION_SIZE;
+        List<Long> blockStarts = jdbc.queryForList("SELECT NEXT VALUE FOR " + sequence + " FROM SYSTEM_RANGE(1, ?)",
+                Long.class, blocks);
+
+        List<Long> ids = new ArrayList<>(count);
+        for (Long blockStart : blockStarts) {
+            for (int offset = 0; offset < IdSequences.ALLOCATION_SIZE && ids.size() < count; offset++) {
+                ids.add(blockStart + offset);
+            }
+        }
+        if (ids.size() != count) {
+            throw new IllegalStateException("Expected " + count + " IDs from " + sequence + ", got " + ids.size());
+        }
+        return ids;
+    }
+}
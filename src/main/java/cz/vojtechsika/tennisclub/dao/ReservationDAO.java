@@ -1,10 +1,15 @@
 package cz.vojtechsika.tennisclub.dao;
 
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
 import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.util.ReservationCursor;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * ReservationDAO is an interface that defines the Data Access Object (DAO) for {@link Reservation} entities.
@@ -33,14 +38,37 @@ public interface ReservationDAO {
 
 
     /**
-     * Retrieves all reservations for a specific phone number.
+     * Retrieves one page of the active reservations ordered by start time and ID.
+     *
+     * @param after The cursor of the last reservation of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} {@link Reservation} entities following the cursor.
+     */
+    List<Reservation> findPage(ReservationCursor after, int limit);
+
+
+    /**
+     * Retrieves one page of the active reservations of a specific court ordered by start time and ID.
+     *
+     * @param courtNumber The court number to search for.
+     * @param after The cursor of the last reservation of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} {@link Reservation} entities of the court following the cursor.
+     */
+    List<Reservation> findPageByCourtNumber(int courtNumber, ReservationCursor after, int limit);
+
+
+    /**
+     * Retrieves one page of the active reservations of a specific phone number ordered by start time and ID.
      * Optionally, it can filter reservations to include only future reservations based on the {@code futureOnly} flag.
      *
      * @param phoneNumber The phone number to search for.
      * @param futureOnly Whether to include only future reservations (true) or all reservations (false).
-     * @return A list of {@link Reservation} entities for the specified phone number.
+     * @param after The cursor of the last reservation of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} {@link Reservation} entities of the phone number following the cursor.
      */
-    List<Reservation> findAllByPhoneNumber(String phoneNumber, boolean futureOnly);
+    List<Reservation> findPageByPhoneNumber(String phoneNumber, boolean futureOnly, ReservationCursor after, int limit);
 
 
     /**
@@ -51,6 +79,24 @@ public interface ReservationDAO {
     List<Reservation> findAll();
 
 
+    /**
+     * Streams all reservations not marked as deleted, ordered by start time and ID ascending, together with
+     * their court and user. Rows are read from an open database cursor in chunks of {@code fetchSize}, so the
+     * caller must consume and close the stream within a transaction.
+     *
+     * @param fetchSize The number of rows the JDBC driver fetches per round trip.
+     * @return A {@link Stream} of the non-deleted {@link Reservation} entities; it must be closed after use.
+     */
+    Stream<Reservation> streamAll(int fetchSize);
+
+
+    /**
+     * Detaches all entities from the current persistence context, so the entities already read by a long
+     * running stream can be garbage collected.
+     */
+    void clear();
+
+
     /**
      * Creates a new reservation in the database.
      *
@@ -77,5 +123,121 @@ public interface ReservationDAO {
      * @param reservation The {@link Reservation} entity with updated values.
      * @return The updated {@link Reservation} entity.
      */
-    Reservation update(Reservation reservation);;
+    Reservation update(Reservation reservation);
+
+    /**
+     * Updates the given reservations in the database with one flush, so the changed rows are written
+     * in JDBC batches.
+     *
+     * @param reservations The {@link Reservation} entities with updated values.
+     * @return The updated {@link Reservation} entities.
+     */
+    List<Reservation> updateAll(List<Reservation> reservations);
+
+
+    /**
+     * Retrieves the intervals of all active reservations starting at or after the given date-time.
+     * Only the reservation ID, court number, start and end time are loaded (no entity hydration).
+     *
+     * @param from The lower bound (inclusive) for the reservation start time.
+     * @return A list of {@link ReservationInterval} projections.
+     */
+    List<ReservationInterval> findAllIntervalsStartingFrom(LocalDateTime from);
+
+
+    /**
+     * Retrieves the intervals of all active reservations on the given court starting within the given range.
+     *
+     * @param courtNumber The court number to filter reservations by.
+     * @param from        The lower bound (inclusive) for the reservation start time.
+     * @param to          The upper bound (exclusive) for the reservation start time.
+     * @return A list of {@link ReservationInterval} projections ordered by start time.
+     */
+    List<ReservationInterval> findAllIntervalsByCourtNumberBetween(int courtNumber, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Retrieves the intervals of all active reservations on any of the given courts starting within the given range.
+     *
+     * @param courtNumbers The court numbers to filter reservations by.
+     * @param from         The lower bound (inclusive) for the reservation start time.
+     * @param to           The upper bound (exclusive) for the reservation start time.
+     * @return A list of {@link ReservationInterval} projections ordered by court number and start time.
+     */
+    List<ReservationInterval> findAllIntervalsByCourtNumbersBetween(Collection<Integer> courtNumbers,
+                                                                    LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Retrieves the numbers of all courts that have at least one active reservation overlapping the given range.
+     *
+     * @param startTime The start of the range (exclusive bound for reservation end times).
+     * @param endTime   The end of the range (exclusive bound for reservation start times).
+     * @return A list of distinct court numbers that are occupied within the range.
+     */
+    List<Integer> findOccupiedCourtNumbersBetween(LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * Retrieves the interval of an active reservation by its ID, without loading the entity itself.
+     *
+     * @param id The ID of the reservation.
+     * @return An {@link Optional} containing the {@link ReservationInterval} if found, or empty if not found.
+     */
+    Optional<ReservationInterval> findIntervalById(Long id);
+
+
+    /**
+     * Retrieves all active occurrences of a reservation series, with their court and user, ordered by start time.
+     *
+     * @param seriesId The ID of the series.
+     * @return A list of {@link Reservation} entities belonging to the series.
+     */
+    List<Reservation> findAllBySeriesId(Long seriesId);
+
+    /**
+     * Retrieves the intervals of all active occurrences of a reservation series starting at or after the given
+     * date-time, ordered by start time.
+     *
+     * @param seriesId The ID of the series.
+     * @param from     The lower bound (inclusive) for the reservation start time.
+     * @return A list of {@link ReservationInterval} projections of the matching occurrences.
+     */
+    List<ReservationInterval> findAllIntervalsBySeriesIdStartingFrom(Long seriesId, LocalDateTime from);
+
+    /**
+     * Moves all active occurrences of a reservation series starting at or after the given date-time by the given
+     * amount of time with a single bulk update, incrementing their versions.
+     *
+     * @param seriesId The ID of the series.
+     * @param from     The lower bound (inclusive) for the start time of the moved occurrences.
+     * @param shift    The amount of time every occurrence is moved by.
+     * @return The number of moved reservations.
+     */
+    int shiftAllBySeriesIdStartingFrom(Long seriesId, LocalDateTime from, Duration shift);
+
+    /**
+     * Marks all active occurrences of a reservation series starting at or after the given date-time as deleted
+     * with a single bulk update, incrementing their versions.
+     *
+     * @param seriesId The ID of the series.
+     * @param from     The lower bound (inclusive) for the start time of the deleted occurrences.
+     * @return The number of deleted reservations.
+     */
+    int softDeleteAllBySeriesIdStartingFrom(Long seriesId, LocalDateTime from);
+
+    /**
+     * Marks all active reservations on the given court as deleted with a single bulk update, incrementing
+     * their versions.
+     *
+     * @param courtId The ID of the court.
+     * @return The number of deleted reservations.
+     */
+    int softDeleteAllByCourtId(Long courtId);
+
+    /**
+     * Marks all active reservations on the courts of the given surface type as deleted with a single bulk update,
+     * incrementing their versions.
+     *
+     * @param surfaceTypeId The ID of the surface type.
+     * @return The number of deleted reservations.
+     */
+    int softDeleteAllBySurfaceTypeId(Long surfaceTypeId);
 }
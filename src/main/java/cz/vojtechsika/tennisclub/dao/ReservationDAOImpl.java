@@ -1,16 +1,25 @@
 package cz.vojtechsika.tennisclub.dao;
 
 
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
 import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.metrics.MeterNames;
+import cz.vojtechsika.tennisclub.metrics.SlowQueryLog;
+import cz.vojtechsika.tennisclub.util.ReservationCursor;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 /**
@@ -18,9 +27,11 @@ import java.util.Optional;
  * database access for managing {@link Reservation} entities. This class uses JPA (Jakarta Persistence API)
  * and an {@link EntityManager} to interact with the underlying database. It includes methods for creating,
  * updating, and retrieving reservations, as well as specialized queries to filter by date, court number,
- * and phone number.
+ * and phone number. The JPQL queries are run through the {@link SlowQueryLog}, except the streamed export,
+ * whose rows are read while the caller consumes them.
  */
 @Repository
+@Timed(value = MeterNames.DAO_QUERIES, histogram = true)
 public class ReservationDAOImpl implements ReservationDAO {
 
     /**
@@ -28,20 +39,34 @@ public class ReservationDAOImpl implements ReservationDAO {
      */
     private final EntityManager entityManager;
 
+    /**
+     * The log the JPQL queries are run through, recording the slow ones with their parameters.
+     */
+    private final SlowQueryLog slowQueryLog;
+
+    /**
+     * Order of the paged reservation lists; the ID breaks ties of equal start times, so every row has one position.
+     */
+    private static final String KEYSET_ORDER = " ORDER BY r.startTime ASC, r.id ASC";
+
 
     /**
-     * Constructs a new ReservationDAOImpl with the provided {@link EntityManager}.
+     * Constructs a new ReservationDAOImpl with the provided {@link EntityManager} and {@link SlowQueryLog}.
      *
      * @param theEntityManager The {@link EntityManager} used to interact with the database.
+     * @param theSlowQueryLog  The {@link SlowQueryLog} the JPQL queries are run through.
      */
     @Autowired
-    public ReservationDAOImpl(EntityManager theEntityManager) {
+    public ReservationDAOImpl(EntityManager theEntityManager, SlowQueryLog theSlowQueryLog) {
         entityManager = theEntityManager;
+        slowQueryLog = theSlowQueryLog;
     }
 
 
     /**
-     * Persists a new {@link Reservation} entity in the database.
+     * Persists a new {@link Reservation} entity in the database. IDs come from a sequence, so Hibernate
+     * would defer the insert until the end of the transaction; the insert is flushed immediately instead,
+     * because the per-minute slot claims written over JDBC reference the new row.
      *
      * @param reservation The {@link Reservation} entity to be created.
      * @return The persisted {@link Reservation} entity, including any generated values (e.g., ID).
@@ -49,6 +74,7 @@ public class ReservationDAOImpl implements ReservationDAO {
     @Override
     public Reservation create(Reservation reservation) {
         entityManager.persist(reservation);
+        entityManager.flush();
         return reservation;
     }
 
@@ -88,13 +114,17 @@ public class ReservationDAOImpl implements ReservationDAO {
             query.setParameter("excludeId", excludeId);
         }
 
-        return query.getResultList();
+        return slowQueryLog.getResultList(query);
     }
 
 
     /**
      * Retrieves a {@link Reservation} by its ID, only if the reservation and its associated court and user
      * are not marked as deleted.
+     * <p>
+     * The court and the user are fetched by the same query. The query always runs, so a reservation cancelled
+     * or a court deleted by another application instance is never returned.
+     * </p>
      *
      * @param id The ID of the reservation to be retrieved.
      * @return An {@link Optional} containing the {@link Reservation} entity if found and not deleted;
@@ -103,13 +133,13 @@ public class ReservationDAOImpl implements ReservationDAO {
     @Override
     public Optional<Reservation> findById(Long id) {
 
-        TypedQuery<Reservation> query = entityManager.createQuery("SELECT r FROM Reservation r WHERE " +
-                        "r.id = :id AND r.deleted = :isFalse AND r.court.deleted = :isFalse AND" +
-                        " r.user.deleted = :isFalse", Reservation.class).
+        TypedQuery<Reservation> query = entityManager.createQuery("SELECT r FROM Reservation r JOIN FETCH r.court c " +
+                        "JOIN FETCH r.user u WHERE r.id = :id AND r.deleted = :isFalse AND c.deleted = :isFalse AND" +
+                        " u.deleted = :isFalse", Reservation.class).
                 setParameter("id", id).
                 setParameter("isFalse", false);
 
-        List<Reservation> result = query.getResultList();
+        List<Reservation> result = slowQueryLog.getResultList(query);
         if (result.isEmpty()) {
             return Optional.empty();
         } else {
@@ -134,29 +164,73 @@ public class ReservationDAOImpl implements ReservationDAO {
                         "ORDER BY r.createdAt DESC ", Reservation.class).
                 setParameter("courtNumber", courtNumber).
                 setParameter("isFalse", false);
-        return query.getResultList();
+        return slowQueryLog.getResultList(query);
+    }
+
+
+    /**
+     * Retrieves one page of the {@link Reservation} entities not marked as deleted, ordered by {@code startTime}
+     * and {@code id} ascending. The page starts right after the cursor with a row value comparison, so the
+     * database seeks to the position instead of reading and discarding all previous pages. The court and the user
+     * of every reservation are fetched by the same query, so mapping the page does not issue further selects.
+     *
+     * @param after The cursor of the last reservation of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} {@link Reservation} entities following the cursor.
+     */
+    @Override
+    public List<Reservation> findPage(ReservationCursor after, int limit) {
+        TypedQuery<Reservation> query = entityManager.createQuery("SELECT r FROM Reservation r " +
+                        "JOIN FETCH r.court JOIN FETCH r.user WHERE r.deleted = :isFalse" + keysetCondition(after) + KEYSET_ORDER, Reservation.class)
+                .setParameter("isFalse", false);
+        return keysetPage(query, after, limit);
+    }
+
+
+    /**
+     * Retrieves one page of the {@link Reservation} entities of a specific court not marked as deleted,
+     * ordered by {@code startTime} and {@code id} ascending, starting right after the cursor, together with their
+     * court and user.
+     *
+     * @param courtNumber The court number to filter reservations by.
+     * @param after The cursor of the last reservation of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} {@link Reservation} entities of the court following the cursor.
+     */
+    @Override
+    public List<Reservation> findPageByCourtNumber(int courtNumber, ReservationCursor after, int limit) {
+        TypedQuery<Reservation> query = entityManager.createQuery("SELECT r FROM Reservation r JOIN FETCH r.court c " +
+                        "JOIN FETCH r.user WHERE c.courtNumber = :courtNumber AND r.deleted = :isFalse" + keysetCondition(after) +
+                        KEYSET_ORDER, Reservation.class)
+                .setParameter("courtNumber", courtNumber)
+                .setParameter("isFalse", false);
+        return keysetPage(query, after, limit);
     }
 
 
     /**
-     * Retrieves all {@link Reservation} entities for a specific phone number. If {@code futureOnly} is true,
-     * only reservations with {@code startTime} greater than or equal to the current date-time are returned.
-     * Results are ordered by {@code startTime} ascending. Only reservations not marked as deleted are returned.
+     * Retrieves one page of the {@link Reservation} entities of a specific phone number not marked as deleted,
+     * ordered by {@code startTime} and {@code id} ascending, starting right after the cursor, together with their
+     * court and user. If {@code futureOnly} is true, only reservations with {@code startTime} greater than or equal to the current
+     * date-time are returned.
      *
      * @param phoneNumber The phone number to filter reservations by.
      * @param futureOnly  Whether to include only reservations occurring in the future; if {@code true},
      *                    only reservations with {@code startTime} >= now are returned.
-     * @return A list of {@link Reservation} entities matching the phone number, optionally filtered to future-only,
-     *         ordered by {@code startTime} ascending.
+     * @param after The cursor of the last reservation of the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} {@link Reservation} entities of the phone number following the cursor.
      */
     @Override
-    public List<Reservation> findAllByPhoneNumber(String phoneNumber, boolean futureOnly) {
-        String baseQuery = "SELECT r FROM Reservation r WHERE r.user.phoneNumber = :phoneNumber";
+    public List<Reservation> findPageByPhoneNumber(String phoneNumber, boolean futureOnly, ReservationCursor after,
+                                                   int limit) {
+        String baseQuery = "SELECT r FROM Reservation r JOIN FETCH r.court JOIN FETCH r.user u " +
+                "WHERE u.phoneNumber = :phoneNumber";
 
         if (futureOnly) {
             baseQuery = baseQuery + " AND r.startTime >= :from";
         }
-        baseQuery += " AND r.deleted = :isFalse ORDER BY r.startTime ASC";
+        baseQuery += " AND r.deleted = :isFalse" + keysetCondition(after) + KEYSET_ORDER;
 
         TypedQuery<Reservation> query = entityManager.createQuery(baseQuery, Reservation.class)
                 .setParameter("phoneNumber", phoneNumber)
@@ -164,39 +238,344 @@ public class ReservationDAOImpl implements ReservationDAO {
         if (futureOnly) {
             query.setParameter("from", LocalDateTime.now());
         }
-        return query.getResultList();
+        return keysetPage(query, after, limit);
     }
 
 
     /**
-     * Retrieves all {@link Reservation} entities in the system, ordered by {@code startTime} ascending.
-     * Only reservations not marked as deleted are returned.
+     * Retrieves all {@link Reservation} entities in the system, ordered by {@code startTime} ascending,
+     * together with their court and user. Only reservations not marked as deleted are returned.
      *
      * @return A list of all non-deleted {@link Reservation} entities, ordered by {@code startTime}.
      */
     @Override
     public List<Reservation> findAll() {
 
-        TypedQuery<Reservation> query = entityManager.createQuery("SELECT r FROM Reservation r WHERE" +
-                " r.deleted = :isFalse ORDER BY r.startTime ASC",Reservation.class)
+        TypedQuery<Reservation> query = entityManager.createQuery("SELECT r FROM Reservation r JOIN FETCH r.court " +
+                "JOIN FETCH r.user WHERE r.deleted = :isFalse ORDER BY r.startTime ASC",Reservation.class)
                 .setParameter("isFalse", false);
 
-        return query.getResultList();
+        return slowQueryLog.getResultList(query);
+    }
+
+
+    /**
+     * Streams all {@link Reservation} entities not marked as deleted, ordered by {@code startTime} and {@code id}
+     * ascending. The court and the user are fetched by the same query, so mapping a row does not issue further
+     * selects. Hibernate reads the rows through a scrollable result with the given JDBC fetch size and the
+     * entities are loaded read-only, so no dirty-checking snapshots are kept for them.
+     *
+     * @param fetchSize The number of rows the JDBC driver fetches per round trip.
+     * @return A {@link Stream} of the non-deleted {@link Reservation} entities; it must be closed after use.
+     */
+    @Override
+    public Stream<Reservation> streamAll(int fetchSize) {
+
+        return entityManager.createQuery("SELECT r FROM Reservation r JOIN FETCH r.court JOIN FETCH r.user " +
+                        "WHERE r.deleted = :isFalse" + KEYSET_ORDER, Reservation.class)
+                .setParameter("isFalse", false)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+
+    /**
+     * Clears the persistence context of the {@link EntityManager}, detaching every managed entity.
+     */
+    @Override
+    public void clear() {
+        entityManager.clear();
     }
 
 
     /**
      * Updates an existing {@link Reservation} entity in the database. This method merges the provided
      * {@link Reservation} with the existing one in the persistence context, applying any changed fields
-     * while preserving other properties.
+     * while preserving other properties. The change is flushed immediately, so the returned entity already
+     * carries its incremented version.
      *
      * @param reservation The {@link Reservation} entity with updated values to be merged.
      * @return The merged {@link Reservation} entity reflecting the updates.
      */
     @Override
     public Reservation update(Reservation reservation) {
-        return entityManager.merge(reservation);
+        Reservation merged = entityManager.merge(reservation);
+        entityManager.flush();
+        return merged;
+    }
+
+    /**
+     * Updates the given {@link Reservation} entities in the database. Every entity is merged into the
+     * persistence context and the changes are flushed once at the end, so Hibernate groups the updates into
+     * JDBC batches instead of one round trip per entity. The returned entities already carry their incremented
+     * versions.
+     *
+     * @param reservations The {@link Reservation} entities with updated values to be merged.
+     * @return The merged {@link Reservation} entities reflecting the updates.
+     */
+    @Override
+    public List<Reservation> updateAll(List<Reservation> reservations) {
+        List<Reservation> merged = reservations.stream().map(entityManager::merge).toList();
+        entityManager.flush();
+        return merged;
+    }
+
+
+    /**
+     * Retrieves the intervals of all {@link Reservation} entities that are not marked as deleted and start at or
+     * after the given date-time. The result is built by a JPQL constructor expression, so only the ID,
+     * court number, start and end time are read and no entities are hydrated.
+     *
+     * @param from The lower bound (inclusive) for the reservation start time.
+     * @return A list of {@link ReservationInterval} projections of the matching reservations.
+     */
+    @Override
+    public List<ReservationInterval> findAllIntervalsStartingFrom(LocalDateTime from) {
+
+        TypedQuery<ReservationInterval> query = entityManager.createQuery("SELECT new " +
+                        "cz.vojtechsika.tennisclub.dto.projection.ReservationInterval(r.id, r.court.courtNumber, " +
+                        "r.startTime, r.endTime) FROM Reservation r WHERE r.startTime >= :from " +
+                        "AND r.deleted = :isFalse", ReservationInterval.class)
+                .setParameter("from", from)
+                .setParameter("isFalse", false);
+
+        return slowQueryLog.getResultList(query);
+    }
+
+
+    /**
+     * Retrieves the intervals of all {@link Reservation} entities on the given court that are not marked as deleted
+     * and start within {@code [from, to)}. Only the ID, court number, start and end time are read.
+     *
+     * @param courtNumber The court number to filter reservations by.
+     * @param from        The lower bound (inclusive) for the reservation start time.
+     * @param to          The upper bound (exclusive) for the reservation start time.
+     * @return A list of {@link ReservationInterval} projections ordered by start time ascending.
+     */
+    @Override
+    public List<ReservationInterval> findAllIntervalsByCourtNumberBetween(int courtNumber, LocalDateTime from, LocalDateTime to) {
+
+        TypedQuery<ReservationInterval> query = entityManager.createQuery("SELECT new " +
+                        "cz.vojtechsika.tennisclub.dto.projection.ReservationInterval(r.id, r.court.courtNumber, " +
+                        "r.startTime, r.endTime) FROM Reservation r WHERE r.court.courtNumber = :courtNumber " +
+                        "AND r.startTime >= :from AND r.startTime < :to AND r.deleted = :isFalse " +
+                        "ORDER BY r.startTime ASC", ReservationInterval.class)
+                .setParameter("courtNumber", courtNumber)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("isFalse", false);
+
+        return slowQueryLog.getResultList(query);
+    }
+
+
+    /**
+     * Retrieves the intervals of all {@link Reservation} entities on any of the given courts that are not marked
+     * as deleted and start within {@code [from, to)}, using a single {@code IN} query for all courts.
+     *
+     * @param courtNumbers The court numbers to filter reservations by.
+     * @param from         The lower bound (inclusive) for the reservation start time.
+     * @param to           The upper bound (exclusive) for the reservation start time.
+     * @return A list of {@link ReservationInterval} projections ordered by court number and start time,
+     *         or an empty list if {@code courtNumbers} is empty.
+     */
+    @Override
+    public List<ReservationInterval> findAllIntervalsByCourtNumbersBetween(Collection<Integer> courtNumbers,
+                                                                           LocalDateTime from, LocalDateTime to) {
+        if (courtNumbers.isEmpty()) {
+            return List.of();
+        }
+        TypedQuery<ReservationInterval> query = entityManager.createQuery("SELECT new " +
+                        "cz.vojtechsika.tennisclub.dto.projection.ReservationInterval(r.id, r.court.courtNumber, " +
+                        "r.startTime, r.endTime) FROM Reservation r WHERE r.court.courtNumber IN :courtNumbers " +
+                        "AND r.startTime >= :from AND r.startTime < :to AND r.deleted = :isFalse " +
+                        "ORDER BY r.court.courtNumber ASC, r.startTime ASC", ReservationInterval.class)
+                .setParameter("courtNumbers", courtNumbers)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("isFalse", false);
+
+        return slowQueryLog.getResultList(query);
+    }
+
+    /**
+     * Retrieves the distinct numbers of courts having an active reservation that overlaps the given range.
+     * Two intervals overlap when one starts before the other ends and ends after the other starts.
+     *
+     * @param startTime The start of the range.
+     * @param endTime   The end of the range.
+     * @return A list of distinct court numbers that are occupied within the range.
+     */
+    @Override
+    public List<Integer> findOccupiedCourtNumbersBetween(LocalDateTime startTime, LocalDateTime endTime) {
+
+        TypedQuery<Integer> query = entityManager.createQuery("SELECT DISTINCT r.court.courtNumber " +
+                        "FROM Reservation r WHERE r.startTime < :endTime AND r.endTime > :startTime " +
+                        "AND r.deleted = :isFalse", Integer.class)
+                .setParameter("startTime", startTime)
+                .setParameter("endTime", endTime)
+                .setParameter("isFalse", false);
+
+        return slowQueryLog.getResultList(query);
+    }
+
+    /**
+     * Retrieves the court number and time range of an active reservation by its ID.
+     * Used to find out which court and day a reservation occupies before it is changed.
+     *
+     * @param id The ID of the reservation.
+     * @return An {@link Optional} containing the {@link ReservationInterval} if found and not deleted;
+     *         otherwise, {@link Optional#empty()}.
+     */
+    @Override
+    public Optional<ReservationInterval> findIntervalById(Long id) {
+
+        TypedQuery<ReservationInterval> query = entityManager.createQuery("SELECT new " +
+                        "cz.vojtechsika.tennisclub.dto.projection.ReservationInterval(r.id, r.court.courtNumber, " +
+                        "r.startTime, r.endTime) FROM Reservation r WHERE r.id = :id AND r.deleted = :isFalse",
+                        ReservationInterval.class)
+                .setParameter("id", id)
+                .setParameter("isFalse", false);
+
+        return slowQueryLog.getResultList(query).stream().findFirst();
     }
 
 
+    /**
+     * Retrieves all {@link Reservation} entities belonging to the given series that are not marked as deleted,
+     * fetching their court and user in the same query. Results are ordered by {@code startTime} ascending.
+     *
+     * @param seriesId The ID of the series.
+     * @return A list of the active occurrences of the series.
+     */
+    @Override
+    public List<Reservation> findAllBySeriesId(Long seriesId) {
+
+        TypedQuery<Reservation> query = entityManager.createQuery("SELECT r FROM Reservation r " +
+                        "JOIN FETCH r.court JOIN FETCH r.user WHERE r.series.id = :seriesId " +
+                        "AND r.deleted = :isFalse ORDER BY r.startTime ASC", Reservation.class)
+                .setParameter("seriesId", seriesId)
+                .setParameter("isFalse", false);
+
+        return slowQueryLog.getResultList(query);
+    }
+
+    /**
+     * Retrieves the intervals of all {@link Reservation} entities belonging to the given series that are not
+     * marked as deleted and start at or after the given date-time. Only the ID, court number, start and end
+     * time are read.
+     *
+     * @param seriesId The ID of the series.
+     * @param from     The lower bound (inclusive) for the reservation start time.
+     * @return A list of {@link ReservationInterval} projections ordered by start time ascending.
+     */
+    @Override
+    public List<ReservationInterval> findAllIntervalsBySeriesIdStartingFrom(Long seriesId, LocalDateTime from) {
+
+        TypedQuery<ReservationInterval> query = entityManager.createQuery("SELECT new " +
+                        "cz.vojtechsika.tennisclub.dto.projection.ReservationInterval(r.id, r.court.courtNumber, " +
+                        "r.startTime, r.endTime) FROM Reservation r WHERE r.series.id = :seriesId " +
+                        "AND r.startTime >= :from AND r.deleted = :isFalse ORDER BY r.startTime ASC",
+                        ReservationInterval.class)
+                .setParameter("seriesId", seriesId)
+                .setParameter("from", from)
+                .setParameter("isFalse", false);
+
+        return slowQueryLog.getResultList(query);
+    }
+
+    /**
+     * Moves the active occurrences of the given series starting at or after {@code from} by {@code shift}
+     * with one JPQL bulk update. The statement bypasses the persistence context, so it increments the
+     * versions itself to keep optimistic locking of the moved reservations intact.
+     *
+     * @param seriesId The ID of the series.
+     * @param from     The lower bound (inclusive) for the start time of the moved occurrences.
+     * @param shift    The amount of time every occurrence is moved by.
+     * @return The number of moved reservations.
+     */
+    @Override
+    public int shiftAllBySeriesIdStartingFrom(Long seriesId, LocalDateTime from, Duration shift) {
+
+        return slowQueryLog.executeUpdate(entityManager.createQuery("UPDATE Reservation r " +
+                        "SET r.startTime = r.startTime + :shiftMinutes minute, " +
+                        "r.endTime = r.endTime + :shiftMinutes minute, r.version = r.version + 1 " +
+                        "WHERE r.series.id = :seriesId AND r.startTime >= :from AND r.deleted = :isFalse")
+                .setParameter("shiftMinutes", shift.toMinutes())
+                .setParameter("seriesId", seriesId)
+                .setParameter("from", from)
+                .setParameter("isFalse", false));
+    }
+
+    /**
+     * Marks the active occurrences of the given series starting at or after {@code from} as deleted with one
+     * JPQL bulk update, incrementing their versions.
+     *
+     * @param seriesId The ID of the series.
+     * @param from     The lower bound (inclusive) for the start time of the deleted occurrences.
+     * @return The number of deleted reservations.
+     */
+    @Override
+    public int softDeleteAllBySeriesIdStartingFrom(Long seriesId, LocalDateTime from) {
+
+        return slowQueryLog.executeUpdate(entityManager.createQuery("UPDATE Reservation r " +
+                        "SET r.deleted = :isTrue, r.version = r.version + 1 " +
+                        "WHERE r.series.id = :seriesId AND r.startTime >= :from AND r.deleted = :isFalse")
+                .setParameter("isTrue", true)
+                .setParameter("seriesId", seriesId)
+                .setParameter("from", from)
+                .setParameter("isFalse", false));
+    }
+
+    /**
+     * Marks the active reservations on the given court as deleted with one JPQL bulk update, incrementing
+     * their versions.
+     *
+     * @param courtId The ID of the court.
+     * @return The number of deleted reservations.
+     */
+    @Override
+    public int softDeleteAllByCourtId(Long courtId) {
+
+        return slowQueryLog.executeUpdate(entityManager.createQuery("UPDATE Reservation r " +
+                        "SET r.deleted = :isTrue, r.version = r.version + 1 WHERE r.court.id = :courtId AND r.deleted = :isFalse")
+                .setParameter("isTrue", true)
+                .setParameter("courtId", courtId)
+                .setParameter("isFalse", false));
+    }
+
+    /**
+     * Marks the active reservations on every court of the given surface type as deleted with one JPQL bulk
+     * update, incrementing their versions. The courts are selected by a subquery, so the statement is the same
+     * however many courts and reservations it touches.
+     *
+     * @param surfaceTypeId The ID of the surface type.
+     * @return The number of deleted reservations.
+     */
+    @Override
+    public int softDeleteAllBySurfaceTypeId(Long surfaceTypeId) {
+
+        return slowQueryLog.executeUpdate(entityManager.createQuery("UPDATE Reservation r " +
+                        "SET r.deleted = :isTrue, r.version = r.version + 1 WHERE r.deleted = :isFalse AND r.court.id IN " +
+                        "(SELECT c.id FROM Court c WHERE c.surfaceType.id = :surfaceTypeId)")
+                .setParameter("isTrue", true)
+                .setParameter("surfaceTypeId", surfaceTypeId)
+                .setParameter("isFalse", false));
+    }
+
+
+    // Condition continuing right after the cursor in the (startTime, id) order
+    private static String keysetCondition(ReservationCursor after) {
+        return after == null ? "" : " AND (r.startTime, r.id) > (:afterStartTime, :afterId)";
+    }
+
+    // Binds the cursor, if any, and reads at most limit rows
+    private List<Reservation> keysetPage(TypedQuery<Reservation> query, ReservationCursor after, int limit) {
+        if (after != null) {
+            query.setParameter("afterStartTime", after.startTime())
+                    .setParameter("afterId", after.id());
+        }
+        return slowQueryLog.getResultList(query.setMaxResults(limit));
+    }
 }
@@ -0,0 +1,30 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.entity.ReservationSeries;
+
+import java.util.Optional;
+
+/**
+ * ReservationSeriesDAO is an interface defining data access methods for {@link ReservationSeries} entities.
+ * The occurrences of a series are ordinary reservations and are accessed through {@link ReservationDAO}.
+ */
+public interface ReservationSeriesDAO {
+
+    /**
+     * Persists a new {@link ReservationSeries} entity in the database.
+     *
+     * @param series The {@link ReservationSeries} entity to be saved.
+     * @return The saved {@link ReservationSeries} entity, including any generated values (e.g., ID).
+     */
+    ReservationSeries save(ReservationSeries series);
+
+
+    /**
+     * Retrieves a {@link ReservationSeries} by its ID together with its court and user, only if it is not cancelled.
+     *
+     * @param id The ID of the series to retrieve.
+     * @return An {@link Optional} containing the {@link ReservationSeries} if found and not cancelled,
+     *         or empty otherwise.
+     */
+    Optional<ReservationSeries> findById(Long id);
+}
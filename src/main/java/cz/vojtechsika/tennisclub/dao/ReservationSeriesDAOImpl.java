@@ -0,0 +1,72 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.entity.ReservationSeries;
+import cz.vojtechsika.tennisclub.metrics.MeterNames;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * ReservationSeriesDAOImpl is an implementation of the {@link ReservationSeriesDAO} interface that provides
+ * database access for managing {@link ReservationSeries} entities using an {@link EntityManager}.
+ */
+@Repository
+@Timed(value = MeterNames.DAO_QUERIES, histogram = true)
+public class ReservationSeriesDAOImpl implements ReservationSeriesDAO {
+
+    /**
+     * The entityManager used to interact with the database.
+     */
+    private final EntityManager entityManager;
+
+
+    /**
+     * Constructs a new ReservationSeriesDAOImpl with the provided {@link EntityManager}.
+     *
+     * @param theEntityManager The {@link EntityManager} used to interact with the database.
+     */
+    @Autowired
+    public ReservationSeriesDAOImpl(EntityManager theEntityManager) {
+        entityManager = theEntityManager;
+    }
+
+
+    /**
+     * Persists a new {@link ReservationSeries} entity in the database. The insert is flushed immediately,
+     * because the occurrences of the series are inserted over JDBC and reference the new row.
+     *
+     * @param series The {@link ReservationSeries} entity to be saved.
+     * @return The persisted {@link ReservationSeries} entity, including any generated values (e.g., ID).
+     */
+    @Override
+    public ReservationSeries save(ReservationSeries series) {
+        entityManager.persist(series);
+        entityManager.flush();
+        return series;
+    }
+
+
+    /**
+     * Retrieves a {@link ReservationSeries} by its ID, fetching its court and user in the same query.
+     * Cancelled series are not returned.
+     *
+     * @param id The ID of the series to retrieve.
+     * @return An {@link Optional} containing the {@link ReservationSeries} if found and not cancelled;
+     *         otherwise, {@link Optional#empty()}.
+     */
+    @Override
+    public Optional<ReservationSeries> findById(Long id) {
+
+        TypedQuery<ReservationSeries> query = entityManager.createQuery("SELECT s FROM ReservationSeries s " +
+                        "JOIN FETCH s.court JOIN FETCH s.user WHERE s.id = :id AND s.deleted = :isFalse",
+                        ReservationSeries.class)
+                .setParameter("id", id)
+                .setParameter("isFalse", false);
+
+        return query.getResultList().stream().findFirst();
+    }
+}
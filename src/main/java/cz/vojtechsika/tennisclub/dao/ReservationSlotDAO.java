@@ -0,0 +1,73 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.ReservationSlot;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ReservationSlotDAO is an interface that defines the Data Access Object (DAO) for {@link ReservationSlot} claims.
+ * Claims are written in the same transaction as the reservation they belong to.
+ */
+public interface ReservationSlotDAO {
+
+    /**
+     * Claims every minute of the given range on the given court for a reservation.
+     *
+     * @param courtId       The ID of the court.
+     * @param reservationId The ID of the reservation owning the claims.
+     * @param startTime     The start of the reservation.
+     * @param endTime       The end of the reservation.
+     * @throws org.springframework.dao.DuplicateKeyException if any of the minutes is already claimed.
+     */
+    void claim(Long courtId, Long reservationId, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * Claims the minutes of all given reservations at once. Every reservation must already have an ID
+     * and a court with an ID.
+     *
+     * @param reservations The reservations to claim the minutes of.
+     * @throws org.springframework.dao.DuplicateKeyException if any of the minutes is already claimed.
+     */
+    void claimAll(List<Reservation> reservations);
+
+    /**
+     * Claims the minutes of already stored reservations on one court at once, e.g., after they were moved.
+     *
+     * @param courtId   The ID of the court.
+     * @param intervals The intervals of the reservations to claim the minutes of.
+     * @throws org.springframework.dao.DuplicateKeyException if any of the minutes is already claimed.
+     */
+    void claimIntervals(Long courtId, List<ReservationInterval> intervals);
+
+    /**
+     * Releases all claims of the given reservation.
+     *
+     * @param reservationId The ID of the reservation.
+     */
+    void releaseByReservationId(Long reservationId);
+
+    /**
+     * Releases all claims on the given court.
+     *
+     * @param courtId The ID of the court.
+     */
+    void releaseByCourtId(Long courtId);
+
+    /**
+     * Releases all claims on the courts of the given surface type.
+     *
+     * @param surfaceTypeId The ID of the surface type.
+     */
+    void releaseBySurfaceTypeId(Long surfaceTypeId);
+
+    /**
+     * Releases all claims of the active occurrences of a reservation series starting at or after the given time.
+     *
+     * @param seriesId The ID of the series.
+     * @param from     The lower bound (inclusive) for the start time of the occurrences.
+     */
+    void releaseBySeriesIdStartingFrom(Long seriesId, LocalDateTime from);
+}
@@ -0,0 +1,164 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.ReservationSlot;
+import cz.vojtechsika.tennisclub.metrics.MeterNames;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReservationSlotDAOImpl is an implementation of the {@link ReservationSlotDAO} interface.
+ * <p>
+ * A reservation of up to two hours owns up to 120 claims, so claims are written with a single JDBC batch
+ * through {@link JdbcTemplate} instead of persisting one entity at a time. The template takes part in the
+ * surrounding JPA transaction, so the claims are committed or rolled back together with the reservation.
+ * </p>
+ */
+@Repository
+@Timed(value = MeterNames.DAO_QUERIES, histogram = true)
+public class ReservationSlotDAOImpl implements ReservationSlotDAO {
+
+    /**
+     * The JdbcTemplate used to write claims in batches.
+     */
+    private JdbcTemplate jdbc;
+
+    /**
+     * Statement inserting one claim.
+     */
+    private static final String INSERT_CLAIM =
+            "INSERT INTO reservation_slot (court_id, slot_start, reservation_id) VALUES (?, ?, ?)";
+
+
+    /**
+     * Constructs a new ReservationSlotDAOImpl with the provided {@link JdbcTemplate}.
+     *
+     * @param theJdbc The {@link JdbcTemplate} used to interact with the database.
+     */
+    @Autowired
+    public ReservationSlotDAOImpl(JdbcTemplate theJdbc) {
+        jdbc = theJdbc;
+    }
+
+
+    /**
+     * Inserts one claim per minute of {@code [startTime, endTime)}. A start or end that is not on a whole
+     * minute claims the whole minute it falls into.
+     *
+     * @param courtId       The ID of the court.
+     * @param reservationId The ID of the reservation owning the claims.
+     * @param startTime     The start of the reservation.
+     * @param endTime       The end of the reservation.
+     * @throws org.springframework.dao.DuplicateKeyException if any of the minutes is already claimed.
+     */
+    @Override
+    public void claim(Long courtId, Long reservationId, LocalDateTime startTime, LocalDateTime endTime) {
+        List<Object[]> claims = new ArrayList<>();
+        addClaims(claims, courtId, reservationId, startTime, endTime);
+        jdbc.batchUpdate(INSERT_CLAIM, claims);
+    }
+
+
+    /**
+     * Inserts the claims of all given reservations with a single JDBC batch.
+     *
+     * @param reservations The reservations to claim the minutes of.
+     * @throws org.springframework.dao.DuplicateKeyException if any of the minutes is already claimed.
+     */
+    @Override
+    public void claimAll(List<Reservation> reservations) {
+        List<Object[]> claims = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            addClaims(claims, reservation.getCourt().getId(), reservation.getId(),
+                    reservation.getStartTime(), reservation.getEndTime());
+        }
+        if (!claims.isEmpty()) {
+            jdbc.batchUpdate(INSERT_CLAIM, claims);
+        }
+    }
+
+
+    /**
+     * Inserts the claims of the given reservations on one court with a single JDBC batch.
+     *
+     * @param courtId   The ID of the court.
+     * @param intervals The intervals of the reservations to claim the minutes of.
+     * @throws org.springframework.dao.DuplicateKeyException if any of the minutes is already claimed.
+     */
+    @Override
+    public void claimIntervals(Long courtId, List<ReservationInterval> intervals) {
+        List<Object[]> claims = new ArrayList<>();
+        for (ReservationInterval interval : intervals) {
+            addClaims(claims, courtId, interval.getId(), interval.getStartTime(), interval.getEndTime());
+        }
+        if (!claims.isEmpty()) {
+            jdbc.batchUpdate(INSERT_CLAIM, claims);
+        }
+    }
+
+
+    /**
+     * Deletes all claims of the given reservation.
+     *
+     * @param reservationId The ID of the reservation.
+     */
+    @Override
+    public void releaseByReservationId(Long reservationId) {
+        jdbc.update("DELETE FROM reservation_slot WHERE reservation_id = ?", reservationId);
+    }
+
+
+    /**
+     * Deletes all claims on the given court.
+     *
+     * @param courtId The ID of the court.
+     */
+    @Override
+    public void releaseByCourtId(Long courtId) {
+        jdbc.update("DELETE FROM reservation_slot WHERE court_id = ?", courtId);
+    }
+
+
+    /**
+     * Deletes all claims on the courts of the given surface type with a single statement.
+     *
+     * @param surfaceTypeId The ID of the surface type.
+     */
+    @Override
+    public void releaseBySurfaceTypeId(Long surfaceTypeId) {
+        jdbc.update("DELETE FROM reservation_slot WHERE court_id IN (SELECT c.id FROM court c " +
+                "WHERE c.surface_type_id = ?)", surfaceTypeId);
+    }
+
+
+    /**
+     * Deletes the claims of the active occurrences of the given series starting at or after {@code from}
+     * with a single statement.
+     *
+     * @param seriesId The ID of the series.
+     * @param from     The lower bound (inclusive) for the start time of the occurrences.
+     */
+    @Override
+    public void releaseBySeriesIdStartingFrom(Long seriesId, LocalDateTime from) {
+        jdbc.update("DELETE FROM reservation_slot WHERE reservation_id IN (SELECT r.id FROM reservation r " +
+                "WHERE r.series_id = ? AND r.start_time >= ? AND r.deleted = FALSE)", seriesId, Timestamp.valueOf(from));
+    }
+
+
+    // Adds one claim row per minute of [startTime, endTime)
+    private void addClaims(List<Object[]> claims, Long courtId, Long reservationId,
+                           LocalDateTime startTime, LocalDateTime endTime) {
+        for (LocalDateTime slot = startTime.truncatedTo(ChronoUnit.MINUTES); slot.isBefore(endTime); slot = slot.plusMinutes(1)) {
+            claims.add(new Object[]{courtId, Timestamp.valueOf(slot), reservationId});
+        }
+    }
+}
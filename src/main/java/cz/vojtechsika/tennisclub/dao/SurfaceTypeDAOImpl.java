@@ -1,6 +1,8 @@
 package cz.vojtechsika.tennisclub.dao;
 
 import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import cz.vojtechsika.tennisclub.metrics.MeterNames;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +19,7 @@ import java.util.Optional;
  * updating, and retrieving surface types, filtering out any entities marked as deleted.
  */
 @Repository
+@Timed(value = MeterNames.DAO_QUERIES, histogram = true)
 public class SurfaceTypeDAOImpl implements SurfaceTypeDAO {
 
     /**
@@ -90,14 +93,17 @@ public class SurfaceTypeDAOImpl implements SurfaceTypeDAO {
     /**
      * Updates an existing {@link SurfaceType} entity in the database. This method merges the provided
      * {@link SurfaceType} entity with the existing one in the persistence context, applying any changed fields
-     * while preserving other properties.
+     * while preserving other properties. The change is flushed immediately, so the returned entity already
+     * carries its incremented version.
      *
      * @param surfaceType The {@link SurfaceType} entity with updated values to be merged.
      * @return The merged {@link SurfaceType} entity reflecting the updates.
      */
     @Override
     public SurfaceType update(SurfaceType surfaceType) {
-        return entityManager.merge(surfaceType);
+        SurfaceType merged = entityManager.merge(surfaceType);
+        entityManager.flush();
+        return merged;
     }
 
 
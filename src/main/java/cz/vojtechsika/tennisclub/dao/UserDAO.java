@@ -2,6 +2,8 @@ package cz.vojtechsika.tennisclub.dao;
 
 import cz.vojtechsika.tennisclub.entity.User;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 /**
  * UserDAO is an interface defining data access methods for {@link User} entities.
@@ -28,4 +30,42 @@ public interface UserDAO {
      * @return An {@link Optional} containing the {@link User} if found, or empty if no user exists with the given phone number.
      */
     Optional<User> findByPhone(String phone);
+
+
+    /**
+     * Retrieves all users with one of the given phone numbers in a single query.
+     *
+     * @param phones The phone numbers of the users to retrieve.
+     * @return A list of the {@link User} entities found; phone numbers without a user are simply missing.
+     */
+    List<User> findAllByPhones(Collection<String> phones);
+
+
+    /**
+     * Inserts a user with the given phone number, or renames or reactivates the existing one, in a single atomic
+     * statement. An existing active user with the given name is left untouched.
+     *
+     * @param phoneNumber The phone number of the user.
+     * @param userName    The name the user should have.
+     * @return An {@link Optional} containing the ID of the inserted or changed user, or empty if nothing was written.
+     */
+    Optional<Long> upsertIfChanged(String phoneNumber, String userName);
+
+
+    /**
+     * Retrieves the ID of the user with the given phone number, deleted or not.
+     *
+     * @param phoneNumber The phone number of an existing user.
+     * @return The ID of the user.
+     */
+    Long findIdByPhone(String phoneNumber);
+
+
+    /**
+     * Returns a reference to the user with the given ID without loading it from the database.
+     *
+     * @param id The ID of an existing user.
+     * @return A {@link User} reference whose state is loaded only when accessed.
+     */
+    User getReference(Long id);
 }
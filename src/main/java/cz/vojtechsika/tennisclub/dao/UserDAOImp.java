@@ -1,12 +1,18 @@
 package cz.vojtechsika.tennisclub.dao;
 
+import cz.vojtechsika.tennisclub.entity.IdSequences;
 import cz.vojtechsika.tennisclub.entity.User;
+import cz.vojtechsika.tennisclub.metrics.MeterNames;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,8 +21,13 @@ import java.util.Optional;
  * database access for managing {@link User} entities. This class uses JPA (Jakarta Persistence API)
  * and an {@link EntityManager} to interact with the underlying database. It includes methods to
  * save a new user and to retrieve a user by their phone number, filtering out any entities marked as deleted.
+ * <p>
+ * The upsert of a booking's user runs as a single H2 {@code MERGE} through a {@link JdbcTemplate} sharing
+ * the transaction of the {@link EntityManager}.
+ * </p>
  */
 @Repository
+@Timed(value = MeterNames.DAO_QUERIES, histogram = true)
 public class UserDAOImp implements UserDAO {
 
 
@@ -25,15 +36,22 @@ public class UserDAOImp implements UserDAO {
      */
     private EntityManager entityManager;
 
+    /**
+     * The JDBC template running the upsert.
+     */
+    private JdbcTemplate jdbc;
+
 
     /**
-     * Constructs a new UserDAOImp with the provided {@link EntityManager}.
+     * Constructs a new UserDAOImp with the provided {@link EntityManager} and {@link JdbcTemplate}.
      *
      * @param theEntityManager The {@link EntityManager} used to interact with the database.
+     * @param theJdbc          The JDBC template running the upsert.
      */
     @Autowired
-    public UserDAOImp(EntityManager theEntityManager) {
+    public UserDAOImp(EntityManager theEntityManager, JdbcTemplate theJdbc) {
         entityManager = theEntityManager;
+        jdbc = theJdbc;
     }
 
 
@@ -73,4 +91,89 @@ public class UserDAOImp implements UserDAO {
     }
 
 
+    /**
+     * Retrieves all users with one of the given phone numbers that are not marked as deleted, using a single
+     * {@code IN} query instead of one lookup per phone number.
+     *
+     * @param phones The phone numbers of the users to retrieve.
+     * @return A list of the {@link User} entities found, or an empty list if {@code phones} is empty.
+     */
+    @Override
+    public List<User> findAllByPhones(Collection<String> phones) {
+        if (phones.isEmpty()) {
+            return List.of();
+        }
+        TypedQuery<User> query = entityManager.createQuery("SELECT u FROM User u WHERE" +
+                    " u.phoneNumber IN :phones AND u.deleted = :isFalse", User.class)
+                .setParameter("phones", phones)
+                .setParameter("isFalse", false);
+
+        return query.getResultList();
+    }
+
+
+    /**
+     * Inserts, renames or reactivates the user with the given phone number using one {@code MERGE} statement.
+     * <p>
+     * The statement matches the user by the unique phone number, so two transactions creating the same user
+     * cannot both insert it. A transaction that lost the race of inserting the phone number gets a
+     * {@link DuplicateKeyException}; only the failed statement is undone, and repeating it merges into the row
+     * the winner has committed. A new user takes its ID from {@link IdSequences#USER} like a row inserted by
+     * Hibernate; the remaining IDs of that block stay unused.
+     * </p>
+     * <p>
+     * {@code FINAL TABLE} returns the ID of an inserted or updated row. When the user already exists with the same
+     * name nothing is written and nothing is returned.
+     * </p>
+     *
+     * @param phoneNumber The phone number of the user.
+     * @param userName    The name the user should have.
+     * @return An {@link Optional} containing the ID of the inserted or changed user, or empty if nothing was written.
+     */
+    @Override
+    public Optional<Long> upsertIfChanged(String phoneNumber, String userName) {
+        try {
+            return Optional.ofNullable(merge(phoneNumber, userName));
+        } catch (DuplicateKeyException e) {
+            return Optional.ofNullable(merge(phoneNumber, userName));
+        }
+    }
+
+
+    /**
+     * Retrieves the ID of the user with the given phone number with one JDBC query.
+     *
+     * @param phoneNumber The phone number of an existing user.
+     * @return The ID of the user.
+     */
+    @Override
+    public Long findIdByPhone(String phoneNumber) {
+        return jdbc.queryForObject("SELECT id FROM app_user WHERE phone_number = ?", Long.class, phoneNumber);
+    }
+
+
+    /**
+     * Returns a reference to the user with the given ID using {@link EntityManager#getReference(Class, Object)}.
+     *
+     * @param id The ID of an existing user.
+     * @return A {@link User} reference whose state is loaded only when accessed.
+     */
+    @Override
+    public User getReference(Long id) {
+        return entityManager.getReference(User.class, id);
+    }
+
+
+    // Merges the user and returns its ID, or null when the user exists with the same name and nothing was written
+    private Long merge(String phoneNumber, String userName) {
+        return jdbc.query("SELECT id FROM FINAL TABLE (MERGE INTO app_user u" +
+                        " USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)))) AS s(phone_number, user_name)" +
+                        " ON u.phone_number = s.phone_number" +
+                        " WHEN MATCHED AND (u.user_name <> s.user_name OR u.deleted) THEN" +
+                        " UPDATE SET user_name = s.user_name, deleted = FALSE" +
+                        " WHEN NOT MATCHED THEN INSERT (id, phone_number, user_name, deleted)" +
+                        " VALUES (NEXT VALUE FOR " + IdSequences.USER + ", s.phone_number, s.user_name, FALSE))",
+                resultSet -> resultSet.next() ? resultSet.getLong(1) : null,
+                phoneNumber, userName);
+    }
 }
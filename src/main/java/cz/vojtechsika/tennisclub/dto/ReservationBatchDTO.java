@@ -0,0 +1,47 @@
+package cz.vojtechsika.tennisclub.dto;
+
+import cz.vojtechsika.tennisclub.enums.BatchMode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * ReservationBatchDTO is a Data Transfer Object used to create many reservations with a single request,
+ * e.g., when the bookings of a whole league season are imported.
+ *
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "mode": "BEST_EFFORT",
+ *   "reservations": [
+ *     {
+ *       "userName": "Jane Doe",
+ *       "phoneNumber": "555-6789",
+ *       "startTime": "2025-06-15T14:00",
+ *       "endTime": "2025-06-15T15:00",
+ *       "courtNumber": 101,
+ *       "gameType": "DOUBLES"
+ *     }
+ *   ]
+ * }
+ * </pre>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationBatchDTO {
+
+    /**
+     * How the batch is committed when some items are invalid. Defaults to {@link BatchMode#ALL_OR_NOTHING}.
+     */
+    private BatchMode mode = BatchMode.ALL_OR_NOTHING;
+
+    /**
+     * The reservations to be created, in the order they should be processed.
+     */
+    private List<ReservationDTO> reservations;
+}
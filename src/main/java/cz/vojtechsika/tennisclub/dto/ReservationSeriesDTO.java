@@ -0,0 +1,92 @@
+package cz.vojtechsika.tennisclub.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.Recurrence;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * ReservationSeriesDTO is a Data Transfer Object used to book a recurring series of reservations,
+ * e.g., the same court every Tuesday at 19:00 for a season.
+ *
+ * The start and end time describe the first occurrence; further occurrences repeat it according to the
+ * recurrence. Exactly one of {@code untilDate} (last possible day, inclusive) and {@code occurrences}
+ * (number of reservations) ends the series.
+ *
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "userName": "Jane Doe",
+ *   "phoneNumber": "555-6789",
+ *   "startTime": "2025-06-17T19:00",
+ *   "endTime": "2025-06-17T20:30",
+ *   "courtNumber": 101,
+ *   "gameType": "DOUBLES",
+ *   "recurrence": "WEEKLY",
+ *   "untilDate": "2025-09-30"
+ * }
+ * </pre>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationSeriesDTO {
+
+    /**
+     * The full name of the user booking the series.
+     */
+    private String userName;
+
+    /**
+     * The phone number of the user booking the series.
+     */
+    private String phoneNumber;
+
+    /**
+     * The start date and time of the first occurrence.
+     * Formatted as "yyyy-MM-dd'T'HH:mm" (ISO 8601).
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+    private LocalDateTime startTime;
+
+    /**
+     * The end date and time of the first occurrence.
+     * Formatted as "yyyy-MM-dd'T'HH:mm" (ISO 8601).
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+    private LocalDateTime endTime;
+
+    /**
+     * The number of the court to be reserved (e.g., 101, 102).
+     */
+    private int courtNumber;
+
+    /**
+     * The type of game of all occurrences (e.g., SINGLES, DOUBLES).
+     */
+    private GameType gameType;
+
+    /**
+     * How often the occurrences repeat (e.g., WEEKLY, BIWEEKLY).
+     */
+    private Recurrence recurrence;
+
+    /**
+     * The last day an occurrence may take place on (inclusive); {@code null} when {@code occurrences} is used.
+     * Formatted as "yyyy-MM-dd".
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate untilDate;
+
+    /**
+     * The number of occurrences to be booked; {@code null} when {@code untilDate} is used.
+     */
+    private Integer occurrences;
+}
@@ -0,0 +1,30 @@
+package cz.vojtechsika.tennisclub.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * ReservationSeriesMoveDTO is a Data Transfer Object used to move all upcoming occurrences of a reservation
+ * series by the same amount of time, e.g., from Tuesday 19:00 to Wednesday 18:00 ({@code 1380} minutes).
+ * Negative values move the occurrences to an earlier time.
+ *
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "shiftMinutes": 1380
+ * }
+ * </pre>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationSeriesMoveDTO {
+
+    /**
+     * The number of minutes every upcoming occurrence is moved by.
+     */
+    private long shiftMinutes;
+}
@@ -0,0 +1,92 @@
+package cz.vojtechsika.tennisclub.dto.mapper;
+
+import cz.vojtechsika.tennisclub.dto.response.DayAvailabilityDTO;
+import cz.vojtechsika.tennisclub.dto.response.FreeCourtResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.FreeRangeDTO;
+import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.enums.AvailabilityFormat;
+import cz.vojtechsika.tennisclub.index.SlotGrid;
+import cz.vojtechsika.tennisclub.util.OpeningHours;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+
+/**
+ * AvailabilityMapper is responsible for converting occupancy {@link SlotGrid} instances into
+ * {@link DayAvailabilityDTO} objects for API responses, either as a list of free ranges or as a compact bitmap,
+ * and for describing free courts found by a search as {@link FreeCourtResponseDTO} objects.
+ */
+@Component
+public class AvailabilityMapper {
+
+
+    /**
+     * Builds a {@link DayAvailabilityDTO} for one day from its occupancy grid.
+     *
+     * @param date        The day described by the grid.
+     * @param grid        The occupancy grid of the day.
+     * @param slotMinutes The length of one slot in minutes.
+     * @param format      The requested output format.
+     * @return A {@link DayAvailabilityDTO} with either free ranges or a bitmap filled.
+     */
+    public DayAvailabilityDTO toDayAvailabilityDTO(LocalDate date, SlotGrid grid, int slotMinutes, AvailabilityFormat format) {
+        DayAvailabilityDTO dayAvailabilityDTO = new DayAvailabilityDTO();
+        dayAvailabilityDTO.setDate(date);
+        if (format == AvailabilityFormat.BITMAP) {
+            dayAvailabilityDTO.setBitmap(Base64.getEncoder().encodeToString(grid.toByteArray()));
+        } else {
+            dayAvailabilityDTO.setFreeRanges(toFreeRanges(grid, slotMinutes));
+        }
+        return dayAvailabilityDTO;
+    }
+
+
+    /**
+     * Builds a {@link FreeCourtResponseDTO} for a court that is free in the searched window.
+     *
+     * @param court                  The free {@link Court} entity.
+     * @param surfaceTypeResponseDTO The surface type of the court as a response DTO.
+     * @param price                  The price of reserving the court for the searched window.
+     * @return A {@link FreeCourtResponseDTO} describing the court and its price.
+     */
+    public FreeCourtResponseDTO toFreeCourtResponseDTO(Court court, SurfaceTypeResponseDTO surfaceTypeResponseDTO, BigDecimal price) {
+        FreeCourtResponseDTO freeCourtResponseDTO = new FreeCourtResponseDTO();
+        freeCourtResponseDTO.setId(court.getId());
+        freeCourtResponseDTO.setCourtNumber(court.getCourtNumber());
+        freeCourtResponseDTO.setSurfaceTypeResponseDTO(surfaceTypeResponseDTO);
+        freeCourtResponseDTO.setPrice(price);
+        return freeCourtResponseDTO;
+    }
+
+
+    // Merges consecutive free slots into continuous time ranges
+    private List<FreeRangeDTO> toFreeRanges(SlotGrid grid, int slotMinutes) {
+        List<FreeRangeDTO> freeRanges = new ArrayList<>();
+        int slot = 0;
+        while (slot < grid.slotCount()) {
+            if (grid.isOccupied(slot)) {
+                slot++;
+                continue;
+            }
+            int first = slot;
+            while (slot < grid.slotCount() && !grid.isOccupied(slot)) {
+                slot++;
+            }
+            freeRanges.add(new FreeRangeDTO(slotStart(first, slotMinutes), slotStart(slot, slotMinutes)));
+        }
+        return freeRanges;
+    }
+
+    // Start time of a slot, capped at the closing time for the last (possibly shorter) slot
+    private LocalTime slotStart(int slot, int slotMinutes) {
+        int minute = Math.min(OpeningHours.OPENING_MINUTE + slot * slotMinutes, OpeningHours.CLOSING_MINUTE);
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+}
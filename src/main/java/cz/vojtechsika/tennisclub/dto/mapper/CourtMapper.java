@@ -32,7 +32,7 @@ public class CourtMapper {
 
     /**
      * Builds a {@link CourtResponseDTO} from a {@link Court} entity and an associated
-     * {@link SurfaceTypeResponseDTO}. The response DTO will include the court's ID, court number,
+     * {@link SurfaceTypeResponseDTO}. The response DTO will include the court's ID, court number, version,
      * and embedded surface type information.
      *
      * @param court The {@link Court} entity retrieved from the database.
@@ -44,6 +44,22 @@ public class CourtMapper {
         courtResponseDTO.setCourtNumber(court.getCourtNumber());
         courtResponseDTO.setId(court.getId());
         courtResponseDTO.setSurfaceTypeResponseDTO(surfaceTypeResponseDTO);
+        courtResponseDTO.setVersion(court.getVersion());
         return courtResponseDTO;
     }
+
+
+    /**
+     * Updates the mutable fields of an existing {@link Court} entity based on a {@link CourtDTO}.
+     * This method modifies the court number; the ID, version, surface type, and deleted flag remain unchanged,
+     * so the update is checked against the version the entity was loaded with.
+     *
+     * @param courtDTO The {@link CourtDTO} containing updated court data.
+     * @param court    The existing {@link Court} entity to be updated.
+     * @return The same {@link Court} entity instance, with updated court number.
+     */
+    public Court updateCourtFromDTO(CourtDTO courtDTO, Court court) {
+        court.setCourtNumber(courtDTO.getCourtNumber());
+        return court;
+    }
 }
@@ -1,21 +1,53 @@
 package cz.vojtechsika.tennisclub.dto.mapper;
 
 import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.projection.UserIdentity;
 import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.entity.AbstractReservation;
 import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.enums.ReservationFormat;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.chrono.IsoChronology;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.FormatStyle;
+import java.util.Locale;
 /**
  * ReservationMapper is responsible for converting between {@link ReservationDTO} and {@link Reservation} entities,
  * as well as building {@link ReservationResponseDTO} objects for API responses. It encapsulates the mapping logic
  * for reservation-related data structures, including formatting dates and times for the response.
+ * <p>
+ * Response DTOs are built for every row of a reservation list, so the localized formatters are resolved once,
+ * for the default locale, and shared; {@link DateTimeFormatter} is immutable and thread-safe. The compact
+ * {@link ReservationFormat}s skip formatting altogether and leave the serialization to Jackson.
+ * </p>
  */
 @Component
 public class ReservationMapper {
 
+    /**
+     * Locale of the localized response fields.
+     */
+    private static final Locale LOCALE = Locale.getDefault(Locale.Category.FORMAT);
+
+    /**
+     * Formatter of the SHORT style times, resolved to its pattern so formatting does not look it up again.
+     */
+    private static final DateTimeFormatter TIME_FORMATTER = localizedFormatter(null, FormatStyle.SHORT);
+
+    /**
+     * Formatter of the SHORT style dates, resolved to its pattern so formatting does not look it up again.
+     */
+    private static final DateTimeFormatter DATE_FORMATTER = localizedFormatter(FormatStyle.SHORT, null);
+
+    /**
+     * Time zone the epoch values are computed in; reservation times are local times of the server.
+     */
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
 
     /**
      * Converts a {@link ReservationDTO} to a new {@link Reservation} entity. The created entity will have its
@@ -42,29 +74,81 @@ public class ReservationMapper {
     /**
      * Builds a {@link ReservationResponseDTO} from a {@link Reservation} entity. The response DTO will include
      * reservation ID, court number, user name, phone number, formatted start and end times, formatted game date,
-     * game type, price, and formatted creation date. Date and time fields are formatted using the SHORT style
+     * game type, price, formatted creation date, and version. Date and time fields are formatted using the SHORT style
      * based on the system's default locale.
      *
      * @param reservation The {@link Reservation} entity retrieved from the database.
      * @return A {@link ReservationResponseDTO} containing data formatted for client consumption.
      */
     public ReservationResponseDTO toReservationResponseDTO(Reservation reservation) {
+        return toReservationResponseDTO(reservation, ReservationFormat.LOCALIZED);
+    }
+
+
+    /**
+     * Builds a {@link ReservationResponseDTO} from a {@link Reservation} entity with its dates and times encoded
+     * in the given format. The localized format fills the same fields as {@link #toReservationResponseDTO(Reservation)};
+     * the compact formats fill only the ISO date-time or the epoch fields. Archived reservations are mapped the same
+     * way as the live ones.
+     *
+     * @param reservation The live or archived reservation retrieved from the database.
+     * @param format      The requested output format.
+     * @return A {@link ReservationResponseDTO} containing data formatted for client consumption.
+     */
+    public ReservationResponseDTO toReservationResponseDTO(AbstractReservation reservation, ReservationFormat format) {
+        return toReservationResponseDTO(reservation, reservation.getCourt().getCourtNumber(),
+                reservation.getUser().getUserName(), reservation.getUser().getPhoneNumber(), format);
+    }
+
+
+    /**
+     * Builds a {@link ReservationResponseDTO} from a {@link Reservation} entity whose court number and user are
+     * already known. Neither the court nor the user of the reservation is read, so both may be uninitialized
+     * references that stay unloaded.
+     *
+     * @param reservation The {@link Reservation} entity.
+     * @param courtNumber The number of the reserved court.
+     * @param user        The identity of the user who made the reservation.
+     * @return A {@link ReservationResponseDTO} containing data formatted for client consumption.
+     */
+    public ReservationResponseDTO toReservationResponseDTO(Reservation reservation, int courtNumber, UserIdentity user) {
+        return toReservationResponseDTO(reservation, courtNumber, user.getUserName(), user.getPhoneNumber(),
+                ReservationFormat.LOCALIZED);
+    }
+
+
+    // Builds the response from the reservation's own fields and the given court number and user
+    private ReservationResponseDTO toReservationResponseDTO(AbstractReservation reservation, int courtNumber,
+                                                            String userName, String phoneNumber,
+                                                            ReservationFormat format) {
         ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
 
         reservationResponseDTO.setId(reservation.getId());
-        reservationResponseDTO.setCourtNumber(reservation.getCourt().getCourtNumber());
-        reservationResponseDTO.setUserName(reservation.getUser().getUserName());
-        reservationResponseDTO.setPhoneNumber(reservation.getUser().getPhoneNumber());
-        reservationResponseDTO.setStartTime(reservation.getStartTime().toLocalTime().
-                format(DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT)));
-        reservationResponseDTO.setEndTime(reservation.getEndTime().toLocalTime().
-                format(DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT)));
-        reservationResponseDTO.setGameDate(reservation.getStartTime().toLocalDate().
-                format(DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT)));
+        reservationResponseDTO.setCourtNumber(courtNumber);
+        reservationResponseDTO.setUserName(userName);
+        reservationResponseDTO.setPhoneNumber(phoneNumber);
         reservationResponseDTO.setGameType(reservation.getGameType());
         reservationResponseDTO.setPrice(reservation.getPrice());
-        reservationResponseDTO.setCreatedAt(reservation.getCreatedAt().toLocalDate().
-                format(DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT)));
+        reservationResponseDTO.setVersion(reservation.getVersion());
+
+        switch (format) {
+            case ISO -> {
+                reservationResponseDTO.setStartDateTime(reservation.getStartTime());
+                reservationResponseDTO.setEndDateTime(reservation.getEndTime());
+                reservationResponseDTO.setCreatedDateTime(reservation.getCreatedAt());
+            }
+            case EPOCH -> {
+                reservationResponseDTO.setStartEpochMilli(toEpochMilli(reservation.getStartTime()));
+                reservationResponseDTO.setEndEpochMilli(toEpochMilli(reservation.getEndTime()));
+                reservationResponseDTO.setCreatedEpochMilli(toEpochMilli(reservation.getCreatedAt()));
+            }
+            case LOCALIZED -> {
+                reservationResponseDTO.setStartTime(TIME_FORMATTER.format(reservation.getStartTime()));
+                reservationResponseDTO.setEndTime(TIME_FORMATTER.format(reservation.getEndTime()));
+                reservationResponseDTO.setGameDate(DATE_FORMATTER.format(reservation.getStartTime()));
+                reservationResponseDTO.setCreatedAt(DATE_FORMATTER.format(reservation.getCreatedAt()));
+            }
+        }
         return reservationResponseDTO;
     }
 
@@ -86,4 +170,16 @@ public class ReservationMapper {
     }
 
 
+    // Resolves the localized pattern of the style once; the formatter then prints the same text as
+    // DateTimeFormatter.ofLocalizedDate/Time without looking the pattern up on every call
+    private static DateTimeFormatter localizedFormatter(FormatStyle dateStyle, FormatStyle timeStyle) {
+        String pattern = DateTimeFormatterBuilder.getLocalizedDateTimePattern(dateStyle, timeStyle,
+                IsoChronology.INSTANCE, LOCALE);
+        return DateTimeFormatter.ofPattern(pattern, LOCALE);
+    }
+
+    // Converts a local date-time of the server to epoch milliseconds without creating intermediate objects
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZONE.getRules().getOffset(dateTime)) * 1000 + dateTime.getNano() / 1_000_000;
+    }
 }
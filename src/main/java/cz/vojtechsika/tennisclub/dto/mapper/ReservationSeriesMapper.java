@@ -0,0 +1,98 @@
+package cz.vojtechsika.tennisclub.dto.mapper;
+
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesDTO;
+import cz.vojtechsika.tennisclub.dto.projection.UserIdentity;
+import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationSeriesResponseDTO;
+import cz.vojtechsika.tennisclub.entity.ReservationSeries;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ReservationSeriesMapper is responsible for converting a {@link ReservationSeriesDTO} to a {@link ReservationSeries}
+ * entity and to the {@link ReservationDTO} of each occurrence, as well as building
+ * {@link ReservationSeriesResponseDTO} objects for API responses.
+ */
+@Component
+public class ReservationSeriesMapper {
+
+
+    /**
+     * Converts a {@link ReservationSeriesDTO} to a new {@link ReservationSeries} entity. The created entity will
+     * have its recurrence and game type set from the DTO, the created timestamp set to the current time and the
+     * deleted flag initialized to {@code false}. The user and court must be set separately in the service layer.
+     *
+     * @param reservationSeriesDTO The {@link ReservationSeriesDTO} containing series data from the client.
+     * @return A new {@link ReservationSeries} entity populated with values from {@code reservationSeriesDTO}.
+     */
+    public ReservationSeries toSeriesEntity(ReservationSeriesDTO reservationSeriesDTO) {
+        ReservationSeries series = new ReservationSeries();
+        series.setRecurrence(reservationSeriesDTO.getRecurrence());
+        series.setGameType(reservationSeriesDTO.getGameType());
+        series.setCreatedAt(LocalDateTime.now());
+        series.setDeleted(false);
+        return series;
+    }
+
+
+    /**
+     * Builds the {@link ReservationDTO} of one occurrence of the series, so it can be mapped and priced
+     * like any other reservation.
+     *
+     * @param reservationSeriesDTO The {@link ReservationSeriesDTO} containing series data from the client.
+     * @param startTime            The start of the occurrence.
+     * @param endTime              The end of the occurrence.
+     * @return A new {@link ReservationDTO} with the user, court and game type of the series and the given times.
+     */
+    public ReservationDTO toOccurrenceDTO(ReservationSeriesDTO reservationSeriesDTO,
+                                          LocalDateTime startTime, LocalDateTime endTime) {
+        return new ReservationDTO(reservationSeriesDTO.getUserName(), reservationSeriesDTO.getPhoneNumber(),
+                startTime, endTime, reservationSeriesDTO.getCourtNumber(), reservationSeriesDTO.getGameType());
+    }
+
+
+    /**
+     * Builds a {@link ReservationSeriesResponseDTO} from a {@link ReservationSeries} entity and the response DTOs
+     * of its active occurrences.
+     *
+     * @param series       The {@link ReservationSeries} entity with its court and user loaded.
+     * @param reservations The {@link ReservationResponseDTO} of every active occurrence, ordered by start time.
+     * @return A {@link ReservationSeriesResponseDTO} combining the series data with its occurrences.
+     */
+    public ReservationSeriesResponseDTO toResponseDTO(ReservationSeries series, List<ReservationResponseDTO> reservations) {
+        return toResponseDTO(series, series.getUser().getUserName(), series.getUser().getPhoneNumber(), reservations);
+    }
+
+
+    /**
+     * Builds a {@link ReservationSeriesResponseDTO} from a {@link ReservationSeries} entity whose user is already
+     * known. The user of the series is not read, so it may be an uninitialized reference that stays unloaded.
+     *
+     * @param series       The {@link ReservationSeries} entity with its court loaded.
+     * @param user         The identity of the user who booked the series.
+     * @param reservations The {@link ReservationResponseDTO} of every active occurrence, ordered by start time.
+     * @return A {@link ReservationSeriesResponseDTO} combining the series data with its occurrences.
+     */
+    public ReservationSeriesResponseDTO toResponseDTO(ReservationSeries series, UserIdentity user,
+                                                      List<ReservationResponseDTO> reservations) {
+        return toResponseDTO(series, user.getUserName(), user.getPhoneNumber(), reservations);
+    }
+
+
+    // Builds the response from the series' own fields and the given user
+    private ReservationSeriesResponseDTO toResponseDTO(ReservationSeries series, String userName, String phoneNumber,
+                                                       List<ReservationResponseDTO> reservations) {
+        ReservationSeriesResponseDTO reservationSeriesResponseDTO = new ReservationSeriesResponseDTO();
+        reservationSeriesResponseDTO.setId(series.getId());
+        reservationSeriesResponseDTO.setCourtNumber(series.getCourt().getCourtNumber());
+        reservationSeriesResponseDTO.setUserName(userName);
+        reservationSeriesResponseDTO.setPhoneNumber(phoneNumber);
+        reservationSeriesResponseDTO.setRecurrence(series.getRecurrence());
+        reservationSeriesResponseDTO.setGameType(series.getGameType());
+        reservationSeriesResponseDTO.setReservations(reservations);
+        return reservationSeriesResponseDTO;
+    }
+}
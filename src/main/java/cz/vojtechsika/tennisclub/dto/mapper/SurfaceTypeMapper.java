@@ -32,7 +32,7 @@ public class SurfaceTypeMapper {
 
     /**
      * Builds a {@link SurfaceTypeResponseDTO} from a {@link SurfaceType} entity. The response DTO will include
-     * the surface type's ID, name, and minute price.
+     * the surface type's ID, name, minute price, and version.
      *
      * @param surfaceType The {@link SurfaceType} entity retrieved from the database.
      * @return A {@link SurfaceTypeResponseDTO} containing data formatted for client consumption.
@@ -42,6 +42,23 @@ public class SurfaceTypeMapper {
         surfaceTypeResponseDTO.setId(surfaceType.getId());
         surfaceTypeResponseDTO.setName(surfaceType.getName());
         surfaceTypeResponseDTO.setMinutePrice(surfaceType.getMinutePrice());
+        surfaceTypeResponseDTO.setVersion(surfaceType.getVersion());
         return surfaceTypeResponseDTO;
     }
+
+
+    /**
+     * Updates the mutable fields of an existing {@link SurfaceType} entity based on a {@link SurfaceTypeDTO}.
+     * This method modifies the name and minute price; the ID, version, and deleted flag remain unchanged,
+     * so the update is checked against the version the entity was loaded with.
+     *
+     * @param surfaceTypeDTO The {@link SurfaceTypeDTO} containing updated surface type data.
+     * @param surfaceType    The existing {@link SurfaceType} entity to be updated.
+     * @return The same {@link SurfaceType} entity instance, with updated name and minute price.
+     */
+    public SurfaceType updateSurfaceTypeFromDTO(SurfaceTypeDTO surfaceTypeDTO, SurfaceType surfaceType) {
+        surfaceType.setName(surfaceTypeDTO.getName());
+        surfaceType.setMinutePrice(surfaceTypeDTO.getMinutePrice());
+        return surfaceType;
+    }
 }
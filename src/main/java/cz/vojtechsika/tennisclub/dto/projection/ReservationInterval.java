@@ -0,0 +1,44 @@
+package cz.vojtechsika.tennisclub.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * ReservationInterval is a lightweight read-only projection of a {@link cz.vojtechsika.tennisclub.entity.Reservation}.
+ * It carries only the data needed to detect time conflicts on a court: the reservation ID, the court number
+ * and the start and end of the reserved interval.
+ *
+ * <p>Instances are created directly by JPQL constructor expressions, so no entity is hydrated and no
+ * dirty-checking snapshot is kept in the persistence context.</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationInterval {
+
+    /**
+     * The unique identifier of the reservation.
+     */
+    private Long id;
+
+    /**
+     * The number of the reserved court (e.g., 101, 102).
+     */
+    private int courtNumber;
+
+    /**
+     * The start date and time of the reservation.
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * The end date and time of the reservation.
+     */
+    private LocalDateTime endTime;
+}
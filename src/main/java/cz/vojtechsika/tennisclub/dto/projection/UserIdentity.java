@@ -0,0 +1,31 @@
+package cz.vojtechsika.tennisclub.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * UserIdentity is a lightweight read-only projection of a {@link cz.vojtechsika.tennisclub.entity.User}:
+ * the user ID together with the phone number and the name it was stored with.
+ *
+ * <p>Instances are immutable.</p>
+ */
+@Getter
+@AllArgsConstructor
+public class UserIdentity {
+
+    /**
+     * The unique identifier of the user.
+     */
+    private final Long id;
+
+    /**
+     * The phone number of the user.
+     */
+    private final String phoneNumber;
+
+    /**
+     * The name of the user.
+     */
+    private final String userName;
+}
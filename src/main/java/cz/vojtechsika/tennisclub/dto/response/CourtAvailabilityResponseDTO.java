@@ -0,0 +1,63 @@
+package cz.vojtechsika.tennisclub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalTime;
+import java.util.List;
+
+
+/**
+ * CourtAvailabilityResponseDTO is a Data Transfer Object used to send the availability of a court for a range of days.
+ * The opening hours are split into slots of {@code slotMinutes} minutes; a slot is free only if no reservation
+ * overlaps it and it has not already started.
+ *
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "courtNumber": 101,
+ *   "openingTime": "10:00",
+ *   "closingTime": "22:00",
+ *   "slotMinutes": 15,
+ *   "days": [
+ *     { "date": "2026-05-28", "freeRanges": [ { "from": "10:00", "to": "22:00" } ] }
+ *   ]
+ * }
+ * </pre>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourtAvailabilityResponseDTO {
+
+    /**
+     * The number of the court (e.g., 101, 102).
+     */
+    private int courtNumber;
+
+    /**
+     * The time at which the first slot of each day starts.
+     */
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime openingTime;
+
+    /**
+     * The time at which the last slot of each day ends.
+     */
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime closingTime;
+
+    /**
+     * The length of one slot in minutes.
+     */
+    private int slotMinutes;
+
+    /**
+     * The availability of each requested day, ordered by date.
+     */
+    private List<DayAvailabilityDTO> days;
+}
@@ -23,8 +23,10 @@ import lombok.Setter;
  *   "surfaceType": {
  *     "id": 5,
  *     "name": "Clay",
- *     "minutePrice": 1.5
- *   }
+ *     "minutePrice": 1.5,
+ *     "version": 0
+ *   },
+ *   "version": 2
  * }
  * </pre>
  *
@@ -53,4 +55,10 @@ public class CourtResponseDTO {
      */
     @JsonProperty("surfaceType")
     private SurfaceTypeResponseDTO surfaceTypeResponseDTO;
+
+    /**
+     * The current version of the court, also sent as the ETag header. Send it back in {@code If-Match}
+     * to update the court only if nobody has changed it in the meantime.
+     */
+    private long version;
 }
@@ -0,0 +1,56 @@
+package cz.vojtechsika.tennisclub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+
+/**
+ * DayAvailabilityDTO is a Data Transfer Object describing the availability of a court on a single day.
+ * Depending on the requested format, either {@code freeRanges} or {@code bitmap} is filled; the other
+ * field is omitted from the JSON output.
+ *
+ * Example JSON representation (ranges):
+ * <pre>
+ * {
+ *   "date": "2026-05-28",
+ *   "freeRanges": [ { "from": "10:00", "to": "11:30" }, { "from": "13:00", "to": "22:00" } ]
+ * }
+ * </pre>
+ *
+ * Example JSON representation (bitmap):
+ * <pre>
+ * {
+ *   "date": "2026-05-28",
+ *   "bitmap": "AADwAAAA"
+ * }
+ * </pre>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DayAvailabilityDTO {
+
+    /**
+     * The day described by this object.
+     */
+    private LocalDate date;
+
+    /**
+     * The free time ranges of the day, ordered by time.
+     */
+    private List<FreeRangeDTO> freeRanges;
+
+    /**
+     * The Base64 encoded slot bitmap of the day. Slot {@code i} is stored in bit {@code i % 8} of byte {@code i / 8};
+     * a set bit means that the slot is not available.
+     */
+    private String bitmap;
+}
@@ -0,0 +1,73 @@
+package cz.vojtechsika.tennisclub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+
+/**
+ * EntityStatisticsDTO is a Data Transfer Object describing how often the instances of one entity were loaded
+ * and written, collected by the Hibernate statistics since they were enabled or last reset.
+ * The cache counts are {@code null} for an entity that is not held by the second-level cache.
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "entity": "cz.vojtechsika.tennisclub.entity.Court",
+ *   "loadCount": 40,
+ *   "fetchCount": 0,
+ *   "insertCount": 0,
+ *   "updateCount": 1,
+ *   "deleteCount": 0,
+ *   "cacheHitCount": 25,
+ *   "cacheMissCount": 4
+ * }
+ * </pre>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityStatisticsDTO {
+
+    /**
+     * The name of the entity.
+     */
+    private String entity;
+
+    /**
+     * The number of instances hydrated from query results or by id.
+     */
+    private long loadCount;
+
+    /**
+     * The number of instances fetched by an extra statement, e.g. to initialize a lazy association.
+     */
+    private long fetchCount;
+
+    /**
+     * The number of inserted instances.
+     */
+    private long insertCount;
+
+    /**
+     * The number of updated instances.
+     */
+    private long updateCount;
+
+    /**
+     * The number of deleted instances.
+     */
+    private long deleteCount;
+
+    /**
+     * The number of instances read from the second-level cache, or {@code null} if the entity is not cached.
+     */
+    private Long cacheHitCount;
+
+    /**
+     * The number of instances looked up in the second-level cache and not found there, or {@code null} if the
+     * entity is not cached.
+     */
+    private Long cacheMissCount;
+}
@@ -0,0 +1,56 @@
+package cz.vojtechsika.tennisclub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+
+/**
+ * FreeCourtResponseDTO is a Data Transfer Object describing a court that is free in the requested time window,
+ * together with the price a reservation of that window would cost.
+ *
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "id": 1,
+ *   "courtNumber": 101,
+ *   "surfaceType": {
+ *     "id": 1,
+ *     "name": "Clay",
+ *     "minutePrice": 2.50
+ *   },
+ *   "price": 225.00
+ * }
+ * </pre>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeCourtResponseDTO {
+
+    /**
+     * The unique identifier of the court.
+     */
+    private Long id;
+
+    /**
+     * The number of the court (e.g., 101, 102).
+     */
+    private int courtNumber;
+
+    /**
+     * The surface type of the court.
+     */
+    @JsonProperty("surfaceType")
+    private SurfaceTypeResponseDTO surfaceTypeResponseDTO;
+
+    /**
+     * The price of reserving the court for the requested window and game type.
+     */
+    private BigDecimal price;
+}
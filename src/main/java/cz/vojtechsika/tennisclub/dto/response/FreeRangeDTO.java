@@ -0,0 +1,39 @@
+package cz.vojtechsika.tennisclub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalTime;
+
+
+/**
+ * FreeRangeDTO is a Data Transfer Object describing one continuous free time range of a court within a day.
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "from": "10:00",
+ *   "to": "11:30"
+ * }
+ * </pre>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FreeRangeDTO {
+
+    /**
+     * The start of the free range (inclusive), formatted as "HH:mm".
+     */
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime from;
+
+    /**
+     * The end of the free range (exclusive), formatted as "HH:mm".
+     */
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime to;
+}
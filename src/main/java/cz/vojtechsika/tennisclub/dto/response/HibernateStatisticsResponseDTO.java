@@ -0,0 +1,96 @@
+package cz.vojtechsika.tennisclub.dto.response;
+
+import cz.vojtechsika.tennisclub.metrics.SlowQuery;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * HibernateStatisticsResponseDTO is the report of the {@code hibernate} actuator endpoint: the Hibernate
+ * statistics of the queries, the entities, the second-level and query cache and the flushes, and the slow queries
+ * recorded by the DAOs.
+ * <p>
+ * The statistics are collected only while {@code enabled} is {@code true}; otherwise they keep the values from the
+ * time they were last collected. The slow queries are recorded regardless of the flag.
+ * </p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HibernateStatisticsResponseDTO {
+
+    /**
+     * Whether the statistics are being collected.
+     */
+    private boolean enabled;
+
+    /**
+     * The time the statistics were started or last reset.
+     */
+    private Instant since;
+
+    /**
+     * The number of entity instances hydrated from query results or by id.
+     */
+    private long entityLoadCount;
+
+    /**
+     * The number of entity instances fetched by an extra statement.
+     */
+    private long entityFetchCount;
+
+    /**
+     * The number of entity and collection reads answered by the second-level cache.
+     */
+    private long secondLevelCacheHitCount;
+
+    /**
+     * The number of entity and collection lookups in the second-level cache that missed.
+     */
+    private long secondLevelCacheMissCount;
+
+    /**
+     * The number of entities and collections put into the second-level cache.
+     */
+    private long secondLevelCachePutCount;
+
+    /**
+     * The number of query executions answered by the query cache.
+     */
+    private long queryCacheHitCount;
+
+    /**
+     * The number of query executions looked up in the query cache and not found there.
+     */
+    private long queryCacheMissCount;
+
+    /**
+     * The number of flushes of a persistence context.
+     */
+    private long flushCount;
+
+    /**
+     * The number of JDBC statements prepared.
+     */
+    private long prepareStatementCount;
+
+    /**
+     * The statistics of every executed query, the one with the longest total time first.
+     */
+    private List<QueryStatisticsDTO> queries;
+
+    /**
+     * The statistics of every entity, ordered by entity name.
+     */
+    private List<EntityStatisticsDTO> entities;
+
+    /**
+     * The latest slow queries, the latest first.
+     */
+    private List<SlowQuery> slowQueries;
+}
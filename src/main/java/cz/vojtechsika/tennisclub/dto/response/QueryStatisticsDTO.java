@@ -0,0 +1,65 @@
+package cz.vojtechsika.tennisclub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+
+/**
+ * QueryStatisticsDTO is a Data Transfer Object describing the executions of one JPQL query collected by the
+ * Hibernate statistics since they were enabled or last reset.
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "query": "SELECT c FROM Court c LEFT JOIN FETCH c.surfaceType WHERE c.deleted = :isFalse",
+ *   "executionCount": 12,
+ *   "maxTimeMs": 9,
+ *   "meanTimeMs": 1.5,
+ *   "totalTimeMs": 18,
+ *   "rows": 48,
+ *   "cacheHitCount": 0
+ * }
+ * </pre>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryStatisticsDTO {
+
+    /**
+     * The JPQL of the query.
+     */
+    private String query;
+
+    /**
+     * The number of executions.
+     */
+    private long executionCount;
+
+    /**
+     * The longest execution in milliseconds.
+     */
+    private long maxTimeMs;
+
+    /**
+     * The mean execution time in milliseconds.
+     */
+    private double meanTimeMs;
+
+    /**
+     * The time of all executions together in milliseconds.
+     */
+    private long totalTimeMs;
+
+    /**
+     * The number of rows read by all executions.
+     */
+    private long rows;
+
+    /**
+     * The number of executions answered by the query cache.
+     */
+    private long cacheHitCount;
+}
@@ -0,0 +1,50 @@
+package cz.vojtechsika.tennisclub.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import cz.vojtechsika.tennisclub.enums.BatchItemStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * ReservationBatchItemResponseDTO is a Data Transfer Object describing the outcome of one item of a reservation batch.
+ * Items are reported in the order they were sent; {@code index} refers to the position in the request.
+ *
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "index": 3,
+ *   "status": "REJECTED",
+ *   "message": "Court 101 is already reserved in the provided time range",
+ *   "reservation": null
+ * }
+ * </pre>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationBatchItemResponseDTO {
+
+    /**
+     * The zero-based position of the item in the request.
+     */
+    private int index;
+
+    /**
+     * The outcome of the item.
+     */
+    private BatchItemStatus status;
+
+    /**
+     * The reason why the item was rejected or skipped; {@code null} for created items.
+     */
+    private String message;
+
+    /**
+     * The created reservation; {@code null} unless the item was created.
+     */
+    @JsonProperty("reservation")
+    private ReservationResponseDTO reservationResponseDTO;
+}
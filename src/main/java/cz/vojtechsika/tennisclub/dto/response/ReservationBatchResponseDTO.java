@@ -0,0 +1,53 @@
+package cz.vojtechsika.tennisclub.dto.response;
+
+import cz.vojtechsika.tennisclub.enums.BatchMode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * ReservationBatchResponseDTO is a Data Transfer Object summarizing the outcome of a reservation batch,
+ * with one {@link ReservationBatchItemResponseDTO} per requested item.
+ *
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "mode": "BEST_EFFORT",
+ *   "created": 1,
+ *   "rejected": 1,
+ *   "results": [
+ *     { "index": 0, "status": "CREATED", "message": null, "reservation": { "id": 12, ... } },
+ *     { "index": 1, "status": "REJECTED", "message": "Court number 999 not found in database", "reservation": null }
+ *   ]
+ * }
+ * </pre>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationBatchResponseDTO {
+
+    /**
+     * The mode the batch was processed in.
+     */
+    private BatchMode mode;
+
+    /**
+     * The number of reservations created.
+     */
+    private int created;
+
+    /**
+     * The number of items rejected as invalid.
+     */
+    private int rejected;
+
+    /**
+     * The outcome of every item, in request order.
+     */
+    private List<ReservationBatchItemResponseDTO> results;
+}
@@ -0,0 +1,32 @@
+package cz.vojtechsika.tennisclub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * ReservationPageResponseDTO is one page of a reservation list ordered by start time and ID.
+ * <p>
+ * The page holds at most the requested number of reservations. When more reservations follow,
+ * {@code nextCursor} carries the opaque cursor of the next page, otherwise it is {@code null}.
+ * </p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationPageResponseDTO {
+
+    /**
+     * The reservations of this page.
+     */
+    private List<ReservationResponseDTO> reservations;
+
+    /**
+     * The cursor of the next page, or {@code null} if this is the last page.
+     */
+    private String nextCursor;
+}
@@ -1,5 +1,6 @@
 package cz.vojtechsika.tennisclub.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import cz.vojtechsika.tennisclub.enums.GameType;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -7,6 +8,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 
 /**
@@ -27,12 +29,21 @@ import java.math.BigDecimal;
  *   "gameDate": "06/15/2025",
  *   "gameType": "SINGLES",
  *   "price": 15.00,
- *   "createdAt": "06/01/2025"
+ *   "createdAt": "06/01/2025",
+ *   "version": 1
  * }
  * </pre>
  *
- * All date and time fields are formatted as localized SHORT style strings.
- *
+ * By default all date and time fields are formatted as localized SHORT style strings. In the compact formats
+ * ({@link cz.vojtechsika.tennisclub.enums.ReservationFormat#ISO ISO} and
+ * {@link cz.vojtechsika.tennisclub.enums.ReservationFormat#EPOCH EPOCH}) the localized fields are omitted and
+ * the start, end and creation are sent as ISO-8601 date-times or epoch milliseconds:
+ * <pre>
+ * { "id": 10, ..., "startDateTime": "2025-06-15T14:00:00", "endDateTime": "2025-06-15T15:00:00",
+ *   "createdDateTime": "2025-06-01T09:30:12", ... }
+ * { "id": 10, ..., "startEpochMilli": 1749988800000, "endEpochMilli": 1749992400000,
+ *   "createdEpochMilli": 1748763012000, ... }
+ * </pre>
  */
 @Getter
 @Setter
@@ -65,18 +76,21 @@ public class ReservationResponseDTO {
      * The start time of the reservation, formatted as a localized SHORT time string.
      * Example: "14:00"
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String startTime;
 
     /**
      * The end time of the reservation, formatted as a localized SHORT time string.
      * Example: "15:00"
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String endTime;
 
     /**
      * The date of the game, formatted as a localized SHORT date string.
      * Example: "06/15/2025"
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String gameDate;
     /**
      * The type of game for the reservation (e.g., SINGLES, DOUBLES).
@@ -92,5 +106,49 @@ public class ReservationResponseDTO {
      * The creation date of the reservation, formatted as a localized SHORT date string.
      * Example: "06/01/2025"
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String createdAt;
+
+    /**
+     * The current version of the reservation, also sent as the ETag header. Send it back in {@code If-Match}
+     * to update the reservation only if nobody has changed it in the meantime.
+     */
+    private long version;
+
+    /**
+     * The start of the reservation, sent in the {@code ISO} format only.
+     * Example: "2025-06-15T14:00:00"
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime startDateTime;
+
+    /**
+     * The end of the reservation, sent in the {@code ISO} format only.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime endDateTime;
+
+    /**
+     * The creation of the reservation, sent in the {@code ISO} format only.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime createdDateTime;
+
+    /**
+     * The start of the reservation in milliseconds since the epoch, sent in the {@code EPOCH} format only.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long startEpochMilli;
+
+    /**
+     * The end of the reservation in milliseconds since the epoch, sent in the {@code EPOCH} format only.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long endEpochMilli;
+
+    /**
+     * The creation of the reservation in milliseconds since the epoch, sent in the {@code EPOCH} format only.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long createdEpochMilli;
 }
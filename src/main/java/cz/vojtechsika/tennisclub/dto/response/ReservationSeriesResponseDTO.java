@@ -0,0 +1,69 @@
+package cz.vojtechsika.tennisclub.dto.response;
+
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.Recurrence;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * ReservationSeriesResponseDTO is a Data Transfer Object representing a recurring reservation series
+ * together with its active occurrences, ordered by start time.
+ *
+ * Example JSON representation:
+ * <pre>
+ * {
+ *   "id": 3,
+ *   "courtNumber": 101,
+ *   "userName": "Jane Doe",
+ *   "phoneNumber": "555-6789",
+ *   "recurrence": "WEEKLY",
+ *   "gameType": "DOUBLES",
+ *   "reservations": [ { "id": 12, "gameDate": "17.06.25", ... }, { "id": 13, "gameDate": "24.06.25", ... } ]
+ * }
+ * </pre>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationSeriesResponseDTO {
+
+    /**
+     * The unique identifier of the series.
+     */
+    private Long id;
+
+    /**
+     * The number of the court reserved by all occurrences.
+     */
+    private int courtNumber;
+
+    /**
+     * The name of the user who booked the series.
+     */
+    private String userName;
+
+    /**
+     * The phone number of the user who booked the series.
+     */
+    private String phoneNumber;
+
+    /**
+     * How often the occurrences repeat.
+     */
+    private Recurrence recurrence;
+
+    /**
+     * The type of game of all occurrences.
+     */
+    private GameType gameType;
+
+    /**
+     * The active occurrences of the series, ordered by start time.
+     */
+    private List<ReservationResponseDTO> reservations;
+}
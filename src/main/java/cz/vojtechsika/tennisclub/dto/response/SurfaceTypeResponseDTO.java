@@ -17,7 +17,8 @@ import java.math.BigDecimal;
  * {
  *   "id": 5,
  *   "name": "Clay",
- *   "minutePrice": 1.50
+ *   "minutePrice": 1.50,
+ *   "version": 0
  * }
  * </pre>
  *
@@ -42,4 +43,10 @@ public class SurfaceTypeResponseDTO {
      * The price per minute for using this surface type.
      */
     private BigDecimal minutePrice;
+
+    /**
+     * The current version of the surface type, also sent as the ETag header. Send it back in {@code If-Match}
+     * to update the surface type only if nobody has changed it in the meantime.
+     */
+    private long version;
 }
@@ -0,0 +1,104 @@
+package cz.vojtechsika.tennisclub.entity;
+
+import cz.vojtechsika.tennisclub.enums.GameType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * AbstractReservation declares the columns shared by the live {@link Reservation} table and the
+ * {@link ArchivedReservation} table, so a reservation is mapped to the same response wherever it is stored.
+ * Each subclass declares its own ID, since only live reservations draw theirs from a sequence.
+ */
+@MappedSuperclass
+@Getter
+@Setter
+@NoArgsConstructor
+public abstract class AbstractReservation {
+
+    /**
+     * Returns the primary key and unique identifier of this reservation.
+     *
+     * @return The ID of the reservation.
+     */
+    public abstract Long getId();
+
+    /**
+     * The start date and time for the reservation. Cannot be null.
+     */
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    /**
+     * The end date and time for the reservation. Cannot be null.
+     */
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+
+    /**
+     * The timestamp when the reservation record was created. Cannot be null.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * The price charged for this reservation. Cannot be null.
+     */
+    @Column(name = "price", nullable = false)
+    private BigDecimal price;
+
+    /**
+     * The type of game for this reservation (e.g., SINGLES, DOUBLES).
+     * Stored as a string in the database. Cannot be null.
+     */
+    @Column(name = "game_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private GameType gameType;
+
+    /**
+     * A boolean flag indicating whether this reservation is marked as deleted (soft deletion).
+     * If true, the reservation is considered removed from active use but remains in the database.
+     */
+    @Column(name= "deleted", nullable = false)
+    private boolean deleted;
+
+    /**
+     * The version of this reservation, incremented by Hibernate on every update (optimistic locking).
+     * Exposed to clients as the ETag of the reservation.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name= "version", nullable = false)
+    private long version;
+
+    /**
+     * Many-to-one association to {@link User}, representing the user who made this reservation.
+     * Uses LAZY fetching to defer loading until accessed. Cascades persist, merge, detach, and refresh
+     * operations to the associated user entity.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.DETACH, CascadeType.REFRESH})
+    @JoinColumn(name = "app_user_id")
+    private User user;
+
+    /**
+     * Many-to-one association to {@link Court}, representing the court reserved by this reservation.
+     * Uses LAZY fetching to defer loading until accessed. Cascades persist, merge, detach, and refresh
+     * operations to the associated court entity.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.DETACH, CascadeType.REFRESH})
+    @JoinColumn(name = "court_id")
+    private Court court;
+
+    /**
+     * Many-to-one association to {@link ReservationSeries}, the recurring series this reservation is an
+     * occurrence of. {@code null} for reservations booked on their own.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "series_id")
+    private ReservationSeries series;
+}
@@ -0,0 +1,49 @@
+package cz.vojtechsika.tennisclub.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * ArchivedReservation is a reservation that started before the archive horizon and has been moved out of the live
+ * {@link Reservation} table. It keeps the ID, the columns and the soft-deletion flag of the live row, so the history
+ * lists read both tables and merge them by start time and ID as if they were one.
+ *
+ * <p>Archived reservations are never changed, so the entity is read-only. The rows are written in chunks by
+ * plain SQL, see {@link cz.vojtechsika.tennisclub.dao.ReservationArchiveDAO}.</p>
+ *
+ * <p>Indexes mirror the ones of the live table, so the history pages are read in index order:</p>
+ * <ul>
+ *   <li>{@code idx_reservation_archive_court_start}: archived reservations of one court.</li>
+ *   <li>{@code idx_reservation_archive_user_start}: archived reservations of one user.</li>
+ *   <li>{@code idx_reservation_archive_start}: all archived reservations by start time.</li>
+ * </ul>
+ */
+@Entity
+@Immutable
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "reservation_archive", indexes = {
+        @Index(name = "idx_reservation_archive_court_start", columnList = "court_id, deleted, start_time, id"),
+        @Index(name = "idx_reservation_archive_user_start", columnList = "app_user_id, deleted, start_time, id"),
+        @Index(name = "idx_reservation_archive_start", columnList = "deleted, start_time, id")})
+public class ArchivedReservation extends AbstractReservation {
+
+    /**
+     * The ID the reservation had in the live table.
+     */
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The time the reservation was moved to the archive.
+     */
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,37 @@
+package cz.vojtechsika.tennisclub.entity;
+
+/**
+ * CacheRegions holds the names of the Hibernate second-level cache regions.
+ * <p>
+ * Each cached entity and each cached query has its own region, so every region is bounded by its own size
+ * ({@code app.second-level-cache.maximum-size.<region>}). Hibernate keeps the regions consistent with its own
+ * writes, including bulk JPQL updates. Code writing the cached tables over plain JDBC must evict the affected
+ * regions itself once its transaction has been committed.
+ * </p>
+ * <p>
+ * The regions are local to each application instance and do not see the writes of the other instances, so only
+ * the rarely changed courts and surface types are cached, and only for a short time
+ * ({@code app.second-level-cache.expire-after-write-ms}). Reservations and users are always read from the database.
+ * </p>
+ */
+public final class CacheRegions {
+
+    /**
+     * Region of the {@link Court} entities.
+     */
+    public static final String COURT = "court";
+
+    /**
+     * Region of the {@link SurfaceType} entities.
+     */
+    public static final String SURFACE_TYPE = "surface-type";
+
+    /**
+     * Region of the cached results of the court by court number query.
+     */
+    public static final String COURT_BY_NUMBER = "court-by-number";
+
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,35 @@
+package cz.vojtechsika.tennisclub.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * CollectionVersion is the version stamp of one collection the clients poll, shared by all application
+ * instances through the database. The rows are read and written over JDBC by
+ * {@link cz.vojtechsika.tennisclub.cache.CollectionVersionsImpl}; the entity only declares the table.
+ *
+ * <p>The stamps are taken from the {@code collection_version_seq} sequence, so every change of any collection
+ * gets a value never handed out before, whichever instance recorded it.</p>
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "collection_version")
+public class CollectionVersion {
+
+    /**
+     * The name of the collection, e.g. {@code courts} or {@code reservations:+420 700 000 001}.
+     */
+    @Id
+    @Column(name = "name", length = 300)
+    private String name;
+
+    /**
+     * The stamp of the last committed change of the collection.
+     */
+    @Column(name = "stamp", nullable = false)
+    private long stamp;
+}
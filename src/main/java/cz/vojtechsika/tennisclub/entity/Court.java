@@ -1,6 +1,9 @@
 package cz.vojtechsika.tennisclub.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -21,21 +24,26 @@ import java.util.List;
  *   <li>One-to-many relationship with {@link Reservation}: a court can have multiple reservations.</li>
  * </ul>
  *
+ * <p>Courts are kept in the {@link CacheRegions#COURT} second-level cache region. The region is local to each
+ * application instance, so its entries expire shortly after they were loaded.</p>
  */
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.COURT)
 @Table(name="court")
 public class Court {
 
 
     /**
      * The primary key and unique identifier for this court.
-     * Generated automatically by the database (IDENTITY strategy).
+     * Generated from the {@link IdSequences#COURT} sequence in pooled blocks, so inserts can be batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "court_id")
+    @SequenceGenerator(name = "court_id", sequenceName = IdSequences.COURT, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name= "id")
     private Long id;
 
@@ -52,6 +60,15 @@ public class Court {
     @Column(name= "deleted", nullable = false)
     private boolean deleted;
 
+    /**
+     * The version of this court, incremented by Hibernate on every update (optimistic locking).
+     * Exposed to clients as the ETag of the court.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name= "version", nullable = false)
+    private long version;
+
     /**
      * Many-to-one association to {@link SurfaceType}, representing the type of surface
      * (e.g., Clay, Grass) for this court. Uses LAZY fetching to defer loading until accessed.
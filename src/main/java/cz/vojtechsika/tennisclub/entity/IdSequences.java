@@ -0,0 +1,47 @@
+package cz.vojtechsika.tennisclub.entity;
+
+/**
+ * IdSequences holds the names and the allocation size of the database sequences generating entity IDs.
+ * <p>
+ * Hibernate uses the {@code pooled-lo} optimizer, so every value taken from a sequence is the lowest ID of
+ * a block of {@link #ALLOCATION_SIZE} IDs reserved for the caller. New entities get their IDs without a
+ * round trip per row, which lets Hibernate group the inserts into JDBC batches. Code writing rows over
+ * plain JDBC must reserve IDs the same way, one sequence value per block, to never collide with Hibernate.
+ * </p>
+ */
+public final class IdSequences {
+
+    /**
+     * Number of IDs reserved by one sequence value. Must match the increment of the database sequences.
+     */
+    public static final int ALLOCATION_SIZE = 50;
+
+    /**
+     * Sequence generating the IDs of {@link SurfaceType} entities.
+     */
+    public static final String SURFACE_TYPE = "surface_type_seq";
+
+    /**
+     * Sequence generating the IDs of {@link Court} entities.
+     */
+    public static final String COURT = "court_seq";
+
+    /**
+     * Sequence generating the IDs of {@link User} entities.
+     */
+    public static final String USER = "app_user_seq";
+
+    /**
+     * Sequence generating the IDs of {@link Reservation} entities.
+     */
+    public static final String RESERVATION = "reservation_seq";
+
+    /**
+     * Sequence generating the IDs of {@link ReservationSeries} entities.
+     */
+    public static final String RESERVATION_SERIES = "reservation_series_seq";
+
+
+    private IdSequences() {
+    }
+}
@@ -1,14 +1,10 @@
 package cz.vojtechsika.tennisclub.entity;
 
-import cz.vojtechsika.tennisclub.enums.GameType;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-
 /**
  * Reservation represents a booking of a tennis court by a user. It contains details about
  * the reservation period, creation timestamp, price, game type, and associations to the
@@ -19,81 +15,43 @@ import java.time.LocalDateTime;
  * <ul>
  *   <li>Many-to-one relationship with {@link User}: each reservation is made by one user.</li>
  *   <li>Many-to-one relationship with {@link Court}: each reservation is for one court.</li>
+ *   <li>Many-to-one relationship with {@link ReservationSeries}: the recurring series the reservation
+ *       is an occurrence of, if any.</li>
  * </ul>
-
+ *
+ * <p>Indexes (each ends with {@code start_time, id}, so the keyset pages are read in index order):</p>
+ * <ul>
+ *   <li>{@code idx_reservation_court_start}: reservations of one court in a time range, used by the overlap
+ *       checks, the court schedules and the court lists.</li>
+ *   <li>{@code idx_reservation_user_start}: reservations of one user, used by the phone number lists.</li>
+ *   <li>{@code idx_reservation_start}: all reservations by start time, used by the full list, the export
+ *       and the index warm-up.</li>
+ * </ul>
+ * The {@code deleted} flag is compared for equality in every query, so it precedes the {@code start_time} range.
+ *
+ * <p>The columns are declared by {@link AbstractReservation}, which is shared with {@link ArchivedReservation};
+ * reservations older than the archive horizon are moved to the archive table.</p>
+ *
+ * <p>Reservations are not kept in the second-level cache: they are changed by every application instance, and
+ * the cache of one instance would not see the changes of the others.</p>
  */
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
-@Table(name= "reservation")
-public class Reservation {
+@Table(name= "reservation", indexes = {
+        @Index(name = "idx_reservation_court_start", columnList = "court_id, deleted, start_time, id"),
+        @Index(name = "idx_reservation_user_start", columnList = "app_user_id, deleted, start_time, id"),
+        @Index(name = "idx_reservation_start", columnList = "deleted, start_time, id")})
+public class Reservation extends AbstractReservation {
 
     /**
      * The primary key and unique identifier for this reservation.
-     * Generated automatically by the database (IDENTITY strategy).
+     * Generated from the {@link IdSequences#RESERVATION} sequence in pooled blocks, so inserts can be batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_id")
+    @SequenceGenerator(name = "reservation_id", sequenceName = IdSequences.RESERVATION, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name= "id")
     private Long id;
-
-    /**
-     * The start date and time for the reservation. Cannot be null.
-     */
-    @Column(name = "start_time", nullable = false)
-    private LocalDateTime startTime;
-
-    /**
-     * The end date and time for the reservation. Cannot be null.
-     */
-    @Column(name = "end_time", nullable = false)
-    private LocalDateTime endTime;
-
-    /**
-     * The timestamp when the reservation record was created. Cannot be null.
-     */
-    @Column(name = "created_at", nullable = false)
-    private LocalDateTime createdAt;
-
-    /**
-     * The price charged for this reservation. Cannot be null.
-     */
-    @Column(name = "price", nullable = false)
-    private BigDecimal price;
-
-    /**
-     * The type of game for this reservation (e.g., SINGLES, DOUBLES).
-     * Stored as a string in the database. Cannot be null.
-     */
-    @Column(name = "game_type", nullable = false)
-    @Enumerated(EnumType.STRING)
-    private GameType gameType;
-
-    /**
-     * A boolean flag indicating whether this reservation is marked as deleted (soft deletion).
-     * If true, the reservation is considered removed from active use but remains in the database.
-     */
-    @Column(name= "deleted", nullable = false)
-    private boolean deleted;
-
-    /**
-     * Many-to-one association to {@link User}, representing the user who made this reservation.
-     * Uses LAZY fetching to defer loading until accessed. Cascades persist, merge, detach, and refresh
-     * operations to the associated user entity.
-     */
-    @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.DETACH, CascadeType.REFRESH})
-    @JoinColumn(name = "app_user_id")
-    private User user;
-
-    /**
-     * Many-to-one association to {@link Court}, representing the court reserved by this reservation.
-     * Uses LAZY fetching to defer loading until accessed. Cascades persist, merge, detach, and refresh
-     * operations to the associated court entity.
-     */
-    @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.DETACH, CascadeType.REFRESH})
-    @JoinColumn(name = "court_id")
-    private Court court;
-
-
 }
@@ -0,0 +1,83 @@
+package cz.vojtechsika.tennisclub.entity;
+
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.Recurrence;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * ReservationSeries groups the occurrences of a recurring booking, e.g., the same court every Tuesday
+ * at 19:00 for a whole season. Every occurrence is stored as an ordinary {@link Reservation} linked to the
+ * series, so it is validated, priced and listed like any other reservation, while the whole series can be
+ * moved or cancelled at once. A soft-deletion flag allows marking a cancelled series as deleted without
+ * removing its record from the database.
+ *
+ * <p>Associations:</p>
+ * <ul>
+ *   <li>Many-to-one relationship with {@link User}: each series is booked by one user.</li>
+ *   <li>Many-to-one relationship with {@link Court}: all occurrences of a series are on one court.</li>
+ * </ul>
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "reservation_series")
+public class ReservationSeries {
+
+    /**
+     * The primary key and unique identifier for this series.
+     * Generated from the {@link IdSequences#RESERVATION_SERIES} sequence in pooled blocks, so inserts can be batched.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_series_id")
+    @SequenceGenerator(name = "reservation_series_id", sequenceName = IdSequences.RESERVATION_SERIES, allocationSize = IdSequences.ALLOCATION_SIZE)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * How often the occurrences repeat (e.g., WEEKLY, BIWEEKLY).
+     * Stored as a string in the database. Cannot be null.
+     */
+    @Column(name = "recurrence", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Recurrence recurrence;
+
+    /**
+     * The type of game of all occurrences (e.g., SINGLES, DOUBLES).
+     * Stored as a string in the database. Cannot be null.
+     */
+    @Column(name = "game_type", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private GameType gameType;
+
+    /**
+     * The timestamp when the series was created. Cannot be null.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * A boolean flag indicating whether this series is cancelled (soft deletion).
+     */
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
+    /**
+     * Many-to-one association to {@link User}, representing the user who booked this series.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "app_user_id", nullable = false)
+    private User user;
+
+    /**
+     * Many-to-one association to {@link Court}, representing the court reserved by all occurrences.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "court_id", nullable = false)
+    private Court court;
+}
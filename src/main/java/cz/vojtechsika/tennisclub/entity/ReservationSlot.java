@@ -0,0 +1,62 @@
+package cz.vojtechsika.tennisclub.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * ReservationSlot is a claim of one minute of a court by an active {@link Reservation}.
+ * Every active reservation owns one claim for each minute it occupies, inserted in the same transaction
+ * as the reservation itself.
+ *
+ * <p>The unique constraint on ({@code court_id}, {@code slot_start}) makes the database reject a second
+ * reservation claiming any minute of the same court, so overlapping bookings are refused atomically even when
+ * several application instances share one database.</p>
+ *
+ * <p>Associations:</p>
+ * <ul>
+ *   <li>Many-to-one relationship with {@link Court}: the claimed court.</li>
+ *   <li>Many-to-one relationship with {@link Reservation}: the reservation owning the claim.</li>
+ * </ul>
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "reservation_slot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_reservation_slot_court_slot_start",
+                columnNames = {"court_id", "slot_start"}))
+public class ReservationSlot {
+
+    /**
+     * The primary key and unique identifier for this claim.
+     * Generated automatically by the database (IDENTITY strategy).
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * The start of the claimed minute.
+     */
+    @Column(name = "slot_start", nullable = false)
+    private LocalDateTime slotStart;
+
+    /**
+     * The claimed court.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "court_id", nullable = false)
+    private Court court;
+
+    /**
+     * The reservation owning the claim.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reservation_id", nullable = false)
+    private Reservation reservation;
+}
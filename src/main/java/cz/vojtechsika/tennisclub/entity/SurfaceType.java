@@ -1,6 +1,9 @@
 package cz.vojtechsika.tennisclub.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -20,20 +23,26 @@ import java.util.List;
  * <ul>
  *   <li>One-to-many relationship with {@link Court}: a surface type can be applied to multiple courts.</li>
  * </ul>
+ *
+ * <p>Surface types are kept in the {@link CacheRegions#SURFACE_TYPE} second-level cache region, whose entries
+ * expire shortly after they were loaded.</p>
  */
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.SURFACE_TYPE)
 @Table(name= "surface_type")
 public class SurfaceType {
 
     /**
      * The primary key and unique identifier for this surface type.
-     * Generated automatically by the database (IDENTITY strategy).
+     * Generated from the {@link IdSequences#SURFACE_TYPE} sequence in pooled blocks, so inserts can be batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "surface_type_id")
+    @SequenceGenerator(name = "surface_type_id", sequenceName = IdSequences.SURFACE_TYPE, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name= "id")
     private Long id;
 
@@ -56,6 +65,15 @@ public class SurfaceType {
     @Column(name= "deleted", nullable = false)
     private boolean deleted;
 
+    /**
+     * The version of this surface type, incremented by Hibernate on every update (optimistic locking).
+     * Exposed to clients as the ETag of the surface type.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(name= "version", nullable = false)
+    private long version;
+
     /**
      * One-to-many association to {@link Court}, representing all courts that use this surface type.
      * Uses LAZY fetching to defer loading the courts list until accessed. Cascade settings allow persisting,
@@ -26,10 +26,11 @@ public class User {
 
     /**
      * The primary key and unique identifier for this user.
-     * Generated automatically by the database (IDENTITY strategy).
+     * Generated from the {@link IdSequences#USER} sequence in pooled blocks, so inserts can be batched.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_id")
+    @SequenceGenerator(name = "user_id", sequenceName = IdSequences.USER, allocationSize = IdSequences.ALLOCATION_SIZE)
     @Column(name= "id")
     private Long id;
 
@@ -0,0 +1,15 @@
+package cz.vojtechsika.tennisclub.enums;
+
+/**
+ * AvailabilityFormat selects how court availability is encoded in API responses.
+ * <p>
+ * <ul>
+ *   <li>{@link #RANGES} – a list of free time ranges for each day (readable, suitable for a single day).</li>
+ *   <li>{@link #BITMAP} – a Base64 encoded slot bitmap for each day (compact, suitable for month views).</li>
+ * </ul>
+ * </p>
+ */
+public enum AvailabilityFormat {
+    RANGES,
+    BITMAP
+}
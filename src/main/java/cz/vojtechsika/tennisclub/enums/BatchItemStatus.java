@@ -0,0 +1,18 @@
+package cz.vojtechsika.tennisclub.enums;
+
+/**
+ * BatchItemStatus describes the outcome of a single item of a reservation batch.
+ * <p>
+ * <ul>
+ *   <li>{@link #CREATED} – the reservation was stored.</li>
+ *   <li>{@link #REJECTED} – the item is invalid (e.g., overlapping, outside opening hours, unknown court).</li>
+ *   <li>{@link #SKIPPED} – the item is valid, but was not stored because another item of an
+ *       {@link BatchMode#ALL_OR_NOTHING} batch was rejected.</li>
+ * </ul>
+ * </p>
+ */
+public enum BatchItemStatus {
+    CREATED,
+    REJECTED,
+    SKIPPED
+}
@@ -0,0 +1,15 @@
+package cz.vojtechsika.tennisclub.enums;
+
+/**
+ * BatchMode selects how a batch of reservations is committed when some of its items are invalid.
+ * <p>
+ * <ul>
+ *   <li>{@link #ALL_OR_NOTHING} – the batch is only stored if every item is valid; otherwise nothing is created.</li>
+ *   <li>{@link #BEST_EFFORT} – every valid item is stored and the invalid ones are reported back.</li>
+ * </ul>
+ * </p>
+ */
+public enum BatchMode {
+    ALL_OR_NOTHING,
+    BEST_EFFORT
+}
@@ -0,0 +1,33 @@
+package cz.vojtechsika.tennisclub.enums;
+
+/**
+ * Recurrence defines how often the occurrences of a reservation series repeat.
+ * <p>
+ * <ul>
+ *   <li>{@link #WEEKLY} – every week on the same weekday and time.</li>
+ *   <li>{@link #BIWEEKLY} – every second week on the same weekday and time.</li>
+ * </ul>
+ * </p>
+ */
+public enum Recurrence {
+    WEEKLY(1),
+    BIWEEKLY(2);
+
+    /**
+     * The number of weeks between two occurrences.
+     */
+    private final int weeks;
+
+    Recurrence(int theWeeks) {
+        weeks = theWeeks;
+    }
+
+    /**
+     * Returns the number of weeks between two occurrences.
+     *
+     * @return The number of weeks between two occurrences.
+     */
+    public int getWeeks() {
+        return weeks;
+    }
+}
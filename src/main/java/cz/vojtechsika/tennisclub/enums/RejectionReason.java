@@ -0,0 +1,40 @@
+package cz.vojtechsika.tennisclub.enums;
+
+/**
+ * RejectionReason names the reservation rule a booking was rejected for.
+ * <p>
+ * <ul>
+ *   <li>{@link #PAST_START_TIME} – the reservation does not start in the future.</li>
+ *   <li>{@link #OVER_DURATION_LIMIT} – the reservation is empty or lasts more than two hours.</li>
+ *   <li>{@link #OUTSIDE_OPENING_HOURS} – the reservation does not fit into the opening hours of one day.</li>
+ *   <li>{@link #OVERLAP} – the court is already reserved in the time range.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * The reasons are published as the {@code reason} tag of the {@code reservation.rejections} counter.
+ * </p>
+ */
+public enum RejectionReason {
+    PAST_START_TIME("past-start-time"),
+    OVER_DURATION_LIMIT("over-duration-limit"),
+    OUTSIDE_OPENING_HOURS("outside-opening-hours"),
+    OVERLAP("overlap");
+
+    /**
+     * The value of the {@code reason} tag.
+     */
+    private final String tag;
+
+    RejectionReason(String theTag) {
+        tag = theTag;
+    }
+
+    /**
+     * Returns the value of the {@code reason} tag.
+     *
+     * @return The tag value, e.g. {@code past-start-time}.
+     */
+    public String getTag() {
+        return tag;
+    }
+}
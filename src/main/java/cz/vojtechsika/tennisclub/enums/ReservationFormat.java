@@ -0,0 +1,19 @@
+package cz.vojtechsika.tennisclub.enums;
+
+/**
+ * ReservationFormat selects how the dates and times of reservations are encoded in API responses.
+ * <p>
+ * <ul>
+ *   <li>{@link #LOCALIZED} – start and end time, game date and creation date as short strings in the server's
+ *   locale (readable, the default).</li>
+ *   <li>{@link #ISO} – start, end and creation as ISO-8601 local date-times (compact, locale independent).</li>
+ *   <li>{@link #EPOCH} – start, end and creation as milliseconds since the epoch in the server's time zone
+ *   (compact, suitable for clients doing their own formatting).</li>
+ * </ul>
+ * </p>
+ */
+public enum ReservationFormat {
+    LOCALIZED,
+    ISO,
+    EPOCH
+}
@@ -0,0 +1,19 @@
+package cz.vojtechsika.tennisclub.exception;
+
+/**
+ * InvalidBatchException is thrown when a batch request as a whole cannot be processed,
+ * e.g., because it is empty or exceeds the maximum allowed number of items.
+ * This exception extends {@link RuntimeException} and is intended to be handled by a global
+ * exception handler that returns an HTTP 400 Bad Request response when thrown in a REST API.
+ */
+public class InvalidBatchException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidBatchException with the specified detail message.
+     *
+     * @param message The detail message explaining why the batch was refused.
+     */
+    public InvalidBatchException(String message) {
+        super(message);
+    }
+}
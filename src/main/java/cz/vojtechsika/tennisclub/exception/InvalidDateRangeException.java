@@ -0,0 +1,19 @@
+package cz.vojtechsika.tennisclub.exception;
+
+/**
+ * InvalidDateRangeException is thrown when a request contains a date range that cannot be processed,
+ * for example when the start of the range is after its end or when the range is too long.
+ * This exception extends {@link RuntimeException} and is intended to be handled by a global exception
+ * handler that returns an HTTP 400 Bad Request response when thrown in a REST API.
+ */
+public class InvalidDateRangeException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidDateRangeException with the specified detail message.
+     *
+     * @param message The detail message explaining why the date range is invalid.
+     */
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package cz.vojtechsika.tennisclub.exception;
+
+/**
+ * InvalidPageRequestException is thrown when a page of a list endpoint is requested with a cursor that was not
+ * issued by this API or with a page size outside the allowed range.
+ * This exception extends {@link RuntimeException} and is intended to be handled by a global
+ * exception handler that returns an HTTP 400 Bad Request response when thrown in a REST API.
+ */
+public class InvalidPageRequestException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidPageRequestException with the specified detail message.
+     *
+     * @param message The detail message explaining why the page request was refused.
+     */
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
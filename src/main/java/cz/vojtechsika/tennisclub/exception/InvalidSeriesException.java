@@ -0,0 +1,19 @@
+package cz.vojtechsika.tennisclub.exception;
+
+/**
+ * InvalidSeriesException is thrown when a reservation series request cannot be expanded into occurrences,
+ * e.g., because it has no recurrence, no end, or more occurrences than allowed.
+ * This exception extends {@link RuntimeException} and is intended to be handled by a global
+ * exception handler that returns an HTTP 400 Bad Request response when thrown in a REST API.
+ */
+public class InvalidSeriesException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidSeriesException with the specified detail message.
+     *
+     * @param message The detail message explaining why the series was refused.
+     */
+    public InvalidSeriesException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package cz.vojtechsika.tennisclub.exception;
+
+/**
+ * ReservationLockTimeoutException is thrown when a reservation change cannot acquire the lock of a court and day
+ * in time, because other bookings of the same court and day are still being processed.
+ * This exception extends {@link RuntimeException} and is intended to be handled by a global
+ * exception handler that returns an HTTP 409 Conflict response when thrown in a REST API.
+ */
+public class ReservationLockTimeoutException extends RuntimeException {
+
+    /**
+     * Constructs a new ReservationLockTimeoutException with the specified detail message.
+     *
+     * @param message The detail message explaining which lock could not be acquired.
+     */
+    public ReservationLockTimeoutException(String message) {
+        super(message);
+    }
+}
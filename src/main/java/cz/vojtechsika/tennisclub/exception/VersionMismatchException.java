@@ -0,0 +1,20 @@
+package cz.vojtechsika.tennisclub.exception;
+
+/**
+ * VersionMismatchException is thrown when a client tries to update a resource based on a version
+ * (sent in the {@code If-Match} header) that is no longer the current one, i.e., somebody else has changed
+ * the resource in the meantime.
+ * This exception extends {@link RuntimeException} and is intended to be handled by a global
+ * exception handler that returns an HTTP 412 Precondition Failed response when thrown in a REST API.
+ */
+public class VersionMismatchException extends RuntimeException {
+
+    /**
+     * Constructs a new VersionMismatchException with the specified detail message.
+     *
+     * @param message The detail message describing the expected and the current version.
+     */
+    public VersionMismatchException(String message) {
+        super(message);
+    }
+}
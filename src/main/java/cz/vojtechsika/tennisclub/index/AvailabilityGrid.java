@@ -0,0 +1,126 @@
+package cz.vojtechsika.tennisclub.index;
+
+import cz.vojtechsika.tennisclub.util.OpeningHours;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * AvailabilityGrid keeps one {@link SlotGrid} per court and day, derived from the schedules held by the
+ * {@link ReservationIndex}. The opening hours are split into slots of {@code app.availability.slot-minutes}
+ * minutes (15 by default).
+ *
+ * <p>Grids are built lazily and memoized together with the schedule they were built from. Because schedules
+ * are immutable and replaced on every change, a grid is rebuilt exactly when the underlying schedule
+ * has changed; no explicit invalidation is needed. The grids of past days are dropped every night on the
+ * same schedule as the index prunes its court-days ({@code app.reservation.index.prune-cron}).</p>
+ */
+@Component
+public class AvailabilityGrid {
+
+    /**
+     * A memoized grid together with the schedule it was computed from.
+     */
+    private record Entry(CourtDaySchedule schedule, SlotGrid grid) {
+    }
+
+    /**
+     * The length of one slot in minutes.
+     */
+    private final int slotMinutes;
+
+    /**
+     * The number of slots within the opening hours.
+     */
+    private final int slotCount;
+
+    /**
+     * Memoized grids per court and day.
+     */
+    private final Map<CourtDayKey, Entry> grids = new ConcurrentHashMap<>();
+
+
+    /**
+     * Constructs a new AvailabilityGrid.
+     *
+     * @param theSlotMinutes The length of one slot in minutes ({@code app.availability.slot-minutes}).
+     */
+    @Autowired
+    public AvailabilityGrid(@Value("${app.availability.slot-minutes:15}") int theSlotMinutes) {
+        if (theSlotMinutes <= 0) {
+            throw new IllegalArgumentException("Slot length must be positive, got " + theSlotMinutes);
+        }
+        slotMinutes = theSlotMinutes;
+        slotCount = (OpeningHours.CLOSING_MINUTE - OpeningHours.OPENING_MINUTE + slotMinutes - 1) / slotMinutes;
+    }
+
+
+    /**
+     * Returns the length of one slot in minutes.
+     *
+     * @return The slot length.
+     */
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+
+    /**
+     * Returns the memoized grid of the given court and day, rebuilding it if the schedule has changed.
+     *
+     * @param courtNumber The court number.
+     * @param date        The day.
+     * @param schedule    The current schedule of the court on that day, as held by the index.
+     * @return The occupancy grid.
+     */
+    public SlotGrid gridFor(int courtNumber, LocalDate date, CourtDaySchedule schedule) {
+        CourtDayKey key = new CourtDayKey(courtNumber, date);
+        Entry entry = grids.get(key);
+        if (entry != null && entry.schedule() == schedule) {
+            return entry.grid();
+        }
+        if (schedule.isEmpty()) {
+            grids.remove(key);
+            return build(schedule);
+        }
+        SlotGrid grid = build(schedule);
+        grids.put(key, new Entry(schedule, grid));
+        return grid;
+    }
+
+
+    /**
+     * Drops the memoized grids of all days before the given day.
+     *
+     * @param before The first day whose grids are kept.
+     */
+    public void prune(LocalDate before) {
+        grids.keySet().removeIf(key -> key.date().isBefore(before));
+    }
+
+
+    /**
+     * Drops the grids of the days before today every night.
+     */
+    @Scheduled(cron = "${app.reservation.index.prune-cron:0 5 0 * * *}")
+    public void pruneBeforeToday() {
+        prune(LocalDate.now());
+    }
+
+
+    /**
+     * Builds a grid from a schedule without memoizing it (used when the index is cold).
+     *
+     * @param schedule The schedule of a court on one day.
+     * @return The occupancy grid.
+     */
+    public SlotGrid build(CourtDaySchedule schedule) {
+        return SlotGrid.of(schedule, OpeningHours.OPENING_MINUTE, slotMinutes, slotCount);
+    }
+}
@@ -0,0 +1,15 @@
+package cz.vojtechsika.tennisclub.index;
+
+import java.time.LocalDate;
+
+
+/**
+ * CourtDayKey identifies a single court on a single calendar day. It is used as the key of the
+ * in-memory reservation index, mirroring how reservations are queried for conflicts
+ * (court number + date of the start time).
+ *
+ * @param courtNumber The number of the court (e.g., 101, 102).
+ * @param date        The calendar day.
+ */
+public record CourtDayKey(int courtNumber, LocalDate date) {
+}
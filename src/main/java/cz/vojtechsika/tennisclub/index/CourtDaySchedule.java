@@ -0,0 +1,231 @@
+package cz.vojtechsika.tennisclub.index;
+
+import java.util.Arrays;
+
+
+/**
+ * CourtDaySchedule is an immutable, array-backed list of reservations on one court for one day.
+ * Reservations are stored as minute-of-day intervals {@code [start, end)} sorted by their start minute,
+ * which allows overlap checks in {@code O(log n)} using binary search.
+ *
+ * <p>Alongside the sorted starts and ends, the schedule keeps a running maximum of end minutes. This keeps
+ * the overlap check exact even if the stored intervals themselves overlap (e.g., legacy data).</p>
+ *
+ * <p>Instances are never modified. Every change produces a new schedule, so readers can use a schedule
+ * without any locking.</p>
+ */
+public final class CourtDaySchedule {
+
+    /**
+     * An empty schedule without any reservations.
+     */
+    public static final CourtDaySchedule EMPTY = new CourtDaySchedule(new long[0], new int[0], new int[0]);
+
+    /**
+     * Reservation IDs, ordered by start minute.
+     */
+    private final long[] ids;
+
+    /**
+     * Start minutes of the reservations (minute of day), sorted ascending.
+     */
+    private final int[] starts;
+
+    /**
+     * End minutes of the reservations (minute of day), in the same order as {@link #starts}.
+     */
+    private final int[] ends;
+
+    /**
+     * {@code maxEnds[i]} is the maximum of {@code ends[0..i]}.
+     */
+    private final int[] maxEnds;
+
+
+    private CourtDaySchedule(long[] ids, int[] starts, int[] ends) {
+        this.ids = ids;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnds = new int[ends.length];
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < ends.length; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+
+    /**
+     * Returns the number of reservations in this schedule.
+     *
+     * @return The number of reservations.
+     */
+    public int size() {
+        return ids.length;
+    }
+
+
+    /**
+     * Returns the reservation ID at the given position.
+     *
+     * @param index The position in start-time order.
+     * @return The reservation ID.
+     */
+    public long idAt(int index) {
+        return ids[index];
+    }
+
+
+    /**
+     * Returns the start minute (minute of day) of the reservation at the given position.
+     *
+     * @param index The position in start-time order.
+     * @return The start minute.
+     */
+    public int startAt(int index) {
+        return starts[index];
+    }
+
+
+    /**
+     * Returns the end minute (minute of day) of the reservation at the given position.
+     *
+     * @param index The position in start-time order.
+     * @return The end minute.
+     */
+    public int endAt(int index) {
+        return ends[index];
+    }
+
+
+    /**
+     * Checks whether any reservation in this schedule overlaps the interval {@code [startMinute, endMinute)}.
+     * Two intervals overlap when one starts before the other ends and ends after the other starts.
+     *
+     * @param startMinute The start of the checked interval (minute of day).
+     * @param endMinute   The end of the checked interval (minute of day).
+     * @param excludeId   The ID of a reservation to ignore (the one being updated); may be {@code null}.
+     * @return {@code true} if an overlapping reservation exists, {@code false} otherwise.
+     */
+    public boolean overlaps(int startMinute, int endMinute, Long excludeId) {
+        // Last reservation that starts before the checked interval ends
+        int i = lastStartBefore(endMinute);
+
+        // Walk back only while some earlier reservation can still reach into the checked interval
+        while (i >= 0 && maxEnds[i] > startMinute) {
+            if (ends[i] > startMinute && (excludeId == null || ids[i] != excludeId)) {
+                return true;
+            }
+            i--;
+        }
+        return false;
+    }
+
+
+    /**
+     * Returns a new schedule containing all reservations of this schedule plus the given one.
+     * A reservation with the same ID is replaced.
+     *
+     * @param id          The reservation ID.
+     * @param startMinute The start minute of the reservation (minute of day).
+     * @param endMinute   The end minute of the reservation (minute of day).
+     * @return A new schedule including the reservation.
+     */
+    public CourtDaySchedule with(long id, int startMinute, int endMinute) {
+        CourtDaySchedule base = without(id);
+        int n = base.ids.length;
+        int position = base.lastStartBefore(startMinute + 1) + 1;
+
+        long[] newIds = new long[n + 1];
+        int[] newStarts = new int[n + 1];
+        int[] newEnds = new int[n + 1];
+
+        System.arraycopy(base.ids, 0, newIds, 0, position);
+        System.arraycopy(base.starts, 0, newStarts, 0, position);
+        System.arraycopy(base.ends, 0, newEnds, 0, position);
+
+        newIds[position] = id;
+        newStarts[position] = startMinute;
+        newEnds[position] = endMinute;
+
+        System.arraycopy(base.ids, position, newIds, position + 1, n - position);
+        System.arraycopy(base.starts, position, newStarts, position + 1, n - position);
+        System.arraycopy(base.ends, position, newEnds, position + 1, n - position);
+
+        return new CourtDaySchedule(newIds, newStarts, newEnds);
+    }
+
+
+    /**
+     * Returns a new schedule without the reservation with the given ID.
+     * If the reservation is not part of this schedule, this instance is returned.
+     *
+     * @param id The reservation ID to remove.
+     * @return A schedule without the reservation.
+     */
+    public CourtDaySchedule without(long id) {
+        int position = -1;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                position = i;
+                break;
+            }
+        }
+        if (position < 0) {
+            return this;
+        }
+        if (ids.length == 1) {
+            return EMPTY;
+        }
+
+        long[] newIds = new long[ids.length - 1];
+        int[] newStarts = new int[ids.length - 1];
+        int[] newEnds = new int[ids.length - 1];
+
+        System.arraycopy(ids, 0, newIds, 0, position);
+        System.arraycopy(starts, 0, newStarts, 0, position);
+        System.arraycopy(ends, 0, newEnds, 0, position);
+
+        System.arraycopy(ids, position + 1, newIds, position, ids.length - position - 1);
+        System.arraycopy(starts, position + 1, newStarts, position, ids.length - position - 1);
+        System.arraycopy(ends, position + 1, newEnds, position, ids.length - position - 1);
+
+        return new CourtDaySchedule(newIds, newStarts, newEnds);
+    }
+
+
+    /**
+     * Checks whether the schedule contains no reservations.
+     *
+     * @return {@code true} if the schedule is empty.
+     */
+    public boolean isEmpty() {
+        return ids.length == 0;
+    }
+
+
+    // Binary search for the index of the last reservation whose start minute is lower than the given minute, or -1
+    private int lastStartBefore(int minute) {
+        int low = 0;
+        int high = starts.length - 1;
+        int result = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] < minute) {
+                result = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return result;
+    }
+
+
+    @Override
+    public String toString() {
+        return "CourtDaySchedule{ids=" + Arrays.toString(ids) +
+                ", starts=" + Arrays.toString(starts) +
+                ", ends=" + Arrays.toString(ends) + "}";
+    }
+}
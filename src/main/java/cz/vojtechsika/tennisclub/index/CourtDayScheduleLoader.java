@@ -0,0 +1,33 @@
+package cz.vojtechsika.tennisclub.index;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CourtDayScheduleLoader provides the schedules of many court-days at once for set-based overlap checks,
+ * e.g., of a reservation batch or of all occurrences of a recurring series.
+ */
+public interface CourtDayScheduleLoader {
+
+    /**
+     * Returns the schedules of the given court-days. The schedules are taken from the {@link ReservationIndex}
+     * when it is warm, otherwise they are loaded from the database with a single range query.
+     *
+     * @param keys The court-days to load.
+     * @return The schedules keyed by court-day; court-days without reservations may be missing from the map.
+     *         The returned map is mutable, so callers can add their own tentative reservations to it.
+     */
+    Map<CourtDayKey, CourtDaySchedule> load(Set<CourtDayKey> keys);
+
+
+    /**
+     * Reads the given court-days from the database, refreshing them in the {@link ReservationIndex} when it is warm.
+     * Callers use it to confirm an overlap found in the schedules returned by {@link #load(Set)}, because the index
+     * does not see the reservations cancelled or moved by other application instances.
+     *
+     * @param keys The court-days to reload.
+     * @return A mutable map of the schedules keyed by court-day, with {@link CourtDaySchedule#EMPTY} for every
+     *         court-day without reservations.
+     */
+    Map<CourtDayKey, CourtDaySchedule> reload(Set<CourtDayKey> keys);
+}
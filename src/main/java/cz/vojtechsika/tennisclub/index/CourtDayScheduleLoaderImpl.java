@@ -0,0 +1,120 @@
+package cz.vojtechsika.tennisclub.index;
+
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * CourtDayScheduleLoaderImpl is the default implementation of {@link CourtDayScheduleLoader}.
+ * <p>
+ * When the {@link ReservationIndex} is cold, the intervals of all requested courts between the first and the last
+ * requested day are read with one query and grouped into a {@link CourtDaySchedule} per court-day, instead of
+ * querying every court-day on its own. A reload reads the same query, or refreshes the court-days in the warm index.
+ * </p>
+ */
+@Component
+public class CourtDayScheduleLoaderImpl implements CourtDayScheduleLoader {
+
+    /**
+     * In-memory index of active reservations.
+     */
+    private final ReservationIndex reservationIndex;
+
+    /**
+     * DAO used when the index is cold.
+     */
+    private final ReservationDAO reservationDAO;
+
+
+    /**
+     * Constructs a new CourtDayScheduleLoaderImpl with required dependencies.
+     *
+     * @param theReservationIndex In-memory index of active reservations.
+     * @param theReservationDAO   DAO used when the index is cold.
+     */
+    @Autowired
+    public CourtDayScheduleLoaderImpl(ReservationIndex theReservationIndex, ReservationDAO theReservationDAO) {
+        reservationIndex = theReservationIndex;
+        reservationDAO = theReservationDAO;
+    }
+
+
+    /**
+     * Returns the schedules of the given court-days, from the warm index or with a single range query.
+     *
+     * @param keys The court-days to load.
+     * @return A mutable map of the schedules keyed by court-day.
+     */
+    @Override
+    public Map<CourtDayKey, CourtDaySchedule> load(Set<CourtDayKey> keys) {
+        Map<CourtDayKey, CourtDaySchedule> schedules = new HashMap<>();
+        if (keys.isEmpty()) {
+            return schedules;
+        }
+        if (reservationIndex.isWarm()) {
+            for (CourtDayKey key : keys) {
+                schedules.put(key, reservationIndex.getSchedule(key.courtNumber(), key.date()));
+            }
+            return schedules;
+        }
+        return query(keys);
+    }
+
+
+    /**
+     * Reads the given court-days from the database, through the index when it is warm so that it is refreshed.
+     *
+     * @param keys The court-days to reload.
+     * @return A mutable map of the schedules of all the court-days.
+     */
+    @Override
+    public Map<CourtDayKey, CourtDaySchedule> reload(Set<CourtDayKey> keys) {
+        Map<CourtDayKey, CourtDaySchedule> schedules = reservationIndex.isWarm()
+                ? new HashMap<>(reservationIndex.refresh(keys))
+                : query(keys);
+        for (CourtDayKey key : keys) {
+            schedules.putIfAbsent(key, CourtDaySchedule.EMPTY);
+        }
+        return schedules;
+    }
+
+
+    // Reads the court-days with one range query over all their courts and days
+    private Map<CourtDayKey, CourtDaySchedule> query(Set<CourtDayKey> keys) {
+        Map<CourtDayKey, CourtDaySchedule> schedules = new HashMap<>();
+        if (keys.isEmpty()) {
+            return schedules;
+        }
+        Set<Integer> courtNumbers = keys.stream().map(CourtDayKey::courtNumber).collect(Collectors.toSet());
+        LocalDate from = Collections.min(keys.stream().map(CourtDayKey::date).toList());
+        LocalDate to = Collections.max(keys.stream().map(CourtDayKey::date).toList());
+        List<ReservationInterval> intervals = reservationDAO.findAllIntervalsByCourtNumbersBetween(courtNumbers,
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+
+        for (ReservationInterval interval : intervals) {
+            CourtDayKey key = new CourtDayKey(interval.getCourtNumber(), interval.getStartTime().toLocalDate());
+            if (keys.contains(key)) {
+                schedules.put(key, schedules.getOrDefault(key, CourtDaySchedule.EMPTY).with(interval.getId(),
+                        minuteOfDay(interval.getStartTime()), minuteOfDay(interval.getEndTime())));
+            }
+        }
+        return schedules;
+    }
+
+
+    // Minute of the day of the given time
+    private static int minuteOfDay(LocalDateTime time) {
+        return (int) Duration.between(time.toLocalDate().atStartOfDay(), time).toMinutes();
+    }
+}
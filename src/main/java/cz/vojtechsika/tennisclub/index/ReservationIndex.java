@@ -0,0 +1,113 @@
+package cz.vojtechsika.tennisclub.index;
+
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ReservationIndex is an in-memory index of active reservations, organized per court and per day.
+ * It answers reservation overlap checks without touching the database or Hibernate.
+ *
+ * <p>The index is <em>cold</em> until it has been loaded from the database. While it is cold (or disabled),
+ * callers must fall back to querying the database. Once warm, the index covers every reservation starting
+ * today or later, and it is kept up to date by the service layer after each committed change.</p>
+ *
+ * <p>Only the changes committed by this application instance reach the index, so a reservation cancelled or moved
+ * by another instance stays in it. An overlap found in the index is therefore only a hint: callers
+ * {@link #refresh(Set) refresh} the court-day from the database before they reject a reservation.</p>
+ */
+public interface ReservationIndex {
+
+    /**
+     * Checks whether the index has been loaded and can be used for overlap checks.
+     *
+     * @return {@code true} if the index is warm, {@code false} if callers must fall back to the database.
+     */
+    boolean isWarm();
+
+
+    /**
+     * Replaces the whole content of the index with the given reservations and marks the index as warm.
+     *
+     * @param reservations The active reservations to be indexed.
+     */
+    void load(Collection<ReservationInterval> reservations);
+
+
+    /**
+     * Checks whether an active reservation on the given court overlaps the given time range.
+     *
+     * @param courtNumber The court number to check.
+     * @param startTime   The start of the checked time range.
+     * @param endTime     The end of the checked time range.
+     * @param excludeId   The ID of a reservation to ignore (the one being updated); may be {@code null}.
+     * @return {@code true} if an overlapping reservation exists, {@code false} otherwise.
+     */
+    boolean hasOverlappingReservation(int courtNumber, LocalDateTime startTime, LocalDateTime endTime, Long excludeId);
+
+
+    /**
+     * Returns the schedule of the given court on the given day.
+     *
+     * @param courtNumber The court number.
+     * @param date        The day.
+     * @return The {@link CourtDaySchedule}; {@link CourtDaySchedule#EMPTY} if there are no reservations.
+     */
+    CourtDaySchedule getSchedule(int courtNumber, LocalDate date);
+
+
+    /**
+     * Adds a reservation to the index or moves it if it is already indexed (e.g., after an update).
+     *
+     * @param reservation The reservation interval to be indexed.
+     */
+    void put(ReservationInterval reservation);
+
+
+    /**
+     * Removes a reservation from the index.
+     *
+     * @param reservationId The ID of the reservation to be removed.
+     */
+    void remove(Long reservationId);
+
+
+    /**
+     * Removes all reservations of the given court from the index (e.g., after the court was deleted).
+     *
+     * @param courtNumber The number of the court.
+     */
+    void removeCourt(int courtNumber);
+
+
+    /**
+     * Moves all reservations of a court to a new court number (e.g., after the court was renumbered).
+     *
+     * @param oldCourtNumber The previous court number.
+     * @param newCourtNumber The new court number.
+     */
+    void renameCourt(int oldCourtNumber, int newCourtNumber);
+
+
+    /**
+     * Reloads the given court-days from the database and replaces their schedules in the index, dropping
+     * the reservations that are no longer there and adding those committed by other application instances.
+     * Schedules written by this instance while they were being read are kept instead of the older read.
+     *
+     * @param keys The court-days to reload.
+     * @return The reloaded schedules, with {@link CourtDaySchedule#EMPTY} for every court-day without reservations.
+     */
+    Map<CourtDayKey, CourtDaySchedule> refresh(Set<CourtDayKey> keys);
+
+
+    /**
+     * Removes all court-days before the given day from the index, as no reservation can be created or moved there.
+     *
+     * @param before The first day that is kept.
+     */
+    void prune(LocalDate before);
+}
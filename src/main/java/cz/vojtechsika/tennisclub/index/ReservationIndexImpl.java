@@ -0,0 +1,341 @@
+package cz.vojtechsika.tennisclub.index;
+
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+
+/**
+ * ReservationIndexImpl is the default implementation of {@link ReservationIndex}. Reservations are kept in
+ * immutable {@link CourtDaySchedule} instances stored in a {@link ConcurrentHashMap} keyed by {@link CourtDayKey}.
+ *
+ * <p>Reads are lock-free: a reader always sees a complete schedule. Writes are serialized by a single lock,
+ * because moving a reservation between two court-days has to update two schedules and the ID lookup table
+ * consistently.</p>
+ *
+ * <p>The index is loaded from {@link ReservationDAO} once all singletons have been created, i.e., before
+ * the web server starts accepting requests. It can be turned off with {@code app.reservation.index.enabled=false},
+ * in which case it stays cold and all overlap checks go to the database.</p>
+ *
+ * <p>Every write bumps a modification count. A refresh reads the court-days from the database without the lock,
+ * so writers and other refreshes never wait for a query, and takes the lock only to swap the schedules in. Before
+ * swapping it checks that the count has not changed since the read started, the way {@link AvailabilityGrid}
+ * checks the identity of the schedule a grid was built from; a reservation put or removed meanwhile is therefore
+ * never overwritten by an older read. A read overtaken by a write is repeated, at most
+ * {@link #REFRESH_ATTEMPTS} times, after which its result is returned without being stored. The past court-days
+ * are pruned every night ({@code app.reservation.index.prune-cron}).</p>
+ */
+@Component
+public class ReservationIndexImpl implements ReservationIndex, SmartInitializingSingleton {
+
+    /**
+     * The number of times a refresh reads the court-days before it gives up storing them.
+     */
+    static final int REFRESH_ATTEMPTS = 3;
+
+    /**
+     * DAO used to load active reservations on startup and to refresh court-days.
+     */
+    private final ReservationDAO reservationDAO;
+
+    /**
+     * Flag indicating whether the index should be used at all.
+     */
+    private final boolean enabled;
+
+    /**
+     * Schedules per court and day.
+     */
+    private final Map<CourtDayKey, CourtDaySchedule> schedules = new ConcurrentHashMap<>();
+
+    /**
+     * Location of each indexed reservation, used to remove or move it by its ID.
+     */
+    private final Map<Long, CourtDayKey> locations = new ConcurrentHashMap<>();
+
+    /**
+     * Lock serializing all modifications of the index.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * The number of writes to the index, changed only under the write lock.
+     */
+    private volatile long modifications;
+
+    /**
+     * Flag indicating whether the index has been loaded.
+     */
+    private volatile boolean warm;
+
+
+    /**
+     * Constructs a new ReservationIndexImpl.
+     *
+     * @param theReservationDAO DAO used to load active reservations on startup and to refresh court-days.
+     * @param theEnabled        Whether the index is enabled ({@code app.reservation.index.enabled}).
+     */
+    @Autowired
+    public ReservationIndexImpl(ReservationDAO theReservationDAO,
+                                @Value("${app.reservation.index.enabled:true}") boolean theEnabled) {
+        reservationDAO = theReservationDAO;
+        enabled = theEnabled;
+    }
+
+
+    /**
+     * Loads all active reservations starting today or later once the application context is initialized.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            load(reservationDAO.findAllIntervalsStartingFrom(LocalDate.now().atStartOfDay()));
+        }
+    }
+
+
+    @Override
+    public boolean isWarm() {
+        return warm;
+    }
+
+
+    @Override
+    public void load(Collection<ReservationInterval> reservations) {
+        writeLock.lock();
+        try {
+            warm = false;
+            modifications++;
+            schedules.clear();
+            locations.clear();
+            reservations.forEach(this::putInternal);
+            warm = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    @Override
+    public boolean hasOverlappingReservation(int courtNumber, LocalDateTime startTime, LocalDateTime endTime, Long excludeId) {
+        LocalDate date = startTime.toLocalDate();
+        CourtDaySchedule schedule = getSchedule(courtNumber, date);
+        return schedule.overlaps(minuteOfDay(date, startTime), minuteOfDay(date, endTime), excludeId);
+    }
+
+
+    @Override
+    public CourtDaySchedule getSchedule(int courtNumber, LocalDate date) {
+        return schedules.getOrDefault(new CourtDayKey(courtNumber, date), CourtDaySchedule.EMPTY);
+    }
+
+
+    @Override
+    public void put(ReservationInterval reservation) {
+        writeLock.lock();
+        try {
+            modifications++;
+            putInternal(reservation);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    @Override
+    public void remove(Long reservationId) {
+        writeLock.lock();
+        try {
+            modifications++;
+            CourtDayKey key = locations.remove(reservationId);
+            if (key != null) {
+                removeFromSchedule(key, reservationId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    @Override
+    public void removeCourt(int courtNumber) {
+        writeLock.lock();
+        try {
+            modifications++;
+            schedules.keySet().removeIf(key -> key.courtNumber() == courtNumber);
+            locations.values().removeIf(key -> key.courtNumber() == courtNumber);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    @Override
+    public void renameCourt(int oldCourtNumber, int newCourtNumber) {
+        if (oldCourtNumber == newCourtNumber) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            modifications++;
+            List<CourtDayKey> keys = new ArrayList<>(schedules.keySet().stream()
+                    .filter(key -> key.courtNumber() == oldCourtNumber)
+                    .toList());
+
+            for (CourtDayKey oldKey : keys) {
+                CourtDayKey newKey = new CourtDayKey(newCourtNumber, oldKey.date());
+                schedules.put(newKey, schedules.remove(oldKey));
+            }
+            locations.replaceAll((id, key) -> key.courtNumber() == oldCourtNumber
+                    ? new CourtDayKey(newCourtNumber, key.date())
+                    : key);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    @Override
+    public Map<CourtDayKey, CourtDaySchedule> refresh(Set<CourtDayKey> keys) {
+        if (keys.isEmpty()) {
+            return new HashMap<>();
+        }
+        Set<Integer> courtNumbers = keys.stream().map(CourtDayKey::courtNumber).collect(Collectors.toSet());
+        LocalDate from = Collections.min(keys.stream().map(CourtDayKey::date).toList());
+        LocalDate to = Collections.max(keys.stream().map(CourtDayKey::date).toList());
+
+        for (int attempt = 1; ; attempt++) {
+            long readAfter = modifications;
+            List<ReservationInterval> intervals = reservationDAO.findAllIntervalsByCourtNumbersBetween(courtNumbers,
+                    from.atStartOfDay(), to.plusDays(1).atStartOfDay()).stream()
+                    .filter(interval -> keys.contains(keyOf(interval)))
+                    .toList();
+            Map<CourtDayKey, CourtDaySchedule> refreshed = schedulesOf(keys, intervals);
+
+            writeLock.lock();
+            try {
+                if (modifications == readAfter) {
+                    modifications++;
+                    swap(refreshed, intervals);
+                    return refreshed;
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            if (attempt == REFRESH_ATTEMPTS) {
+                return refreshed;
+            }
+        }
+    }
+
+
+    @Override
+    public void prune(LocalDate before) {
+        writeLock.lock();
+        try {
+            modifications++;
+            schedules.keySet().removeIf(key -> key.date().isBefore(before));
+            locations.values().removeIf(key -> key.date().isBefore(before));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+
+    /**
+     * Removes the court-days before today every night.
+     */
+    @Scheduled(cron = "${app.reservation.index.prune-cron:0 5 0 * * *}")
+    public void pruneBeforeToday() {
+        prune(LocalDate.now());
+    }
+
+
+    // Builds the schedules of the court-days from their reservations read from the database
+    private static Map<CourtDayKey, CourtDaySchedule> schedulesOf(Set<CourtDayKey> keys,
+                                                                  List<ReservationInterval> intervals) {
+        Map<CourtDayKey, CourtDaySchedule> refreshed = new HashMap<>();
+        for (ReservationInterval interval : intervals) {
+            CourtDayKey key = keyOf(interval);
+            refreshed.put(key, refreshed.getOrDefault(key, CourtDaySchedule.EMPTY).with(interval.getId(),
+                    minuteOfDay(key.date(), interval.getStartTime()),
+                    minuteOfDay(key.date(), interval.getEndTime())));
+        }
+        for (CourtDayKey key : keys) {
+            refreshed.putIfAbsent(key, CourtDaySchedule.EMPTY);
+        }
+        return refreshed;
+    }
+
+    // Replaces the refreshed court-days and the locations of their reservations; called under the write lock
+    private void swap(Map<CourtDayKey, CourtDaySchedule> refreshed, List<ReservationInterval> intervals) {
+        // Stale reservations lose their location unless it has moved elsewhere meanwhile
+        refreshed.forEach((key, schedule) -> {
+            CourtDaySchedule stale = schedule.isEmpty() ? schedules.remove(key) : schedules.put(key, schedule);
+            for (int i = 0; stale != null && i < stale.size(); i++) {
+                locations.remove(stale.idAt(i), key);
+            }
+        });
+        // Reservations moved here from a court-day that was not refreshed are removed from there
+        for (ReservationInterval interval : intervals) {
+            CourtDayKey oldKey = locations.put(interval.getId(), keyOf(interval));
+            if (oldKey != null && !oldKey.equals(keyOf(interval))) {
+                removeFromSchedule(oldKey, interval.getId());
+            }
+        }
+    }
+
+    // Adds or moves a reservation; the new position is published before the old one is removed,
+    // so concurrent readers never see the reservation missing
+    private void putInternal(ReservationInterval reservation) {
+        LocalDate date = reservation.getStartTime().toLocalDate();
+        CourtDayKey newKey = new CourtDayKey(reservation.getCourtNumber(), date);
+        long id = reservation.getId();
+
+        schedules.compute(newKey, (key, schedule) ->
+                (schedule == null ? CourtDaySchedule.EMPTY : schedule).with(id,
+                        minuteOfDay(date, reservation.getStartTime()),
+                        minuteOfDay(date, reservation.getEndTime())));
+
+        CourtDayKey oldKey = locations.put(id, newKey);
+        if (oldKey != null && !oldKey.equals(newKey)) {
+            removeFromSchedule(oldKey, id);
+        }
+    }
+
+    // Removes a reservation from one schedule, dropping the schedule if it becomes empty
+    private void removeFromSchedule(CourtDayKey key, long reservationId) {
+        schedules.computeIfPresent(key, (k, schedule) -> {
+            CourtDaySchedule updated = schedule.without(reservationId);
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    // The court-day a reservation starts on
+    private static CourtDayKey keyOf(ReservationInterval reservation) {
+        return new CourtDayKey(reservation.getCourtNumber(), reservation.getStartTime().toLocalDate());
+    }
+
+    // Converts a date-time to minutes since the start of the given day
+    private static int minuteOfDay(LocalDate date, LocalDateTime dateTime) {
+        return (int) Duration.between(date.atStartOfDay(), dateTime).toMinutes();
+    }
+}
@@ -0,0 +1,108 @@
+package cz.vojtechsika.tennisclub.index;
+
+import java.util.Arrays;
+
+
+/**
+ * SlotGrid is a compact, immutable bitset describing the occupancy of one court on one day.
+ * The opening hours are divided into slots of a fixed length; bit {@code i} is set when slot {@code i}
+ * is not available, i.e., when any reservation overlaps it.
+ *
+ * <p>A slot that is only partially covered by a reservation is reported as occupied, so every slot reported
+ * as free can really be booked as a whole.</p>
+ */
+public final class SlotGrid {
+
+    /**
+     * The bits of the grid, 64 slots per word.
+     */
+    private final long[] words;
+
+    /**
+     * The number of slots in the grid.
+     */
+    private final int slotCount;
+
+
+    private SlotGrid(long[] words, int slotCount) {
+        this.words = words;
+        this.slotCount = slotCount;
+    }
+
+
+    /**
+     * Builds the grid of a single day from its reservation schedule.
+     *
+     * @param schedule      The reservations of the court on that day.
+     * @param openingMinute The minute of day at which the first slot starts.
+     * @param slotMinutes   The length of one slot in minutes.
+     * @param slotCount     The number of slots in the day.
+     * @return The occupancy grid.
+     */
+    public static SlotGrid of(CourtDaySchedule schedule, int openingMinute, int slotMinutes, int slotCount) {
+        long[] words = new long[(slotCount + 63) / 64];
+        for (int i = 0; i < schedule.size(); i++) {
+            int first = Math.max(0, Math.floorDiv(schedule.startAt(i) - openingMinute, slotMinutes));
+            int last = Math.min(slotCount - 1, Math.floorDiv(schedule.endAt(i) - 1 - openingMinute, slotMinutes));
+            for (int slot = first; slot <= last; slot++) {
+                words[slot >>> 6] |= 1L << slot;
+            }
+        }
+        return new SlotGrid(words, slotCount);
+    }
+
+
+    /**
+     * Returns the number of slots in the grid.
+     *
+     * @return The number of slots.
+     */
+    public int slotCount() {
+        return slotCount;
+    }
+
+
+    /**
+     * Checks whether the given slot is occupied.
+     *
+     * @param slot The slot index.
+     * @return {@code true} if the slot is occupied, {@code false} if it is free.
+     */
+    public boolean isOccupied(int slot) {
+        return (words[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+
+    /**
+     * Returns a copy of this grid with all slots before {@code slotCount} marked as occupied.
+     * Used to hide slots that are already in the past.
+     *
+     * @param count The number of leading slots to be marked as occupied.
+     * @return A new grid, or this instance if {@code count} is not positive.
+     */
+    public SlotGrid occupyFirst(int count) {
+        if (count <= 0) {
+            return this;
+        }
+        long[] copy = Arrays.copyOf(words, words.length);
+        for (int slot = 0; slot < Math.min(count, slotCount); slot++) {
+            copy[slot >>> 6] |= 1L << slot;
+        }
+        return new SlotGrid(copy, slotCount);
+    }
+
+
+    /**
+     * Encodes the grid into bytes. Slot {@code i} is stored in bit {@code i % 8} of byte {@code i / 8};
+     * a set bit means that the slot is not available.
+     *
+     * @return The encoded grid.
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[(slotCount + 7) / 8];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) * 8));
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,53 @@
+package cz.vojtechsika.tennisclub.lock;
+
+import cz.vojtechsika.tennisclub.index.CourtDayKey;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * ReservationLockManager serializes reservation changes that touch the same court on the same day.
+ * <p>
+ * Bookings on different courts or days proceed in parallel; only changes sharing a court and day wait
+ * for each other, so the overlap check and the insert of one booking cannot interleave with another one.
+ * </p>
+ * <p>
+ * A transaction holds a pooled database connection from its start, so a booking waiting for the locks inside
+ * its transaction also keeps a connection busy. Changes whose court-days are known from the request lock them
+ * with {@link #callInTransaction(Collection, Supplier)} before their transaction starts; only changes that read
+ * their court-days from the database, such as moving or cancelling a stored reservation, lock inside it with
+ * {@link #lockUntilCompletion(Collection)}, where the wait is bounded by the lock timeout.
+ * </p>
+ */
+public interface ReservationLockManager {
+
+    /**
+     * Acquires the locks of all given court-days and holds them until the current transaction completes
+     * (commit or rollback). When no transaction is active, the locks are released immediately.
+     * <p>
+     * The locks are always acquired in the same global order, so two callers locking the same set of
+     * court-days cannot deadlock.
+     * </p>
+     *
+     * @param keys The court-days to be locked.
+     * @throws cz.vojtechsika.tennisclub.exception.ReservationLockTimeoutException if the locks are not acquired in time.
+     */
+    void lockUntilCompletion(Collection<CourtDayKey> keys);
+
+
+    /**
+     * Acquires the locks of all given court-days, then runs the action in a new transaction and releases the locks
+     * once the transaction has completed. No database connection is held while waiting for the locks.
+     * <p>
+     * When a transaction is already active, the action joins it and the locks are held until it completes, as with
+     * {@link #lockUntilCompletion(Collection)}.
+     * </p>
+     *
+     * @param keys   The court-days to be locked.
+     * @param action The change to run while holding the locks.
+     * @param <T>    The type of the result.
+     * @return The result of the action.
+     * @throws cz.vojtechsika.tennisclub.exception.ReservationLockTimeoutException if the locks are not acquired in time.
+     */
+    <T> T callInTransaction(Collection<CourtDayKey> keys, Supplier<T> action);
+}
@@ -0,0 +1,235 @@
+package cz.vojtechsika.tennisclub.lock;
+
+import cz.vojtechsika.tennisclub.exception.ReservationLockTimeoutException;
+import cz.vojtechsika.tennisclub.index.CourtDayKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static cz.vojtechsika.tennisclub.util.TransactionCallbacks.afterCompletion;
+
+
+/**
+ * ReservationLockManagerImpl is a striped implementation of {@link ReservationLockManager}.
+ * <p>
+ * Court-days are hashed onto a fixed array of fair {@link ReentrantLock}s ({@code app.reservation.lock.stripes},
+ * rounded up to a power of two). Two different court-days may share a stripe, which only costs some
+ * unnecessary waiting, never correctness. Stripes are locked in ascending index order, which gives the fixed
+ * global order needed when a reservation is moved between courts or days.
+ * </p>
+ * <p>
+ * {@link #callInTransaction(Collection, Supplier)} starts the transaction through a {@link TransactionTemplate}
+ * only once the stripes are held, so with the pool of {@code spring.datasource.hikari.maximum-pool-size}
+ * connections a queue of bookings on one court-day waits without holding any of them. Waiting inside a
+ * transaction, through {@link #lockUntilCompletion(Collection)}, keeps a connection for at most
+ * {@code app.reservation.lock.timeout-ms}, which should not exceed
+ * {@code spring.datasource.hikari.connection-timeout}, so requests queued for a connection outlast the waiters
+ * holding one.
+ * </p>
+ * <p>
+ * The following metrics are published:
+ * <ul>
+ *     <li>{@code reservation.lock.wait} – time spent acquiring the locks,</li>
+ *     <li>{@code reservation.lock.contended} – acquisitions that had to wait for another booking,</li>
+ *     <li>{@code reservation.lock.timeouts} – acquisitions that gave up after {@code app.reservation.lock.timeout-ms},</li>
+ *     <li>{@code reservation.lock.queued} – threads currently waiting for a stripe.</li>
+ * </ul>
+ * </p>
+ */
+@Component
+public class ReservationLockManagerImpl implements ReservationLockManager {
+
+    /**
+     * The striped locks.
+     */
+    private final ReentrantLock[] stripes;
+
+    /**
+     * How long to wait for all stripes before giving up, in milliseconds.
+     */
+    private final long timeoutMillis;
+
+    /**
+     * Template starting the transactions of {@link #callInTransaction(Collection, Supplier)}.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Time spent acquiring the locks.
+     */
+    private final Timer waitTimer;
+
+    /**
+     * Number of acquisitions that had to wait for another booking.
+     */
+    private final Counter contendedCounter;
+
+    /**
+     * Number of acquisitions that timed out.
+     */
+    private final Counter timeoutCounter;
+
+
+    /**
+     * Constructs a new ReservationLockManagerImpl.
+     *
+     * @param theStripes       The requested number of stripes ({@code app.reservation.lock.stripes}).
+     * @param theTimeoutMillis The lock timeout in milliseconds ({@code app.reservation.lock.timeout-ms}).
+     * @param theTransactionManager The transaction manager starting transactions once the locks are held.
+     * @param theMeterRegistry The registry to publish lock metrics to.
+     */
+    @Autowired
+    public ReservationLockManagerImpl(@Value("${app.reservation.lock.stripes:256}") int theStripes,
+                                      @Value("${app.reservation.lock.timeout-ms:5000}") long theTimeoutMillis,
+                                      PlatformTransactionManager theTransactionManager,
+                                      MeterRegistry theMeterRegistry) {
+        if (theStripes <= 0) {
+            throw new IllegalArgumentException("Number of lock stripes must be positive, got " + theStripes);
+        }
+        int stripeCount = 1;
+        while (stripeCount < theStripes) {
+            stripeCount <<= 1;
+        }
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+        timeoutMillis = theTimeoutMillis;
+        transactionTemplate = new TransactionTemplate(theTransactionManager);
+
+        waitTimer = Timer.builder("reservation.lock.wait")
+                .description("Time spent waiting for court-day reservation locks")
+                .register(theMeterRegistry);
+        contendedCounter = Counter.builder("reservation.lock.contended")
+                .description("Reservation lock acquisitions that had to wait for another booking")
+                .register(theMeterRegistry);
+        timeoutCounter = Counter.builder("reservation.lock.timeouts")
+                .description("Reservation lock acquisitions that timed out")
+                .register(theMeterRegistry);
+        Gauge.builder("reservation.lock.queued", this, ReservationLockManagerImpl::queuedThreads)
+                .description("Threads currently waiting for a reservation lock")
+                .register(theMeterRegistry);
+    }
+
+
+    /**
+     * Acquires the stripes of all given court-days in ascending order and registers their release
+     * for the completion of the current transaction.
+     *
+     * @param keys The court-days to be locked.
+     * @throws ReservationLockTimeoutException if the stripes are not acquired within the timeout.
+     */
+    @Override
+    public void lockUntilCompletion(Collection<CourtDayKey> keys) {
+        int[] indexes = acquire(keys);
+        afterCompletion(() -> unlock(indexes, indexes.length));
+    }
+
+
+    /**
+     * Acquires the stripes of all given court-days in ascending order and only then starts the transaction
+     * running the action; the stripes are released once it has been committed or rolled back. Within an active
+     * transaction, the stripes are held until that transaction completes instead.
+     *
+     * @param keys   The court-days to be locked.
+     * @param action The change to run while holding the locks.
+     * @param <T>    The type of the result.
+     * @return The result of the action.
+     * @throws ReservationLockTimeoutException if the stripes are not acquired within the timeout.
+     */
+    @Override
+    public <T> T callInTransaction(Collection<CourtDayKey> keys, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            lockUntilCompletion(keys);
+            return action.get();
+        }
+        int[] indexes = acquire(keys);
+        try {
+            return transactionTemplate.execute(status -> action.get());
+        } finally {
+            unlock(indexes, indexes.length);
+        }
+    }
+
+
+    /**
+     * Returns the number of stripes.
+     *
+     * @return The number of stripes, always a power of two.
+     */
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    // Acquires the stripes of the court-days in ascending order and returns their indexes; on a timeout the
+    // stripes already acquired are released again
+    private int[] acquire(Collection<CourtDayKey> keys) {
+        int[] indexes = keys.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        boolean contended = false;
+        int locked = 0;
+        try {
+            for (int index : indexes) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock()) {
+                    contended = true;
+                    if (!lock.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                        timeoutCounter.increment();
+                        throw new ReservationLockTimeoutException("Court and day " + keys
+                                + " are being booked by another request, try again later");
+                    }
+                }
+                locked++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReservationLockTimeoutException("Interrupted while waiting for lock of " + keys);
+        } finally {
+            waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (contended) {
+                contendedCounter.increment();
+            }
+            if (locked < indexes.length) {
+                unlock(indexes, locked);
+            }
+        }
+        return indexes;
+    }
+
+    // Maps a court-day onto its stripe, spreading the hash so that neighbouring days land on different stripes
+    int stripeIndex(CourtDayKey key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    // Releases the first {@code count} acquired stripes in reverse order
+    private void unlock(int[] indexes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    // Number of threads waiting on any stripe
+    private double queuedThreads() {
+        return Arrays.stream(stripes).mapToInt(ReentrantLock::getQueueLength).sum();
+    }
+}
@@ -0,0 +1,41 @@
+package cz.vojtechsika.tennisclub.metrics;
+
+import cz.vojtechsika.tennisclub.enums.RejectionReason;
+
+/**
+ * BookingMetrics counts the outcomes of bookings: the reservations created, updated and cancelled, and the bookings
+ * rejected by each reservation rule.
+ *
+ * <p>The services report a created, updated or cancelled reservation once its transaction has been committed, so
+ * rolled back bookings are not counted. A rejection is reported when it is decided. A booking breaking several
+ * rules is counted once, under the first broken rule in the order of {@link RejectionReason}.</p>
+ */
+public interface BookingMetrics {
+
+    /**
+     * Records reservations created by a committed booking.
+     *
+     * @param count The number of created reservations.
+     */
+    void created(int count);
+
+
+    /**
+     * Records a reservation changed by a committed update.
+     */
+    void updated();
+
+
+    /**
+     * Records a reservation deleted by a committed cancellation.
+     */
+    void cancelled();
+
+
+    /**
+     * Records a booking rejected by a reservation rule.
+     *
+     * @param reason The rule the booking broke.
+     */
+    void rejected(RejectionReason reason);
+}
@@ -0,0 +1,97 @@
+package cz.vojtechsika.tennisclub.metrics;
+
+import cz.vojtechsika.tennisclub.enums.RejectionReason;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BookingMetricsImpl publishes the booking outcomes to Micrometer.
+ * <p>
+ * The created, updated and cancelled reservations are summed in {@link LongAdder}s, which spread concurrent
+ * increments over several cells instead of contending on a single value, and are published as
+ * {@code reservation.bookings} function counters tagged with {@code operation}. The rejections are counted
+ * by {@code reservation.rejections} counters tagged with {@code reason}, all registered up front.
+ * </p>
+ */
+@Component
+public class BookingMetricsImpl implements BookingMetrics {
+
+    /**
+     * The number of created reservations.
+     */
+    private final LongAdder created = new LongAdder();
+
+    /**
+     * The number of updated reservations.
+     */
+    private final LongAdder updated = new LongAdder();
+
+    /**
+     * The number of cancelled reservations.
+     */
+    private final LongAdder cancelled = new LongAdder();
+
+    /**
+     * The rejection counter of every reason.
+     */
+    private final Map<RejectionReason, Counter> rejections = new EnumMap<>(RejectionReason.class);
+
+
+    /**
+     * Constructs a new BookingMetricsImpl and registers its meters.
+     *
+     * @param theMeterRegistry Registry the booking counters are published to.
+     */
+    @Autowired
+    public BookingMetricsImpl(MeterRegistry theMeterRegistry) {
+        registerBookings(theMeterRegistry, "created", created);
+        registerBookings(theMeterRegistry, "updated", updated);
+        registerBookings(theMeterRegistry, "cancelled", cancelled);
+        for (RejectionReason reason : RejectionReason.values()) {
+            rejections.put(reason, Counter.builder(MeterNames.RESERVATION_REJECTIONS)
+                    .description("Bookings rejected by a reservation rule")
+                    .tag("reason", reason.getTag())
+                    .register(theMeterRegistry));
+        }
+    }
+
+
+    @Override
+    public void created(int count) {
+        created.add(count);
+    }
+
+
+    @Override
+    public void updated() {
+        updated.increment();
+    }
+
+
+    @Override
+    public void cancelled() {
+        cancelled.increment();
+    }
+
+
+    @Override
+    public void rejected(RejectionReason reason) {
+        rejections.get(reason).increment();
+    }
+
+
+    // Publishes the adder as the booking counter of the given operation
+    private static void registerBookings(MeterRegistry meterRegistry, String operation, LongAdder adder) {
+        FunctionCounter.builder(MeterNames.RESERVATION_BOOKINGS, adder, LongAdder::sum)
+                .description("Reservations changed by committed bookings")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
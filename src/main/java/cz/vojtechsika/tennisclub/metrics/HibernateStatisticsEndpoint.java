@@ -0,0 +1,128 @@
+package cz.vojtechsika.tennisclub.metrics;
+
+import cz.vojtechsika.tennisclub.dto.response.EntityStatisticsDTO;
+import cz.vojtechsika.tennisclub.dto.response.HibernateStatisticsResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.QueryStatisticsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheableDataStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * HibernateStatisticsEndpoint is the {@code hibernate} actuator endpoint telling whether a slow list is spent in
+ * the queries, in hydrating entities or in flushing.
+ * <ul>
+ *   <li>{@code GET /actuator/hibernate} reports the Hibernate statistics and the slow queries of the
+ *       {@link SlowQueryLog}.</li>
+ *   <li>{@code POST /actuator/hibernate} with {@code {"enabled": true}} starts or stops collecting the statistics
+ *       without a restart; on startup they follow {@code hibernate.generate_statistics}.</li>
+ *   <li>{@code DELETE /actuator/hibernate} resets the statistics and empties the slow-query log.</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    /**
+     * The statistics of the session factory.
+     */
+    private final Statistics statistics;
+
+    /**
+     * The log of the slow queries.
+     */
+    private final SlowQueryLog slowQueryLog;
+
+
+    /**
+     * Constructs a new HibernateStatisticsEndpoint.
+     *
+     * @param theEntityManagerFactory The {@link EntityManagerFactory} whose Hibernate statistics are reported.
+     * @param theSlowQueryLog         The {@link SlowQueryLog} whose queries are reported.
+     */
+    @Autowired
+    public HibernateStatisticsEndpoint(EntityManagerFactory theEntityManagerFactory, SlowQueryLog theSlowQueryLog) {
+        statistics = theEntityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        slowQueryLog = theSlowQueryLog;
+    }
+
+
+    /**
+     * Reports the statistics collected since they were started or last reset, and the slow queries.
+     *
+     * @return The {@link HibernateStatisticsResponseDTO} report.
+     */
+    @ReadOperation
+    public HibernateStatisticsResponseDTO report() {
+        List<QueryStatisticsDTO> queries = Arrays.stream(statistics.getQueries())
+                .map(this::queryStatistics)
+                .sorted(Comparator.comparingLong(QueryStatisticsDTO::getTotalTimeMs).reversed())
+                .toList();
+        List<EntityStatisticsDTO> entities = Arrays.stream(statistics.getEntityNames())
+                .sorted()
+                .map(this::entityStatistics)
+                .toList();
+
+        return new HibernateStatisticsResponseDTO(statistics.isStatisticsEnabled(), statistics.getStart(),
+                statistics.getEntityLoadCount(), statistics.getEntityFetchCount(),
+                statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount(), statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getFlushCount(), statistics.getPrepareStatementCount(),
+                queries, entities, slowQueryLog.getSlowQueries());
+    }
+
+
+    /**
+     * Starts or stops collecting the statistics.
+     *
+     * @param enabled Whether the statistics should be collected.
+     */
+    @WriteOperation
+    public void enable(boolean enabled) {
+        statistics.setStatisticsEnabled(enabled);
+    }
+
+
+    /**
+     * Resets the statistics and empties the slow-query log.
+     */
+    @DeleteOperation
+    public void reset() {
+        statistics.clear();
+        slowQueryLog.clear();
+    }
+
+
+    private QueryStatisticsDTO queryStatistics(String query) {
+        QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+        return new QueryStatisticsDTO(query, queryStatistics.getExecutionCount(),
+                queryStatistics.getExecutionMaxTime(), queryStatistics.getExecutionAvgTimeAsDouble(),
+                queryStatistics.getExecutionTotalTime(), queryStatistics.getExecutionRowCount(),
+                queryStatistics.getCacheHitCount());
+    }
+
+    private EntityStatisticsDTO entityStatistics(String entityName) {
+        EntityStatistics entityStatistics = statistics.getEntityStatistics(entityName);
+        return new EntityStatisticsDTO(entityName, entityStatistics.getLoadCount(), entityStatistics.getFetchCount(),
+                entityStatistics.getInsertCount(), entityStatistics.getUpdateCount(),
+                entityStatistics.getDeleteCount(), cacheCount(entityStatistics.getCacheHitCount()),
+                cacheCount(entityStatistics.getCacheMissCount()));
+    }
+
+    // Hibernate reports the cache counts of an entity that is not cached as NOT_CACHED_COUNT
+    private static Long cacheCount(long count) {
+        return count == CacheableDataStatistics.NOT_CACHED_COUNT ? null : count;
+    }
+}
@@ -0,0 +1,33 @@
+package cz.vojtechsika.tennisclub.metrics;
+
+/**
+ * MeterNames holds the names of the application's own Micrometer meters, published at {@code /actuator/metrics}
+ * and {@code /actuator/prometheus}.
+ */
+public final class MeterNames {
+
+    /**
+     * Timer of every method of the reservation, court and surface type services, tagged with {@code class},
+     * {@code method} and {@code exception}.
+     */
+    public static final String SERVICE_CALLS = "service.calls";
+
+    /**
+     * Timer of every DAO method, tagged with {@code class}, {@code method} and {@code exception}.
+     */
+    public static final String DAO_QUERIES = "dao.queries";
+
+    /**
+     * Counter of the bookings rejected by a reservation rule, tagged with {@code reason}.
+     */
+    public static final String RESERVATION_REJECTIONS = "reservation.rejections";
+
+    /**
+     * Counter of the committed bookings, tagged with {@code operation}.
+     */
+    public static final String RESERVATION_BOOKINGS = "reservation.bookings";
+
+
+    private MeterNames() {
+    }
+}
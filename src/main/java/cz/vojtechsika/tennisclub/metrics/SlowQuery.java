@@ -0,0 +1,19 @@
+package cz.vojtechsika.tennisclub.metrics;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+
+/**
+ * SlowQuery is one entry of the {@link SlowQueryLog}: a JPQL query whose execution took at least the configured
+ * threshold, together with the values it was run with.
+ *
+ * @param jpql        The JPQL of the query.
+ * @param parameters  The bound parameter values by parameter name.
+ * @param elapsedMs   The time the execution took in milliseconds.
+ * @param rows        The number of rows read, or changed by an update.
+ * @param executedAt  The time the execution finished.
+ */
+public record SlowQuery(String jpql, Map<String, String> parameters, long elapsedMs, int rows,
+                        LocalDateTime executedAt) {
+}
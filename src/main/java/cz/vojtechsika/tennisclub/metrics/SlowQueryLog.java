@@ -0,0 +1,48 @@
+package cz.vojtechsika.tennisclub.metrics;
+
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+/**
+ * SlowQueryLog runs JPQL queries of the DAOs and keeps the latest ones whose execution took at least
+ * a configured threshold, with their JPQL and bound parameters.
+ *
+ * <p>The log is bounded; once it is full, every new slow query pushes out the oldest one. Queries faster than the
+ * threshold only cost an unwrap of the query and two clock reads.</p>
+ */
+public interface SlowQueryLog {
+
+    /**
+     * Executes the select query and records it if it was slow.
+     *
+     * @param query The query with all its parameters bound.
+     * @param <T>   The type of the results.
+     * @return The results of the query.
+     */
+    <T> List<T> getResultList(TypedQuery<T> query);
+
+
+    /**
+     * Executes the bulk update or delete query and records it if it was slow.
+     *
+     * @param query The query with all its parameters bound.
+     * @return The number of changed rows.
+     */
+    int executeUpdate(Query query);
+
+
+    /**
+     * Returns the recorded slow queries.
+     *
+     * @return The slow queries, the latest first.
+     */
+    List<SlowQuery> getSlowQueries();
+
+
+    /**
+     * Removes all recorded slow queries.
+     */
+    void clear();
+}
@@ -0,0 +1,142 @@
+package cz.vojtechsika.tennisclub.metrics;
+
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.query.QueryParameter;
+import org.hibernate.query.spi.DomainQueryExecutionContext;
+import org.hibernate.query.spi.QueryParameterBinding;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SlowQueryLogImpl times the query executions with {@link System#nanoTime()} and keeps the slow ones in a bounded
+ * deque, the latest first.
+ * <p>
+ * The JPQL and the parameters are read only when the query turned out to be slow. Outside a transaction the shared
+ * {@code EntityManager} is closed right after the execution and the JPA query refuses to return its parameters, so
+ * they are read from the bindings of the Hibernate query, which is unwrapped before the execution.
+ * </p>
+ */
+@Component
+public class SlowQueryLogImpl implements SlowQueryLog {
+
+    /**
+     * The execution time in nanoseconds from which a query is recorded.
+     */
+    private final long thresholdNanos;
+
+    /**
+     * The maximum number of recorded queries.
+     */
+    private final int capacity;
+
+    /**
+     * The recorded queries, the latest first; guarded by {@link #lock}.
+     */
+    private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+
+    /**
+     * Lock guarding the recorded queries; unlike a monitor it does not pin a virtual thread to its carrier.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+
+    /**
+     * Constructs a new SlowQueryLogImpl.
+     *
+     * @param theThresholdMs The execution time in milliseconds from which a query is recorded.
+     * @param theCapacity    The maximum number of recorded queries.
+     */
+    @Autowired
+    public SlowQueryLogImpl(@Value("${app.slow-query-log.threshold-ms:200}") long theThresholdMs,
+                            @Value("${app.slow-query-log.capacity:100}") int theCapacity) {
+        thresholdNanos = TimeUnit.MILLISECONDS.toNanos(theThresholdMs);
+        capacity = theCapacity;
+    }
+
+
+    @Override
+    public <T> List<T> getResultList(TypedQuery<T> query) {
+        org.hibernate.query.Query<?> hibernateQuery = query.unwrap(org.hibernate.query.Query.class);
+        long started = System.nanoTime();
+        List<T> result = query.getResultList();
+        recordIfSlow(hibernateQuery, System.nanoTime() - started, result.size());
+        return result;
+    }
+
+
+    @Override
+    public int executeUpdate(Query query) {
+        org.hibernate.query.Query<?> hibernateQuery = query.unwrap(org.hibernate.query.Query.class);
+        long started = System.nanoTime();
+        int changed = query.executeUpdate();
+        recordIfSlow(hibernateQuery, System.nanoTime() - started, changed);
+        return changed;
+    }
+
+
+    @Override
+    public List<SlowQuery> getSlowQueries() {
+        lock.lock();
+        try {
+            return List.copyOf(slowQueries);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            slowQueries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    private void recordIfSlow(org.hibernate.query.Query<?> query, long elapsedNanos, int rows) {
+        if (elapsedNanos < thresholdNanos || capacity <= 0) {
+            return;
+        }
+        SlowQuery slowQuery = new SlowQuery(query.getQueryString(), parameters(query),
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows, LocalDateTime.now());
+        lock.lock();
+        try {
+            if (slowQueries.size() == capacity) {
+                slowQueries.removeLast();
+            }
+            slowQueries.addFirst(slowQuery);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Bound values by parameter name; the values of a collection parameter are printed as a list
+    private static Map<String, String> parameters(org.hibernate.query.Query<?> query) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        if (!(query instanceof DomainQueryExecutionContext executionContext)) {
+            return parameters;
+        }
+        for (QueryParameter<?> parameter : query.getParameterMetadata().getRegistrations()) {
+            QueryParameterBinding<?> binding = executionContext.getQueryParameterBindings().getBinding(parameter);
+            if (binding.isBound()) {
+                parameters.put(parameter.getName(), String.valueOf(binding.isMultiValued()
+                        ? binding.getBindValues() : binding.getBindValue()));
+            }
+        }
+        return parameters;
+    }
+}
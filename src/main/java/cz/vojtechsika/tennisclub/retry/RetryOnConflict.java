@@ -0,0 +1,23 @@
+package cz.vojtechsika.tennisclub.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a transactional service method that may be re-executed when it fails on an optimistic locking conflict,
+ * i.e., when another transaction has changed the same entity between our read and our write.
+ *
+ * <p>
+ * The retry is performed by {@link RetryOnConflictAspect}, which wraps the whole transaction so every attempt
+ * reads fresh data. Only use it on methods whose effect is safe to repeat once the previous attempt has been
+ * rolled back.
+ * </p>
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
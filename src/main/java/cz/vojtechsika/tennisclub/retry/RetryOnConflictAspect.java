@@ -0,0 +1,115 @@
+package cz.vojtechsika.tennisclub.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * RetryOnConflictAspect re-executes methods annotated with {@link RetryOnConflict} when they fail
+ * on an optimistic locking conflict.
+ *
+ * <p>
+ * The aspect runs with the highest precedence, so it wraps the {@code @Transactional} proxy and every attempt
+ * gets its own transaction with freshly loaded entities. If the method is called from within an already running
+ * transaction, no retry is attempted, because the outer transaction is marked rollback-only and repeating the
+ * inner call could not succeed.
+ * </p>
+ *
+ * <p>
+ * Between attempts the aspect waits a short, linearly growing back-off. When all attempts fail, the last
+ * conflict is rethrown and mapped to HTTP 409 by the global exception handler.
+ * </p>
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RetryOnConflictAspect {
+
+    /**
+     * Maximum number of attempts including the first one.
+     */
+    private final int maxAttempts;
+
+    /**
+     * Base back-off between attempts in milliseconds, multiplied by the attempt number.
+     */
+    private final long backoffMs;
+
+    /**
+     * Number of attempts that were repeated because of a conflict.
+     */
+    private final Counter retries;
+
+
+    /**
+     * Constructs a new RetryOnConflictAspect.
+     *
+     * @param theMaxAttempts   Maximum number of attempts including the first one.
+     * @param theBackoffMs     Base back-off between attempts in milliseconds.
+     * @param theMeterRegistry Registry the retry counter is published to.
+     */
+    @Autowired
+    public RetryOnConflictAspect(@Value("${app.retry.max-attempts:3}") int theMaxAttempts,
+                                 @Value("${app.retry.backoff-ms:25}") long theBackoffMs,
+                                 MeterRegistry theMeterRegistry) {
+        maxAttempts = Math.max(1, theMaxAttempts);
+        backoffMs = Math.max(0, theBackoffMs);
+        retries = Counter.builder("optimistic.lock.retries")
+                .description("Attempts repeated after an optimistic locking conflict")
+                .register(theMeterRegistry);
+    }
+
+
+    /**
+     * Invokes the annotated method and repeats it on an optimistic locking conflict.
+     *
+     * @param joinPoint The intercepted method call.
+     * @return The result of the first successful attempt.
+     * @throws Throwable The exception of the last attempt, or any non-conflict exception immediately.
+     */
+    @Around("@annotation(cz.vojtechsika.tennisclub.retry.RetryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                retries.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+
+    /**
+     * Waits before the next attempt, giving the competing transaction time to finish.
+     *
+     * @param attempt The number of the attempt that has just failed.
+     */
+    private void backoff(int attempt) {
+        if (backoffMs == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(backoffMs * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dto.response.CourtAvailabilityResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.FreeCourtResponseDTO;
+import cz.vojtechsika.tennisclub.enums.AvailabilityFormat;
+import cz.vojtechsika.tennisclub.enums.GameType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * AvailabilityService defines the business operations for querying when courts are free.
+ * <p>
+ * Implementations answer availability from compact per-court, per-day slot bitmaps instead of returning
+ * the reservations themselves, so clients do not have to compute gaps on their side.</p>
+ */
+public interface AvailabilityService {
+
+    /**
+     * Retrieves the availability of a court for every day in the given range.
+     *
+     * @param courtNumber The number of the court.
+     * @param from        The first day of the range (inclusive).
+     * @param to          The last day of the range (inclusive).
+     * @param format      The requested output format (free ranges or bitmap).
+     * @return A {@link CourtAvailabilityResponseDTO} describing the free slots of each day.
+     * @throws cz.vojtechsika.tennisclub.exception.CourtNotFoundException      if no court with the given number exists.
+     * @throws cz.vojtechsika.tennisclub.exception.InvalidDateRangeException   if the range is reversed or too long.
+     */
+    CourtAvailabilityResponseDTO getCourtAvailability(int courtNumber, LocalDate from, LocalDate to, AvailabilityFormat format);
+
+
+    /**
+     * Finds all courts that are free for the whole given time window.
+     *
+     * @param startTime     The start of the window.
+     * @param endTime       The end of the window.
+     * @param surfaceTypeId The surface type the courts must have, or {@code null} for any surface type.
+     * @param gameType      The game type used to compute the price.
+     * @return A list of {@link FreeCourtResponseDTO} ordered by price and court number.
+     * @throws cz.vojtechsika.tennisclub.exception.InvalidDateRangeException if the window cannot be reserved.
+     */
+    List<FreeCourtResponseDTO> findFreeCourts(LocalDateTime startTime, LocalDateTime endTime, Long surfaceTypeId, GameType gameType);
+}
@@ -0,0 +1,288 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.cache.CatalogCache;
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dto.mapper.AvailabilityMapper;
+import cz.vojtechsika.tennisclub.dto.mapper.SurfaceTypeMapper;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.dto.response.CourtAvailabilityResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.DayAvailabilityDTO;
+import cz.vojtechsika.tennisclub.dto.response.FreeCourtResponseDTO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.enums.AvailabilityFormat;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.exception.CourtNotFoundException;
+import cz.vojtechsika.tennisclub.exception.InvalidDateRangeException;
+import cz.vojtechsika.tennisclub.index.AvailabilityGrid;
+import cz.vojtechsika.tennisclub.index.CourtDaySchedule;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import cz.vojtechsika.tennisclub.index.SlotGrid;
+import cz.vojtechsika.tennisclub.tariff.TariffEngine;
+import cz.vojtechsika.tennisclub.util.OpeningHours;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * AvailabilityServiceImpl is the service implementation of {@link AvailabilityService}.
+ * <p>
+ * When the {@link ReservationIndex} is warm, availability is computed from the memoized slot bitmaps of the
+ * {@link AvailabilityGrid} without touching the database. Otherwise all reservations of the court in the range
+ * are loaded with a single projection query and the bitmaps are built on the fly.
+ * </p>
+ * <p>
+ * Slots that have already started are reported as not available, because a reservation must start in the future.
+ * </p>
+ * <p>
+ * Free court search evaluates all courts in one pass: the courts are loaded with one query and each of them is
+ * checked against the index, or, when the index is cold, against one set-based query of occupied court numbers.
+ * </p>
+ */
+@Service
+public class AvailabilityServiceImpl implements AvailabilityService {
+
+    /**
+     * The maximum number of days that can be requested at once.
+     */
+    static final int MAX_DAYS = 62;
+
+    /**
+     * The maximum length of a searched window in minutes, the same as the limit of a single reservation.
+     */
+    static final int MAX_WINDOW_MINUTES = 120;
+
+    /**
+     * DAO for court persistence operations.
+     */
+    private final CourtDAO courtDAO;
+
+    /**
+     * DAO for reservation persistence operations, used when the index is cold.
+     */
+    private final ReservationDAO reservationDAO;
+
+    /**
+     * In-memory index of active reservations.
+     */
+    private final ReservationIndex reservationIndex;
+
+    /**
+     * Memoized per-court, per-day slot bitmaps.
+     */
+    private final AvailabilityGrid availabilityGrid;
+
+    /**
+     * Mapper to convert slot bitmaps into response DTOs.
+     */
+    private final AvailabilityMapper availabilityMapper;
+
+    /**
+     * Mapper to convert surface types into response DTOs.
+     */
+    private final SurfaceTypeMapper surfaceTypeMapper;
+
+    /**
+     * Cache of the active courts, used to check that a court exists.
+     */
+    private final CatalogCache catalogCache;
+
+    /**
+     * Engine computing the price of a free court.
+     */
+    private final TariffEngine tariffEngine;
+
+
+    /**
+     * Constructs a new AvailabilityServiceImpl with required dependencies.
+     *
+     * @param theCourtDAO           DAO for court persistence operations.
+     * @param theReservationDAO     DAO for reservation persistence operations.
+     * @param theReservationIndex   In-memory index of active reservations.
+     * @param theAvailabilityGrid   Memoized per-court, per-day slot bitmaps.
+     * @param theAvailabilityMapper Mapper to convert slot bitmaps into response DTOs.
+     * @param theSurfaceTypeMapper  Mapper to convert surface types into response DTOs.
+     * @param theCatalogCache       Cache of the active courts.
+     * @param theTariffEngine       Engine computing the price of a free court.
+     */
+    @Autowired
+    public AvailabilityServiceImpl(CourtDAO theCourtDAO,
+                                   ReservationDAO theReservationDAO,
+                                   ReservationIndex theReservationIndex,
+                                   AvailabilityGrid theAvailabilityGrid,
+                                   AvailabilityMapper theAvailabilityMapper,
+                                   SurfaceTypeMapper theSurfaceTypeMapper,
+                                   CatalogCache theCatalogCache,
+                                   TariffEngine theTariffEngine) {
+        courtDAO = theCourtDAO;
+        reservationDAO = theReservationDAO;
+        reservationIndex = theReservationIndex;
+        availabilityGrid = theAvailabilityGrid;
+        availabilityMapper = theAvailabilityMapper;
+        surfaceTypeMapper = theSurfaceTypeMapper;
+        catalogCache = theCatalogCache;
+        tariffEngine = theTariffEngine;
+    }
+
+
+    /**
+     * Retrieves the availability of a court for every day in {@code [from, to]}.
+     * <p>
+     * Validates the range (at most {@value #MAX_DAYS} days, {@code from} not after {@code to}) and the existence
+     * of the court, then builds one slot bitmap per day and converts it into the requested format.
+     * </p>
+     *
+     * @param courtNumber The number of the court.
+     * @param from        The first day of the range (inclusive).
+     * @param to          The last day of the range (inclusive).
+     * @param format      The requested output format (free ranges or bitmap).
+     * @return A {@link CourtAvailabilityResponseDTO} describing the free slots of each day.
+     * @throws CourtNotFoundException     if no court with the given number exists.
+     * @throws InvalidDateRangeException  if the range is reversed or too long.
+     */
+    @Override
+    public CourtAvailabilityResponseDTO getCourtAvailability(int courtNumber, LocalDate from, LocalDate to, AvailabilityFormat format) {
+
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days < 1) {
+            throw new InvalidDateRangeException("Date 'from' " + from + " must not be after date 'to' " + to);
+        }
+        if (days > MAX_DAYS) {
+            throw new InvalidDateRangeException("Availability can be requested for at most " + MAX_DAYS + " days");
+        }
+        if (catalogCache.findCourtByCourtNumber(courtNumber).isEmpty()) {
+            throw new CourtNotFoundException("Court number " + courtNumber + " not found in database");
+        }
+
+        Map<LocalDate, CourtDaySchedule> coldSchedules = reservationIndex.isWarm()
+                ? null
+                : loadSchedules(courtNumber, from, to);
+
+        LocalDateTime now = LocalDateTime.now();
+        int slotMinutes = availabilityGrid.getSlotMinutes();
+        List<DayAvailabilityDTO> dayAvailabilities = new ArrayList<>();
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            SlotGrid grid;
+            if (coldSchedules == null) {
+                grid = availabilityGrid.gridFor(courtNumber, date, reservationIndex.getSchedule(courtNumber, date));
+            } else {
+                grid = availabilityGrid.build(coldSchedules.getOrDefault(date, CourtDaySchedule.EMPTY));
+            }
+            grid = grid.occupyFirst(startedSlots(date, now, slotMinutes, grid.slotCount()));
+            dayAvailabilities.add(availabilityMapper.toDayAvailabilityDTO(date, grid, slotMinutes, format));
+        }
+
+        return new CourtAvailabilityResponseDTO(courtNumber, OpeningHours.OPENING_TIME, OpeningHours.CLOSING_TIME,
+                slotMinutes, dayAvailabilities);
+    }
+
+
+    /**
+     * Finds all courts that are free for the whole window {@code [startTime, endTime)}.
+     * <p>
+     * The window must follow the same rules as a reservation: it must start in the future, last at most
+     * {@value #MAX_WINDOW_MINUTES} minutes and lie within the opening hours of a single day.
+     * All matching courts are loaded with their surface types in one query. Occupancy is then checked against
+     * the {@link ReservationIndex} when it is warm, or against a single query returning the numbers of all
+     * occupied courts otherwise, so the number of queries does not grow with the number of courts.
+     * </p>
+     *
+     * @param startTime     The start of the window.
+     * @param endTime       The end of the window.
+     * @param surfaceTypeId The surface type the courts must have, or {@code null} for any surface type.
+     * @param gameType      The game type used to compute the price.
+     * @return A list of {@link FreeCourtResponseDTO} ordered by price and court number.
+     * @throws InvalidDateRangeException if the window cannot be reserved.
+     */
+    @Override
+    public List<FreeCourtResponseDTO> findFreeCourts(LocalDateTime startTime, LocalDateTime endTime, Long surfaceTypeId, GameType gameType) {
+
+        validateWindow(startTime, endTime);
+
+        List<Court> courts = courtDAO.findAllWithSurfaceType(surfaceTypeId);
+
+        Set<Integer> occupiedCourtNumbers = reservationIndex.isWarm()
+                ? null
+                : new HashSet<>(reservationDAO.findOccupiedCourtNumbersBetween(startTime, endTime));
+
+        List<FreeCourtResponseDTO> freeCourts = new ArrayList<>();
+        for (Court court : courts) {
+            boolean occupied = occupiedCourtNumbers == null
+                    ? reservationIndex.hasOverlappingReservation(court.getCourtNumber(), startTime, endTime, null)
+                    : occupiedCourtNumbers.contains(court.getCourtNumber());
+            if (!occupied) {
+                BigDecimal price = tariffEngine.price(court.getSurfaceType(), startTime, endTime, gameType);
+                freeCourts.add(availabilityMapper.toFreeCourtResponseDTO(court,
+                        surfaceTypeMapper.toResponseDTO(court.getSurfaceType()), price));
+            }
+        }
+
+        freeCourts.sort(Comparator.comparing(FreeCourtResponseDTO::getPrice)
+                .thenComparingInt(FreeCourtResponseDTO::getCourtNumber));
+        return freeCourts;
+    }
+
+
+    // Ensures the searched window could be reserved: in the future, at most two hours long and within opening hours
+    private void validateWindow(LocalDateTime startTime, LocalDateTime endTime) {
+        long minutes = Duration.between(startTime, endTime).toMinutes();
+        if (minutes <= 0 || minutes > MAX_WINDOW_MINUTES) {
+            throw new InvalidDateRangeException("Searched window must last between 1 and " + MAX_WINDOW_MINUTES + " minutes");
+        }
+        if (!startTime.isAfter(LocalDateTime.now())) {
+            throw new InvalidDateRangeException("Searched window must start in the future");
+        }
+        if (!startTime.toLocalDate().equals(endTime.toLocalDate())
+                || startTime.toLocalTime().isBefore(OpeningHours.OPENING_TIME)
+                || endTime.toLocalTime().isAfter(OpeningHours.CLOSING_TIME)) {
+            throw new InvalidDateRangeException("Searched window must be within opening hours "
+                    + OpeningHours.OPENING_TIME + " - " + OpeningHours.CLOSING_TIME);
+        }
+    }
+
+    // Loads the reservations of the whole range with one query and groups them into per-day schedules
+    private Map<LocalDate, CourtDaySchedule> loadSchedules(int courtNumber, LocalDate from, LocalDate to) {
+        List<ReservationInterval> intervals = reservationDAO.findAllIntervalsByCourtNumberBetween(courtNumber,
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+
+        Map<LocalDate, CourtDaySchedule> schedules = new HashMap<>();
+        for (ReservationInterval interval : intervals) {
+            LocalDate date = interval.getStartTime().toLocalDate();
+            int start = (int) Duration.between(date.atStartOfDay(), interval.getStartTime()).toMinutes();
+            int end = (int) Duration.between(date.atStartOfDay(), interval.getEndTime()).toMinutes();
+            schedules.merge(date, CourtDaySchedule.EMPTY.with(interval.getId(), start, end),
+                    (current, added) -> current.with(interval.getId(), start, end));
+        }
+        return schedules;
+    }
+
+    // Number of leading slots of the day that have already started and therefore cannot be booked
+    private int startedSlots(LocalDate date, LocalDateTime now, int slotMinutes, int slotCount) {
+        LocalDate today = now.toLocalDate();
+        if (date.isBefore(today)) {
+            return slotCount;
+        }
+        if (date.isAfter(today)) {
+            return 0;
+        }
+        int nowMinute = now.getHour() * 60 + now.getMinute();
+        if (nowMinute < OpeningHours.OPENING_MINUTE) {
+            return 0;
+        }
+        return (nowMinute - OpeningHours.OPENING_MINUTE) / slotMinutes + 1;
+    }
+}
@@ -44,6 +44,15 @@ public interface CourtService {
     List<CourtResponseDTO> getAllCourts();
 
 
+    /**
+     * Returns the entity tag of the list of all courts without loading it. The tag changes with every committed
+     * change of a court or of a surface type.
+     *
+     * @return The current entity tag of the list of all courts.
+     */
+    String getAllCourtsETag();
+
+
     /**
      * Updates an existing court.
      * Validates that the court exists and that the new court number (if changed) is unique.
@@ -51,11 +60,14 @@ public interface CourtService {
      *
      * @param courtDTO The {@link CourtDTO} containing updated court data (court number and/or surface type ID).
      * @param id       The unique ID of the court to update.
+     * @param expectedVersion The version the client based its change on (from {@code If-Match}),
+     *                        or {@code null} to update unconditionally.
      * @return A {@link CourtResponseDTO} with details of the updated court.
      * @throws cz.vojtechsika.tennisclub.exception.CourtNotFoundException           if no court with the given ID exists.
      * @throws cz.vojtechsika.tennisclub.exception.CourtNumberAlreadyExistsException if the new court number conflicts with an existing court.
+     * @throws cz.vojtechsika.tennisclub.exception.VersionMismatchException         if the court has a different version than expected.
      */
-    CourtResponseDTO updateCourt(CourtDTO courtDTO, Long id);
+    CourtResponseDTO updateCourt(CourtDTO courtDTO, Long id, Long expectedVersion);
 
 
     /**
@@ -1,7 +1,10 @@
 package cz.vojtechsika.tennisclub.service;
 
+import cz.vojtechsika.tennisclub.cache.CatalogCache;
+import cz.vojtechsika.tennisclub.cache.CollectionVersions;
 import cz.vojtechsika.tennisclub.dao.CourtDAO;
 import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSlotDAO;
 import cz.vojtechsika.tennisclub.dao.SurfaceTypeDAO;
 import cz.vojtechsika.tennisclub.dto.CourtDTO;
 import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
@@ -14,12 +17,20 @@ import cz.vojtechsika.tennisclub.entity.SurfaceType;
 import cz.vojtechsika.tennisclub.exception.CourtNotFoundException;
 import cz.vojtechsika.tennisclub.exception.CourtNumberAlreadyExistsException;
 import cz.vojtechsika.tennisclub.exception.SurfaceTypeNotFoundException;
+import cz.vojtechsika.tennisclub.exception.VersionMismatchException;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import cz.vojtechsika.tennisclub.metrics.MeterNames;
+import cz.vojtechsika.tennisclub.retry.RetryOnConflict;
+import cz.vojtechsika.tennisclub.util.ETags;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+
+import static cz.vojtechsika.tennisclub.util.TransactionCallbacks.afterCommit;
 /**
  * CourtServiceImpl is the service implementation for managing {@link Court} entities.
  * It handles business logic for creating, retrieving, updating, and deleting courts,
@@ -28,9 +39,13 @@ import java.util.Optional;
  *
  * <p>
  * Upon deletion of a court, this class also marks all related {@link Reservation} entities as deleted.
+ * Renumbering or deleting a court is propagated to the {@link ReservationIndex} once committed.
+ * Courts are read through the {@link CatalogCache}; every committed change evicts the court's entries and
+ * bumps the version stamps of the court list and, for a renumbered or deleted court, of all reservation lists.
  * </p>
  */
 @Service
+@Timed(value = MeterNames.SERVICE_CALLS, histogram = true)
 public class CourtServiceImpl implements CourtService {
 
     /**
@@ -61,6 +76,30 @@ public class CourtServiceImpl implements CourtService {
     private final ReservationDAO reservationDAO;
 
 
+    /**
+     * In-memory index of active reservations, kept in line with court changes.
+     */
+    private final ReservationIndex reservationIndex;
+
+
+    /**
+     * DAO for the per-minute slot claims of reservations.
+     */
+    private final ReservationSlotDAO reservationSlotDAO;
+
+
+    /**
+     * Cache of the active courts and surface types.
+     */
+    private final CatalogCache catalogCache;
+
+
+    /**
+     * Version stamps of the collections polled by the clients.
+     */
+    private final CollectionVersions collectionVersions;
+
+
     /**
      * Constructs a new CourtServiceImpl with required dependencies.
      *
@@ -69,19 +108,31 @@ public class CourtServiceImpl implements CourtService {
      * @param theCourtMapper       Mapper to convert between {@link CourtDTO} and {@link Court}.
      * @param theSurfaceTypeMapper Mapper to convert between {@link SurfaceType} and {@link SurfaceTypeResponseDTO}.
      * @param theReservationDAO    DAO for reservation persistence operations.
+     * @param theReservationIndex  In-memory index of active reservations.
+     * @param theReservationSlotDAO DAO for the per-minute slot claims of reservations.
+     * @param theCatalogCache      Cache of the active courts and surface types.
+     * @param theCollectionVersions Version stamps of the collections polled by the clients.
      */
     @Autowired
     public CourtServiceImpl(CourtDAO theCourtDAO,
                             SurfaceTypeDAO theSurfaceTypeDAO,
                             CourtMapper theCourtMapper,
                             SurfaceTypeMapper theSurfaceTypeMapper,
-                            ReservationDAO theReservationDAO
+                            ReservationDAO theReservationDAO,
+                            ReservationIndex theReservationIndex,
+                            ReservationSlotDAO theReservationSlotDAO,
+                            CatalogCache theCatalogCache,
+                            CollectionVersions theCollectionVersions
                             ) {
         courtDAO = theCourtDAO;
         courtMapper = theCourtMapper;
         surfaceTypeDAO = theSurfaceTypeDAO;
         surfaceTypeMapper = theSurfaceTypeMapper;
         reservationDAO = theReservationDAO;
+        reservationIndex = theReservationIndex;
+        reservationSlotDAO = theReservationSlotDAO;
+        catalogCache = theCatalogCache;
+        collectionVersions = theCollectionVersions;
 
     }
 
@@ -104,7 +155,7 @@ public class CourtServiceImpl implements CourtService {
 
 
         Optional<SurfaceType> optionalSurfaceType = surfaceTypeDAO.findById(courtDTO.getSurfaceTypeId());
-        Optional<Court> optionalCourt = courtDAO.findByCourtNumber(courtDTO.getCourtNumber());
+        Optional<Court> optionalCourt = courtDAO.findCurrentByCourtNumber(courtDTO.getCourtNumber());
 
         if (optionalCourt.isPresent()){
             throw new CourtNumberAlreadyExistsException("Court number "+ optionalCourt.get().getCourtNumber() +
@@ -119,6 +170,8 @@ public class CourtServiceImpl implements CourtService {
             Court court = courtMapper.toEntity(courtDTO);
             court.setSurfaceType(surfaceType);
             Court savedCourt = courtDAO.save(court);
+            afterCommit(() -> catalogCache.evictCourt(null));
+            collectionVersions.courtsChanged();
 
             return courtMapper.toResponseDTO(savedCourt,surfaceTypeResponseDTO);
         } else {
@@ -128,7 +181,7 @@ public class CourtServiceImpl implements CourtService {
 
 
     /**
-     * Retrieves a court by its ID.
+     * Retrieves a court by its ID from the {@link CatalogCache}.
      *
      * @param id The unique ID of the court to retrieve.
      * @return A {@link CourtResponseDTO} representing the retrieved court.
@@ -137,13 +190,9 @@ public class CourtServiceImpl implements CourtService {
     @Override
     public CourtResponseDTO getCourtById(Long id) {
 
-        Optional<Court> optionalCourt = courtDAO.findById(id);
+        Optional<CourtResponseDTO> optionalCourt = catalogCache.findCourtById(id);
         if (optionalCourt.isPresent()) {
-            Court court = optionalCourt.get();
-
-            SurfaceTypeResponseDTO surfaceTypeResponseDTO = surfaceTypeMapper.toResponseDTO(court.getSurfaceType());
-
-            return courtMapper.toResponseDTO(court,surfaceTypeResponseDTO);
+            return optionalCourt.get();
         } else {
             throw new CourtNotFoundException("Court with id " + id + " not found");
         }
@@ -152,23 +201,29 @@ public class CourtServiceImpl implements CourtService {
 
 
     /**
-     * Retrieves all courts in the system.
+     * Retrieves all courts in the system from the {@link CatalogCache}.
      *
      * @return A list of {@link CourtResponseDTO} for all existing courts.
      * @throws CourtNotFoundException if no courts are found in the database.
      */
     @Override
     public List<CourtResponseDTO> getAllCourts() {
-        List<Court> courts = courtDAO.findAll();
+        List<CourtResponseDTO> courts = catalogCache.findAllCourts();
         if (courts.isEmpty()){
             throw new CourtNotFoundException("No Courts found in the database");
         }
-        return courts.stream().
-                map(court -> {
-                    SurfaceTypeResponseDTO surfaceTypeResponseDTO = surfaceTypeMapper.toResponseDTO(court.getSurfaceType());
-                    return courtMapper.toResponseDTO(court,surfaceTypeResponseDTO);
-                }).
-                toList();
+        return courts;
+    }
+
+
+    /**
+     * Returns the entity tag of the list of all courts from its version stamp, without loading the courts.
+     *
+     * @return The current entity tag of the list of all courts.
+     */
+    @Override
+    public String getAllCourtsETag() {
+        return ETags.of(collectionVersions.courts());
     }
 
 
@@ -177,17 +232,23 @@ public class CourtServiceImpl implements CourtService {
      * <p>
      * Verifies that the court exists; if not, a {@link CourtNotFoundException} is thrown. Also checks
      * that the specified surface type exists; if not, a {@link SurfaceTypeNotFoundException} is thrown.
+     * If an {@code expectedVersion} is given and the court has been changed since, a
+     * {@link VersionMismatchException} is thrown. The loaded court is modified in place, so its version
+     * is checked and incremented by the persistence provider on flush.
      * </p>
      *
      * @param courtDTO The {@link CourtDTO} containing updated courtNumber and surfaceTypeId.
      * @param id       The unique ID of the court to update.
+     * @param expectedVersion The version the client based its change on, or {@code null}.
      * @return A {@link CourtResponseDTO} representing the updated court.
      * @throws CourtNotFoundException      if no court with the given ID exists.
      * @throws SurfaceTypeNotFoundException if the referenced surface type does not exist.
+     * @throws VersionMismatchException     if the court has a different version than expected.
      */
+    @RetryOnConflict
     @Transactional
     @Override
-    public CourtResponseDTO updateCourt(CourtDTO courtDTO, Long id) {
+    public CourtResponseDTO updateCourt(CourtDTO courtDTO, Long id, Long expectedVersion) {
 
         Optional<Court> optionalCourt = courtDAO.findById(id);
         Optional<SurfaceType> optionalSurfaceType = surfaceTypeDAO.findById(courtDTO.getSurfaceTypeId());
@@ -195,16 +256,26 @@ public class CourtServiceImpl implements CourtService {
         if (optionalCourt.isEmpty()) {
             throw new CourtNotFoundException("Update failed: Court with id " + id + " does not exist");
         }
+        Court court = optionalCourt.get();
+        if (expectedVersion != null && expectedVersion != court.getVersion()) {
+            throw new VersionMismatchException("Update failed: Court with id " + id + " has version "
+                    + court.getVersion() + ", but version " + expectedVersion + " was expected");
+        }
         if (optionalSurfaceType.isPresent()) {
             SurfaceType surfaceType = optionalSurfaceType.get();
+            int oldCourtNumber = court.getCourtNumber();
+            int newCourtNumber = courtDTO.getCourtNumber();
 
-            Court court = courtMapper.toEntity(courtDTO);
-            court.setId(id);
+            courtMapper.updateCourtFromDTO(courtDTO, court);
             court.setSurfaceType(surfaceType);
 
             Court updateCourt = courtDAO.update(court);
+            afterCommit(() -> reservationIndex.renameCourt(oldCourtNumber, newCourtNumber));
+            afterCommit(() -> catalogCache.evictCourt(id, oldCourtNumber, newCourtNumber));
+            collectionVersions.courtsChanged();
+            collectionVersions.allReservationsChanged();
             SurfaceTypeResponseDTO surfaceTypeResponseDTO = surfaceTypeMapper.toResponseDTO(updateCourt.getSurfaceType());
-            return courtMapper.toResponseDTO(court,surfaceTypeResponseDTO);
+            return courtMapper.toResponseDTO(updateCourt,surfaceTypeResponseDTO);
 
         }
         throw new SurfaceTypeNotFoundException("The requested surface type was not found in the database. Unable to update court.");
@@ -218,12 +289,14 @@ public class CourtServiceImpl implements CourtService {
      * <p>
      * If the specified court does not exist, a {@link CourtNotFoundException} is thrown.
      * Otherwise, the court's {@code deleted} flag is set to {@code true}, and all reservations
-     * associated with that court are also marked as deleted.
+     * associated with that court are marked as deleted and their slot claims released by one bulk
+     * statement each, so the number of statements does not grow with the number of reservations.
      * </p>
      *
      * @param id The unique ID of the court to delete.
      * @throws CourtNotFoundException if no court with the given ID exists.
      */
+    @RetryOnConflict
     @Transactional
     @Override
     public void deleteCourt(Long id) {
@@ -234,15 +307,13 @@ public class CourtServiceImpl implements CourtService {
             court.setDeleted(true);
             courtDAO.update(court);
 
-            List<Reservation> reservations = reservationDAO.findAllByCourtNumber(court.getCourtNumber());
-
-            if (!reservations.isEmpty()) {
-                reservations.stream()
-                        .forEach(reservation -> {
-                            reservation.setDeleted(true);
-                            reservationDAO.update(reservation);
-                        });
-            }
+            reservationDAO.softDeleteAllByCourtId(court.getId());
+            reservationSlotDAO.releaseByCourtId(court.getId());
+            int courtNumber = court.getCourtNumber();
+            afterCommit(() -> reservationIndex.removeCourt(courtNumber));
+            afterCommit(() -> catalogCache.evictCourt(id, courtNumber));
+            collectionVersions.courtsChanged();
+            collectionVersions.allReservationsChanged();
         } else {
             throw new CourtNotFoundException("Delete failed: Court with ID " + id + " not found.");
         }
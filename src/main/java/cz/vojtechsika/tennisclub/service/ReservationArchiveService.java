@@ -0,0 +1,17 @@
+package cz.vojtechsika.tennisclub.service;
+
+/**
+ * ReservationArchiveService defines the archival of past reservations. Reservations that started more than the
+ * archive horizon ago are moved from the live table to {@code reservation_archive}, so the live table and its
+ * indexes only hold the recent and upcoming reservations the bookings work with.
+ */
+public interface ReservationArchiveService {
+
+    /**
+     * Moves all reservations that started before the archive horizon to the archive, in chunks each committed
+     * in its own transaction.
+     *
+     * @return The number of moved reservations.
+     */
+    int archivePastReservations();
+}
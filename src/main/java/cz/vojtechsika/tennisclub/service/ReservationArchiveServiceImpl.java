@@ -0,0 +1,111 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dao.ReservationArchiveDAO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ReservationArchiveServiceImpl is the scheduled implementation of {@link ReservationArchiveService}.
+ * <p>
+ * The archival runs by the cron expression {@code app.reservation.archive.cron} (at 3:30 every night by default,
+ * {@code -} turns it off) and moves the reservations that started before midnight {@code app.reservation.archive.horizon-days}
+ * days ago. Each chunk of {@code app.reservation.archive.chunk-size} reservations is moved and committed in its own
+ * transaction, so the rows of the live table are locked only briefly and a failed run keeps what it has moved.
+ * </p>
+ * <p>
+ * The archived reservations are in the past, so neither the in-memory index nor the version stamps of the lists
+ * change: the lists read both tables and look the same before and after the move. The number of moved reservations
+ * is published as {@code reservation.archive.moved}.
+ * </p>
+ */
+@Service
+public class ReservationArchiveServiceImpl implements ReservationArchiveService {
+
+    /**
+     * DAO moving the reservations to the archive.
+     */
+    private final ReservationArchiveDAO reservationArchiveDAO;
+
+    /**
+     * Template running each chunk in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Number of days before today a reservation must have started on to be archived.
+     */
+    private final int horizonDays;
+
+    /**
+     * Maximum number of reservations moved in one transaction.
+     */
+    private final int chunkSize;
+
+    /**
+     * Number of reservations moved to the archive.
+     */
+    private final Counter movedCounter;
+
+
+    /**
+     * Constructs a new ReservationArchiveServiceImpl.
+     *
+     * @param theReservationArchiveDAO   DAO moving the reservations to the archive.
+     * @param theTransactionManager      The transaction manager each chunk is committed by.
+     * @param theHorizonDays             The archive horizon in days ({@code app.reservation.archive.horizon-days}).
+     * @param theChunkSize               The number of reservations moved per transaction
+     *                                   ({@code app.reservation.archive.chunk-size}).
+     * @param theMeterRegistry           The registry to publish the archive metrics to.
+     */
+    @Autowired
+    public ReservationArchiveServiceImpl(ReservationArchiveDAO theReservationArchiveDAO,
+                                         PlatformTransactionManager theTransactionManager,
+                                         @Value("${app.reservation.archive.horizon-days:90}") int theHorizonDays,
+                                         @Value("${app.reservation.archive.chunk-size:500}") int theChunkSize,
+                                         MeterRegistry theMeterRegistry) {
+        if (theHorizonDays < 0) {
+            throw new IllegalArgumentException("Archive horizon must not be negative, got " + theHorizonDays);
+        }
+        if (theChunkSize <= 0) {
+            throw new IllegalArgumentException("Archive chunk size must be positive, got " + theChunkSize);
+        }
+        reservationArchiveDAO = theReservationArchiveDAO;
+        transactionTemplate = new TransactionTemplate(theTransactionManager);
+        horizonDays = theHorizonDays;
+        chunkSize = theChunkSize;
+        movedCounter = Counter.builder("reservation.archive.moved")
+                .description("Reservations moved from the live table to the archive")
+                .register(theMeterRegistry);
+    }
+
+
+    /**
+     * Moves the reservations that started before midnight of the horizon day chunk by chunk, until a chunk comes
+     * back smaller than the chunk size.
+     *
+     * @return The number of moved reservations.
+     */
+    @Scheduled(cron = "${app.reservation.archive.cron:0 30 3 * * *}")
+    @Override
+    public int archivePastReservations() {
+        LocalDateTime before = LocalDate.now().minusDays(horizonDays).atStartOfDay();
+        int moved = 0;
+        List<Long> chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> reservationArchiveDAO.moveStartedBefore(before, chunkSize));
+            moved += chunk.size();
+            movedCounter.increment(chunk.size());
+        } while (chunk.size() == chunkSize);
+        return moved;
+    }
+}
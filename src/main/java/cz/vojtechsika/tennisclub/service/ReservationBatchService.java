@@ -0,0 +1,25 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dto.ReservationBatchDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationBatchResponseDTO;
+
+/**
+ * ReservationBatchService defines the business operation for creating many reservations with one request.
+ * <p>
+ * The whole batch is validated in memory, against each other and against the existing reservations of the
+ * affected court-days, and stored in a single transaction. Depending on the {@link cz.vojtechsika.tennisclub.enums.BatchMode},
+ * an invalid item either cancels the whole batch or is just reported back.</p>
+ */
+public interface ReservationBatchService {
+
+    /**
+     * Validates and creates all reservations of the given batch.
+     *
+     * @param reservationBatchDTO The batch containing the mode and the reservations to be created.
+     * @return A {@link ReservationBatchResponseDTO} with the outcome of every item in request order.
+     * @throws cz.vojtechsika.tennisclub.exception.InvalidBatchException          if the batch is empty or too large.
+     * @throws cz.vojtechsika.tennisclub.exception.ReservationValidationException if a concurrent booking took
+     *                                                                            a validated slot before the batch was stored.
+     */
+    ReservationBatchResponseDTO createReservations(ReservationBatchDTO reservationBatchDTO);
+}
@@ -0,0 +1,412 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.cache.CollectionVersions;
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationBatchDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSlotDAO;
+import cz.vojtechsika.tennisclub.dto.ReservationBatchDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.mapper.ReservationMapper;
+import cz.vojtechsika.tennisclub.dto.mapper.UserMapper;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.dto.response.ReservationBatchItemResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationBatchResponseDTO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.User;
+import cz.vojtechsika.tennisclub.enums.BatchItemStatus;
+import cz.vojtechsika.tennisclub.enums.BatchMode;
+import cz.vojtechsika.tennisclub.enums.RejectionReason;
+import cz.vojtechsika.tennisclub.exception.InvalidBatchException;
+import cz.vojtechsika.tennisclub.exception.ReservationValidationException;
+import cz.vojtechsika.tennisclub.index.CourtDayKey;
+import cz.vojtechsika.tennisclub.index.CourtDayScheduleLoader;
+import cz.vojtechsika.tennisclub.index.CourtDaySchedule;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import cz.vojtechsika.tennisclub.lock.ReservationLockManager;
+import cz.vojtechsika.tennisclub.metrics.BookingMetrics;
+import cz.vojtechsika.tennisclub.tariff.TariffEngine;
+import cz.vojtechsika.tennisclub.util.ReservationRules;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static cz.vojtechsika.tennisclub.util.TransactionCallbacks.afterCommit;
+
+/**
+ * ReservationBatchServiceImpl is the service implementation for creating many {@link Reservation} entities at once.
+ * <p>
+ * Instead of running the single-reservation workflow once per item, the batch is processed in a few set-based steps:
+ * </p>
+ * <ol>
+ *   <li>every item is checked against the time rules of {@link ReservationRules};</li>
+ *   <li>all referenced courts are loaded with one query and all affected court-days are locked through the
+ *       {@link ReservationLockManager};</li>
+ *   <li>the schedules of the affected court-days are taken from the warm {@link ReservationIndex}, or loaded with
+ *       one query otherwise, through the {@link CourtDayScheduleLoader};</li>
+ *   <li>items are checked against those schedules in request order; every accepted item is added to its schedule,
+ *       so later items of the batch cannot overlap it;</li>
+ *   <li>users are inserted or renamed through the {@link UserResolver} with one JDBC batch of {@code MERGE}
+ *       statements, which cannot fail on a user created concurrently, and the reservations and slot claims are written with one JDBC batch each through
+ *       {@link ReservationBatchDAO} and {@link ReservationSlotDAO}.</li>
+ * </ol>
+ * <p>
+ * In {@link BatchMode#ALL_OR_NOTHING} mode nothing is written when any item is rejected; in
+ * {@link BatchMode#BEST_EFFORT} mode the valid items are stored and the rejected ones are reported back.
+ * </p>
+ */
+@Service
+public class ReservationBatchServiceImpl implements ReservationBatchService {
+
+    /**
+     * DAO for court persistence operations.
+     */
+    private final CourtDAO courtDAO;
+
+    /**
+     * Loader of the schedules of the affected court-days.
+     */
+    private final CourtDayScheduleLoader courtDayScheduleLoader;
+
+    /**
+     * DAO writing users and reservations in JDBC batches.
+     */
+    private final ReservationBatchDAO reservationBatchDAO;
+
+    /**
+     * DAO for the per-minute slot claims of reservations.
+     */
+    private final ReservationSlotDAO reservationSlotDAO;
+
+    /**
+     * Mapper to convert between {@link ReservationDTO} and {@link Reservation}.
+     */
+    private final ReservationMapper reservationMapper;
+
+    /**
+     * Mapper to convert from {@link ReservationDTO} to {@link User}.
+     */
+    private final UserMapper userMapper;
+
+    /**
+     * Resolver creating, renaming or reactivating the users of the bookings.
+     */
+    private final UserResolver userResolver;
+
+    /**
+     * In-memory index of active reservations used for overlap checks.
+     */
+    private final ReservationIndex reservationIndex;
+
+    /**
+     * Lock manager serializing changes of the same court and day.
+     */
+    private final ReservationLockManager reservationLockManager;
+
+    /**
+     * Engine computing the price of a reservation.
+     */
+    private final TariffEngine tariffEngine;
+
+    /**
+     * Version stamps of the reservation lists by phone number.
+     */
+    private final CollectionVersions collectionVersions;
+
+    /**
+     * Counters of the committed and rejected bookings.
+     */
+    private final BookingMetrics bookingMetrics;
+
+    /**
+     * Maximum number of reservations accepted in one batch.
+     */
+    private final int maxSize;
+
+
+    /**
+     * Constructs a new ReservationBatchServiceImpl with required dependencies.
+     *
+     * @param theCourtDAO               DAO for court persistence operations.
+     * @param theCourtDayScheduleLoader Loader of the schedules of the affected court-days.
+     * @param theReservationBatchDAO    DAO writing users and reservations in JDBC batches.
+     * @param theReservationSlotDAO     DAO for the per-minute slot claims of reservations.
+     * @param theReservationMapper      Mapper to convert between {@link ReservationDTO} and {@link Reservation}.
+     * @param theUserMapper             Mapper to convert from {@link ReservationDTO} to {@link User}.
+     * @param theUserResolver           Resolver creating, renaming or reactivating the users of the bookings.
+     * @param theReservationIndex       In-memory index of active reservations used for overlap checks.
+     * @param theReservationLockManager Lock manager serializing changes of the same court and day.
+     * @param theTariffEngine           Engine computing the price of a reservation.
+     * @param theCollectionVersions     Version stamps of the reservation lists by phone number.
+     * @param theBookingMetrics         Counters of the committed and rejected bookings.
+     * @param theMaxSize                Maximum number of reservations accepted in one batch.
+     */
+    @Autowired
+    public ReservationBatchServiceImpl(CourtDAO theCourtDAO,
+                                       CourtDayScheduleLoader theCourtDayScheduleLoader,
+                                       ReservationBatchDAO theReservationBatchDAO,
+                                       ReservationSlotDAO theReservationSlotDAO,
+                                       ReservationMapper theReservationMapper,
+                                       UserMapper theUserMapper,
+                                       UserResolver theUserResolver,
+                                       ReservationIndex theReservationIndex,
+                                       ReservationLockManager theReservationLockManager,
+                                       TariffEngine theTariffEngine,
+                                       CollectionVersions theCollectionVersions,
+                                       BookingMetrics theBookingMetrics,
+                                       @Value("${app.reservation.batch.max-size:1000}") int theMaxSize) {
+        courtDAO = theCourtDAO;
+        courtDayScheduleLoader = theCourtDayScheduleLoader;
+        reservationBatchDAO = theReservationBatchDAO;
+        reservationSlotDAO = theReservationSlotDAO;
+        reservationMapper = theReservationMapper;
+        userMapper = theUserMapper;
+        userResolver = theUserResolver;
+        reservationIndex = theReservationIndex;
+        reservationLockManager = theReservationLockManager;
+        tariffEngine = theTariffEngine;
+        collectionVersions = theCollectionVersions;
+        bookingMetrics = theBookingMetrics;
+        maxSize = theMaxSize;
+    }
+
+
+    /**
+     * Validates and creates all reservations of the given batch in a single transaction.
+     * <p>
+     * The time rules are checked first; the court-days of the items keeping to them are then locked before the
+     * transaction starts, so a batch waiting for another booking does not hold a database connection.
+     *
+     * @param reservationBatchDTO The batch containing the mode and the reservations to be created.
+     * @return A {@link ReservationBatchResponseDTO} with the outcome of every item in request order.
+     * @throws InvalidBatchException          if the batch is empty or larger than the configured maximum.
+     * @throws ReservationValidationException if a concurrent booking on another instance claimed a validated slot.
+     */
+    @Override
+    public ReservationBatchResponseDTO createReservations(ReservationBatchDTO reservationBatchDTO) {
+        List<ReservationDTO> items = reservationBatchDTO.getReservations();
+        if (items == null || items.isEmpty()) {
+            throw new InvalidBatchException("Reservation batch must contain at least one reservation");
+        }
+        if (items.size() > maxSize) {
+            throw new InvalidBatchException("Reservation batch contains " + items.size()
+                    + " reservations, the maximum is " + maxSize);
+        }
+        BatchMode mode = reservationBatchDTO.getMode() == null ? BatchMode.ALL_OR_NOTHING : reservationBatchDTO.getMode();
+
+        ReservationBatchItemResponseDTO[] results = new ReservationBatchItemResponseDTO[items.size()];
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < items.size(); i++) {
+            String reason = timeRuleViolation(items.get(i), now);
+            if (reason != null) {
+                results[i] = rejected(i, reason);
+            }
+        }
+
+        return reservationLockManager.callInTransaction(remainingKeys(items, results),
+                () -> create(mode, items, results));
+    }
+
+
+    // Creates the items that keep to the time rules; runs in the transaction started once their court-days are
+    // locked, so a batch waiting for another booking does not hold a database connection
+    private ReservationBatchResponseDTO create(BatchMode mode, List<ReservationDTO> items,
+                                               ReservationBatchItemResponseDTO[] results) {
+        Map<Integer, Court> courts = loadCourts(items, results);
+        Set<CourtDayKey> keys = remainingKeys(items, results);
+
+        Map<CourtDayKey, CourtDaySchedule> schedules = courtDayScheduleLoader.load(keys);
+        if (reservationIndex.isWarm()) {
+            schedules.putAll(courtDayScheduleLoader.reload(occupiedKeys(items, results, schedules)));
+        }
+        List<Integer> accepted = acceptNonOverlapping(items, results, schedules);
+
+        boolean anyRejected = accepted.size() < items.size();
+        if (mode == BatchMode.ALL_OR_NOTHING && anyRejected) {
+            for (int i : accepted) {
+                results[i] = new ReservationBatchItemResponseDTO(i, BatchItemStatus.SKIPPED,
+                        "Not created because another reservation of the batch was rejected", null);
+            }
+            return toResponse(mode, results);
+        }
+
+        List<Reservation> reservations = store(items, accepted, courts);
+        for (int n = 0; n < accepted.size(); n++) {
+            int i = accepted.get(n);
+            results[i] = new ReservationBatchItemResponseDTO(i, BatchItemStatus.CREATED, null,
+                    reservationMapper.toReservationResponseDTO(reservations.get(n)));
+        }
+        return toResponse(mode, results);
+    }
+
+
+    // The following private helper methods encapsulate the individual steps of the batch:
+
+
+    // Returns why the item breaks the reservation time rules, or null if it does not; the broken rule is counted
+    private String timeRuleViolation(ReservationDTO item, LocalDateTime now) {
+        if (item == null || item.getStartTime() == null || item.getEndTime() == null || item.getGameType() == null
+                || item.getPhoneNumber() == null || item.getUserName() == null) {
+            return "Reservation must contain user name, phone number, start time, end time and game type";
+        }
+        if (!ReservationRules.isInFuture(item.getStartTime(), now)) {
+            bookingMetrics.rejected(RejectionReason.PAST_START_TIME);
+            return "Reservation must start in the future";
+        }
+        if (!ReservationRules.hasAllowedDuration(item.getStartTime(), item.getEndTime())) {
+            bookingMetrics.rejected(RejectionReason.OVER_DURATION_LIMIT);
+            return "Reservation must last at most " + ReservationRules.MAX_DURATION_MINUTES + " minutes";
+        }
+        if (!ReservationRules.isWithinOpeningHours(item.getStartTime(), item.getEndTime())) {
+            bookingMetrics.rejected(RejectionReason.OUTSIDE_OPENING_HOURS);
+            return "Reservation must be within opening hours of one day";
+        }
+        return null;
+    }
+
+    // The court-days of the items not rejected yet
+    private Set<CourtDayKey> remainingKeys(List<ReservationDTO> items, ReservationBatchItemResponseDTO[] results) {
+        Set<CourtDayKey> keys = new LinkedHashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] == null) {
+                keys.add(keyOf(items.get(i)));
+            }
+        }
+        return keys;
+    }
+
+    // Loads all courts referenced by valid items with one query and rejects items with an unknown court
+    private Map<Integer, Court> loadCourts(List<ReservationDTO> items, ReservationBatchItemResponseDTO[] results) {
+        Set<Integer> courtNumbers = new LinkedHashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] == null) {
+                courtNumbers.add(items.get(i).getCourtNumber());
+            }
+        }
+        Map<Integer, Court> courts = courtDAO.findAllByCourtNumbers(courtNumbers).stream()
+                .collect(Collectors.toMap(Court::getCourtNumber, Function.identity()));
+
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] == null && !courts.containsKey(items.get(i).getCourtNumber())) {
+                results[i] = rejected(i, "Court number " + items.get(i).getCourtNumber() + " not found in database");
+            }
+        }
+        return courts;
+    }
+
+    // The court-days where a remaining item overlaps an indexed reservation; the overlap is confirmed against
+    // the database, as another instance may have cancelled or moved the reservation
+    private Set<CourtDayKey> occupiedKeys(List<ReservationDTO> items, ReservationBatchItemResponseDTO[] results,
+                                          Map<CourtDayKey, CourtDaySchedule> schedules) {
+        Set<CourtDayKey> occupied = new LinkedHashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            ReservationDTO item = items.get(i);
+            if (results[i] == null && schedules.getOrDefault(keyOf(item), CourtDaySchedule.EMPTY)
+                    .overlaps(minuteOfDay(item.getStartTime()), minuteOfDay(item.getEndTime()), null)) {
+                occupied.add(keyOf(item));
+            }
+        }
+        return occupied;
+    }
+
+    // Checks the remaining items in request order; accepted items are added to their schedule under a negative ID
+    private List<Integer> acceptNonOverlapping(List<ReservationDTO> items, ReservationBatchItemResponseDTO[] results,
+                                               Map<CourtDayKey, CourtDaySchedule> schedules) {
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            ReservationDTO item = items.get(i);
+            CourtDayKey key = keyOf(item);
+            CourtDaySchedule schedule = schedules.getOrDefault(key, CourtDaySchedule.EMPTY);
+            int start = minuteOfDay(item.getStartTime());
+            int end = minuteOfDay(item.getEndTime());
+
+            if (schedule.overlaps(start, end, null)) {
+                bookingMetrics.rejected(RejectionReason.OVERLAP);
+                results[i] = rejected(i, "Court " + item.getCourtNumber() + " is already reserved in the provided time range");
+            } else {
+                schedules.put(key, schedule.with(-(i + 1L), start, end));
+                accepted.add(i);
+            }
+        }
+        return accepted;
+    }
+
+    // Upserts the users and writes the reservations and slot claims of the accepted items
+    private List<Reservation> store(List<ReservationDTO> items, List<Integer> accepted, Map<Integer, Court> courts) {
+        // One user per phone number; a phone number booked under several names gets the last one, as if the items
+        // were stored one by one
+        Map<String, User> users = new LinkedHashMap<>();
+        for (int i : accepted) {
+            users.put(items.get(i).getPhoneNumber(), userMapper.mapFromReservationDTO(items.get(i)));
+        }
+        userResolver.resolveAll(new ArrayList<>(users.values()));
+
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i : accepted) {
+            ReservationDTO item = items.get(i);
+            Court court = courts.get(item.getCourtNumber());
+            Reservation reservation = reservationMapper.toReservationEntity(item);
+            reservation.setUser(users.get(item.getPhoneNumber()));
+            reservation.setCourt(court);
+            reservation.setPrice(tariffEngine.price(court.getSurfaceType(),
+                    item.getStartTime(), item.getEndTime(), item.getGameType()));
+            reservations.add(reservation);
+        }
+
+        try {
+            reservationBatchDAO.insertReservations(reservations);
+            reservationSlotDAO.claimAll(reservations);
+        } catch (DuplicateKeyException e) {
+            bookingMetrics.rejected(RejectionReason.OVERLAP);
+            throw new ReservationValidationException("Some of the reservations were booked concurrently by another "
+                    + "request, please resubmit the batch");
+        }
+
+        for (Reservation reservation : reservations) {
+            ReservationInterval interval = new ReservationInterval(reservation.getId(),
+                    reservation.getCourt().getCourtNumber(), reservation.getStartTime(), reservation.getEndTime());
+            afterCommit(() -> reservationIndex.put(interval));
+        }
+        collectionVersions.reservationsChanged(users.keySet().toArray(String[]::new));
+        afterCommit(() -> bookingMetrics.created(reservations.size()));
+        return reservations;
+    }
+
+    // Builds the summary of the batch
+    private ReservationBatchResponseDTO toResponse(BatchMode mode, ReservationBatchItemResponseDTO[] results) {
+        List<ReservationBatchItemResponseDTO> list = List.of(results);
+        int created = (int) list.stream().filter(result -> result.getStatus() == BatchItemStatus.CREATED).count();
+        int rejected = (int) list.stream().filter(result -> result.getStatus() == BatchItemStatus.REJECTED).count();
+        return new ReservationBatchResponseDTO(mode, created, rejected, list);
+    }
+
+    // Creates the result of a rejected item
+    private ReservationBatchItemResponseDTO rejected(int index, String message) {
+        return new ReservationBatchItemResponseDTO(index, BatchItemStatus.REJECTED, message, null);
+    }
+
+    // The court-day an item belongs to
+    private CourtDayKey keyOf(ReservationDTO item) {
+        return new CourtDayKey(item.getCourtNumber(), item.getStartTime().toLocalDate());
+    }
+
+    // Minute of the day of the given time
+    private int minuteOfDay(LocalDateTime time) {
+        return (int) Duration.between(time.toLocalDate().atStartOfDay(), time).toMinutes();
+    }
+}
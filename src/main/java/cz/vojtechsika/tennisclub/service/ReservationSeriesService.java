@@ -0,0 +1,61 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesMoveDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationSeriesResponseDTO;
+
+/**
+ * ReservationSeriesService defines the business operations for recurring reservation series.
+ * <p>
+ * A series is expanded into its occurrences on the server. All occurrences are checked against the existing
+ * reservations at once and stored as ordinary reservations linked to the series, so the whole series can later
+ * be moved or cancelled with single bulk statements. Occurrences that already took place are never changed.</p>
+ */
+public interface ReservationSeriesService {
+
+    /**
+     * Expands the series into its occurrences and creates all of them, or none if any occurrence is invalid
+     * or overlaps an existing reservation.
+     *
+     * @param reservationSeriesDTO The series to be created.
+     * @return A {@link ReservationSeriesResponseDTO} with the created occurrences.
+     * @throws cz.vojtechsika.tennisclub.exception.InvalidSeriesException         if the series cannot be expanded.
+     * @throws cz.vojtechsika.tennisclub.exception.ReservationValidationException if an occurrence breaks the
+     *                                                                            reservation rules or overlaps.
+     * @throws cz.vojtechsika.tennisclub.exception.CourtNotFoundException         if the court does not exist.
+     */
+    ReservationSeriesResponseDTO createSeries(ReservationSeriesDTO reservationSeriesDTO);
+
+
+    /**
+     * Retrieves a series with all its active occurrences.
+     *
+     * @param id The ID of the series.
+     * @return A {@link ReservationSeriesResponseDTO} with the active occurrences ordered by start time.
+     * @throws cz.vojtechsika.tennisclub.exception.ReservationNotFoundException if no active series with the ID exists.
+     */
+    ReservationSeriesResponseDTO getSeriesById(Long id);
+
+
+    /**
+     * Moves all upcoming occurrences of a series by the same amount of time.
+     *
+     * @param id                       The ID of the series.
+     * @param reservationSeriesMoveDTO The amount of time the occurrences are moved by.
+     * @return A {@link ReservationSeriesResponseDTO} with the active occurrences after the move.
+     * @throws cz.vojtechsika.tennisclub.exception.ReservationNotFoundException   if no active series with the ID exists.
+     * @throws cz.vojtechsika.tennisclub.exception.ReservationValidationException if a moved occurrence breaks the
+     *                                                                            reservation rules or overlaps.
+     */
+    ReservationSeriesResponseDTO moveSeries(Long id, ReservationSeriesMoveDTO reservationSeriesMoveDTO);
+
+
+    /**
+     * Cancels a series: all its upcoming occurrences are deleted and the series is marked as deleted.
+     *
+     * @param id The ID of the series.
+     * @return The number of deleted upcoming reservations.
+     * @throws cz.vojtechsika.tennisclub.exception.ReservationNotFoundException if no active series with the ID exists.
+     */
+    int cancelSeries(Long id);
+}
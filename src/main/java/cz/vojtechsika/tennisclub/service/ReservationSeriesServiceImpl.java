@@ -0,0 +1,569 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.cache.CollectionVersions;
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationBatchDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSeriesDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSlotDAO;
+import cz.vojtechsika.tennisclub.dao.UserDAO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesMoveDTO;
+import cz.vojtechsika.tennisclub.dto.mapper.ReservationMapper;
+import cz.vojtechsika.tennisclub.dto.mapper.ReservationSeriesMapper;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.dto.projection.UserIdentity;
+import cz.vojtechsika.tennisclub.dto.response.ReservationSeriesResponseDTO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.ReservationSeries;
+import cz.vojtechsika.tennisclub.enums.RejectionReason;
+import cz.vojtechsika.tennisclub.exception.CourtNotFoundException;
+import cz.vojtechsika.tennisclub.exception.InvalidSeriesException;
+import cz.vojtechsika.tennisclub.exception.ReservationNotFoundException;
+import cz.vojtechsika.tennisclub.exception.ReservationValidationException;
+import cz.vojtechsika.tennisclub.index.CourtDayKey;
+import cz.vojtechsika.tennisclub.index.CourtDaySchedule;
+import cz.vojtechsika.tennisclub.index.CourtDayScheduleLoader;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import cz.vojtechsika.tennisclub.lock.ReservationLockManager;
+import cz.vojtechsika.tennisclub.metrics.BookingMetrics;
+import cz.vojtechsika.tennisclub.tariff.TariffEngine;
+import cz.vojtechsika.tennisclub.util.ReservationRules;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static cz.vojtechsika.tennisclub.util.TransactionCallbacks.afterCommit;
+
+/**
+ * ReservationSeriesServiceImpl is the service implementation for recurring {@link ReservationSeries}.
+ * <p>
+ * Creating a series expands it into its occurrences, locks all affected court-days and checks every occurrence
+ * against the schedules provided by the {@link CourtDayScheduleLoader}, i.e., the warm index or one range query
+ * for the court instead of one query per date. The occurrences are written with one JDBC batch through
+ * {@link ReservationBatchDAO} and linked to the series.
+ * </p>
+ * <p>
+ * Moving or cancelling a series changes all its upcoming occurrences with one bulk statement; the slot claims
+ * and the in-memory index are updated accordingly, each occurrence on its own court. Occurrences that already
+ * started are left untouched.
+ * </p>
+ */
+@Service
+public class ReservationSeriesServiceImpl implements ReservationSeriesService {
+
+    /**
+     * DAO for court persistence operations.
+     */
+    private final CourtDAO courtDAO;
+
+    /**
+     * DAO for user persistence operations.
+     */
+    private final UserDAO userDAO;
+
+    /**
+     * DAO for reservation persistence operations.
+     */
+    private final ReservationDAO reservationDAO;
+
+    /**
+     * DAO for series persistence operations.
+     */
+    private final ReservationSeriesDAO reservationSeriesDAO;
+
+    /**
+     * DAO writing reservations in JDBC batches.
+     */
+    private final ReservationBatchDAO reservationBatchDAO;
+
+    /**
+     * DAO for the per-minute slot claims of reservations.
+     */
+    private final ReservationSlotDAO reservationSlotDAO;
+
+    /**
+     * Mapper to convert between {@link ReservationDTO} and {@link Reservation}.
+     */
+    private final ReservationMapper reservationMapper;
+
+    /**
+     * Resolver creating, renaming or reactivating the users of the bookings.
+     */
+    private final UserResolver userResolver;
+
+    /**
+     * Mapper to convert between {@link ReservationSeriesDTO} and {@link ReservationSeries}.
+     */
+    private final ReservationSeriesMapper reservationSeriesMapper;
+
+    /**
+     * In-memory index of active reservations, updated after each committed change.
+     */
+    private final ReservationIndex reservationIndex;
+
+    /**
+     * Lock manager serializing changes of the same court and day.
+     */
+    private final ReservationLockManager reservationLockManager;
+
+    /**
+     * Engine computing the price of a reservation.
+     */
+    private final TariffEngine tariffEngine;
+
+    /**
+     * Version stamps of the reservation lists by phone number.
+     */
+    private final CollectionVersions collectionVersions;
+
+    /**
+     * Loader of the schedules of the affected court-days.
+     */
+    private final CourtDayScheduleLoader courtDayScheduleLoader;
+
+    /**
+     * Counters of the committed and rejected bookings.
+     */
+    private final BookingMetrics bookingMetrics;
+
+    /**
+     * Maximum number of occurrences of one series.
+     */
+    private final int maxOccurrences;
+
+
+    /**
+     * Constructs a new ReservationSeriesServiceImpl with required dependencies.
+     *
+     * @param theCourtDAO               DAO for court persistence operations.
+     * @param theUserDAO                DAO for user persistence operations.
+     * @param theReservationDAO         DAO for reservation persistence operations.
+     * @param theReservationSeriesDAO   DAO for series persistence operations.
+     * @param theReservationBatchDAO    DAO writing reservations in JDBC batches.
+     * @param theReservationSlotDAO     DAO for the per-minute slot claims of reservations.
+     * @param theReservationMapper      Mapper to convert between {@link ReservationDTO} and {@link Reservation}.
+     * @param theUserResolver           Resolver creating, renaming or reactivating the users of the bookings.
+     * @param theReservationSeriesMapper Mapper to convert between {@link ReservationSeriesDTO} and {@link ReservationSeries}.
+     * @param theReservationIndex       In-memory index of active reservations.
+     * @param theReservationLockManager Lock manager serializing changes of the same court and day.
+     * @param theTariffEngine           Engine computing the price of a reservation.
+     * @param theCollectionVersions     Version stamps of the reservation lists by phone number.
+     * @param theCourtDayScheduleLoader Loader of the schedules of the affected court-days.
+     * @param theBookingMetrics         Counters of the committed and rejected bookings.
+     * @param theMaxOccurrences         Maximum number of occurrences of one series.
+     */
+    @Autowired
+    public ReservationSeriesServiceImpl(CourtDAO theCourtDAO,
+                                        UserDAO theUserDAO,
+                                        ReservationDAO theReservationDAO,
+                                        ReservationSeriesDAO theReservationSeriesDAO,
+                                        ReservationBatchDAO theReservationBatchDAO,
+                                        ReservationSlotDAO theReservationSlotDAO,
+                                        ReservationMapper theReservationMapper,
+                                        UserResolver theUserResolver,
+                                        ReservationSeriesMapper theReservationSeriesMapper,
+                                        ReservationIndex theReservationIndex,
+                                        ReservationLockManager theReservationLockManager,
+                                        TariffEngine theTariffEngine,
+                                        CollectionVersions theCollectionVersions,
+                                        CourtDayScheduleLoader theCourtDayScheduleLoader,
+                                        BookingMetrics theBookingMetrics,
+                                        @Value("${app.reservation.series.max-occurrences:104}") int theMaxOccurrences) {
+        courtDAO = theCourtDAO;
+        userDAO = theUserDAO;
+        reservationDAO = theReservationDAO;
+        reservationSeriesDAO = theReservationSeriesDAO;
+        reservationBatchDAO = theReservationBatchDAO;
+        reservationSlotDAO = theReservationSlotDAO;
+        reservationMapper = theReservationMapper;
+        userResolver = theUserResolver;
+        reservationSeriesMapper = theReservationSeriesMapper;
+        reservationIndex = theReservationIndex;
+        reservationLockManager = theReservationLockManager;
+        tariffEngine = theTariffEngine;
+        collectionVersions = theCollectionVersions;
+        courtDayScheduleLoader = theCourtDayScheduleLoader;
+        bookingMetrics = theBookingMetrics;
+        maxOccurrences = theMaxOccurrences;
+    }
+
+
+    /**
+     * Expands the series into its occurrences, checks all of them at once and stores them in one batch.
+     * <p>
+     * The court-days of the occurrences are locked before the transaction starts, so a series waiting for another
+     * booking does not hold a database connection.
+     *
+     * @param reservationSeriesDTO The series to be created.
+     * @return A {@link ReservationSeriesResponseDTO} with the created occurrences.
+     * @throws InvalidSeriesException         if the series has no recurrence, no end or too many occurrences.
+     * @throws ReservationValidationException if an occurrence breaks the reservation rules or overlaps
+     *                                        an existing reservation.
+     * @throws CourtNotFoundException          if no court with the given court number exists.
+     */
+    @Override
+    public ReservationSeriesResponseDTO createSeries(ReservationSeriesDTO reservationSeriesDTO) {
+        List<LocalDateTime> starts = expand(reservationSeriesDTO);
+        Duration duration = Duration.between(reservationSeriesDTO.getStartTime(), reservationSeriesDTO.getEndTime());
+        int courtNumber = reservationSeriesDTO.getCourtNumber();
+
+        List<ReservationInterval> occurrences = new ArrayList<>();
+        for (LocalDateTime start : starts) {
+            occurrences.add(new ReservationInterval(null, courtNumber, start, start.plus(duration)));
+        }
+        validateRules(occurrences);
+
+        return reservationLockManager.callInTransaction(keysOf(occurrences),
+                () -> create(reservationSeriesDTO, occurrences));
+    }
+
+
+    // Stores the validated occurrences; runs in the transaction started once their court-days are locked
+    private ReservationSeriesResponseDTO create(ReservationSeriesDTO reservationSeriesDTO,
+                                                List<ReservationInterval> occurrences) {
+        int courtNumber = reservationSeriesDTO.getCourtNumber();
+        Court court = findCourtByCourtNumber(courtNumber);
+        rejectOverlaps(occurrences, Set.of());
+
+        ReservationDTO firstOccurrence = reservationSeriesMapper.toOccurrenceDTO(reservationSeriesDTO,
+                reservationSeriesDTO.getStartTime(), reservationSeriesDTO.getEndTime());
+        UserIdentity user = getOrCreateUser(firstOccurrence);
+
+        ReservationSeries series = reservationSeriesMapper.toSeriesEntity(reservationSeriesDTO);
+        series.setUser(userDAO.getReference(user.getId()));
+        series.setCourt(court);
+        reservationSeriesDAO.save(series);
+
+        // Each occurrence is priced on its own, as the tariff of its day may differ, e.g. on weekends
+        List<Reservation> reservations = new ArrayList<>();
+        for (ReservationInterval occurrence : occurrences) {
+            Reservation reservation = reservationMapper.toReservationEntity(reservationSeriesMapper.toOccurrenceDTO(
+                    reservationSeriesDTO, occurrence.getStartTime(), occurrence.getEndTime()));
+            reservation.setUser(series.getUser());
+            reservation.setCourt(court);
+            reservation.setSeries(series);
+            reservation.setPrice(tariffEngine.price(court.getSurfaceType(), occurrence.getStartTime(),
+                    occurrence.getEndTime(), reservationSeriesDTO.getGameType()));
+            reservations.add(reservation);
+        }
+
+        reservationBatchDAO.insertReservations(reservations);
+        try {
+            reservationSlotDAO.claimAll(reservations);
+        } catch (DuplicateKeyException e) {
+            throw concurrentlyReserved(courtNumber);
+        }
+
+        for (Reservation reservation : reservations) {
+            ReservationInterval interval = new ReservationInterval(reservation.getId(), courtNumber,
+                    reservation.getStartTime(), reservation.getEndTime());
+            afterCommit(() -> reservationIndex.put(interval));
+        }
+        afterCommit(() -> bookingMetrics.created(reservations.size()));
+        collectionVersions.reservationsChanged(user.getPhoneNumber());
+        return reservationSeriesMapper.toResponseDTO(series, user, reservations.stream()
+                .map(reservation -> reservationMapper.toReservationResponseDTO(reservation, courtNumber, user))
+                .toList());
+    }
+
+
+    /**
+     * Retrieves a series with all its active occurrences.
+     *
+     * @param id The ID of the series.
+     * @return A {@link ReservationSeriesResponseDTO} with the active occurrences ordered by start time.
+     * @throws ReservationNotFoundException if no active series with the given ID exists.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public ReservationSeriesResponseDTO getSeriesById(Long id) {
+        ReservationSeries series = findSeriesById(id);
+        return toResponse(series, reservationDAO.findAllBySeriesId(id));
+    }
+
+
+    /**
+     * Moves all upcoming occurrences of the series by the requested number of minutes with one bulk update.
+     * The moved occurrences are checked against the other reservations first; the series' own occurrences
+     * do not count as conflicts, so a series can be moved by less than its duration. Occurrences moved into
+     * other tariff hours or days are repriced.
+     *
+     * @param id                       The ID of the series.
+     * @param reservationSeriesMoveDTO The number of minutes the occurrences are moved by.
+     * @return A {@link ReservationSeriesResponseDTO} with the active occurrences after the move.
+     * @throws ReservationNotFoundException   if no active series with the given ID exists.
+     * @throws ReservationValidationException if the series has no upcoming occurrences, or a moved occurrence
+     *                                        breaks the reservation rules or overlaps another reservation.
+     */
+    @Transactional
+    @Override
+    public ReservationSeriesResponseDTO moveSeries(Long id, ReservationSeriesMoveDTO reservationSeriesMoveDTO) {
+        ReservationSeries series = findSeriesById(id);
+        LocalDateTime now = LocalDateTime.now();
+        Duration shift = Duration.ofMinutes(reservationSeriesMoveDTO.getShiftMinutes());
+
+        List<ReservationInterval> current = reservationDAO.findAllIntervalsBySeriesIdStartingFrom(id, now);
+        if (current.isEmpty()) {
+            throw new ReservationValidationException("Reservation series with id " + id
+                    + " has no upcoming reservations to move");
+        }
+        List<ReservationInterval> moved = current.stream()
+                .map(interval -> new ReservationInterval(interval.getId(), interval.getCourtNumber(),
+                        interval.getStartTime().plus(shift), interval.getEndTime().plus(shift)))
+                .toList();
+        validateRules(moved);
+
+        Set<CourtDayKey> keys = keysOf(current);
+        keys.addAll(keysOf(moved));
+        reservationLockManager.lockUntilCompletion(keys);
+        rejectOverlaps(moved, current.stream().map(ReservationInterval::getId).collect(Collectors.toSet()));
+
+        reservationSlotDAO.releaseBySeriesIdStartingFrom(id, now);
+        reservationDAO.shiftAllBySeriesIdStartingFrom(id, now, shift);
+        List<Reservation> reservations = reservationDAO.findAllBySeriesId(id);
+        Set<Long> movedIds = moved.stream().map(ReservationInterval::getId).collect(Collectors.toSet());
+        List<Reservation> movedReservations = reservations.stream()
+                .filter(reservation -> movedIds.contains(reservation.getId()))
+                .toList();
+        claimPerCourt(movedReservations);
+        reprice(movedReservations);
+
+        for (ReservationInterval interval : moved) {
+            afterCommit(() -> reservationIndex.put(interval));
+            afterCommit(bookingMetrics::updated);
+        }
+        String phoneNumber = series.getUser().getPhoneNumber();
+        collectionVersions.reservationsChanged(phoneNumber);
+        return toResponse(series, reservations);
+    }
+
+
+    /**
+     * Deletes all upcoming occurrences of the series with one bulk update and marks the series as deleted.
+     * Occurrences that already started are kept as history.
+     *
+     * @param id The ID of the series.
+     * @return The number of deleted upcoming reservations.
+     * @throws ReservationNotFoundException if no active series with the given ID exists.
+     */
+    @Transactional
+    @Override
+    public int cancelSeries(Long id) {
+        ReservationSeries series = findSeriesById(id);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<ReservationInterval> current = reservationDAO.findAllIntervalsBySeriesIdStartingFrom(id, now);
+        reservationLockManager.lockUntilCompletion(keysOf(current));
+
+        reservationSlotDAO.releaseBySeriesIdStartingFrom(id, now);
+        int deleted = reservationDAO.softDeleteAllBySeriesIdStartingFrom(id, now);
+        series.setDeleted(true);
+
+        for (ReservationInterval interval : current) {
+            afterCommit(() -> reservationIndex.remove(interval.getId()));
+            afterCommit(bookingMetrics::cancelled);
+        }
+        String phoneNumber = series.getUser().getPhoneNumber();
+        collectionVersions.reservationsChanged(phoneNumber);
+        return deleted;
+    }
+
+
+    // The following private helper methods encapsulate expansion, validation and lookup logic:
+
+
+    // Expands the series into the start times of its occurrences
+    private List<LocalDateTime> expand(ReservationSeriesDTO reservationSeriesDTO) {
+        if (reservationSeriesDTO.getStartTime() == null || reservationSeriesDTO.getEndTime() == null
+                || reservationSeriesDTO.getGameType() == null || reservationSeriesDTO.getPhoneNumber() == null
+                || reservationSeriesDTO.getUserName() == null || reservationSeriesDTO.getRecurrence() == null) {
+            throw new InvalidSeriesException("Reservation series must contain user name, phone number, start time, "
+                    + "end time, game type and recurrence");
+        }
+        if ((reservationSeriesDTO.getUntilDate() == null) == (reservationSeriesDTO.getOccurrences() == null)) {
+            throw new InvalidSeriesException("Reservation series must end either with until date or with "
+                    + "number of occurrences");
+        }
+
+        int requested = reservationSeriesDTO.getOccurrences() != null ? reservationSeriesDTO.getOccurrences() : Integer.MAX_VALUE;
+        LocalDate untilDate = reservationSeriesDTO.getUntilDate();
+        int weeks = reservationSeriesDTO.getRecurrence().getWeeks();
+
+        List<LocalDateTime> starts = new ArrayList<>();
+        LocalDateTime start = reservationSeriesDTO.getStartTime();
+        while (starts.size() < requested && (untilDate == null || !start.toLocalDate().isAfter(untilDate))) {
+            if (starts.size() == maxOccurrences) {
+                throw new InvalidSeriesException("Reservation series can contain at most " + maxOccurrences + " occurrences");
+            }
+            starts.add(start);
+            start = start.plusWeeks(weeks);
+        }
+        if (starts.isEmpty()) {
+            throw new InvalidSeriesException("Reservation series must contain at least one occurrence");
+        }
+        return starts;
+    }
+
+    // Checks every occurrence against the time rules shared with single reservations; a rejected series is counted
+    // once, under the first rule its first invalid occurrence breaks
+    private void validateRules(List<ReservationInterval> occurrences) {
+        LocalDateTime now = LocalDateTime.now();
+        for (ReservationInterval occurrence : occurrences) {
+            RejectionReason reason = timeRuleViolation(occurrence, now);
+            if (reason != null) {
+                bookingMetrics.rejected(reason);
+                throw new ReservationValidationException("Provided time range is invalid for the occurrence on "
+                        + occurrence.getStartTime().toLocalDate());
+            }
+        }
+    }
+
+    // Returns the first time rule the occurrence breaks, or null if it keeps all of them
+    private RejectionReason timeRuleViolation(ReservationInterval occurrence, LocalDateTime now) {
+        if (!ReservationRules.isInFuture(occurrence.getStartTime(), now)) {
+            return RejectionReason.PAST_START_TIME;
+        }
+        if (!ReservationRules.hasAllowedDuration(occurrence.getStartTime(), occurrence.getEndTime())) {
+            return RejectionReason.OVER_DURATION_LIMIT;
+        }
+        if (!ReservationRules.isWithinOpeningHours(occurrence.getStartTime(), occurrence.getEndTime())) {
+            return RejectionReason.OUTSIDE_OPENING_HOURS;
+        }
+        return null;
+    }
+
+    // Checks all occurrences against the loaded schedules, ignoring the reservations with the given IDs.
+    // The conflicts found in the index are confirmed against the database, as another instance may have freed them.
+    private void rejectOverlaps(List<ReservationInterval> occurrences, Set<Long> ownIds) {
+        List<ReservationInterval> conflicts = overlapping(occurrences, ownIds,
+                courtDayScheduleLoader.load(keysOf(occurrences)));
+        if (!conflicts.isEmpty() && reservationIndex.isWarm()) {
+            conflicts = overlapping(conflicts, ownIds, courtDayScheduleLoader.reload(keysOf(conflicts)));
+        }
+        if (!conflicts.isEmpty()) {
+            bookingMetrics.rejected(RejectionReason.OVERLAP);
+            throw new ReservationValidationException("Court " + occurrences.get(0).getCourtNumber()
+                    + " is already reserved in the provided time range on " + conflicts.stream()
+                    .map(conflict -> conflict.getStartTime().toLocalDate().toString())
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    // The occurrences overlapping a reservation in the schedules other than those with the given IDs
+    private List<ReservationInterval> overlapping(List<ReservationInterval> occurrences, Set<Long> ownIds,
+                                                  Map<CourtDayKey, CourtDaySchedule> schedules) {
+        List<ReservationInterval> conflicts = new ArrayList<>();
+        for (ReservationInterval occurrence : occurrences) {
+            CourtDaySchedule schedule = schedules.getOrDefault(keyOf(occurrence), CourtDaySchedule.EMPTY);
+            for (Long ownId : ownIds) {
+                schedule = schedule.without(ownId);
+            }
+            if (schedule.overlaps(minuteOfDay(occurrence.getStartTime()), minuteOfDay(occurrence.getEndTime()), null)) {
+                conflicts.add(occurrence);
+            }
+        }
+        return conflicts;
+    }
+
+    // Resolves the user of the series as for single reservations; the response is built from the returned identity,
+    // as the upsert bypasses the persistence context
+    private UserIdentity getOrCreateUser(ReservationDTO reservationDTO) {
+        return userResolver.resolve(reservationDTO.getPhoneNumber(), reservationDTO.getUserName());
+    }
+
+    // Claims the minutes of the reservations on their own courts; a single occurrence may have been moved to
+    // another court than the one of its series
+    private void claimPerCourt(List<Reservation> reservations) {
+        Map<Long, List<ReservationInterval>> intervalsByCourtId = new LinkedHashMap<>();
+        for (Reservation reservation : reservations) {
+            intervalsByCourtId.computeIfAbsent(reservation.getCourt().getId(), courtId -> new ArrayList<>())
+                    .add(new ReservationInterval(reservation.getId(), reservation.getCourt().getCourtNumber(),
+                            reservation.getStartTime(), reservation.getEndTime()));
+        }
+        intervalsByCourtId.forEach((courtId, intervals) -> {
+            try {
+                reservationSlotDAO.claimIntervals(courtId, intervals);
+            } catch (DuplicateKeyException e) {
+                throw concurrentlyReserved(intervals.get(0).getCourtNumber());
+            }
+        });
+    }
+
+    // Recomputes the prices of the moved reservations, which may have moved into other tariff hours or days,
+    // and writes the changed ones together
+    private void reprice(List<Reservation> reservations) {
+        List<Reservation> repriced = new ArrayList<>();
+        for (Reservation reservation : reservations) {
+            BigDecimal price = tariffEngine.price(reservation.getCourt().getSurfaceType(),
+                    reservation.getStartTime(), reservation.getEndTime(), reservation.getGameType());
+            if (price.compareTo(reservation.getPrice()) != 0) {
+                reservation.setPrice(price);
+                repriced.add(reservation);
+            }
+        }
+        if (!repriced.isEmpty()) {
+            reservationDAO.updateAll(repriced);
+        }
+    }
+
+    // Finds a court by its number in the database, not in the per-instance caches, or throws if not found
+    private Court findCourtByCourtNumber(int courtNumber) {
+        return courtDAO.findCurrentByCourtNumber(courtNumber).orElseThrow(() ->
+                new CourtNotFoundException("Court number " + courtNumber + " not found in database"));
+    }
+
+    // Finds an active series by its ID or throws if not found
+    private ReservationSeries findSeriesById(Long id) {
+        return reservationSeriesDAO.findById(id).orElseThrow(() ->
+                new ReservationNotFoundException("Reservation series with id " + id + " not found"));
+    }
+
+    // Error raised when another instance claimed a validated slot in the meantime; the rejection is counted
+    private ReservationValidationException concurrentlyReserved(int courtNumber) {
+        bookingMetrics.rejected(RejectionReason.OVERLAP);
+        return new ReservationValidationException("Court " + courtNumber
+                + " was reserved concurrently by another request, please try again");
+    }
+
+    // Builds the response of the series with the given occurrences
+    private ReservationSeriesResponseDTO toResponse(ReservationSeries series, List<Reservation> reservations) {
+        return reservationSeriesMapper.toResponseDTO(series, reservations.stream()
+                .map(reservationMapper::toReservationResponseDTO)
+                .toList());
+    }
+
+    // The court-days of the given intervals
+    private Set<CourtDayKey> keysOf(List<ReservationInterval> intervals) {
+        Set<CourtDayKey> keys = new LinkedHashSet<>();
+        intervals.forEach(interval -> keys.add(keyOf(interval)));
+        return keys;
+    }
+
+    // The court-day an interval belongs to
+    private CourtDayKey keyOf(ReservationInterval interval) {
+        return new CourtDayKey(interval.getCourtNumber(), interval.getStartTime().toLocalDate());
+    }
+
+    // Minute of the day of the given time
+    private int minuteOfDay(LocalDateTime time) {
+        return (int) Duration.between(time.toLocalDate().atStartOfDay(), time).toMinutes();
+    }
+}
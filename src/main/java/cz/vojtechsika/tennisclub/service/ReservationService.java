@@ -2,9 +2,12 @@ package cz.vojtechsika.tennisclub.service;
 
 
 import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationPageResponseDTO;
 import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.enums.ReservationFormat;
 
 import java.util.List;
+import java.util.function.Consumer;
 /**
  * ReservationService defines the business operations for managing {@link cz.vojtechsika.tennisclub.entity.Reservation} entities.
  * It provides methods to create, retrieve, update, and delete reservations, returning data transfer objects for API responses.
@@ -42,43 +45,86 @@ public interface ReservationService {
 
 
     /**
-     * Retrieves all reservations for a specific court number.
+     * Retrieves one page of the reservations for a specific court number.
      * <p>
-     * Returns a list of {@link ReservationResponseDTO} instances ordered by creation date descending.
+     * Reservations are ordered by start time and ID ascending. The page continues after the given cursor and
+     * carries the cursor of the next page when more reservations follow.
      * </p>
      *
      * @param courtNumber The court number to filter reservations by.
-     * @return A list of {@link ReservationResponseDTO} for the specified court.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations on the page.
+     * @param format The encoding of the reservations' dates and times.
+     * @return A {@link ReservationPageResponseDTO} with the reservations of the specified court.
      * @throws cz.vojtechsika.tennisclub.exception.ReservationNotFoundException if no reservations exist for the given court number.
+     * @throws cz.vojtechsika.tennisclub.exception.InvalidPageRequestException if the cursor or the limit is invalid.
      */
-    List<ReservationResponseDTO> getReservationByCourtNumber(int courtNumber);
+    ReservationPageResponseDTO getReservationByCourtNumber(int courtNumber, String cursor, int limit, ReservationFormat format);
 
 
     /**
-     * Retrieves all reservations made by a specific phone number.
+     * Retrieves one page of the reservations made by a specific phone number.
      * <p>
      * If {@code futureOnly} is true, only reservations with start times greater than or equal to now are returned.
-     * The results are ordered by start time ascending.
+     * The results are ordered by start time and ID ascending and paged like {@link #getAllReservations(String, int, ReservationFormat)}.
      * </p>
      *
      * @param phoneNumber The phone number to filter reservations by.
      * @param futureOnly  Whether to return only future reservations (true) or all reservations (false).
-     * @return A list of {@link ReservationResponseDTO} matching the phone number criteria.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations on the page.
+     * @param format The encoding of the reservations' dates and times.
+     * @return A {@link ReservationPageResponseDTO} with the reservations matching the phone number criteria.
      * @throws cz.vojtechsika.tennisclub.exception.ReservationNotFoundException if no reservations exist for the given phone number.
+     * @throws cz.vojtechsika.tennisclub.exception.InvalidPageRequestException if the cursor or the limit is invalid.
      */
-    List<ReservationResponseDTO> getReservationByPhoneNumber(String phoneNumber, boolean futureOnly);
+    ReservationPageResponseDTO getReservationByPhoneNumber(String phoneNumber, boolean futureOnly, String cursor, int limit,
+                                                           ReservationFormat format);
 
 
     /**
-     * Retrieves all reservations in the system.
+     * Returns the entity tag of the reservations made by a specific phone number without loading them. The tag
+     * changes with every committed change of the phone number's reservations, and of the courts they are made on.
+     * As the list of future reservations also changes when a reservation starts, its tag changes every minute.
+     *
+     * @param phoneNumber The phone number the reservations are filtered by.
+     * @param futureOnly  Whether only future reservations are listed.
+     * @return The current entity tag of every page of the list.
+     */
+    String getReservationByPhoneNumberETag(String phoneNumber, boolean futureOnly);
+
+
+    /**
+     * Retrieves one page of all reservations in the system.
      * <p>
-     * Returns a list of {@link ReservationResponseDTO} instances ordered by start time ascending.
+     * Reservations are ordered by start time and ID ascending. The page continues after the given cursor and
+     * carries the cursor of the next page when more reservations follow.
      * </p>
      *
-     * @return A list of all {@link ReservationResponseDTO}.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations on the page.
+     * @param format The encoding of the reservations' dates and times.
+     * @return A {@link ReservationPageResponseDTO} with the reservations of the page.
      * @throws cz.vojtechsika.tennisclub.exception.ReservationNotFoundException if no reservations exist.
+     * @throws cz.vojtechsika.tennisclub.exception.InvalidPageRequestException if the cursor or the limit is invalid.
+     */
+    ReservationPageResponseDTO getAllReservations(String cursor, int limit, ReservationFormat format);
+
+
+    /**
+     * Exports all reservations in the system one by one, the archived ones included, ordered by start time and ID
+     * ascending.
+     * <p>
+     * Unlike {@link #getAllReservations(String, int, ReservationFormat)} the reservations are not collected into a list; each one is
+     * read from a database cursor, mapped and handed to the consumer before the next row is read, so the memory
+     * used by the export does not grow with the number of reservations.
+     * </p>
+     *
+     * @param format   The encoding of the reservations' dates and times.
+     * @param consumer The consumer receiving every exported {@link ReservationResponseDTO}.
+     * @return The number of exported reservations.
      */
-    List<ReservationResponseDTO> getAllReservations();
+    long exportAllReservations(ReservationFormat format, Consumer<ReservationResponseDTO> consumer);
 
 
     /**
@@ -90,11 +136,14 @@ public interface ReservationService {
      *
      * @param reservationDTO The {@link ReservationDTO} containing updated reservation data.
      * @param id             The unique ID of the reservation to update.
+     * @param expectedVersion The version the client based its change on (from {@code If-Match}),
+     *                        or {@code null} to update unconditionally.
      * @return A {@link ReservationResponseDTO} representing the updated reservation.
      * @throws cz.vojtechsika.tennisclub.exception.ReservationNotFoundException    if no reservation with the given ID exists.
      * @throws cz.vojtechsika.tennisclub.exception.ReservationValidationException  if validation fails for the updated data (e.g., time conflicts).
+     * @throws cz.vojtechsika.tennisclub.exception.VersionMismatchException        if the reservation has a different version than expected.
      */
-    ReservationResponseDTO updateReservation(ReservationDTO reservationDTO, Long id);
+    ReservationResponseDTO updateReservation(ReservationDTO reservationDTO, Long id, Long expectedVersion);
 
 
     /**
@@ -1,44 +1,121 @@
 package cz.vojtechsika.tennisclub.service;
 
+import cz.vojtechsika.tennisclub.cache.CollectionVersions;
 import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationArchiveDAO;
 import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSlotDAO;
 import cz.vojtechsika.tennisclub.dao.UserDAO;
 import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationPageResponseDTO;
 import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
 import cz.vojtechsika.tennisclub.dto.mapper.ReservationMapper;
-import cz.vojtechsika.tennisclub.dto.mapper.UserMapper;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.dto.projection.UserIdentity;
+import cz.vojtechsika.tennisclub.entity.AbstractReservation;
+import cz.vojtechsika.tennisclub.entity.ArchivedReservation;
 import cz.vojtechsika.tennisclub.entity.Court;
 import cz.vojtechsika.tennisclub.entity.Reservation;
 import cz.vojtechsika.tennisclub.entity.User;
 import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.RejectionReason;
+import cz.vojtechsika.tennisclub.enums.ReservationFormat;
 import cz.vojtechsika.tennisclub.exception.CourtNotFoundException;
+import cz.vojtechsika.tennisclub.exception.InvalidPageRequestException;
 import cz.vojtechsika.tennisclub.exception.ReservationNotFoundException;
 import cz.vojtechsika.tennisclub.exception.ReservationValidationException;
+import cz.vojtechsika.tennisclub.exception.VersionMismatchException;
+import cz.vojtechsika.tennisclub.index.CourtDayKey;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import cz.vojtechsika.tennisclub.lock.ReservationLockManager;
+import cz.vojtechsika.tennisclub.metrics.BookingMetrics;
+import cz.vojtechsika.tennisclub.metrics.MeterNames;
+import cz.vojtechsika.tennisclub.retry.RetryOnConflict;
+import cz.vojtechsika.tennisclub.tariff.TariffEngine;
+import cz.vojtechsika.tennisclub.util.ETags;
+import cz.vojtechsika.tennisclub.util.ReservationCursor;
+import cz.vojtechsika.tennisclub.util.ReservationRules;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static cz.vojtechsika.tennisclub.util.TransactionCallbacks.afterCommit;
 
 
 /**
  * ReservationServiceImpl is the service implementation for managing {@link Reservation} entities.
  * It handles business logic for creating, retrieving, updating, and deleting reservations,
  * delegating persistence operations to {@link ReservationDAO}, {@link UserDAO}, and {@link CourtDAO}.
- * Mapping between DTOs and entities is performed by {@link ReservationMapper} and {@link UserMapper}.
+ * Mapping between DTOs and entities is performed by {@link ReservationMapper}.
  * <p>
  * This implementation enforces validation rules (time conflicts, duration limits, and allowed hours),
  * calculates pricing based on court surface and game type, and performs soft deletion of reservations.
  * </p>
+ * <p>
+ * Overlap checks are answered by the in-memory {@link ReservationIndex} when it is warm; otherwise the day's
+ * reservations are loaded from the database. Every committed change is propagated to the index.
+ * </p>
+ * <p>
+ * Creating or moving a reservation first locks the affected court-days through the {@link ReservationLockManager}
+ * until the transaction completes, so two concurrent bookings of the same court and day cannot both pass
+ * the overlap check.
+ * </p>
+ * <p>
+ * Because those locks only work within one JVM, every active reservation also claims its minutes in the
+ * {@code reservation_slot} table within the same transaction (see {@link ReservationSlotDAO}). The database
+ * rejects a second claim of the same court and minute, so overlapping bookings coming from different
+ * application instances are refused as well.
+ * </p>
+ * <p>
+ * The {@link User} of a booking is resolved by its phone number through the {@link UserResolver}, with a single
+ * atomic upsert that writes only a new customer or a changed name, so concurrent first bookings of the same phone
+ * number cannot fail on its unique constraint.
+ * </p>
+ * <p>
+ * Reservations past the archive horizon are moved to the {@code reservation_archive} table. The court, the phone
+ * number and the full lists read a page from both tables after the same cursor and merge them in the same order,
+ * so the archive stays invisible to the clients; the future reservations of a phone number are never archived
+ * and are read from the live table only.
+ * </p>
+ * <p>
+ * Every method is timed by the {@code service.calls} timer. Committed bookings and the rules rejected bookings
+ * broke are counted by {@link BookingMetrics}.
+ * </p>
  */
 @Service
+@Timed(value = MeterNames.SERVICE_CALLS, histogram = true)
 public class ReservationServiceImpl implements ReservationService {
 
+    /**
+     * Largest page of the reservation lists a client may request.
+     */
+    static final int MAX_PAGE_LIMIT = 500;
+
+    /**
+     * Number of rows the export fetches per round trip and keeps in the persistence context before clearing it.
+     */
+    static final int EXPORT_CHUNK_SIZE = 500;
+
+    /**
+     * Order of the paged reservation lists, by start time and ID ascending, shared by the live and archived rows.
+     */
+    private static final Comparator<AbstractReservation> KEYSET_ORDER =
+            Comparator.comparing(AbstractReservation::getStartTime).thenComparing(AbstractReservation::getId);
+
     /**
      * DAO for reservation persistence operations.
      */
@@ -60,9 +137,44 @@ public class ReservationServiceImpl implements ReservationService {
     private ReservationMapper reservationMapper;
 
     /**
-     * Mapper to convert from {@link ReservationDTO} to {@link User}
+     * Resolver creating, renaming or reactivating the user of a booking.
      */
-    private UserMapper userMapper;
+    private UserResolver userResolver;
+
+    /**
+     * In-memory index of active reservations used for overlap checks.
+     */
+    private ReservationIndex reservationIndex;
+
+    /**
+     * Lock manager serializing changes of the same court and day.
+     */
+    private ReservationLockManager reservationLockManager;
+
+    /**
+     * DAO for the per-minute slot claims of reservations.
+     */
+    private ReservationSlotDAO reservationSlotDAO;
+
+    /**
+     * Engine computing the price of a reservation.
+     */
+    private TariffEngine tariffEngine;
+
+    /**
+     * Version stamps of the reservation lists by phone number.
+     */
+    private CollectionVersions collectionVersions;
+
+    /**
+     * DAO for the reservations moved to the archive.
+     */
+    private ReservationArchiveDAO reservationArchiveDAO;
+
+    /**
+     * Counters of the committed and rejected bookings.
+     */
+    private BookingMetrics bookingMetrics;
 
 
     /**
@@ -72,19 +184,40 @@ public class ReservationServiceImpl implements ReservationService {
      * @param theUserDAO          DAO for user persistence operations.
      * @param theCourtDAO         DAO for court persistence operations.
      * @param theReservationMapper Mapper to convert between {@link ReservationDTO} and {@link Reservation}.
-     * @param theUserMapper       Mapper to convert from {@link ReservationDTO} to {@link User}.
+     * @param theUserResolver     Resolver creating, renaming or reactivating the user of a booking.
+     * @param theReservationIndex In-memory index of active reservations used for overlap checks.
+     * @param theReservationLockManager Lock manager serializing changes of the same court and day.
+     * @param theReservationSlotDAO DAO for the per-minute slot claims of reservations.
+     * @param theTariffEngine     Engine computing the price of a reservation.
+     * @param theCollectionVersions Version stamps of the reservation lists by phone number.
+     * @param theReservationArchiveDAO DAO for the reservations moved to the archive.
+     * @param theBookingMetrics   Counters of the committed and rejected bookings.
      */
     @Autowired
     public ReservationServiceImpl(ReservationDAO theReservationDAO,
                                   UserDAO theUserDAO,
                                   CourtDAO theCourtDAO,
                                   ReservationMapper theReservationMapper,
-                                  UserMapper theUserMapper) {
+                                  UserResolver theUserResolver,
+                                  ReservationIndex theReservationIndex,
+                                  ReservationLockManager theReservationLockManager,
+                                  ReservationSlotDAO theReservationSlotDAO,
+                                  TariffEngine theTariffEngine,
+                                  CollectionVersions theCollectionVersions,
+                                  ReservationArchiveDAO theReservationArchiveDAO,
+                                  BookingMetrics theBookingMetrics) {
         reservationDAO = theReservationDAO;
         userDAO = theUserDAO;
         courtDAO = theCourtDAO;
         reservationMapper = theReservationMapper;
-        userMapper = theUserMapper;
+        userResolver = theUserResolver;
+        reservationIndex = theReservationIndex;
+        reservationLockManager = theReservationLockManager;
+        reservationSlotDAO = theReservationSlotDAO;
+        tariffEngine = theTariffEngine;
+        collectionVersions = theCollectionVersions;
+        reservationArchiveDAO = theReservationArchiveDAO;
+        bookingMetrics = theBookingMetrics;
 
     }
 
@@ -98,6 +231,10 @@ public class ReservationServiceImpl implements ReservationService {
      * and the court’s minute price, and persists the new reservation. Returns a
      * {@link ReservationResponseDTO} for the created reservation.
      * </p>
+     * <p>
+     * The court-day is locked before the transaction starts, so a booking waiting for another one on the same
+     * court and day does not hold a database connection.
+     * </p>
      *
      * @param reservationDTO The {@link ReservationDTO} containing user name, phone number,
      *                       start/end times, court number, and game type.
@@ -105,26 +242,36 @@ public class ReservationServiceImpl implements ReservationService {
      * @throws ReservationValidationException if the provided time range is invalid or conflicts occur.
      * @throws CourtNotFoundException          if no court with the given court number exists.
      */
-    @Transactional
     @Override
     public ReservationResponseDTO createReservation(ReservationDTO reservationDTO) {
+        CourtDayKey key = new CourtDayKey(reservationDTO.getCourtNumber(), reservationDTO.getStartTime().toLocalDate());
+        return reservationLockManager.callInTransaction(Set.of(key), () -> create(reservationDTO));
+    }
+
+
+    // Creates the reservation; runs in the transaction started once its court-day is locked
+    private ReservationResponseDTO create(ReservationDTO reservationDTO) {
         LocalDateTime startTime = reservationDTO.getStartTime();
         LocalDateTime endTime = reservationDTO.getEndTime();
         int courtNumber = reservationDTO.getCourtNumber();
 
-        List<Reservation> reservations = findAllReservationsByDateAndCourtNumber(startTime,courtNumber, null);
-
-        if (isValidReservation(startTime, endTime, reservations)) {
+        if (isValidReservation(startTime, endTime, courtNumber, null)) {
 
             Court court = findCourtByCourtNumber(reservationDTO.getCourtNumber());
 
+            UserIdentity user = getOrCreateUser(reservationDTO);
+
             Reservation reservation = reservationMapper.toReservationEntity(reservationDTO);
-            reservation.setUser(getOrCreateUser(reservationDTO));
+            reservation.setUser(userDAO.getReference(user.getId()));
             reservation.setPrice(courtPriceCalculator(court,reservationDTO));
             reservation.setCourt(court);
 
             Reservation newReservation = reservationDAO.create(reservation);
-            return reservationMapper.toReservationResponseDTO(newReservation);
+            claimSlots(court, newReservation.getId(), startTime, endTime);
+            indexAfterCommit(newReservation.getId(), courtNumber, startTime, endTime);
+            collectionVersions.reservationsChanged(user.getPhoneNumber());
+            afterCommit(() -> bookingMetrics.created(1));
+            return reservationMapper.toReservationResponseDTO(newReservation, court.getCourtNumber(), user);
         } else {
             throw new ReservationValidationException("Provided time range is invalid");
         }
@@ -143,36 +290,52 @@ public class ReservationServiceImpl implements ReservationService {
      * @param reservationDTO The {@link ReservationDTO} containing updated user name, phone number,
      *                       start/end times, court number, and game type.
      * @param id             The unique ID of the reservation to update.
+     * @param expectedVersion The version the client based its change on, or {@code null}.
      * @return A {@link ReservationResponseDTO} representing the updated reservation.
      * @throws ReservationNotFoundException    if no reservation with the given ID exists.
      * @throws ReservationValidationException if the provided time range is invalid or conflicts occur.
      * @throws CourtNotFoundException          if no court with the given court number exists.
+     * @throws VersionMismatchException        if the reservation has a different version than expected.
      */
     // MUsím zde fakt upozornit na to null, když je přítomno používá to metoda pro create když ne používa ho update
+    @RetryOnConflict
     @Transactional
     @Override
-    public ReservationResponseDTO updateReservation(ReservationDTO reservationDTO, Long id) {
+    public ReservationResponseDTO updateReservation(ReservationDTO reservationDTO, Long id, Long expectedVersion) {
         LocalDateTime startTime = reservationDTO.getStartTime();
         LocalDateTime endTime = reservationDTO.getEndTime();
         int courtNumber = reservationDTO.getCourtNumber();
 
-        List<Reservation> reservations = findAllReservationsByDateAndCourtNumber(startTime, courtNumber, id);
-        if (isValidReservation(startTime, endTime, reservations)) {
+        lockCurrentAndTargetCourtDay(id, courtNumber, startTime);
+
+        if (isValidReservation(startTime, endTime, courtNumber, id)) {
 
             Optional <Reservation>  optionalReservation = reservationDAO.findById(id);
             if (optionalReservation.isEmpty()) {
                 throw new ReservationNotFoundException("Reservation with id " + id + " not found");
             }
-            Court court = findCourtByCourtNumber(courtNumber);
             Reservation findReservation = optionalReservation.get();
+            if (expectedVersion != null && expectedVersion != findReservation.getVersion()) {
+                throw new VersionMismatchException("Reservation with id " + id + " has version "
+                        + findReservation.getVersion() + ", but version " + expectedVersion + " was expected");
+            }
+            Court court = findCourtByCourtNumber(courtNumber);
+            String previousPhoneNumber = findReservation.getUser().getPhoneNumber();
+
+            UserIdentity user = getOrCreateUser(reservationDTO);
 
             Reservation reservation = reservationMapper.updateReservationFromDTO(reservationDTO, findReservation);
-            reservation.setUser(getOrCreateUser(reservationDTO));
+            reservation.setUser(userDAO.getReference(user.getId()));
             reservation.setPrice(courtPriceCalculator(court,reservationDTO));
             reservation.setCourt(court);
 
             Reservation updatedReservation = reservationDAO.update(reservation);
-            return reservationMapper.toReservationResponseDTO(updatedReservation);
+            reservationSlotDAO.releaseByReservationId(id);
+            claimSlots(court, id, startTime, endTime);
+            indexAfterCommit(id, courtNumber, startTime, endTime);
+            collectionVersions.reservationsChanged(previousPhoneNumber, user.getPhoneNumber());
+            afterCommit(bookingMetrics::updated);
+            return reservationMapper.toReservationResponseDTO(updatedReservation, court.getCourtNumber(), user);
         } else {
             throw new ReservationValidationException("Provided time range is invalid");
         }
@@ -187,6 +350,7 @@ public class ReservationServiceImpl implements ReservationService {
      * @throws ReservationNotFoundException if no reservation with the given ID exists.
      */
     @Override
+    @Transactional(readOnly = true)
     public ReservationResponseDTO getReservationById(Long id) {
 
         Optional<Reservation> optionalReservation = reservationDAO.findById(id);
@@ -201,80 +365,146 @@ public class ReservationServiceImpl implements ReservationService {
 
 
     /**
-     * Retrieves all reservations for a specific court number.
+     * Retrieves one page of the reservations for a specific court number.
      * <p>
-     * Returns a list of {@link ReservationResponseDTO} instances ordered by creation date descending.
+     * Returns the live and archived reservations ordered by start time and ID ascending, starting after the given
+     * cursor.
      * </p>
      *
      * @param courtNumber The court number to filter reservations by.
-     * @return A list of {@link ReservationResponseDTO} for the specified court.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations on the page.
+     * @param format The encoding of the reservations' dates and times.
+     * @return A {@link ReservationPageResponseDTO} with the reservations of the specified court.
      * @throws ReservationNotFoundException if no reservations exist for the given court number.
+     * @throws InvalidPageRequestException if the cursor or the limit is invalid.
      */
+    @Transactional(readOnly = true)
     @Override
-    public List<ReservationResponseDTO> getReservationByCourtNumber(int courtNumber) {
-
-        List<Reservation> reservations = reservationDAO.findAllByCourtNumber(courtNumber);
-        if (reservations.isEmpty()) {
+    public ReservationPageResponseDTO getReservationByCourtNumber(int courtNumber, String cursor, int limit,
+                                                                  ReservationFormat format) {
+
+        ReservationCursor after = pageStart(cursor, limit);
+        List<? extends AbstractReservation> reservations = merge(
+                reservationDAO.findPageByCourtNumber(courtNumber, after, limit + 1),
+                reservationArchiveDAO.findPageByCourtNumber(courtNumber, after, limit + 1), limit + 1);
+        if (reservations.isEmpty() && after == null) {
             throw new ReservationNotFoundException("Reservation with court number " + courtNumber + " not found");
         }
-        return reservations.stream()
-                .map( reservation ->
-                        reservationMapper.toReservationResponseDTO(reservation))
-                .toList();
+        return toPage(reservations, limit, format);
     }
 
 
     /**
-     * Retrieves all reservations made by a specific phone number.
+     * Retrieves one page of the reservations made by a specific phone number.
      * <p>
-     * If {@code futureOnly} is true, only reservations with start times ≥ now are returned.
-     * Results are ordered by start time ascending.
+     * If {@code futureOnly} is true, only reservations with start times ≥ now are returned; otherwise the archived
+     * reservations are listed as well.
+     * Results are ordered by start time and ID ascending, starting after the given cursor.
      * </p>
      *
      * @param phoneNumber The phone number to filter reservations by.
      * @param futureOnly  Whether to return only future reservations (true) or all reservations (false).
-     * @return A list of {@link ReservationResponseDTO} matching the phone number criteria.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations on the page.
+     * @param format The encoding of the reservations' dates and times.
+     * @return A {@link ReservationPageResponseDTO} with the reservations matching the phone number criteria.
      * @throws ReservationNotFoundException if no reservations exist for the given phone number.
+     * @throws InvalidPageRequestException if the cursor or the limit is invalid.
      */
+    @Transactional(readOnly = true)
     @Override
-    public List<ReservationResponseDTO> getReservationByPhoneNumber(String phoneNumber, boolean futureOnly) {
-
-        List<Reservation> reservations = reservationDAO.findAllByPhoneNumber(phoneNumber,futureOnly);
-        if (reservations.isEmpty()) {
+    public ReservationPageResponseDTO getReservationByPhoneNumber(String phoneNumber, boolean futureOnly,
+                                                                  String cursor, int limit, ReservationFormat format) {
+
+        ReservationCursor after = pageStart(cursor, limit);
+        List<? extends AbstractReservation> reservations = reservationDAO.findPageByPhoneNumber(phoneNumber,
+                futureOnly, after, limit + 1);
+        if (!futureOnly) {
+            reservations = merge(reservations,
+                    reservationArchiveDAO.findPageByPhoneNumber(phoneNumber, after, limit + 1), limit + 1);
+        }
+        if (reservations.isEmpty() && after == null) {
             String message = "No Reservations with phone number " + phoneNumber;
             if (futureOnly) {
                message += " in future";
             }
             throw new ReservationNotFoundException(message);
         }
+        return toPage(reservations, limit, format);
+    }
 
-        return reservations.stream()
-                .map(reservation ->
-                        reservationMapper.toReservationResponseDTO(reservation))
-                .toList();
+
+    /**
+     * Returns the entity tag of the reservations made by a specific phone number from its version stamp, without
+     * loading them. The tag of the future reservations also carries the current minute: reservations start on
+     * whole minutes, so the list stays the same within a minute.
+     *
+     * @param phoneNumber The phone number the reservations are filtered by.
+     * @param futureOnly  Whether only future reservations are listed.
+     * @return The current entity tag of every page of the list.
+     */
+    @Override
+    public String getReservationByPhoneNumberETag(String phoneNumber, boolean futureOnly) {
+        long version = collectionVersions.reservationsByPhoneNumber(phoneNumber);
+        return futureOnly ? ETags.of(version, System.currentTimeMillis() / 60_000) : ETags.of(version);
     }
 
 
     /**
-     * Retrieves all reservations in the system.
+     * Retrieves one page of all reservations in the system.
      * <p>
-     * Returns a list of {@link ReservationResponseDTO} instances ordered by start time ascending.
+     * Returns the live and archived reservations ordered by start time and ID ascending, starting after the given
+     * cursor.
      * </p>
      *
-     * @return A list of all {@link ReservationResponseDTO}.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param limit The maximum number of reservations on the page.
+     * @param format The encoding of the reservations' dates and times.
+     * @return A {@link ReservationPageResponseDTO} with the reservations of the page.
      * @throws ReservationNotFoundException if no reservations exist.
+     * @throws InvalidPageRequestException if the cursor or the limit is invalid.
      */
+    @Transactional(readOnly = true)
     @Override
-    public List<ReservationResponseDTO> getAllReservations() {
+    public ReservationPageResponseDTO getAllReservations(String cursor, int limit, ReservationFormat format) {
 
-        List<Reservation> reservations = reservationDAO.findAll();
-        if (reservations.isEmpty()) {
+        ReservationCursor after = pageStart(cursor, limit);
+        List<? extends AbstractReservation> reservations = merge(reservationDAO.findPage(after, limit + 1),
+                reservationArchiveDAO.findPage(after, limit + 1), limit + 1);
+        if (reservations.isEmpty() && after == null) {
             throw new ReservationNotFoundException("No Reservations found");
         }
-        return reservations.stream()
-                .map(reservation ->
-                        reservationMapper.toReservationResponseDTO(reservation))
-                .toList();
+        return toPage(reservations, limit, format);
+    }
+
+
+    /**
+     * Exports all reservations in the system one by one.
+     * <p>
+     * Streams the non-deleted archived reservations and then the live ones from the database with a fetch size
+     * of {@link #EXPORT_CHUNK_SIZE}, maps each of them and hands it to the consumer. The archive only holds
+     * reservations that started before those left in the live table, so the two cursors together keep the start
+     * time order. After every chunk the persistence context is cleared, so the reservations already written can
+     * be garbage collected and the heap stays flat for any table size.
+     * </p>
+     *
+     * @param format   The encoding of the reservations' dates and times.
+     * @param consumer The consumer receiving every exported {@link ReservationResponseDTO}.
+     * @return The number of exported reservations.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public long exportAllReservations(ReservationFormat format, Consumer<ReservationResponseDTO> consumer) {
+
+        long exported;
+        try (Stream<ArchivedReservation> archived = reservationArchiveDAO.streamAll(EXPORT_CHUNK_SIZE)) {
+            exported = export(archived, 0, format, consumer);
+        }
+        try (Stream<Reservation> reservations = reservationDAO.streamAll(EXPORT_CHUNK_SIZE)) {
+            exported = export(reservations, exported, format, consumer);
+        }
+        return exported;
     }
 
 
@@ -288,6 +518,7 @@ public class ReservationServiceImpl implements ReservationService {
      * @param id The unique ID of the reservation to delete.
      * @throws ReservationNotFoundException if no reservation with the given ID exists.
      */
+    @RetryOnConflict
     @Transactional
     @Override
     public void deleteReservation(Long id) {
@@ -296,51 +527,91 @@ public class ReservationServiceImpl implements ReservationService {
             Reservation reservation = optionalReservation.get();
             reservation.setDeleted(true);
             reservationDAO.update(reservation);
+            reservationSlotDAO.releaseByReservationId(id);
+            String phoneNumber = reservation.getUser().getPhoneNumber();
+            afterCommit(() -> reservationIndex.remove(id));
+            collectionVersions.reservationsChanged(phoneNumber);
+            afterCommit(bookingMetrics::cancelled);
         } else {
             throw new ReservationNotFoundException("Delete failed: Reservation with id " + id + " not found");
         }
     }
 
 
-    // The following private helper methods encapsulate validation and lookup logic:
+    // The following helper methods encapsulate validation and lookup logic. The hot paths of a booking
+    // (validation, overlap check, pricing, user lookup) are package-private, so ReservationServiceBenchmark
+    // in src/jmh/java can measure them one by one.
 
 
-    // Validates that a reservation is in the future, within two hours, during allowed hours, and non-overlapping
-    private boolean isValidReservation(LocalDateTime startTime, LocalDateTime endTime, List<Reservation> existsReservations) {
+    // Validates that a reservation is in the future, within two hours, during allowed hours, and non-overlapping;
+    // a rejection is counted under the first rule it breaks
+    boolean isValidReservation(LocalDateTime startTime, LocalDateTime endTime, int courtNumber, Long excludeId) {
 
         boolean isInFuture = isInFuture(startTime);
         boolean isTwoHoursLimit = isTwoHoursLimit(startTime, endTime);
         boolean isValidReservationInterval = isValidReservationInterval(startTime, endTime);
-        boolean hasOverlappingReservation = hasOverlappingReservation(startTime, endTime, existsReservations);
-
+        boolean hasOverlappingReservation = hasOverlappingReservation(startTime, endTime, courtNumber, excludeId);
+
+        if (!isInFuture) {
+            bookingMetrics.rejected(RejectionReason.PAST_START_TIME);
+        } else if (!isTwoHoursLimit) {
+            bookingMetrics.rejected(RejectionReason.OVER_DURATION_LIMIT);
+        } else if (!isValidReservationInterval) {
+            bookingMetrics.rejected(RejectionReason.OUTSIDE_OPENING_HOURS);
+        } else if (hasOverlappingReservation) {
+            bookingMetrics.rejected(RejectionReason.OVERLAP);
+        }
         return isInFuture && isTwoHoursLimit && isValidReservationInterval && !hasOverlappingReservation;
     }
 
-    // Checks if the given startTime is after the current time
-    private boolean isInFuture(LocalDateTime startTime) {
-        return startTime.isAfter(LocalDateTime.now());
+    // Locks the court-day the reservation is moved to and, if different, the one it currently occupies
+    private void lockCurrentAndTargetCourtDay(Long id, int courtNumber, LocalDateTime startTime) {
+        Set<CourtDayKey> keys = new LinkedHashSet<>();
+        keys.add(new CourtDayKey(courtNumber, startTime.toLocalDate()));
+        reservationDAO.findIntervalById(id).ifPresent(current ->
+                keys.add(new CourtDayKey(current.getCourtNumber(), current.getStartTime().toLocalDate())));
+        reservationLockManager.lockUntilCompletion(keys);
     }
 
-    // Calculates the duration between startTime and endTime in minutes
-    private Long getDurationInMinutes(LocalDateTime startTime, LocalDateTime endTime) {
-        return Duration.between(startTime, endTime).toMinutes();
+    // Claims the reservation's minutes; the database refuses the claim if another reservation holds any of them
+    private void claimSlots(Court court, Long reservationId, LocalDateTime startTime, LocalDateTime endTime) {
+        try {
+            reservationSlotDAO.claim(court.getId(), reservationId, startTime, endTime);
+        } catch (DuplicateKeyException e) {
+            bookingMetrics.rejected(RejectionReason.OVERLAP);
+            throw new ReservationValidationException("Court " + court.getCourtNumber()
+                    + " is already reserved in the provided time range");
+        }
+    }
+
+    // Checks if the given startTime is after the current time
+    private boolean isInFuture(LocalDateTime startTime) {
+        return ReservationRules.isInFuture(startTime, LocalDateTime.now());
     }
 
     // Ensures the reservation duration is greater than 0 minutes and at most 120 minutes
     private boolean isTwoHoursLimit(LocalDateTime startTime, LocalDateTime endTime) {
-        long minutes = getDurationInMinutes(startTime, endTime);
-        return minutes > 0 && minutes <= 120; // tady to dát asi do properti souboru abych to na jednom místě mohl změnit okno
+        return ReservationRules.hasAllowedDuration(startTime, endTime);
     }
 
-    // Verifies that startTime and endTime fall between 10:00 and 22:00
+    // Verifies that startTime and endTime fall between 10:00 and 22:00 of the same day
     private boolean isValidReservationInterval(LocalDateTime startTime, LocalDateTime endTime) {
-        LocalTime allowedStartTime = LocalTime.of(10,0); // tady to dát asi do properti souboru abych to na jednom místě mohl změnit okno
-        LocalTime allowedEndTime = LocalTime.of(22,0);   // tady to dát asi do properti souboru abych to na jednom místě mohl změnit okno
-
-        LocalTime start = startTime.toLocalTime();
-        LocalTime end = endTime.toLocalTime();
+        return ReservationRules.isWithinOpeningHours(startTime, endTime);
+    }
 
-        return !start.isBefore(allowedStartTime) && !end.isAfter(allowedEndTime);
+    // Checks the in-memory index when it is warm, otherwise falls back to the day's reservations from the database.
+    // An overlap found in the index may have been cancelled or moved by another instance, so the court-day is
+    // refreshed from the database before the overlap is confirmed.
+    boolean hasOverlappingReservation(LocalDateTime startTime, LocalDateTime endTime, int courtNumber, Long excludeId) {
+        if (reservationIndex.isWarm()) {
+            if (!reservationIndex.hasOverlappingReservation(courtNumber, startTime, endTime, excludeId)) {
+                return false;
+            }
+            reservationIndex.refresh(Set.of(new CourtDayKey(courtNumber, startTime.toLocalDate())));
+            return reservationIndex.hasOverlappingReservation(courtNumber, startTime, endTime, excludeId);
+        }
+        List<Reservation> reservations = findAllReservationsByDateAndCourtNumber(startTime, courtNumber, excludeId);
+        return hasOverlappingReservation(startTime, endTime, reservations);
     }
 
     // Checks if any existing reservation overlaps with the given time range
@@ -352,38 +623,21 @@ public class ReservationServiceImpl implements ReservationService {
                 );
     }
 
-    // Calculates the price based on court’s minute rate and doubles multiplier if applicable
-    private BigDecimal courtPriceCalculator (Court court, ReservationDTO reservationDTO){
-        Long minutes = getDurationInMinutes(reservationDTO.getStartTime(), reservationDTO.getEndTime());
-        BigDecimal minutePrice = court.getSurfaceType().getMinutePrice();
-        BigDecimal finalPrice = minutePrice.multiply(BigDecimal.valueOf(minutes));
-        if (reservationDTO.getGameType().equals(GameType.DOUBLES)){
-            return finalPrice.multiply(BigDecimal.valueOf(2));
-        }
-        return finalPrice;
+    // Prices the reservation with the tariff of the court’s surface type
+    BigDecimal courtPriceCalculator (Court court, ReservationDTO reservationDTO){
+        return tariffEngine.price(court.getSurfaceType(),
+                reservationDTO.getStartTime(), reservationDTO.getEndTime(), reservationDTO.getGameType());
     }
 
-    // Retrieves an existing user by phone or creates and saves a new one
-    private User getOrCreateUser(ReservationDTO reservationDTO) {
-        Optional<User> optionalUser = userDAO.findByPhone(reservationDTO.getPhoneNumber());
-        if (optionalUser.isPresent()){
-            User findUser = optionalUser.get();
-
-            if(!findUser.getUserName().equals(reservationDTO.getUserName())){
-                findUser.setUserName(reservationDTO.getUserName());
-                return userDAO.save(findUser);
-            }
-            return findUser;
-
-        } else {
-            User newUser = userMapper.mapFromReservationDTO(reservationDTO);
-            return userDAO.save(newUser);
-        }
+    // Resolves the user of the booking. The response is built from the returned identity: the user may be managed
+    // with its old name, as the upsert bypasses the persistence context.
+    private UserIdentity getOrCreateUser(ReservationDTO reservationDTO) {
+        return userResolver.resolve(reservationDTO.getPhoneNumber(), reservationDTO.getUserName());
     }
 
-    // Finds a court by its number or throws if not found
+    // Finds a court by its number in the database, not in the per-instance caches, or throws if not found
     private Court findCourtByCourtNumber(int courtNumber) {
-        Optional<Court> optionalCourt = courtDAO.findByCourtNumber(courtNumber);
+        Optional<Court> optionalCourt = courtDAO.findCurrentByCourtNumber(courtNumber);
         if (optionalCourt.isPresent()){
             return optionalCourt.get();
         } else {
@@ -408,5 +662,62 @@ public class ReservationServiceImpl implements ReservationService {
         return reservationDAO.findAllByDateAndCourtNumber(date,courtNumber,excludeId);
     }
 
-}
+    // Publishes the committed state of a reservation to the in-memory index
+    private void indexAfterCommit(Long id, int courtNumber, LocalDateTime startTime, LocalDateTime endTime) {
+        ReservationInterval interval = new ReservationInterval(id, courtNumber, startTime, endTime);
+        afterCommit(() -> reservationIndex.put(interval));
+    }
 
+    // Hands the streamed reservations to the consumer, clearing the persistence context after every chunk counted
+    // from the start of the whole export; returns the number exported so far
+    private long export(Stream<? extends AbstractReservation> reservations, long exported, ReservationFormat format,
+                        Consumer<ReservationResponseDTO> consumer) {
+        Iterator<? extends AbstractReservation> iterator = reservations.iterator();
+        while (iterator.hasNext()) {
+            consumer.accept(reservationMapper.toReservationResponseDTO(iterator.next(), format));
+            if (++exported % EXPORT_CHUNK_SIZE == 0) {
+                reservationDAO.clear();
+            }
+        }
+        return exported;
+    }
+
+    // Checks the page size and decodes the cursor the page starts after
+    private ReservationCursor pageStart(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new InvalidPageRequestException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        return ReservationCursor.decode(cursor);
+    }
+
+    // Merges the live and the archived page read after the same cursor into the first size rows of both tables.
+    // A reservation archived between the two reads is found in both and is listed once.
+    private static List<? extends AbstractReservation> merge(List<? extends AbstractReservation> live,
+                                                             List<ArchivedReservation> archived, int size) {
+        if (archived.isEmpty()) {
+            return live;
+        }
+        Set<Long> ids = new HashSet<>();
+        return Stream.concat(live.stream(), archived.stream())
+                .sorted(KEYSET_ORDER)
+                .filter(reservation -> ids.add(reservation.getId()))
+                .limit(size)
+                .toList();
+    }
+
+    // Builds the page from up to limit + 1 loaded reservations; the extra one only signals that a next page exists
+    private ReservationPageResponseDTO toPage(List<? extends AbstractReservation> reservations, int limit,
+                                              ReservationFormat format) {
+        List<? extends AbstractReservation> page = reservations.size() > limit ? reservations.subList(0, limit)
+                : reservations;
+        String nextCursor = null;
+        if (reservations.size() > limit) {
+            AbstractReservation last = page.get(page.size() - 1);
+            nextCursor = new ReservationCursor(last.getStartTime(), last.getId()).encode();
+        }
+        return new ReservationPageResponseDTO(page.stream()
+                .map(reservation ->
+                        reservationMapper.toReservationResponseDTO(reservation, format))
+                .toList(), nextCursor);
+    }
+}
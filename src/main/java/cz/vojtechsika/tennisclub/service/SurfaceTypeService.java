@@ -44,6 +44,15 @@ public interface SurfaceTypeService {
     List<SurfaceTypeResponseDTO> getAllSurfaceTypes();
 
 
+    /**
+     * Returns the entity tag of the list of all surface types without loading it. The tag changes with every
+     * committed change of a surface type.
+     *
+     * @return The current entity tag of the list of all surface types.
+     */
+    String getAllSurfaceTypesETag();
+
+
     /**
      * Updates an existing surface type identified by {@code id} using data from the provided {@link SurfaceTypeDTO}.
      * <p>
@@ -52,10 +61,13 @@ public interface SurfaceTypeService {
      *
      * @param surfaceTypeDTO The {@link SurfaceTypeDTO} containing updated name and/or minute price.
      * @param id             The unique ID of the surface type to update.
+     * @param expectedVersion The version the client based its change on (from {@code If-Match}),
+     *                        or {@code null} to update unconditionally.
      * @return A {@link SurfaceTypeResponseDTO} representing the updated surface type.
      * @throws cz.vojtechsika.tennisclub.exception.SurfaceTypeNotFoundException if no surface type with the given ID exists.
+     * @throws cz.vojtechsika.tennisclub.exception.VersionMismatchException     if the surface type has a different version than expected.
      */
-    SurfaceTypeResponseDTO updateSurfaceType(SurfaceTypeDTO surfaceTypeDTO, Long id);
+    SurfaceTypeResponseDTO updateSurfaceType(SurfaceTypeDTO surfaceTypeDTO, Long id, Long expectedVersion);
 
 
     /**
@@ -1,6 +1,10 @@
 package cz.vojtechsika.tennisclub.service;
 
+import cz.vojtechsika.tennisclub.cache.CatalogCache;
+import cz.vojtechsika.tennisclub.cache.CollectionVersions;
 import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSlotDAO;
 import cz.vojtechsika.tennisclub.dao.SurfaceTypeDAO;
 import cz.vojtechsika.tennisclub.dto.SurfaceTypeDTO;
 import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
@@ -8,6 +12,13 @@ import cz.vojtechsika.tennisclub.dto.mapper.SurfaceTypeMapper;
 import cz.vojtechsika.tennisclub.entity.Court;
 import cz.vojtechsika.tennisclub.entity.SurfaceType;
 import cz.vojtechsika.tennisclub.exception.SurfaceTypeNotFoundException;
+import cz.vojtechsika.tennisclub.exception.VersionMismatchException;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import cz.vojtechsika.tennisclub.metrics.MeterNames;
+import cz.vojtechsika.tennisclub.retry.RetryOnConflict;
+import cz.vojtechsika.tennisclub.tariff.TariffEngine;
+import cz.vojtechsika.tennisclub.util.ETags;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,16 +26,22 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
+import static cz.vojtechsika.tennisclub.util.TransactionCallbacks.afterCommit;
+
 /**
  * Service implementation for managing {@link SurfaceType} entities. Handles creation, retrieval,
  * updating, and deletion of surface types. When deleting a surface type, all associated courts
- * are also marked as deleted via calls to {@link CourtService}.
+ * and their reservations are also marked as deleted by bulk updates.
  * <p>
  * Business logic includes validation that the surface type exists before updating or deleting,
- * and cascading deletions to related courts.</p>
+ * and cascading deletions to related courts and reservations.</p>
+ * <p>
+ * Surface types are read through the {@link CatalogCache}; every committed change evicts the surface type
+ * and the cached courts of that surface type, and bumps the version stamps of the surface type and court lists.</p>
  *
  */
 @Service
+@Timed(value = MeterNames.SERVICE_CALLS, histogram = true)
 public class SurfaceTypeServiceImpl implements SurfaceTypeService {
 
     /**
@@ -43,9 +60,34 @@ public class SurfaceTypeServiceImpl implements SurfaceTypeService {
     private final CourtDAO courtDAO;
 
     /**
-     * Service for court business logic and cascading deletions.
+     * DAO for reservation persistence operations.
+     */
+    private final ReservationDAO reservationDAO;
+
+    /**
+     * DAO for the per-minute slot claims of reservations.
+     */
+    private final ReservationSlotDAO reservationSlotDAO;
+
+    /**
+     * In-memory index of active reservations, kept in line with deleted courts.
+     */
+    private final ReservationIndex reservationIndex;
+
+    /**
+     * Cache of the active courts and surface types.
+     */
+    private final CatalogCache catalogCache;
+
+    /**
+     * Engine pricing reservations, holding a compiled tariff per surface type.
+     */
+    private final TariffEngine tariffEngine;
+
+    /**
+     * Version stamps of the collections polled by the clients.
      */
-    private final CourtService courtService;
+    private final CollectionVersions collectionVersions;
 
 
     /**
@@ -54,17 +96,32 @@ public class SurfaceTypeServiceImpl implements SurfaceTypeService {
      * @param theSurfaceTypeDAO    DAO for surface type persistence operations.
      * @param theSurfaceTypeMapper Mapper to convert between {@link SurfaceTypeDTO} and {@link SurfaceType}.
      * @param theCourtDAO          DAO for court persistence operations.
-     * @param theCourtService      Service for court business logic and cascading deletions.
+     * @param theReservationDAO    DAO for reservation persistence operations.
+     * @param theReservationSlotDAO DAO for the per-minute slot claims of reservations.
+     * @param theReservationIndex  In-memory index of active reservations.
+     * @param theCatalogCache      Cache of the active courts and surface types.
+     * @param theTariffEngine      Engine pricing reservations, holding a compiled tariff per surface type.
+     * @param theCollectionVersions Version stamps of the collections polled by the clients.
      */
     @Autowired
     public SurfaceTypeServiceImpl(SurfaceTypeDAO theSurfaceTypeDAO,
                                   SurfaceTypeMapper theSurfaceTypeMapper,
                                   CourtDAO theCourtDAO,
-                                  CourtService theCourtService) {
+                                  ReservationDAO theReservationDAO,
+                                  ReservationSlotDAO theReservationSlotDAO,
+                                  ReservationIndex theReservationIndex,
+                                  CatalogCache theCatalogCache,
+                                  TariffEngine theTariffEngine,
+                                  CollectionVersions theCollectionVersions) {
         surfaceTypeDAO = theSurfaceTypeDAO;
         surfaceTypeMapper = theSurfaceTypeMapper;
         courtDAO = theCourtDAO;
-        courtService = theCourtService;
+        reservationDAO = theReservationDAO;
+        reservationSlotDAO = theReservationSlotDAO;
+        reservationIndex = theReservationIndex;
+        catalogCache = theCatalogCache;
+        tariffEngine = theTariffEngine;
+        collectionVersions = theCollectionVersions;
 
 
     }
@@ -85,6 +142,8 @@ public class SurfaceTypeServiceImpl implements SurfaceTypeService {
     public SurfaceTypeResponseDTO saveSurfaceType(SurfaceTypeDTO surfaceTypeDTO) {
         SurfaceType surfaceType = surfaceTypeMapper.toEntity(surfaceTypeDTO);
         SurfaceType saveSurfaceType = surfaceTypeDAO.save(surfaceType);
+        afterCommit(() -> catalogCache.evictSurfaceType(saveSurfaceType.getId()));
+        collectionVersions.surfaceTypesChanged();
 
         return surfaceTypeMapper.toResponseDTO(saveSurfaceType);
     }
@@ -94,36 +153,55 @@ public class SurfaceTypeServiceImpl implements SurfaceTypeService {
      * Updates an existing surface type identified by {@code id} using data from the provided {@link SurfaceTypeDTO}.
      * <p>
      * Verifies that a surface type with the given ID exists; if not, throws {@link SurfaceTypeNotFoundException}.
-     * Maps the DTO to an entity (setting its ID), merges it, and returns a {@link SurfaceTypeResponseDTO}
-     * representing the updated surface type.
+     * If an {@code expectedVersion} is given and the surface type has been changed since, throws
+     * {@link VersionMismatchException}. Otherwise copies the DTO onto the loaded entity, so its version is
+     * checked and incremented on flush, and returns a {@link SurfaceTypeResponseDTO} representing the updated
+     * surface type.
      * </p>
      *
      * @param surfaceTypeDTO The {@link SurfaceTypeDTO} containing updated name and minute price.
      * @param id             The unique ID of the surface type to update.
+     * @param expectedVersion The version the client based its change on, or {@code null}.
      * @return A {@link SurfaceTypeResponseDTO} with details of the updated surface type.
      * @throws SurfaceTypeNotFoundException if no surface type with the given ID exists.
+     * @throws VersionMismatchException     if the surface type has a different version than expected.
      */
+    @RetryOnConflict
     @Transactional
     @Override
-    public SurfaceTypeResponseDTO updateSurfaceType(SurfaceTypeDTO surfaceTypeDTO, Long id) {
+    public SurfaceTypeResponseDTO updateSurfaceType(SurfaceTypeDTO surfaceTypeDTO, Long id, Long expectedVersion) {
         Optional<SurfaceType> optionalSurfaceType = surfaceTypeDAO.findById(id);
 
         if (optionalSurfaceType.isEmpty()) {
             throw new SurfaceTypeNotFoundException("Update failed: Surface type with ID " + id + " does not exist");
         }
 
-        SurfaceType surfaceType = surfaceTypeMapper.toEntity(surfaceTypeDTO);
-        surfaceType.setId(id);
+        SurfaceType surfaceType = optionalSurfaceType.get();
+        if (expectedVersion != null && expectedVersion != surfaceType.getVersion()) {
+            throw new VersionMismatchException("Update failed: Surface type with ID " + id + " has version "
+                    + surfaceType.getVersion() + ", but version " + expectedVersion + " was expected");
+        }
+        surfaceTypeMapper.updateSurfaceTypeFromDTO(surfaceTypeDTO, surfaceType);
 
         SurfaceType updateSurfaceType = surfaceTypeDAO.update(surfaceType);
+        collectionVersions.surfaceTypesChanged();
+        collectionVersions.courtsChanged();
+        afterCommit(() -> {
+            catalogCache.evictSurfaceType(id);
+            tariffEngine.evictSurfaceType(id);
+        });
         return surfaceTypeMapper.toResponseDTO(updateSurfaceType);
     }
 
 
     /**
-     * Deletes a surface type by its ID. Marks the surface type as deleted (soft-delete),
-     * then retrieves all {@link Court} entities associated with that surface type and delegates
-     * their deletion to {@link CourtService#deleteCourt(Long)}.
+     * Deletes a surface type by its ID. Marks the surface type as deleted (soft-delete), then marks the
+     * reservations on its courts and the courts themselves as deleted and releases the courts' slot claims.
+     * <p>
+     * The cascade runs as one bulk statement per table scoped by the surface type, so deleting a busy surface type
+     * neither loads its reservations nor issues more statements than an idle one. Only the court numbers are read,
+     * to drop the courts from the {@link ReservationIndex} once committed.
+     * </p>
      * <p>
      * If no surface type with the given ID exists, throws {@link SurfaceTypeNotFoundException}.
      * </p>
@@ -131,6 +209,7 @@ public class SurfaceTypeServiceImpl implements SurfaceTypeService {
      * @param id The unique ID of the surface type to delete.
      * @throws SurfaceTypeNotFoundException if no surface type with the given ID exists.
      */
+    @RetryOnConflict
     @Transactional
     @Override
     public void deleteSurfaceType(Long id) {
@@ -141,14 +220,24 @@ public class SurfaceTypeServiceImpl implements SurfaceTypeService {
             surfaceType.setDeleted(true);
             surfaceTypeDAO.update(surfaceType);
 
-            List<Court> courts = courtDAO.findAllBySurfaceTypeId(id);
+            List<Integer> courtNumbers = courtDAO.findAllBySurfaceTypeId(id).stream()
+                    .map(Court::getCourtNumber)
+                    .toList();
 
-            if (!courts.isEmpty()) {
-                courts.stream()
-                        .forEach(court -> {
-                            courtService.deleteCourt(court.getId());
-                        });
+            reservationDAO.softDeleteAllBySurfaceTypeId(id);
+            reservationSlotDAO.releaseBySurfaceTypeId(id);
+            courtDAO.softDeleteAllBySurfaceTypeId(id);
+
+            collectionVersions.surfaceTypesChanged();
+            collectionVersions.courtsChanged();
+            if (!courtNumbers.isEmpty()) {
+                collectionVersions.allReservationsChanged();
             }
+            afterCommit(() -> {
+                courtNumbers.forEach(reservationIndex::removeCourt);
+                catalogCache.evictSurfaceType(id);
+                tariffEngine.evictSurfaceType(id);
+            });
 
         } else {
             throw new SurfaceTypeNotFoundException("Delete failed: Surface type with ID " + id + " was not found.");
@@ -157,7 +246,7 @@ public class SurfaceTypeServiceImpl implements SurfaceTypeService {
 
 
     /**
-     * Retrieves a surface type by its ID.
+     * Retrieves a surface type by its ID from the {@link CatalogCache}.
      * <p>
      * If a surface type with the given ID exists and is not marked deleted, returns a
      * {@link SurfaceTypeResponseDTO} representing it. Otherwise, throws {@link SurfaceTypeNotFoundException}.
@@ -169,9 +258,9 @@ public class SurfaceTypeServiceImpl implements SurfaceTypeService {
      */
     @Override
     public SurfaceTypeResponseDTO getSurfaceTypeById(Long id) {
-        Optional<SurfaceType> optionalSurfaceType = surfaceTypeDAO.findById(id);
+        Optional<SurfaceTypeResponseDTO> optionalSurfaceType = catalogCache.findSurfaceTypeById(id);
         if (optionalSurfaceType.isPresent()) {
-            return surfaceTypeMapper.toResponseDTO(optionalSurfaceType.get());
+            return optionalSurfaceType.get();
         } else {
             throw new SurfaceTypeNotFoundException("Surface type with id " + id + " not found");
         }
@@ -179,7 +268,7 @@ public class SurfaceTypeServiceImpl implements SurfaceTypeService {
 
 
     /**
-     * Retrieves all surface types in the system.
+     * Retrieves all surface types in the system from the {@link CatalogCache}.
      * <p>
      * Returns a list of {@link SurfaceTypeResponseDTO} for all existing (non-deleted) surface types.
      * If no surface types are found, throws {@link SurfaceTypeNotFoundException}.
@@ -190,13 +279,22 @@ public class SurfaceTypeServiceImpl implements SurfaceTypeService {
      */
     @Override
     public List<SurfaceTypeResponseDTO> getAllSurfaceTypes() {
-        List<SurfaceType> surfaceTypes = surfaceTypeDAO.findAll();
+        List<SurfaceTypeResponseDTO> surfaceTypes = catalogCache.findAllSurfaceTypes();
         if (surfaceTypes.isEmpty()){
             throw new SurfaceTypeNotFoundException("No Surface types found in the database");
         }
-        return surfaceTypes.stream()
-                .map(surfaceType -> surfaceTypeMapper.toResponseDTO(surfaceType))
-                .toList();
+        return surfaceTypes;
+    }
+
+
+    /**
+     * Returns the entity tag of the list of all surface types from its version stamp, without loading them.
+     *
+     * @return The current entity tag of the list of all surface types.
+     */
+    @Override
+    public String getAllSurfaceTypesETag() {
+        return ETags.of(collectionVersions.surfaceTypes());
     }
 
 
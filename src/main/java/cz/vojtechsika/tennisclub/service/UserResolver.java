@@ -0,0 +1,37 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dto.projection.UserIdentity;
+import cz.vojtechsika.tennisclub.entity.User;
+
+import java.util.List;
+
+/**
+ * UserResolver turns the customer of a booking, given by phone number and name, into a stored user. It is shared by
+ * single reservations, series and batches, so all of them create, rename and reactivate users the same way.
+ *
+ * <p>Every resolution writes through the database, which alone decides whether the user has to be inserted or
+ * renamed, so a name changed by another application instance is never mistaken for the current one. Both methods
+ * run in the caller's transaction.</p>
+ */
+public interface UserResolver {
+
+    /**
+     * Inserts the user with the given phone number, or renames or reactivates the existing one, and returns its
+     * identity.
+     *
+     * @param phoneNumber The phone number of the user.
+     * @param userName    The name the user should have.
+     * @return The identity of the user, carrying the given name.
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active.
+     */
+    UserIdentity resolve(String phoneNumber, String userName);
+
+
+    /**
+     * Inserts, renames or reactivates all the given users at once and sets their IDs.
+     *
+     * @param users The users to store, one per phone number; their {@code id} is set on return.
+     * @throws org.springframework.transaction.IllegalTransactionStateException if no transaction is active.
+     */
+    void resolveAll(List<User> users);
+}
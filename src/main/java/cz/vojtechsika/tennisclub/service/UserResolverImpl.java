@@ -0,0 +1,100 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.cache.UserIdCache;
+import cz.vojtechsika.tennisclub.dao.ReservationBatchDAO;
+import cz.vojtechsika.tennisclub.dao.UserDAO;
+import cz.vojtechsika.tennisclub.dto.projection.UserIdentity;
+import cz.vojtechsika.tennisclub.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+import static cz.vojtechsika.tennisclub.util.TransactionCallbacks.afterCommit;
+
+/**
+ * UserResolverImpl is the default implementation of {@link UserResolver}.
+ * <p>
+ * A single user is resolved with one {@code MERGE} that writes only a new user, a changed name or a reactivation
+ * (see {@link UserDAO#upsertIfChanged}). When it writes nothing, the ID is taken from the {@link UserIdCache}, and
+ * only on a miss read with a second query; the cache holds nothing but the ID, which never changes, so it is right
+ * on every instance. A batch merges all its users with one JDBC batch through {@link ReservationBatchDAO}.
+ * The IDs are cached once the transaction has been committed.
+ * </p>
+ */
+@Component
+public class UserResolverImpl implements UserResolver {
+
+    /**
+     * DAO upserting single users.
+     */
+    private final UserDAO userDAO;
+
+    /**
+     * DAO upserting the users of a batch.
+     */
+    private final ReservationBatchDAO reservationBatchDAO;
+
+    /**
+     * Cache of the users' IDs by phone number.
+     */
+    private final UserIdCache userIdCache;
+
+
+    /**
+     * Constructs a new UserResolverImpl with required dependencies.
+     *
+     * @param theUserDAO             DAO upserting single users.
+     * @param theReservationBatchDAO DAO upserting the users of a batch.
+     * @param theUserIdCache         Cache of the users' IDs by phone number.
+     */
+    @Autowired
+    public UserResolverImpl(UserDAO theUserDAO, ReservationBatchDAO theReservationBatchDAO,
+                            UserIdCache theUserIdCache) {
+        userDAO = theUserDAO;
+        reservationBatchDAO = theReservationBatchDAO;
+        userIdCache = theUserIdCache;
+    }
+
+
+    /**
+     * Upserts the user and returns its identity, reading its ID only when nothing was written and it is not
+     * cached.
+     *
+     * @param phoneNumber The phone number of the user.
+     * @param userName    The name the user should have.
+     * @return The identity of the user, carrying the given name.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public UserIdentity resolve(String phoneNumber, String userName) {
+        Optional<Long> cachedId = userIdCache.findId(phoneNumber);
+        Long id = userDAO.upsertIfChanged(phoneNumber, userName)
+                .or(() -> cachedId)
+                .orElseGet(() -> userDAO.findIdByPhone(phoneNumber));
+        if (cachedId.isEmpty()) {
+            afterCommit(() -> userIdCache.put(phoneNumber, id));
+        }
+        return new UserIdentity(id, phoneNumber, userName);
+    }
+
+
+    /**
+     * Upserts the users with one JDBC batch and caches their IDs after commit.
+     *
+     * @param users The users to store, one per phone number; their {@code id} is set on return.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void resolveAll(List<User> users) {
+        reservationBatchDAO.upsertUsers(users);
+        for (User user : users) {
+            String phoneNumber = user.getPhoneNumber();
+            Long id = user.getId();
+            afterCommit(() -> userIdCache.put(phoneNumber, id));
+        }
+    }
+}
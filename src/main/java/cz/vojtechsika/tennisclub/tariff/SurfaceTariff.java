@@ -0,0 +1,91 @@
+package cz.vojtechsika.tennisclub.tariff;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * SurfaceTariff is the compiled, immutable tariff of one surface type: the price of every minute of a day,
+ * with the surface, peak and weekend rules already applied, stored as prefix sums in exact integer units.
+ * The price of an interval is then the difference of two array entries, whatever the number of rules.
+ *
+ * <p>A day kind (weekday or weekend) has its own array: entry {@code m} holds the summed price of the minutes
+ * {@code [0, m)} of the day, so it has {@value #MINUTES_PER_DAY} + 1 entries. A minute's price is kept in
+ * millionths of a cent (the price in cents times three percentages), so the rules never round before
+ * the final price.</p>
+ */
+final class SurfaceTariff {
+
+    /**
+     * The number of minutes in a day.
+     */
+    static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * The version of the surface type the tariff has been compiled from.
+     */
+    private final long version;
+
+    /**
+     * Prefix sums of the minute prices on weekdays.
+     */
+    private final long[] weekday;
+
+    /**
+     * Prefix sums of the minute prices on weekend days.
+     */
+    private final long[] weekend;
+
+
+    SurfaceTariff(long theVersion, long[] theWeekday, long[] theWeekend) {
+        version = theVersion;
+        weekday = theWeekday;
+        weekend = theWeekend;
+    }
+
+
+    /**
+     * Builds the prefix sums of one day kind from the price of each minute of the day.
+     *
+     * @param minutePrices The price of each minute of the day, {@value #MINUTES_PER_DAY} entries.
+     * @return The prefix sums, {@value #MINUTES_PER_DAY} + 1 entries.
+     * @throws ArithmeticException if the sum of a day does not fit into a {@code long}.
+     */
+    static long[] prefixSums(long[] minutePrices) {
+        long[] sums = new long[minutePrices.length + 1];
+        for (int minute = 0; minute < minutePrices.length; minute++) {
+            sums[minute + 1] = Math.addExact(sums[minute], minutePrices[minute]);
+        }
+        return sums;
+    }
+
+
+    /**
+     * Returns the version of the surface type the tariff has been compiled from.
+     *
+     * @return The surface type's version.
+     */
+    long version() {
+        return version;
+    }
+
+
+    /**
+     * Sums the minute prices of the whole minutes between the start and the end. Like the reservation duration,
+     * the interval is {@code Duration.between(startTime, endTime).toMinutes()} minutes long from the start minute.
+     *
+     * @param startTime  The start of the reservation.
+     * @param endTime    The end of the reservation, on the same day.
+     * @param weekendDay Whether the reservation's day is charged as a weekend day.
+     * @return The summed price in millionths of a cent.
+     * @throws IllegalArgumentException if the interval does not lie within one day.
+     */
+    long sum(LocalDateTime startTime, LocalDateTime endTime, boolean weekendDay) {
+        int startMinute = startTime.getHour() * 60 + startTime.getMinute();
+        long minutes = Duration.between(startTime, endTime).toMinutes();
+        if (minutes < 0 || startMinute + minutes > MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Cannot price " + startTime + " - " + endTime + ", it is not within one day");
+        }
+        long[] sums = weekendDay ? weekend : weekday;
+        return sums[startMinute + (int) minutes] - sums[startMinute];
+    }
+}
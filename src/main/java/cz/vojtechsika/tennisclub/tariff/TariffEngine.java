@@ -0,0 +1,87 @@
+package cz.vojtechsika.tennisclub.tariff;
+
+import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
+import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import cz.vojtechsika.tennisclub.enums.GameType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * TariffEngine prices court reservations. It applies the pricing rules of {@link TariffProperties}
+ * (peak hours, weekend days, surface types and game types) to the surface type's minute price.
+ *
+ * <p>The engine compiles each surface type into a {@link SurfaceTariff} of per-minute prefix sums
+ * the first time the surface type is priced. After that, pricing a reservation is integer arithmetic that
+ * does not depend on the number of rules. Prices are computed in whole cents and converted to
+ * {@link BigDecimal} only by {@link #price(SurfaceTypeResponseDTO, LocalDateTime, LocalDateTime, GameType)}
+ * and its overload, for the entities and responses.</p>
+ *
+ * <p>A compiled tariff is keyed by the surface type's ID and version. A surface type priced with a different
+ * version is compiled again and replaces the old tariff atomically, so a changed minute price takes effect
+ * as soon as the callers see the new version. The rules themselves are read once at startup; changing them
+ * takes a restart.</p>
+ */
+public interface TariffEngine {
+
+    /**
+     * Computes the price of reserving a court of the given surface type, in cents.
+     *
+     * @param surfaceType The surface type of the court, with its current version and minute price.
+     * @param startTime   The start of the reservation.
+     * @param endTime     The end of the reservation, on the same day.
+     * @param gameType    The type of game played.
+     * @return The price in cents.
+     */
+    long priceInCents(SurfaceTypeResponseDTO surfaceType, LocalDateTime startTime, LocalDateTime endTime, GameType gameType);
+
+
+    /**
+     * Computes the price of reserving a court of the given surface type entity, in cents.
+     *
+     * @param surfaceType The surface type of the court.
+     * @param startTime   The start of the reservation.
+     * @param endTime     The end of the reservation, on the same day.
+     * @param gameType    The type of game played.
+     * @return The price in cents.
+     */
+    long priceInCents(SurfaceType surfaceType, LocalDateTime startTime, LocalDateTime endTime, GameType gameType);
+
+
+    /**
+     * Computes the price of reserving a court of the given surface type.
+     *
+     * @param surfaceType The surface type of the court, with its current version and minute price.
+     * @param startTime   The start of the reservation.
+     * @param endTime     The end of the reservation, on the same day.
+     * @param gameType    The type of game played.
+     * @return The price with two decimal places.
+     */
+    default BigDecimal price(SurfaceTypeResponseDTO surfaceType, LocalDateTime startTime, LocalDateTime endTime,
+                             GameType gameType) {
+        return BigDecimal.valueOf(priceInCents(surfaceType, startTime, endTime, gameType), 2);
+    }
+
+
+    /**
+     * Computes the price of reserving a court of the given surface type entity.
+     *
+     * @param surfaceType The surface type of the court.
+     * @param startTime   The start of the reservation.
+     * @param endTime     The end of the reservation, on the same day.
+     * @param gameType    The type of game played.
+     * @return The price with two decimal places.
+     */
+    default BigDecimal price(SurfaceType surfaceType, LocalDateTime startTime, LocalDateTime endTime,
+                             GameType gameType) {
+        return BigDecimal.valueOf(priceInCents(surfaceType, startTime, endTime, gameType), 2);
+    }
+
+
+    /**
+     * Drops the compiled tariff of a surface type that has been changed or deleted.
+     *
+     * @param surfaceTypeId The ID of the surface type.
+     */
+    void evictSurfaceType(Long surfaceTypeId);
+}
@@ -0,0 +1,169 @@
+package cz.vojtechsika.tennisclub.tariff;
+
+import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
+import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * TariffEngineImpl is the default implementation of {@link TariffEngine}.
+ * <p>
+ * The rules are validated and copied once, when the engine is built. A surface type's tariff is compiled on its
+ * first price and replaced when the surface type is priced with another version.
+ * </p>
+ * <p>
+ * A minute's price is the minute price in cents multiplied by the surface, peak and weekend percentages, kept
+ * in millionths of a cent. The game type percentage is applied to the summed interval, and the result is rounded
+ * half up to whole cents once. With the default rules the price equals the minute price times the minutes,
+ * doubled for doubles.
+ * </p>
+ */
+@Component
+public class TariffEngineImpl implements TariffEngine {
+
+    /**
+     * The number of units of a price summed over a compiled tariff and multiplied by the game type percentage
+     * in one cent: one hundredth for each of the four percentages.
+     */
+    static final long UNITS_PER_CENT = 100L * 100 * 100 * 100;
+
+    /**
+     * The validated pricing rules.
+     */
+    private final Rules rules;
+
+    /**
+     * The surface tariffs compiled with the rules, by surface type ID.
+     */
+    private final ConcurrentHashMap<Long, SurfaceTariff> surfaces = new ConcurrentHashMap<>();
+
+
+    /**
+     * Constructs a new TariffEngineImpl with the configured rules.
+     *
+     * @param theRules The pricing rules ({@code app.tariff.*}).
+     * @throws IllegalArgumentException if the rules are invalid.
+     */
+    @Autowired
+    public TariffEngineImpl(TariffProperties theRules) {
+        rules = Rules.of(theRules);
+    }
+
+
+    @Override
+    public long priceInCents(SurfaceTypeResponseDTO surfaceType, LocalDateTime startTime, LocalDateTime endTime,
+                             GameType gameType) {
+        return priceInCents(surfaceType.getId(), surfaceType.getVersion(), surfaceType.getName(),
+                surfaceType.getMinutePrice(), startTime, endTime, gameType);
+    }
+
+
+    @Override
+    public long priceInCents(SurfaceType surfaceType, LocalDateTime startTime, LocalDateTime endTime,
+                             GameType gameType) {
+        return priceInCents(surfaceType.getId(), surfaceType.getVersion(), surfaceType.getName(),
+                surfaceType.getMinutePrice(), startTime, endTime, gameType);
+    }
+
+
+    @Override
+    public void evictSurfaceType(Long surfaceTypeId) {
+        surfaces.remove(surfaceTypeId);
+    }
+
+
+    // Prices the interval with the surface type's compiled tariff, compiling it first if it is missing or stale
+    private long priceInCents(Long surfaceTypeId, long version, String name, BigDecimal minutePrice,
+                              LocalDateTime startTime, LocalDateTime endTime, GameType gameType) {
+        SurfaceTariff tariff = surfaceTypeId == null ? null : surfaces.get(surfaceTypeId);
+        if (tariff == null || tariff.version() != version) {
+            tariff = rules.compile(version, name, minutePrice);
+            if (surfaceTypeId != null) {
+                // A caller holding an older version must not replace the tariff of a newer one
+                surfaces.merge(surfaceTypeId, tariff,
+                        (cached, compiled) -> cached.version() > compiled.version() ? cached : compiled);
+            }
+        }
+
+        long sum = tariff.sum(startTime, endTime, rules.weekendDays().contains(startTime.getDayOfWeek()));
+        long units = Math.multiplyExact(sum, rules.gameTypePercent(gameType));
+        return (units + UNITS_PER_CENT / 2) / UNITS_PER_CENT;
+    }
+
+
+    /**
+     * A validated, immutable copy of {@link TariffProperties} with the peak hours as minutes of the day.
+     */
+    private record Rules(int peakStartMinute, int peakEndMinute, int peakPercent, int weekendPercent,
+                         Set<DayOfWeek> weekendDays, Map<String, Integer> surfacePercent,
+                         Map<GameType, Integer> gameTypePercent) {
+
+        static Rules of(TariffProperties properties) {
+            LocalTime peakStart = properties.getPeakStart();
+            LocalTime peakEnd = properties.getPeakEnd();
+            if (peakStart == null || peakEnd == null || peakEnd.isBefore(peakStart)) {
+                throw new IllegalArgumentException("Peak hours must be a range within one day, got "
+                        + peakStart + " - " + peakEnd);
+            }
+
+            Map<String, Integer> surfacePercent = new HashMap<>();
+            properties.getSurfacePercent().forEach((name, percent) ->
+                    surfacePercent.put(name.toLowerCase(Locale.ROOT), requirePercent("surface " + name, percent)));
+            Map<GameType, Integer> gameTypePercent = new EnumMap<>(GameType.class);
+            properties.getGameTypePercent().forEach((gameType, percent) ->
+                    gameTypePercent.put(gameType, requirePercent("game type " + gameType, percent)));
+            Set<DayOfWeek> weekendDays = properties.getWeekendDays().isEmpty()
+                    ? EnumSet.noneOf(DayOfWeek.class)
+                    : EnumSet.copyOf(properties.getWeekendDays());
+
+            return new Rules(peakStart.toSecondOfDay() / 60, peakEnd.toSecondOfDay() / 60,
+                    requirePercent("peak", properties.getPeakPercent()),
+                    requirePercent("weekend", properties.getWeekendPercent()),
+                    weekendDays, surfacePercent, gameTypePercent);
+        }
+
+        int gameTypePercent(GameType gameType) {
+            return gameTypePercent.getOrDefault(gameType, 100);
+        }
+
+        // Computes the price of every minute of a weekday and a weekend day and sums them up
+        SurfaceTariff compile(long version, String surfaceName, BigDecimal minutePrice) {
+            long cents = minutePrice.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+            long surfaceCents = Math.multiplyExact(cents, surfaceName == null
+                    ? 100 : surfacePercent.getOrDefault(surfaceName.toLowerCase(Locale.ROOT), 100));
+
+            long[] weekday = new long[SurfaceTariff.MINUTES_PER_DAY];
+            long[] weekend = new long[SurfaceTariff.MINUTES_PER_DAY];
+            for (int minute = 0; minute < SurfaceTariff.MINUTES_PER_DAY; minute++) {
+                boolean peak = minute >= peakStartMinute && minute < peakEndMinute;
+                long price = Math.multiplyExact(surfaceCents, peak ? peakPercent : 100);
+                weekday[minute] = Math.multiplyExact(price, 100);
+                weekend[minute] = Math.multiplyExact(price, weekendPercent);
+            }
+            return new SurfaceTariff(version, SurfaceTariff.prefixSums(weekday), SurfaceTariff.prefixSums(weekend));
+        }
+
+        private static int requirePercent(String rule, Integer percent) {
+            if (percent == null || percent < 0) {
+                throw new IllegalArgumentException("Percentage of the " + rule + " rule must not be negative, got "
+                        + percent);
+            }
+            return percent;
+        }
+    }
+}
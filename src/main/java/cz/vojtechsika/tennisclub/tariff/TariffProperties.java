@@ -0,0 +1,78 @@
+package cz.vojtechsika.tennisclub.tariff;
+
+import cz.vojtechsika.tennisclub.enums.GameType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TariffProperties holds the pricing rules applied on top of the surface types' minute prices
+ * ({@code app.tariff.*}).
+ * <p>
+ * Every rule is a percentage of the minute price, {@code 100} leaves the price unchanged. The rules that apply
+ * to a minute multiply: a doubles game in the peak hours of a weekend on a surface with its own rule pays
+ * {@code minutePrice * surface% * peak% * weekend% * doubles%}. The defaults keep the plain minute price
+ * and double it for {@link GameType#DOUBLES}.
+ * </p>
+ * <pre>
+ * app.tariff.peak-start=17:00
+ * app.tariff.peak-end=21:00
+ * app.tariff.peak-percent=125
+ * app.tariff.weekend-percent=110
+ * app.tariff.weekend-days=SATURDAY,SUNDAY
+ * app.tariff.surface-percent[Clay]=90
+ * app.tariff.game-type-percent.DOUBLES=180
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "app.tariff")
+@Getter
+@Setter
+public class TariffProperties {
+
+    /**
+     * The first minute of the daily peak hours.
+     */
+    private LocalTime peakStart = LocalTime.of(17, 0);
+
+    /**
+     * The end of the daily peak hours (exclusive).
+     */
+    private LocalTime peakEnd = LocalTime.of(21, 0);
+
+    /**
+     * The percentage of the minute price charged in the peak hours.
+     */
+    private int peakPercent = 100;
+
+    /**
+     * The percentage of the minute price charged on the weekend days.
+     */
+    private int weekendPercent = 100;
+
+    /**
+     * The days charged with {@link #weekendPercent}.
+     */
+    private Set<DayOfWeek> weekendDays = EnumSet.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+
+    /**
+     * The percentage of the minute price by surface type name (case-insensitive); other surfaces pay 100 %.
+     */
+    private Map<String, Integer> surfacePercent = new HashMap<>();
+
+    /**
+     * The percentage of the price by game type; a game type without an entry pays 100 %.
+     */
+    private Map<GameType, Integer> gameTypePercent = new EnumMap<>(Map.of(
+            GameType.SINGLES, 100,
+            GameType.DOUBLES, 200));
+}
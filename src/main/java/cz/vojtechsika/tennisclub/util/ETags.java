@@ -0,0 +1,99 @@
+package cz.vojtechsika.tennisclub.util;
+
+/**
+ * ETags is a small utility for converting entity versions to HTTP entity tags and back.
+ * The entity tag of a resource is simply its {@code @Version} value in quotes, e.g. {@code "3"}; the entity tag of
+ * a collection is its version stamp from {@link cz.vojtechsika.tennisclub.cache.CollectionVersions}.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+
+    /**
+     * Builds a strong entity tag for the given entity version.
+     *
+     * @param version The current version of the entity.
+     * @return The quoted entity tag, e.g. {@code "3"}.
+     */
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+
+    /**
+     * Builds a strong entity tag for a collection whose content also depends on something besides its version,
+     * e.g. the current minute for a list of future reservations.
+     *
+     * @param version   The current version stamp of the collection.
+     * @param qualifier The other value the content depends on.
+     * @return The quoted entity tag, e.g. {@code "1843201-29163020"}.
+     */
+    public static String of(long version, long qualifier) {
+        return "\"" + version + "-" + qualifier + "\"";
+    }
+
+
+    /**
+     * Checks whether an {@code If-None-Match} header matches the current entity tag, i.e. whether the client's copy
+     * is still current and can be answered with {@code 304 Not Modified}.
+     * <p>
+     * The header may list several tags separated by commas. As required for {@code If-None-Match}, tags are compared
+     * weakly, so {@code W/"3"} matches {@code "3"}. The wildcard {@code *} matches any current tag.
+     * </p>
+     *
+     * @param ifNoneMatch The raw {@code If-None-Match} header value, may be {@code null}.
+     * @param eTag        The current entity tag of the resource.
+     * @return {@code true} if one of the tags matches, {@code false} otherwise or if the header is missing.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Parses the value of an {@code If-Match} header into the expected entity version.
+     * <p>
+     * Both strong ({@code "3"}) and weak ({@code W/"3"}) tags are accepted. A missing header or the
+     * wildcard {@code *} means the client does not require any particular version, in which case
+     * {@code null} is returned. A tag that is not a version of this API can never match, so it is
+     * mapped to {@code -1}, which no entity ever has.
+     * </p>
+     *
+     * @param ifMatch The raw {@code If-Match} header value, may be {@code null}.
+     * @return The expected version, or {@code null} if the update is unconditional.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package cz.vojtechsika.tennisclub.util;
+
+import java.time.LocalTime;
+
+
+/**
+ * OpeningHours holds the daily window in which courts can be reserved.
+ * Every reservation must start and end within {@link #OPENING_TIME} and {@link #CLOSING_TIME}.
+ */
+public final class OpeningHours {
+
+    /**
+     * The earliest time a reservation may start.
+     */
+    public static final LocalTime OPENING_TIME = LocalTime.of(10, 0);
+
+    /**
+     * The latest time a reservation may end.
+     */
+    public static final LocalTime CLOSING_TIME = LocalTime.of(22, 0);
+
+    /**
+     * Minute of day at which the club opens.
+     */
+    public static final int OPENING_MINUTE = OPENING_TIME.getHour() * 60 + OPENING_TIME.getMinute();
+
+    /**
+     * Minute of day at which the club closes.
+     */
+    public static final int CLOSING_MINUTE = CLOSING_TIME.getHour() * 60 + CLOSING_TIME.getMinute();
+
+    private OpeningHours() {
+    }
+}
@@ -0,0 +1,60 @@
+package cz.vojtechsika.tennisclub.util;
+
+import cz.vojtechsika.tennisclub.exception.InvalidPageRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * ReservationCursor is the position of a reservation in the {@code (startTime, id)} order of the paged
+ * reservation lists. The next page continues right after the last reservation of the previous one, so a
+ * deep page is read through the index exactly like the first one instead of skipping over an offset.
+ * <p>
+ * Clients receive the cursor as an opaque URL-safe token; its format is not part of the API.
+ * </p>
+ *
+ * @param startTime The start time of the last reservation of the previous page.
+ * @param id        The ID of the last reservation of the previous page, breaking ties of equal start times.
+ */
+public record ReservationCursor(LocalDateTime startTime, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+
+    /**
+     * Encodes the cursor into an opaque URL-safe token.
+     *
+     * @return The token to be sent back by the client to get the next page.
+     */
+    public String encode() {
+        String raw = startTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Decodes a token issued by {@link #encode()}.
+     *
+     * @param token The token sent by the client, may be {@code null} or blank for the first page.
+     * @return The decoded cursor, or {@code null} when no token was sent.
+     * @throws InvalidPageRequestException if the token was not issued by this API.
+     */
+    public static ReservationCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidPageRequestException("Invalid cursor " + token);
+            }
+            return new ReservationCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPageRequestException("Invalid cursor " + token);
+        }
+    }
+}
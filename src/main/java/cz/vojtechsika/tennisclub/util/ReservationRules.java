@@ -0,0 +1,66 @@
+package cz.vojtechsika.tennisclub.util;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+
+/**
+ * ReservationRules holds the time rules every reservation has to satisfy, so single and batch bookings
+ * are validated the same way.
+ * <p>
+ * A reservation must start in the future, last more than zero and at most {@link #MAX_DURATION_MINUTES} minutes,
+ * and start and end on the same day within {@link OpeningHours}.
+ * </p>
+ */
+public final class ReservationRules {
+
+    /**
+     * The longest allowed reservation in minutes.
+     */
+    public static final int MAX_DURATION_MINUTES = 120;
+
+    private ReservationRules() {
+    }
+
+
+    /**
+     * Checks whether the reservation starts after the given moment.
+     *
+     * @param startTime The start of the reservation.
+     * @param now       The current time.
+     * @return {@code true} if the reservation starts in the future.
+     */
+    public static boolean isInFuture(LocalDateTime startTime, LocalDateTime now) {
+        return startTime.isAfter(now);
+    }
+
+
+    /**
+     * Checks whether the reservation lasts more than zero and at most {@link #MAX_DURATION_MINUTES} minutes.
+     *
+     * @param startTime The start of the reservation.
+     * @param endTime   The end of the reservation.
+     * @return {@code true} if the duration is allowed.
+     */
+    public static boolean hasAllowedDuration(LocalDateTime startTime, LocalDateTime endTime) {
+        long minutes = Duration.between(startTime, endTime).toMinutes();
+        return minutes > 0 && minutes <= MAX_DURATION_MINUTES;
+    }
+
+
+    /**
+     * Checks whether the reservation starts and ends on the same day within the opening hours.
+     *
+     * @param startTime The start of the reservation.
+     * @param endTime   The end of the reservation.
+     * @return {@code true} if the reservation fits into the opening hours of its day.
+     */
+    public static boolean isWithinOpeningHours(LocalDateTime startTime, LocalDateTime endTime) {
+        LocalTime start = startTime.toLocalTime();
+        LocalTime end = endTime.toLocalTime();
+
+        return startTime.toLocalDate().equals(endTime.toLocalDate())
+                && !start.isBefore(OpeningHours.OPENING_TIME) && !end.isAfter(OpeningHours.CLOSING_TIME);
+    }
+}
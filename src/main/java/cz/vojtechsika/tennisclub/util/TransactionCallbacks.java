@@ -0,0 +1,59 @@
+package cz.vojtechsika.tennisclub.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+
+/**
+ * TransactionCallbacks is a small utility for deferring work until the surrounding Spring transaction finishes.
+ * It is used to keep in-memory structures (indexes, caches) in line with what has actually been committed
+ * to the database.
+ *
+ * <p>When no transaction synchronization is active (e.g., in plain unit tests or non-transactional callers),
+ * the callback is executed immediately.</p>
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+
+    /**
+     * Runs the given action after the current transaction has been successfully committed.
+     * If the transaction is rolled back, the action is never executed.
+     *
+     * @param action The action to be executed after commit.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+
+    /**
+     * Runs the given action after the current transaction has completed, regardless of whether it was
+     * committed or rolled back.
+     *
+     * @param action The action to be executed after completion.
+     */
+    public static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- Stamps of the collections the clients poll (see CollectionVersionsImpl). The sequence starts at the time the
+-- database is created in milliseconds shifted left by 20 bits, so the stamps keep growing across restarts.
+CREATE SEQUENCE IF NOT EXISTS collection_version_seq
+    START WITH DATEDIFF('MILLISECOND', TIMESTAMP '1970-01-01 00:00:00', CURRENT_TIMESTAMP) * 1048576;
@@ -3,16 +3,25 @@ package cz.vojtechsika.tennisclub.api;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.vojtechsika.tennisclub.dto.CourtDTO;
+import cz.vojtechsika.tennisclub.dto.response.CourtAvailabilityResponseDTO;
 import cz.vojtechsika.tennisclub.dto.response.CourtResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.DayAvailabilityDTO;
+import cz.vojtechsika.tennisclub.dto.response.FreeCourtResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.FreeRangeDTO;
 import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
 import cz.vojtechsika.tennisclub.exception.CourtNotFoundException;
+import cz.vojtechsika.tennisclub.enums.AvailabilityFormat;
+import cz.vojtechsika.tennisclub.enums.GameType;
 import cz.vojtechsika.tennisclub.exception.CourtNumberAlreadyExistsException;
+import cz.vojtechsika.tennisclub.exception.InvalidDateRangeException;
 import cz.vojtechsika.tennisclub.exception.SurfaceTypeNotFoundException;
+import cz.vojtechsika.tennisclub.service.AvailabilityService;
 import cz.vojtechsika.tennisclub.service.CourtService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -20,6 +29,10 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +49,9 @@ class CourtControllerWebLayerTest {
     @MockitoBean
     private CourtService courtService;
 
+    @MockitoBean
+    private AvailabilityService availabilityService;
+
     @Autowired
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -183,6 +199,7 @@ class CourtControllerWebLayerTest {
         courtResponseDTO.setId(courtId);
         courtResponseDTO.setCourtNumber(courtNumber);
         courtResponseDTO.setSurfaceTypeResponseDTO(surfaceTypeResponseDTO);
+        courtResponseDTO.setVersion(7L);
 
         RequestBuilder requestBuilder = MockMvcRequestBuilders
                 .get("/api/courts/{id}", courtId)
@@ -213,6 +230,9 @@ class CourtControllerWebLayerTest {
         assertEquals(200, mvcResult.getResponse().getStatus(),
                 "Should return status code 200");
 
+        assertEquals("\"7\"", mvcResult.getResponse().getHeader(HttpHeaders.ETAG),
+                "ETag should carry the court version");
+
         // Verify
         verify(courtService,times(1)).getCourtById(eq(courtId));
 
@@ -315,6 +335,65 @@ class CourtControllerWebLayerTest {
 
     }
 
+    @Test
+    @DisplayName("Fetch all courts with the current ETag should return 304 without loading the courts")
+    void getAllCourts_matchingIfNoneMatch_return304() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/courts")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"7\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(courtService.getAllCourtsETag()).thenReturn("\"7\"");
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(304, mvcResult.getResponse().getStatus(),
+                "Should return status code 304 Not Modified");
+        assertEquals("\"7\"", mvcResult.getResponse().getHeader(HttpHeaders.ETAG),
+                "ETag mismatch");
+        assertEquals("", mvcResult.getResponse().getContentAsString(),
+                "Body should be empty");
+
+        // Verify
+        verify(courtService, never()).getAllCourts();
+
+    }
+
+    @Test
+    @DisplayName("Fetch all courts with an outdated ETag should return the courts with the current ETag")
+    void getAllCourts_outdatedIfNoneMatch_returnCourtsWithETag() throws Exception {
+        // Arrange
+        CourtResponseDTO courtResponseDTO = new CourtResponseDTO();
+        courtResponseDTO.setId(1L);
+        courtResponseDTO.setCourtNumber(101);
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/courts")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"6\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(courtService.getAllCourtsETag()).thenReturn("\"7\"");
+        when(courtService.getAllCourts()).thenReturn(List.of(courtResponseDTO));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(),
+                "Should return status code 200 OK");
+        assertEquals("\"7\"", mvcResult.getResponse().getHeader(HttpHeaders.ETAG),
+                "ETag mismatch");
+
+        // Verify
+        verify(courtService, times(1)).getAllCourts();
+
+    }
+
     @Test
     @DisplayName("Fetch all non existed court should return 404")
     void getAllCourts_NonExistedCourtsInDatabase_return404() throws Exception {
@@ -367,7 +446,7 @@ class CourtControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(courtDTO));
 
-        when(courtService.updateCourt(any(CourtDTO.class), eq(courtId))).thenReturn(courtResponseDTO);
+        when(courtService.updateCourt(any(CourtDTO.class), eq(courtId), isNull())).thenReturn(courtResponseDTO);
 
         // Act
         MvcResult mvcResult = mockMvc.perform(requestBuilder)
@@ -392,7 +471,7 @@ class CourtControllerWebLayerTest {
                 "Should return status code 200 OK");
 
         // Verify
-        verify(courtService,times(1)).updateCourt(any(CourtDTO.class), eq(courtId));
+        verify(courtService,times(1)).updateCourt(any(CourtDTO.class), eq(courtId), isNull());
 
     }
 
@@ -420,7 +499,7 @@ class CourtControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(courtDTO));
 
-        when(courtService.updateCourt(any(CourtDTO.class), eq(courtId)))
+        when(courtService.updateCourt(any(CourtDTO.class), eq(courtId), isNull()))
                 .thenThrow(new SurfaceTypeNotFoundException("Surface type was not found in the database"));
 
         // Act
@@ -432,7 +511,7 @@ class CourtControllerWebLayerTest {
                 "Should return status code 404 NOT FOUND");
 
         // Verify
-        verify(courtService,times(1)).updateCourt(any(CourtDTO.class), eq(courtId));
+        verify(courtService,times(1)).updateCourt(any(CourtDTO.class), eq(courtId), isNull());
 
     }
 
@@ -460,7 +539,7 @@ class CourtControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(courtDTO));
 
-        when(courtService.updateCourt(any(CourtDTO.class), eq(courtId)))
+        when(courtService.updateCourt(any(CourtDTO.class), eq(courtId), isNull()))
                 .thenThrow(new CourtNotFoundException("No Court found in the database"));
 
         // Act
@@ -472,7 +551,7 @@ class CourtControllerWebLayerTest {
                 "Should return status code 404 NOT FOUND");
 
         // Verify
-        verify(courtService,times(1)).updateCourt(any(CourtDTO.class), eq(courtId));
+        verify(courtService,times(1)).updateCourt(any(CourtDTO.class), eq(courtId), isNull());
 
     }
 
@@ -538,39 +617,131 @@ class CourtControllerWebLayerTest {
     }
 
 
+    @Test
+    @DisplayName("Get court availability for a single day")
+    void getCourtAvailability_onlyFromDate_returnAvailabilityOfThatDay() throws Exception {
 
+        // Arrange
+        int courtNumber = 101;
+        LocalDate date = LocalDate.of(2030, 5, 28);
 
+        DayAvailabilityDTO dayAvailabilityDTO = new DayAvailabilityDTO();
+        dayAvailabilityDTO.setDate(date);
+        dayAvailabilityDTO.setFreeRanges(List.of(new FreeRangeDTO(LocalTime.of(10, 0), LocalTime.of(22, 0))));
 
+        CourtAvailabilityResponseDTO availabilityResponseDTO = new CourtAvailabilityResponseDTO(courtNumber,
+                LocalTime.of(10, 0), LocalTime.of(22, 0), 15, List.of(dayAvailabilityDTO));
 
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/courts/{courtNumber}/availability", courtNumber)
+                .param("from", "2030-05-28")
+                .accept(MediaType.APPLICATION_JSON);
 
+        when(availabilityService.getCourtAvailability(courtNumber, date, date, AvailabilityFormat.RANGES))
+                .thenReturn(availabilityResponseDTO);
 
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
 
+        CourtAvailabilityResponseDTO responseDTO = objectMapper.readValue(
+                mvcResult.getResponse().getContentAsString(), CourtAvailabilityResponseDTO.class);
 
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(),
+                "Should return status code 200 OK");
 
+        assertEquals(courtNumber, responseDTO.getCourtNumber(),
+                "Court number mismatch");
 
+        assertEquals(1, responseDTO.getDays().size(),
+                "Should return one day");
 
+        assertEquals(LocalTime.of(22, 0), responseDTO.getDays().get(0).getFreeRanges().get(0).getTo(),
+                "Free range mismatch");
 
+        // Verify
+        verify(availabilityService, times(1))
+                .getCourtAvailability(courtNumber, date, date, AvailabilityFormat.RANGES);
+    }
 
+    @Test
+    @DisplayName("Get court availability with reversed range should return 400")
+    void getCourtAvailability_fromAfterTo_return400() throws Exception {
 
+        // Arrange
+        int courtNumber = 101;
+        LocalDate from = LocalDate.of(2030, 5, 28);
+        LocalDate to = LocalDate.of(2030, 5, 27);
 
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/courts/{courtNumber}/availability", courtNumber)
+                .param("from", from.toString())
+                .param("to", to.toString())
+                .param("format", "BITMAP")
+                .accept(MediaType.APPLICATION_JSON);
 
+        when(availabilityService.getCourtAvailability(courtNumber, from, to, AvailabilityFormat.BITMAP))
+                .thenThrow(new InvalidDateRangeException("Date 'from' must not be after date 'to'"));
 
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
 
+        // Assert
+        assertEquals(400, mvcResult.getResponse().getStatus(),
+                "Should return 400 BAD REQUEST");
 
+        // Verify
+        verify(availabilityService, times(1))
+                .getCourtAvailability(courtNumber, from, to, AvailabilityFormat.BITMAP);
+    }
 
+    @Test
+    @DisplayName("Find free courts for time window")
+    void findFreeCourts_validWindow_returnFreeCourts() throws Exception {
 
+        // Arrange
+        LocalDateTime startTime = LocalDateTime.of(2030, 5, 28, 18, 0);
+        LocalDateTime endTime = LocalDateTime.of(2030, 5, 28, 19, 30);
+        Long surfaceTypeId = 1L;
 
+        SurfaceTypeResponseDTO surfaceTypeResponseDTO = new SurfaceTypeResponseDTO(surfaceTypeId, "Clay", BigDecimal.ONE, 0L);
+        FreeCourtResponseDTO freeCourtResponseDTO =
+                new FreeCourtResponseDTO(2L, 101, surfaceTypeResponseDTO, new BigDecimal("90"));
 
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/api/courts/free")
+                .param("startTime", "2030-05-28T18:00")
+                .param("endTime", "2030-05-28T19:30")
+                .param("surfaceTypeId", surfaceTypeId.toString())
+                .accept(MediaType.APPLICATION_JSON);
 
+        when(availabilityService.findFreeCourts(startTime, endTime, surfaceTypeId, GameType.SINGLES))
+                .thenReturn(List.of(freeCourtResponseDTO));
 
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
 
+        List<FreeCourtResponseDTO> responseDTOs = objectMapper.readValue(
+                mvcResult.getResponse().getContentAsString(), new TypeReference<>() {});
 
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(),
+                "Should return status code 200 OK");
 
+        assertEquals(1, responseDTOs.size(),
+                "Should return one free court");
 
+        assertEquals(101, responseDTOs.get(0).getCourtNumber(),
+                "Court number mismatch");
 
+        assertEquals("Clay", responseDTOs.get(0).getSurfaceTypeResponseDTO().getName(),
+                "Surface type mismatch");
 
-
-
-
-
-}
\ No newline at end of file
+        // Verify
+        verify(availabilityService, times(1))
+                .findFreeCourts(startTime, endTime, surfaceTypeId, GameType.SINGLES);
+        verify(courtService, never()).getCourtById(any());
+    }
+}
@@ -0,0 +1,161 @@
+package cz.vojtechsika.tennisclub.api;
+
+import cz.vojtechsika.tennisclub.cache.CatalogCache;
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.service.ReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements Hibernate prepares while serving the read endpoints. Every endpoint must answer with
+ * a single select however many reservations or courts it returns, so lazy associations touched by the mappers
+ * cannot turn into one extra select per row. The history lists also read the archive of past reservations, with
+ * a second select. Court endpoints are measured on a miss of the {@link CatalogCache}.
+ * A conditional request whose list has not changed must be answered without any statement.
+ */
+@SpringBootTest
+class ReadPathStatementCountIntegrationTest {
+
+    private static final String PHONE_NUMBER = "+420 704 000 001";
+
+    private static final String CONDITIONAL_PHONE_NUMBER = "+420 704 000 002";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CourtDAO courtDAO;
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    private MockMvc mockMvc;
+
+    private Statistics statistics;
+
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+
+    @Test
+    @DisplayName("Reservation endpoints read their reservations, courts and users with one statement per table")
+    void reservationEndpoints_severalReservations_oneStatementEach() throws Exception {
+
+        // Arrange
+        List<Long> ids = createReservations(LocalDate.now().plusDays(700));
+
+        // Act and Assert
+        assertEquals(2, statementsOf("/api/reservations?limit=10"), "Page of all reservations");
+        assertEquals(2, statementsOf("/api/reservations/court/103?limit=10"), "Page of a court");
+        assertEquals(2, statementsOf("/api/reservations/phone/" + PHONE_NUMBER + "?limit=10"),
+                "Page of a phone number");
+        assertEquals(1, statementsOf("/api/reservations/phone/" + PHONE_NUMBER + "?limit=10&futureOnly=true"),
+                "Page of future reservations of a phone number");
+        assertEquals(1, statementsOf("/api/reservations/" + ids.get(0)), "Reservation by id");
+        assertEquals(1, statementsOf("/api/reservations/" + ids.get(0)), "Repeated reservation by id");
+    }
+
+    @Test
+    @DisplayName("Court endpoints read their courts and surface types with one statement")
+    void courtEndpoints_severalCourts_oneStatementEach() throws Exception {
+
+        // Arrange
+        Long courtId = courtDAO.findByCourtNumber(104).orElseThrow().getId();
+        catalogCache.evictCourt(courtId, 104);
+
+        // Act and Assert
+        assertEquals(1, statementsOf("/api/courts"), "All courts");
+        assertEquals(1, statementsOf("/api/courts/" + courtId), "Court by id");
+        assertEquals(0, statementsOf("/api/courts/" + courtId), "Cached court by id");
+    }
+
+    @Test
+    @DisplayName("Conditional GET with the current ETag is answered without a statement until the list changes")
+    void conditionalGet_currentETag_noStatementUntilChange() throws Exception {
+
+        // Arrange
+        String url = "/api/reservations/phone/" + CONDITIONAL_PHONE_NUMBER + "?futureOnly=false";
+        LocalDate date = LocalDate.now().plusDays(702);
+        reservationService.createReservation(new ReservationDTO("Conditional Player", CONDITIONAL_PHONE_NUMBER,
+                date.atTime(10, 0), date.atTime(11, 0), 102, GameType.SINGLES));
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get(url)).andReturn().getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        String courtsETag = mockMvc.perform(MockMvcRequestBuilders.get("/api/courts")).andReturn().getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // Act and Assert
+        statistics.clear();
+        assertEquals(304, conditionalStatusOf(url, eTag), "Unchanged reservations should not be sent again");
+        assertEquals(304, conditionalStatusOf("/api/courts", courtsETag), "Unchanged courts should not be sent again");
+        assertEquals(0, statistics.getPrepareStatementCount(), "Not modified lists should not be queried");
+
+        reservationService.createReservation(new ReservationDTO("Conditional Player", CONDITIONAL_PHONE_NUMBER,
+                date.atTime(12, 0), date.atTime(13, 0), 102, GameType.SINGLES));
+
+        assertEquals(200, conditionalStatusOf(url, eTag), "Changed reservations should be sent again");
+    }
+
+
+
+    private List<Long> createReservations(LocalDate date) {
+        List<Long> ids = new ArrayList<>();
+        for (int courtNumber = 101; courtNumber <= 104; courtNumber++) {
+            ids.add(reservationService.createReservation(new ReservationDTO("Counted Player " + courtNumber,
+                    courtNumber == 101 ? PHONE_NUMBER : PHONE_NUMBER + courtNumber,
+                    date.atTime(10, 0), date.atTime(11, 0), courtNumber, GameType.SINGLES)).getId());
+        }
+        ids.add(reservationService.createReservation(new ReservationDTO("Counted Player", PHONE_NUMBER,
+                date.atTime(12, 0), date.atTime(13, 0), 103, GameType.SINGLES)).getId());
+        return ids;
+    }
+
+    private int conditionalStatusOf(String url, String eTag) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn().getResponse().getStatus();
+    }
+
+    private long statementsOf(String url) throws Exception {
+        statistics.clear();
+        int status = mockMvc.perform(MockMvcRequestBuilders.get(url).accept(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getStatus();
+        assertEquals(200, status, "Request to " + url + " should succeed");
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -2,17 +2,27 @@ package cz.vojtechsika.tennisclub.api;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.vojtechsika.tennisclub.dto.ReservationBatchDTO;
 import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationBatchResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationPageResponseDTO;
 import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.enums.BatchMode;
+import cz.vojtechsika.tennisclub.enums.ReservationFormat;
 import cz.vojtechsika.tennisclub.exception.CourtNotFoundException;
+import cz.vojtechsika.tennisclub.exception.InvalidBatchException;
+import cz.vojtechsika.tennisclub.exception.InvalidPageRequestException;
 import cz.vojtechsika.tennisclub.exception.ReservationNotFoundException;
 import cz.vojtechsika.tennisclub.exception.ReservationValidationException;
+import cz.vojtechsika.tennisclub.exception.VersionMismatchException;
+import cz.vojtechsika.tennisclub.service.ReservationBatchService;
 import cz.vojtechsika.tennisclub.service.ReservationService;
 import org.junit.jupiter.api.DisplayName;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,11 +31,15 @@ import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
 @WebMvcTest(controllers = ReservationController.class)
 class ReservationControllerWebLayerTest {
@@ -36,6 +50,9 @@ class ReservationControllerWebLayerTest {
     @MockitoBean
     private ReservationService reservationService;
 
+    @MockitoBean
+    private ReservationBatchService reservationBatchService;
+
     @Autowired
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -140,7 +157,7 @@ class ReservationControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON);
 
         when(reservationService.
-                getReservationByCourtNumber(eq(courtNumber))).thenReturn(reservationResponseDTOs);
+                getReservationByCourtNumber(eq(courtNumber), isNull(), eq(50), eq(ReservationFormat.LOCALIZED))).thenReturn(new ReservationPageResponseDTO(reservationResponseDTOs, null));
 
         // Act
         MvcResult mvcResult = mockMvc.perform(requestBuilder)
@@ -180,7 +197,7 @@ class ReservationControllerWebLayerTest {
                 "Should return 200 OK");
 
         // verify
-        verify(reservationService, times(1)).getReservationByCourtNumber(eq(courtNumber));
+        verify(reservationService, times(1)).getReservationByCourtNumber(eq(courtNumber), isNull(), eq(50), eq(ReservationFormat.LOCALIZED));
 
 
 
@@ -198,7 +215,7 @@ class ReservationControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON);
 
         when(reservationService.
-                getReservationByCourtNumber(eq(courtNumber)))
+                getReservationByCourtNumber(eq(courtNumber), isNull(), eq(50), eq(ReservationFormat.LOCALIZED)))
                 .thenThrow(new ReservationNotFoundException("Reservation not found"));
 
         // Act
@@ -211,7 +228,7 @@ class ReservationControllerWebLayerTest {
                 "Should return 404 status code");
 
         // verify
-        verify(reservationService, times(1)).getReservationByCourtNumber(eq(courtNumber));
+        verify(reservationService, times(1)).getReservationByCourtNumber(eq(courtNumber), isNull(), eq(50), eq(ReservationFormat.LOCALIZED));
 
 
 
@@ -247,7 +264,7 @@ class ReservationControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON);
 
         when(reservationService.
-                getReservationByPhoneNumber(eq(phoneNumber), eq(futureOnly))).thenReturn(reservationResponseDTOs);
+                getReservationByPhoneNumber(eq(phoneNumber), eq(futureOnly), isNull(), eq(50), eq(ReservationFormat.LOCALIZED))).thenReturn(new ReservationPageResponseDTO(reservationResponseDTOs, null));
 
         // Act
         MvcResult mvcResult = mockMvc.perform(requestBuilder)
@@ -288,7 +305,69 @@ class ReservationControllerWebLayerTest {
 
         // verify
         verify(reservationService, times(1))
-                .getReservationByPhoneNumber(eq(phoneNumber), eq(futureOnly));
+                .getReservationByPhoneNumber(eq(phoneNumber), eq(futureOnly), isNull(), eq(50), eq(ReservationFormat.LOCALIZED));
+    }
+
+    @Test
+    @DisplayName("Fetch reservations by phone number with the current ETag should return 304 without loading them")
+    void getReservationByPhoneNumber_matchingIfNoneMatch_return304() throws Exception {
+
+        // Arrange
+        String phoneNumber = "123456789";
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/reservations/phone/{phoneNumber}", phoneNumber)
+                .queryParam("futureOnly", "true")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"12-34\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(reservationService.getReservationByPhoneNumberETag(phoneNumber, true)).thenReturn("\"12-34\"");
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(304, mvcResult.getResponse().getStatus(),
+                "Should return 304 Not Modified");
+        assertEquals("\"12-34\"", mvcResult.getResponse().getHeader(HttpHeaders.ETAG),
+                "ETag mismatch");
+
+        // Verify
+        verify(reservationService, never())
+                .getReservationByPhoneNumber(any(), anyBoolean(), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Fetch reservations by phone number with an outdated ETag should return the page with the current ETag")
+    void getReservationByPhoneNumber_outdatedIfNoneMatch_returnPageWithETag() throws Exception {
+
+        // Arrange
+        String phoneNumber = "123456789";
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/reservations/phone/{phoneNumber}", phoneNumber)
+                .queryParam("futureOnly", "false")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"11\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(reservationService.getReservationByPhoneNumberETag(phoneNumber, false)).thenReturn("\"12\"");
+        when(reservationService.getReservationByPhoneNumber(eq(phoneNumber), eq(false), isNull(), eq(50),
+                eq(ReservationFormat.LOCALIZED))).thenReturn(new ReservationPageResponseDTO(List.of(), null));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(),
+                "Should return 200 OK");
+        assertEquals("\"12\"", mvcResult.getResponse().getHeader(HttpHeaders.ETAG),
+                "ETag mismatch");
+
+        // Verify
+        verify(reservationService, times(1)).getReservationByPhoneNumber(eq(phoneNumber), eq(false), isNull(),
+                eq(50), eq(ReservationFormat.LOCALIZED));
     }
 
     @Test
@@ -319,7 +398,7 @@ class ReservationControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON);
 
         when(reservationService.
-                getReservationByPhoneNumber(eq(phoneNumber), eq(false))).thenReturn(reservationResponseDTOs);
+                getReservationByPhoneNumber(eq(phoneNumber), eq(false), isNull(), eq(50), eq(ReservationFormat.LOCALIZED))).thenReturn(new ReservationPageResponseDTO(reservationResponseDTOs, null));
 
         // Act
         MvcResult mvcResult = mockMvc.perform(requestBuilder)
@@ -360,7 +439,7 @@ class ReservationControllerWebLayerTest {
 
         // verify
         verify(reservationService, times(1))
-                .getReservationByPhoneNumber(eq(phoneNumber), eq(false));
+                .getReservationByPhoneNumber(eq(phoneNumber), eq(false), isNull(), eq(50), eq(ReservationFormat.LOCALIZED));
     }
 
     @Test
@@ -378,7 +457,7 @@ class ReservationControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON);
 
         when(reservationService.
-                getReservationByPhoneNumber(eq(nonExistedPhoneNumber), eq(futureOnly)))
+                getReservationByPhoneNumber(eq(nonExistedPhoneNumber), eq(futureOnly), isNull(), eq(50), eq(ReservationFormat.LOCALIZED)))
                 .thenThrow(new ReservationNotFoundException("Reservation not found"));
 
         // Act
@@ -392,7 +471,7 @@ class ReservationControllerWebLayerTest {
 
         // verify
         verify(reservationService, times(1))
-                .getReservationByPhoneNumber(eq(nonExistedPhoneNumber), eq(futureOnly));
+                .getReservationByPhoneNumber(eq(nonExistedPhoneNumber), eq(futureOnly), isNull(), eq(50), eq(ReservationFormat.LOCALIZED));
     }
 
     @Test
@@ -409,7 +488,7 @@ class ReservationControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON);
 
         when(reservationService.
-                getReservationByPhoneNumber(eq(nonExistedPhoneNumber), eq(false)))
+                getReservationByPhoneNumber(eq(nonExistedPhoneNumber), eq(false), isNull(), eq(50), eq(ReservationFormat.LOCALIZED)))
                 .thenThrow(new ReservationNotFoundException("Reservation not found"));
 
         // Act
@@ -423,7 +502,7 @@ class ReservationControllerWebLayerTest {
 
         // verify
         verify(reservationService, times(1))
-                .getReservationByPhoneNumber(eq(nonExistedPhoneNumber), eq(false));
+                .getReservationByPhoneNumber(eq(nonExistedPhoneNumber), eq(false), isNull(), eq(50), eq(ReservationFormat.LOCALIZED));
     }
 
     @Test
@@ -451,7 +530,7 @@ class ReservationControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON);
 
         when(reservationService.
-                getAllReservations()).thenReturn(reservationResponseDTOs);
+                getAllReservations(isNull(), eq(50), eq(ReservationFormat.LOCALIZED))).thenReturn(new ReservationPageResponseDTO(reservationResponseDTOs, null));
 
         // Act
         MvcResult mvcResult = mockMvc.perform(requestBuilder)
@@ -489,6 +568,90 @@ class ReservationControllerWebLayerTest {
 
     }
 
+    @Test
+    @DisplayName("Fetch all reservations in ISO format returns date-times without localized fields")
+    void getAllReservations_isoFormat_returnDateTimesOnly() throws Exception {
+
+        // Arrange
+        ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
+        reservationResponseDTO.setId(1L);
+        reservationResponseDTO.setCourtNumber(101);
+        reservationResponseDTO.setStartDateTime(LocalDateTime.of(2030, 7, 1, 10, 0));
+        reservationResponseDTO.setEndDateTime(LocalDateTime.of(2030, 7, 1, 11, 0));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/reservations")
+                .param("format", "ISO")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(reservationService.getAllReservations(isNull(), eq(50), eq(ReservationFormat.ISO)))
+                .thenReturn(new ReservationPageResponseDTO(List.of(reservationResponseDTO), null));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        List<Map<String, Object>> responseBody = objectMapper.readValue(
+                mvcResult.getResponse().getContentAsString(), new TypeReference<>() {
+                });
+
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(),
+                "Should return 200 OK");
+        assertEquals("2030-07-01T10:00:00", responseBody.get(0).get("startDateTime"),
+                "Start should be an ISO-8601 date-time");
+        assertFalse(responseBody.get(0).containsKey("startTime"),
+                "Localized start time should be omitted");
+        assertFalse(responseBody.get(0).containsKey("startEpochMilli"),
+                "Epoch start should be omitted");
+
+        // Verify
+        verify(reservationService, times(1)).getAllReservations(isNull(), eq(50), eq(ReservationFormat.ISO));
+    }
+
+
+    @Test
+    @DisplayName("Export all reservations as newline-delimited JSON")
+    void exportAllReservations_ndjsonAccepted_streamOneReservationPerLine() throws Exception {
+
+        // Arrange
+        ReservationResponseDTO first = new ReservationResponseDTO();
+        first.setId(1L);
+        first.setCourtNumber(101);
+
+        ReservationResponseDTO second = new ReservationResponseDTO();
+        second.setId(2L);
+        second.setCourtNumber(102);
+
+        when(reservationService.exportAllReservations(eq(ReservationFormat.LOCALIZED), any())).thenAnswer(invocation -> {
+            Consumer<ReservationResponseDTO> consumer = invocation.getArgument(1);
+            consumer.accept(first);
+            consumer.accept(second);
+            return 2L;
+        });
+
+        // Act
+        MvcResult started = mockMvc.perform(MockMvcRequestBuilders.get("/api/reservations")
+                        .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult mvcResult = mockMvc.perform(asyncDispatch(started)).andReturn();
+
+        String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(), "Should return 200 OK");
+        assertEquals("application/x-ndjson", mvcResult.getResponse().getContentType(), "Content type mismatch");
+        assertEquals(2, lines.length, "Expected one line per reservation");
+        assertEquals(1L, objectMapper.readValue(lines[0], ReservationResponseDTO.class).getId(),
+                "First line id mismatch");
+        assertEquals(102, objectMapper.readValue(lines[1], ReservationResponseDTO.class).getCourtNumber(),
+                "Second line court number mismatch");
+
+        // Verify
+        verify(reservationService, never()).getAllReservations(any(), anyInt(), any());
+    }
+
     @Test
     @DisplayName("Fetch all non existed reservations should return 404")
     void getAllReservations_FetchAllNonExistReservation_return404() throws Exception {
@@ -499,7 +662,7 @@ class ReservationControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON);
 
         when(reservationService.
-                getAllReservations()).thenThrow(new ReservationNotFoundException("Reservation not found"));
+                getAllReservations(isNull(), eq(50), eq(ReservationFormat.LOCALIZED))).thenThrow(new ReservationNotFoundException("Reservation not found"));
 
         // Act
         MvcResult mvcResult = mockMvc.perform(requestBuilder)
@@ -712,7 +875,7 @@ class ReservationControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(reservationDTO));
 
-        when(reservationService.updateReservation(any(ReservationDTO.class), eq(reservationId))).thenReturn(reservationResponseDTO);
+        when(reservationService.updateReservation(any(ReservationDTO.class), eq(reservationId), isNull())).thenReturn(reservationResponseDTO);
 
         // Act
         MvcResult mvcResult = mockMvc.perform(requestBuilder)
@@ -738,7 +901,7 @@ class ReservationControllerWebLayerTest {
                 "Should return status code 200 OK");
         // verify
         verify(reservationService, times(1))
-                .updateReservation(any(ReservationDTO.class), eq(reservationId));
+                .updateReservation(any(ReservationDTO.class), eq(reservationId), isNull());
 
     }
 
@@ -761,7 +924,7 @@ class ReservationControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(reservationDTO));
 
-        when(reservationService.updateReservation(any(ReservationDTO.class), eq(reservationId)))
+        when(reservationService.updateReservation(any(ReservationDTO.class), eq(reservationId), isNull()))
                 .thenThrow(new CourtNotFoundException("Court not found"));
 
         // Act
@@ -774,7 +937,7 @@ class ReservationControllerWebLayerTest {
                 "Should return status code 404");
         // verify
         verify(reservationService, times(1))
-                .updateReservation(any(ReservationDTO.class), eq(reservationId));
+                .updateReservation(any(ReservationDTO.class), eq(reservationId), isNull());
 
     }
 
@@ -797,7 +960,7 @@ class ReservationControllerWebLayerTest {
                 .accept(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(reservationDTO));
 
-        when(reservationService.updateReservation(any(ReservationDTO.class), eq(reservationId)))
+        when(reservationService.updateReservation(any(ReservationDTO.class), eq(reservationId), isNull()))
                 .thenThrow(new ReservationValidationException("Wrong reservation date or time"));
 
         // Act
@@ -810,7 +973,201 @@ class ReservationControllerWebLayerTest {
                 "Should return status code 404");
         // verify
         verify(reservationService, times(1))
-                .updateReservation(any(ReservationDTO.class), eq(reservationId));
+                .updateReservation(any(ReservationDTO.class), eq(reservationId), isNull());
+
+    }
+
+    @Test
+    @DisplayName("Update reservation with stale If-Match should return 412")
+    void updateReservation_withStaleIfMatch_return412() throws Exception {
+        // Arrange
+        Long reservationId = 1L;
+
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setUserName("John");
+        reservationDTO.setCourtNumber(101);
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put("/api/reservations/{id}",reservationId)
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(reservationDTO));
+
+        when(reservationService.updateReservation(any(ReservationDTO.class), eq(reservationId), eq(1L)))
+                .thenThrow(new VersionMismatchException("Reservation has version 2"));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(412, mvcResult.getResponse().getStatus(),
+                "Should return status code 412");
+        // verify
+        verify(reservationService, times(1))
+                .updateReservation(any(ReservationDTO.class), eq(reservationId), eq(1L));
+
+    }
+
+    @Test
+    @DisplayName("Create batch with at least one created reservation should return 201")
+    void createReservations_someCreated_return201() throws Exception {
+        // Arrange
+        ReservationBatchDTO reservationBatchDTO = new ReservationBatchDTO(BatchMode.BEST_EFFORT,
+                List.of(new ReservationDTO()));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post("/api/reservations/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(reservationBatchDTO));
+
+        when(reservationBatchService.createReservations(any(ReservationBatchDTO.class)))
+                .thenReturn(new ReservationBatchResponseDTO(BatchMode.BEST_EFFORT, 1, 0, List.of()));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        ReservationBatchResponseDTO responseDTO = objectMapper.readValue(
+                mvcResult.getResponse().getContentAsString(), ReservationBatchResponseDTO.class);
+
+        // Assert
+        assertEquals(201, mvcResult.getResponse().getStatus(),
+                "Should return status code 201 CREATED");
+        assertEquals(1, responseDTO.getCreated(),
+                "Created count mismatch");
+        // verify
+        verify(reservationBatchService, times(1)).createReservations(any(ReservationBatchDTO.class));
+    }
+
+    @Test
+    @DisplayName("Create batch without any created reservation should return 422")
+    void createReservations_noneCreated_return422() throws Exception {
+        // Arrange
+        ReservationBatchDTO reservationBatchDTO = new ReservationBatchDTO(BatchMode.ALL_OR_NOTHING,
+                List.of(new ReservationDTO()));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post("/api/reservations/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(reservationBatchDTO));
+
+        when(reservationBatchService.createReservations(any(ReservationBatchDTO.class)))
+                .thenReturn(new ReservationBatchResponseDTO(BatchMode.ALL_OR_NOTHING, 0, 1, List.of()));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(422, mvcResult.getResponse().getStatus(),
+                "Should return status code 422");
+        // verify
+        verify(reservationBatchService, times(1)).createReservations(any(ReservationBatchDTO.class));
+    }
+
+    @Test
+    @DisplayName("Create empty batch should return 400")
+    void createReservations_invalidBatch_return400() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post("/api/reservations/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReservationBatchDTO()));
+
+        when(reservationBatchService.createReservations(any(ReservationBatchDTO.class)))
+                .thenThrow(new InvalidBatchException("Reservation batch must contain at least one reservation"));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
 
+        // Assert
+        assertEquals(400, mvcResult.getResponse().getStatus(),
+                "Should return status code 400");
+        // verify
+        verify(reservationBatchService, times(1)).createReservations(any(ReservationBatchDTO.class));
+    }
+
+    @Test
+    @DisplayName("Fetch page of all reservations with more reservations following should link the next page")
+    void getAllReservations_nextPageExists_returnLinkHeader() throws Exception {
+        // Arrange
+        ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
+        reservationResponseDTO.setId(1L);
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/reservations?limit=1")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(reservationService.getAllReservations(isNull(), eq(1), eq(ReservationFormat.LOCALIZED)))
+                .thenReturn(new ReservationPageResponseDTO(List.of(reservationResponseDTO), "abc"));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        List<ReservationResponseDTO> responseDTOs = objectMapper.readValue(
+                mvcResult.getResponse().getContentAsString(), new TypeReference<List<ReservationResponseDTO>>() {
+                });
+
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(),
+                "Should return 200 OK");
+        assertEquals(1, responseDTOs.size(),
+                "Expected 1 reservation");
+        assertEquals("<http://localhost/api/reservations?limit=1&cursor=abc>; rel=\"next\"",
+                mvcResult.getResponse().getHeader(HttpHeaders.LINK),
+                "Link header should point to the next page");
+        // verify
+        verify(reservationService, times(1)).getAllReservations(isNull(), eq(1), eq(ReservationFormat.LOCALIZED));
+    }
+
+    @Test
+    @DisplayName("Fetch last page of reservations by court number should not link any page")
+    void getReservationByCourtNumber_lastPage_returnNoLinkHeader() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/reservations/court/{id}", 101)
+                .param("cursor", "abc")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(reservationService.getReservationByCourtNumber(eq(101), eq("abc"), eq(50), eq(ReservationFormat.LOCALIZED)))
+                .thenReturn(new ReservationPageResponseDTO(List.of(), null));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(),
+                "Should return 200 OK");
+        assertNull(mvcResult.getResponse().getHeader(HttpHeaders.LINK),
+                "Last page should not link a next page");
+    }
+
+    @Test
+    @DisplayName("Fetch page with invalid cursor should return 400")
+    void getAllReservations_invalidCursor_return400() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/reservations")
+                .param("cursor", "broken")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(reservationService.getAllReservations(eq("broken"), eq(50), eq(ReservationFormat.LOCALIZED)))
+                .thenThrow(new InvalidPageRequestException("Invalid cursor broken"));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(400, mvcResult.getResponse().getStatus(),
+                "Should return status code 400");
     }
-}
\ No newline at end of file
+}
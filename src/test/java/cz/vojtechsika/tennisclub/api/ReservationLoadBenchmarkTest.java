@@ -0,0 +1,253 @@
+package cz.vojtechsika.tennisclub.api;
+
+import cz.vojtechsika.tennisclub.TennisClubApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the throughput and latency of the reservation create ({@code POST /api/reservations/create}) and list
+ * ({@code GET /api/reservations}) endpoints with Tomcat on its platform thread pool and on virtual threads.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ReservationLoadBenchmarkTest}; the number of concurrent clients is set
+ * by {@code -Dbenchmark.clients}, and the warm-up and measurement of each endpoint by
+ * {@code -Dbenchmark.warm-up-seconds} and {@code -Dbenchmark.seconds}.
+ * <p>
+ * Each mode starts the whole application on a random port with its own in-memory database, and the clients are
+ * closed loops on virtual threads, so a client sends its next request as soon as it has the response. Every
+ * reservation is booked into its own free slot, so no request is refused.
+ * </p>
+ * <p>
+ * By default both modes run in one JVM, where the mode run second finds more of the code compiled. For comparable
+ * numbers run each mode on its own with {@code -Dbenchmark.modes=platform} and {@code -Dbenchmark.modes=virtual}.
+ * </p>
+ */
+@Tag("benchmark")
+class ReservationLoadBenchmarkTest {
+
+    private static final List<String> MODES = List.of(System.getProperty("benchmark.modes", "platform,virtual")
+            .split(","));
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 400);
+
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("benchmark.warm-up-seconds", 10));
+
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("benchmark.seconds", 15));
+
+    private static final int[] COURT_NUMBERS = {101, 102, 103, 104};
+
+    private static final int SLOTS_PER_DAY = 24;
+
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusYears(60);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+
+    @Test
+    @DisplayName("Report throughput and latency of the create and list endpoints on platform and virtual threads")
+    void reservationEndpoints_platformVersusVirtualThreads_reportThroughputAndLatency() throws Exception {
+
+        // Act
+        Map<String, Map<String, Result>> results = new LinkedHashMap<>();
+        for (String mode : MODES) {
+            results.put(mode, runAgainst(mode));
+        }
+
+        // Assert
+        Map<String, Result> platform = results.get("platform");
+        Map<String, Result> virtual = results.get("virtual");
+        if (platform != null && virtual != null) {
+            for (String endpoint : platform.keySet()) {
+                System.out.printf("%-6s virtual / platform: throughput %.2fx, p99 latency %.2fx%n", endpoint,
+                        virtual.get(endpoint).throughput() / platform.get(endpoint).throughput(),
+                        virtual.get(endpoint).percentile(0.99) / platform.get(endpoint).percentile(0.99));
+            }
+        }
+        for (Map<String, Result> modeResults : results.values()) {
+            for (Result result : modeResults.values()) {
+                assertTrue(result.requests() > 0, result.name() + " should complete requests");
+                assertEquals(0, result.errors(), result.name() + " should not fail any request");
+            }
+        }
+    }
+
+
+    // Starts the application in the given mode and measures the create endpoint and then the list endpoint
+    private Map<String, Result> runAgainst(String mode) throws Exception {
+        boolean virtualThreads = switch (mode) {
+            case "platform" -> false;
+            case "virtual" -> true;
+            default -> throw new IllegalArgumentException("Unknown thread mode " + mode);
+        };
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TennisClubApplication.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode,
+                        "spring.h2.console.enabled=false")
+                .run()) {
+            URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+            AtomicInteger slots = new AtomicInteger();
+            IntFunction<HttpRequest> create = client -> createRequest(baseUri, client, slots.getAndIncrement());
+            IntFunction<HttpRequest> list = client -> HttpRequest.newBuilder(baseUri.resolve("/api/reservations?limit=50"))
+                    .GET()
+                    .build();
+
+            Map<String, Result> results = new LinkedHashMap<>();
+            run(mode + " create", WARM_UP, create);
+            results.put("create", run(mode + " create", MEASUREMENT, create).print());
+            run(mode + " list", WARM_UP, list);
+            results.put("list", run(mode + " list", MEASUREMENT, list).print());
+            return results;
+        }
+    }
+
+    // Runs the clients in closed loops for the given time and collects the latency of every request
+    private Result run(String name, Duration duration, IntFunction<HttpRequest> requests) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Latencies>> clients = new ArrayList<>(CLIENTS);
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                int client = i;
+                clients.add(executor.submit(() -> {
+                    Latencies latencies = new Latencies();
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = requests.apply(client);
+                        long sent = System.nanoTime();
+                        boolean succeeded = send(request);
+                        latencies.add(System.nanoTime() - sent, succeeded);
+                    }
+                    return latencies;
+                }));
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Latencies all = new Latencies();
+        for (Future<Latencies> client : clients) {
+            all.addAll(client.get());
+        }
+        return new Result(name, elapsed, all);
+    }
+
+    // Sends the request and tells whether it has succeeded
+    private boolean send(HttpRequest request) {
+        try {
+            int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status >= 200 && status < 300;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Books the slot with the given sequence number: 30 minutes on one of the courts between 10:00 and 22:00
+    private static HttpRequest createRequest(URI baseUri, int client, int slot) {
+        LocalDateTime startTime = FIRST_DAY.plusDays(slot / (COURT_NUMBERS.length * SLOTS_PER_DAY))
+                .atTime(10, 0)
+                .plusMinutes(30L * (slot / COURT_NUMBERS.length % SLOTS_PER_DAY));
+        String body = """
+                {"userName": "Load Client %d", "phoneNumber": "+420 777 %06d", "startTime": "%s", "endTime": "%s",
+                 "courtNumber": %d, "gameType": "SINGLES"}"""
+                .formatted(client, client, startTime, startTime.plusMinutes(30),
+                        COURT_NUMBERS[slot % COURT_NUMBERS.length]);
+        return HttpRequest.newBuilder(baseUri.resolve("/api/reservations/create"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+
+    /**
+     * The latencies of the requests of one client, in nanoseconds, and the number of failed requests.
+     */
+    private static final class Latencies {
+
+        private long[] nanos = new long[1024];
+
+        private int size;
+
+        private int errors;
+
+        void add(long latency, boolean succeeded) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = latency;
+            if (!succeeded) {
+                errors++;
+            }
+        }
+
+        void addAll(Latencies other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i], true);
+            }
+            errors += other.errors;
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+
+    /**
+     * The measurement of one endpoint in one mode.
+     */
+    private record Result(String name, long elapsedNanos, int requests, int errors, long[] sortedLatencies) {
+
+        Result(String name, long elapsedNanos, Latencies latencies) {
+            this(name, elapsedNanos, latencies.size, latencies.errors, latencies.sorted());
+        }
+
+        double throughput() {
+            return requests / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        // Returns the latency below which the given fraction of the requests completed, in milliseconds
+        double percentile(double fraction) {
+            if (requests == 0) {
+                return 0;
+            }
+            int index = Math.min(requests - 1, (int) Math.ceil(fraction * requests) - 1);
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        Result print() {
+            System.out.printf("%-16s %,8d requests in %,6d ms = %,9.0f req/s, p50 %7.1f ms, p99 %7.1f ms, "
+                            + "errors %d%n", name, requests, elapsedNanos / 1_000_000, throughput(),
+                    percentile(0.5), percentile(0.99), errors);
+            return this;
+        }
+    }
+}
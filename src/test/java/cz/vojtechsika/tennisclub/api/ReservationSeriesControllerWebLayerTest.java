@@ -0,0 +1,163 @@
+package cz.vojtechsika.tennisclub.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesMoveDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationSeriesResponseDTO;
+import cz.vojtechsika.tennisclub.enums.Recurrence;
+import cz.vojtechsika.tennisclub.exception.InvalidSeriesException;
+import cz.vojtechsika.tennisclub.service.ReservationSeriesService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@WebMvcTest(controllers = ReservationSeriesController.class)
+class ReservationSeriesControllerWebLayerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReservationSeriesService reservationSeriesService;
+
+    @Autowired
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+
+    @Test
+    @DisplayName("Create valid series should return 201")
+    void createSeries_validSeries_return201() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post("/api/reservations/series")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReservationSeriesDTO()));
+
+        when(reservationSeriesService.createSeries(any(ReservationSeriesDTO.class))).thenReturn(response());
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        ReservationSeriesResponseDTO responseDTO = objectMapper.readValue(
+                mvcResult.getResponse().getContentAsString(), ReservationSeriesResponseDTO.class);
+
+        // Assert
+        assertEquals(201, mvcResult.getResponse().getStatus(),
+                "Should return status code 201 CREATED");
+        assertEquals(5L, responseDTO.getId(),
+                "Series id mismatch");
+        // verify
+        verify(reservationSeriesService, times(1)).createSeries(any(ReservationSeriesDTO.class));
+    }
+
+    @Test
+    @DisplayName("Create invalid series should return 400")
+    void createSeries_invalidSeries_return400() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post("/api/reservations/series")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReservationSeriesDTO()));
+
+        when(reservationSeriesService.createSeries(any(ReservationSeriesDTO.class)))
+                .thenThrow(new InvalidSeriesException("Reservation series must contain at least one occurrence"));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(400, mvcResult.getResponse().getStatus(),
+                "Should return status code 400");
+        // verify
+        verify(reservationSeriesService, times(1)).createSeries(any(ReservationSeriesDTO.class));
+    }
+
+    @Test
+    @DisplayName("Fetch series by valid id should return 200")
+    void getSeries_validId_return200() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/reservations/series/5")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(reservationSeriesService.getSeriesById(5L)).thenReturn(response());
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(),
+                "Should return status code 200");
+        // verify
+        verify(reservationSeriesService, times(1)).getSeriesById(5L);
+    }
+
+    @Test
+    @DisplayName("Move series should return 200")
+    void moveSeries_validShift_return200() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put("/api/reservations/series/5/move")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new ReservationSeriesMoveDTO(60)));
+
+        when(reservationSeriesService.moveSeries(eq(5L), any(ReservationSeriesMoveDTO.class))).thenReturn(response());
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(),
+                "Should return status code 200");
+        // verify
+        verify(reservationSeriesService, times(1)).moveSeries(eq(5L), any(ReservationSeriesMoveDTO.class));
+    }
+
+    @Test
+    @DisplayName("Cancel series should return 200 with the number of deleted reservations")
+    void cancelSeries_validId_return200() throws Exception {
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .delete("/api/reservations/series/5")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(reservationSeriesService.cancelSeries(5L)).thenReturn(4);
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(),
+                "Should return status code 200");
+        assertTrue(mvcResult.getResponse().getContentAsString().contains("4 upcoming reservations were deleted"),
+                "Message should contain the deleted count");
+        // verify
+        verify(reservationSeriesService, times(1)).cancelSeries(5L);
+    }
+
+
+    private ReservationSeriesResponseDTO response() {
+        return new ReservationSeriesResponseDTO(5L, 101, "Series Player", "123456789", Recurrence.WEEKLY, null,
+                List.of());
+    }
+}
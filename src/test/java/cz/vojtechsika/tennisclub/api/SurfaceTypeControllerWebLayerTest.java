@@ -5,11 +5,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.vojtechsika.tennisclub.dto.SurfaceTypeDTO;
 import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
 import cz.vojtechsika.tennisclub.exception.SurfaceTypeNotFoundException;
+import cz.vojtechsika.tennisclub.exception.VersionMismatchException;
 import cz.vojtechsika.tennisclub.service.SurfaceTypeService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -218,6 +220,60 @@ class SurfaceTypeControllerWebLayerTest {
 
 
 
+    }
+
+    @Test
+    @DisplayName("Fetch all surface types with the current ETag should return 304 without loading them")
+    void getAllSurfaceTypes_matchingIfNoneMatch_return304() throws Exception {
+
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/surfaces")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\", \"4\"")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(surfaceTypeService.getAllSurfaceTypesETag()).thenReturn("\"4\"");
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(304, mvcResult.getResponse().getStatus(),
+                "Should return 304 Not Modified");
+        assertEquals("\"4\"", mvcResult.getResponse().getHeader(HttpHeaders.ETAG),
+                "ETag mismatch");
+
+        // Verify
+        verify(surfaceTypeService, never()).getAllSurfaceTypes();
+
+    }
+
+    @Test
+    @DisplayName("Fetch all surface types without If-None-Match should return them with the current ETag")
+    void getAllSurfaceTypes_noIfNoneMatch_returnSurfaceTypesWithETag() throws Exception {
+
+        // Arrange
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get("/api/surfaces")
+                .accept(MediaType.APPLICATION_JSON);
+
+        when(surfaceTypeService.getAllSurfaceTypesETag()).thenReturn("\"4\"");
+        when(surfaceTypeService.getAllSurfaceTypes()).thenReturn(List.of());
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(),
+                "Should return 200 OK");
+        assertEquals("\"4\"", mvcResult.getResponse().getHeader(HttpHeaders.ETAG),
+                "ETag mismatch");
+
+        // Verify
+        verify(surfaceTypeService, times(1)).getAllSurfaceTypes();
+
     }
 
     @Test
@@ -257,7 +313,7 @@ class SurfaceTypeControllerWebLayerTest {
         surfaceTypeResponseDTO.setName("test");
         surfaceTypeResponseDTO.setMinutePrice(BigDecimal.valueOf(10));
 
-        when(surfaceTypeService.updateSurfaceType(any(SurfaceTypeDTO.class), eq(surfaceTypeId)))
+        when(surfaceTypeService.updateSurfaceType(any(SurfaceTypeDTO.class), eq(surfaceTypeId), isNull()))
                 .thenReturn(surfaceTypeResponseDTO);
 
         RequestBuilder requestBuilder = MockMvcRequestBuilders
@@ -290,7 +346,7 @@ class SurfaceTypeControllerWebLayerTest {
 
         // Verify
         verify(surfaceTypeService, times(1))
-                .updateSurfaceType(any(SurfaceTypeDTO.class), eq(surfaceTypeId));
+                .updateSurfaceType(any(SurfaceTypeDTO.class), eq(surfaceTypeId), isNull());
     }
 
     @Test
@@ -308,7 +364,7 @@ class SurfaceTypeControllerWebLayerTest {
         surfaceTypeResponseDTO.setName("test");
         surfaceTypeResponseDTO.setMinutePrice(BigDecimal.valueOf(10));
 
-        when(surfaceTypeService.updateSurfaceType(any(SurfaceTypeDTO.class), eq(surfaceTypeId)))
+        when(surfaceTypeService.updateSurfaceType(any(SurfaceTypeDTO.class), eq(surfaceTypeId), isNull()))
                 .thenThrow(new SurfaceTypeNotFoundException("Surface type not found"));
 
         RequestBuilder requestBuilder = MockMvcRequestBuilders
@@ -327,7 +383,77 @@ class SurfaceTypeControllerWebLayerTest {
 
         // Verify
         verify(surfaceTypeService, times(1))
-                .updateSurfaceType(any(SurfaceTypeDTO.class), eq(surfaceTypeId));
+                .updateSurfaceType(any(SurfaceTypeDTO.class), eq(surfaceTypeId), isNull());
+    }
+
+    @Test
+    @DisplayName("Update surface type with matching If-Match returns the new ETag")
+    void updateSurfaceType_matchingIfMatch_returnNewETag() throws Exception {
+        // Arrange
+        Long surfaceTypeId = 1L;
+
+        SurfaceTypeDTO surfaceTypeDTO = new SurfaceTypeDTO();
+        surfaceTypeDTO.setName("test");
+        surfaceTypeDTO.setMinutePrice(BigDecimal.valueOf(10));
+
+        SurfaceTypeResponseDTO surfaceTypeResponseDTO = new SurfaceTypeResponseDTO();
+        surfaceTypeResponseDTO.setId(surfaceTypeId);
+        surfaceTypeResponseDTO.setName("test");
+        surfaceTypeResponseDTO.setMinutePrice(BigDecimal.valueOf(10));
+        surfaceTypeResponseDTO.setVersion(4L);
+
+        when(surfaceTypeService.updateSurfaceType(any(SurfaceTypeDTO.class), eq(surfaceTypeId), eq(3L)))
+                .thenReturn(surfaceTypeResponseDTO);
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put("/api/surfaces/{id}", surfaceTypeId)
+                .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(surfaceTypeDTO));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(200, mvcResult.getResponse().getStatus(),
+                "Should return 200 OK");
+        assertEquals("\"4\"", mvcResult.getResponse().getHeader(HttpHeaders.ETAG),
+                "ETag should carry the new version");
+
+        // Verify
+        verify(surfaceTypeService, times(1))
+                .updateSurfaceType(any(SurfaceTypeDTO.class), eq(surfaceTypeId), eq(3L));
+    }
+
+    @Test
+    @DisplayName("Update surface type with stale If-Match should return 412")
+    void updateSurfaceType_staleIfMatch_return412() throws Exception {
+        // Arrange
+        Long surfaceTypeId = 1L;
+
+        SurfaceTypeDTO surfaceTypeDTO = new SurfaceTypeDTO();
+        surfaceTypeDTO.setName("test");
+        surfaceTypeDTO.setMinutePrice(BigDecimal.valueOf(10));
+
+        when(surfaceTypeService.updateSurfaceType(any(SurfaceTypeDTO.class), eq(surfaceTypeId), eq(2L)))
+                .thenThrow(new VersionMismatchException("Surface type has version 3"));
+
+        RequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put("/api/surfaces/{id}", surfaceTypeId)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(surfaceTypeDTO));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(requestBuilder)
+                .andReturn();
+
+        // Assert
+        assertEquals(412, mvcResult.getResponse().getStatus(),
+                "Should return 412 status code");
     }
 
     @Test
@@ -0,0 +1,230 @@
+package cz.vojtechsika.tennisclub.cache;
+
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.SurfaceTypeDAO;
+import cz.vojtechsika.tennisclub.dto.mapper.CourtMapper;
+import cz.vojtechsika.tennisclub.dto.mapper.SurfaceTypeMapper;
+import cz.vojtechsika.tennisclub.dto.response.CourtResponseDTO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogCacheImplTest {
+
+    @Mock
+    private CourtDAO courtDAO;
+
+    @Mock
+    private SurfaceTypeDAO surfaceTypeDAO;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CatalogCacheImpl catalogCache;
+
+    private final SurfaceType clay = surfaceType(1L, "Clay", "1.50");
+
+    private final SurfaceType grass = surfaceType(2L, "Grass", "2.00");
+
+
+    @BeforeEach
+    void setUp() {
+        catalogCache = newCache(100);
+    }
+
+
+    @Test
+    @DisplayName("Repeated lookup of a court number queries the database once and counts the hit and the miss")
+    void findCourtByCourtNumber_repeatedLookup_loadOnceAndRecordHitAndMiss() {
+
+        // Arrange
+        when(courtDAO.findByCourtNumber(101)).thenReturn(Optional.of(court(1L, 101, clay)));
+
+        // Act
+        CourtResponseDTO first = catalogCache.findCourtByCourtNumber(101).orElseThrow();
+        CourtResponseDTO second = catalogCache.findCourtByCourtNumber(101).orElseThrow();
+
+        // Assert
+        assertSame(first, second, "Second lookup should be served from the cache");
+        assertEquals(new BigDecimal("1.50"), first.getSurfaceTypeResponseDTO().getMinutePrice(),
+                "Court should carry the price of its surface type");
+        assertEquals(1, gets("catalog.courts.by-number", "miss"), "One miss should be recorded");
+        assertEquals(1, gets("catalog.courts.by-number", "hit"), "One hit should be recorded");
+
+        // Verify
+        verify(courtDAO, times(1)).findByCourtNumber(101);
+    }
+
+    @Test
+    @DisplayName("Missing court is not cached, so a court created later is found")
+    void findCourtById_missingCourt_loadAgainOnNextLookup() {
+
+        // Arrange
+        when(courtDAO.findById(5L)).thenReturn(Optional.empty(), Optional.of(court(5L, 105, clay)));
+
+        // Act
+        Optional<CourtResponseDTO> missing = catalogCache.findCourtById(5L);
+        Optional<CourtResponseDTO> created = catalogCache.findCourtById(5L);
+
+        // Assert
+        assertTrue(missing.isEmpty(), "Missing court should be empty");
+        assertEquals(105, created.orElseThrow().getCourtNumber(), "Created court should be loaded");
+
+        // Verify
+        verify(courtDAO, times(2)).findById(5L);
+    }
+
+    @Test
+    @DisplayName("Failing load rethrows the DAO exception and is not cached")
+    void findCourtById_failingLoad_rethrowExceptionAndLoadAgain() {
+
+        // Arrange
+        IllegalStateException failure = new IllegalStateException("Connection is not available");
+        when(courtDAO.findById(6L)).thenThrow(failure).thenReturn(Optional.of(court(6L, 106, clay)));
+
+        // Act
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> catalogCache.findCourtById(6L),
+                "Should throw IllegalStateException");
+        Optional<CourtResponseDTO> loaded = catalogCache.findCourtById(6L);
+
+        // Assert
+        assertSame(failure, thrown, "DAO exception should be rethrown as is");
+        assertEquals(106, loaded.orElseThrow().getCourtNumber(), "Court should be loaded on the next lookup");
+
+        // Verify
+        verify(courtDAO, times(2)).findById(6L);
+    }
+
+    @Test
+    @DisplayName("Evicting a renumbered court reloads it by ID, by number and in the list")
+    void evictCourt_renumberedCourt_reloadEvictedEntries() {
+
+        // Arrange
+        when(courtDAO.findById(1L)).thenReturn(Optional.of(court(1L, 101, clay)), Optional.of(court(1L, 111, clay)));
+        when(courtDAO.findByCourtNumber(101)).thenReturn(Optional.of(court(1L, 101, clay)), Optional.empty());
+        when(courtDAO.findAll()).thenReturn(List.of(court(1L, 101, clay)), List.of(court(1L, 111, clay)));
+        when(courtDAO.findByCourtNumber(102)).thenReturn(Optional.of(court(2L, 102, clay)));
+
+        catalogCache.findCourtById(1L);
+        catalogCache.findCourtByCourtNumber(101);
+        catalogCache.findCourtByCourtNumber(102);
+        catalogCache.findAllCourts();
+
+        // Act
+        catalogCache.evictCourt(1L, 101, 111);
+
+        // Assert
+        assertEquals(111, catalogCache.findCourtById(1L).orElseThrow().getCourtNumber(), "ID should be reloaded");
+        assertTrue(catalogCache.findCourtByCourtNumber(101).isEmpty(), "Old number should be reloaded");
+        assertEquals(111, catalogCache.findAllCourts().get(0).getCourtNumber(), "List should be reloaded");
+        catalogCache.findCourtByCourtNumber(102);
+
+        // Verify
+        verify(courtDAO, times(1)).findByCourtNumber(102);
+    }
+
+    @Test
+    @DisplayName("Evicting a surface type evicts only the courts of that surface type")
+    void evictSurfaceType_cachedCourts_evictCourtsOfSurfaceTypeOnly() {
+
+        // Arrange
+        when(courtDAO.findById(1L)).thenReturn(Optional.of(court(1L, 101, clay)));
+        when(courtDAO.findById(4L)).thenReturn(Optional.of(court(4L, 104, grass)));
+        when(courtDAO.findByCourtNumber(101)).thenReturn(Optional.of(court(1L, 101, clay)));
+        when(surfaceTypeDAO.findById(1L)).thenReturn(Optional.of(clay));
+        when(surfaceTypeDAO.findAll()).thenReturn(List.of(clay, grass));
+
+        catalogCache.findCourtById(1L);
+        catalogCache.findCourtById(4L);
+        catalogCache.findCourtByCourtNumber(101);
+        catalogCache.findSurfaceTypeById(1L);
+        catalogCache.findAllSurfaceTypes();
+
+        // Act
+        catalogCache.evictSurfaceType(1L);
+        catalogCache.findCourtById(1L);
+        catalogCache.findCourtById(4L);
+        catalogCache.findCourtByCourtNumber(101);
+        catalogCache.findSurfaceTypeById(1L);
+        catalogCache.findAllSurfaceTypes();
+
+        // Verify
+        verify(courtDAO, times(2)).findById(1L);
+        verify(courtDAO, times(1)).findById(4L);
+        verify(courtDAO, times(2)).findByCourtNumber(101);
+        verify(surfaceTypeDAO, times(2)).findById(1L);
+        verify(surfaceTypeDAO, times(2)).findAll();
+    }
+
+    @Test
+    @DisplayName("Cache holds at most the maximum size and counts the evictions")
+    void findCourtById_moreCourtsThanMaximumSize_evictAndRecordEvictions() {
+
+        // Arrange
+        catalogCache = newCache(2);
+        for (long id = 1; id <= 5; id++) {
+            when(courtDAO.findById(id)).thenReturn(Optional.of(court(id, 100 + (int) id, clay)));
+        }
+
+        // Act
+        for (long id = 1; id <= 5; id++) {
+            catalogCache.findCourtById(id);
+        }
+
+        // Assert
+        assertEquals(2, meterRegistry.get("cache.size").tag("cache", "catalog.courts.by-id").gauge().value(),
+                "Cache should hold at most two courts");
+        assertEquals(3, meterRegistry.get("cache.evictions").tag("cache", "catalog.courts.by-id")
+                .functionCounter().count(), "Three courts should be evicted");
+    }
+
+    @Test
+    @DisplayName("Non-positive maximum size should throw IllegalArgumentException")
+    void constructor_nonPositiveMaximumSize_throwIllegalArgumentException() {
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> newCache(0),
+                "Should throw IllegalArgumentException");
+    }
+
+
+    // Metrics of a replaced cache are removed, so the registry reports the new one
+    private CatalogCacheImpl newCache(long maximumSize) {
+        meterRegistry.clear();
+        return new CatalogCacheImpl(courtDAO, surfaceTypeDAO, new CourtMapper(), new SurfaceTypeMapper(),
+                maximumSize, 600_000, meterRegistry);
+    }
+
+    private double gets(String cache, String result) {
+        return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+    }
+
+    private static SurfaceType surfaceType(Long id, String name, String minutePrice) {
+        SurfaceType surfaceType = new SurfaceType();
+        surfaceType.setId(id);
+        surfaceType.setName(name);
+        surfaceType.setMinutePrice(new BigDecimal(minutePrice));
+        return surfaceType;
+    }
+
+    private static Court court(Long id, int courtNumber, SurfaceType surfaceType) {
+        Court court = new Court();
+        court.setId(id);
+        court.setCourtNumber(courtNumber);
+        court.setSurfaceType(surfaceType);
+        return court;
+    }
+}
@@ -0,0 +1,114 @@
+package cz.vojtechsika.tennisclub.cache;
+
+import cz.vojtechsika.tennisclub.dto.CourtDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.SurfaceTypeDTO;
+import cz.vojtechsika.tennisclub.dto.response.CourtResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.exception.CourtNotFoundException;
+import cz.vojtechsika.tennisclub.exception.SurfaceTypeNotFoundException;
+import cz.vojtechsika.tennisclub.service.CourtService;
+import cz.vojtechsika.tennisclub.service.ReservationService;
+import cz.vojtechsika.tennisclub.service.SurfaceTypeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CatalogCacheIntegrationTest {
+
+    @Autowired
+    private CatalogCache catalogCache;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CourtService courtService;
+
+    @Autowired
+    private SurfaceTypeService surfaceTypeService;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+
+    @Test
+    @DisplayName("Booking a cached court uses its price and state in the database, as changed by another instance")
+    void createReservation_courtChangedByAnotherInstance_useDatabaseState() {
+
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(800);
+        Long surfaceTypeId = surfaceTypeService.saveSurfaceType(
+                new SurfaceTypeDTO("Shared Clay", new BigDecimal("1.00"))).getId();
+        Long courtId = courtService.save(new CourtDTO(953, surfaceTypeId)).getId();
+        ReservationResponseDTO before = reservationService.createReservation(new ReservationDTO("Cached Player",
+                "+420 706 000 001", date.atTime(10, 0), date.atTime(11, 0), 953, GameType.SINGLES));
+        assertTrue(catalogCache.findCourtByCourtNumber(953).isPresent(), "Court should be cached");
+
+        // Act
+        jdbc.update("UPDATE surface_type SET minute_price = 2.00, version = version + 1 WHERE id = ?",
+                surfaceTypeId);
+        ReservationResponseDTO after = reservationService.createReservation(new ReservationDTO("Cached Player",
+                "+420 706 000 001", date.plusDays(7).atTime(10, 0), date.plusDays(7).atTime(11, 0), 953,
+                GameType.SINGLES));
+        jdbc.update("UPDATE court SET deleted = TRUE, version = version + 1 WHERE id = ?", courtId);
+
+        // Assert
+        assertEquals(0, before.getPrice().multiply(BigDecimal.valueOf(2)).compareTo(after.getPrice()),
+                "Price should be computed from the minute price in the database");
+        assertTrue(catalogCache.findCourtByCourtNumber(953).isPresent(), "Read path may still serve the court");
+        assertThrows(CourtNotFoundException.class, () -> reservationService.createReservation(
+                new ReservationDTO("Cached Player", "+420 706 000 001", date.plusDays(14).atTime(10, 0),
+                        date.plusDays(14).atTime(11, 0), 953, GameType.SINGLES)),
+                "Court deleted in the database should not be booked");
+    }
+
+    @Test
+    @DisplayName("Changes of a surface type and its court are visible right after they are committed")
+    void updateAndDelete_cachedCourtAndSurfaceType_evictCachedEntries() {
+
+        // Arrange
+        Long surfaceTypeId = surfaceTypeService.saveSurfaceType(
+                new SurfaceTypeDTO("Cached Hard", new BigDecimal("2.00"))).getId();
+        Long courtId = courtService.save(new CourtDTO(951, surfaceTypeId)).getId();
+        courtService.getCourtById(courtId);
+        double hits = meterRegistry.get("cache.gets").tag("cache", "catalog.courts.by-id").tag("result", "hit")
+                .functionCounter().count();
+
+        // Act & Assert
+        assertEquals(951, courtService.getCourtById(courtId).getCourtNumber(), "Court number mismatch");
+        assertEquals(hits + 1, meterRegistry.get("cache.gets").tag("cache", "catalog.courts.by-id")
+                .tag("result", "hit").functionCounter().count(), "Second read should be a cache hit");
+
+        surfaceTypeService.updateSurfaceType(new SurfaceTypeDTO("Cached Hard", new BigDecimal("3.00")),
+                surfaceTypeId, null);
+        assertEquals(0, new BigDecimal("3.00").compareTo(courtService.getCourtById(courtId)
+                .getSurfaceTypeResponseDTO().getMinutePrice()), "Court should carry the new price");
+
+        courtService.updateCourt(new CourtDTO(952, surfaceTypeId), courtId, null);
+        assertEquals(952, courtService.getCourtById(courtId).getCourtNumber(), "Court should be renumbered");
+        assertTrue(catalogCache.findCourtByCourtNumber(951).isEmpty(), "Old court number should be free");
+        assertTrue(courtService.getAllCourts().stream().map(CourtResponseDTO::getCourtNumber).toList().contains(952),
+                "List of courts should contain the renumbered court");
+
+        surfaceTypeService.deleteSurfaceType(surfaceTypeId);
+        assertThrows(SurfaceTypeNotFoundException.class, () -> surfaceTypeService.getSurfaceTypeById(surfaceTypeId),
+                "Deleted surface type should not be found");
+        assertThrows(CourtNotFoundException.class, () -> courtService.getCourtById(courtId),
+                "Court of the deleted surface type should not be found");
+        assertTrue(catalogCache.findCourtByCourtNumber(952).isEmpty(), "Deleted court should not be bookable");
+    }
+}
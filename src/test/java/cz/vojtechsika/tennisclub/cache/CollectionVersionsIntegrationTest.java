@@ -0,0 +1,158 @@
+package cz.vojtechsika.tennisclub.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the stamps against the shared database, recording each change in a transaction of the test; a second
+ * {@link CollectionVersionsImpl} over the same database stands for another application instance.
+ */
+@SpringBootTest
+class CollectionVersionsIntegrationTest {
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Changed courts get a new stamp while surface types keep theirs")
+    void courtsChanged_surfaceTypesUnchanged_onlyCourtsStampChanges() {
+
+        // Arrange
+        long courts = collectionVersions.courts();
+        long surfaceTypes = collectionVersions.surfaceTypes();
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> collectionVersions.courtsChanged());
+
+        // Assert
+        assertNotEquals(courts, collectionVersions.courts(), "Courts stamp should change");
+        assertEquals(surfaceTypes, collectionVersions.surfaceTypes(), "Surface types stamp should not change");
+    }
+
+    @Test
+    @DisplayName("Reservations of one phone number change only its own stamp")
+    void reservationsChanged_onePhoneNumber_otherStampUnchanged() {
+
+        // Arrange
+        String changed = "+420 715 000 001";
+        String unchanged = "+420 715 000 002";
+        long changedStamp = collectionVersions.reservationsByPhoneNumber(changed);
+        long unchangedStamp = collectionVersions.reservationsByPhoneNumber(unchanged);
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> collectionVersions.reservationsChanged(changed, changed));
+
+        // Assert
+        assertNotEquals(changedStamp, collectionVersions.reservationsByPhoneNumber(changed),
+                "Stamp of the changed phone number should change");
+        assertEquals(unchangedStamp, collectionVersions.reservationsByPhoneNumber(unchanged),
+                "Stamp of another phone number should not change");
+    }
+
+    @Test
+    @DisplayName("Change of all reservations changes the stamp of every phone number")
+    void allReservationsChanged_phoneNumbersWithAndWithoutRow_allStampsChange() {
+
+        // Arrange
+        String withRow = "+420 715 000 003";
+        String withoutRow = "+420 715 000 004";
+        transactionTemplate.executeWithoutResult(status -> collectionVersions.reservationsChanged(withRow));
+        long withRowStamp = collectionVersions.reservationsByPhoneNumber(withRow);
+        long withoutRowStamp = collectionVersions.reservationsByPhoneNumber(withoutRow);
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> collectionVersions.allReservationsChanged());
+
+        // Assert
+        assertNotEquals(withRowStamp, collectionVersions.reservationsByPhoneNumber(withRow),
+                "Stamp of a phone number with its own row should change");
+        assertNotEquals(withoutRowStamp, collectionVersions.reservationsByPhoneNumber(withoutRow),
+                "Stamp of a phone number without its own row should change");
+    }
+
+    @Test
+    @DisplayName("Change recorded by one instance is seen by another one, which keeps the stamps on start")
+    void reservationsChanged_otherInstance_seesNewStamp() {
+
+        // Arrange
+        String phoneNumber = "+420 715 000 005";
+        transactionTemplate.executeWithoutResult(status -> collectionVersions.reservationsChanged(phoneNumber));
+        long courts = collectionVersions.courts();
+        long before = collectionVersions.reservationsByPhoneNumber(phoneNumber);
+        CollectionVersions otherInstance = new CollectionVersionsImpl(jdbc);
+
+        // Act
+        long otherBefore = otherInstance.reservationsByPhoneNumber(phoneNumber);
+        transactionTemplate.executeWithoutResult(status -> {
+            collectionVersions.reservationsChanged(phoneNumber);
+            collectionVersions.courtsChanged();
+        });
+
+        // Assert
+        assertEquals(before, otherBefore, "Starting instance should not reset the stamps");
+        assertEquals(collectionVersions.reservationsByPhoneNumber(phoneNumber),
+                otherInstance.reservationsByPhoneNumber(phoneNumber), "Instances should share the phone stamp");
+        assertNotEquals(before, otherInstance.reservationsByPhoneNumber(phoneNumber),
+                "Other instance should see the change");
+        assertEquals(collectionVersions.courts(), otherInstance.courts(), "Instances should share the courts stamp");
+        assertNotEquals(courts, otherInstance.courts(), "Other instance should see the courts change");
+    }
+
+    @Test
+    @DisplayName("Change is stored with the transaction recording it and discarded with its rollback")
+    void reservationsChanged_inWritingTransaction_storedOnlyOnCommit() {
+
+        // Arrange
+        String phoneNumber = "+420 715 000 006";
+        long before = collectionVersions.reservationsByPhoneNumber(phoneNumber);
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            collectionVersions.reservationsChanged(phoneNumber);
+            status.setRollbackOnly();
+        });
+        long rolledBack = collectionVersions.reservationsByPhoneNumber(phoneNumber);
+        long uncommitted = transactionTemplate.execute(status -> {
+            collectionVersions.reservationsChanged(phoneNumber);
+            return collectionVersions.reservationsByPhoneNumber(phoneNumber);
+        });
+
+        // Assert
+        assertEquals(before, rolledBack, "Rolled back change should not be stored");
+        assertNotEquals(before, uncommitted, "Writing transaction should see its own change");
+        assertEquals(uncommitted, collectionVersions.reservationsByPhoneNumber(phoneNumber),
+                "Committed change should be stored");
+    }
+
+    @Test
+    @DisplayName("Change outside of a transaction is refused")
+    void courtsChanged_noTransaction_throwException() {
+
+        // Act & Assert
+        assertThrows(IllegalTransactionStateException.class, () -> collectionVersions.courtsChanged(),
+                "Stamp should only change together with the data it describes");
+    }
+}
@@ -0,0 +1,112 @@
+package cz.vojtechsika.tennisclub.cache;
+
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.SurfaceTypeDAO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads courts by id and by court number and surface types by id over and over, once with every second-level and
+ * query cache region emptied before each round and once with the regions kept warm, and reports the statements sent
+ * to the database, the cache hits and the time of both. Reservations and users are not cached, so they are not read.
+ * Run with {@code mvn test -Pbenchmark}; the number of rounds is set by {@code -Dbenchmark.rounds}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class SecondLevelCacheBenchmarkTest {
+
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 50);
+
+    private static final int WARM_UP_ROUNDS = 5;
+
+    @Autowired
+    private CourtDAO courtDAO;
+
+    @Autowired
+    private SurfaceTypeDAO surfaceTypeDAO;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Court> courts;
+
+    private List<SurfaceType> surfaceTypes;
+
+
+    @Test
+    @DisplayName("Report the statements and the time the second-level and query cache save on repeated reads")
+    void readRepeatedly_coldVersusWarmCache_reportStatementsAndTime() {
+
+        // Arrange
+        courts = courtDAO.findAll();
+        surfaceTypes = surfaceTypeDAO.findAll();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            evictAll();
+            readAll();
+        }
+
+        try {
+            // Act
+            long coldStatements = measure("cold cache (evicted every round)", statistics, true);
+            long warmStatements = measure("warm cache", statistics, false);
+
+            // Assert
+            System.out.printf("Statements avoided by the cache: %,d of %,d (%.1f%%)%n",
+                    coldStatements - warmStatements, coldStatements,
+                    100.0 * (coldStatements - warmStatements) / coldStatements);
+            assertTrue(warmStatements < coldStatements, "Warm cache should send fewer statements");
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+
+    // Runs the rounds, prints the statements, cache hits and time and returns the statements
+    private long measure(String name, Statistics statistics, boolean evictEveryRound) {
+        evictAll();
+        readAll();
+        statistics.clear();
+        long elapsed = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            if (evictEveryRound) {
+                evictAll();
+            }
+            long started = System.nanoTime();
+            readAll();
+            elapsed += System.nanoTime() - started;
+        }
+        long reads = (long) ROUNDS * (2L * courts.size() + surfaceTypes.size());
+        System.out.printf("%-34s %,8d reads %,8d statements %,8d entity hits %,8d query hits in %,6d ms%n", name,
+                reads, statistics.getPrepareStatementCount(), statistics.getSecondLevelCacheHitCount(),
+                statistics.getQueryCacheHitCount(), elapsed / 1_000_000);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void readAll() {
+        for (Court court : courts) {
+            courtDAO.findById(court.getId());
+            courtDAO.findByCourtNumber(court.getCourtNumber());
+        }
+        for (SurfaceType surfaceType : surfaceTypes) {
+            surfaceTypeDAO.findById(surfaceType.getId());
+        }
+    }
+
+    private void evictAll() {
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+    }
+}
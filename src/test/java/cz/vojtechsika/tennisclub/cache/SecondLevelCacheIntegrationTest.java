@@ -0,0 +1,200 @@
+package cz.vojtechsika.tennisclub.cache;
+
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dao.UserDAO;
+import cz.vojtechsika.tennisclub.dto.CourtDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.SurfaceTypeDTO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.User;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.exception.ReservationNotFoundException;
+import cz.vojtechsika.tennisclub.service.CourtService;
+import cz.vojtechsika.tennisclub.service.ReservationArchiveService;
+import cz.vojtechsika.tennisclub.service.ReservationService;
+import cz.vojtechsika.tennisclub.service.SurfaceTypeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reads courts through the Hibernate second-level and query cache, and reservations and users after every kind of
+ * write: entity updates, bulk soft deletes, the JDBC upsert of a user, the JDBC move to the archive and plain SQL
+ * standing for another application instance. A read after a committed write must never return the state from
+ * before it.
+ */
+@SpringBootTest
+class SecondLevelCacheIntegrationTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(950);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private CourtService courtService;
+
+    @Autowired
+    private SurfaceTypeService surfaceTypeService;
+
+    @Autowired
+    private ReservationArchiveService reservationArchiveService;
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private ReservationDAO reservationDAO;
+
+    @Autowired
+    private CourtDAO courtDAO;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+
+    @Test
+    @DisplayName("Repeated lookup of a court is served by the second-level and query cache without a statement")
+    void findByCourtNumber_repeatedRead_noStatement() {
+
+        // Arrange
+        courtDAO.findByCourtNumber(101);
+
+        // Act
+        statistics.clear();
+        Court court = courtDAO.findByCourtNumber(101).orElseThrow();
+
+        // Assert
+        assertEquals(101, court.getCourtNumber(), "Court number mismatch");
+        assertEquals(0, statistics.getPrepareStatementCount(), "Cached court should not be queried");
+    }
+
+    @Test
+    @DisplayName("Reservation changed outside this entity manager factory is read in its current state")
+    void findById_rowChangedByAnotherInstance_returnCurrentState() {
+
+        // Arrange
+        Long id = book(101, 11, "+420 710 000 001");
+        reservationDAO.findById(id);
+
+        // Act
+        jdbcTemplate.update("UPDATE reservation SET price = 1234.00, version = version + 1 WHERE id = ?", id);
+        Reservation changed = reservationDAO.findById(id).orElseThrow();
+        jdbcTemplate.update("UPDATE reservation SET deleted = TRUE WHERE id = ?", id);
+
+        // Assert
+        assertEquals(0, new BigDecimal("1234.00").compareTo(changed.getPrice()), "Changed price should be read");
+        assertEquals(1, changed.getVersion(), "Changed version should be read");
+        assertTrue(reservationDAO.findById(id).isEmpty(), "Reservation deleted elsewhere should not be found");
+    }
+
+    @Test
+    @DisplayName("Deleted reservation is not found after it has been read")
+    void deleteReservation_readReservation_notFound() {
+
+        // Arrange
+        Long id = book(101, 10, "+420 710 000 002");
+        reservationService.getReservationById(id);
+
+        // Act
+        reservationService.deleteReservation(id);
+
+        // Assert
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.getReservationById(id),
+                "Deleted reservation should not be served from the cache");
+    }
+
+    @Test
+    @DisplayName("Reservation of a deleted court is not found after it has been read")
+    void deleteCourt_readReservation_notFound() {
+
+        // Arrange
+        Long surfaceTypeId = surfaceTypeService.saveSurfaceType(new SurfaceTypeDTO("Cached Clay",
+                new BigDecimal("1.00"))).getId();
+        Long courtId = courtService.save(new CourtDTO(972, surfaceTypeId)).getId();
+        Long id = book(972, 10, "+420 710 000 003");
+        reservationService.getReservationById(id);
+
+        // Act
+        courtService.deleteCourt(courtId);
+
+        // Assert
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.getReservationById(id),
+                "Reservation of a deleted court should not be served from the cache");
+    }
+
+    @Test
+    @DisplayName("Lookup of a phone number sees the user inserted and renamed by the upsert")
+    void findByPhone_userInsertedAndRenamed_returnCurrentUser() {
+
+        // Arrange
+        String phoneNumber = "+420 710 000 004";
+        assertTrue(userDAO.findByPhone(phoneNumber).isEmpty(), "Phone number should be unknown");
+
+        // Act
+        book(101, 12, phoneNumber);
+        User inserted = userDAO.findByPhone(phoneNumber).orElseThrow();
+        reservationService.createReservation(new ReservationDTO("Renamed Cached Player", phoneNumber,
+                DATE.atTime(14, 0), DATE.atTime(15, 0), 101, GameType.SINGLES));
+        User renamed = userDAO.findByPhone(phoneNumber).orElseThrow();
+
+        // Assert
+        assertEquals("Cached Player", inserted.getUserName(), "Inserted user should be found");
+        assertEquals("Renamed Cached Player", renamed.getUserName(), "Renamed user should be found");
+    }
+
+    @Test
+    @DisplayName("Archived reservation is not found in the live table after it has been read")
+    void archivePastReservations_readReservation_notFound() {
+
+        // Arrange
+        Long id = book(101, 17, "+420 710 000 005");
+        reservationService.getReservationById(id);
+        jdbcTemplate.update("UPDATE reservation SET start_time = DATEADD(DAY, -1100, start_time), " +
+                "end_time = DATEADD(DAY, -1100, end_time) WHERE id = ?", id);
+
+        // Act
+        reservationArchiveService.archivePastReservations();
+
+        // Assert
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.getReservationById(id),
+                "Archived reservation should not be served from the cache");
+    }
+
+
+    private Long book(int courtNumber, int hour, String phoneNumber) {
+        return reservationService.createReservation(new ReservationDTO("Cached Player", phoneNumber,
+                DATE.atTime(hour, 0), DATE.atTime(hour + 1, 0), courtNumber, GameType.SINGLES)).getId();
+    }
+}
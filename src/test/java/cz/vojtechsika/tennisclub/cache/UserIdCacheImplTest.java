@@ -0,0 +1,76 @@
+package cz.vojtechsika.tennisclub.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserIdCacheImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UserIdCacheImpl userIdCache = new UserIdCacheImpl(2, 600_000, meterRegistry);
+
+
+    @Test
+    @DisplayName("Put user ID is found by phone number and the lookups are counted")
+    void findId_afterPut_returnIdAndRecordHitAndMiss() {
+
+        // Act
+        boolean missing = userIdCache.findId("123456789").isEmpty();
+        userIdCache.put("123456789", 7L);
+        Long actual = userIdCache.findId("123456789").orElseThrow();
+
+        // Assert
+        assertTrue(missing, "Unknown phone number should not be found");
+        assertEquals(7L, actual, "Put user ID should be returned");
+        assertEquals(1, gets("hit"), "One hit should be recorded");
+        assertEquals(1, gets("miss"), "One miss should be recorded");
+    }
+
+    @Test
+    @DisplayName("Evicted phone number is not found")
+    void findId_afterEvict_returnEmpty() {
+
+        // Arrange
+        userIdCache.put("123456789", 7L);
+
+        // Act
+        userIdCache.evict("123456789");
+
+        // Assert
+        assertTrue(userIdCache.findId("123456789").isEmpty(), "Evicted user ID should not be found");
+    }
+
+    @Test
+    @DisplayName("Cache holds at most the maximum size")
+    void put_moreUsersThanMaximumSize_evictOldest() {
+
+        // Act
+        for (long id = 1; id <= 5; id++) {
+            userIdCache.put("12345678" + id, id);
+        }
+
+        // Assert
+        assertEquals(2, meterRegistry.get("cache.size").tag("cache", "users.by-phone").gauge().value(),
+                "Cache should hold at most two users");
+        assertEquals(3, meterRegistry.get("cache.evictions").tag("cache", "users.by-phone")
+                .functionCounter().count(), "Three users should be evicted");
+    }
+
+    @Test
+    @DisplayName("Non-positive maximum size should throw IllegalArgumentException")
+    void constructor_nonPositiveMaximumSize_throwIllegalArgumentException() {
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new UserIdCacheImpl(0, 600_000, new SimpleMeterRegistry()),
+                "Should throw IllegalArgumentException");
+    }
+
+
+    private double gets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "users.by-phone").tag("result", result)
+                .functionCounter().count();
+    }
+}
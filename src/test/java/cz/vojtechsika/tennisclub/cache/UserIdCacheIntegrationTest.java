@@ -0,0 +1,130 @@
+package cz.vojtechsika.tennisclub.cache;
+
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.service.ReservationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks which statements on the {@code app_user} table a booking sends, using H2's
+ * {@code INFORMATION_SCHEMA.QUERY_STATISTICS}, so both the upsert and Hibernate's SQL are seen. The statistics
+ * group executions by their SQL, so each list holds the distinct statements of one booking.
+ */
+@SpringBootTest
+class UserIdCacheIntegrationTest {
+
+    private static final Pattern USER_TABLE = Pattern.compile("(?i)\\bapp_user\\b");
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserIdCache userIdCache;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+
+    @Test
+    @DisplayName("Repeat customer costs only the upsert and the cached ID spares reading it back")
+    void createReservation_repeatCustomer_onlyUpsertStatement() {
+
+        // Arrange
+        String phoneNumber = "+420 707 000 001";
+        LocalDate date = LocalDate.now().plusDays(810);
+        ReservationResponseDTO first = reservationService.createReservation(booking("Repeat Player", phoneNumber, date, 10));
+
+        // Act
+        List<String> repeatStatements = userStatementsOf(() ->
+                reservationService.createReservation(booking("Repeat Player", phoneNumber, date, 12)));
+        List<String> renameStatements = userStatementsOf(() ->
+                reservationService.createReservation(booking("Renamed Player", phoneNumber, date, 14)));
+        List<String> renamedRepeatStatements = userStatementsOf(() ->
+                reservationService.createReservation(booking("Renamed Player", phoneNumber, date, 16)));
+
+        // Assert
+        assertEquals("Repeat Player", first.getUserName(), "User name mismatch");
+        assertEquals(1, repeatStatements.size(), "Repeat booking should take only the upsert: " + repeatStatements);
+        assertEquals(1, renameStatements.size(), "Renaming should take one upsert: " + renameStatements);
+        assertEquals(1, renamedRepeatStatements.size(),
+                "Renamed repeat booking should take only the upsert: " + renamedRepeatStatements);
+        assertEquals("Renamed Player", userName(phoneNumber), "New name should be stored");
+        assertEquals(jdbc.queryForObject("SELECT id FROM app_user WHERE phone_number = ?", Long.class, phoneNumber),
+                userIdCache.findId(phoneNumber).orElseThrow(), "User ID should be cached");
+    }
+
+    @Test
+    @DisplayName("Booking under a name renamed by another instance stores the booking name again")
+    void createReservation_renamedByOtherInstance_storeBookingName() {
+
+        // Arrange
+        String phoneNumber = "+420 707 000 003";
+        LocalDate date = LocalDate.now().plusDays(812);
+        reservationService.createReservation(booking("Own Name", phoneNumber, date, 10));
+        jdbc.update("UPDATE app_user SET user_name = 'Other Name' WHERE phone_number = ?", phoneNumber);
+
+        // Act
+        ReservationResponseDTO actual = reservationService.createReservation(booking("Own Name", phoneNumber, date, 12));
+
+        // Assert
+        assertEquals("Own Name", actual.getUserName(), "Response should carry the booking name");
+        assertEquals("Own Name", userName(phoneNumber), "Booking name should be stored over the other one");
+    }
+
+    @Test
+    @DisplayName("Updating a reservation under a new name returns and stores the new name")
+    void updateReservation_newName_returnAndStoreNewName() {
+
+        // Arrange
+        String phoneNumber = "+420 707 000 002";
+        LocalDate date = LocalDate.now().plusDays(811);
+        ReservationResponseDTO created = reservationService.createReservation(booking("Old Name", phoneNumber, date, 10));
+
+        // Act
+        ReservationResponseDTO updated = reservationService.updateReservation(
+                booking("New Name", phoneNumber, date, 11), created.getId(), null);
+
+        // Assert
+        assertEquals("New Name", updated.getUserName(), "Response should carry the new name");
+        assertEquals("New Name", userName(phoneNumber), "New name should be stored");
+        assertEquals("New Name", reservationService.getReservationById(created.getId()).getUserName(),
+                "Reservation should be read with the new name");
+    }
+
+
+    private static ReservationDTO booking(String userName, String phoneNumber, LocalDate date, int hour) {
+        return new ReservationDTO(userName, phoneNumber, date.atTime(hour, 0), date.atTime(hour + 1, 0), 102,
+                GameType.SINGLES);
+    }
+
+    private String userName(String phoneNumber) {
+        return jdbc.queryForObject("SELECT user_name FROM app_user WHERE phone_number = ?", String.class, phoneNumber);
+    }
+
+    // Runs the booking and returns the statements it sent to the app_user table
+    private List<String> userStatementsOf(Supplier<?> booking) {
+        jdbc.execute("SET QUERY_STATISTICS FALSE");
+        jdbc.execute("SET QUERY_STATISTICS TRUE");
+        try {
+            booking.get();
+            return jdbc.queryForList("SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS", String.class)
+                    .stream()
+                    .filter(sql -> USER_TABLE.matcher(sql).find())
+                    .toList();
+        } finally {
+            jdbc.execute("SET QUERY_STATISTICS FALSE");
+        }
+    }
+}
@@ -30,19 +30,24 @@ class DataInitializerTest {
 
         InOrder inOrder = inOrder(jdbc);
 
+        when(jdbc.queryForObject("SELECT NEXT VALUE FOR surface_type_seq", Long.class)).thenReturn(1L);
+        when(jdbc.queryForObject("SELECT NEXT VALUE FOR court_seq", Long.class)).thenReturn(1L);
+
         // Act
         dataInitializer.run();
 
         // Assert
+        inOrder.verify(jdbc, times(1)).queryForObject("SELECT NEXT VALUE FOR surface_type_seq", Long.class);
         inOrder.verify(jdbc, times(1))
-                .execute("INSERT INTO surface_type (name, minute_price, deleted) VALUES ('Clay', 1.5, false)");
+                .execute("INSERT INTO surface_type (id, name, minute_price, deleted) VALUES (1, 'Clay', 1.5, false)");
         inOrder.verify(jdbc, times(1))
-                .execute("INSERT INTO surface_type (name, minute_price, deleted) VALUES ('Grass', 2.5, false)");
+                .execute("INSERT INTO surface_type (id, name, minute_price, deleted) VALUES (2, 'Grass', 2.5, false)");
 
-        inOrder.verify(jdbc, times(1)).execute("INSERT INTO court (court_number, surface_type_id, deleted) VALUES (101, 1, false)");
-        inOrder.verify(jdbc, times(1)).execute("INSERT INTO court (court_number, surface_type_id, deleted) VALUES (102, 1, false)");
-        inOrder.verify(jdbc, times(1)).execute("INSERT INTO court (court_number, surface_type_id, deleted) VALUES (103, 1, false)");
-        inOrder.verify(jdbc, times(1)).execute("INSERT INTO court (court_number, surface_type_id, deleted) VALUES (104, 2, false)");
+        inOrder.verify(jdbc, times(1)).queryForObject("SELECT NEXT VALUE FOR court_seq", Long.class);
+        inOrder.verify(jdbc, times(1)).execute("INSERT INTO court (id, court_number, surface_type_id, deleted) VALUES (1, 101, 1, false)");
+        inOrder.verify(jdbc, times(1)).execute("INSERT INTO court (id, court_number, surface_type_id, deleted) VALUES (2, 102, 1, false)");
+        inOrder.verify(jdbc, times(1)).execute("INSERT INTO court (id, court_number, surface_type_id, deleted) VALUES (3, 103, 1, false)");
+        inOrder.verify(jdbc, times(1)).execute("INSERT INTO court (id, court_number, surface_type_id, deleted) VALUES (4, 104, 2, false)");
 
         inOrder.verifyNoMoreInteractions();
     }
@@ -2,13 +2,20 @@ package cz.vojtechsika.tennisclub.dao;
 
 import cz.vojtechsika.tennisclub.entity.Court;
 import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import cz.vojtechsika.tennisclub.metrics.SlowQueryLog;
+import cz.vojtechsika.tennisclub.metrics.SlowQueryLogImpl;
+import jakarta.persistence.CacheRetrieveMode;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 
@@ -27,6 +34,9 @@ class CourtDAOImplTest {
     @Mock
     private TypedQuery<Court> query;
 
+    @Spy
+    private SlowQueryLog slowQueryLog = new SlowQueryLogImpl(200, 100);
+
     @InjectMocks
     private CourtDAOImpl courtDAO;
 
@@ -100,6 +110,7 @@ class CourtDAOImplTest {
         when(entityManager.createQuery(anyString(), eq(Court.class))).thenReturn(query);
         when(query.setParameter(eq("courtNumber"), eq(courtNumber))).thenReturn(query);
         when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.setHint(anyString(), any())).thenReturn(query);
         when(query.getResultList()).thenReturn(List.of(new Court()));
 
         // Act
@@ -119,6 +130,7 @@ class CourtDAOImplTest {
         when(entityManager.createQuery(anyString(), eq(Court.class))).thenReturn(query);
         when(query.setParameter(eq("courtNumber"), eq(courtNumber))).thenReturn(query);
         when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.setHint(anyString(), any())).thenReturn(query);
         when(query.getResultList()).thenReturn(List.of());
 
         // Act
@@ -128,6 +140,30 @@ class CourtDAOImplTest {
         assertTrue(actual.isEmpty(), "Court should be found");
     }
 
+    @Test
+    @DisplayName("Fetch court by court number from the database, bypassing the caches")
+    void findCurrentByCourtNumber_validCourtNumber_bypassCaches() {
+
+        // Arrange
+        int courtNumber = 101;
+
+        when(entityManager.createQuery(anyString(), eq(Court.class))).thenReturn(query);
+        when(query.setParameter(eq("courtNumber"), eq(courtNumber))).thenReturn(query);
+        when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.setHint(anyString(), any())).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of(new Court()));
+
+        // Act
+        Optional<Court> actual = courtDAO.findCurrentByCourtNumber(courtNumber);
+
+        // Assert
+        assertTrue(actual.isPresent(), "Court should be found");
+
+        // Verify
+        verify(query, times(1)).setHint(SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+        verify(query, never()).setHint(eq(HibernateHints.HINT_CACHEABLE), any());
+    }
+
     @Test
     @DisplayName("Fetch all court")
     void findAll_returnCourtFromDatabase() {
@@ -207,4 +243,106 @@ class CourtDAOImplTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Fetch all courts with surface type filtered by surface type")
+    void findAllWithSurfaceType_validSurfaceTypeId_returnCourtsFromDatabase() {
+
+        // Arrange
+        Long surfaceTypeId = 3L;
+
+        Court court = new Court();
+        court.setId(1L);
+
+        List<Court> courts = List.of(court);
+
+        when(entityManager.createQuery(anyString(), eq(Court.class))).thenReturn(query);
+        when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.setParameter(eq("surfaceTypeId"), eq(surfaceTypeId))).thenReturn(query);
+        when(query.getResultList()).thenReturn(courts);
+
+        // Act
+        List<Court> actual = courtDAO.findAllWithSurfaceType(surfaceTypeId);
+
+        // Assert
+        assertEquals(courts, actual, "Object should be the same");
+    }
+
+    @Test
+    @DisplayName("Fetch all courts with surface type without filter")
+    void findAllWithSurfaceType_nullSurfaceTypeId_returnAllCourtsFromDatabase() {
+
+        // Arrange
+        List<Court> courts = List.of(new Court(), new Court());
+
+        when(entityManager.createQuery(anyString(), eq(Court.class))).thenReturn(query);
+        when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.getResultList()).thenReturn(courts);
+
+        // Act
+        List<Court> actual = courtDAO.findAllWithSurfaceType(null);
+
+        // Assert
+        assertEquals(courts, actual, "Object should be the same");
+
+        // Verify
+        verify(query, never()).setParameter(eq("surfaceTypeId"), any());
+    }
+
+    @Test
+    @DisplayName("Fetch courts with surface type by court numbers")
+    void findAllByCourtNumbers_courtNumbersProvided_returnCourtsFromDatabase() {
+
+        // Arrange
+        List<Integer> courtNumbers = List.of(101, 102);
+        List<Court> courts = List.of(new Court(), new Court());
+
+        when(entityManager.createQuery(anyString(), eq(Court.class))).thenReturn(query);
+        when(query.setParameter(eq("courtNumbers"), eq(courtNumbers))).thenReturn(query);
+        when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.getResultList()).thenReturn(courts);
+
+        // Act
+        List<Court> actual = courtDAO.findAllByCourtNumbers(courtNumbers);
+
+        // Assert
+        assertEquals(courts, actual, "Object should be the same");
+    }
+
+    @Test
+    @DisplayName("Fetch courts by no court numbers does not query database")
+    void findAllByCourtNumbers_noCourtNumbers_returnEmptyList() {
+
+        // Act
+        List<Court> actual = courtDAO.findAllByCourtNumbers(List.of());
+
+        // Assert
+        assertTrue(actual.isEmpty(), "List should be empty");
+
+        // Verify
+        verify(entityManager, never()).createQuery(anyString(), eq(Court.class));
+    }
+
+    @Test
+    @DisplayName("Soft delete courts of surface type with one statement")
+    void softDeleteAllBySurfaceTypeId_validId_returnUpdatedCount() {
+
+        // Arrange
+        Long surfaceTypeId = 2L;
+        Query update = mock(Query.class);
+
+        when(entityManager.createQuery(startsWith("UPDATE Court c SET c.deleted"))).thenReturn(update);
+        when(update.setParameter(eq("isTrue"), eq(true))).thenReturn(update);
+        when(update.setParameter(eq("surfaceTypeId"), eq(surfaceTypeId))).thenReturn(update);
+        when(update.setParameter(eq("isFalse"), eq(false))).thenReturn(update);
+        when(update.executeUpdate()).thenReturn(3);
+
+        // Act
+        int actual = courtDAO.softDeleteAllBySurfaceTypeId(surfaceTypeId);
+
+        // Assert
+        assertEquals(3, actual, "Updated count mismatch");
+
+        // Verify
+        verify(update, times(1)).executeUpdate();
+    }
+}
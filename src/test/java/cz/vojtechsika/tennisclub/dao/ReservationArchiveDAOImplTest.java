@@ -0,0 +1,169 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.entity.ArchivedReservation;
+import cz.vojtechsika.tennisclub.metrics.SlowQueryLog;
+import cz.vojtechsika.tennisclub.util.ReservationCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationArchiveDAOImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<ArchivedReservation> query;
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbc;
+
+    @Mock
+    private SlowQueryLog slowQueryLog;
+
+    @InjectMocks
+    private ReservationArchiveDAOImpl reservationArchiveDAO;
+
+
+    @Test
+    @DisplayName("Move fills the chunk with deleted reservations, copies it, releases its slot claims and deletes it")
+    void moveStartedBefore_activeAndDeletedReservations_copyAndDeleteChunk() {
+
+        // Arrange
+        LocalDateTime before = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(jdbc.queryForList(startsWith("SELECT id FROM reservation"), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(7L, 8L), List.of(9L));
+
+        // Act
+        List<Long> actual = reservationArchiveDAO.moveStartedBefore(before, 500);
+
+        // Assert
+        assertEquals(List.of(7L, 8L, 9L), actual, "IDs of the moved reservations should be returned");
+
+        // Verify
+        verify(jdbc, times(1)).update(startsWith("INSERT INTO reservation_archive"), any(SqlParameterSource.class));
+        verify(jdbc, times(1)).update(eq("DELETE FROM reservation_slot WHERE reservation_id IN (:ids)"),
+                any(SqlParameterSource.class));
+        verify(jdbc, times(1)).update(eq("DELETE FROM reservation WHERE id IN (:ids)"), any(SqlParameterSource.class));
+    }
+
+    @Test
+    @DisplayName("Move with a full chunk of active reservations does not look for deleted ones")
+    void moveStartedBefore_fullChunkOfActiveReservations_selectOnce() {
+
+        // Arrange
+        when(jdbc.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class))).thenReturn(List.of(7L, 8L));
+
+        // Act
+        List<Long> actual = reservationArchiveDAO.moveStartedBefore(LocalDateTime.of(2025, 1, 1, 0, 0), 2);
+
+        // Assert
+        assertEquals(List.of(7L, 8L), actual, "Full chunk should be moved");
+
+        // Verify
+        verify(jdbc, times(1)).queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class));
+    }
+
+    @Test
+    @DisplayName("Move without past reservations writes nothing")
+    void moveStartedBefore_noPastReservations_writeNothing() {
+
+        // Arrange
+        when(jdbc.queryForList(anyString(), any(SqlParameterSource.class), eq(Long.class))).thenReturn(List.of());
+
+        // Act
+        List<Long> actual = reservationArchiveDAO.moveStartedBefore(LocalDateTime.of(2025, 1, 1, 0, 0), 500);
+
+        // Assert
+        assertTrue(actual.isEmpty(), "Nothing should be moved");
+
+        // Verify
+        verify(jdbc, never()).update(anyString(), any(SqlParameterSource.class));
+    }
+
+    @Test
+    @DisplayName("Fetch page of archived reservations by phone number after cursor")
+    void findPageByPhoneNumber_cursor_bindCursorAndLimit() {
+
+        // Arrange
+        ReservationCursor after = new ReservationCursor(LocalDateTime.of(2025, 1, 1, 10, 0), 7L);
+        List<ArchivedReservation> reservations = List.of(new ArchivedReservation());
+
+        when(entityManager.createQuery(anyString(), eq(ArchivedReservation.class))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.setMaxResults(11)).thenReturn(query);
+        when(slowQueryLog.getResultList(query)).thenReturn(reservations);
+
+        // Act
+        List<ArchivedReservation> actual = reservationArchiveDAO.findPageByPhoneNumber("+420 123 456 789", after, 11);
+
+        // Assert
+        assertEquals(reservations, actual, "Should return the page");
+
+        // Verify
+        verify(query, times(1)).setParameter("phoneNumber", "+420 123 456 789");
+        verify(query, times(1)).setParameter("afterStartTime", after.startTime());
+        verify(query, times(1)).setParameter("afterId", 7L);
+        verify(query, never()).getResultList();
+    }
+
+    @Test
+    @DisplayName("Fetch first page of archived reservations without cursor")
+    void findPage_noCursor_doNotBindCursor() {
+
+        // Arrange
+        when(entityManager.createQuery(anyString(), eq(ArchivedReservation.class))).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.setMaxResults(51)).thenReturn(query);
+        when(slowQueryLog.getResultList(query)).thenReturn(List.of());
+
+        // Act
+        List<ArchivedReservation> actual = reservationArchiveDAO.findPage(null, 51);
+
+        // Assert
+        assertTrue(actual.isEmpty(), "Page should be empty");
+
+        // Verify
+        verify(query, never()).setParameter(eq("afterId"), any());
+    }
+
+    @Test
+    @DisplayName("Stream all archived reservations with fetch size and read-only hints")
+    void streamAll_fetchSize_returnStreamOfArchivedReservations() {
+
+        // Arrange
+        ArchivedReservation reservation = new ArchivedReservation();
+
+        when(entityManager.createQuery(contains("JOIN FETCH r.court JOIN FETCH r.user"), eq(ArchivedReservation.class)))
+                .thenReturn(query);
+        when(query.setParameter("isFalse", false)).thenReturn(query);
+        when(query.setHint(anyString(), any())).thenReturn(query);
+        when(query.getResultStream()).thenReturn(Stream.of(reservation));
+
+        // Act
+        List<ArchivedReservation> actual = reservationArchiveDAO.streamAll(250).toList();
+
+        // Assert
+        assertEquals(List.of(reservation), actual, "Streamed reservations should be the same");
+
+        // Verify
+        verify(query, times(1)).setHint(HibernateHints.HINT_FETCH_SIZE, 250);
+        verify(query, times(1)).setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+}
@@ -0,0 +1,199 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.User;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationBatchDAOImplTest {
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    @InjectMocks
+    private ReservationBatchDAOImpl reservationBatchDAO;
+
+
+    @Test
+    @DisplayName("Upsert users in one batch and set the ids read back by phone number")
+    void upsertUsers_twoUsers_setIdsOfWrittenRows() throws Exception {
+
+        // Arrange
+        User first = user("111", "First");
+        User second = user("222", "Second");
+        returnBlockStarts("app_user_seq", 1, 10L);
+        returnIds(Map.of("111", 3L, "222", 10L));
+
+        // Act
+        reservationBatchDAO.upsertUsers(List.of(first, second));
+
+        // Assert
+        assertEquals(3L, first.getId(), "Existing user id mismatch");
+        assertEquals(10L, second.getId(), "New user id mismatch");
+
+        // Verify
+        verify(jdbc, times(1)).batchUpdate(startsWith("MERGE INTO app_user u"),
+                any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Upsert repeats the batch when another transaction inserted one of the users meanwhile")
+    void upsertUsers_insertedConcurrently_repeatBatch() throws Exception {
+
+        // Arrange
+        User user = user("111", "First");
+        returnBlockStarts("app_user_seq", 1, 10L);
+        when(jdbc.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DuplicateKeyException("duplicate"))
+                .thenReturn(new int[]{1});
+        returnIds(Map.of("111", 7L));
+
+        // Act
+        reservationBatchDAO.upsertUsers(List.of(user));
+
+        // Assert
+        assertEquals(7L, user.getId(), "Id of the committed user should be set");
+
+        // Verify
+        verify(jdbc, times(2)).batchUpdate(startsWith("MERGE INTO app_user u"),
+                any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Insert reservations in one batch with ids reserved from the sequence")
+    void insertReservations_oneReservation_setReservedId() {
+
+        // Arrange
+        Reservation reservation = reservation();
+        returnBlockStarts("reservation_seq", 1, 42L);
+
+        // Act
+        reservationBatchDAO.insertReservations(List.of(reservation));
+
+        // Assert
+        assertEquals(42L, reservation.getId(), "Reservation id mismatch");
+        assertEquals(0L, reservation.getVersion(), "New reservation should have version 0");
+    }
+
+    @Test
+    @DisplayName("Reservations over one id block take ids from several sequence values")
+    void insertReservations_moreThanOneBlock_useIdsOfAllBlocks() {
+
+        // Arrange
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 51; i++) {
+            reservations.add(reservation());
+        }
+        returnBlockStarts("reservation_seq", 2, 1L, 101L);
+
+        // Act
+        reservationBatchDAO.insertReservations(reservations);
+
+        // Assert
+        assertEquals(1L, reservations.get(0).getId(), "First id of the first block mismatch");
+        assertEquals(50L, reservations.get(49).getId(), "Last id of the first block mismatch");
+        assertEquals(101L, reservations.get(50).getId(), "First id of the second block mismatch");
+    }
+
+    @Test
+    @DisplayName("Missing sequence values are reported")
+    void insertReservations_missingBlock_throwIllegalStateException() {
+
+        // Arrange
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < 51; i++) {
+            reservations.add(reservation());
+        }
+        returnBlockStarts("reservation_seq", 2, 1L);
+
+        // Act and Assert
+        assertThrows(IllegalStateException.class, () -> reservationBatchDAO.insertReservations(reservations),
+                "Should fail when the sequence returns fewer blocks than needed");
+
+        // Verify
+        verify(jdbc, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Empty lists do not touch the database")
+    void insert_emptyLists_noStatement() {
+
+        // Act
+        reservationBatchDAO.upsertUsers(List.of());
+        reservationBatchDAO.insertReservations(List.of());
+
+        // Verify
+        verifyNoInteractions(jdbc);
+    }
+
+
+    private void returnBlockStarts(String sequence, int blocks, Long... blockStarts) {
+        when(jdbc.queryForList("SELECT NEXT VALUE FOR " + sequence + " FROM SYSTEM_RANGE(1, ?)", Long.class, blocks))
+                .thenReturn(List.of(blockStarts));
+    }
+
+    // Answers the query of the user ids by calling its row handler once per phone number
+    private void returnIds(Map<String, Long> idsByPhone) throws SQLException {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map.Entry<String, Long> entry : idsByPhone.entrySet()) {
+                ResultSet resultSet = mock(ResultSet.class);
+                when(resultSet.getString(2)).thenReturn(entry.getKey());
+                when(resultSet.getLong(1)).thenReturn(entry.getValue());
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbc).query(startsWith("SELECT id, phone_number FROM app_user"), any(RowCallbackHandler.class),
+                any(Object[].class));
+    }
+
+    private User user(String phoneNumber, String userName) {
+        User user = new User();
+        user.setPhoneNumber(phoneNumber);
+        user.setUserName(userName);
+        return user;
+    }
+
+    private Reservation reservation() {
+        User user = new User();
+        user.setId(1L);
+
+        Court court = new Court();
+        court.setId(2L);
+
+        LocalDateTime startTime = LocalDateTime.of(2030, 1, 1, 18, 0);
+
+        Reservation reservation = new Reservation();
+        reservation.setStartTime(startTime);
+        reservation.setEndTime(startTime.plusHours(1));
+        reservation.setCreatedAt(startTime.minusDays(1));
+        reservation.setPrice(BigDecimal.TEN);
+        reservation.setGameType(GameType.SINGLES);
+        reservation.setUser(user);
+        reservation.setCourt(court);
+        return reservation;
+    }
+}
@@ -1,20 +1,29 @@
 package cz.vojtechsika.tennisclub.dao;
 
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
 import cz.vojtechsika.tennisclub.entity.Court;
 import cz.vojtechsika.tennisclub.entity.Reservation;
 import cz.vojtechsika.tennisclub.entity.User;
+import cz.vojtechsika.tennisclub.util.ReservationCursor;
+import cz.vojtechsika.tennisclub.metrics.SlowQueryLog;
+import cz.vojtechsika.tennisclub.metrics.SlowQueryLogImpl;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.jpa.HibernateHints;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +37,9 @@ class ReservationDAOImplTest {
     @Mock
     private TypedQuery<Reservation> query;
 
+    @Spy
+    private SlowQueryLog slowQueryLog = new SlowQueryLogImpl(200, 100);
+
     @InjectMocks
     private ReservationDAOImpl reservationDAO;
 
@@ -210,13 +222,14 @@ class ReservationDAOImplTest {
     }
 
     @Test
-    @DisplayName("Fetch all reservation in future by phone number")
-    void findAllByPhoneNumber_validPhoneNumberFutureOnly_returnListOfReservationsFromDatabase() {
+    @DisplayName("Fetch page of reservations in future by phone number after cursor")
+    void findPageByPhoneNumber_validPhoneNumberFutureOnly_returnListOfReservationsFromDatabase() {
 
         // Arrange
         String phoneNumber = "123456789";
         int courtNumber = 101;
         boolean futureOnly = true;
+        ReservationCursor after = new ReservationCursor(LocalDateTime.of(2030, 1, 1, 10, 0), 7L);
 
         User user = new User();
         user.setPhoneNumber(phoneNumber);
@@ -238,10 +251,13 @@ class ReservationDAOImplTest {
         when(query.setParameter(eq("phoneNumber"), eq(phoneNumber))).thenReturn(query);
         when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
         when(query.setParameter(eq("from"), any(LocalDateTime.class))).thenReturn(query);
+        when(query.setParameter(eq("afterStartTime"), eq(after.startTime()))).thenReturn(query);
+        when(query.setParameter(eq("afterId"), eq(after.id()))).thenReturn(query);
+        when(query.setMaxResults(21)).thenReturn(query);
         when(query.getResultList()).thenReturn(reservations);
 
         // Act
-        List<Reservation> actual = reservationDAO.findAllByPhoneNumber(phoneNumber, futureOnly);
+        List<Reservation> actual = reservationDAO.findPageByPhoneNumber(phoneNumber, futureOnly, after, 21);
 
         // Assert
         assertEquals(reservations, actual,"Object should be the same");
@@ -251,8 +267,8 @@ class ReservationDAOImplTest {
     }
 
     @Test
-    @DisplayName("Fetch all reservation by phone number")
-    void findAllByPhoneNumber_validPhoneNumber_returnListOfReservationsFromDatabase() {
+    @DisplayName("Fetch first page of reservations by phone number")
+    void findPageByPhoneNumber_validPhoneNumber_returnListOfReservationsFromDatabase() {
 
         // Arrange
         String phoneNumber = "123456789";
@@ -278,10 +294,11 @@ class ReservationDAOImplTest {
         when(entityManager.createQuery(anyString(), eq(Reservation.class))).thenReturn(query);
         when(query.setParameter(eq("phoneNumber"), eq(phoneNumber))).thenReturn(query);
         when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.setMaxResults(21)).thenReturn(query);
         when(query.getResultList()).thenReturn(reservations);
 
         // Act
-        List<Reservation> actual = reservationDAO.findAllByPhoneNumber(phoneNumber, futureOnly);
+        List<Reservation> actual = reservationDAO.findPageByPhoneNumber(phoneNumber, futureOnly, null, 21);
 
         // Assert
         assertEquals(reservations, actual,"Object should be the same");
@@ -320,6 +337,41 @@ class ReservationDAOImplTest {
 
     }
 
+    @Test
+    @DisplayName("Stream all existing reservations with fetch size and read-only hints")
+    void streamAll_fetchSize_returnStreamOfReservationsFromDatabase() {
+
+        // Arrange
+        Reservation reservation = new Reservation();
+
+        when(entityManager.createQuery(contains("JOIN FETCH r.court JOIN FETCH r.user"), eq(Reservation.class)))
+                .thenReturn(query);
+        when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.setHint(anyString(), any())).thenReturn(query);
+        when(query.getResultStream()).thenReturn(Stream.of(reservation));
+
+        // Act
+        List<Reservation> actual = reservationDAO.streamAll(250).toList();
+
+        // Assert
+        assertEquals(List.of(reservation), actual, "Streamed reservations should be the same");
+
+        // Verify
+        verify(query, times(1)).setHint(HibernateHints.HINT_FETCH_SIZE, 250);
+        verify(query, times(1)).setHint(HibernateHints.HINT_READ_ONLY, true);
+    }
+
+    @Test
+    @DisplayName("Clear detaches all entities of the persistence context")
+    void clear_clearEntityManager() {
+
+        // Act
+        reservationDAO.clear();
+
+        // Verify
+        verify(entityManager, times(1)).clear();
+    }
+
     @Test
     void update() {
 
@@ -338,4 +390,371 @@ class ReservationDAOImplTest {
 
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Update several reservations with a single flush")
+    void updateAll_twoReservations_mergeEachAndFlushOnce() {
+
+        // Arrange
+        Reservation first = new Reservation();
+        Reservation second = new Reservation();
+        when(entityManager.merge(first)).thenReturn(first);
+        when(entityManager.merge(second)).thenReturn(second);
+
+        // Act
+        List<Reservation> actual = reservationDAO.updateAll(List.of(first, second));
+
+        // Assert
+        assertEquals(List.of(first, second), actual, "Merged reservations should be returned");
+
+        // Verify
+        verify(entityManager, times(2)).merge(any(Reservation.class));
+        verify(entityManager, times(1)).flush();
+    }
+
+    @Test
+    @DisplayName("Fetch reservation intervals starting from date")
+    void findAllIntervalsStartingFrom_validDate_returnListOfIntervalsFromDatabase() {
+
+        // Arrange
+        LocalDateTime from = LocalDateTime.now();
+
+        @SuppressWarnings("unchecked")
+        TypedQuery<ReservationInterval> intervalQuery = mock(TypedQuery.class);
+
+        List<ReservationInterval> intervals = List.of(
+                new ReservationInterval(1L, 101, from.plusHours(1), from.plusHours(2)));
+
+        when(entityManager.createQuery(anyString(), eq(ReservationInterval.class))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("from"), eq(from))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("isFalse"), eq(false))).thenReturn(intervalQuery);
+        when(intervalQuery.getResultList()).thenReturn(intervals);
+
+        // Act
+        List<ReservationInterval> actual = reservationDAO.findAllIntervalsStartingFrom(from);
+
+        // Assert
+        assertEquals(intervals, actual, "Object should be the same");
+    }
+
+    @Test
+    @DisplayName("Fetch reservation intervals of court between dates")
+    void findAllIntervalsByCourtNumberBetween_validCourtNumber_returnListOfIntervalsFromDatabase() {
+
+        // Arrange
+        int courtNumber = 101;
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(1);
+
+        @SuppressWarnings("unchecked")
+        TypedQuery<ReservationInterval> intervalQuery = mock(TypedQuery.class);
+
+        List<ReservationInterval> intervals = List.of(
+                new ReservationInterval(1L, courtNumber, from.plusHours(1), from.plusHours(2)));
+
+        when(entityManager.createQuery(anyString(), eq(ReservationInterval.class))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("courtNumber"), eq(courtNumber))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("from"), eq(from))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("to"), eq(to))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("isFalse"), eq(false))).thenReturn(intervalQuery);
+        when(intervalQuery.getResultList()).thenReturn(intervals);
+
+        // Act
+        List<ReservationInterval> actual = reservationDAO.findAllIntervalsByCourtNumberBetween(courtNumber, from, to);
+
+        // Assert
+        assertEquals(intervals, actual, "Object should be the same");
+    }
+
+    @Test
+    @DisplayName("Fetch reservation intervals of several courts between dates")
+    void findAllIntervalsByCourtNumbersBetween_validCourtNumbers_returnListOfIntervalsFromDatabase() {
+
+        // Arrange
+        List<Integer> courtNumbers = List.of(101, 102);
+        LocalDateTime from = LocalDateTime.now();
+        LocalDateTime to = from.plusDays(1);
+
+        @SuppressWarnings("unchecked")
+        TypedQuery<ReservationInterval> intervalQuery = mock(TypedQuery.class);
+
+        List<ReservationInterval> intervals = List.of(
+                new ReservationInterval(1L, 101, from.plusHours(1), from.plusHours(2)),
+                new ReservationInterval(2L, 102, from.plusHours(1), from.plusHours(2)));
+
+        when(entityManager.createQuery(anyString(), eq(ReservationInterval.class))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("courtNumbers"), eq(courtNumbers))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("from"), eq(from))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("to"), eq(to))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("isFalse"), eq(false))).thenReturn(intervalQuery);
+        when(intervalQuery.getResultList()).thenReturn(intervals);
+
+        // Act
+        List<ReservationInterval> actual = reservationDAO.findAllIntervalsByCourtNumbersBetween(courtNumbers, from, to);
+
+        // Assert
+        assertEquals(intervals, actual, "Object should be the same");
+    }
+
+    @Test
+    @DisplayName("Fetch occupied court numbers between times")
+    void findOccupiedCourtNumbersBetween_validTimes_returnCourtNumbersFromDatabase() {
+
+        // Arrange
+        LocalDateTime startTime = LocalDateTime.now();
+        LocalDateTime endTime = startTime.plusHours(1);
+
+        @SuppressWarnings("unchecked")
+        TypedQuery<Integer> courtNumberQuery = mock(TypedQuery.class);
+
+        List<Integer> courtNumbers = List.of(101, 102);
+
+        when(entityManager.createQuery(anyString(), eq(Integer.class))).thenReturn(courtNumberQuery);
+        when(courtNumberQuery.setParameter(eq("startTime"), eq(startTime))).thenReturn(courtNumberQuery);
+        when(courtNumberQuery.setParameter(eq("endTime"), eq(endTime))).thenReturn(courtNumberQuery);
+        when(courtNumberQuery.setParameter(eq("isFalse"), eq(false))).thenReturn(courtNumberQuery);
+        when(courtNumberQuery.getResultList()).thenReturn(courtNumbers);
+
+        // Act
+        List<Integer> actual = reservationDAO.findOccupiedCourtNumbersBetween(startTime, endTime);
+
+        // Assert
+        assertEquals(courtNumbers, actual, "Object should be the same");
+    }
+
+    @Test
+    @DisplayName("Fetch reservation interval by id")
+    void findIntervalById_validId_returnIntervalFromDatabase() {
+
+        // Arrange
+        Long id = 1L;
+        LocalDateTime startTime = LocalDateTime.now();
+
+        @SuppressWarnings("unchecked")
+        TypedQuery<ReservationInterval> intervalQuery = mock(TypedQuery.class);
+
+        ReservationInterval interval = new ReservationInterval(id, 101, startTime, startTime.plusHours(1));
+
+        when(entityManager.createQuery(anyString(), eq(ReservationInterval.class))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("id"), eq(id))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("isFalse"), eq(false))).thenReturn(intervalQuery);
+        when(intervalQuery.getResultList()).thenReturn(List.of(interval));
+
+        // Act
+        Optional<ReservationInterval> actual = reservationDAO.findIntervalById(id);
+
+        // Assert
+        assertTrue(actual.isPresent(), "Interval should be present");
+        assertEquals(interval, actual.get(), "Object should be the same");
+    }
+
+    @Test
+    @DisplayName("Fetch all reservations of series")
+    void findAllBySeriesId_validId_returnReservationsFromDatabase() {
+
+        // Arrange
+        Long seriesId = 3L;
+        List<Reservation> reservations = List.of(new Reservation(), new Reservation());
+
+        when(entityManager.createQuery(anyString(), eq(Reservation.class))).thenReturn(query);
+        when(query.setParameter(eq("seriesId"), eq(seriesId))).thenReturn(query);
+        when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.getResultList()).thenReturn(reservations);
+
+        // Act
+        List<Reservation> actual = reservationDAO.findAllBySeriesId(seriesId);
+
+        // Assert
+        assertEquals(reservations, actual, "Object should be the same");
+    }
+
+    @Test
+    @DisplayName("Fetch upcoming intervals of series")
+    void findAllIntervalsBySeriesIdStartingFrom_validId_returnIntervalsFromDatabase() {
+
+        // Arrange
+        Long seriesId = 3L;
+        LocalDateTime from = LocalDateTime.now();
+
+        @SuppressWarnings("unchecked")
+        TypedQuery<ReservationInterval> intervalQuery = mock(TypedQuery.class);
+
+        List<ReservationInterval> intervals = List.of(new ReservationInterval(1L, 101, from, from.plusHours(1)));
+
+        when(entityManager.createQuery(anyString(), eq(ReservationInterval.class))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("seriesId"), eq(seriesId))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("from"), eq(from))).thenReturn(intervalQuery);
+        when(intervalQuery.setParameter(eq("isFalse"), eq(false))).thenReturn(intervalQuery);
+        when(intervalQuery.getResultList()).thenReturn(intervals);
+
+        // Act
+        List<ReservationInterval> actual = reservationDAO.findAllIntervalsBySeriesIdStartingFrom(seriesId, from);
+
+        // Assert
+        assertEquals(intervals, actual, "Object should be the same");
+    }
+
+    @Test
+    @DisplayName("Shift upcoming reservations of series with one statement")
+    void shiftAllBySeriesIdStartingFrom_validId_returnUpdatedCount() {
+
+        // Arrange
+        Long seriesId = 3L;
+        LocalDateTime from = LocalDateTime.now();
+        Query update = mock(Query.class);
+
+        when(entityManager.createQuery(startsWith("UPDATE Reservation r SET r.startTime"))).thenReturn(update);
+        when(update.setParameter(eq("shiftMinutes"), eq(90L))).thenReturn(update);
+        when(update.setParameter(eq("seriesId"), eq(seriesId))).thenReturn(update);
+        when(update.setParameter(eq("from"), eq(from))).thenReturn(update);
+        when(update.setParameter(eq("isFalse"), eq(false))).thenReturn(update);
+        when(update.executeUpdate()).thenReturn(4);
+
+        // Act
+        int actual = reservationDAO.shiftAllBySeriesIdStartingFrom(seriesId, from, Duration.ofMinutes(90));
+
+        // Assert
+        assertEquals(4, actual, "Updated count mismatch");
+
+        // Verify
+        verify(update, times(1)).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("Soft delete upcoming reservations of series with one statement")
+    void softDeleteAllBySeriesIdStartingFrom_validId_returnUpdatedCount() {
+
+        // Arrange
+        Long seriesId = 3L;
+        LocalDateTime from = LocalDateTime.now();
+        Query update = mock(Query.class);
+
+        when(entityManager.createQuery(startsWith("UPDATE Reservation r SET r.deleted"))).thenReturn(update);
+        when(update.setParameter(eq("isTrue"), eq(true))).thenReturn(update);
+        when(update.setParameter(eq("seriesId"), eq(seriesId))).thenReturn(update);
+        when(update.setParameter(eq("from"), eq(from))).thenReturn(update);
+        when(update.setParameter(eq("isFalse"), eq(false))).thenReturn(update);
+        when(update.executeUpdate()).thenReturn(4);
+
+        // Act
+        int actual = reservationDAO.softDeleteAllBySeriesIdStartingFrom(seriesId, from);
+
+        // Assert
+        assertEquals(4, actual, "Updated count mismatch");
+    }
+
+    @Test
+    @DisplayName("Soft delete reservations of court with one statement")
+    void softDeleteAllByCourtId_validId_returnUpdatedCount() {
+
+        // Arrange
+        Long courtId = 5L;
+        Query update = mock(Query.class);
+
+        when(entityManager.createQuery(startsWith("UPDATE Reservation r SET r.deleted"))).thenReturn(update);
+        when(update.setParameter(eq("isTrue"), eq(true))).thenReturn(update);
+        when(update.setParameter(eq("courtId"), eq(courtId))).thenReturn(update);
+        when(update.setParameter(eq("isFalse"), eq(false))).thenReturn(update);
+        when(update.executeUpdate()).thenReturn(7);
+
+        // Act
+        int actual = reservationDAO.softDeleteAllByCourtId(courtId);
+
+        // Assert
+        assertEquals(7, actual, "Updated count mismatch");
+
+        // Verify
+        verify(update, times(1)).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("Soft delete reservations of all courts of surface type with one statement")
+    void softDeleteAllBySurfaceTypeId_validId_returnUpdatedCount() {
+
+        // Arrange
+        Long surfaceTypeId = 2L;
+        Query update = mock(Query.class);
+
+        when(entityManager.createQuery(contains("r.court.id IN (SELECT c.id FROM Court c"))).thenReturn(update);
+        when(update.setParameter(eq("isTrue"), eq(true))).thenReturn(update);
+        when(update.setParameter(eq("surfaceTypeId"), eq(surfaceTypeId))).thenReturn(update);
+        when(update.setParameter(eq("isFalse"), eq(false))).thenReturn(update);
+        when(update.executeUpdate()).thenReturn(12);
+
+        // Act
+        int actual = reservationDAO.softDeleteAllBySurfaceTypeId(surfaceTypeId);
+
+        // Assert
+        assertEquals(12, actual, "Updated count mismatch");
+
+        // Verify
+        verify(update, times(1)).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("Fetch first page of all reservations in start time order")
+    void findPage_noCursor_returnFirstPageFromDatabase() {
+
+        // Arrange
+        List<Reservation> reservations = List.of(new Reservation(), new Reservation());
+
+        when(entityManager.createQuery(endsWith("WHERE r.deleted = :isFalse ORDER BY r.startTime ASC, r.id ASC"),
+                eq(Reservation.class))).thenReturn(query);
+        when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.setMaxResults(51)).thenReturn(query);
+        when(query.getResultList()).thenReturn(reservations);
+
+        // Act
+        List<Reservation> actual = reservationDAO.findPage(null, 51);
+
+        // Assert
+        assertEquals(reservations, actual, "Object should be the same");
+
+        // Verify
+        verify(query, never()).setParameter(eq("afterId"), any());
+    }
+
+    @Test
+    @DisplayName("Fetch page of all reservations after cursor with a row value comparison")
+    void findPage_cursor_continueAfterCursor() {
+
+        // Arrange
+        ReservationCursor after = new ReservationCursor(LocalDateTime.of(2030, 1, 1, 10, 0), 7L);
+        List<Reservation> reservations = List.of(new Reservation());
+
+        when(entityManager.createQuery(contains("AND (r.startTime, r.id) > (:afterStartTime, :afterId)"),
+                eq(Reservation.class))).thenReturn(query);
+        when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.setParameter(eq("afterStartTime"), eq(after.startTime()))).thenReturn(query);
+        when(query.setParameter(eq("afterId"), eq(7L))).thenReturn(query);
+        when(query.setMaxResults(51)).thenReturn(query);
+        when(query.getResultList()).thenReturn(reservations);
+
+        // Act
+        List<Reservation> actual = reservationDAO.findPage(after, 51);
+
+        // Assert
+        assertEquals(reservations, actual, "Object should be the same");
+    }
+
+    @Test
+    @DisplayName("Fetch page of reservations by court number")
+    void findPageByCourtNumber_validCourtNumber_returnPageFromDatabase() {
+
+        // Arrange
+        List<Reservation> reservations = List.of(new Reservation());
+
+        when(entityManager.createQuery(anyString(), eq(Reservation.class))).thenReturn(query);
+        when(query.setParameter(eq("courtNumber"), eq(101))).thenReturn(query);
+        when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.setMaxResults(11)).thenReturn(query);
+        when(query.getResultList()).thenReturn(reservations);
+
+        // Act
+        List<Reservation> actual = reservationDAO.findPageByCourtNumber(101, null, 11);
+
+        // Assert
+        assertEquals(reservations, actual, "Object should be the same");
+    }
+
+}
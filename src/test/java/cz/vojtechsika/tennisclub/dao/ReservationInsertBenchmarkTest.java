@@ -0,0 +1,200 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.User;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the insert throughput of reservations written one round trip per row, as identity columns
+ * forced, with Hibernate JDBC batching over pooled sequence IDs and with the JDBC batch DAO.
+ * Run with {@code mvn test -Pbenchmark}; the row count is set by {@code -Dbenchmark.reservations}.
+ * Every variant runs in its own transaction that is rolled back, so the database stays untouched.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class ReservationInsertBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.reservations", 100_000);
+
+    private static final int CHUNK = 1000;
+
+    private static final int WARM_UP_ROUNDS = 3;
+
+    private static final int WARM_UP_ROWS = 5000;
+
+    private static final LocalDateTime FIRST_START = LocalDateTime.now().plusYears(50).withHour(8)
+            .withMinute(0).withSecond(0).withNano(0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private CourtDAO courtDAO;
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private ReservationBatchDAO reservationBatchDAO;
+
+
+    @Test
+    @DisplayName("Report insert throughput of batched and row by row reservation inserts")
+    void insertReservations_batchedVersusRowByRow_reportThroughput() {
+
+        // Arrange
+        List<IntConsumer> variants = List.of(this::insertRowByRow, this::persistBatched, this::insertWithBatchDAO);
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            variants.forEach(variant -> run(variant, WARM_UP_ROWS));
+        }
+
+        // Act
+        double rowByRow = measure("row by row (identity-like)", this::insertRowByRow);
+        double hibernate = measure("Hibernate batch, pooled-lo ids", this::persistBatched);
+        double jdbcBatch = measure("JDBC batch DAO", this::insertWithBatchDAO);
+
+        // Assert
+        System.out.printf("Speed-up over row by row: Hibernate %.1fx, JDBC batch %.1fx%n",
+                hibernate / rowByRow, jdbcBatch / rowByRow);
+        assertTrue(hibernate > 0 && jdbcBatch > 0, "Every variant should insert rows");
+    }
+
+
+    // Runs the variant in a rolled back transaction to warm up the JIT compiler
+    private void run(IntConsumer insert, int rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            insert.accept(rows);
+            entityManager.flush();
+            entityManager.clear();
+            status.setRollbackOnly();
+        });
+    }
+
+    // Runs the variant in a rolled back transaction and returns and prints the rows inserted per second
+    private double measure(String name, IntConsumer insert) {
+        double[] rowsPerSecond = new double[1];
+        transactionTemplate.executeWithoutResult(status -> {
+            Long before = countBenchmarkRows();
+            long started = System.nanoTime();
+            insert.accept(ROWS);
+            entityManager.flush();
+            long elapsed = System.nanoTime() - started;
+
+            assertEquals(before + ROWS, countBenchmarkRows(), name + " should insert all rows");
+            entityManager.clear();
+            rowsPerSecond[0] = ROWS / (elapsed / 1_000_000_000.0);
+            System.out.printf("%-32s %,10d rows in %,8d ms = %,12.0f rows/s%n", name, ROWS,
+                    elapsed / 1_000_000, rowsPerSecond[0]);
+            status.setRollbackOnly();
+        });
+        return rowsPerSecond[0];
+    }
+
+    // One INSERT per row with the generated key read back, which is what IDENTITY columns force on Hibernate
+    private void insertRowByRow(int rows) {
+        Court court = court();
+        User user = user();
+        for (int i = 0; i < rows; i++) {
+            Reservation reservation = reservation(i, court, user);
+            jdbc.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement("INSERT INTO reservation (id, start_time, "
+                        + "end_time, created_at, price, game_type, deleted, version, app_user_id, court_id) "
+                        + "VALUES (NEXT VALUE FOR reservation_seq, ?, ?, ?, ?, ?, false, 0, ?, ?)", new String[]{"id"});
+                ps.setTimestamp(1, Timestamp.valueOf(reservation.getStartTime()));
+                ps.setTimestamp(2, Timestamp.valueOf(reservation.getEndTime()));
+                ps.setTimestamp(3, Timestamp.valueOf(reservation.getCreatedAt()));
+                ps.setBigDecimal(4, reservation.getPrice());
+                ps.setString(5, reservation.getGameType().name());
+                ps.setLong(6, user.getId());
+                ps.setLong(7, court.getId());
+                return ps;
+            }, new GeneratedKeyHolder());
+        }
+    }
+
+    // Entity inserts grouped by Hibernate into JDBC batches, flushing and clearing the context per chunk
+    private void persistBatched(int rows) {
+        Court court = court();
+        User user = user();
+        for (int i = 0; i < rows; i++) {
+            entityManager.persist(reservation(i, court, user));
+            if ((i + 1) % CHUNK == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                court = entityManager.getReference(Court.class, court.getId());
+                user = entityManager.getReference(User.class, user.getId());
+            }
+        }
+    }
+
+    // Plain JDBC batches with IDs reserved in blocks from the reservation sequence
+    private void insertWithBatchDAO(int rows) {
+        Court court = court();
+        User user = user();
+        List<Reservation> chunk = new ArrayList<>(CHUNK);
+        for (int i = 0; i < rows; i++) {
+            chunk.add(reservation(i, court, user));
+            if (chunk.size() == CHUNK || i == rows - 1) {
+                reservationBatchDAO.insertReservations(chunk);
+                chunk = new ArrayList<>(CHUNK);
+            }
+        }
+    }
+
+    private Court court() {
+        return courtDAO.findByCourtNumber(101).orElseThrow();
+    }
+
+    private User user() {
+        User user = new User();
+        user.setUserName("Benchmark Player");
+        user.setPhoneNumber("+420 799 " + System.nanoTime());
+        userDAO.save(user);
+        entityManager.flush();
+        return user;
+    }
+
+    private Reservation reservation(int index, Court court, User user) {
+        LocalDateTime startTime = FIRST_START.plusHours(index);
+        Reservation reservation = new Reservation();
+        reservation.setStartTime(startTime);
+        reservation.setEndTime(startTime.plusMinutes(30));
+        reservation.setCreatedAt(LocalDateTime.now());
+        reservation.setPrice(BigDecimal.TEN);
+        reservation.setGameType(GameType.SINGLES);
+        reservation.setUser(user);
+        reservation.setCourt(court);
+        return reservation;
+    }
+
+    private Long countBenchmarkRows() {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM reservation WHERE start_time >= ?", Long.class,
+                Timestamp.valueOf(FIRST_START));
+    }
+}
@@ -0,0 +1,235 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.util.ReservationCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs H2 {@code EXPLAIN} on the SQL the reservation and court DAOs send to the database and fails when a query
+ * reads a table without an index. The statements are collected from H2's {@code INFORMATION_SCHEMA.QUERY_STATISTICS}
+ * while the DAO methods run, so the plans are the ones of the SQL Hibernate actually generates.
+ * <p>
+ * The test runs against a database of its own, as it changes the column statistics of the reservation table.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:queryplandb")
+class ReservationQueryPlanIntegrationTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2031, 3, 3, 10, 0);
+
+    @Autowired
+    private ReservationDAO reservationDAO;
+
+    @Autowired
+    private ReservationSlotDAO reservationSlotDAO;
+
+    @Autowired
+    private ReservationArchiveDAO reservationArchiveDAO;
+
+    @Autowired
+    private CourtDAO courtDAO;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+
+    // The test database holds a handful of rows, so H2 would choose plans by its default estimates. These are the
+    // selectivities ANALYZE reports for a season of bookings: few deleted rows, a dozen courts, many users and times.
+    @BeforeEach
+    void setUp() {
+        jdbc.execute("ALTER TABLE reservation ALTER COLUMN deleted SELECTIVITY 1");
+        jdbc.execute("ALTER TABLE reservation ALTER COLUMN court_id SELECTIVITY 1");
+        jdbc.execute("ALTER TABLE reservation ALTER COLUMN app_user_id SELECTIVITY 5");
+        jdbc.execute("ALTER TABLE reservation ALTER COLUMN start_time SELECTIVITY 60");
+    }
+
+
+    @Test
+    @DisplayName("Overlap check of a court and day seeks the court index")
+    void findAllByDateAndCourtNumber_useCourtIndex() {
+
+        // Act
+        Map<String, String> plans = plansOf("reservation",
+                () -> reservationDAO.findAllByDateAndCourtNumber(FROM, 101, 1L));
+
+        // Assert
+        assertSingleIndexedPlan(plans, "IDX_RESERVATION_COURT_START");
+    }
+
+    @Test
+    @DisplayName("Reservations of a phone number seek the user index")
+    void findPageByPhoneNumber_useUserIndex() {
+
+        // Act
+        Map<String, String> plans = plansOf("reservation", () -> reservationDAO.findPageByPhoneNumber(
+                "+420 705 000 001", true, new ReservationCursor(FROM, 1L), 10));
+
+        // Assert
+        assertSingleIndexedPlan(plans, "IDX_RESERVATION_USER_START");
+    }
+
+    @Test
+    @DisplayName("All reservations ordered by start time are read from the start time index")
+    void findPage_useStartTimeIndex() {
+
+        // Act
+        Map<String, String> plans = plansOf("reservation",
+                () -> reservationDAO.findPage(new ReservationCursor(FROM, 1L), 10));
+
+        // Assert
+        assertSingleIndexedPlan(plans, "IDX_RESERVATION_START");
+    }
+
+    @Test
+    @DisplayName("No reservation DAO query falls back to a table scan")
+    void everyReservationQuery_noTableScan() {
+
+        // Act
+        Map<String, String> plans = plansOf("reservation", () -> {
+            reservationDAO.findById(1L);
+            reservationDAO.findAllByCourtNumber(101);
+            reservationDAO.findPage(null, 10);
+            reservationDAO.findPage(new ReservationCursor(FROM, 1L), 10);
+            reservationDAO.findPageByCourtNumber(101, new ReservationCursor(FROM, 1L), 10);
+            reservationDAO.findPageByPhoneNumber("+420 705 000 001", false, null, 10);
+            reservationDAO.findAll();
+            reservationDAO.streamAll(100).close();
+            reservationDAO.findAllByDateAndCourtNumber(FROM, 101, null);
+            reservationDAO.findAllIntervalsStartingFrom(FROM);
+            reservationDAO.findAllIntervalsByCourtNumberBetween(101, FROM, FROM.plusDays(1));
+            reservationDAO.findAllIntervalsByCourtNumbersBetween(List.of(101, 102), FROM, FROM.plusDays(1));
+            reservationDAO.findOccupiedCourtNumbersBetween(FROM, FROM.plusHours(1));
+            reservationDAO.findIntervalById(1L);
+            reservationDAO.findAllBySeriesId(1L);
+            reservationDAO.findAllIntervalsBySeriesIdStartingFrom(1L, FROM);
+            reservationDAO.shiftAllBySeriesIdStartingFrom(1L, FROM, Duration.ofHours(1));
+            reservationDAO.softDeleteAllBySeriesIdStartingFrom(1L, FROM);
+            reservationSlotDAO.releaseByReservationId(1L);
+            reservationSlotDAO.releaseByCourtId(1L);
+            reservationSlotDAO.releaseBySeriesIdStartingFrom(1L, FROM);
+        });
+
+        // Assert
+        assertTrue(plans.size() >= 18, "Every DAO query should be explained, got " + plans.size());
+        plans.forEach((sql, plan) -> assertFalse(plan.contains("tableScan"),
+                "Query reads a table without an index:\n" + sql + "\n" + plan));
+    }
+
+    @Test
+    @DisplayName("Archive queries neither scan the live table nor the archive")
+    void everyArchiveQuery_noTableScan() {
+
+        // Act
+        Map<String, String> plans = plansOf("reservation", () -> {
+            reservationArchiveDAO.moveStartedBefore(LocalDateTime.of(2000, 1, 1, 0, 0), 100);
+            reservationArchiveDAO.findPage(null, 10);
+            reservationArchiveDAO.findPage(new ReservationCursor(FROM, 1L), 10);
+            reservationArchiveDAO.findPageByCourtNumber(101, new ReservationCursor(FROM, 1L), 10);
+            reservationArchiveDAO.findPageByPhoneNumber("+420 705 000 001", null, 10);
+        });
+
+        // Assert
+        assertTrue(plans.size() >= 5, "Every archive query should be explained, got " + plans.size());
+        plans.forEach((sql, plan) -> assertFalse(plan.contains("tableScan"),
+                "Query reads a table without an index:\n" + sql + "\n" + plan));
+    }
+
+    @Test
+    @DisplayName("Court lookup by court number seeks the court number index")
+    void findByCourtNumber_useCourtNumberIndex() {
+
+        // Act
+        Map<String, String> plans = plansOf("court", () -> courtDAO.findByCourtNumber(901));
+
+        // Assert
+        assertSingleIndexedPlan(plans, "COURT_NUMBER = ?");
+    }
+
+    @Test
+    @DisplayName("Court lookups neither scan the court nor the surface type table")
+    void everyCourtLookup_noTableScan() {
+
+        // Act
+        Map<String, String> plans = plansOf("court", () -> {
+            courtDAO.findById(1L);
+            courtDAO.findByCourtNumber(902);
+            courtDAO.findCurrentByCourtNumber(903);
+            courtDAO.findAllByCourtNumbers(List.of(904, 905));
+            courtDAO.findAllBySurfaceTypeId(1L);
+        });
+
+        // Assert (both lookups by court number send the same SQL)
+        assertTrue(plans.size() >= 4, "Every court lookup should be explained, got " + plans.size());
+        plans.forEach((sql, plan) -> assertFalse(plan.contains("tableScan"),
+                "Query reads a table without an index:\n" + sql + "\n" + plan));
+    }
+
+
+    // Runs the DAO calls in a rolled back transaction and explains every statement on the given table they executed
+    private Map<String, String> plansOf(String table, Runnable daoCalls) {
+        List<String> statements;
+        jdbc.execute("SET QUERY_STATISTICS FALSE");
+        jdbc.execute("SET QUERY_STATISTICS TRUE");
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                daoCalls.run();
+                status.setRollbackOnly();
+            });
+            statements = jdbc.queryForList("SELECT SQL_STATEMENT FROM INFORMATION_SCHEMA.QUERY_STATISTICS",
+                    String.class);
+        } finally {
+            jdbc.execute("SET QUERY_STATISTICS FALSE");
+        }
+
+        Map<String, String> plans = new LinkedHashMap<>();
+        for (String sql : statements) {
+            String lower = sql.toLowerCase(Locale.ROOT);
+            if (lower.contains(table) && (lower.startsWith("select") || lower.startsWith("update")
+                    || lower.startsWith("delete"))) {
+                plans.put(sql, explain(sql));
+            }
+        }
+        return plans;
+    }
+
+    private String explain(String sql) {
+        return jdbc.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                    statement.setObject(i, null);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    private void assertSingleIndexedPlan(Map<String, String> plans, String index) {
+        assertEquals(1, plans.size(), "Expected a single statement, got " + plans.keySet());
+        String plan = plans.values().iterator().next();
+        assertTrue(plan.contains(index), "Query should use " + index + ":\n" + plan);
+        assertFalse(plan.contains("tableScan"), "Query should not scan a table:\n" + plan);
+    }
+}
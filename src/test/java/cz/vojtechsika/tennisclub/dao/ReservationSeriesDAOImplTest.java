@@ -0,0 +1,88 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.entity.ReservationSeries;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationSeriesDAOImplTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TypedQuery<ReservationSeries> query;
+
+    @InjectMocks
+    private ReservationSeriesDAOImpl reservationSeriesDAO;
+
+
+    @Test
+    @DisplayName("Save reservation series to database")
+    void save_returnSavedSeries() {
+
+        // Arrange
+        ReservationSeries series = new ReservationSeries();
+
+        // Act
+        ReservationSeries actual = reservationSeriesDAO.save(series);
+
+        // Assert
+        assertEquals(series, actual, "Objects should be the same");
+
+        // Verify
+        verify(entityManager, times(1)).persist(series);
+    }
+
+    @Test
+    @DisplayName("Fetch reservation series by valid id")
+    void findById_validId_returnSeriesFromDatabase() {
+
+        // Arrange
+        Long seriesId = 1L;
+        ReservationSeries series = new ReservationSeries();
+
+        when(entityManager.createQuery(anyString(), eq(ReservationSeries.class))).thenReturn(query);
+        when(query.setParameter(eq("id"), eq(seriesId))).thenReturn(query);
+        when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of(series));
+
+        // Act
+        Optional<ReservationSeries> actual = reservationSeriesDAO.findById(seriesId);
+
+        // Assert
+        assertTrue(actual.isPresent(), "Series should be found");
+        assertEquals(series, actual.get(), "Objects should be the same");
+    }
+
+    @Test
+    @DisplayName("Fetch reservation series by invalid id")
+    void findById_invalidId_returnEmptyOptional() {
+
+        // Arrange
+        Long seriesId = 99L;
+
+        when(entityManager.createQuery(anyString(), eq(ReservationSeries.class))).thenReturn(query);
+        when(query.setParameter(eq("id"), eq(seriesId))).thenReturn(query);
+        when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.getResultList()).thenReturn(List.of());
+
+        // Act
+        Optional<ReservationSeries> actual = reservationSeriesDAO.findById(seriesId);
+
+        // Assert
+        assertTrue(actual.isEmpty(), "Series should not be found");
+    }
+}
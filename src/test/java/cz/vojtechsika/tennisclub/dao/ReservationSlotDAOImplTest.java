@@ -0,0 +1,190 @@
+package cz.vojtechsika.tennisclub.dao;
+
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationSlotDAOImplTest {
+
+    @Mock
+    private JdbcTemplate jdbc;
+
+    @InjectMocks
+    private ReservationSlotDAOImpl reservationSlotDAO;
+
+
+    @Test
+    @DisplayName("Claim inserts one row per minute in a single batch")
+    void claim_ninetyMinutes_insertNinetyClaimsInOneBatch() {
+
+        // Arrange
+        LocalDateTime startTime = LocalDateTime.of(2030, 1, 1, 18, 0);
+        LocalDateTime endTime = startTime.plusMinutes(90);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        reservationSlotDAO.claim(3L, 7L, startTime, endTime);
+
+        // Verify
+        verify(jdbc, times(1)).batchUpdate(anyString(), captor.capture());
+
+        // Assert
+        List<Object[]> claims = captor.getValue();
+        assertEquals(90, claims.size(), "Should claim every minute");
+        assertArrayEquals(new Object[]{3L, Timestamp.valueOf(startTime), 7L}, claims.get(0), "First claim mismatch");
+        assertEquals(Timestamp.valueOf(endTime.minusMinutes(1)), claims.get(89)[1], "Last claim mismatch");
+    }
+
+    @Test
+    @DisplayName("Claim with seconds claims the whole started minutes")
+    void claim_startAndEndWithSeconds_claimWholeMinutes() {
+
+        // Arrange
+        LocalDateTime startTime = LocalDateTime.of(2030, 1, 1, 18, 0, 30);
+        LocalDateTime endTime = LocalDateTime.of(2030, 1, 1, 18, 2, 10);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        reservationSlotDAO.claim(3L, 7L, startTime, endTime);
+
+        // Verify
+        verify(jdbc, times(1)).batchUpdate(anyString(), captor.capture());
+
+        // Assert
+        assertEquals(3, captor.getValue().size(), "Minutes 18:00, 18:01 and 18:02 should be claimed");
+    }
+
+    @Test
+    @DisplayName("Claim all inserts the minutes of every reservation in a single batch")
+    void claimAll_twoReservations_insertAllClaimsInOneBatch() {
+
+        // Arrange
+        LocalDateTime startTime = LocalDateTime.of(2030, 1, 1, 18, 0);
+
+        Court court = new Court();
+        court.setId(3L);
+
+        Reservation first = new Reservation();
+        first.setId(7L);
+        first.setCourt(court);
+        first.setStartTime(startTime);
+        first.setEndTime(startTime.plusMinutes(30));
+
+        Reservation second = new Reservation();
+        second.setId(8L);
+        second.setCourt(court);
+        second.setStartTime(startTime.plusHours(1));
+        second.setEndTime(startTime.plusHours(2));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        reservationSlotDAO.claimAll(List.of(first, second));
+
+        // Verify
+        verify(jdbc, times(1)).batchUpdate(anyString(), captor.capture());
+
+        // Assert
+        List<Object[]> claims = captor.getValue();
+        assertEquals(90, claims.size(), "Should claim every minute of both reservations");
+        assertArrayEquals(new Object[]{3L, Timestamp.valueOf(startTime.plusHours(1)), 8L}, claims.get(30),
+                "First claim of the second reservation mismatch");
+    }
+
+    @Test
+    @DisplayName("Release claims of reservation")
+    void releaseByReservationId_validId_deleteClaims() {
+
+        // Act
+        reservationSlotDAO.releaseByReservationId(7L);
+
+        // Verify
+        verify(jdbc, times(1)).update("DELETE FROM reservation_slot WHERE reservation_id = ?", 7L);
+    }
+
+    @Test
+    @DisplayName("Release claims of court")
+    void releaseByCourtId_validId_deleteClaims() {
+
+        // Act
+        reservationSlotDAO.releaseByCourtId(3L);
+
+        // Verify
+        verify(jdbc, times(1)).update("DELETE FROM reservation_slot WHERE court_id = ?", 3L);
+    }
+
+    @Test
+    @DisplayName("Release claims of all courts of surface type with one statement")
+    void releaseBySurfaceTypeId_validId_deleteClaims() {
+
+        // Act
+        reservationSlotDAO.releaseBySurfaceTypeId(2L);
+
+        // Verify
+        verify(jdbc, times(1)).update("DELETE FROM reservation_slot WHERE court_id IN (SELECT c.id FROM court c " +
+                "WHERE c.surface_type_id = ?)", 2L);
+    }
+
+    @Test
+    @DisplayName("Claim intervals inserts the minutes of every moved reservation in a single batch")
+    void claimIntervals_twoIntervals_insertAllClaimsInOneBatch() {
+
+        // Arrange
+        LocalDateTime startTime = LocalDateTime.of(2030, 1, 1, 18, 0);
+        List<ReservationInterval> intervals = List.of(
+                new ReservationInterval(7L, 101, startTime, startTime.plusMinutes(30)),
+                new ReservationInterval(8L, 101, startTime.plusWeeks(1), startTime.plusWeeks(1).plusMinutes(30)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+
+        // Act
+        reservationSlotDAO.claimIntervals(3L, intervals);
+
+        // Verify
+        verify(jdbc, times(1)).batchUpdate(anyString(), captor.capture());
+
+        // Assert
+        List<Object[]> claims = captor.getValue();
+        assertEquals(60, claims.size(), "Should claim every minute of both reservations");
+        assertArrayEquals(new Object[]{3L, Timestamp.valueOf(startTime.plusWeeks(1)), 8L}, claims.get(30),
+                "First claim of the second reservation mismatch");
+    }
+
+    @Test
+    @DisplayName("Release claims of upcoming series reservations")
+    void releaseBySeriesIdStartingFrom_validId_deleteClaims() {
+
+        // Arrange
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 18, 0);
+
+        // Act
+        reservationSlotDAO.releaseBySeriesIdStartingFrom(5L, from);
+
+        // Verify
+        verify(jdbc, times(1)).update(startsWith("DELETE FROM reservation_slot WHERE reservation_id IN"),
+                eq(5L), eq(Timestamp.valueOf(from)));
+    }
+}
@@ -9,6 +9,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,6 +28,9 @@ class UserDAOImpTest {
     @Mock
     private TypedQuery<User> query;
 
+    @Mock
+    private JdbcTemplate jdbc;
+
     @InjectMocks
     private UserDAOImp userDAO;
 
@@ -92,4 +98,125 @@ class UserDAOImpTest {
         assertTrue(actual.isEmpty());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Fetch users from database by phone numbers")
+    void findAllByPhones_phonesProvided_returnUsersFromDatabase() {
+
+        // Arrange
+        List<String> phones = List.of("123456789", "987654321");
+        List<User> users = List.of(new User(), new User());
+
+        when(entityManager.createQuery(anyString(), eq(User.class))).thenReturn(query);
+        when(query.setParameter(eq("phones"), eq(phones))).thenReturn(query);
+        when(query.setParameter(eq("isFalse"), eq(false))).thenReturn(query);
+        when(query.getResultList()).thenReturn(users);
+
+        // Act
+        List<User> actual = userDAO.findAllByPhones(phones);
+
+        // Assert
+        assertEquals(users, actual, "Objets should be same");
+    }
+
+    @Test
+    @DisplayName("Fetch users by no phone numbers does not query database")
+    void findAllByPhones_noPhones_returnEmptyList() {
+
+        // Act
+        List<User> actual = userDAO.findAllByPhones(List.of());
+
+        // Assert
+        assertTrue(actual.isEmpty(), "List should be empty");
+
+        // Verify
+        verify(entityManager, never()).createQuery(anyString(), eq(User.class));
+    }
+
+    @Test
+    @DisplayName("Upsert of a new or renamed user returns the ID of the merged row")
+    @SuppressWarnings("unchecked")
+    void upsertIfChanged_rowMerged_returnMergedId() {
+
+        // Arrange
+        when(jdbc.query(startsWith("SELECT id FROM FINAL TABLE (MERGE INTO app_user"), any(ResultSetExtractor.class),
+                eq("123456789"), eq("John"))).thenReturn(7L);
+
+        // Act
+        Optional<Long> actual = userDAO.upsertIfChanged("123456789", "John");
+
+        // Assert
+        assertEquals(Optional.of(7L), actual, "ID of the merged row should be returned");
+
+        // Verify
+        verify(jdbc, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Upsert of an unchanged user writes nothing and returns no ID")
+    @SuppressWarnings("unchecked")
+    void upsertIfChanged_userUnchanged_returnEmptyOptional() {
+
+        // Arrange
+        when(jdbc.query(anyString(), any(ResultSetExtractor.class), eq("123456789"), eq("John"))).thenReturn(null);
+
+        // Act
+        Optional<Long> actual = userDAO.upsertIfChanged("123456789", "John");
+
+        // Assert
+        assertTrue(actual.isEmpty(), "No ID should be returned for an unchanged user");
+
+        // Verify
+        verify(jdbc, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Upsert losing the race of inserting the phone number merges again into the committed user")
+    @SuppressWarnings("unchecked")
+    void upsertIfChanged_concurrentInsert_retryMerge() {
+
+        // Arrange
+        when(jdbc.query(anyString(), any(ResultSetExtractor.class), eq("123456789"), eq("John")))
+                .thenThrow(new DuplicateKeyException("phone_number"))
+                .thenReturn(7L);
+
+        // Act
+        Optional<Long> actual = userDAO.upsertIfChanged("123456789", "John");
+
+        // Assert
+        assertEquals(Optional.of(7L), actual, "ID of the committed user should be returned");
+
+        // Verify
+        verify(jdbc, times(2)).query(anyString(), any(ResultSetExtractor.class), eq("123456789"), eq("John"));
+    }
+
+    @Test
+    @DisplayName("Fetch user ID by phone number reads only the ID column")
+    void findIdByPhone_userExists_returnId() {
+
+        // Arrange
+        when(jdbc.queryForObject("SELECT id FROM app_user WHERE phone_number = ?", Long.class, "123456789"))
+                .thenReturn(7L);
+
+        // Act
+        Long actual = userDAO.findIdByPhone("123456789");
+
+        // Assert
+        assertEquals(7L, actual, "ID of the existing user should be returned");
+    }
+
+    @Test
+    @DisplayName("Reference to a user does not query database")
+    void getReference_returnReferenceFromEntityManager() {
+
+        // Arrange
+        User user = new User();
+        when(entityManager.getReference(User.class, 7L)).thenReturn(user);
+
+        // Act
+        User actual = userDAO.getReference(7L);
+
+        // Assert
+        assertSame(user, actual, "Reference should be returned");
+    }
+}
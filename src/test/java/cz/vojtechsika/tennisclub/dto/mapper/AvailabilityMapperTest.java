@@ -0,0 +1,54 @@
+package cz.vojtechsika.tennisclub.dto.mapper;
+
+import cz.vojtechsika.tennisclub.dto.response.DayAvailabilityDTO;
+import cz.vojtechsika.tennisclub.enums.AvailabilityFormat;
+import cz.vojtechsika.tennisclub.index.CourtDaySchedule;
+import cz.vojtechsika.tennisclub.index.SlotGrid;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityMapperTest {
+
+    private final AvailabilityMapper availabilityMapper = new AvailabilityMapper();
+
+
+    @Test
+    @DisplayName("Map grid to free ranges capped at closing time")
+    void toDayAvailabilityDTO_rangesFormat_returnMergedFreeRanges() {
+
+        // Arrange - 50 minute slots, 10:00 - 10:50 booked, last slot 21:40 - 22:00
+        LocalDate date = LocalDate.of(2030, 1, 1);
+        SlotGrid grid = SlotGrid.of(CourtDaySchedule.EMPTY.with(1L, 600, 650), 600, 50, 15);
+
+        // Act
+        DayAvailabilityDTO actual = availabilityMapper.toDayAvailabilityDTO(date, grid, 50, AvailabilityFormat.RANGES);
+
+        // Assert
+        assertEquals(date, actual.getDate(), "Date mismatch");
+        assertEquals(1, actual.getFreeRanges().size(), "Should return one merged range");
+        assertEquals(LocalTime.of(10, 50), actual.getFreeRanges().get(0).getFrom(), "Range start mismatch");
+        assertEquals(LocalTime.of(22, 0), actual.getFreeRanges().get(0).getTo(), "Range end should be capped");
+        assertNull(actual.getBitmap(), "Bitmap should not be filled");
+    }
+
+    @Test
+    @DisplayName("Map grid to Base64 bitmap")
+    void toDayAvailabilityDTO_bitmapFormat_returnBase64Bitmap() {
+
+        // Arrange
+        LocalDate date = LocalDate.of(2030, 1, 1);
+        SlotGrid grid = SlotGrid.of(CourtDaySchedule.EMPTY, 600, 15, 48).occupyFirst(1);
+
+        // Act
+        DayAvailabilityDTO actual = availabilityMapper.toDayAvailabilityDTO(date, grid, 15, AvailabilityFormat.BITMAP);
+
+        // Assert
+        assertEquals("AQAAAAAA", actual.getBitmap(), "Bitmap mismatch");
+        assertNull(actual.getFreeRanges(), "Free ranges should not be filled");
+    }
+}
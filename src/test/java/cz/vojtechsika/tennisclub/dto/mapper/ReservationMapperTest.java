@@ -6,12 +6,14 @@ import cz.vojtechsika.tennisclub.entity.Court;
 import cz.vojtechsika.tennisclub.entity.Reservation;
 import cz.vojtechsika.tennisclub.entity.User;
 import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.ReservationFormat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
 
@@ -134,6 +136,81 @@ class ReservationMapperTest {
 
     }
 
+    @Test
+    @DisplayName("Map from Reservation to ReservationResponseDTO with ISO date-times only")
+    void toReservationResponseDTO_isoFormat_returnDateTimesOnly() {
+
+        // Arrange
+        Reservation reservation = reservation();
+
+        // Act
+        ReservationResponseDTO actualReservationResponseDTO =
+                reservationMapper.toReservationResponseDTO(reservation, ReservationFormat.ISO);
+
+        // Assert
+        assertEquals(reservation.getStartTime(), actualReservationResponseDTO.getStartDateTime(),
+                "Start date-time mismatch");
+        assertEquals(reservation.getEndTime(), actualReservationResponseDTO.getEndDateTime(),
+                "End date-time mismatch");
+        assertEquals(reservation.getCreatedAt(), actualReservationResponseDTO.getCreatedDateTime(),
+                "Created date-time mismatch");
+        assertEquals(101, actualReservationResponseDTO.getCourtNumber(), "Court number mismatch");
+
+        assertNull(actualReservationResponseDTO.getStartTime(), "Localized start time should not be set");
+        assertNull(actualReservationResponseDTO.getGameDate(), "Localized game date should not be set");
+        assertNull(actualReservationResponseDTO.getStartEpochMilli(), "Epoch start should not be set");
+    }
+
+    @Test
+    @DisplayName("Map from Reservation to ReservationResponseDTO with epoch milliseconds only")
+    void toReservationResponseDTO_epochFormat_returnEpochMillisOnly() {
+
+        // Arrange
+        Reservation reservation = reservation();
+
+        // Act
+        ReservationResponseDTO actualReservationResponseDTO =
+                reservationMapper.toReservationResponseDTO(reservation, ReservationFormat.EPOCH);
+
+        // Assert
+        assertEquals(epochMilli(reservation.getStartTime()), actualReservationResponseDTO.getStartEpochMilli(),
+                "Start epoch mismatch");
+        assertEquals(epochMilli(reservation.getEndTime()), actualReservationResponseDTO.getEndEpochMilli(),
+                "End epoch mismatch");
+        assertEquals(epochMilli(reservation.getCreatedAt()), actualReservationResponseDTO.getCreatedEpochMilli(),
+                "Created epoch mismatch");
+
+        assertNull(actualReservationResponseDTO.getEndTime(), "Localized end time should not be set");
+        assertNull(actualReservationResponseDTO.getCreatedAt(), "Localized creation date should not be set");
+        assertNull(actualReservationResponseDTO.getEndDateTime(), "ISO end should not be set");
+    }
+
+    @Test
+    @DisplayName("Localized format prints the same text for many reservations as fresh localized formatters")
+    void toReservationResponseDTO_localizedFormat_matchLocalizedFormatters() {
+
+        // Arrange
+        DateTimeFormatter time = DateTimeFormatter.ofLocalizedTime(FormatStyle.SHORT);
+        DateTimeFormatter date = DateTimeFormatter.ofLocalizedDate(FormatStyle.SHORT);
+        Reservation reservation = reservation();
+
+        for (int hour = 0; hour < 24; hour++) {
+            reservation.setStartTime(LocalDateTime.of(2030, 12, 31, hour, 5));
+
+            // Act
+            ReservationResponseDTO actualReservationResponseDTO =
+                    reservationMapper.toReservationResponseDTO(reservation, ReservationFormat.LOCALIZED);
+
+            // Assert
+            assertEquals(reservation.getStartTime().toLocalTime().format(time),
+                    actualReservationResponseDTO.getStartTime(), "Start time mismatch");
+            assertEquals(reservation.getStartTime().toLocalDate().format(date),
+                    actualReservationResponseDTO.getGameDate(), "Game date mismatch");
+            assertNull(actualReservationResponseDTO.getStartDateTime(), "ISO start should not be set");
+        }
+    }
+
+
     @Test
     @DisplayName("Map ReservationDTO to updated Reservation")
     void updateReservationFromDTO_returnUpdatedReservation() {
@@ -161,4 +238,29 @@ class ReservationMapperTest {
 
 
     }
+
+
+    private static Reservation reservation() {
+        User user = new User();
+        user.setUserName("John");
+        user.setPhoneNumber("1234567890");
+
+        Court court = new Court();
+        court.setCourtNumber(101);
+
+        Reservation reservation = new Reservation();
+        reservation.setId(1L);
+        reservation.setUser(user);
+        reservation.setCourt(court);
+        reservation.setStartTime(LocalDateTime.of(2030, 7, 1, 10, 0));
+        reservation.setEndTime(LocalDateTime.of(2030, 7, 1, 11, 30, 15, 250_000_000));
+        reservation.setGameType(GameType.SINGLES);
+        reservation.setPrice(BigDecimal.valueOf(10));
+        reservation.setCreatedAt(LocalDateTime.of(2030, 6, 1, 8, 45));
+        return reservation;
+    }
+
+    private static long epochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
 }
\ No newline at end of file
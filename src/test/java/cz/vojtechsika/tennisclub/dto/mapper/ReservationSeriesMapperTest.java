@@ -0,0 +1,108 @@
+package cz.vojtechsika.tennisclub.dto.mapper;
+
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationSeriesResponseDTO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.ReservationSeries;
+import cz.vojtechsika.tennisclub.entity.User;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.Recurrence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationSeriesMapperTest {
+
+    private ReservationSeriesMapper reservationSeriesMapper;
+
+    private ReservationSeriesDTO reservationSeriesDTO;
+
+
+    @BeforeEach
+    void setUp() {
+        reservationSeriesMapper = new ReservationSeriesMapper();
+
+        LocalDateTime startTime = LocalDateTime.of(2030, 1, 1, 18, 0);
+        reservationSeriesDTO = new ReservationSeriesDTO();
+        reservationSeriesDTO.setUserName("Series Player");
+        reservationSeriesDTO.setPhoneNumber("123456789");
+        reservationSeriesDTO.setStartTime(startTime);
+        reservationSeriesDTO.setEndTime(startTime.plusHours(1));
+        reservationSeriesDTO.setCourtNumber(101);
+        reservationSeriesDTO.setGameType(GameType.DOUBLES);
+        reservationSeriesDTO.setRecurrence(Recurrence.BIWEEKLY);
+    }
+
+
+    @Test
+    @DisplayName("Map series DTO to a new active series entity")
+    void toSeriesEntity_validDTO_returnActiveSeries() {
+
+        // Act
+        ReservationSeries actual = reservationSeriesMapper.toSeriesEntity(reservationSeriesDTO);
+
+        // Assert
+        assertEquals(Recurrence.BIWEEKLY, actual.getRecurrence(), "Recurrence mismatch");
+        assertEquals(GameType.DOUBLES, actual.getGameType(), "Game type mismatch");
+        assertNotNull(actual.getCreatedAt(), "Creation time should be set");
+        assertFalse(actual.isDeleted(), "New series should not be deleted");
+    }
+
+    @Test
+    @DisplayName("Map series DTO to the reservation DTO of one occurrence")
+    void toOccurrenceDTO_validDTO_returnOccurrenceWithGivenTimes() {
+
+        // Arrange
+        LocalDateTime startTime = LocalDateTime.of(2030, 1, 15, 18, 0);
+
+        // Act
+        ReservationDTO actual = reservationSeriesMapper.toOccurrenceDTO(reservationSeriesDTO, startTime,
+                startTime.plusHours(1));
+
+        // Assert
+        assertEquals("Series Player", actual.getUserName(), "User name mismatch");
+        assertEquals("123456789", actual.getPhoneNumber(), "Phone number mismatch");
+        assertEquals(startTime, actual.getStartTime(), "Start time mismatch");
+        assertEquals(startTime.plusHours(1), actual.getEndTime(), "End time mismatch");
+        assertEquals(101, actual.getCourtNumber(), "Court number mismatch");
+        assertEquals(GameType.DOUBLES, actual.getGameType(), "Game type mismatch");
+    }
+
+    @Test
+    @DisplayName("Map series entity and its occurrences to response DTO")
+    void toResponseDTO_validSeries_returnResponseDTO() {
+
+        // Arrange
+        Court court = new Court();
+        court.setCourtNumber(101);
+
+        User user = new User();
+        user.setUserName("Series Player");
+        user.setPhoneNumber("123456789");
+
+        ReservationSeries series = reservationSeriesMapper.toSeriesEntity(reservationSeriesDTO);
+        series.setId(5L);
+        series.setCourt(court);
+        series.setUser(user);
+
+        List<ReservationResponseDTO> reservations = List.of(new ReservationResponseDTO());
+
+        // Act
+        ReservationSeriesResponseDTO actual = reservationSeriesMapper.toResponseDTO(series, reservations);
+
+        // Assert
+        assertEquals(5L, actual.getId(), "Id mismatch");
+        assertEquals(101, actual.getCourtNumber(), "Court number mismatch");
+        assertEquals("Series Player", actual.getUserName(), "User name mismatch");
+        assertEquals("123456789", actual.getPhoneNumber(), "Phone number mismatch");
+        assertEquals(Recurrence.BIWEEKLY, actual.getRecurrence(), "Recurrence mismatch");
+        assertEquals(reservations, actual.getReservations(), "Reservations mismatch");
+    }
+}
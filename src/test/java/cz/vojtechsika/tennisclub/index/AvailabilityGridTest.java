@@ -0,0 +1,106 @@
+package cz.vojtechsika.tennisclub.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityGridTest {
+
+    private final AvailabilityGrid availabilityGrid = new AvailabilityGrid(15);
+
+
+    @Test
+    @DisplayName("Build grid marks every slot touched by a reservation as occupied")
+    void build_partiallyCoveredSlots_markedAsOccupied() {
+
+        // Arrange - 10:20 - 10:40 touches slots 10:15 and 10:30
+        CourtDaySchedule schedule = CourtDaySchedule.EMPTY.with(1L, 10 * 60 + 20, 10 * 60 + 40);
+
+        // Act
+        SlotGrid grid = availabilityGrid.build(schedule);
+
+        // Assert
+        assertEquals(48, grid.slotCount(), "Opening hours should be split into 48 slots");
+        assertFalse(grid.isOccupied(0), "Slot 10:00 should be free");
+        assertTrue(grid.isOccupied(1), "Slot 10:15 should be occupied");
+        assertTrue(grid.isOccupied(2), "Slot 10:30 should be occupied");
+        assertFalse(grid.isOccupied(3), "Slot 10:45 should be free");
+    }
+
+    @Test
+    @DisplayName("Grid is memoized until the schedule changes")
+    void gridFor_sameSchedule_returnMemoizedGrid() {
+
+        // Arrange
+        LocalDate date = LocalDate.of(2030, 1, 1);
+        CourtDaySchedule schedule = CourtDaySchedule.EMPTY.with(1L, 11 * 60, 12 * 60);
+        CourtDaySchedule changed = schedule.with(2L, 13 * 60, 14 * 60);
+
+        // Act
+        SlotGrid first = availabilityGrid.gridFor(101, date, schedule);
+        SlotGrid second = availabilityGrid.gridFor(101, date, schedule);
+        SlotGrid third = availabilityGrid.gridFor(101, date, changed);
+
+        // Assert
+        assertSame(first, second, "Unchanged schedule should reuse the grid");
+        assertNotSame(first, third, "Changed schedule should rebuild the grid");
+        assertTrue(third.isOccupied(12), "Slot 13:00 should be occupied after the change");
+    }
+
+    @Test
+    @DisplayName("Prune drops the memoized grids of the days before the given day only")
+    void prune_pastDays_rebuildOnlyTheirGrids() {
+
+        // Arrange
+        LocalDate date = LocalDate.of(2030, 1, 2);
+        CourtDaySchedule schedule = CourtDaySchedule.EMPTY.with(1L, 11 * 60, 12 * 60);
+        SlotGrid past = availabilityGrid.gridFor(101, date.minusDays(1), schedule);
+        SlotGrid kept = availabilityGrid.gridFor(101, date, schedule);
+
+        // Act
+        availabilityGrid.prune(date);
+
+        // Assert
+        assertNotSame(past, availabilityGrid.gridFor(101, date.minusDays(1), schedule),
+                "Grid of a past day should be dropped");
+        assertSame(kept, availabilityGrid.gridFor(101, date, schedule), "Grid of the kept day should stay memoized");
+    }
+
+    @Test
+    @DisplayName("Occupy first slots and encode grid into bytes")
+    void occupyFirst_pastSlots_encodedAsSetBits() {
+
+        // Arrange
+        SlotGrid grid = availabilityGrid.build(CourtDaySchedule.EMPTY);
+
+        // Act
+        SlotGrid masked = grid.occupyFirst(10);
+        byte[] bytes = masked.toByteArray();
+
+        // Assert
+        assertFalse(grid.isOccupied(0), "Original grid should stay unchanged");
+        assertEquals(6, bytes.length, "48 slots should be encoded into 6 bytes");
+        assertEquals((byte) 0xFF, bytes[0], "First eight slots should be occupied");
+        assertEquals(0b11, bytes[1], "Slots 8 and 9 should be occupied");
+        assertEquals(0, bytes[2], "Remaining slots should be free");
+    }
+
+    @Test
+    @DisplayName("Slot length that does not divide opening hours produces a shorter last slot")
+    void constructor_unevenSlotLength_roundUpSlotCount() {
+
+        // Arrange
+        AvailabilityGrid grid = new AvailabilityGrid(50);
+
+        // Act
+        SlotGrid slotGrid = grid.build(CourtDaySchedule.EMPTY.with(1L, 21 * 60 + 50, 22 * 60));
+
+        // Assert
+        assertEquals(15, slotGrid.slotCount(), "720 minutes should be split into 15 slots");
+        assertTrue(slotGrid.isOccupied(14), "Last slot should be occupied");
+        assertFalse(slotGrid.isOccupied(13), "Previous slot should be free");
+    }
+}
@@ -0,0 +1,139 @@
+package cz.vojtechsika.tennisclub.index;
+
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourtDayScheduleLoaderImplTest {
+
+    private static final LocalDate DAY = LocalDate.of(2030, 1, 1);
+
+    @Mock
+    private ReservationIndex reservationIndex;
+
+    @Mock
+    private ReservationDAO reservationDAO;
+
+    @InjectMocks
+    private CourtDayScheduleLoaderImpl courtDayScheduleLoader;
+
+
+    @Test
+    @DisplayName("No court-days load nothing")
+    void load_emptyKeys_returnEmptyMap() {
+
+        // Act
+        Map<CourtDayKey, CourtDaySchedule> actual = courtDayScheduleLoader.load(Set.of());
+
+        // Assert
+        assertTrue(actual.isEmpty(), "Nothing should be loaded");
+
+        // Verify
+        verifyNoInteractions(reservationIndex, reservationDAO);
+    }
+
+    @Test
+    @DisplayName("Warm index serves the schedules without touching the database")
+    void load_warmIndex_returnIndexedSchedules() {
+
+        // Arrange
+        CourtDayKey key = new CourtDayKey(101, DAY);
+        CourtDaySchedule schedule = CourtDaySchedule.EMPTY.with(1L, 600, 660);
+
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(101, DAY)).thenReturn(schedule);
+
+        // Act
+        Map<CourtDayKey, CourtDaySchedule> actual = courtDayScheduleLoader.load(Set.of(key));
+
+        // Assert
+        assertEquals(schedule, actual.get(key), "Indexed schedule should be returned");
+
+        // Verify
+        verifyNoInteractions(reservationDAO);
+    }
+
+    @Test
+    @DisplayName("Cold index loads all court-days with a single range query")
+    void load_coldIndex_groupIntervalsOfOneQuery() {
+
+        // Arrange
+        CourtDayKey first = new CourtDayKey(101, DAY);
+        CourtDayKey second = new CourtDayKey(102, DAY.plusDays(7));
+        ReservationInterval stored = new ReservationInterval(1L, 101, DAY.atTime(10, 0), DAY.atTime(11, 0));
+        ReservationInterval unrelated = new ReservationInterval(2L, 101, DAY.plusDays(3).atTime(10, 0),
+                DAY.plusDays(3).atTime(11, 0));
+
+        when(reservationIndex.isWarm()).thenReturn(false);
+        when(reservationDAO.findAllIntervalsByCourtNumbersBetween(Set.of(101, 102), DAY.atStartOfDay(),
+                DAY.plusDays(8).atStartOfDay())).thenReturn(List.of(stored, unrelated));
+
+        // Act
+        Map<CourtDayKey, CourtDaySchedule> actual = courtDayScheduleLoader.load(Set.of(first, second));
+
+        // Assert
+        assertEquals(1, actual.size(), "Only the requested court-day with a reservation should be present");
+        assertTrue(actual.get(first).overlaps(630, 640, null), "Stored reservation should be in the schedule");
+
+        // Verify
+        verify(reservationIndex, never()).getSchedule(anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Reload through a warm index refreshes it and fills the empty court-days")
+    void reload_warmIndex_refreshIndex() {
+
+        // Arrange
+        CourtDayKey occupied = new CourtDayKey(101, DAY);
+        CourtDayKey free = new CourtDayKey(102, DAY);
+        CourtDaySchedule schedule = CourtDaySchedule.EMPTY.with(1L, 600, 660);
+
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.refresh(Set.of(occupied, free))).thenReturn(Map.of(occupied, schedule));
+
+        // Act
+        Map<CourtDayKey, CourtDaySchedule> actual = courtDayScheduleLoader.reload(Set.of(occupied, free));
+
+        // Assert
+        assertEquals(schedule, actual.get(occupied), "Refreshed schedule should be returned");
+        assertSame(CourtDaySchedule.EMPTY, actual.get(free), "Free court-day should be empty");
+
+        // Verify
+        verifyNoInteractions(reservationDAO);
+    }
+
+    @Test
+    @DisplayName("Reload with a cold index queries the database and fills the empty court-days")
+    void reload_coldIndex_queryDatabase() {
+
+        // Arrange
+        CourtDayKey key = new CourtDayKey(101, DAY);
+
+        when(reservationIndex.isWarm()).thenReturn(false);
+        when(reservationDAO.findAllIntervalsByCourtNumbersBetween(Set.of(101), DAY.atStartOfDay(),
+                DAY.plusDays(1).atStartOfDay())).thenReturn(List.of());
+
+        // Act
+        Map<CourtDayKey, CourtDaySchedule> actual = courtDayScheduleLoader.reload(Set.of(key));
+
+        // Assert
+        assertSame(CourtDaySchedule.EMPTY, actual.get(key), "Free court-day should be empty");
+
+        // Verify
+        verify(reservationIndex, never()).refresh(any());
+    }
+}
@@ -0,0 +1,311 @@
+package cz.vojtechsika.tennisclub.index;
+
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationIndexImplTest {
+
+    @Mock
+    private ReservationDAO reservationDAO;
+
+    private ReservationIndexImpl reservationIndex;
+
+    private final LocalDate date = LocalDate.now().plusDays(1);
+
+    private final int courtNumber = 101;
+
+
+    @BeforeEach
+    void setUp() {
+        reservationIndex = new ReservationIndexImpl(reservationDAO, true);
+    }
+
+
+    @Test
+    @DisplayName("Index is cold until loaded")
+    void isWarm_beforeAndAfterLoad_shouldReturnFalseThenTrue() {
+
+        // Arrange
+        when(reservationDAO.findAllIntervalsStartingFrom(LocalDate.now().atStartOfDay())).thenReturn(List.of());
+
+        // Act + Assert
+        assertFalse(reservationIndex.isWarm(), "Index should be cold before loading");
+
+        reservationIndex.afterSingletonsInstantiated();
+
+        assertTrue(reservationIndex.isWarm(), "Index should be warm after loading");
+    }
+
+    @Test
+    @DisplayName("Disabled index is never loaded")
+    void afterSingletonsInstantiated_disabledIndex_shouldStayCold() {
+
+        // Arrange
+        ReservationIndexImpl disabledIndex = new ReservationIndexImpl(reservationDAO, false);
+
+        // Act
+        disabledIndex.afterSingletonsInstantiated();
+
+        // Assert
+        assertFalse(disabledIndex.isWarm(), "Disabled index should stay cold");
+
+        // Verify
+        verify(reservationDAO, never()).findAllIntervalsStartingFrom(any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Detect overlapping and adjacent reservations")
+    void hasOverlappingReservation_loadedReservations_shouldDetectOnlyRealOverlaps() {
+
+        // Arrange
+        reservationIndex.load(List.of(
+                interval(1L, courtNumber, 10, 0, 11, 0),
+                interval(2L, courtNumber, 12, 0, 13, 30),
+                interval(3L, 102, 14, 0, 15, 0)));
+
+        // Act + Assert
+        assertTrue(reservationIndex.hasOverlappingReservation(courtNumber, at(10, 30), at(11, 30), null),
+                "Should overlap reservation 1");
+        assertTrue(reservationIndex.hasOverlappingReservation(courtNumber, at(11, 30), at(12, 1), null),
+                "Should overlap reservation 2");
+        assertFalse(reservationIndex.hasOverlappingReservation(courtNumber, at(11, 0), at(12, 0), null),
+                "Adjacent reservations should not overlap");
+        assertFalse(reservationIndex.hasOverlappingReservation(courtNumber, at(14, 0), at(15, 0), null),
+                "Reservation on another court should not overlap");
+        assertFalse(reservationIndex.hasOverlappingReservation(courtNumber, at(10, 0), at(11, 0), 1L),
+                "Excluded reservation should not overlap itself");
+    }
+
+    @Test
+    @DisplayName("Detect overlap with a long reservation hidden behind a shorter one")
+    void hasOverlappingReservation_overlappingStoredIntervals_shouldStillDetectOverlap() {
+
+        // Arrange
+        reservationIndex.load(List.of(
+                interval(1L, courtNumber, 10, 0, 12, 0),
+                interval(2L, courtNumber, 10, 30, 10, 45)));
+
+        // Act
+        boolean actual = reservationIndex.hasOverlappingReservation(courtNumber, at(11, 0), at(11, 30), null);
+
+        // Assert
+        assertTrue(actual, "Should overlap the long reservation");
+    }
+
+    @Test
+    @DisplayName("Move reservation to another court and day")
+    void put_existingReservation_shouldMoveIt() {
+
+        // Arrange
+        reservationIndex.load(List.of(interval(1L, courtNumber, 10, 0, 11, 0)));
+        ReservationInterval moved = new ReservationInterval(1L, 102,
+                date.plusDays(1).atTime(10, 0), date.plusDays(1).atTime(11, 0));
+
+        // Act
+        reservationIndex.put(moved);
+
+        // Assert
+        assertTrue(reservationIndex.getSchedule(courtNumber, date).isEmpty(), "Old schedule should be empty");
+        assertEquals(1, reservationIndex.getSchedule(102, date.plusDays(1)).size(), "New schedule should contain reservation");
+    }
+
+    @Test
+    @DisplayName("Remove reservation by id")
+    void remove_existingReservation_shouldFreeTheSlot() {
+
+        // Arrange
+        reservationIndex.load(List.of(interval(1L, courtNumber, 10, 0, 11, 0)));
+
+        // Act
+        reservationIndex.remove(1L);
+
+        // Assert
+        assertFalse(reservationIndex.hasOverlappingReservation(courtNumber, at(10, 0), at(11, 0), null),
+                "Slot should be free");
+    }
+
+    @Test
+    @DisplayName("Remove and rename courts")
+    void removeCourtAndRenameCourt_shouldUpdateSchedules() {
+
+        // Arrange
+        reservationIndex.load(List.of(
+                interval(1L, courtNumber, 10, 0, 11, 0),
+                interval(2L, 102, 10, 0, 11, 0)));
+
+        // Act
+        reservationIndex.removeCourt(courtNumber);
+        reservationIndex.renameCourt(102, 105);
+
+        // Assert
+        assertTrue(reservationIndex.getSchedule(courtNumber, date).isEmpty(), "Deleted court should be empty");
+        assertTrue(reservationIndex.getSchedule(102, date).isEmpty(), "Old court number should be empty");
+        assertTrue(reservationIndex.hasOverlappingReservation(105, at(10, 30), at(11, 0), null),
+                "Renamed court should keep its reservations");
+
+        reservationIndex.remove(2L);
+        assertTrue(reservationIndex.getSchedule(105, date).isEmpty(), "Renamed reservation should be removable by id");
+    }
+
+    @Test
+    @DisplayName("Refresh replaces the court-day with the reservations committed in the database")
+    void refresh_changesOfOtherInstance_replaceSchedule() {
+
+        // Arrange
+        CourtDayKey key = new CourtDayKey(courtNumber, date);
+        CourtDayKey otherKey = new CourtDayKey(102, date);
+        reservationIndex.load(List.of(
+                interval(1L, courtNumber, 10, 0, 11, 0),
+                interval(2L, 102, 12, 0, 13, 0),
+                interval(3L, 102, 14, 0, 15, 0)));
+        when(reservationDAO.findAllIntervalsByCourtNumbersBetween(Set.of(courtNumber), date.atStartOfDay(),
+                date.plusDays(1).atStartOfDay())).thenReturn(List.of(
+                interval(2L, courtNumber, 12, 0, 13, 0),
+                interval(4L, courtNumber, 16, 0, 17, 0)));
+
+        // Act
+        Map<CourtDayKey, CourtDaySchedule> actual = reservationIndex.refresh(Set.of(key));
+
+        // Assert
+        assertEquals(2, actual.get(key).size(), "Refreshed schedule should be returned");
+        assertFalse(reservationIndex.hasOverlappingReservation(courtNumber, at(10, 0), at(11, 0), null),
+                "Cancelled reservation should be dropped");
+        assertTrue(reservationIndex.hasOverlappingReservation(courtNumber, at(16, 0), at(17, 0), null),
+                "Reservation of another instance should be added");
+        assertFalse(reservationIndex.hasOverlappingReservation(102, at(12, 0), at(13, 0), null),
+                "Reservation moved here should leave its old court-day");
+        assertEquals(1, reservationIndex.getSchedule(102, date).size(), "Other court-day should keep the rest");
+
+        reservationIndex.remove(2L);
+        assertEquals(1, reservationIndex.getSchedule(courtNumber, date).size(),
+                "Moved reservation should be removable by id");
+        assertNull(actual.get(otherKey), "Court-day not refreshed should not be returned");
+    }
+
+    @Test
+    @DisplayName("Refresh of a court-day emptied in the database returns an empty schedule")
+    void refresh_noReservationsLeft_returnEmptySchedule() {
+
+        // Arrange
+        CourtDayKey key = new CourtDayKey(courtNumber, date);
+        reservationIndex.load(List.of(interval(1L, courtNumber, 10, 0, 11, 0)));
+        when(reservationDAO.findAllIntervalsByCourtNumbersBetween(any(), any(), any())).thenReturn(List.of());
+
+        // Act
+        Map<CourtDayKey, CourtDaySchedule> actual = reservationIndex.refresh(Set.of(key));
+
+        // Assert
+        assertSame(CourtDaySchedule.EMPTY, actual.get(key), "Empty schedule should be returned");
+        assertTrue(reservationIndex.getSchedule(courtNumber, date).isEmpty(), "Court-day should be empty");
+
+        reservationIndex.put(interval(1L, courtNumber, 14, 0, 15, 0));
+        assertEquals(1, reservationIndex.getSchedule(courtNumber, date).size(),
+                "Dropped reservation should be indexed anew");
+    }
+
+    @Test
+    @DisplayName("Refresh reads the database without the write lock and keeps a reservation put meanwhile")
+    void refresh_putDuringRead_keepPutAndReadAgain() {
+
+        // Arrange
+        CourtDayKey key = new CourtDayKey(courtNumber, date);
+        reservationIndex.load(List.of(interval(1L, courtNumber, 10, 0, 11, 0)));
+        ReservationInterval put = interval(2L, courtNumber, 12, 0, 13, 0);
+        when(reservationDAO.findAllIntervalsByCourtNumbersBetween(any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    // Another thread commits a reservation while the first read runs
+                    CompletableFuture.runAsync(() -> reservationIndex.put(put)).get(5, TimeUnit.SECONDS);
+                    return List.of();
+                })
+                .thenReturn(List.of(put));
+
+        // Act
+        Map<CourtDayKey, CourtDaySchedule> actual = reservationIndex.refresh(Set.of(key));
+
+        // Assert
+        assertEquals(1, actual.get(key).size(), "Schedule of the repeated read should be returned");
+        assertEquals(2L, reservationIndex.getSchedule(courtNumber, date).idAt(0),
+                "Reservation put during the read should stay indexed");
+        assertFalse(reservationIndex.hasOverlappingReservation(courtNumber, at(10, 0), at(11, 0), null),
+                "Cancelled reservation should be dropped by the repeated read");
+
+        // Verify
+        verify(reservationDAO, times(2)).findAllIntervalsByCourtNumbersBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Refresh overtaken by writes on every read returns the last read without storing it")
+    void refresh_writeDuringEveryRead_returnReadAndKeepIndex() {
+
+        // Arrange
+        CourtDayKey key = new CourtDayKey(courtNumber, date);
+        reservationIndex.load(List.of(interval(1L, courtNumber, 10, 0, 11, 0)));
+        when(reservationDAO.findAllIntervalsByCourtNumbersBetween(any(), any(), any())).thenAnswer(invocation -> {
+            reservationIndex.put(interval(1L, courtNumber, 10, 0, 11, 0));
+            return List.of();
+        });
+
+        // Act
+        Map<CourtDayKey, CourtDaySchedule> actual = reservationIndex.refresh(Set.of(key));
+
+        // Assert
+        assertTrue(actual.get(key).isEmpty(), "Database state should be returned");
+        assertEquals(1, reservationIndex.getSchedule(courtNumber, date).size(),
+                "Index should keep the reservation written during the reads");
+
+        // Verify
+        verify(reservationDAO, times(ReservationIndexImpl.REFRESH_ATTEMPTS))
+                .findAllIntervalsByCourtNumbersBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Prune removes the court-days before the given day only")
+    void prune_pastCourtDays_removeThem() {
+
+        // Arrange
+        ReservationInterval past = new ReservationInterval(1L, courtNumber, date.minusDays(2).atTime(10, 0),
+                date.minusDays(2).atTime(11, 0));
+        reservationIndex.load(List.of(past, interval(2L, courtNumber, 10, 0, 11, 0)));
+
+        // Act
+        reservationIndex.prune(date);
+
+        // Assert
+        assertTrue(reservationIndex.getSchedule(courtNumber, date.minusDays(2)).isEmpty(),
+                "Past court-day should be removed");
+        assertEquals(1, reservationIndex.getSchedule(courtNumber, date).size(), "Kept court-day should stay");
+
+        reservationIndex.put(new ReservationInterval(1L, courtNumber, at(14, 0), at(15, 0)));
+        assertEquals(2, reservationIndex.getSchedule(courtNumber, date).size(),
+                "Pruned reservation should be indexed anew");
+    }
+
+
+    private LocalDateTime at(int hour, int minute) {
+        return LocalDateTime.of(date, LocalTime.of(hour, minute));
+    }
+
+    private ReservationInterval interval(Long id, int court, int startHour, int startMinute, int endHour, int endMinute) {
+        return new ReservationInterval(id, court, at(startHour, startMinute), at(endHour, endMinute));
+    }
+}
@@ -0,0 +1,192 @@
+package cz.vojtechsika.tennisclub.lock;
+
+import cz.vojtechsika.tennisclub.exception.ReservationLockTimeoutException;
+import cz.vojtechsika.tennisclub.index.CourtDayKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReservationLockManagerImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final ReservationLockManagerImpl lockManager =
+            new ReservationLockManagerImpl(100, 50, transactionManager, meterRegistry);
+
+    private final CourtDayKey key = new CourtDayKey(101, LocalDate.of(2030, 1, 1));
+
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            completeTransaction();
+        }
+    }
+
+
+    @Test
+    @DisplayName("Number of stripes is rounded up to a power of two")
+    void constructor_stripesNotPowerOfTwo_roundUp() {
+
+        // Assert
+        assertEquals(128, lockManager.stripeCount(), "100 stripes should be rounded up to 128");
+        assertEquals(1, new ReservationLockManagerImpl(1, 50, transactionManager, meterRegistry).stripeCount(),
+                "One stripe should stay one stripe");
+    }
+
+    @Test
+    @DisplayName("Lock is held until the transaction completes")
+    void lockUntilCompletion_activeTransaction_holdLockUntilCompletion() throws Exception {
+
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        lockManager.lockUntilCompletion(Set.of(key));
+
+        // Assert
+        assertThrows(ReservationLockTimeoutException.class,
+                () -> joinOtherThread(() -> lockManager.lockUntilCompletion(Set.of(key))),
+                "Other thread should not acquire the lock while the transaction is running");
+
+        completeTransaction();
+        assertDoesNotThrow(() -> joinOtherThread(() -> lockManager.lockUntilCompletion(Set.of(key))),
+                "Other thread should acquire the lock after completion");
+
+        assertEquals(1.0, meterRegistry.get("reservation.lock.timeouts").counter().count(),
+                "One acquisition should time out");
+        assertEquals(1.0, meterRegistry.get("reservation.lock.contended").counter().count(),
+                "One acquisition should be contended");
+        assertEquals(3, meterRegistry.get("reservation.lock.wait").timer().count(),
+                "Every acquisition should be timed");
+    }
+
+    @Test
+    @DisplayName("Lock without transaction is released immediately")
+    void lockUntilCompletion_noTransaction_releaseImmediately() {
+
+        // Act
+        lockManager.lockUntilCompletion(Set.of(key));
+
+        // Assert
+        assertDoesNotThrow(() -> joinOtherThread(() -> lockManager.lockUntilCompletion(Set.of(key))),
+                "Other thread should acquire the lock");
+        assertEquals(0.0, meterRegistry.get("reservation.lock.contended").counter().count(),
+                "No acquisition should be contended");
+    }
+
+    @Test
+    @DisplayName("Lock is taken before a new transaction starts and released after it ends")
+    void callInTransaction_noTransaction_lockBeforeTransactionAndReleaseAfter() throws Exception {
+
+        // Arrange
+        TransactionStatus status = new SimpleTransactionStatus();
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            assertThrows(ReservationLockTimeoutException.class,
+                    () -> joinOtherThread(() -> lockManager.lockUntilCompletion(Set.of(key))),
+                    "Court-day should be locked before the transaction starts");
+            return status;
+        });
+
+        // Act
+        String actual = lockManager.callInTransaction(Set.of(key), () -> "created");
+
+        // Assert
+        assertEquals("created", actual, "Result of the action should be returned");
+        assertDoesNotThrow(() -> joinOtherThread(() -> lockManager.lockUntilCompletion(Set.of(key))),
+                "Other thread should acquire the lock after the transaction");
+
+        // Verify
+        verify(transactionManager, times(1)).commit(status);
+    }
+
+    @Test
+    @DisplayName("Lock taken inside a running transaction joins it and is held until it completes")
+    void callInTransaction_activeTransaction_joinAndHoldUntilCompletion() throws Exception {
+
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        String actual = lockManager.callInTransaction(Set.of(key), () -> "created");
+
+        // Assert
+        assertEquals("created", actual, "Result of the action should be returned");
+        assertThrows(ReservationLockTimeoutException.class,
+                () -> joinOtherThread(() -> lockManager.lockUntilCompletion(Set.of(key))),
+                "Other thread should not acquire the lock while the transaction is running");
+
+        completeTransaction();
+        assertDoesNotThrow(() -> joinOtherThread(() -> lockManager.lockUntilCompletion(Set.of(key))),
+                "Other thread should acquire the lock after completion");
+
+        // Verify
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    @DisplayName("Locking two court-days in opposite order from two threads does not deadlock")
+    void lockUntilCompletion_oppositeOrder_noDeadlock() throws Exception {
+
+        // Arrange
+        ReservationLockManagerImpl manager = new ReservationLockManagerImpl(256, 5000, transactionManager, meterRegistry);
+        CourtDayKey first = new CourtDayKey(101, LocalDate.of(2030, 1, 1));
+        CourtDayKey second = new CourtDayKey(102, LocalDate.of(2030, 1, 2));
+
+        // Act
+        List<CompletableFuture<Void>> futures = List.of(
+                CompletableFuture.runAsync(() -> lockRepeatedly(manager, List.of(first, second))),
+                CompletableFuture.runAsync(() -> lockRepeatedly(manager, List.of(second, first))));
+
+        // Assert
+        assertDoesNotThrow(() -> CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .get(10, TimeUnit.SECONDS), "Both threads should finish without deadlock or timeout");
+        assertEquals(0.0, meterRegistry.get("reservation.lock.timeouts").counter().count(),
+                "No acquisition should time out");
+    }
+
+
+    // Runs many short "transactions" locking the given keys in the given order
+    private void lockRepeatedly(ReservationLockManagerImpl manager, List<CourtDayKey> keys) {
+        for (int i = 0; i < 1000; i++) {
+            TransactionSynchronizationManager.initSynchronization();
+            manager.lockUntilCompletion(keys);
+            completeTransaction();
+        }
+    }
+
+    // Simulates the completion of the transaction bound to the current thread
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    // Runs the action on another thread and rethrows its runtime exception
+    private static void joinOtherThread(Runnable action) throws Exception {
+        try {
+            CompletableFuture.runAsync(action).get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package cz.vojtechsika.tennisclub.metrics;
+
+import cz.vojtechsika.tennisclub.enums.RejectionReason;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingMetricsImplTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BookingMetricsImpl bookingMetrics;
+
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bookingMetrics = new BookingMetricsImpl(meterRegistry);
+    }
+
+
+    @Test
+    @DisplayName("Bookings are published by operation")
+    void created_updatedAndCancelled_publishCountPerOperation() {
+
+        // Act
+        bookingMetrics.created(3);
+        bookingMetrics.created(1);
+        bookingMetrics.updated();
+        bookingMetrics.cancelled();
+
+        // Assert
+        assertEquals(4, bookings("created"), "Created count mismatch");
+        assertEquals(1, bookings("updated"), "Updated count mismatch");
+        assertEquals(1, bookings("cancelled"), "Cancelled count mismatch");
+    }
+
+    @Test
+    @DisplayName("Rejections are published by reason, every reason registered up front")
+    void rejected_oneReason_countOnlyThatReason() {
+
+        // Act
+        bookingMetrics.rejected(RejectionReason.OVERLAP);
+        bookingMetrics.rejected(RejectionReason.OVERLAP);
+
+        // Assert
+        assertEquals(2, rejections(RejectionReason.OVERLAP), "Overlap count mismatch");
+        assertEquals(0, rejections(RejectionReason.PAST_START_TIME), "Past start time should be registered at zero");
+        assertEquals(RejectionReason.values().length,
+                meterRegistry.find(MeterNames.RESERVATION_REJECTIONS).counters().size(),
+                "Every reason should have its counter");
+    }
+
+    @Test
+    @DisplayName("Concurrent bookings are all counted")
+    void created_concurrentThreads_countEveryBooking() throws InterruptedException {
+
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(() -> bookingMetrics.created(1));
+        }
+        executor.shutdown();
+
+        // Assert
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS), "Bookings should finish");
+        assertEquals(10_000, bookings("created"), "Every booking should be counted");
+    }
+
+
+    private double bookings(String operation) {
+        return meterRegistry.get(MeterNames.RESERVATION_BOOKINGS).tag("operation", operation).functionCounter().count();
+    }
+
+    private double rejections(RejectionReason reason) {
+        return meterRegistry.get(MeterNames.RESERVATION_REJECTIONS).tag("reason", reason.getTag()).counter().count();
+    }
+}
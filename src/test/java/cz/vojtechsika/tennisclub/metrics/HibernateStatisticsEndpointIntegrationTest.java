@@ -0,0 +1,145 @@
+package cz.vojtechsika.tennisclub.metrics;
+
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationDAOImpl;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.service.ReservationService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Turns the Hibernate statistics on through {@code /actuator/hibernate}, runs court and reservation queries and
+ * reads the report back. Records slow queries of a reservation DAO whose log has no threshold, so every query run
+ * through it is kept with its JPQL and bound parameters.
+ */
+@SpringBootTest
+class HibernateStatisticsEndpointIntegrationTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(980);
+
+    private static final String FIND_ALL_COURTS = "SELECT c FROM Court c LEFT JOIN FETCH c.surfaceType " +
+            "WHERE c.deleted = :isFalse";
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private CourtDAO courtDAO;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private MockMvc mockMvc;
+
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+
+    @Test
+    @DisplayName("Report shows the executions of a query, the entity loads and the flushes once enabled")
+    void report_enabledAndReset_showQueryEntityAndFlushStatistics() throws Exception {
+
+        // Arrange
+        mockMvc.perform(post("/actuator/hibernate").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"enabled\": true}"))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(delete("/actuator/hibernate")).andExpect(status().is2xxSuccessful());
+
+        // Act
+        courtDAO.findAll();
+        courtDAO.findAll();
+        reservationService.createReservation(new ReservationDTO("Statistics Player", "+420 713 000 001",
+                DATE.atTime(10, 0), DATE.atTime(11, 0), 101, GameType.SINGLES));
+
+        // Assert
+        mockMvc.perform(get("/actuator/hibernate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(true))
+                .andExpect(jsonPath("$.queries[?(@.query == '" + FIND_ALL_COURTS + "')].executionCount",
+                        contains(2)))
+                .andExpect(jsonPath("$.queries[?(@.query == '" + FIND_ALL_COURTS + "')].rows",
+                        contains(greaterThanOrEqualTo(8))))
+                .andExpect(jsonPath("$.entities[?(@.entity == 'cz.vojtechsika.tennisclub.entity.Court')]" +
+                        ".loadCount", contains(greaterThanOrEqualTo(8))))
+                .andExpect(jsonPath("$.entities[?(@.entity == 'cz.vojtechsika.tennisclub.entity.Reservation')]" +
+                        ".insertCount", contains(1)))
+                .andExpect(jsonPath("$.flushCount", greaterThanOrEqualTo(1)));
+    }
+
+    @Test
+    @DisplayName("Report of disabled statistics says so")
+    void report_disabled_showDisabled() throws Exception {
+
+        // Arrange
+        mockMvc.perform(post("/actuator/hibernate").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"enabled\": false}"))
+                .andExpect(status().is2xxSuccessful());
+
+        // Act + Assert
+        mockMvc.perform(get("/actuator/hibernate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(false));
+        assertFalse(statistics.isStatisticsEnabled(), "Statistics should not be collected");
+    }
+
+    @Test
+    @DisplayName("Slow query of the reservation DAO is recorded with its JPQL and bound parameters")
+    void slowQueryLog_reservationQueryOverThreshold_recordJpqlAndParameters() {
+
+        // Arrange
+        SlowQueryLog slowQueryLog = new SlowQueryLogImpl(0, 10);
+        ReservationDAOImpl reservationDAO = new ReservationDAOImpl(entityManager, slowQueryLog);
+
+        // Act
+        reservationDAO.findAllIntervalsByCourtNumbersBetween(List.of(101, 102), DATE.atStartOfDay(),
+                DATE.plusDays(1).atStartOfDay());
+
+        // Assert
+        List<SlowQuery> slowQueries = slowQueryLog.getSlowQueries();
+        assertEquals(1, slowQueries.size(), "Query should be recorded");
+        SlowQuery slowQuery = slowQueries.get(0);
+        assertTrue(slowQuery.jpql().contains("r.court.courtNumber IN :courtNumbers"), "JPQL should be recorded");
+        assertEquals("[101, 102]", slowQuery.parameters().get("courtNumbers"), "Collection should be recorded");
+        assertEquals(DATE.atStartOfDay().toString(), slowQuery.parameters().get("from"), "Date should be recorded");
+        assertEquals("false", slowQuery.parameters().get("isFalse"), "Flag should be recorded");
+    }
+}
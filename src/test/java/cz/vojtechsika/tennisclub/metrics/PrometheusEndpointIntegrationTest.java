@@ -0,0 +1,76 @@
+package cz.vojtechsika.tennisclub.metrics;
+
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.exception.ReservationValidationException;
+import cz.vojtechsika.tennisclub.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Books and rejects a reservation and scrapes {@code /actuator/prometheus}: the service and DAO timers must be
+ * published with their histogram buckets, and the rejection and booking counters with their tags.
+ */
+@SpringBootTest
+class PrometheusEndpointIntegrationTest {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(970);
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    private MockMvc mockMvc;
+
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+
+    @Test
+    @DisplayName("Scrape shows timer histograms of services and DAOs and the booking counters")
+    void prometheus_afterBookingAndRejection_publishTimersAndCounters() throws Exception {
+
+        // Arrange
+        reservationService.createReservation(new ReservationDTO("Metrics Player", "+420 712 000 001",
+                DATE.atTime(10, 0), DATE.atTime(11, 0), 101, GameType.SINGLES));
+        assertThrows(ReservationValidationException.class, () -> reservationService.createReservation(
+                new ReservationDTO("Metrics Player", "+420 712 000 001", DATE.atTime(10, 30), DATE.atTime(11, 30),
+                        101, GameType.SINGLES)), "Overlapping reservation should be rejected");
+
+        // Act
+        String scrape = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("service_calls_seconds_bucket{")
+                        && line.contains("class=\"cz.vojtechsika.tennisclub.service.ReservationServiceImpl\"")
+                        && line.contains("method=\"createReservation\"")),
+                "Service timer should publish histogram buckets");
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("dao_queries_seconds_bucket{")
+                        && line.contains("class=\"cz.vojtechsika.tennisclub.dao.ReservationDAOImpl\"")
+                        && line.contains("method=\"create\"")),
+                "DAO timer should publish histogram buckets");
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("reservation_rejections_total{")
+                        && line.contains("reason=\"overlap\"") && !line.endsWith(" 0.0")),
+                "Overlap rejection should be counted");
+        assertTrue(scrape.lines().anyMatch(line -> line.startsWith("reservation_bookings_total{")
+                        && line.contains("operation=\"created\"") && !line.endsWith(" 0.0")),
+                "Created booking should be counted");
+    }
+}
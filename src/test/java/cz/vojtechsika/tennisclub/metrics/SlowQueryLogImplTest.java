@@ -0,0 +1,181 @@
+package cz.vojtechsika.tennisclub.metrics;
+
+import cz.vojtechsika.tennisclub.entity.Court;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.query.ParameterMetadata;
+import org.hibernate.query.QueryParameter;
+import org.hibernate.query.spi.DomainQueryExecutionContext;
+import org.hibernate.query.spi.QueryParameterBinding;
+import org.hibernate.query.spi.QueryParameterBindings;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlowQueryLogImplTest {
+
+    @Mock
+    private TypedQuery<Court> query;
+
+    @Mock
+    private Query update;
+
+
+    @Test
+    @DisplayName("Query faster than the threshold is not recorded")
+    void getResultList_belowThreshold_notRecorded() {
+
+        // Arrange
+        SlowQueryLog slowQueryLog = new SlowQueryLogImpl(60_000, 10);
+        org.hibernate.query.Query<?> hibernateQuery = hibernateQuery(query);
+        List<Court> courts = List.of(new Court());
+        when(query.getResultList()).thenReturn(courts);
+
+        // Act
+        List<Court> actual = slowQueryLog.getResultList(query);
+
+        // Assert
+        assertSame(courts, actual, "Results should be returned");
+        assertTrue(slowQueryLog.getSlowQueries().isEmpty(), "Fast query should not be recorded");
+
+        // Verify
+        verify(hibernateQuery, never()).getQueryString();
+        verify(hibernateQuery, never()).getParameterMetadata();
+    }
+
+    @Test
+    @DisplayName("Query over the threshold is recorded with its JPQL, bound parameters and rows")
+    void getResultList_overThreshold_recordJpqlParametersAndRows() {
+
+        // Arrange
+        SlowQueryLog slowQueryLog = new SlowQueryLogImpl(0, 10);
+        org.hibernate.query.Query<?> hibernateQuery = hibernateQuery(query);
+        when(hibernateQuery.getQueryString()).thenReturn("SELECT c FROM Court c");
+        bindParameters(hibernateQuery);
+        when(query.getResultList()).thenReturn(List.of(new Court(), new Court()));
+
+        // Act
+        slowQueryLog.getResultList(query);
+
+        // Assert
+        SlowQuery slowQuery = slowQueryLog.getSlowQueries().get(0);
+        assertEquals("SELECT c FROM Court c", slowQuery.jpql(), "JPQL should be recorded");
+        assertEquals(Map.of("courtNumbers", "[101, 102]", "isFalse", "false"), slowQuery.parameters(),
+                "Only bound parameters should be recorded");
+        assertEquals(2, slowQuery.rows(), "Rows should be recorded");
+    }
+
+    @Test
+    @DisplayName("Bulk update over the threshold is recorded with the changed rows")
+    void executeUpdate_overThreshold_recordChangedRows() {
+
+        // Arrange
+        SlowQueryLog slowQueryLog = new SlowQueryLogImpl(0, 10);
+        org.hibernate.query.Query<?> hibernateQuery = hibernateQuery(update);
+        when(hibernateQuery.getQueryString()).thenReturn("UPDATE Court c SET c.deleted = :isTrue");
+        bindParameters(hibernateQuery);
+        when(update.executeUpdate()).thenReturn(7);
+
+        // Act
+        int actual = slowQueryLog.executeUpdate(update);
+
+        // Assert
+        assertEquals(7, actual, "Changed rows should be returned");
+        assertEquals(7, slowQueryLog.getSlowQueries().get(0).rows(), "Changed rows should be recorded");
+    }
+
+    @Test
+    @DisplayName("Full log drops the oldest query and lists the latest first")
+    void getResultList_capacityReached_dropOldestQuery() {
+
+        // Arrange
+        SlowQueryLog slowQueryLog = new SlowQueryLogImpl(0, 2);
+        org.hibernate.query.Query<?> hibernateQuery = hibernateQuery(query);
+        when(hibernateQuery.getQueryString()).thenReturn("first", "second", "third");
+        bindParameters(hibernateQuery);
+        when(query.getResultList()).thenReturn(List.of());
+
+        // Act
+        slowQueryLog.getResultList(query);
+        slowQueryLog.getResultList(query);
+        slowQueryLog.getResultList(query);
+
+        // Assert
+        assertEquals(List.of("third", "second"), slowQueryLog.getSlowQueries().stream().map(SlowQuery::jpql).toList(),
+                "Latest two queries should be kept");
+    }
+
+    @Test
+    @DisplayName("Cleared log has no queries")
+    void clear_recordedQuery_removeQuery() {
+
+        // Arrange
+        SlowQueryLog slowQueryLog = new SlowQueryLogImpl(0, 10);
+        org.hibernate.query.Query<?> hibernateQuery = hibernateQuery(query);
+        when(hibernateQuery.getQueryString()).thenReturn("SELECT c FROM Court c");
+        bindParameters(hibernateQuery);
+        when(query.getResultList()).thenReturn(List.of());
+        slowQueryLog.getResultList(query);
+
+        // Act
+        slowQueryLog.clear();
+
+        // Assert
+        assertTrue(slowQueryLog.getSlowQueries().isEmpty(), "Log should be empty");
+    }
+
+
+    // Hibernate query behind the JPA query, carrying the parameter bindings like the real one
+    private static org.hibernate.query.Query<?> hibernateQuery(Query query) {
+        org.hibernate.query.Query<?> hibernateQuery = mock(org.hibernate.query.Query.class,
+                withSettings().extraInterfaces(DomainQueryExecutionContext.class));
+        when(query.unwrap(org.hibernate.query.Query.class)).thenReturn(hibernateQuery);
+        return hibernateQuery;
+    }
+
+    // Binds a list of court numbers and a flag, and leaves an excluded ID unbound
+    private static void bindParameters(org.hibernate.query.Query<?> hibernateQuery) {
+        QueryParameter<Object> courtNumbers = parameter("courtNumbers");
+        QueryParameter<Object> isFalse = parameter("isFalse");
+        QueryParameter<Object> excludeId = parameter("excludeId");
+        ParameterMetadata parameterMetadata = mock(ParameterMetadata.class);
+        QueryParameterBindings bindings = mock(QueryParameterBindings.class);
+        when(hibernateQuery.getParameterMetadata()).thenReturn(parameterMetadata);
+        doReturn(new LinkedHashSet<>(List.of(courtNumbers, isFalse, excludeId))).when(parameterMetadata)
+                .getRegistrations();
+        when(((DomainQueryExecutionContext) hibernateQuery).getQueryParameterBindings()).thenReturn(bindings);
+        QueryParameterBinding<Object> courtNumbersBinding = binding(true);
+        when(courtNumbersBinding.isMultiValued()).thenReturn(true);
+        doReturn(List.of(101, 102)).when(courtNumbersBinding).getBindValues();
+        QueryParameterBinding<Object> isFalseBinding = binding(true);
+        when(isFalseBinding.getBindValue()).thenReturn(false);
+        QueryParameterBinding<Object> excludeIdBinding = binding(false);
+        when(bindings.getBinding(courtNumbers)).thenReturn(courtNumbersBinding);
+        when(bindings.getBinding(isFalse)).thenReturn(isFalseBinding);
+        when(bindings.getBinding(excludeId)).thenReturn(excludeIdBinding);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static QueryParameter<Object> parameter(String name) {
+        QueryParameter<Object> parameter = mock(QueryParameter.class);
+        lenient().when(parameter.getName()).thenReturn(name);
+        return parameter;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static QueryParameterBinding<Object> binding(boolean bound) {
+        QueryParameterBinding<Object> binding = mock(QueryParameterBinding.class);
+        when(binding.isBound()).thenReturn(bound);
+        return binding;
+    }
+}
@@ -0,0 +1,132 @@
+package cz.vojtechsika.tennisclub.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryOnConflictAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ConflictingService target = new ConflictingService();
+
+    private final ConflictingService service = proxy(target);
+
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+
+    @Test
+    @DisplayName("Conflicting call is repeated until it succeeds")
+    void retry_conflictThenSuccess_returnResult() {
+
+        // Arrange
+        target.conflicts = 2;
+
+        // Act
+        String actual = service.update();
+
+        // Assert
+        assertEquals("updated", actual, "Third attempt should succeed");
+        assertEquals(3, target.calls, "Method should be called three times");
+        assertEquals(2.0, meterRegistry.counter("optimistic.lock.retries").count(), "Two attempts should be retried");
+    }
+
+    @Test
+    @DisplayName("Last conflict is rethrown when all attempts fail")
+    void retry_conflictOnEveryAttempt_rethrowConflict() {
+
+        // Arrange
+        target.conflicts = 10;
+
+        // Act and Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, service::update,
+                "Conflict should be rethrown after the last attempt");
+        assertEquals(3, target.calls, "Method should be called max-attempts times");
+    }
+
+    @Test
+    @DisplayName("JPA optimistic lock exception is retried as well")
+    void retry_jpaOptimisticLockException_retry() {
+
+        // Arrange
+        target.conflicts = 1;
+        target.jpaConflict = true;
+
+        // Act
+        String actual = service.update();
+
+        // Assert
+        assertEquals("updated", actual, "Second attempt should succeed");
+        assertEquals(2, target.calls, "Method should be called twice");
+    }
+
+    @Test
+    @DisplayName("Other exceptions are not retried")
+    void retry_otherException_noRetry() {
+
+        // Act and Assert
+        assertThrows(IllegalStateException.class, service::fail, "Exception should be propagated");
+        assertEquals(1, target.calls, "Method should be called once");
+    }
+
+    @Test
+    @DisplayName("Call inside a running transaction is not retried")
+    void retry_activeTransaction_noRetry() {
+
+        // Arrange
+        target.conflicts = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // Act and Assert
+        assertThrows(ObjectOptimisticLockingFailureException.class, service::update,
+                "Conflict should be propagated to the outer transaction");
+        assertEquals(1, target.calls, "Method should be called once");
+    }
+
+
+    private ConflictingService proxy(ConflictingService theTarget) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(theTarget);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new RetryOnConflictAspect(3, 0, meterRegistry));
+        return factory.getProxy();
+    }
+
+
+    static class ConflictingService {
+
+        int conflicts;
+
+        boolean jpaConflict;
+
+        int calls;
+
+        @RetryOnConflict
+        public String update() {
+            calls++;
+            if (calls <= conflicts) {
+                if (jpaConflict) {
+                    throw new OptimisticLockException("Row was updated by another transaction");
+                }
+                throw new ObjectOptimisticLockingFailureException(Object.class, 1L);
+            }
+            return "updated";
+        }
+
+        @RetryOnConflict
+        public String fail() {
+            calls++;
+            throw new IllegalStateException("Not a conflict");
+        }
+    }
+}
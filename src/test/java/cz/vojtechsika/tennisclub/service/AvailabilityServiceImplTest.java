@@ -0,0 +1,350 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.cache.CatalogCache;
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dto.mapper.AvailabilityMapper;
+import cz.vojtechsika.tennisclub.dto.mapper.SurfaceTypeMapper;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.dto.response.CourtAvailabilityResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.CourtResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.DayAvailabilityDTO;
+import cz.vojtechsika.tennisclub.dto.response.FreeCourtResponseDTO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import cz.vojtechsika.tennisclub.enums.AvailabilityFormat;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.exception.CourtNotFoundException;
+import cz.vojtechsika.tennisclub.exception.InvalidDateRangeException;
+import cz.vojtechsika.tennisclub.index.AvailabilityGrid;
+import cz.vojtechsika.tennisclub.index.CourtDaySchedule;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import cz.vojtechsika.tennisclub.tariff.TariffEngine;
+import cz.vojtechsika.tennisclub.tariff.TariffEngineImpl;
+import cz.vojtechsika.tennisclub.tariff.TariffProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceImplTest {
+
+    @Mock
+    private CourtDAO courtDAO;
+
+    @Mock
+    private ReservationDAO reservationDAO;
+
+    @Mock
+    private ReservationIndex reservationIndex;
+
+    @Spy
+    private AvailabilityGrid availabilityGrid = new AvailabilityGrid(15);
+
+    @Spy
+    private AvailabilityMapper availabilityMapper = new AvailabilityMapper();
+
+    @Spy
+    private SurfaceTypeMapper surfaceTypeMapper = new SurfaceTypeMapper();
+
+    @Mock
+    private CatalogCache catalogCache;
+
+    @Spy
+    private TariffEngine tariffEngine = new TariffEngineImpl(new TariffProperties());
+
+    @InjectMocks
+    private AvailabilityServiceImpl availabilityService;
+
+
+    @Test
+    @DisplayName("Get availability from warm index without touching database reservations")
+    void getCourtAvailability_warmIndex_returnFreeRangesFromIndex() {
+
+        // Arrange
+        int courtNumber = 101;
+        LocalDate date = LocalDate.now().plusDays(1);
+
+        // 11:00 - 12:30 booked
+        CourtDaySchedule schedule = CourtDaySchedule.EMPTY.with(1L, 11 * 60, 12 * 60 + 30);
+
+        when(catalogCache.findCourtByCourtNumber(courtNumber)).thenReturn(Optional.of(new CourtResponseDTO()));
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(courtNumber, date)).thenReturn(schedule);
+
+        // Act
+        CourtAvailabilityResponseDTO actual =
+                availabilityService.getCourtAvailability(courtNumber, date, date, AvailabilityFormat.RANGES);
+
+        // Assert
+        assertEquals(1, actual.getDays().size(), "Should return one day");
+
+        DayAvailabilityDTO day = actual.getDays().get(0);
+        assertEquals(date, day.getDate(), "Date mismatch");
+        assertEquals(2, day.getFreeRanges().size(), "Should return two free ranges");
+        assertEquals(LocalTime.of(10, 0), day.getFreeRanges().get(0).getFrom(), "First range start mismatch");
+        assertEquals(LocalTime.of(11, 0), day.getFreeRanges().get(0).getTo(), "First range end mismatch");
+        assertEquals(LocalTime.of(12, 30), day.getFreeRanges().get(1).getFrom(), "Second range start mismatch");
+        assertEquals(LocalTime.of(22, 0), day.getFreeRanges().get(1).getTo(), "Second range end mismatch");
+        assertNull(day.getBitmap(), "Bitmap should not be filled for ranges format");
+
+        // Verify
+        verify(reservationDAO, never()).findAllIntervalsByCourtNumberBetween(anyInt(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Get availability with cold index loads whole range with one query")
+    void getCourtAvailability_coldIndex_loadRangeFromDatabaseOnce() {
+
+        // Arrange
+        int courtNumber = 101;
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(2);
+
+        List<ReservationInterval> intervals = List.of(
+                new ReservationInterval(1L, courtNumber, from.plusDays(1).atTime(10, 0), from.plusDays(1).atTime(22, 0)));
+
+        when(catalogCache.findCourtByCourtNumber(courtNumber)).thenReturn(Optional.of(new CourtResponseDTO()));
+        when(reservationIndex.isWarm()).thenReturn(false);
+        when(reservationDAO.findAllIntervalsByCourtNumberBetween(courtNumber, from.atStartOfDay(),
+                to.plusDays(1).atStartOfDay())).thenReturn(intervals);
+
+        // Act
+        CourtAvailabilityResponseDTO actual =
+                availabilityService.getCourtAvailability(courtNumber, from, to, AvailabilityFormat.RANGES);
+
+        // Assert
+        assertEquals(3, actual.getDays().size(), "Should return three days");
+        assertEquals(1, actual.getDays().get(0).getFreeRanges().size(), "First day should be free");
+        assertTrue(actual.getDays().get(1).getFreeRanges().isEmpty(), "Second day should be fully booked");
+        assertEquals(1, actual.getDays().get(2).getFreeRanges().size(), "Third day should be free");
+
+        // Verify
+        verify(reservationDAO, times(1)).findAllIntervalsByCourtNumberBetween(anyInt(), any(), any());
+        verify(reservationIndex, never()).getSchedule(anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Get availability as bitmap")
+    void getCourtAvailability_bitmapFormat_returnEncodedBitmap() {
+
+        // Arrange
+        int courtNumber = 101;
+        LocalDate date = LocalDate.now().plusDays(1);
+
+        // first 8 slots (10:00 - 12:00) booked
+        CourtDaySchedule schedule = CourtDaySchedule.EMPTY.with(1L, 10 * 60, 12 * 60);
+
+        when(catalogCache.findCourtByCourtNumber(courtNumber)).thenReturn(Optional.of(new CourtResponseDTO()));
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(courtNumber, date)).thenReturn(schedule);
+
+        // Act
+        CourtAvailabilityResponseDTO actual =
+                availabilityService.getCourtAvailability(courtNumber, date, date, AvailabilityFormat.BITMAP);
+
+        // Assert
+        DayAvailabilityDTO day = actual.getDays().get(0);
+        assertNull(day.getFreeRanges(), "Free ranges should not be filled for bitmap format");
+
+        byte[] bitmap = Base64.getDecoder().decode(day.getBitmap());
+        assertEquals(6, bitmap.length, "48 slots should be encoded into 6 bytes");
+        assertEquals((byte) 0xFF, bitmap[0], "First eight slots should be occupied");
+        assertEquals(0, bitmap[1], "Following slots should be free");
+        assertEquals(15, actual.getSlotMinutes(), "Slot length mismatch");
+    }
+
+    @Test
+    @DisplayName("Get availability of past day returns no free ranges")
+    void getCourtAvailability_pastDay_returnNoFreeRanges() {
+
+        // Arrange
+        int courtNumber = 101;
+        LocalDate date = LocalDate.now().minusDays(1);
+
+        when(catalogCache.findCourtByCourtNumber(courtNumber)).thenReturn(Optional.of(new CourtResponseDTO()));
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(courtNumber, date)).thenReturn(CourtDaySchedule.EMPTY);
+
+        // Act
+        CourtAvailabilityResponseDTO actual =
+                availabilityService.getCourtAvailability(courtNumber, date, date, AvailabilityFormat.RANGES);
+
+        // Assert
+        assertTrue(actual.getDays().get(0).getFreeRanges().isEmpty(), "Past day should not have free ranges");
+    }
+
+    @Test
+    @DisplayName("Get availability of non-existing court should throw CourtNotFoundException")
+    void getCourtAvailability_nonExistingCourt_throwCourtNotFoundException() {
+
+        // Arrange
+        int courtNumber = 999;
+        LocalDate date = LocalDate.now().plusDays(1);
+
+        when(catalogCache.findCourtByCourtNumber(courtNumber)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(CourtNotFoundException.class,
+                () -> availabilityService.getCourtAvailability(courtNumber, date, date, AvailabilityFormat.RANGES),
+                "Should throw CourtNotFoundException");
+
+        // Verify
+        verify(reservationIndex, never()).isWarm();
+    }
+
+    @Test
+    @DisplayName("Get availability with reversed range should throw InvalidDateRangeException")
+    void getCourtAvailability_fromAfterTo_throwInvalidDateRangeException() {
+
+        // Arrange
+        LocalDate from = LocalDate.now().plusDays(2);
+        LocalDate to = from.minusDays(1);
+
+        // Act & Assert
+        assertThrows(InvalidDateRangeException.class,
+                () -> availabilityService.getCourtAvailability(101, from, to, AvailabilityFormat.RANGES),
+                "Should throw InvalidDateRangeException");
+
+        // Verify
+        verify(catalogCache, never()).findCourtByCourtNumber(anyInt());
+    }
+
+    @Test
+    @DisplayName("Get availability with too long range should throw InvalidDateRangeException")
+    void getCourtAvailability_rangeTooLong_throwInvalidDateRangeException() {
+
+        // Arrange
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(AvailabilityServiceImpl.MAX_DAYS);
+
+        // Act & Assert
+        assertThrows(InvalidDateRangeException.class,
+                () -> availabilityService.getCourtAvailability(101, from, to, AvailabilityFormat.RANGES),
+                "Should throw InvalidDateRangeException");
+    }
+
+    @Test
+    @DisplayName("Find free courts with warm index returns free courts ordered by price")
+    void findFreeCourts_warmIndex_returnFreeCourtsOrderedByPrice() {
+
+        // Arrange
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(18, 0);
+        LocalDateTime endTime = startTime.plusMinutes(90);
+
+        Court expensive = court(1L, 101, "Grass", "3.00");
+        Court occupied = court(2L, 102, "Clay", "1.00");
+        Court cheap = court(3L, 103, "Clay", "2.00");
+
+        when(courtDAO.findAllWithSurfaceType(null)).thenReturn(List.of(expensive, occupied, cheap));
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.hasOverlappingReservation(101, startTime, endTime, null)).thenReturn(false);
+        when(reservationIndex.hasOverlappingReservation(102, startTime, endTime, null)).thenReturn(true);
+        when(reservationIndex.hasOverlappingReservation(103, startTime, endTime, null)).thenReturn(false);
+
+        // Act
+        List<FreeCourtResponseDTO> actual =
+                availabilityService.findFreeCourts(startTime, endTime, null, GameType.DOUBLES);
+
+        // Assert
+        assertEquals(2, actual.size(), "Should return two free courts");
+        assertEquals(103, actual.get(0).getCourtNumber(), "Cheapest court should be first");
+        assertEquals(0, new BigDecimal("360.00").compareTo(actual.get(0).getPrice()), "Price mismatch");
+        assertEquals("Clay", actual.get(0).getSurfaceTypeResponseDTO().getName(), "Surface type mismatch");
+        assertEquals(101, actual.get(1).getCourtNumber(), "Court number mismatch");
+
+        // Verify
+        verify(reservationDAO, never()).findOccupiedCourtNumbersBetween(any(), any());
+    }
+
+    @Test
+    @DisplayName("Find free courts with cold index uses one occupied courts query")
+    void findFreeCourts_coldIndex_useSingleOccupiedCourtsQuery() {
+
+        // Arrange
+        Long surfaceTypeId = 5L;
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(18, 0);
+        LocalDateTime endTime = startTime.plusMinutes(60);
+
+        Court free = court(1L, 101, "Clay", "2.00");
+        Court occupied = court(2L, 102, "Clay", "2.00");
+
+        when(courtDAO.findAllWithSurfaceType(surfaceTypeId)).thenReturn(List.of(free, occupied));
+        when(reservationIndex.isWarm()).thenReturn(false);
+        when(reservationDAO.findOccupiedCourtNumbersBetween(startTime, endTime)).thenReturn(List.of(102));
+
+        // Act
+        List<FreeCourtResponseDTO> actual =
+                availabilityService.findFreeCourts(startTime, endTime, surfaceTypeId, GameType.SINGLES);
+
+        // Assert
+        assertEquals(1, actual.size(), "Should return one free court");
+        assertEquals(101, actual.get(0).getCourtNumber(), "Court number mismatch");
+        assertEquals(0, new BigDecimal("120.00").compareTo(actual.get(0).getPrice()), "Price mismatch");
+
+        // Verify
+        verify(reservationDAO, times(1)).findOccupiedCourtNumbersBetween(startTime, endTime);
+        verify(reservationIndex, never()).hasOverlappingReservation(anyInt(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Find free courts outside opening hours should throw InvalidDateRangeException")
+    void findFreeCourts_outsideOpeningHours_throwInvalidDateRangeException() {
+
+        // Arrange
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(21, 30);
+        LocalDateTime endTime = startTime.plusMinutes(60);
+
+        // Act & Assert
+        assertThrows(InvalidDateRangeException.class,
+                () -> availabilityService.findFreeCourts(startTime, endTime, null, GameType.SINGLES),
+                "Should throw InvalidDateRangeException");
+
+        // Verify
+        verify(courtDAO, never()).findAllWithSurfaceType(any());
+    }
+
+    @Test
+    @DisplayName("Find free courts with window longer than two hours should throw InvalidDateRangeException")
+    void findFreeCourts_windowTooLong_throwInvalidDateRangeException() {
+
+        // Arrange
+        LocalDateTime startTime = LocalDate.now().plusDays(1).atTime(12, 0);
+        LocalDateTime endTime = startTime.plusMinutes(121);
+
+        // Act & Assert
+        assertThrows(InvalidDateRangeException.class,
+                () -> availabilityService.findFreeCourts(startTime, endTime, null, GameType.SINGLES),
+                "Should throw InvalidDateRangeException");
+    }
+
+    private Court court(Long id, int courtNumber, String surfaceName, String minutePrice) {
+        SurfaceType surfaceType = new SurfaceType();
+        surfaceType.setId(id);
+        surfaceType.setName(surfaceName);
+        surfaceType.setMinutePrice(new BigDecimal(minutePrice));
+
+        Court court = new Court();
+        court.setId(id);
+        court.setCourtNumber(courtNumber);
+        court.setSurfaceType(surfaceType);
+        return court;
+    }
+}
@@ -0,0 +1,154 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dto.CourtDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.SurfaceTypeDTO;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.exception.ReservationNotFoundException;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deletes courts and surface types with few and with many reservations and counts the SQL statements of the
+ * cascade. The reservations are marked as deleted by bulk updates, so the count must not depend on how many
+ * reservations or courts are touched.
+ */
+@SpringBootTest
+class CascadingDeleteIntegrationTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(850);
+
+    @Autowired
+    private SurfaceTypeService surfaceTypeService;
+
+    @Autowired
+    private CourtService courtService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationIndex reservationIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+
+    @Test
+    @DisplayName("Deleting a court runs the same statements with one or with many reservations")
+    void deleteCourt_manyReservations_sameStatementsAsOneReservation() {
+
+        // Arrange
+        Long surfaceTypeId = surfaceType("Cascade Court Clay");
+        Long quietCourtId = courtService.save(new CourtDTO(961, surfaceTypeId)).getId();
+        Long busyCourtId = courtService.save(new CourtDTO(962, surfaceTypeId)).getId();
+        List<Long> quietReservations = book(961, 1, "+420 708 000 1");
+        List<Long> busyReservations = book(962, 20, "+420 708 000 2");
+
+        // Act
+        long quietStatements = statementsOf(() -> courtService.deleteCourt(quietCourtId));
+        long busyStatements = statementsOf(() -> courtService.deleteCourt(busyCourtId));
+
+        // Assert
+        assertEquals(quietStatements, busyStatements, "Statement count should not grow with the reservations");
+        assertDeleted(quietReservations);
+        assertDeleted(busyReservations);
+        assertTrue(reservationIndex.getSchedule(962, FIRST_DAY).isEmpty(), "Court should be dropped from the index");
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservation_slot WHERE court_id = ?",
+                Integer.class, busyCourtId), "Slot claims of the court should be released");
+    }
+
+    @Test
+    @DisplayName("Deleting a surface type runs the same statements with one court or with many busy courts")
+    void deleteSurfaceType_manyCourtsAndReservations_sameStatementsAsOneCourt() {
+
+        // Arrange
+        Long quietSurfaceTypeId = surfaceType("Cascade Quiet Grass");
+        Long busySurfaceTypeId = surfaceType("Cascade Busy Grass");
+        courtService.save(new CourtDTO(963, quietSurfaceTypeId));
+        for (int courtNumber = 964; courtNumber <= 966; courtNumber++) {
+            courtService.save(new CourtDTO(courtNumber, busySurfaceTypeId));
+        }
+        List<Long> quietReservations = book(963, 1, "+420 708 000 3");
+        List<Long> busyReservations = new ArrayList<>();
+        for (int courtNumber = 964; courtNumber <= 966; courtNumber++) {
+            busyReservations.addAll(book(courtNumber, 10, "+420 708 00" + courtNumber));
+        }
+
+        // Act
+        long quietStatements = statementsOf(() -> surfaceTypeService.deleteSurfaceType(quietSurfaceTypeId));
+        long busyStatements = statementsOf(() -> surfaceTypeService.deleteSurfaceType(busySurfaceTypeId));
+
+        // Assert
+        assertEquals(quietStatements, busyStatements, "Statement count should not grow with courts or reservations");
+        assertDeleted(quietReservations);
+        assertDeleted(busyReservations);
+        assertTrue(reservationIndex.getSchedule(964, FIRST_DAY).isEmpty(), "Courts should be dropped from the index");
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservation_slot s JOIN court c " +
+                "ON c.id = s.court_id WHERE c.surface_type_id = ?", Integer.class, busySurfaceTypeId),
+                "Slot claims of the courts should be released");
+    }
+
+
+    private Long surfaceType(String name) {
+        return surfaceTypeService.saveSurfaceType(new SurfaceTypeDTO(name, new BigDecimal("1.00"))).getId();
+    }
+
+    // Books one hour at 10:00 on each of the given number of consecutive days
+    private List<Long> book(int courtNumber, int days, String phoneNumberPrefix) {
+        List<Long> ids = new ArrayList<>();
+        for (int day = 0; day < days; day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            ids.add(reservationService.createReservation(new ReservationDTO("Cascade Player",
+                    phoneNumberPrefix + String.format("%02d", day), date.atTime(10, 0), date.atTime(11, 0),
+                    courtNumber, GameType.SINGLES)).getId());
+        }
+        return ids;
+    }
+
+    private long statementsOf(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void assertDeleted(List<Long> reservationIds) {
+        for (Long id : reservationIds) {
+            assertThrows(ReservationNotFoundException.class, () -> reservationService.getReservationById(id),
+                    "Reservation " + id + " should be deleted");
+        }
+    }
+}
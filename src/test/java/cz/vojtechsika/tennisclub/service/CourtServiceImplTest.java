@@ -1,7 +1,10 @@
 package cz.vojtechsika.tennisclub.service;
 
+import cz.vojtechsika.tennisclub.cache.CatalogCache;
+import cz.vojtechsika.tennisclub.cache.CollectionVersions;
 import cz.vojtechsika.tennisclub.dao.CourtDAO;
 import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSlotDAO;
 import cz.vojtechsika.tennisclub.dao.SurfaceTypeDAO;
 import cz.vojtechsika.tennisclub.dto.CourtDTO;
 import cz.vojtechsika.tennisclub.dto.mapper.CourtMapper;
@@ -14,6 +17,8 @@ import cz.vojtechsika.tennisclub.entity.SurfaceType;
 import cz.vojtechsika.tennisclub.exception.CourtNotFoundException;
 import cz.vojtechsika.tennisclub.exception.CourtNumberAlreadyExistsException;
 import cz.vojtechsika.tennisclub.exception.SurfaceTypeNotFoundException;
+import cz.vojtechsika.tennisclub.exception.VersionMismatchException;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -45,6 +50,18 @@ class CourtServiceImplTest {
     @Mock
     private ReservationDAO reservationDAO;
 
+    @Mock
+    private ReservationIndex reservationIndex;
+
+    @Mock
+    private ReservationSlotDAO reservationSlotDAO;
+
+    @Mock
+    private CatalogCache catalogCache;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
     @InjectMocks
     private CourtServiceImpl courtService;
 
@@ -82,7 +99,7 @@ class CourtServiceImplTest {
         Optional<Court> optionalCourt = Optional.empty();
 
         when(surfaceTypeDAO.findById(courtDTO.getSurfaceTypeId())).thenReturn(optionalSurfaceType);
-        when(courtDAO.findByCourtNumber(courtDTO.getCourtNumber())).thenReturn(optionalCourt);
+        when(courtDAO.findCurrentByCourtNumber(courtDTO.getCourtNumber())).thenReturn(optionalCourt);
         when(surfaceTypeMapper.toResponseDTO(surfaceType)).thenReturn(surfaceTypeResponseDTO);
         when(courtMapper.toEntity(courtDTO)).thenReturn(court);
         when(courtDAO.save(court)).thenReturn(saveCourt);
@@ -120,7 +137,7 @@ class CourtServiceImplTest {
         Optional<Court> optionalCourt = Optional.of(court);
 
         when(surfaceTypeDAO.findById(courtDTO.getSurfaceTypeId())).thenReturn(optionalSurfaceType);
-        when(courtDAO.findByCourtNumber(courtNumber)).thenReturn(optionalCourt);
+        when(courtDAO.findCurrentByCourtNumber(courtNumber)).thenReturn(optionalCourt);
 
         // Act and Assert
         assertThrows(CourtNumberAlreadyExistsException.class, () ->
@@ -150,7 +167,7 @@ class CourtServiceImplTest {
         Optional<Court> optionalCourt = Optional.empty();
 
         when(surfaceTypeDAO.findById(courtDTO.getSurfaceTypeId())).thenReturn(optionalSurfaceType);
-        when(courtDAO.findByCourtNumber(courtNumber)).thenReturn(optionalCourt);
+        when(courtDAO.findCurrentByCourtNumber(courtNumber)).thenReturn(optionalCourt);
 
         // Act and Assert
         assertThrows(SurfaceTypeNotFoundException.class, () ->
@@ -164,20 +181,9 @@ class CourtServiceImplTest {
         //Arrange
         Long courtId = 1L;
 
-        SurfaceType surfaceType = new SurfaceType();
-
-        Court court = new Court();
-        court.setId(courtId);
-        court.setSurfaceType(surfaceType);
-
-        SurfaceTypeResponseDTO surfaceTypeResponseDTO = new SurfaceTypeResponseDTO();
         CourtResponseDTO courtResponseDTO = new CourtResponseDTO();
 
-        Optional<Court> optionalCourt = Optional.of(court);
-
-        when(courtDAO.findById(courtId)).thenReturn(optionalCourt);
-        when(surfaceTypeMapper.toResponseDTO(court.getSurfaceType())).thenReturn(surfaceTypeResponseDTO);
-        when(courtMapper.toResponseDTO(court,surfaceTypeResponseDTO)).thenReturn(courtResponseDTO);
+        when(catalogCache.findCourtById(courtId)).thenReturn(Optional.of(courtResponseDTO));
 
         // Act
 
@@ -185,6 +191,9 @@ class CourtServiceImplTest {
 
         // Assert
         assertEquals(courtResponseDTO, actual, "Should return the same CourtResponseDTO");
+
+        // Verify
+        verify(courtDAO, never()).findById(courtId);
     }
 
     @Test
@@ -194,15 +203,7 @@ class CourtServiceImplTest {
         //Arrange
         Long courtId = 1L;
 
-        SurfaceType surfaceType = new SurfaceType();
-
-        Court court = new Court();
-        court.setId(courtId);
-        court.setSurfaceType(surfaceType);
-
-        Optional<Court> optionalCourt = Optional.empty();
-
-        when(courtDAO.findById(courtId)).thenReturn(optionalCourt);
+        when(catalogCache.findCourtById(courtId)).thenReturn(Optional.empty());
 
         // Act and Assert
         assertThrows(CourtNotFoundException.class, () -> courtService.getCourtById(courtId),
@@ -215,30 +216,12 @@ class CourtServiceImplTest {
     void getAllCourts_shouldReturnAllCourts() {
 
         // Arrange
-
-        Court court1 = new Court();
-        court1.setSurfaceType(new SurfaceType());
-
-        Court court2 = new Court();
-        court2.setSurfaceType(new SurfaceType());
-
-        SurfaceTypeResponseDTO surfaceTypeResponseDTO1 = new SurfaceTypeResponseDTO();
-        SurfaceTypeResponseDTO surfaceTypeResponseDTO2 = new SurfaceTypeResponseDTO();
-
         CourtResponseDTO courtResponseDTO1 = new CourtResponseDTO();
         CourtResponseDTO courtResponseDTO2 = new CourtResponseDTO();
 
-        List<Court> courts = List.of(court1, court2);
         List<CourtResponseDTO> courtResponseDTOList = List.of(courtResponseDTO1, courtResponseDTO2);
 
-
-        when(courtDAO.findAll()).thenReturn(courts);
-
-        when(surfaceTypeMapper.toResponseDTO(court1.getSurfaceType())).thenReturn(surfaceTypeResponseDTO1);
-        when(courtMapper.toResponseDTO(court1,surfaceTypeResponseDTO1)).thenReturn(courtResponseDTO1);
-
-        when(surfaceTypeMapper.toResponseDTO(court2.getSurfaceType())).thenReturn(surfaceTypeResponseDTO2);
-        when(courtMapper.toResponseDTO(court2,surfaceTypeResponseDTO2)).thenReturn(courtResponseDTO2);
+        when(catalogCache.findAllCourts()).thenReturn(courtResponseDTOList);
 
         // Act
         List<CourtResponseDTO> actual = courtService.getAllCourts();
@@ -254,9 +237,7 @@ class CourtServiceImplTest {
     void getAllCourts_shouldReturnCourtNotFoundException() {
 
         // Arrange
-        List<Court> courts = List.of();
-
-        when(courtDAO.findAll()).thenReturn(courts);
+        when(catalogCache.findAllCourts()).thenReturn(List.of());
 
         // Act and Assert
         assertThrows(CourtNotFoundException.class, () -> courtService.getAllCourts(),
@@ -294,16 +275,19 @@ class CourtServiceImplTest {
 
         when(courtDAO.findById(courtId)).thenReturn(optionalCourt);
         when(surfaceTypeDAO.findById(courtDTO.getSurfaceTypeId())).thenReturn(optionalSurfaceType);
-        when(courtMapper.toEntity(courtDTO)).thenReturn(court);
+        when(courtMapper.updateCourtFromDTO(courtDTO, court)).thenReturn(court);
         when(courtDAO.update(court)).thenReturn(court);
         when(surfaceTypeMapper.toResponseDTO(court.getSurfaceType())).thenReturn(surfaceTypeResponseDTO);
         when(courtMapper.toResponseDTO(court, surfaceTypeResponseDTO)).thenReturn(courtResponseDTO);
 
         // Act
-        CourtResponseDTO actual = courtService.updateCourt(courtDTO, courtId);
+        CourtResponseDTO actual = courtService.updateCourt(courtDTO, courtId, null);
 
         // Assert
         assertEquals(courtResponseDTO, actual, "Should return the same CourtResponseDTO");
+
+        // Verify
+        verify(catalogCache, times(1)).evictCourt(courtId, courtNumber, courtNumber);
     }
 
     @Test
@@ -333,10 +317,38 @@ class CourtServiceImplTest {
 
 
         // Act and Assert
-        assertThrows(CourtNotFoundException.class, () -> courtService.updateCourt(courtDTO, courtId),
+        assertThrows(CourtNotFoundException.class, () -> courtService.updateCourt(courtDTO, courtId, null),
                 "Should return the CourtNotFoundException");
     }
 
+    @Test
+    @DisplayName("Update Court with stale expected version")
+    void updateCourt_staleExpectedVersion_shouldReturnVersionMismatchException() {
+
+        // Arrange
+        Long courtId = 1L;
+
+        CourtDTO courtDTO = new CourtDTO();
+        courtDTO.setCourtNumber(102);
+        courtDTO.setSurfaceTypeId(1L);
+
+        Court court = new Court();
+        court.setId(courtId);
+        court.setCourtNumber(101);
+        court.setVersion(5L);
+
+        when(courtDAO.findById(courtId)).thenReturn(Optional.of(court));
+        when(surfaceTypeDAO.findById(1L)).thenReturn(Optional.of(new SurfaceType()));
+
+        // Act and Assert
+        assertThrows(VersionMismatchException.class, () -> courtService.updateCourt(courtDTO, courtId, 4L),
+                "Should return the VersionMismatchException");
+
+        // Verify
+        verify(courtDAO, never()).update(any());
+        verify(reservationIndex, never()).renameCourt(anyInt(), anyInt());
+    }
+
     @Test
     @DisplayName("Update existing Court with non existed surface Type ")
     void updateCourt_inValidCourtDTOWithNonExistedSurfaceTypeId_shouldReturnSurfaceTypeNotFoundException() {
@@ -365,7 +377,7 @@ class CourtServiceImplTest {
 
 
         // Act and Assert
-        assertThrows(SurfaceTypeNotFoundException.class, () -> courtService.updateCourt(courtDTO, courtId),
+        assertThrows(SurfaceTypeNotFoundException.class, () -> courtService.updateCourt(courtDTO, courtId, null),
                 "Should return the SurfaceTypeNotFoundException");
 
         // Verify
@@ -386,11 +398,6 @@ class CourtServiceImplTest {
         courtDTO.setCourtNumber(courtNumber);
         courtDTO.setSurfaceTypeId(surfaceTypeId);
 
-        Reservation reservations1 = new Reservation();
-        Reservation reservations2 = new Reservation();
-
-        List<Reservation> reservations = List.of(reservations1,reservations2);
-
         Court court = new Court();
         court.setId(courtId);
         court.setCourtNumber(courtNumber);
@@ -400,20 +407,23 @@ class CourtServiceImplTest {
         Optional<Court> optionalCourt = Optional.of(court);
 
         when(courtDAO.findById(courtId)).thenReturn(optionalCourt);
-        when(reservationDAO.findAllByCourtNumber(court.getCourtNumber())).thenReturn(reservations);
+        when(reservationDAO.softDeleteAllByCourtId(courtId)).thenReturn(2);
 
         // Act
         courtService.deleteCourt(courtId);
 
         // Assert
         assertTrue(court.isDeleted(),"Court should be deleted");
-        assertTrue(reservations1.isDeleted(),"Reservation should be deleted");
-        assertTrue(reservations2.isDeleted(),"Reservation should be deleted");
 
         // Verify
         verify(courtDAO, times(1)).update(court);
-        verify(reservationDAO, times(1)).update(reservations1);
-        verify(reservationDAO, times(1)).update(reservations2);
+        verify(reservationDAO, times(1)).softDeleteAllByCourtId(courtId);
+        verify(reservationDAO, never()).findAllByCourtNumber(anyInt());
+        verify(reservationDAO, never()).update(any());
+        verify(reservationSlotDAO, times(1)).releaseByCourtId(courtId);
+        verify(reservationIndex, times(1)).removeCourt(courtNumber);
+        verify(catalogCache, times(1)).evictCourt(courtId, courtNumber);
+        verify(collectionVersions, times(1)).allReservationsChanged();
 
     }
 
@@ -453,6 +463,7 @@ class CourtServiceImplTest {
         verify(courtDAO, never()).update(court);
         verify(reservationDAO, never()).update(reservations1);
         verify(reservationDAO, never()).update(reservations2);
+        verify(reservationDAO, never()).softDeleteAllByCourtId(any());
 
     }
 
@@ -464,11 +475,6 @@ class CourtServiceImplTest {
         Long courtId = 1L;
         int courtNumber = 101;
 
-        Reservation reservations1 = new Reservation();
-        Reservation reservations2 = new Reservation();
-
-        List<Reservation> reservations = List.of();
-
         Court court = new Court();
         court.setId(courtId);
         court.setCourtNumber(courtNumber);
@@ -478,19 +484,17 @@ class CourtServiceImplTest {
         Optional<Court> optionalCourt = Optional.of(court);
 
         when(courtDAO.findById(courtId)).thenReturn(optionalCourt);
-        when(reservationDAO.findAllByCourtNumber(courtNumber)).thenReturn(reservations);
+        when(reservationDAO.softDeleteAllByCourtId(courtId)).thenReturn(0);
 
         // Act
         courtService.deleteCourt(courtId);
 
         // Assert
         assertTrue(court.isDeleted(),"Court should be deleted");
-        assertFalse(reservations1.isDeleted(),"Reservation should not be deleted");
-        assertFalse(reservations2.isDeleted(),"Reservation should not be deleted");
 
         // Verify
-        verify(reservationDAO, never()).update(reservations1);
-        verify(reservationDAO, never()).update(reservations2);
+        verify(reservationDAO, times(1)).softDeleteAllByCourtId(courtId);
+        verify(reservationDAO, never()).update(any());
 
     }
 
@@ -0,0 +1,69 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dao.SurfaceTypeDAO;
+import cz.vojtechsika.tennisclub.dto.SurfaceTypeDTO;
+import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
+import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import cz.vojtechsika.tennisclub.exception.VersionMismatchException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class OptimisticLockingIntegrationTest {
+
+    @Autowired
+    private SurfaceTypeService surfaceTypeService;
+
+    @Autowired
+    private SurfaceTypeDAO surfaceTypeDAO;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+
+    @Test
+    @DisplayName("Every update increments the version and stale versions are rejected")
+    void updateSurfaceType_expectedVersion_incrementOrReject() {
+
+        // Arrange
+        SurfaceTypeResponseDTO created = surfaceTypeService.saveSurfaceType(
+                new SurfaceTypeDTO("Versioned", BigDecimal.valueOf(2)));
+
+        // Act
+        SurfaceTypeResponseDTO updated = surfaceTypeService.updateSurfaceType(
+                new SurfaceTypeDTO("Versioned", BigDecimal.valueOf(3)), created.getId(), created.getVersion());
+
+        // Assert
+        assertEquals(created.getVersion() + 1, updated.getVersion(), "Update should increment the version");
+        assertThrows(VersionMismatchException.class, () -> surfaceTypeService.updateSurfaceType(
+                        new SurfaceTypeDTO("Versioned", BigDecimal.valueOf(4)), created.getId(), created.getVersion()),
+                "Update based on the old version should be rejected");
+        assertEquals(0, BigDecimal.valueOf(3).compareTo(surfaceTypeService.getSurfaceTypeById(created.getId()).getMinutePrice()),
+                "Rejected update should not change the surface type");
+    }
+
+    @Test
+    @DisplayName("Writing a stale entity fails with an optimistic locking conflict")
+    void update_staleEntity_throwOptimisticLockingFailure() {
+
+        // Arrange
+        SurfaceTypeResponseDTO created = surfaceTypeService.saveSurfaceType(
+                new SurfaceTypeDTO("Stale", BigDecimal.valueOf(2)));
+        SurfaceType stale = transactionTemplate.execute(status -> surfaceTypeDAO.findById(created.getId()).orElseThrow());
+        surfaceTypeService.updateSurfaceType(new SurfaceTypeDTO("Stale", BigDecimal.valueOf(3)), created.getId(), null);
+
+        // Act and Assert
+        stale.setMinutePrice(BigDecimal.valueOf(5));
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> surfaceTypeDAO.update(stale)),
+                "Lost update should be detected by the version column");
+    }
+}
@@ -0,0 +1,114 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dto.CourtDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.SurfaceTypeDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationPageResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.ReservationFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Books reservations, moves some of them past the archive horizon and archives them. The history lists must still
+ * return every reservation once and in order, read partly from the live table and partly from the archive.
+ */
+@SpringBootTest
+class ReservationArchiveIntegrationTest {
+
+    private static final String PHONE_NUMBER = "+420 709 000 001";
+
+    private static final int COURT_NUMBER = 971;
+
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(900);
+
+    @Autowired
+    private ReservationArchiveService reservationArchiveService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private SurfaceTypeService surfaceTypeService;
+
+    @Autowired
+    private CourtService courtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+
+    @Test
+    @DisplayName("Archived reservations leave the live table and stay listed in order with the live ones")
+    void archivePastReservations_pastReservations_moveToArchiveAndKeepHistoryLists() {
+
+        // Arrange
+        Long surfaceTypeId = surfaceTypeService.saveSurfaceType(new SurfaceTypeDTO("Archive Clay",
+                new BigDecimal("1.00"))).getId();
+        courtService.save(new CourtDTO(COURT_NUMBER, surfaceTypeId));
+        List<Long> created = new ArrayList<>();
+        for (int day = 0; day < 3; day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            created.add(reservationService.createReservation(new ReservationDTO("Archived Player", PHONE_NUMBER,
+                    date.atTime(10, 0), date.atTime(11, 0), COURT_NUMBER, GameType.SINGLES)).getId());
+        }
+        List<Long> past = created.subList(0, 2);
+        jdbcTemplate.update("UPDATE reservation SET start_time = DATEADD(DAY, -1000, start_time), " +
+                "end_time = DATEADD(DAY, -1000, end_time) WHERE id IN (?, ?)", past.get(0), past.get(1));
+
+        // Act
+        int moved = reservationArchiveService.archivePastReservations();
+
+        // Assert
+        assertTrue(moved >= 2, "Both past reservations should be moved");
+        assertEquals(0, count("SELECT COUNT(*) FROM reservation WHERE id IN (?, ?)", past),
+                "Past reservations should leave the live table");
+        assertEquals(2, count("SELECT COUNT(*) FROM reservation_archive WHERE id IN (?, ?)", past),
+                "Past reservations should be archived");
+        assertEquals(0, count("SELECT COUNT(*) FROM reservation_slot WHERE reservation_id IN (?, ?)", past),
+                "Slot claims of the archived reservations should be released");
+
+        assertEquals(created, readAll(false), "History should list the archived and the live reservations in order");
+        assertEquals(List.of(created.get(2)), readAll(true), "Future reservations should come from the live table");
+        assertEquals(created, reservationService.getReservationByCourtNumber(COURT_NUMBER, null, 10,
+                        ReservationFormat.ISO).getReservations().stream().map(ReservationResponseDTO::getId).toList(),
+                "Court list should include the archived reservations");
+
+        List<Long> exported = new ArrayList<>();
+        reservationService.exportAllReservations(ReservationFormat.LOCALIZED, reservation -> {
+            if (PHONE_NUMBER.equals(reservation.getPhoneNumber())) {
+                exported.add(reservation.getId());
+            }
+        });
+        assertEquals(created, exported, "Export should stream the archived and the live reservations in order");
+    }
+
+
+    private int count(String sql, List<Long> ids) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, ids.get(0), ids.get(1));
+    }
+
+    // Walks the phone number's list page by page, one reservation per page
+    private List<Long> readAll(boolean futureOnly) {
+        List<Long> read = new ArrayList<>();
+        String cursor = null;
+        do {
+            ReservationPageResponseDTO page = reservationService.getReservationByPhoneNumber(PHONE_NUMBER, futureOnly,
+                    cursor, 1, ReservationFormat.ISO);
+            page.getReservations().stream().map(ReservationResponseDTO::getId).forEach(read::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return read;
+    }
+}
@@ -0,0 +1,91 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dao.ReservationArchiveDAO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationArchiveServiceImplTest {
+
+    @Mock
+    private ReservationArchiveDAO reservationArchiveDAO;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReservationArchiveServiceImpl reservationArchiveService;
+
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        reservationArchiveService = new ReservationArchiveServiceImpl(reservationArchiveDAO, transactionManager,
+                90, 2, meterRegistry);
+    }
+
+
+    @Test
+    @DisplayName("Archive moves chunks in separate transactions until a chunk is not full")
+    void archivePastReservations_threeChunks_moveEachInOwnTransaction() {
+
+        // Arrange
+        ArgumentCaptor<LocalDateTime> captor = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(reservationArchiveDAO.moveStartedBefore(captor.capture(), eq(2)))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+
+        // Act
+        int actual = reservationArchiveService.archivePastReservations();
+
+        // Assert
+        assertEquals(5, actual, "All reservations should be moved");
+        assertEquals(LocalDate.now().minusDays(90).atStartOfDay(), captor.getValue(),
+                "Reservations should be moved up to midnight of the horizon day");
+        assertEquals(5, meterRegistry.get("reservation.archive.moved").counter().count(), "Counter mismatch");
+
+        // Verify
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Archive without past reservations runs one transaction")
+    void archivePastReservations_nothingToMove_runOneTransaction() {
+
+        // Arrange
+        when(reservationArchiveDAO.moveStartedBefore(any(LocalDateTime.class), eq(2))).thenReturn(List.of());
+
+        // Act
+        int actual = reservationArchiveService.archivePastReservations();
+
+        // Assert
+        assertEquals(0, actual, "Nothing should be moved");
+
+        // Verify
+        verify(reservationArchiveDAO, times(1)).moveStartedBefore(any(LocalDateTime.class), eq(2));
+    }
+
+    @Test
+    @DisplayName("Non-positive chunk size should throw IllegalArgumentException")
+    void constructor_nonPositiveChunkSize_throwIllegalArgumentException() {
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ReservationArchiveServiceImpl(reservationArchiveDAO,
+                transactionManager, 90, 0, meterRegistry), "Should throw IllegalArgumentException");
+    }
+}
@@ -0,0 +1,108 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dto.ReservationBatchDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.dto.response.ReservationBatchItemResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationBatchResponseDTO;
+import cz.vojtechsika.tennisclub.enums.BatchItemStatus;
+import cz.vojtechsika.tennisclub.enums.BatchMode;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.exception.ReservationValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReservationBatchIntegrationTest {
+
+    private static final int COURT_NUMBER = 104;
+
+    @Autowired
+    private ReservationBatchService reservationBatchService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationDAO reservationDAO;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+
+    @Test
+    @DisplayName("Best effort batch stores the valid reservations with generated ids and claimed slots")
+    void createReservations_bestEffort_storeReservationsAndClaims() {
+
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(400);
+        ReservationBatchDTO batch = new ReservationBatchDTO(BatchMode.BEST_EFFORT, List.of(
+                item("+420 700 000 001", date.atTime(10, 0), 60),
+                item("+420 700 000 002", date.atTime(10, 30), 60),
+                item("+420 700 000 001", date.atTime(12, 0), 90)));
+
+        // Act
+        ReservationBatchResponseDTO actual = reservationBatchService.createReservations(batch);
+
+        // Assert
+        assertEquals(2, actual.getCreated(), "Two reservations should be created");
+        assertEquals(BatchItemStatus.REJECTED, actual.getResults().get(1).getStatus(),
+                "Overlap inside the batch should be rejected");
+        for (ReservationBatchItemResponseDTO result : List.of(actual.getResults().get(0), actual.getResults().get(2))) {
+            assertNotNull(result.getReservationResponseDTO().getId(), "Created reservation should have an id");
+        }
+
+        List<ReservationInterval> stored = reservationDAO.findAllIntervalsByCourtNumberBetween(COURT_NUMBER,
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        assertEquals(2, stored.size(), "Created reservations should be stored");
+
+        Long claims = jdbc.queryForObject("SELECT COUNT(*) FROM reservation_slot s JOIN reservation r "
+                + "ON r.id = s.reservation_id WHERE r.start_time >= ? AND r.start_time < ?", Long.class,
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+        assertEquals(150L, claims, "Every reserved minute should be claimed");
+
+        Long users = jdbc.queryForObject("SELECT COUNT(*) FROM app_user WHERE phone_number = ?", Long.class,
+                "+420 700 000 001");
+        assertEquals(1L, users, "Repeated phone number should create a single user");
+
+        assertThrows(ReservationValidationException.class,
+                () -> reservationService.createReservation(item("+420 700 000 003", date.atTime(12, 30), 30)),
+                "Single booking over a batch reservation should be rejected");
+    }
+
+    @Test
+    @DisplayName("All or nothing batch with a rejected item stores nothing")
+    void createReservations_allOrNothingWithRejection_storeNothing() {
+
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(401);
+        ReservationBatchDTO batch = new ReservationBatchDTO(BatchMode.ALL_OR_NOTHING, List.of(
+                item("+420 700 000 004", date.atTime(10, 0), 60),
+                item("+420 700 000 004", date.atTime(21, 30), 60)));
+
+        // Act
+        ReservationBatchResponseDTO actual = reservationBatchService.createReservations(batch);
+
+        // Assert
+        assertEquals(0, actual.getCreated(), "Nothing should be created");
+        assertEquals(BatchItemStatus.SKIPPED, actual.getResults().get(0).getStatus(), "Valid item should be skipped");
+        assertTrue(reservationDAO.findAllIntervalsByCourtNumberBetween(COURT_NUMBER, date.atStartOfDay(),
+                date.plusDays(1).atStartOfDay()).isEmpty(), "No reservation should be stored");
+    }
+
+
+    private ReservationDTO item(String phoneNumber, LocalDateTime startTime, int minutes) {
+        return new ReservationDTO("Batch Player", phoneNumber, startTime, startTime.plusMinutes(minutes),
+                COURT_NUMBER, GameType.DOUBLES);
+    }
+}
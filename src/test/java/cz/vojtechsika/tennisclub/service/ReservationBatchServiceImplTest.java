@@ -0,0 +1,305 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.cache.CollectionVersions;
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationBatchDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSlotDAO;
+import cz.vojtechsika.tennisclub.dto.ReservationBatchDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.mapper.ReservationMapper;
+import cz.vojtechsika.tennisclub.dto.mapper.UserMapper;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.dto.response.ReservationBatchResponseDTO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import cz.vojtechsika.tennisclub.entity.User;
+import cz.vojtechsika.tennisclub.enums.BatchItemStatus;
+import cz.vojtechsika.tennisclub.enums.BatchMode;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.RejectionReason;
+import cz.vojtechsika.tennisclub.exception.InvalidBatchException;
+import cz.vojtechsika.tennisclub.exception.ReservationValidationException;
+import cz.vojtechsika.tennisclub.index.CourtDayKey;
+import cz.vojtechsika.tennisclub.index.CourtDaySchedule;
+import cz.vojtechsika.tennisclub.index.CourtDayScheduleLoaderImpl;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import cz.vojtechsika.tennisclub.lock.ReservationLockManager;
+import cz.vojtechsika.tennisclub.metrics.BookingMetrics;
+import cz.vojtechsika.tennisclub.tariff.TariffEngineImpl;
+import cz.vojtechsika.tennisclub.tariff.TariffProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationBatchServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    @Mock
+    private CourtDAO courtDAO;
+
+    @Mock
+    private ReservationDAO reservationDAO;
+
+    @Mock
+    private ReservationBatchDAO reservationBatchDAO;
+
+    @Mock
+    private ReservationSlotDAO reservationSlotDAO;
+
+    @Mock
+    private UserResolver userResolver;
+
+    @Mock
+    private ReservationIndex reservationIndex;
+
+    @Mock
+    private ReservationLockManager reservationLockManager;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Mock
+    private BookingMetrics bookingMetrics;
+
+    private ReservationBatchServiceImpl reservationBatchService;
+
+
+    @BeforeEach
+    void setUp() {
+        reservationBatchService = new ReservationBatchServiceImpl(courtDAO,
+                new CourtDayScheduleLoaderImpl(reservationIndex, reservationDAO), reservationBatchDAO, reservationSlotDAO, new ReservationMapper(), new UserMapper(),
+                userResolver, reservationIndex, reservationLockManager, new TariffEngineImpl(new TariffProperties()),
+                collectionVersions, bookingMetrics, 3);
+        lenient().when(reservationLockManager.callInTransaction(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+
+    @Test
+    @DisplayName("Empty batch is rejected")
+    void createReservations_emptyBatch_throwInvalidBatchException() {
+
+        // Arrange
+        ReservationBatchDTO batch = new ReservationBatchDTO(BatchMode.BEST_EFFORT, List.of());
+
+        // Act and Assert
+        assertThrows(InvalidBatchException.class, () -> reservationBatchService.createReservations(batch),
+                "Empty batch should be rejected");
+
+        // Verify
+        verifyNoInteractions(courtDAO, reservationBatchDAO);
+    }
+
+    @Test
+    @DisplayName("Batch larger than the maximum is rejected")
+    void createReservations_tooManyItems_throwInvalidBatchException() {
+
+        // Arrange
+        ReservationBatchDTO batch = new ReservationBatchDTO(BatchMode.BEST_EFFORT,
+                List.of(item(101, 8), item(101, 9), item(101, 10), item(101, 11)));
+
+        // Act and Assert
+        assertThrows(InvalidBatchException.class, () -> reservationBatchService.createReservations(batch),
+                "Batch over the configured maximum should be rejected");
+    }
+
+    @Test
+    @DisplayName("All or nothing batch with an overlap inside the batch writes nothing")
+    void createReservations_allOrNothingWithOverlap_skipValidItems() {
+
+        // Arrange
+        ReservationDTO first = item(101, 10);
+        ReservationDTO overlapping = item(101, 10);
+        overlapping.setEndTime(overlapping.getStartTime().plusMinutes(30));
+        ReservationBatchDTO batch = new ReservationBatchDTO(BatchMode.ALL_OR_NOTHING, List.of(first, overlapping));
+
+        when(courtDAO.findAllByCourtNumbers(anyCollection())).thenReturn(List.of(court(101)));
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(101, DAY)).thenReturn(CourtDaySchedule.EMPTY);
+
+        // Act
+        ReservationBatchResponseDTO actual = reservationBatchService.createReservations(batch);
+
+        // Assert
+        assertEquals(0, actual.getCreated(), "Nothing should be created");
+        assertEquals(1, actual.getRejected(), "Overlapping item should be rejected");
+        assertEquals(BatchItemStatus.SKIPPED, actual.getResults().get(0).getStatus(), "Valid item should be skipped");
+        assertEquals(BatchItemStatus.REJECTED, actual.getResults().get(1).getStatus(), "Overlap should be rejected");
+
+        // Verify
+        verifyNoInteractions(reservationBatchDAO, reservationSlotDAO);
+    }
+
+    @Test
+    @DisplayName("Best effort batch stores valid items and reports the rejected ones")
+    void createReservations_bestEffort_storeValidItems() {
+
+        // Arrange
+        ReservationDTO valid = item(101, 10);
+        ReservationDTO unknownCourt = item(999, 10);
+        ReservationDTO past = item(101, 12);
+        past.setStartTime(LocalDateTime.now().minusDays(1));
+        ReservationBatchDTO batch = new ReservationBatchDTO(BatchMode.BEST_EFFORT, List.of(valid, unknownCourt, past));
+
+        when(courtDAO.findAllByCourtNumbers(anyCollection())).thenReturn(List.of(court(101)));
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(101, DAY)).thenReturn(CourtDaySchedule.EMPTY);
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(7L));
+            return null;
+        }).when(userResolver).resolveAll(anyList());
+        doAnswer(invocation -> {
+            List<Reservation> reservations = invocation.getArgument(0);
+            reservations.forEach(reservation -> reservation.setId(11L));
+            return null;
+        }).when(reservationBatchDAO).insertReservations(anyList());
+
+        // Act
+        ReservationBatchResponseDTO actual = reservationBatchService.createReservations(batch);
+
+        // Assert
+        assertEquals(1, actual.getCreated(), "One item should be created");
+        assertEquals(2, actual.getRejected(), "Two items should be rejected");
+        assertEquals(11L, actual.getResults().get(0).getReservationResponseDTO().getId(), "Created id mismatch");
+        assertEquals("Court number 999 not found in database", actual.getResults().get(1).getMessage(),
+                "Unknown court message mismatch");
+        assertEquals("Reservation must start in the future", actual.getResults().get(2).getMessage(),
+                "Past start message mismatch");
+
+        // Verify
+        verify(userResolver, times(1)).resolveAll(anyList());
+        verify(reservationBatchDAO, times(1)).insertReservations(anyList());
+        verify(reservationSlotDAO, times(1)).claimAll(anyList());
+        verify(reservationIndex, times(1)).put(any(ReservationInterval.class));
+        verify(bookingMetrics, times(1)).rejected(RejectionReason.PAST_START_TIME);
+        verify(bookingMetrics, times(1)).created(1);
+    }
+
+    @Test
+    @DisplayName("Cold index loads schedules with one query and rejects overlaps with stored reservations")
+    void createReservations_coldIndexWithStoredOverlap_rejectItem() {
+
+        // Arrange
+        ReservationBatchDTO batch = new ReservationBatchDTO(BatchMode.BEST_EFFORT, List.of(item(101, 10), item(101, 12)));
+        ReservationInterval stored = new ReservationInterval(1L, 101,
+                DAY.atTime(10, 30), DAY.atTime(11, 30));
+
+        when(courtDAO.findAllByCourtNumbers(anyCollection())).thenReturn(List.of(court(101)));
+        when(reservationIndex.isWarm()).thenReturn(false);
+        when(reservationDAO.findAllIntervalsByCourtNumbersBetween(anyCollection(), any(), any()))
+                .thenReturn(List.of(stored));
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(3L));
+            return null;
+        }).when(userResolver).resolveAll(anyList());
+
+        // Act
+        ReservationBatchResponseDTO actual = reservationBatchService.createReservations(batch);
+
+        // Assert
+        assertEquals(BatchItemStatus.REJECTED, actual.getResults().get(0).getStatus(), "Overlap should be rejected");
+        assertEquals(BatchItemStatus.CREATED, actual.getResults().get(1).getStatus(), "Free item should be created");
+
+        // Verify
+        verify(reservationDAO, times(1)).findAllIntervalsByCourtNumbersBetween(anyCollection(), any(), any());
+        verify(reservationIndex, never()).getSchedule(anyInt(), any());
+        verify(userResolver, times(1)).resolveAll(argThat(users -> users.size() == 1
+                && users.get(0).getPhoneNumber().equals("123456789") && users.get(0).getUserName().equals("Test User")));
+        verify(bookingMetrics, times(1)).rejected(RejectionReason.OVERLAP);
+    }
+
+    @Test
+    @DisplayName("Overlap in the index is refreshed from the database before the item is rejected")
+    void createReservations_staleIndexOverlap_refreshAndCreate() {
+
+        // Arrange
+        ReservationBatchDTO batch = new ReservationBatchDTO(BatchMode.BEST_EFFORT, List.of(item(101, 10), item(101, 14)));
+        CourtDayKey key = new CourtDayKey(101, DAY);
+
+        when(courtDAO.findAllByCourtNumbers(anyCollection())).thenReturn(List.of(court(101)));
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(101, DAY)).thenReturn(CourtDaySchedule.EMPTY.with(1L, 600, 660));
+        when(reservationIndex.refresh(Set.of(key))).thenReturn(Map.of(key, CourtDaySchedule.EMPTY.with(2L, 840, 900)));
+        doAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId(3L));
+            return null;
+        }).when(userResolver).resolveAll(anyList());
+
+        // Act
+        ReservationBatchResponseDTO actual = reservationBatchService.createReservations(batch);
+
+        // Assert
+        assertEquals(BatchItemStatus.CREATED, actual.getResults().get(0).getStatus(),
+                "Item over a reservation cancelled elsewhere should be created");
+        assertEquals(BatchItemStatus.REJECTED, actual.getResults().get(1).getStatus(),
+                "Item over a reservation created elsewhere should be rejected");
+
+        // Verify
+        verify(reservationIndex, times(1)).refresh(Set.of(key));
+        verify(bookingMetrics, times(1)).rejected(RejectionReason.OVERLAP);
+    }
+
+    @Test
+    @DisplayName("Slot claimed concurrently by another instance fails the batch")
+    void createReservations_duplicateSlot_throwReservationValidationException() {
+
+        // Arrange
+        ReservationBatchDTO batch = new ReservationBatchDTO(BatchMode.BEST_EFFORT, List.of(item(101, 10)));
+
+        when(courtDAO.findAllByCourtNumbers(anyCollection())).thenReturn(List.of(court(101)));
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(101, DAY)).thenReturn(CourtDaySchedule.EMPTY);
+        doThrow(new DuplicateKeyException("duplicate")).when(reservationSlotDAO).claimAll(anyList());
+
+        // Act and Assert
+        assertThrows(ReservationValidationException.class, () -> reservationBatchService.createReservations(batch),
+                "Concurrent claim should fail the batch");
+
+        // Verify
+        verify(bookingMetrics, times(1)).rejected(RejectionReason.OVERLAP);
+    }
+
+
+    private ReservationDTO item(int courtNumber, int hour) {
+        LocalDateTime startTime = LocalDateTime.of(DAY, LocalTime.of(hour, 0));
+        return new ReservationDTO("Test User", "123456789", startTime, startTime.plusHours(1), courtNumber,
+                GameType.SINGLES);
+    }
+
+    private Court court(int courtNumber) {
+        SurfaceType surfaceType = new SurfaceType();
+        surfaceType.setMinutePrice(BigDecimal.ONE);
+
+        Court court = new Court();
+        court.setId(1L);
+        court.setCourtNumber(courtNumber);
+        court.setSurfaceType(surfaceType);
+        return court;
+    }
+}
@@ -0,0 +1,217 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dto.ReservationBatchDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesDTO;
+import cz.vojtechsika.tennisclub.enums.BatchMode;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.Recurrence;
+import cz.vojtechsika.tennisclub.exception.ReservationValidationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReservationConcurrencyIntegrationTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationSeriesService reservationSeriesService;
+
+    @Autowired
+    private ReservationBatchService reservationBatchService;
+
+    @Autowired
+    private ReservationDAO reservationDAO;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+
+    @Test
+    @DisplayName("Concurrent bookings of the same slot create exactly one reservation")
+    void createReservation_concurrentSameSlot_onlyOneSucceeds() throws Exception {
+
+        // Arrange
+        int courtNumber = 103;
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now().plusDays(40), LocalTime.of(15, 0));
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Boolean>> bookings = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            ReservationDTO reservationDTO = new ReservationDTO("Player " + i, "+420 700 000 00" + i,
+                    startTime, startTime.plusHours(1), courtNumber, GameType.SINGLES);
+            bookings.add(() -> {
+                start.await();
+                try {
+                    reservationService.createReservation(reservationDTO);
+                    return true;
+                } catch (ReservationValidationException e) {
+                    return false;
+                }
+            });
+        }
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            bookings.forEach(booking -> results.add(executor.submit(booking)));
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+
+        int created = 0;
+        for (Future<Boolean> result : results) {
+            try {
+                created += result.get() ? 1 : 0;
+            } catch (ExecutionException e) {
+                fail("Booking failed unexpectedly: " + e.getCause());
+            }
+        }
+
+        // Assert
+        assertEquals(1, created, "Exactly one concurrent booking should succeed");
+        assertEquals(1, reservationDAO.findAllIntervalsByCourtNumberBetween(courtNumber,
+                        startTime.toLocalDate().atStartOfDay(), startTime.toLocalDate().plusDays(1).atStartOfDay()).size(),
+                "Only one reservation should be stored for the court-day");
+    }
+
+    @Test
+    @DisplayName("Concurrent first bookings of the same phone number all succeed and create one user")
+    void createReservation_concurrentFirstBookingsOfSamePhone_allSucceedWithOneUser() throws Exception {
+
+        // Arrange
+        String phoneNumber = "+420 707 000 100";
+        LocalDate firstDay = LocalDate.now().plusDays(830);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Long>> bookings = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            // Different days, so the court-day locks do not serialize the bookings before the user is resolved
+            LocalDateTime startTime = firstDay.plusDays(i).atTime(10, 0);
+            ReservationDTO reservationDTO = new ReservationDTO("First Timer", phoneNumber,
+                    startTime, startTime.plusHours(1), 102, GameType.SINGLES);
+            bookings.add(() -> {
+                start.await();
+                return reservationService.createReservation(reservationDTO).getId();
+            });
+        }
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            bookings.forEach(booking -> results.add(executor.submit(booking)));
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (Future<Long> result : results) {
+            try {
+                ids.add(result.get());
+            } catch (ExecutionException e) {
+                fail("Booking failed unexpectedly: " + e.getCause());
+            }
+        }
+
+        // Assert
+        assertEquals(THREADS, ids.size(), "Every concurrent booking should succeed");
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM app_user WHERE phone_number = ?", Integer.class,
+                phoneNumber), "Only one user should be stored for the phone number");
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(DISTINCT r.app_user_id) FROM reservation r"
+                        + " JOIN app_user u ON u.id = r.app_user_id WHERE u.phone_number = ?", Integer.class, phoneNumber),
+                "All reservations should belong to the same user");
+    }
+
+    @Test
+    @DisplayName("Concurrent first series and batches of the same phone number all succeed and create one user")
+    void createSeriesAndBatch_concurrentFirstBookingsOfSamePhone_allSucceedWithOneUser() throws Exception {
+
+        // Arrange
+        String phoneNumber = "+420 714 000 001";
+        LocalDate firstDay = LocalDate.now().plusDays(860);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Long>> bookings = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            // Different days, so the court-day locks do not serialize the bookings before the user is resolved
+            LocalDateTime startTime = firstDay.plusDays(i).atTime(10, 0);
+            if (i % 2 == 0) {
+                ReservationSeriesDTO seriesDTO = new ReservationSeriesDTO();
+                seriesDTO.setUserName("First Timer");
+                seriesDTO.setPhoneNumber(phoneNumber);
+                seriesDTO.setStartTime(startTime);
+                seriesDTO.setEndTime(startTime.plusHours(1));
+                seriesDTO.setCourtNumber(102);
+                seriesDTO.setGameType(GameType.SINGLES);
+                seriesDTO.setRecurrence(Recurrence.WEEKLY);
+                seriesDTO.setOccurrences(1);
+                bookings.add(() -> {
+                    start.await();
+                    return reservationSeriesService.createSeries(seriesDTO).getReservations().get(0).getId();
+                });
+            } else {
+                ReservationBatchDTO batchDTO = new ReservationBatchDTO(BatchMode.ALL_OR_NOTHING, List.of(
+                        new ReservationDTO("First Timer", phoneNumber, startTime, startTime.plusHours(1), 102,
+                                GameType.SINGLES)));
+                bookings.add(() -> {
+                    start.await();
+                    return reservationBatchService.createReservations(batchDTO).getResults().get(0)
+                            .getReservationResponseDTO().getId();
+                });
+            }
+        }
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            bookings.forEach(booking -> results.add(executor.submit(booking)));
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (Future<Long> result : results) {
+            try {
+                ids.add(result.get());
+            } catch (ExecutionException e) {
+                fail("Booking failed unexpectedly: " + e.getCause());
+            }
+        }
+
+        // Assert
+        assertEquals(THREADS, ids.size(), "Every concurrent booking should succeed");
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM app_user WHERE phone_number = ?", Integer.class,
+                phoneNumber), "Only one user should be stored for the phone number");
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(DISTINCT r.app_user_id) FROM reservation r"
+                        + " JOIN app_user u ON u.id = r.app_user_id WHERE u.phone_number = ?", Integer.class, phoneNumber),
+                "All reservations should belong to the same user");
+    }
+}
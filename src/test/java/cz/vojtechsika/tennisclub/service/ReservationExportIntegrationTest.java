@@ -0,0 +1,53 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.ReservationFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReservationExportIntegrationTest {
+
+    private static final String PHONE_NUMBER = "+420 703 000 001";
+
+    @Autowired
+    private ReservationService reservationService;
+
+
+    @Test
+    @DisplayName("Export streams every stored reservation with its court and user in start time order")
+    void exportAllReservations_storedReservations_exportAllInStartTimeOrder() {
+
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(600);
+        List<Long> created = new ArrayList<>();
+        for (int hour = 14; hour > 10; hour--) {
+            created.add(0, reservationService.createReservation(new ReservationDTO("Exported Player", PHONE_NUMBER,
+                    date.atTime(hour, 0), date.atTime(hour, 45), 102, GameType.DOUBLES)).getId());
+        }
+        List<ReservationResponseDTO> exported = new ArrayList<>();
+
+        // Act
+        long count = reservationService.exportAllReservations(ReservationFormat.LOCALIZED, exported::add);
+
+        // Assert
+        assertEquals(exported.size(), count, "Returned count should match the exported reservations");
+        List<ReservationResponseDTO> ours = exported.stream()
+                .filter(reservation -> PHONE_NUMBER.equals(reservation.getPhoneNumber()))
+                .toList();
+        assertEquals(created, ours.stream().map(ReservationResponseDTO::getId).toList(),
+                "Every reservation should be exported once in start time order");
+        assertTrue(ours.stream().allMatch(reservation -> reservation.getCourtNumber() == 102),
+                "Court should be exported with the reservation");
+    }
+}
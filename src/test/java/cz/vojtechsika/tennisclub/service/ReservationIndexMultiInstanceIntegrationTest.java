@@ -0,0 +1,108 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.cache.CollectionVersions;
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationArchiveDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSlotDAO;
+import cz.vojtechsika.tennisclub.dao.UserDAO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.mapper.ReservationMapper;
+import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.index.CourtDaySchedule;
+import cz.vojtechsika.tennisclub.index.ReservationIndexImpl;
+import cz.vojtechsika.tennisclub.lock.ReservationLockManager;
+import cz.vojtechsika.tennisclub.metrics.BookingMetrics;
+import cz.vojtechsika.tennisclub.tariff.TariffEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a second reservation service over the shared database with an index of its own, standing for another
+ * application instance that only sees its own writes in its index.
+ */
+@SpringBootTest
+class ReservationIndexMultiInstanceIntegrationTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationDAO reservationDAO;
+
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private CourtDAO courtDAO;
+
+    @Autowired
+    private ReservationMapper reservationMapper;
+
+    @Autowired
+    private UserResolver userResolver;
+
+    @Autowired
+    private ReservationLockManager reservationLockManager;
+
+    @Autowired
+    private ReservationSlotDAO reservationSlotDAO;
+
+    @Autowired
+    private TariffEngine tariffEngine;
+
+    @Autowired
+    private CollectionVersions collectionVersions;
+
+    @Autowired
+    private ReservationArchiveDAO reservationArchiveDAO;
+
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+
+    @Test
+    @DisplayName("Slot cancelled on one instance can be booked on another one holding it in its index")
+    void createReservation_cancelledOnOtherInstance_refreshIndexAndCreate() {
+
+        // Arrange
+        int courtNumber = 102;
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now().plusDays(990), LocalTime.of(10, 0));
+        ReservationResponseDTO cancelled = reservationService.createReservation(new ReservationDTO("First Player",
+                "+420 716 000 001", startTime, startTime.plusHours(1), courtNumber, GameType.SINGLES));
+
+        ReservationIndexImpl otherIndex = new ReservationIndexImpl(reservationDAO, true);
+        otherIndex.afterSingletonsInstantiated();
+        ReservationServiceImpl otherService = new ReservationServiceImpl(reservationDAO, userDAO, courtDAO,
+                reservationMapper, userResolver, otherIndex, reservationLockManager, reservationSlotDAO, tariffEngine,
+                collectionVersions, reservationArchiveDAO, bookingMetrics);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        reservationService.deleteReservation(cancelled.getId());
+
+        // Act
+        ReservationResponseDTO rebooked = transactionTemplate.execute(status -> otherService.createReservation(
+                new ReservationDTO("Second Player", "+420 716 000 002", startTime, startTime.plusHours(1),
+                        courtNumber, GameType.SINGLES)));
+
+        // Assert
+        assertNotNull(rebooked, "Slot freed on the other instance should be booked");
+        CourtDaySchedule schedule = otherIndex.getSchedule(courtNumber, startTime.toLocalDate());
+        assertEquals(1, schedule.size(), "Index should hold only the new reservation");
+        assertEquals(rebooked.getId(), schedule.idAt(0), "Cancelled reservation should be dropped from the index");
+    }
+}
@@ -0,0 +1,56 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationPageResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.enums.ReservationFormat;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReservationPaginationIntegrationTest {
+
+    private static final String PHONE_NUMBER = "+420 702 000 001";
+
+    @Autowired
+    private ReservationService reservationService;
+
+
+    @Test
+    @DisplayName("Walking the cursor returns every reservation exactly once in start time order")
+    void getReservationByPhoneNumber_followCursor_returnAllReservationsOnce() {
+
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(500);
+        List<Long> created = new ArrayList<>();
+        for (int hour = 10; hour < 15; hour++) {
+            created.add(reservationService.createReservation(new ReservationDTO("Paged Player", PHONE_NUMBER,
+                    date.atTime(hour, 0), date.atTime(hour, 30), 102, GameType.SINGLES)).getId());
+        }
+
+        // Act
+        List<Long> read = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            ReservationPageResponseDTO page = reservationService.getReservationByPhoneNumber(PHONE_NUMBER, true,
+                    cursor, 2, ReservationFormat.LOCALIZED);
+            page.getReservations().stream().map(ReservationResponseDTO::getId).forEach(read::add);
+            pageSizes.add(page.getReservations().size());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(created, read, "Every reservation should be read once in start time order");
+        assertEquals(List.of(2, 2, 1), pageSizes, "Pages should hold at most the limit");
+    }
+}
@@ -0,0 +1,175 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesMoveDTO;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.dto.response.ReservationSeriesResponseDTO;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.Recurrence;
+import cz.vojtechsika.tennisclub.exception.ReservationNotFoundException;
+import cz.vojtechsika.tennisclub.exception.ReservationValidationException;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ReservationSeriesIntegrationTest {
+
+    private static final int COURT_NUMBER = 103;
+
+    private static final int OTHER_COURT_NUMBER = 104;
+
+    @Autowired
+    private ReservationSeriesService reservationSeriesService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationDAO reservationDAO;
+
+    @Autowired
+    private ReservationIndex reservationIndex;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+
+    @Test
+    @DisplayName("Weekly series is stored, moved and cancelled as a whole")
+    void series_createMoveCancel_changeAllOccurrences() {
+
+        // Arrange
+        LocalDate firstTuesday = LocalDate.now().plusYears(3).with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+        ReservationSeriesDTO seriesDTO = series("+420 701 000 001", firstTuesday.atTime(19, 0));
+        seriesDTO.setOccurrences(10);
+
+        // Act
+        ReservationSeriesResponseDTO created = reservationSeriesService.createSeries(seriesDTO);
+
+        // Assert
+        assertEquals(10, created.getReservations().size(), "Ten occurrences should be created");
+        assertEquals(10, stored(firstTuesday).size(), "Occurrences should be stored");
+        assertEquals(900L, claims(firstTuesday), "Every minute of every occurrence should be claimed");
+        assertTrue(reservationIndex.hasOverlappingReservation(COURT_NUMBER, firstTuesday.plusWeeks(9).atTime(19, 30),
+                firstTuesday.plusWeeks(9).atTime(19, 45), null), "Last occurrence should be indexed after commit");
+
+        // Act
+        ReservationSeriesResponseDTO moved = reservationSeriesService.moveSeries(created.getId(),
+                new ReservationSeriesMoveDTO(24 * 60 - 60));
+
+        // Assert
+        List<ReservationInterval> afterMove = stored(firstTuesday);
+        assertEquals(10, afterMove.size(), "Moved occurrences should still be stored");
+        assertTrue(afterMove.stream().allMatch(interval -> interval.getStartTime().getDayOfWeek() == DayOfWeek.WEDNESDAY
+                        && interval.getStartTime().getHour() == 18), "Occurrences should move to Wednesday 18:00");
+        assertTrue(moved.getReservations().stream().allMatch(reservation -> reservation.getVersion() == 1),
+                "Bulk move should increment the versions");
+        assertEquals(900L, claims(firstTuesday), "Claims should follow the moved occurrences");
+        assertDoesNotThrow(() -> reservationService.createReservation(new ReservationDTO("Other", "+420 701 000 002",
+                firstTuesday.atTime(19, 0), firstTuesday.atTime(20, 0), COURT_NUMBER, GameType.SINGLES)),
+                "Old time slot should be free after the move");
+
+        // Act
+        int cancelled = reservationSeriesService.cancelSeries(created.getId());
+
+        // Assert
+        assertEquals(10, cancelled, "All upcoming occurrences should be cancelled");
+        assertEquals(1, stored(firstTuesday).size(), "Only the unrelated reservation should stay");
+        assertEquals(60L, claims(firstTuesday), "Claims of the series should be released");
+        assertThrows(ReservationNotFoundException.class, () -> reservationSeriesService.getSeriesById(created.getId()),
+                "Cancelled series should not be found");
+    }
+
+    @Test
+    @DisplayName("Series overlapping an existing reservation is not stored at all")
+    void createSeries_overlapOnOneDate_storeNothing() {
+
+        // Arrange
+        LocalDate firstMonday = LocalDate.now().plusYears(4).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        ReservationResponseDTO existing = reservationService.createReservation(new ReservationDTO("Other",
+                "+420 701 000 003", firstMonday.plusWeeks(4).atTime(19, 30), firstMonday.plusWeeks(4).atTime(20, 0),
+                COURT_NUMBER, GameType.SINGLES));
+        ReservationSeriesDTO seriesDTO = series("+420 701 000 004", firstMonday.atTime(19, 0));
+        seriesDTO.setRecurrence(Recurrence.BIWEEKLY);
+        seriesDTO.setUntilDate(firstMonday.plusWeeks(10));
+
+        // Act and Assert
+        ReservationValidationException exception = assertThrows(ReservationValidationException.class,
+                () -> reservationSeriesService.createSeries(seriesDTO), "Overlapping series should be rejected");
+        assertTrue(exception.getMessage().contains(firstMonday.plusWeeks(4).toString()),
+                "Conflicting date should be reported");
+        assertEquals(List.of(existing.getId()), stored(firstMonday).stream().map(ReservationInterval::getId).toList(),
+                "No occurrence should be stored");
+    }
+
+
+    @Test
+    @DisplayName("Occurrence moved to another court keeps its claims on that court when the series moves")
+    void moveSeries_occurrenceOnOtherCourt_claimOnItsOwnCourt() {
+
+        // Arrange
+        LocalDate firstThursday = LocalDate.now().plusYears(5).with(TemporalAdjusters.next(DayOfWeek.THURSDAY));
+        ReservationSeriesDTO seriesDTO = series("+420 701 000 005", firstThursday.atTime(19, 0));
+        seriesDTO.setOccurrences(2);
+        ReservationSeriesResponseDTO created = reservationSeriesService.createSeries(seriesDTO);
+        ReservationResponseDTO second = created.getReservations().get(1);
+        reservationService.updateReservation(new ReservationDTO("Series Player", "+420 701 000 005",
+                firstThursday.plusWeeks(1).atTime(19, 0), firstThursday.plusWeeks(1).atTime(20, 30),
+                OTHER_COURT_NUMBER, GameType.DOUBLES),
+                second.getId(), second.getVersion());
+
+        // Act
+        reservationSeriesService.moveSeries(created.getId(), new ReservationSeriesMoveDTO(30));
+
+        // Assert
+        assertEquals(90L, claims(COURT_NUMBER, firstThursday), "First occurrence should be claimed on its court");
+        assertEquals(90L, claims(OTHER_COURT_NUMBER, firstThursday),
+                "Second occurrence should be claimed on the court it was moved to");
+        assertEquals(1L, jdbc.queryForObject("SELECT COUNT(*) FROM reservation_slot s JOIN court c "
+                        + "ON c.id = s.court_id WHERE c.court_number = ? AND s.slot_start = ?", Long.class,
+                OTHER_COURT_NUMBER, firstThursday.plusWeeks(1).atTime(20, 59)), "Claims should follow the move");
+    }
+
+
+    private ReservationSeriesDTO series(String phoneNumber, LocalDateTime startTime) {
+        ReservationSeriesDTO seriesDTO = new ReservationSeriesDTO();
+        seriesDTO.setUserName("Series Player");
+        seriesDTO.setPhoneNumber(phoneNumber);
+        seriesDTO.setStartTime(startTime);
+        seriesDTO.setEndTime(startTime.plusMinutes(90));
+        seriesDTO.setCourtNumber(COURT_NUMBER);
+        seriesDTO.setGameType(GameType.DOUBLES);
+        seriesDTO.setRecurrence(Recurrence.WEEKLY);
+        return seriesDTO;
+    }
+
+    private List<ReservationInterval> stored(LocalDate from) {
+        return reservationDAO.findAllIntervalsByCourtNumberBetween(COURT_NUMBER, from.atStartOfDay(),
+                from.plusWeeks(12).atStartOfDay());
+    }
+
+    private Long claims(LocalDate from) {
+        return claims(COURT_NUMBER, from);
+    }
+
+    private Long claims(int courtNumber, LocalDate from) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM reservation_slot s JOIN court c ON c.id = s.court_id "
+                        + "WHERE c.court_number = ? AND s.slot_start >= ? AND s.slot_start < ?", Long.class,
+                courtNumber, from.atStartOfDay(), from.plusWeeks(12).atStartOfDay());
+    }
+}
@@ -0,0 +1,494 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.cache.CollectionVersions;
+import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationBatchDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSeriesDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSlotDAO;
+import cz.vojtechsika.tennisclub.dao.UserDAO;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesDTO;
+import cz.vojtechsika.tennisclub.dto.ReservationSeriesMoveDTO;
+import cz.vojtechsika.tennisclub.dto.mapper.ReservationMapper;
+import cz.vojtechsika.tennisclub.dto.projection.UserIdentity;
+import cz.vojtechsika.tennisclub.dto.mapper.ReservationSeriesMapper;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.dto.response.ReservationSeriesResponseDTO;
+import cz.vojtechsika.tennisclub.entity.Court;
+import cz.vojtechsika.tennisclub.entity.Reservation;
+import cz.vojtechsika.tennisclub.entity.ReservationSeries;
+import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import cz.vojtechsika.tennisclub.entity.User;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.Recurrence;
+import cz.vojtechsika.tennisclub.enums.RejectionReason;
+import cz.vojtechsika.tennisclub.exception.InvalidSeriesException;
+import cz.vojtechsika.tennisclub.exception.ReservationNotFoundException;
+import cz.vojtechsika.tennisclub.exception.ReservationValidationException;
+import cz.vojtechsika.tennisclub.index.CourtDayKey;
+import cz.vojtechsika.tennisclub.index.CourtDaySchedule;
+import cz.vojtechsika.tennisclub.index.CourtDayScheduleLoaderImpl;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import cz.vojtechsika.tennisclub.lock.ReservationLockManager;
+import cz.vojtechsika.tennisclub.metrics.BookingMetrics;
+import cz.vojtechsika.tennisclub.tariff.TariffEngineImpl;
+import cz.vojtechsika.tennisclub.tariff.TariffProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationSeriesServiceImplTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    @Mock
+    private CourtDAO courtDAO;
+
+    @Mock
+    private UserDAO userDAO;
+
+    @Mock
+    private ReservationDAO reservationDAO;
+
+    @Mock
+    private ReservationSeriesDAO reservationSeriesDAO;
+
+    @Mock
+    private ReservationBatchDAO reservationBatchDAO;
+
+    @Mock
+    private ReservationSlotDAO reservationSlotDAO;
+
+    @Mock
+    private ReservationIndex reservationIndex;
+
+    @Mock
+    private ReservationLockManager reservationLockManager;
+
+    @Mock
+    private UserResolver userResolver;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Mock
+    private BookingMetrics bookingMetrics;
+
+    private ReservationSeriesServiceImpl reservationSeriesService;
+
+
+    @BeforeEach
+    void setUp() {
+        reservationSeriesService = service(new TariffProperties());
+        lenient().when(reservationLockManager.callInTransaction(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+
+    @Test
+    @DisplayName("Series with both until date and number of occurrences is rejected")
+    void createSeries_bothEnds_throwInvalidSeriesException() {
+
+        // Arrange
+        ReservationSeriesDTO seriesDTO = seriesDTO();
+        seriesDTO.setOccurrences(3);
+        seriesDTO.setUntilDate(DAY.plusWeeks(2));
+
+        // Act and Assert
+        assertThrows(InvalidSeriesException.class, () -> reservationSeriesService.createSeries(seriesDTO),
+                "Series with two ends should be rejected");
+
+        // Verify
+        verifyNoInteractions(courtDAO, reservationBatchDAO);
+    }
+
+    @Test
+    @DisplayName("Series longer than the maximum is rejected")
+    void createSeries_tooManyOccurrences_throwInvalidSeriesException() {
+
+        // Arrange
+        ReservationSeriesDTO seriesDTO = seriesDTO();
+        seriesDTO.setUntilDate(DAY.plusWeeks(10));
+
+        // Act and Assert
+        assertThrows(InvalidSeriesException.class, () -> reservationSeriesService.createSeries(seriesDTO),
+                "Series over the configured maximum should be rejected");
+    }
+
+    @Test
+    @DisplayName("Valid weekly series stores all occurrences in one batch")
+    void createSeries_validSeries_storeAllOccurrences() {
+
+        // Arrange
+        ReservationSeriesDTO seriesDTO = seriesDTO();
+        seriesDTO.setOccurrences(3);
+
+        when(courtDAO.findCurrentByCourtNumber(101)).thenReturn(Optional.of(court()));
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(eq(101), any())).thenReturn(CourtDaySchedule.EMPTY);
+        when(userResolver.resolve("123456789", "Series Player"))
+                .thenReturn(new UserIdentity(3L, "123456789", "Series Player"));
+        when(userDAO.getReference(3L)).thenReturn(new User());
+        List<Reservation> inserted = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<Reservation> reservations = invocation.getArgument(0);
+            inserted.addAll(reservations);
+            long id = 10;
+            for (Reservation reservation : reservations) {
+                reservation.setId(id++);
+            }
+            return null;
+        }).when(reservationBatchDAO).insertReservations(anyList());
+
+        // Act
+        ReservationSeriesResponseDTO actual = reservationSeriesService.createSeries(seriesDTO);
+
+        // Assert
+        assertEquals(3, actual.getReservations().size(), "Three occurrences should be created");
+        assertEquals(12L, actual.getReservations().get(2).getId(), "Generated id mismatch");
+        assertEquals(DAY.plusWeeks(2).atTime(18, 0), inserted.get(2).getStartTime(),
+                "Last occurrence should be two weeks after the first");
+        assertTrue(inserted.stream().allMatch(reservation -> reservation.getSeries() != null),
+                "Every occurrence should reference the series");
+        assertEquals(new BigDecimal("60.00"), actual.getReservations().get(0).getPrice(), "Price mismatch");
+        assertEquals("Series Player", actual.getUserName(), "User name should come from the resolved identity");
+
+        // Verify
+        verify(reservationSeriesDAO, times(1)).save(any(ReservationSeries.class));
+        verify(reservationBatchDAO, times(1)).insertReservations(anyList());
+        verify(reservationSlotDAO, times(1)).claimAll(anyList());
+        verify(reservationIndex, times(3)).put(any(ReservationInterval.class));
+        verify(bookingMetrics, times(1)).created(3);
+    }
+
+    @Test
+    @DisplayName("Series overlapping a stored reservation is rejected with the conflicting date")
+    void createSeries_storedOverlap_throwReservationValidationException() {
+
+        // Arrange
+        ReservationSeriesDTO seriesDTO = seriesDTO();
+        seriesDTO.setOccurrences(3);
+
+        when(courtDAO.findCurrentByCourtNumber(101)).thenReturn(Optional.of(court()));
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(eq(101), any())).thenReturn(CourtDaySchedule.EMPTY);
+        when(reservationIndex.getSchedule(101, DAY.plusWeeks(1)))
+                .thenReturn(CourtDaySchedule.EMPTY.with(1L, 18 * 60 + 30, 19 * 60 + 30));
+        when(reservationIndex.refresh(Set.of(new CourtDayKey(101, DAY.plusWeeks(1)))))
+                .thenReturn(Map.of(new CourtDayKey(101, DAY.plusWeeks(1)),
+                        CourtDaySchedule.EMPTY.with(1L, 18 * 60 + 30, 19 * 60 + 30)));
+
+        // Act and Assert
+        ReservationValidationException exception = assertThrows(ReservationValidationException.class,
+                () -> reservationSeriesService.createSeries(seriesDTO), "Overlapping series should be rejected");
+        assertTrue(exception.getMessage().contains(DAY.plusWeeks(1).toString()), "Conflicting date should be reported");
+
+        // Verify
+        verifyNoInteractions(reservationSeriesDAO, reservationBatchDAO, reservationSlotDAO);
+        verify(bookingMetrics, times(1)).rejected(RejectionReason.OVERLAP);
+        verify(bookingMetrics, never()).created(anyInt());
+    }
+
+    @Test
+    @DisplayName("Series with an occurrence outside opening hours is counted once under that rule")
+    void createSeries_outsideOpeningHours_countRejectionOnce() {
+
+        // Arrange
+        ReservationSeriesDTO seriesDTO = seriesDTO();
+        seriesDTO.setStartTime(DAY.atTime(6, 0));
+        seriesDTO.setEndTime(DAY.atTime(7, 0));
+        seriesDTO.setOccurrences(3);
+
+        // Act and Assert
+        assertThrows(ReservationValidationException.class, () -> reservationSeriesService.createSeries(seriesDTO),
+                "Series outside opening hours should be rejected");
+
+        // Verify
+        verify(bookingMetrics, times(1)).rejected(RejectionReason.OUTSIDE_OPENING_HOURS);
+        verifyNoMoreInteractions(bookingMetrics);
+        verifyNoInteractions(courtDAO, reservationBatchDAO);
+    }
+
+    @Test
+    @DisplayName("Series overlapping a reservation cancelled by another instance is created after the refresh")
+    void createSeries_staleIndexOverlap_refreshAndStoreAllOccurrences() {
+
+        // Arrange
+        ReservationSeriesDTO seriesDTO = seriesDTO();
+        seriesDTO.setOccurrences(3);
+        CourtDayKey key = new CourtDayKey(101, DAY.plusWeeks(1));
+
+        when(courtDAO.findCurrentByCourtNumber(101)).thenReturn(Optional.of(court()));
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(eq(101), any())).thenReturn(CourtDaySchedule.EMPTY);
+        when(reservationIndex.getSchedule(101, DAY.plusWeeks(1)))
+                .thenReturn(CourtDaySchedule.EMPTY.with(1L, 18 * 60 + 30, 19 * 60 + 30));
+        when(reservationIndex.refresh(Set.of(key))).thenReturn(Map.of(key, CourtDaySchedule.EMPTY));
+        when(userResolver.resolve("123456789", "Series Player"))
+                .thenReturn(new UserIdentity(3L, "123456789", "Series Player"));
+        when(userDAO.getReference(3L)).thenReturn(new User());
+
+        // Act
+        ReservationSeriesResponseDTO actual = reservationSeriesService.createSeries(seriesDTO);
+
+        // Assert
+        assertEquals(3, actual.getReservations().size(), "Three occurrences should be created");
+
+        // Verify
+        verify(reservationIndex, times(1)).refresh(Set.of(key));
+        verify(reservationBatchDAO, times(1)).insertReservations(anyList());
+    }
+
+    @Test
+    @DisplayName("Fetch series by invalid id")
+    void getSeriesById_invalidId_throwReservationNotFoundException() {
+
+        // Arrange
+        when(reservationSeriesDAO.findById(9L)).thenReturn(Optional.empty());
+
+        // Act and Assert
+        assertThrows(ReservationNotFoundException.class, () -> reservationSeriesService.getSeriesById(9L),
+                "Unknown series should not be found");
+    }
+
+    @Test
+    @DisplayName("Move shifts all upcoming occurrences with bulk statements")
+    void moveSeries_validShift_shiftAndReclaimOccurrences() {
+
+        // Arrange
+        ReservationSeries series = series();
+        List<ReservationInterval> current = List.of(
+                new ReservationInterval(10L, 101, DAY.atTime(18, 0), DAY.atTime(19, 0)),
+                new ReservationInterval(11L, 101, DAY.plusWeeks(1).atTime(18, 0), DAY.plusWeeks(1).atTime(19, 0)));
+
+        when(reservationSeriesDAO.findById(5L)).thenReturn(Optional.of(series));
+        when(reservationDAO.findAllIntervalsBySeriesIdStartingFrom(eq(5L), any())).thenReturn(current);
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(101, DAY))
+                .thenReturn(CourtDaySchedule.EMPTY.with(10L, 18 * 60, 19 * 60));
+        when(reservationIndex.getSchedule(101, DAY.plusWeeks(1)))
+                .thenReturn(CourtDaySchedule.EMPTY.with(11L, 18 * 60, 19 * 60));
+        when(reservationDAO.findAllBySeriesId(5L)).thenReturn(List.of(
+                reservation(10L, court(), DAY.atTime(18, 30), DAY.atTime(19, 30)),
+                reservation(11L, court(), DAY.plusWeeks(1).atTime(18, 30), DAY.plusWeeks(1).atTime(19, 30))));
+
+        // Act
+        reservationSeriesService.moveSeries(5L, new ReservationSeriesMoveDTO(30));
+
+        // Verify
+        verify(reservationSlotDAO, times(1)).releaseBySeriesIdStartingFrom(eq(5L), any());
+        verify(reservationDAO, times(1)).shiftAllBySeriesIdStartingFrom(eq(5L), any(), eq(Duration.ofMinutes(30)));
+        verify(reservationSlotDAO, times(1)).claimIntervals(eq(1L), anyList());
+        verify(reservationIndex, times(2)).put(any(ReservationInterval.class));
+        verify(bookingMetrics, times(2)).updated();
+    }
+
+    @Test
+    @DisplayName("Occurrence moved to another court on its own is reclaimed on that court")
+    void moveSeries_occurrenceOnOtherCourt_claimOnItsOwnCourt() {
+
+        // Arrange
+        Court otherCourt = court();
+        otherCourt.setId(2L);
+        otherCourt.setCourtNumber(102);
+        List<ReservationInterval> current = List.of(
+                new ReservationInterval(10L, 101, DAY.atTime(18, 0), DAY.atTime(19, 0)),
+                new ReservationInterval(11L, 102, DAY.plusWeeks(1).atTime(18, 0), DAY.plusWeeks(1).atTime(19, 0)));
+
+        when(reservationSeriesDAO.findById(5L)).thenReturn(Optional.of(series()));
+        when(reservationDAO.findAllIntervalsBySeriesIdStartingFrom(eq(5L), any())).thenReturn(current);
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(101, DAY)).thenReturn(CourtDaySchedule.EMPTY.with(10L, 18 * 60, 19 * 60));
+        when(reservationIndex.getSchedule(102, DAY.plusWeeks(1)))
+                .thenReturn(CourtDaySchedule.EMPTY.with(11L, 18 * 60, 19 * 60));
+        when(reservationDAO.findAllBySeriesId(5L)).thenReturn(List.of(
+                reservation(10L, court(), DAY.atTime(18, 30), DAY.atTime(19, 30)),
+                reservation(11L, otherCourt, DAY.plusWeeks(1).atTime(18, 30), DAY.plusWeeks(1).atTime(19, 30))));
+
+        // Act
+        reservationSeriesService.moveSeries(5L, new ReservationSeriesMoveDTO(30));
+
+        // Verify
+        verify(reservationSlotDAO, times(1)).claimIntervals(eq(1L), argThat(intervals -> intervals.size() == 1
+                && intervals.get(0).getId() == 10L && intervals.get(0).getCourtNumber() == 101));
+        verify(reservationSlotDAO, times(1)).claimIntervals(eq(2L), argThat(intervals -> intervals.size() == 1
+                && intervals.get(0).getId() == 11L && intervals.get(0).getCourtNumber() == 102
+                && intervals.get(0).getStartTime().equals(DAY.plusWeeks(1).atTime(18, 30))));
+    }
+
+    @Test
+    @DisplayName("Occurrence moved into the peak hours is repriced")
+    void moveSeries_intoPeakHours_repriceOccurrence() {
+
+        // Arrange
+        TariffProperties tariffProperties = new TariffProperties();
+        tariffProperties.setPeakPercent(200);
+        reservationSeriesService = service(tariffProperties);
+        List<ReservationInterval> current = List.of(
+                new ReservationInterval(10L, 101, DAY.atTime(16, 0), DAY.atTime(17, 0)));
+        Reservation reservation = reservation(10L, court(), DAY.atTime(17, 0), DAY.atTime(18, 0));
+
+        when(reservationSeriesDAO.findById(5L)).thenReturn(Optional.of(series()));
+        when(reservationDAO.findAllIntervalsBySeriesIdStartingFrom(eq(5L), any())).thenReturn(current);
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(101, DAY)).thenReturn(CourtDaySchedule.EMPTY.with(10L, 16 * 60, 17 * 60));
+        when(reservationDAO.findAllBySeriesId(5L)).thenReturn(List.of(reservation));
+
+        // Act
+        ReservationSeriesResponseDTO actual = reservationSeriesService.moveSeries(5L, new ReservationSeriesMoveDTO(60));
+
+        // Assert
+        assertEquals(0, BigDecimal.valueOf(120).compareTo(reservation.getPrice()),
+                "Peak hour should be charged double");
+        assertEquals(0, BigDecimal.valueOf(120).compareTo(actual.getReservations().get(0).getPrice()),
+                "Response should show the new price");
+
+        // Verify
+        verify(reservationDAO, times(1)).updateAll(List.of(reservation));
+    }
+
+    @Test
+    @DisplayName("Occurrence keeping its price is not updated again")
+    void moveSeries_samePrice_noUpdate() {
+
+        // Arrange
+        List<ReservationInterval> current = List.of(
+                new ReservationInterval(10L, 101, DAY.atTime(16, 0), DAY.atTime(17, 0)));
+
+        when(reservationSeriesDAO.findById(5L)).thenReturn(Optional.of(series()));
+        when(reservationDAO.findAllIntervalsBySeriesIdStartingFrom(eq(5L), any())).thenReturn(current);
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.getSchedule(101, DAY)).thenReturn(CourtDaySchedule.EMPTY.with(10L, 16 * 60, 17 * 60));
+        when(reservationDAO.findAllBySeriesId(5L))
+                .thenReturn(List.of(reservation(10L, court(), DAY.atTime(17, 0), DAY.atTime(18, 0))));
+
+        // Act
+        reservationSeriesService.moveSeries(5L, new ReservationSeriesMoveDTO(60));
+
+        // Verify
+        verify(reservationDAO, never()).updateAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Move without upcoming occurrences is rejected")
+    void moveSeries_noUpcomingOccurrences_throwReservationValidationException() {
+
+        // Arrange
+        when(reservationSeriesDAO.findById(5L)).thenReturn(Optional.of(series()));
+        when(reservationDAO.findAllIntervalsBySeriesIdStartingFrom(eq(5L), any())).thenReturn(List.of());
+
+        // Act and Assert
+        assertThrows(ReservationValidationException.class,
+                () -> reservationSeriesService.moveSeries(5L, new ReservationSeriesMoveDTO(30)),
+                "Series without upcoming occurrences cannot be moved");
+
+        // Verify
+        verify(reservationDAO, never()).shiftAllBySeriesIdStartingFrom(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Cancel deletes all upcoming occurrences and the series")
+    void cancelSeries_validId_deleteUpcomingOccurrences() {
+
+        // Arrange
+        ReservationSeries series = series();
+        List<ReservationInterval> current = List.of(
+                new ReservationInterval(10L, 101, DAY.atTime(18, 0), DAY.atTime(19, 0)));
+
+        when(reservationSeriesDAO.findById(5L)).thenReturn(Optional.of(series));
+        when(reservationDAO.findAllIntervalsBySeriesIdStartingFrom(eq(5L), any())).thenReturn(current);
+        when(reservationDAO.softDeleteAllBySeriesIdStartingFrom(eq(5L), any())).thenReturn(1);
+
+        // Act
+        int actual = reservationSeriesService.cancelSeries(5L);
+
+        // Assert
+        assertEquals(1, actual, "Deleted count mismatch");
+        assertTrue(series.isDeleted(), "Series should be marked as deleted");
+
+        // Verify
+        verify(reservationSlotDAO, times(1)).releaseBySeriesIdStartingFrom(eq(5L), any());
+        verify(reservationIndex, times(1)).remove(10L);
+        verify(bookingMetrics, times(1)).cancelled();
+    }
+
+
+    private ReservationSeriesServiceImpl service(TariffProperties tariffProperties) {
+        return new ReservationSeriesServiceImpl(courtDAO, userDAO, reservationDAO, reservationSeriesDAO,
+                reservationBatchDAO, reservationSlotDAO, new ReservationMapper(), userResolver,
+                new ReservationSeriesMapper(), reservationIndex, reservationLockManager,
+                new TariffEngineImpl(tariffProperties), collectionVersions,
+                new CourtDayScheduleLoaderImpl(reservationIndex, reservationDAO), bookingMetrics, 5);
+    }
+
+    private ReservationSeriesDTO seriesDTO() {
+        LocalDateTime startTime = DAY.atTime(18, 0);
+        ReservationSeriesDTO seriesDTO = new ReservationSeriesDTO();
+        seriesDTO.setUserName("Series Player");
+        seriesDTO.setPhoneNumber("123456789");
+        seriesDTO.setStartTime(startTime);
+        seriesDTO.setEndTime(startTime.plusHours(1));
+        seriesDTO.setCourtNumber(101);
+        seriesDTO.setGameType(GameType.SINGLES);
+        seriesDTO.setRecurrence(Recurrence.WEEKLY);
+        return seriesDTO;
+    }
+
+    private Court court() {
+        SurfaceType surfaceType = new SurfaceType();
+        surfaceType.setMinutePrice(BigDecimal.ONE);
+
+        Court court = new Court();
+        court.setId(1L);
+        court.setCourtNumber(101);
+        court.setSurfaceType(surfaceType);
+        return court;
+    }
+
+    private Reservation reservation(Long id, Court court, LocalDateTime startTime, LocalDateTime endTime) {
+        Reservation reservation = new Reservation();
+        reservation.setId(id);
+        reservation.setCourt(court);
+        reservation.setUser(series().getUser());
+        reservation.setStartTime(startTime);
+        reservation.setEndTime(endTime);
+        reservation.setGameType(GameType.SINGLES);
+        reservation.setPrice(BigDecimal.valueOf(60));
+        reservation.setCreatedAt(DAY.atStartOfDay().minusDays(1));
+        return reservation;
+    }
+
+    private ReservationSeries series() {
+        User user = new User();
+        user.setUserName("Series Player");
+        user.setPhoneNumber("123456789");
+
+        ReservationSeries series = new ReservationSeries();
+        series.setId(5L);
+        series.setCourt(court());
+        series.setUser(user);
+        series.setRecurrence(Recurrence.WEEKLY);
+        series.setGameType(GameType.SINGLES);
+        return series;
+    }
+}
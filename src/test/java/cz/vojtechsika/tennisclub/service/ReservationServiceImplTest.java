@@ -1,31 +1,56 @@
 package cz.vojtechsika.tennisclub.service;
 
+import cz.vojtechsika.tennisclub.cache.CollectionVersions;
 import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationArchiveDAO;
 import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSlotDAO;
 import cz.vojtechsika.tennisclub.dao.UserDAO;
 import cz.vojtechsika.tennisclub.dto.ReservationDTO;
 import cz.vojtechsika.tennisclub.dto.mapper.ReservationMapper;
-import cz.vojtechsika.tennisclub.dto.mapper.UserMapper;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.dto.projection.UserIdentity;
+import cz.vojtechsika.tennisclub.dto.response.ReservationPageResponseDTO;
 import cz.vojtechsika.tennisclub.dto.response.ReservationResponseDTO;
+import cz.vojtechsika.tennisclub.entity.ArchivedReservation;
 import cz.vojtechsika.tennisclub.entity.Court;
 import cz.vojtechsika.tennisclub.entity.Reservation;
 import cz.vojtechsika.tennisclub.entity.SurfaceType;
 import cz.vojtechsika.tennisclub.entity.User;
 import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.enums.RejectionReason;
+import cz.vojtechsika.tennisclub.enums.ReservationFormat;
+import cz.vojtechsika.tennisclub.exception.InvalidPageRequestException;
 import cz.vojtechsika.tennisclub.exception.ReservationNotFoundException;
 import cz.vojtechsika.tennisclub.exception.ReservationValidationException;
+import cz.vojtechsika.tennisclub.exception.VersionMismatchException;
+import cz.vojtechsika.tennisclub.index.CourtDayKey;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import cz.vojtechsika.tennisclub.lock.ReservationLockManager;
+import cz.vojtechsika.tennisclub.metrics.BookingMetrics;
+import cz.vojtechsika.tennisclub.tariff.TariffEngine;
+import cz.vojtechsika.tennisclub.tariff.TariffEngineImpl;
+import cz.vojtechsika.tennisclub.tariff.TariffProperties;
+import cz.vojtechsika.tennisclub.util.ReservationCursor;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -47,12 +72,39 @@ class ReservationServiceImplTest {
     private ReservationMapper reservationMapper;
 
     @Mock
-    private UserMapper userMapper;
+    private UserResolver userResolver;
+
+    @Mock
+    private ReservationIndex reservationIndex;
+
+    @Mock
+    private ReservationLockManager reservationLockManager;
+
+    @Mock
+    private ReservationSlotDAO reservationSlotDAO;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Mock
+    private ReservationArchiveDAO reservationArchiveDAO;
+
+    @Mock
+    private BookingMetrics bookingMetrics;
+
+    @Spy
+    private TariffEngine tariffEngine = new TariffEngineImpl(new TariffProperties());
 
     @InjectMocks
     ReservationServiceImpl reservationService;
 
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(reservationLockManager.callInTransaction(anyCollection(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
 
     @Test
     @DisplayName("Create new Reservation and User in valid date for (SINGLES)")
@@ -97,21 +149,18 @@ class ReservationServiceImplTest {
 
         Optional<Court> optionalCourt = Optional.of(court);
 
-        User user = new User();
-        Optional<User> optionalUser = Optional.empty();
 
         ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
         reservationResponseDTO.setPrice(BigDecimal.valueOf(120));
 
         when(reservationDAO.findAllByDateAndCourtNumber(startTime,courtNumber,null)).thenReturn(reservations);
-        when(courtDAO.findByCourtNumber(courtNumber)).thenReturn(optionalCourt);
+        when(courtDAO.findCurrentByCourtNumber(courtNumber)).thenReturn(optionalCourt);
 
-        when(userDAO.findByPhone(reservationDTO.getPhoneNumber())).thenReturn(optionalUser);
+        when(userResolver.resolve(reservationDTO.getPhoneNumber(), reservationDTO.getUserName())).thenReturn(new UserIdentity(5L, reservationDTO.getPhoneNumber(), reservationDTO.getUserName()));
         when(reservationMapper.toReservationEntity(reservationDTO)).thenReturn(reservation1);
 
-        when(userMapper.mapFromReservationDTO(reservationDTO)).thenReturn(user);
         when(reservationDAO.create(reservation1)).thenReturn(newReservation);
-        when(reservationMapper.toReservationResponseDTO(newReservation)).thenReturn(reservationResponseDTO);
+        when(reservationMapper.toReservationResponseDTO(eq(newReservation), eq(courtNumber), any(UserIdentity.class))).thenReturn(reservationResponseDTO);
 
         // Act
         ReservationResponseDTO actual = reservationService.createReservation(reservationDTO);
@@ -122,7 +171,8 @@ class ReservationServiceImplTest {
         assertEquals(reservationResponseDTO.getPrice(), actualCalculatePrice, "120 * 1 should be ");
 
         // Verify
-        verify(userDAO, times(1)).save(user);
+        verify(userDAO, times(1)).getReference(5L);
+        verify(bookingMetrics, times(1)).created(1);
     }
 
     @Test
@@ -155,7 +205,6 @@ class ReservationServiceImplTest {
 
         List<Reservation> reservations = List.of(reservation2, reservation3);
 
-        User user = new User();
 
         when(reservationDAO.findAllByDateAndCourtNumber(startTime,courtNumber,null)).thenReturn(reservations);
 
@@ -164,8 +213,9 @@ class ReservationServiceImplTest {
                 "Should throw ReservationValidationException");
 
         // Verify
-        verify(userDAO, never()).save(user);
+        verify(userResolver, never()).resolve(any(), any());
         verify(reservationDAO, never()).create(reservation);
+        verify(bookingMetrics, times(1)).rejected(RejectionReason.OVER_DURATION_LIMIT);
 
     }
 
@@ -198,7 +248,6 @@ class ReservationServiceImplTest {
 
         List<Reservation> reservations = List.of(reservation2, reservation3);
 
-        User user = new User();
 
         when(reservationDAO.findAllByDateAndCourtNumber(startTime,courtNumber,null)).thenReturn(reservations);
 
@@ -207,8 +256,9 @@ class ReservationServiceImplTest {
                 "Should throw ReservationValidationException");
 
         // Verify
-        verify(userDAO, never()).save(user);
+        verify(userResolver, never()).resolve(any(), any());
         verify(reservationDAO, never()).create(reservation);
+        verify(bookingMetrics, times(1)).rejected(RejectionReason.PAST_START_TIME);
 
     }
 
@@ -242,7 +292,6 @@ class ReservationServiceImplTest {
 
         List<Reservation> reservations = List.of(reservation2, reservation3);
 
-        User user = new User();
 
         when(reservationDAO.findAllByDateAndCourtNumber(startTime,courtNumber,null)).thenReturn(reservations);
 
@@ -251,7 +300,7 @@ class ReservationServiceImplTest {
                 "Should throw ReservationValidationException");
 
         // Verify
-        verify(userDAO, never()).save(user);
+        verify(userResolver, never()).resolve(any(), any());
         verify(reservationDAO, never()).create(reservation);
 
     }
@@ -300,24 +349,19 @@ class ReservationServiceImplTest {
 
         Optional<Court> optionalCourt = Optional.of(court);
 
-        User user = new User();
-        user.setUserName("John");
-
-
-
-        Optional<User> optionalUser = Optional.of(user);
+        UserIdentity user = new UserIdentity(5L, reservationDTO.getPhoneNumber(), "John");
 
         ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
         reservationResponseDTO.setPrice(BigDecimal.valueOf(120));
 
         when(reservationDAO.findAllByDateAndCourtNumber(startTime,courtNumber,null)).thenReturn(reservations);
-        when(courtDAO.findByCourtNumber(courtNumber)).thenReturn(optionalCourt);
+        when(courtDAO.findCurrentByCourtNumber(courtNumber)).thenReturn(optionalCourt);
 
-        when(userDAO.findByPhone(reservationDTO.getPhoneNumber())).thenReturn(optionalUser);
+        when(userResolver.resolve(reservationDTO.getPhoneNumber(), "John")).thenReturn(user);
         when(reservationMapper.toReservationEntity(reservationDTO)).thenReturn(reservation1);
 
         when(reservationDAO.create(reservation1)).thenReturn(newReservation);
-        when(reservationMapper.toReservationResponseDTO(newReservation)).thenReturn(reservationResponseDTO);
+        when(reservationMapper.toReservationResponseDTO(newReservation, courtNumber, user)).thenReturn(reservationResponseDTO);
 
         // Act
         ReservationResponseDTO actual = reservationService.createReservation(reservationDTO);
@@ -328,7 +372,7 @@ class ReservationServiceImplTest {
         assertEquals(reservationResponseDTO.getPrice(), actualCalculatePrice, "120 * 1 should be ");
 
         // Verify
-        verify(userDAO, never()).save(user);
+        verify(userDAO, times(1)).getReference(5L);
     }
 
     @Test
@@ -375,22 +419,19 @@ class ReservationServiceImplTest {
 
         Optional<Court> optionalCourt = Optional.of(court);
 
-        User user = new User();
-        user.setUserName("Tomas");
-
-        Optional<User> optionalUser = Optional.of(user);
+        UserIdentity user = new UserIdentity(5L, reservationDTO.getPhoneNumber(), "John");
 
         ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
         reservationResponseDTO.setPrice(BigDecimal.valueOf(120));
 
         when(reservationDAO.findAllByDateAndCourtNumber(startTime,courtNumber,null)).thenReturn(reservations);
-        when(courtDAO.findByCourtNumber(courtNumber)).thenReturn(optionalCourt);
+        when(courtDAO.findCurrentByCourtNumber(courtNumber)).thenReturn(optionalCourt);
 
-        when(userDAO.findByPhone(reservationDTO.getPhoneNumber())).thenReturn(optionalUser);
+        when(userResolver.resolve(reservationDTO.getPhoneNumber(), "John")).thenReturn(user);
         when(reservationMapper.toReservationEntity(reservationDTO)).thenReturn(reservation1);
 
         when(reservationDAO.create(reservation1)).thenReturn(newReservation);
-        when(reservationMapper.toReservationResponseDTO(newReservation)).thenReturn(reservationResponseDTO);
+        when(reservationMapper.toReservationResponseDTO(newReservation, courtNumber, user)).thenReturn(reservationResponseDTO);
 
         // Act
         ReservationResponseDTO actual = reservationService.createReservation(reservationDTO);
@@ -401,7 +442,7 @@ class ReservationServiceImplTest {
         assertEquals(reservationResponseDTO.getPrice(), actualCalculatePrice, "120 * 1 should be ");
 
         // Verify
-        verify(userDAO, times(1)).save(user);
+        verify(userDAO, times(1)).getReference(5L);
     }
 
     @Test
@@ -484,15 +525,16 @@ class ReservationServiceImplTest {
         List<ReservationResponseDTO> reservationResponseDTOS = List.of(
                 reservationResponseDTO2, reservationResponseDTO3);
 
-        when(reservationDAO.findAllByCourtNumber(courtNumber)).thenReturn(reservations);
-        when(reservationMapper.toReservationResponseDTO(reservation2)).thenReturn(reservationResponseDTO2);
-        when(reservationMapper.toReservationResponseDTO(reservation3)).thenReturn(reservationResponseDTO3);
+        when(reservationDAO.findPageByCourtNumber(courtNumber, null, 51)).thenReturn(reservations);
+        when(reservationMapper.toReservationResponseDTO(reservation2, ReservationFormat.LOCALIZED)).thenReturn(reservationResponseDTO2);
+        when(reservationMapper.toReservationResponseDTO(reservation3, ReservationFormat.LOCALIZED)).thenReturn(reservationResponseDTO3);
 
         // Act
-        List<ReservationResponseDTO> actual = reservationService.getReservationByCourtNumber(courtNumber);
+        ReservationPageResponseDTO actual = reservationService.getReservationByCourtNumber(courtNumber, null, 50, ReservationFormat.LOCALIZED);
 
         // Assert
-        assertIterableEquals(reservationResponseDTOS, actual, "Should be same object");
+        assertIterableEquals(reservationResponseDTOS, actual.getReservations(), "Should be same object");
+        assertNull(actual.getNextCursor(), "Last page should have no next cursor");
 
     }
 
@@ -505,11 +547,11 @@ class ReservationServiceImplTest {
 
         List<Reservation> reservations = List.of();
 
-        when(reservationDAO.findAllByCourtNumber(courtNumber)).thenReturn(reservations);
+        when(reservationDAO.findPageByCourtNumber(courtNumber, null, 51)).thenReturn(reservations);
 
         // Act and Assert
         assertThrows(ReservationNotFoundException.class, () ->
-                        reservationService.getReservationByCourtNumber(courtNumber),
+                        reservationService.getReservationByCourtNumber(courtNumber, null, 50, ReservationFormat.LOCALIZED),
                 "Should throw ReservationNotFoundException");
 
     }
@@ -548,15 +590,16 @@ class ReservationServiceImplTest {
         List<ReservationResponseDTO> reservationResponseDTOS = List.of(
                 reservationResponseDTO2, reservationResponseDTO3);
 
-        when(reservationDAO.findAllByPhoneNumber(phoneNumber,futureOnly)).thenReturn(reservations);
-        when(reservationMapper.toReservationResponseDTO(reservation2)).thenReturn(reservationResponseDTO2);
-        when(reservationMapper.toReservationResponseDTO(reservation3)).thenReturn(reservationResponseDTO3);
+        when(reservationDAO.findPageByPhoneNumber(phoneNumber, futureOnly, null, 51)).thenReturn(reservations);
+        when(reservationMapper.toReservationResponseDTO(reservation2, ReservationFormat.LOCALIZED)).thenReturn(reservationResponseDTO2);
+        when(reservationMapper.toReservationResponseDTO(reservation3, ReservationFormat.LOCALIZED)).thenReturn(reservationResponseDTO3);
 
         // Act
-        List<ReservationResponseDTO> actual = reservationService.getReservationByPhoneNumber(phoneNumber,futureOnly);
+        ReservationPageResponseDTO actual = reservationService.getReservationByPhoneNumber(phoneNumber, futureOnly,
+                null, 50, ReservationFormat.LOCALIZED);
 
         // Assert
-        assertIterableEquals(reservationResponseDTOS, actual, "Should be same object");
+        assertIterableEquals(reservationResponseDTOS, actual.getReservations(), "Should be same object");
     }
 
     @Test
@@ -569,12 +612,12 @@ class ReservationServiceImplTest {
 
         List<Reservation> reservations = List.of();
 
-        when(reservationDAO.findAllByPhoneNumber(phoneNumber,futureOnly)).thenReturn(reservations);
+        when(reservationDAO.findPageByPhoneNumber(phoneNumber, futureOnly, null, 51)).thenReturn(reservations);
 
 
         // Assert
         ReservationNotFoundException e = assertThrows(ReservationNotFoundException.class, () ->
-                        reservationService.getReservationByPhoneNumber(phoneNumber,futureOnly),
+                        reservationService.getReservationByPhoneNumber(phoneNumber, futureOnly, null, 50, ReservationFormat.LOCALIZED),
                 "Should throw ReservationNotFoundException");
 
         assertEquals("No Reservations with phone number 123456789 in future", e.getMessage(),
@@ -612,15 +655,15 @@ class ReservationServiceImplTest {
         List<ReservationResponseDTO> reservationResponseDTOS = List.of(
                 reservationResponseDTO2, reservationResponseDTO3);
 
-        when(reservationDAO.findAll()).thenReturn(reservations);
-        when(reservationMapper.toReservationResponseDTO(reservation2)).thenReturn(reservationResponseDTO2);
-        when(reservationMapper.toReservationResponseDTO(reservation3)).thenReturn(reservationResponseDTO3);
+        when(reservationDAO.findPage(null, 51)).thenReturn(reservations);
+        when(reservationMapper.toReservationResponseDTO(reservation2, ReservationFormat.LOCALIZED)).thenReturn(reservationResponseDTO2);
+        when(reservationMapper.toReservationResponseDTO(reservation3, ReservationFormat.LOCALIZED)).thenReturn(reservationResponseDTO3);
 
         // Act
-        List<ReservationResponseDTO> actual = reservationService.getAllReservations();
+        ReservationPageResponseDTO actual = reservationService.getAllReservations(null, 50, ReservationFormat.LOCALIZED);
 
         // Assert
-        assertIterableEquals(reservationResponseDTOS, actual, "Should be same object");
+        assertIterableEquals(reservationResponseDTOS, actual.getReservations(), "Should be same object");
 
     }
 
@@ -631,14 +674,210 @@ class ReservationServiceImplTest {
         // Arrange
         List<Reservation> reservations = List.of();
 
-        when(reservationDAO.findAll()).thenReturn(reservations);
+        when(reservationDAO.findPage(null, 51)).thenReturn(reservations);
 
         // Act and Assert
-        assertThrows(ReservationNotFoundException.class, () -> reservationService.getAllReservations(),
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.getAllReservations(null, 50, ReservationFormat.LOCALIZED),
                 "Should throw ReservationNotFoundException");
 
     }
 
+    @Test
+    @DisplayName("Get page of reservations with more reservations following")
+    void getAllReservations_moreThanLimit_returnPageWithNextCursor() {
+
+        // Arrange
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now().plusDays(1), LocalTime.of(10, 0));
+
+        Reservation reservation1 = new Reservation();
+        reservation1.setId(1L);
+        reservation1.setStartTime(startTime);
+
+        Reservation reservation2 = new Reservation();
+        reservation2.setId(2L);
+        reservation2.setStartTime(startTime.plusHours(1));
+
+        ReservationResponseDTO reservationResponseDTO1 = new ReservationResponseDTO();
+
+        when(reservationDAO.findPage(null, 2)).thenReturn(List.of(reservation1, reservation2));
+        when(reservationMapper.toReservationResponseDTO(reservation1, ReservationFormat.LOCALIZED)).thenReturn(reservationResponseDTO1);
+
+        // Act
+        ReservationPageResponseDTO actual = reservationService.getAllReservations(null, 1, ReservationFormat.LOCALIZED);
+
+        // Assert
+        assertEquals(List.of(reservationResponseDTO1), actual.getReservations(), "Only one reservation should be returned");
+        assertEquals(new ReservationCursor(startTime, 1L), ReservationCursor.decode(actual.getNextCursor()),
+                "Next cursor should point after the last returned reservation");
+
+        // Verify
+        verify(reservationMapper, never()).toReservationResponseDTO(reservation2, ReservationFormat.LOCALIZED);
+    }
+
+    @Test
+    @DisplayName("Get empty page after last cursor does not throw")
+    void getAllReservations_cursorAfterLastReservation_returnEmptyPage() {
+
+        // Arrange
+        ReservationCursor after = new ReservationCursor(LocalDateTime.of(2030, 1, 1, 10, 0), 9L);
+
+        when(reservationDAO.findPage(after, 51)).thenReturn(List.of());
+
+        // Act
+        ReservationPageResponseDTO actual = reservationService.getAllReservations(after.encode(), 50, ReservationFormat.LOCALIZED);
+
+        // Assert
+        assertTrue(actual.getReservations().isEmpty(), "Page should be empty");
+        assertNull(actual.getNextCursor(), "Empty page should have no next cursor");
+    }
+
+    @Test
+    @DisplayName("Get page of phone number history merges archived and live reservations in start time order")
+    void getReservationByPhoneNumber_archivedReservations_mergeByStartTimeAndId() {
+
+        // Arrange
+        String phoneNumber = "+420 123 456 789";
+        LocalDateTime startTime = LocalDateTime.of(2020, 1, 1, 10, 0);
+
+        ArchivedReservation archived1 = new ArchivedReservation();
+        archived1.setId(1L);
+        archived1.setStartTime(startTime);
+
+        Reservation live = new Reservation();
+        live.setId(5L);
+        live.setStartTime(startTime.plusDays(1));
+
+        ArchivedReservation archived2 = new ArchivedReservation();
+        archived2.setId(3L);
+        archived2.setStartTime(startTime.plusDays(2));
+
+        ReservationResponseDTO responseDTO1 = new ReservationResponseDTO();
+        ReservationResponseDTO responseDTO2 = new ReservationResponseDTO();
+
+        when(reservationDAO.findPageByPhoneNumber(phoneNumber, false, null, 3)).thenReturn(List.of(live));
+        when(reservationArchiveDAO.findPageByPhoneNumber(phoneNumber, null, 3))
+                .thenReturn(List.of(archived1, archived2));
+        when(reservationMapper.toReservationResponseDTO(archived1, ReservationFormat.LOCALIZED)).thenReturn(responseDTO1);
+        when(reservationMapper.toReservationResponseDTO(live, ReservationFormat.LOCALIZED)).thenReturn(responseDTO2);
+
+        // Act
+        ReservationPageResponseDTO actual = reservationService.getReservationByPhoneNumber(phoneNumber, false,
+                null, 2, ReservationFormat.LOCALIZED);
+
+        // Assert
+        assertEquals(List.of(responseDTO1, responseDTO2), actual.getReservations(), "Pages should merge in order");
+        assertEquals(new ReservationCursor(startTime.plusDays(1), 5L), ReservationCursor.decode(actual.getNextCursor()),
+                "Next cursor should point after the last returned reservation");
+    }
+
+    @Test
+    @DisplayName("Get page of all reservations lists a reservation archived between the two reads once")
+    void getAllReservations_reservationInBothTables_listOnce() {
+
+        // Arrange
+        LocalDateTime startTime = LocalDateTime.of(2020, 1, 1, 10, 0);
+
+        Reservation live = new Reservation();
+        live.setId(1L);
+        live.setStartTime(startTime);
+
+        ArchivedReservation archived = new ArchivedReservation();
+        archived.setId(1L);
+        archived.setStartTime(startTime);
+
+        ReservationResponseDTO responseDTO = new ReservationResponseDTO();
+
+        when(reservationDAO.findPage(null, 51)).thenReturn(List.of(live));
+        when(reservationArchiveDAO.findPage(null, 51)).thenReturn(List.of(archived));
+        when(reservationMapper.toReservationResponseDTO(any(), eq(ReservationFormat.LOCALIZED))).thenReturn(responseDTO);
+
+        // Act
+        ReservationPageResponseDTO actual = reservationService.getAllReservations(null, 50, ReservationFormat.LOCALIZED);
+
+        // Assert
+        assertEquals(1, actual.getReservations().size(), "Reservation should be listed once");
+        assertNull(actual.getNextCursor(), "Single page should have no next cursor");
+    }
+
+    @Test
+    @DisplayName("Get future reservations by phone number does not read the archive")
+    void getReservationByPhoneNumber_futureOnly_skipArchive() {
+
+        // Arrange
+        String phoneNumber = "+420 123 456 789";
+        Reservation live = new Reservation();
+        live.setId(1L);
+        live.setStartTime(LocalDateTime.of(LocalDate.now().plusDays(1), LocalTime.of(10, 0)));
+
+        when(reservationDAO.findPageByPhoneNumber(phoneNumber, true, null, 51)).thenReturn(List.of(live));
+
+        // Act
+        reservationService.getReservationByPhoneNumber(phoneNumber, true, null, 50, ReservationFormat.LOCALIZED);
+
+        // Verify
+        verifyNoInteractions(reservationArchiveDAO);
+    }
+
+    @Test
+    @DisplayName("Export streams the archived and then the live reservations and clears the persistence context per chunk")
+    void exportAllReservations_archivedAndLiveOverTwoChunks_consumeAllAndClearPerChunk() {
+
+        // Arrange
+        int archived = ReservationServiceImpl.EXPORT_CHUNK_SIZE + 1;
+        int live = ReservationServiceImpl.EXPORT_CHUNK_SIZE;
+        AtomicBoolean archiveClosed = new AtomicBoolean();
+        AtomicBoolean liveClosed = new AtomicBoolean();
+        ReservationResponseDTO archivedDTO = new ReservationResponseDTO();
+        ReservationResponseDTO liveDTO = new ReservationResponseDTO();
+        List<ReservationResponseDTO> exported = new ArrayList<>();
+
+        when(reservationArchiveDAO.streamAll(ReservationServiceImpl.EXPORT_CHUNK_SIZE)).thenReturn(
+                Stream.generate(ArchivedReservation::new).limit(archived).onClose(() -> archiveClosed.set(true)));
+        when(reservationDAO.streamAll(ReservationServiceImpl.EXPORT_CHUNK_SIZE)).thenReturn(
+                Stream.generate(Reservation::new).limit(live).onClose(() -> liveClosed.set(true)));
+        when(reservationMapper.toReservationResponseDTO(any(ArchivedReservation.class), eq(ReservationFormat.LOCALIZED))).thenReturn(archivedDTO);
+        when(reservationMapper.toReservationResponseDTO(any(Reservation.class), eq(ReservationFormat.LOCALIZED))).thenReturn(liveDTO);
+
+        // Act
+        long actual = reservationService.exportAllReservations(ReservationFormat.LOCALIZED, exported::add);
+
+        // Assert
+        assertEquals(archived + live, actual, "Exported count mismatch");
+        assertEquals(archived + live, exported.size(), "Every reservation should reach the consumer");
+        assertSame(archivedDTO, exported.get(archived - 1), "Archived reservations should be exported first");
+        assertSame(liveDTO, exported.get(archived), "Live reservations should follow the archived ones");
+        assertTrue(archiveClosed.get(), "Archive stream should be closed");
+        assertTrue(liveClosed.get(), "Live stream should be closed");
+
+        // Verify
+        verify(reservationDAO, times(2)).clear();
+    }
+
+    @Test
+    @DisplayName("Get page with limit out of range should throw InvalidPageRequestException")
+    void getAllReservations_limitTooLarge_throwInvalidPageRequestException() {
+
+        // Act and Assert
+        assertThrows(InvalidPageRequestException.class, () -> reservationService.getAllReservations(null, 501, ReservationFormat.LOCALIZED),
+                "Limit over the maximum should be rejected");
+
+        // Verify
+        verifyNoInteractions(reservationDAO);
+    }
+
+    @Test
+    @DisplayName("Get page with unknown cursor should throw InvalidPageRequestException")
+    void getReservationByCourtNumber_unknownCursor_throwInvalidPageRequestException() {
+
+        // Act and Assert
+        assertThrows(InvalidPageRequestException.class,
+                () -> reservationService.getReservationByCourtNumber(101, "not-a-cursor", 50, ReservationFormat.LOCALIZED),
+                "Cursor not issued by the API should be rejected");
+
+        // Verify
+        verifyNoInteractions(reservationDAO);
+    }
+
     @Test
     @DisplayName("Update existing Reservation wit valid ReservationDTO")
     void updateReservation_withValidDTO_ShouldReturnUpdatedReservationResponseDTO() {
@@ -665,10 +904,14 @@ class ReservationServiceImplTest {
         reservation3.setStartTime(startTime.plusHours(4));
         reservation3.setEndTime(endTime.plusHours(4));
 
+        User previousUser = new User();
+        previousUser.setPhoneNumber("+420 111 222 333");
+
         Reservation findReservation = new Reservation();
         findReservation.setStartTime(startTime);
         findReservation.setEndTime(endTime);
         findReservation.setPrice(BigDecimal.valueOf(120));
+        findReservation.setUser(previousUser);
 
 
         Optional<Reservation> optionalReservation = Optional.of(findReservation);
@@ -684,14 +927,11 @@ class ReservationServiceImplTest {
 
         Optional<Court> optionalCourt = Optional.of(court);
 
-        User user = new User();
-        Optional<User> optionalUser = Optional.empty();
 
         Reservation updateReservation = new Reservation();
         updateReservation.setStartTime(startTime);
         updateReservation.setEndTime(endTime);
         updateReservation.setPrice(BigDecimal.valueOf(120));
-        updateReservation.setCourt(court);
 
 
         ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
@@ -701,17 +941,16 @@ class ReservationServiceImplTest {
 
         when(reservationDAO.findById(reservationId)).thenReturn(optionalReservation);
 
-        when(courtDAO.findByCourtNumber(courtNumber)).thenReturn(optionalCourt);
+        when(courtDAO.findCurrentByCourtNumber(courtNumber)).thenReturn(optionalCourt);
 
-        when(userDAO.findByPhone(reservationDTO.getPhoneNumber())).thenReturn(optionalUser);
+        when(userResolver.resolve(reservationDTO.getPhoneNumber(), reservationDTO.getUserName())).thenReturn(new UserIdentity(5L, reservationDTO.getPhoneNumber(), reservationDTO.getUserName()));
 
         when(reservationMapper.updateReservationFromDTO(reservationDTO, findReservation)).thenReturn(updateReservation);
-        when(userMapper.mapFromReservationDTO(reservationDTO)).thenReturn(user);
         when(reservationDAO.update(updateReservation)).thenReturn(updateReservation);
-        when(reservationMapper.toReservationResponseDTO(updateReservation)).thenReturn(reservationResponseDTO);
+        when(reservationMapper.toReservationResponseDTO(eq(updateReservation), eq(courtNumber), any(UserIdentity.class))).thenReturn(reservationResponseDTO);
 
         // Act
-        ReservationResponseDTO actual = reservationService.updateReservation(reservationDTO, reservationId );
+        ReservationResponseDTO actual = reservationService.updateReservation(reservationDTO, reservationId, null);
         BigDecimal actualCalculatePrice = reservationResponseDTO.getPrice();
 
         // Assert
@@ -719,7 +958,8 @@ class ReservationServiceImplTest {
         assertEquals(reservationResponseDTO.getPrice(), actualCalculatePrice, "120 * 1 should be ");
 
         // Verify
-        verify(userDAO, times(1)).save(user);
+        verify(userResolver, times(1)).resolve(reservationDTO.getPhoneNumber(), reservationDTO.getUserName());
+        verify(collectionVersions, times(1)).reservationsChanged("+420 111 222 333", reservationDTO.getPhoneNumber());
 
     }
 
@@ -758,7 +998,6 @@ class ReservationServiceImplTest {
         SurfaceType surfaceType = new SurfaceType();
         surfaceType.setMinutePrice(BigDecimal.valueOf(1));
 
-        User user = new User();
 
         ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
         reservationResponseDTO.setPrice(BigDecimal.valueOf(120));
@@ -770,16 +1009,52 @@ class ReservationServiceImplTest {
 
         // Act and Assert
         assertThrows(ReservationNotFoundException.class, () ->
-                reservationService.updateReservation(reservationDTO, reservationId),
+                reservationService.updateReservation(reservationDTO, reservationId, null),
                 "Should throw ReservationNotFoundException" );
 
         // Verify
-        verify(userDAO, never()).save(user);
+        verify(userResolver, never()).resolve(any(), any());
         verify(reservationDAO, never()).update(reservation);
 
 
     }
 
+    @Test
+    @DisplayName("Update Reservation with stale expected version")
+    void updateReservation_withStaleExpectedVersion_ShouldReturnVersionMismatchException() {
+
+        // Arrange
+        Long reservationId = 1L;
+        int courtNumber = 101;
+
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now().
+                plusDays(1), LocalTime.of(10,0));
+        LocalDateTime endTime = startTime.plusHours(2);
+
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setStartTime(startTime);
+        reservationDTO.setEndTime(endTime);
+        reservationDTO.setCourtNumber(courtNumber);
+        reservationDTO.setGameType(GameType.SINGLES);
+
+        Reservation findReservation = new Reservation();
+        findReservation.setStartTime(startTime);
+        findReservation.setEndTime(endTime);
+        findReservation.setVersion(2L);
+
+        when(reservationDAO.findAllByDateAndCourtNumber(startTime,courtNumber,reservationId)).thenReturn(List.of());
+        when(reservationDAO.findById(reservationId)).thenReturn(Optional.of(findReservation));
+
+        // Act and Assert
+        assertThrows(VersionMismatchException.class, () ->
+                reservationService.updateReservation(reservationDTO, reservationId, 1L),
+                "Should throw VersionMismatchException" );
+
+        // Verify
+        verify(reservationDAO, never()).update(any());
+        verify(reservationSlotDAO, never()).releaseByReservationId(any());
+    }
+
     @Test
     @DisplayName("Update Reservation with non valid time range")
     void updateReservation_withInValidDateAndTime_ShouldReturnReservationValidationException() {
@@ -814,7 +1089,6 @@ class ReservationServiceImplTest {
         SurfaceType surfaceType = new SurfaceType();
         surfaceType.setMinutePrice(BigDecimal.valueOf(1));
 
-        User user = new User();
 
         ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
         reservationResponseDTO.setPrice(BigDecimal.valueOf(120));
@@ -823,11 +1097,11 @@ class ReservationServiceImplTest {
 
         // Act and Assert
         assertThrows(ReservationValidationException.class, () ->
-                        reservationService.updateReservation(reservationDTO, reservationId),
+                        reservationService.updateReservation(reservationDTO, reservationId, null),
                 "Should throw ReservationValidationException");
 
         // Verify
-        verify(userDAO, never()).save(user);
+        verify(userResolver, never()).resolve(any(), any());
         verify(reservationDAO, never()).update(reservation);
     }
 
@@ -865,7 +1139,6 @@ class ReservationServiceImplTest {
         SurfaceType surfaceType = new SurfaceType();
         surfaceType.setMinutePrice(BigDecimal.valueOf(1));
 
-        User user = new User();
 
         ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
         reservationResponseDTO.setPrice(BigDecimal.valueOf(120));
@@ -874,11 +1147,11 @@ class ReservationServiceImplTest {
 
         // Act and Assert
         assertThrows(ReservationValidationException.class, () ->
-                        reservationService.updateReservation(reservationDTO, reservationId),
+                        reservationService.updateReservation(reservationDTO, reservationId, null),
                 "Should throw ReservationValidationException");
 
         // Verify
-        verify(userDAO, never()).save(user);
+        verify(userResolver, never()).resolve(any(), any());
         verify(reservationDAO, never()).update(reservation);
     }
 
@@ -916,7 +1189,6 @@ class ReservationServiceImplTest {
         SurfaceType surfaceType = new SurfaceType();
         surfaceType.setMinutePrice(BigDecimal.valueOf(1));
 
-        User user = new User();
 
         ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
         reservationResponseDTO.setPrice(BigDecimal.valueOf(120));
@@ -925,11 +1197,11 @@ class ReservationServiceImplTest {
 
         // Act and Assert
         assertThrows(ReservationValidationException.class, () ->
-                        reservationService.updateReservation(reservationDTO, reservationId),
+                        reservationService.updateReservation(reservationDTO, reservationId, null),
                 "Should throw ReservationValidationException");
 
         // Verify
-        verify(userDAO, never()).save(user);
+        verify(userResolver, never()).resolve(any(), any());
         verify(reservationDAO, never()).update(reservation);
     }
 
@@ -939,9 +1211,13 @@ class ReservationServiceImplTest {
         // Arrange
         Long reservationId = 1L;
 
+        User user = new User();
+        user.setPhoneNumber("+420 111 222 333");
+
         Reservation reservation = new Reservation();
         reservation.setId(reservationId);
         reservation.setDeleted(false);
+        reservation.setUser(user);
 
         Optional<Reservation> optionalReservation = Optional.of(reservation);
 
@@ -956,6 +1232,8 @@ class ReservationServiceImplTest {
 
         // Verify
         verify(reservationDAO, times(1)).update(reservation);
+        verify(collectionVersions, times(1)).reservationsChanged("+420 111 222 333");
+        verify(bookingMetrics, times(1)).cancelled();
 
     }
 
@@ -978,4 +1256,291 @@ class ReservationServiceImplTest {
         verify(reservationDAO, never()).update(any(Reservation.class));
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Throw exception if warm index reports an overlapping reservation without querying the database")
+    void createReservation_warmIndexWithOverlappingReservation_ShouldReturnReservationValidationException() {
+
+        // Arrange
+        int courtNumber = 101;
+
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now().
+                plusDays(1), LocalTime.of(10,0));
+        LocalDateTime endTime = startTime.plusHours(1);
+
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setStartTime(startTime);
+        reservationDTO.setEndTime(endTime);
+        reservationDTO.setCourtNumber(courtNumber);
+        reservationDTO.setGameType(GameType.SINGLES);
+
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.hasOverlappingReservation(courtNumber, startTime, endTime, null)).thenReturn(true);
+
+        // Act and Assert
+        assertThrows(ReservationValidationException.class, () -> reservationService.createReservation(reservationDTO),
+                "Should throw ReservationValidationException");
+
+        // Verify
+        verify(reservationDAO, never()).findAllByDateAndCourtNumber(any(LocalDateTime.class), anyInt(), any());
+        verify(reservationDAO, never()).create(any(Reservation.class));
+        verify(reservationIndex, times(1)).refresh(Set.of(new CourtDayKey(courtNumber, startTime.toLocalDate())));
+        verify(bookingMetrics, times(1)).rejected(RejectionReason.OVERLAP);
+    }
+
+    @Test
+    @DisplayName("Count a reservation outside the opening hours under its first broken rule only")
+    void createReservation_outsideOpeningHoursAndOverlapping_countOpeningHoursRejection() {
+
+        // Arrange
+        int courtNumber = 101;
+
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now().
+                plusDays(1), LocalTime.of(21,30));
+        LocalDateTime endTime = startTime.plusHours(1);             // 22:30, after closing time
+
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setStartTime(startTime);
+        reservationDTO.setEndTime(endTime);
+        reservationDTO.setCourtNumber(courtNumber);
+        reservationDTO.setGameType(GameType.SINGLES);
+
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.hasOverlappingReservation(courtNumber, startTime, endTime, null)).thenReturn(true);
+
+        // Act and Assert
+        assertThrows(ReservationValidationException.class, () -> reservationService.createReservation(reservationDTO),
+                "Should throw ReservationValidationException");
+
+        // Verify
+        verify(bookingMetrics, times(1)).rejected(RejectionReason.OUTSIDE_OPENING_HOURS);
+        verify(bookingMetrics, never()).rejected(RejectionReason.OVERLAP);
+    }
+
+    @Test
+    @DisplayName("Create reservation using warm index and publish it to the index")
+    void createReservation_warmIndexWithoutOverlappingReservation_ShouldCreateAndIndexReservation() {
+
+        // Arrange
+        int courtNumber = 101;
+
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now().
+                plusDays(1), LocalTime.of(10,0));
+        LocalDateTime endTime = startTime.plusHours(1);
+
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setStartTime(startTime);
+        reservationDTO.setEndTime(endTime);
+        reservationDTO.setCourtNumber(courtNumber);
+        reservationDTO.setGameType(GameType.SINGLES);
+
+        SurfaceType surfaceType = new SurfaceType();
+        surfaceType.setMinutePrice(BigDecimal.valueOf(1));
+
+        Court court = new Court();
+        court.setCourtNumber(courtNumber);
+        court.setSurfaceType(surfaceType);
+
+        Reservation reservation = new Reservation();
+        Reservation newReservation = new Reservation();
+        newReservation.setId(7L);
+
+        ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
+
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.hasOverlappingReservation(courtNumber, startTime, endTime, null)).thenReturn(false);
+        when(courtDAO.findCurrentByCourtNumber(courtNumber)).thenReturn(Optional.of(court));
+        when(userResolver.resolve(reservationDTO.getPhoneNumber(), reservationDTO.getUserName())).thenReturn(new UserIdentity(5L, reservationDTO.getPhoneNumber(), reservationDTO.getUserName()));
+        when(reservationMapper.toReservationEntity(reservationDTO)).thenReturn(reservation);
+        when(reservationDAO.create(reservation)).thenReturn(newReservation);
+        when(reservationMapper.toReservationResponseDTO(eq(newReservation), eq(courtNumber), any(UserIdentity.class))).thenReturn(reservationResponseDTO);
+
+        // Act
+        ReservationResponseDTO actual = reservationService.createReservation(reservationDTO);
+
+        // Assert
+        assertEquals(reservationResponseDTO, actual, "Should return same object");
+
+        // Verify
+        verify(reservationDAO, never()).findAllByDateAndCourtNumber(any(LocalDateTime.class), anyInt(), any());
+        verify(reservationIndex, times(1)).put(argThat(interval ->
+                interval.getId().equals(7L) && interval.getCourtNumber() == courtNumber &&
+                        interval.getStartTime().equals(startTime) && interval.getEndTime().equals(endTime)));
+    }
+
+    @Test
+    @DisplayName("Create reservation over a reservation another instance cancelled after refreshing the court-day")
+    void createReservation_staleIndexOverlap_ShouldRefreshCourtDayAndCreate() {
+
+        // Arrange
+        int courtNumber = 101;
+
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now().
+                plusDays(1), LocalTime.of(10,0));
+        LocalDateTime endTime = startTime.plusHours(1);
+
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setStartTime(startTime);
+        reservationDTO.setEndTime(endTime);
+        reservationDTO.setCourtNumber(courtNumber);
+        reservationDTO.setGameType(GameType.SINGLES);
+
+        SurfaceType surfaceType = new SurfaceType();
+        surfaceType.setMinutePrice(BigDecimal.valueOf(1));
+
+        Court court = new Court();
+        court.setCourtNumber(courtNumber);
+        court.setSurfaceType(surfaceType);
+
+        Reservation reservation = new Reservation();
+        Reservation newReservation = new Reservation();
+        newReservation.setId(7L);
+
+        ReservationResponseDTO reservationResponseDTO = new ReservationResponseDTO();
+
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.hasOverlappingReservation(courtNumber, startTime, endTime, null)).thenReturn(true, false);
+        when(courtDAO.findCurrentByCourtNumber(courtNumber)).thenReturn(Optional.of(court));
+        when(userResolver.resolve(reservationDTO.getPhoneNumber(), reservationDTO.getUserName())).thenReturn(new UserIdentity(5L, reservationDTO.getPhoneNumber(), reservationDTO.getUserName()));
+        when(reservationMapper.toReservationEntity(reservationDTO)).thenReturn(reservation);
+        when(reservationDAO.create(reservation)).thenReturn(newReservation);
+        when(reservationMapper.toReservationResponseDTO(eq(newReservation), eq(courtNumber), any(UserIdentity.class))).thenReturn(reservationResponseDTO);
+
+        // Act
+        ReservationResponseDTO actual = reservationService.createReservation(reservationDTO);
+
+        // Assert
+        assertEquals(reservationResponseDTO, actual, "Should return same object");
+
+        // Verify
+        var inOrder = inOrder(reservationIndex);
+        inOrder.verify(reservationIndex).hasOverlappingReservation(courtNumber, startTime, endTime, null);
+        inOrder.verify(reservationIndex).refresh(Set.of(new CourtDayKey(courtNumber, startTime.toLocalDate())));
+        inOrder.verify(reservationIndex).hasOverlappingReservation(courtNumber, startTime, endTime, null);
+        verify(bookingMetrics, never()).rejected(RejectionReason.OVERLAP);
+    }
+
+    @Test
+    @DisplayName("Create reservation locks its court-day before the overlap check")
+    void createReservation_validDTO_ShouldLockCourtDayBeforeOverlapCheck() {
+
+        // Arrange
+        int courtNumber = 101;
+
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now().
+                plusDays(1), LocalTime.of(10,0));
+        LocalDateTime endTime = startTime.plusHours(1);
+
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setStartTime(startTime);
+        reservationDTO.setEndTime(endTime);
+        reservationDTO.setCourtNumber(courtNumber);
+        reservationDTO.setGameType(GameType.SINGLES);
+
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.hasOverlappingReservation(courtNumber, startTime, endTime, null)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(ReservationValidationException.class, () ->
+                        reservationService.createReservation(reservationDTO),
+                "Should throw ReservationValidationException");
+
+        // Verify
+        var inOrder = inOrder(reservationLockManager, reservationIndex);
+        inOrder.verify(reservationLockManager).callInTransaction(
+                eq(Set.of(new CourtDayKey(courtNumber, startTime.toLocalDate()))), any());
+        inOrder.verify(reservationIndex).hasOverlappingReservation(courtNumber, startTime, endTime, null);
+    }
+
+    @Test
+    @DisplayName("Update reservation moved to another court locks both court-days")
+    void updateReservation_movedToAnotherCourtAndDay_ShouldLockBothCourtDays() {
+
+        // Arrange
+        Long reservationId = 5L;
+        int oldCourtNumber = 102;
+        int courtNumber = 101;
+
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now().
+                plusDays(2), LocalTime.of(10,0));
+        LocalDateTime endTime = startTime.plusHours(1);
+
+        LocalDateTime oldStartTime = startTime.minusDays(1);
+
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setStartTime(startTime);
+        reservationDTO.setEndTime(endTime);
+        reservationDTO.setCourtNumber(courtNumber);
+        reservationDTO.setGameType(GameType.SINGLES);
+
+        ReservationInterval current =
+                new ReservationInterval(reservationId, oldCourtNumber, oldStartTime, oldStartTime.plusHours(1));
+
+        when(reservationDAO.findIntervalById(reservationId)).thenReturn(Optional.of(current));
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.hasOverlappingReservation(courtNumber, startTime, endTime, reservationId)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(ReservationValidationException.class, () ->
+                        reservationService.updateReservation(reservationDTO, reservationId, null),
+                "Should throw ReservationValidationException");
+
+        // Verify
+        verify(reservationLockManager, times(1)).lockUntilCompletion(Set.of(
+                new CourtDayKey(courtNumber, startTime.toLocalDate()),
+                new CourtDayKey(oldCourtNumber, oldStartTime.toLocalDate())));
+    }
+
+    @Test
+    @DisplayName("Create reservation whose slots are already claimed by another instance")
+    void createReservation_slotsAlreadyClaimed_ShouldReturnReservationValidationException() {
+
+        // Arrange
+        int courtNumber = 101;
+
+        LocalDateTime startTime = LocalDateTime.of(LocalDate.now().
+                plusDays(1), LocalTime.of(10,0));
+        LocalDateTime endTime = startTime.plusHours(1);
+
+        ReservationDTO reservationDTO = new ReservationDTO();
+        reservationDTO.setStartTime(startTime);
+        reservationDTO.setEndTime(endTime);
+        reservationDTO.setCourtNumber(courtNumber);
+        reservationDTO.setGameType(GameType.SINGLES);
+
+        SurfaceType surfaceType = new SurfaceType();
+        surfaceType.setMinutePrice(BigDecimal.valueOf(1));
+
+        Court court = new Court();
+        court.setId(3L);
+        court.setCourtNumber(courtNumber);
+        court.setSurfaceType(surfaceType);
+
+        Reservation reservation = new Reservation();
+        Reservation newReservation = new Reservation();
+        newReservation.setId(7L);
+
+
+        when(reservationIndex.isWarm()).thenReturn(true);
+        when(reservationIndex.hasOverlappingReservation(courtNumber, startTime, endTime, null)).thenReturn(false);
+        when(courtDAO.findCurrentByCourtNumber(courtNumber)).thenReturn(Optional.of(court));
+        when(userResolver.resolve(reservationDTO.getPhoneNumber(), reservationDTO.getUserName())).thenReturn(new UserIdentity(5L, reservationDTO.getPhoneNumber(), reservationDTO.getUserName()));
+        when(reservationMapper.toReservationEntity(reservationDTO)).thenReturn(reservation);
+        when(reservationDAO.create(reservation)).thenReturn(newReservation);
+        doThrow(new DuplicateKeyException("uk_reservation_slot_court_slot_start"))
+                .when(reservationSlotDAO).claim(3L, 7L, startTime, endTime);
+
+        // Act & Assert
+        assertThrows(ReservationValidationException.class, () ->
+                        reservationService.createReservation(reservationDTO),
+                "Should throw ReservationValidationException");
+
+        // Verify
+        verify(reservationIndex, never()).put(any());
+        verify(reservationMapper, never()).toReservationResponseDTO(any(), anyInt(), any());
+
+        // Verify
+        verify(bookingMetrics, times(1)).rejected(RejectionReason.OVERLAP);
+        verify(bookingMetrics, never()).created(anyInt());
+    }
+}
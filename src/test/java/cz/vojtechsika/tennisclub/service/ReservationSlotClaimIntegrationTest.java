@@ -0,0 +1,152 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.TennisClubApplication;
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dto.ReservationDTO;
+import cz.vojtechsika.tennisclub.dto.projection.ReservationInterval;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import cz.vojtechsika.tennisclub.exception.ReservationValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs two application instances against one file-backed H2 database. The instances do not share any
+ * in-memory state (index, locks), so overlapping bookings can only be refused by the slot claim table.
+ */
+class ReservationSlotClaimIntegrationTest {
+
+    private static final int THREADS_PER_INSTANCE = 6;
+
+    private static final int BOOKINGS_PER_THREAD = 10;
+
+    private static final int COURT_NUMBER = 101;
+
+    @TempDir
+    private Path databaseDirectory;
+
+    private ConfigurableApplicationContext firstInstance;
+
+    private ConfigurableApplicationContext secondInstance;
+
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:h2:file:" + databaseDirectory.resolve("tennisdb").toAbsolutePath();
+        firstInstance = startInstance(url, true);
+        secondInstance = startInstance(url, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (secondInstance != null) {
+            secondInstance.close();
+        }
+        if (firstInstance != null) {
+            firstInstance.close();
+        }
+    }
+
+
+    @Test
+    @DisplayName("Two instances booking the same slots concurrently never store overlapping reservations")
+    void createReservation_twoInstancesSameSlots_noOverlappingReservations() throws Exception {
+
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(7);
+        List<ReservationService> services = List.of(
+                firstInstance.getBean(ReservationService.class),
+                secondInstance.getBean(ReservationService.class));
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Callable<Integer>> workers = new ArrayList<>();
+        for (int i = 0; i < 2 * THREADS_PER_INSTANCE; i++) {
+            ReservationService service = services.get(i % 2);
+            String phoneNumber = "+420 777 000 0" + (10 + i);
+            workers.add(() -> {
+                start.await();
+                int created = 0;
+                for (int j = 0; j < BOOKINGS_PER_THREAD; j++) {
+                    // 60 minute windows starting every 15 minutes between 12:00 and 13:45 overlap heavily
+                    LocalDateTime startTime = date.atTime(LocalTime.of(12, 0))
+                            .plusMinutes(15L * ThreadLocalRandom.current().nextInt(8));
+                    ReservationDTO reservationDTO = new ReservationDTO("Player", phoneNumber,
+                            startTime, startTime.plusMinutes(60), COURT_NUMBER, GameType.SINGLES);
+                    try {
+                        service.createReservation(reservationDTO);
+                        created++;
+                    } catch (ReservationValidationException e) {
+                        // slot already taken by another booking
+                    }
+                }
+                return created;
+            });
+        }
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(workers.size());
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            workers.forEach(worker -> results.add(executor.submit(worker)));
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+        int created = 0;
+        for (Future<Integer> result : results) {
+            created += result.get();
+        }
+
+        // Assert
+        List<ReservationInterval> stored = firstInstance.getBean(ReservationDAO.class)
+                .findAllIntervalsByCourtNumberBetween(COURT_NUMBER, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+
+        assertTrue(created > 0, "At least one booking should succeed");
+        assertEquals(created, stored.size(), "Every successful booking should be stored");
+
+        for (int i = 1; i < stored.size(); i++) {
+            assertFalse(stored.get(i).getStartTime().isBefore(stored.get(i - 1).getEndTime()),
+                    "Stored reservations must not overlap: " + stored.get(i - 1).getId() + " and " + stored.get(i).getId());
+        }
+
+        long claimedMinutes = stored.stream()
+                .mapToLong(r -> Duration.between(r.getStartTime(), r.getEndTime()).toMinutes())
+                .sum();
+        Long claims = firstInstance.getBean(JdbcTemplate.class)
+                .queryForObject("SELECT COUNT(*) FROM reservation_slot", Long.class);
+        assertEquals(claimedMinutes, claims, "Every reserved minute should be claimed exactly once");
+    }
+
+
+    // Starts a non-web application instance on the shared database
+    private static ConfigurableApplicationContext startInstance(String url, boolean initData) {
+        return new SpringApplicationBuilder(TennisClubApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.h2.console.enabled=false",
+                        "--spring.jmx.enabled=false",
+                        "--app.init.data=" + initData);
+    }
+}
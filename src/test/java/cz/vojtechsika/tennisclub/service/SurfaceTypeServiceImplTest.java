@@ -1,6 +1,10 @@
 package cz.vojtechsika.tennisclub.service;
 
+import cz.vojtechsika.tennisclub.cache.CatalogCache;
+import cz.vojtechsika.tennisclub.cache.CollectionVersions;
 import cz.vojtechsika.tennisclub.dao.CourtDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationDAO;
+import cz.vojtechsika.tennisclub.dao.ReservationSlotDAO;
 import cz.vojtechsika.tennisclub.dao.SurfaceTypeDAO;
 import cz.vojtechsika.tennisclub.dto.SurfaceTypeDTO;
 import cz.vojtechsika.tennisclub.dto.mapper.SurfaceTypeMapper;
@@ -8,6 +12,9 @@ import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
 import cz.vojtechsika.tennisclub.entity.Court;
 import cz.vojtechsika.tennisclub.entity.SurfaceType;
 import cz.vojtechsika.tennisclub.exception.SurfaceTypeNotFoundException;
+import cz.vojtechsika.tennisclub.exception.VersionMismatchException;
+import cz.vojtechsika.tennisclub.index.ReservationIndex;
+import cz.vojtechsika.tennisclub.tariff.TariffEngine;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -35,7 +42,22 @@ class SurfaceTypeServiceImplTest {
     private CourtDAO courtDAO;
 
     @Mock
-    private CourtService courtService;
+    private ReservationDAO reservationDAO;
+
+    @Mock
+    private ReservationSlotDAO reservationSlotDAO;
+
+    @Mock
+    private ReservationIndex reservationIndex;
+
+    @Mock
+    private CatalogCache catalogCache;
+
+    @Mock
+    private TariffEngine tariffEngine;
+
+    @Mock
+    private CollectionVersions collectionVersions;
 
     @InjectMocks
     private SurfaceTypeServiceImpl surfaceTypeService;
@@ -67,7 +89,8 @@ class SurfaceTypeServiceImplTest {
        surfaceTypeResponseDTO = new SurfaceTypeResponseDTO(
                 surfaceTypeId,
                 surfaceTypeName,
-                minutePrice
+                minutePrice,
+                0L
         );
 
         // Set SurfaceType from mapper mock
@@ -115,17 +138,20 @@ class SurfaceTypeServiceImplTest {
         Optional<SurfaceType> optionalSurfaceType = Optional.of(surfaceType);
 
         when(surfaceTypeDAO.findById(existSurfaceTypeId)).thenReturn(optionalSurfaceType);
-        when(surfaceTypeMapper.toEntity(surfaceTypeDTO)).thenReturn(surfaceType);
+        when(surfaceTypeMapper.updateSurfaceTypeFromDTO(surfaceTypeDTO, surfaceType)).thenReturn(surfaceType);
         when(surfaceTypeDAO.update(surfaceType)).thenReturn(saveSurfaceType);
         when( surfaceTypeMapper.toResponseDTO(saveSurfaceType)).thenReturn(surfaceTypeResponseDTO);
 
         // Act
-        SurfaceTypeResponseDTO actual = surfaceTypeService.updateSurfaceType(surfaceTypeDTO, existSurfaceTypeId);
+        SurfaceTypeResponseDTO actual = surfaceTypeService.updateSurfaceType(surfaceTypeDTO, existSurfaceTypeId, null);
 
         // Assort
         assertEquals(surfaceTypeResponseDTO, actual,
                 "Returned SurfaceTypeResponseDTO should be the same instance as expected.");
 
+        // Verify
+        verify(catalogCache, times(1)).evictSurfaceType(existSurfaceTypeId);
+        verify(tariffEngine, times(1)).evictSurfaceType(existSurfaceTypeId);
     }
 
     @Test
@@ -141,11 +167,30 @@ class SurfaceTypeServiceImplTest {
 
         // Assort and Assert
         assertThrows(SurfaceTypeNotFoundException.class, () ->
-                surfaceTypeService.updateSurfaceType(surfaceTypeDTO, nonExistentSurfaceTypeId),
+                surfaceTypeService.updateSurfaceType(surfaceTypeDTO, nonExistentSurfaceTypeId, null),
                 "Should throw SurfaceTypeNotFoundException");
 
     }
 
+    @Test
+    @DisplayName("Update SurfaceType with stale expected version")
+    void updateSurfaceType_withStaleVersion_shouldReturnVersionMismatchException() {
+
+        // Arrange
+        Long existSurfaceTypeId = 1L;
+        surfaceType.setVersion(3L);
+
+        when(surfaceTypeDAO.findById(existSurfaceTypeId)).thenReturn(Optional.of(surfaceType));
+
+        // Act and Assert
+        assertThrows(VersionMismatchException.class, () ->
+                surfaceTypeService.updateSurfaceType(surfaceTypeDTO, existSurfaceTypeId, 2L),
+                "Should throw VersionMismatchException");
+
+        // Verify
+        verify(surfaceTypeDAO, never()).update(any());
+    }
+
     @Test
     @DisplayName("Delete SurfaceType by ID and no exited connected courts")
     void deleteSurfaceType_validSurfaceTypeIdAndNoExistedCourts_shouldReturnTrue() {
@@ -205,8 +250,15 @@ class SurfaceTypeServiceImplTest {
         assertTrue(surfaceType.isDeleted(), "Deleted SurfaceType should be deleted.");
 
         // Verify
-        verify(courtService, times(1)).deleteCourt(courtId1);
-        verify(courtService, times(1)).deleteCourt(courtId2);
+        verify(reservationDAO, times(1)).softDeleteAllBySurfaceTypeId(existSurfaceTypeId);
+        verify(reservationSlotDAO, times(1)).releaseBySurfaceTypeId(existSurfaceTypeId);
+        verify(courtDAO, times(1)).softDeleteAllBySurfaceTypeId(existSurfaceTypeId);
+        verify(courtDAO, never()).update(any());
+        verify(reservationIndex, times(1)).removeCourt(courtNumber1);
+        verify(reservationIndex, times(1)).removeCourt(courtNumber2);
+        verify(catalogCache, times(1)).evictSurfaceType(existSurfaceTypeId);
+        verify(tariffEngine, times(1)).evictSurfaceType(existSurfaceTypeId);
+        verify(collectionVersions, times(1)).allReservationsChanged();
 
     }
 
@@ -229,10 +281,8 @@ class SurfaceTypeServiceImplTest {
 
         // Arrange
         Long existSurfaceTypeId = 1L;
-        Optional<SurfaceType> optionalSurfaceType = Optional.of(surfaceType);
 
-        when(surfaceTypeDAO.findById(existSurfaceTypeId)).thenReturn(optionalSurfaceType);
-        when(surfaceTypeMapper.toResponseDTO(optionalSurfaceType.get())).thenReturn(surfaceTypeResponseDTO);
+        when(catalogCache.findSurfaceTypeById(existSurfaceTypeId)).thenReturn(Optional.of(surfaceTypeResponseDTO));
 
         // Act
         SurfaceTypeResponseDTO actual = surfaceTypeService.getSurfaceTypeById(existSurfaceTypeId);
@@ -249,9 +299,8 @@ class SurfaceTypeServiceImplTest {
 
         // Arrange
         Long nonExistSurfaceTypeId = 999L;
-        Optional<SurfaceType> optionalSurfaceType = Optional.empty();
 
-        when(surfaceTypeDAO.findById(nonExistSurfaceTypeId)).thenReturn(optionalSurfaceType);
+        when(catalogCache.findSurfaceTypeById(nonExistSurfaceTypeId)).thenReturn(Optional.empty());
 
         // Act and Assert
         assertThrows(SurfaceTypeNotFoundException.class, () ->
@@ -266,21 +315,6 @@ class SurfaceTypeServiceImplTest {
     void getAllSurfaceTypes_shouldReturnAllSurfaceTypesResponseDTO() {
 
         // Arrange
-        SurfaceType surfaceType1 = new SurfaceType();
-        surfaceType1.setId(1L);
-        surfaceType1.setName("Clay");
-        surfaceType1.setMinutePrice(BigDecimal.valueOf(10));
-        surfaceType1.setDeleted(false);
-
-        SurfaceType surfaceType2 = new SurfaceType();
-        surfaceType2.setId(2L);
-        surfaceType2.setName("Grass");
-        surfaceType2.setMinutePrice(BigDecimal.valueOf(10));
-        surfaceType2.setDeleted(false);
-
-        List<SurfaceType> surfaceTypes = List.of(surfaceType1, surfaceType2);
-
-
         SurfaceTypeResponseDTO surfaceTypeResponseDTO1 = new SurfaceTypeResponseDTO();
         surfaceTypeResponseDTO1.setId(1L);
         surfaceTypeResponseDTO1.setName("Clay");
@@ -294,9 +328,7 @@ class SurfaceTypeServiceImplTest {
         List<SurfaceTypeResponseDTO> surfaceTypesResponseDTOs = List.of(
                 surfaceTypeResponseDTO1, surfaceTypeResponseDTO2);
 
-        when(surfaceTypeDAO.findAll()).thenReturn(surfaceTypes);
-        when(surfaceTypeMapper.toResponseDTO(surfaceType1)).thenReturn(surfaceTypeResponseDTO1);
-        when(surfaceTypeMapper.toResponseDTO(surfaceType2)).thenReturn(surfaceTypeResponseDTO2);
+        when(catalogCache.findAllSurfaceTypes()).thenReturn(surfaceTypesResponseDTOs);
 
         // Act
         List<SurfaceTypeResponseDTO> actual = surfaceTypeService.getAllSurfaceTypes();
@@ -312,8 +344,7 @@ class SurfaceTypeServiceImplTest {
     void getAllSurfaceTypes_shouldReturnSurfaceTypeNotFoundException() {
 
         // Arrange
-        List<SurfaceType> surfaceTypes = List.of();
-        when(surfaceTypeDAO.findAll()).thenReturn(surfaceTypes);
+        when(catalogCache.findAllSurfaceTypes()).thenReturn(List.of());
 
         // Act and Assort
         assertThrows(SurfaceTypeNotFoundException.class, () -> surfaceTypeService.getAllSurfaceTypes(),
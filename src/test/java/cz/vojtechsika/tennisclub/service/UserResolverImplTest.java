@@ -0,0 +1,124 @@
+package cz.vojtechsika.tennisclub.service;
+
+import cz.vojtechsika.tennisclub.cache.UserIdCache;
+import cz.vojtechsika.tennisclub.dao.ReservationBatchDAO;
+import cz.vojtechsika.tennisclub.dao.UserDAO;
+import cz.vojtechsika.tennisclub.dto.projection.UserIdentity;
+import cz.vojtechsika.tennisclub.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserResolverImplTest {
+
+    @Mock
+    private UserDAO userDAO;
+
+    @Mock
+    private ReservationBatchDAO reservationBatchDAO;
+
+    @Mock
+    private UserIdCache userIdCache;
+
+    private UserResolverImpl userResolver;
+
+
+    @BeforeEach
+    void setUp() {
+        userResolver = new UserResolverImpl(userDAO, reservationBatchDAO, userIdCache);
+    }
+
+
+    @Test
+    @DisplayName("Unchanged user with a cached ID is resolved by the upsert alone")
+    void resolve_unchangedAndCached_noIdQuery() {
+
+        // Arrange
+        when(userIdCache.findId("123456789")).thenReturn(Optional.of(7L));
+        when(userDAO.upsertIfChanged("123456789", "John")).thenReturn(Optional.empty());
+
+        // Act
+        UserIdentity actual = userResolver.resolve("123456789", "John");
+
+        // Assert
+        assertEquals(7L, actual.getId(), "Cached ID should be returned");
+        assertEquals("John", actual.getUserName(), "User name mismatch");
+
+        // Verify
+        verify(userDAO, never()).findIdByPhone(anyString());
+        verify(userIdCache, never()).put(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Unchanged user missing in the cache has its ID read and cached")
+    void resolve_unchangedNotCached_readAndCacheId() {
+
+        // Arrange
+        when(userIdCache.findId("123456789")).thenReturn(Optional.empty());
+        when(userDAO.upsertIfChanged("123456789", "John")).thenReturn(Optional.empty());
+        when(userDAO.findIdByPhone("123456789")).thenReturn(7L);
+
+        // Act
+        UserIdentity actual = userResolver.resolve("123456789", "John");
+
+        // Assert
+        assertEquals(7L, actual.getId(), "Read ID should be returned");
+
+        // Verify
+        verify(userIdCache, times(1)).put("123456789", 7L);
+    }
+
+    @Test
+    @DisplayName("Written user is resolved to the ID of the merged row under the given name")
+    void resolve_rowWritten_returnMergedId() {
+
+        // Arrange
+        when(userIdCache.findId("123456789")).thenReturn(Optional.of(7L));
+        when(userDAO.upsertIfChanged("123456789", "Renamed")).thenReturn(Optional.of(7L));
+
+        // Act
+        UserIdentity actual = userResolver.resolve("123456789", "Renamed");
+
+        // Assert
+        assertEquals(7L, actual.getId(), "ID of the merged row should be returned");
+        assertEquals("Renamed", actual.getUserName(), "Given name should be returned");
+
+        // Verify
+        verify(userDAO, never()).findIdByPhone(anyString());
+    }
+
+    @Test
+    @DisplayName("Users of a batch are upserted with one batch and their IDs cached")
+    void resolveAll_twoUsers_upsertBatchAndCacheIds() {
+
+        // Arrange
+        User first = new User();
+        first.setPhoneNumber("111111111");
+        User second = new User();
+        second.setPhoneNumber("222222222");
+        List<User> users = List.of(first, second);
+        doAnswer(invocation -> {
+            first.setId(1L);
+            second.setId(2L);
+            return null;
+        }).when(reservationBatchDAO).upsertUsers(users);
+
+        // Act
+        userResolver.resolveAll(users);
+
+        // Verify
+        verify(reservationBatchDAO, times(1)).upsertUsers(users);
+        verify(userIdCache, times(1)).put("111111111", 1L);
+        verify(userIdCache, times(1)).put("222222222", 2L);
+    }
+}
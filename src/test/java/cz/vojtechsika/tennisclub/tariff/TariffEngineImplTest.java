@@ -0,0 +1,163 @@
+package cz.vojtechsika.tennisclub.tariff;
+
+import cz.vojtechsika.tennisclub.dto.response.SurfaceTypeResponseDTO;
+import cz.vojtechsika.tennisclub.entity.SurfaceType;
+import cz.vojtechsika.tennisclub.enums.GameType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TariffEngineImplTest {
+
+    private static final LocalDate MONDAY = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    private static final LocalDate SATURDAY = MONDAY.with(TemporalAdjusters.next(DayOfWeek.SATURDAY));
+
+    private final SurfaceTypeResponseDTO clay = new SurfaceTypeResponseDTO(1L, "Clay", new BigDecimal("1.00"), 0);
+
+    private final SurfaceTypeResponseDTO grass = new SurfaceTypeResponseDTO(2L, "Grass", new BigDecimal("1.00"), 0);
+
+    private TariffEngineImpl tariffEngine;
+
+
+    @BeforeEach
+    void setUp() {
+        tariffEngine = new TariffEngineImpl(new TariffProperties());
+    }
+
+
+    @Test
+    @DisplayName("Default rules charge the minute price per minute and double it for doubles")
+    void price_defaultRules_returnMinutePriceTimesMinutes() {
+
+        // Arrange
+        SurfaceType surfaceType = new SurfaceType();
+        surfaceType.setId(3L);
+        surfaceType.setName("Hard");
+        surfaceType.setMinutePrice(new BigDecimal("1.55"));
+
+        // Act
+        BigDecimal singles = tariffEngine.price(surfaceType, SATURDAY.atTime(10, 0), SATURDAY.atTime(11, 30),
+                GameType.SINGLES);
+        BigDecimal doubles = tariffEngine.price(surfaceType, SATURDAY.atTime(10, 0), SATURDAY.atTime(11, 30),
+                GameType.DOUBLES);
+
+        // Assert
+        assertEquals(new BigDecimal("139.50"), singles, "Singles should pay 90 minutes of the minute price");
+        assertEquals(new BigDecimal("279.00"), doubles, "Doubles should pay twice as much");
+    }
+
+    @Test
+    @DisplayName("Peak, weekend, surface and game type rules multiply for each minute they apply to")
+    void priceInCents_allRules_applyRulesPerMinute() {
+
+        // Arrange
+        TariffProperties rules = new TariffProperties();
+        rules.setPeakStart(LocalTime.of(17, 0));
+        rules.setPeakEnd(LocalTime.of(21, 0));
+        rules.setPeakPercent(150);
+        rules.setWeekendPercent(120);
+        rules.setSurfacePercent(Map.of("clay", 90));
+        rules.setGameTypePercent(Map.of(GameType.DOUBLES, 180));
+        tariffEngine = new TariffEngineImpl(rules);
+
+        LocalDateTime weekdayStart = MONDAY.atTime(16, 30);
+        LocalDateTime weekendStart = SATURDAY.atTime(16, 30);
+
+        // Act & Assert
+        assertEquals(30 * 100 + 30 * 150, tariffEngine.priceInCents(grass, weekdayStart, weekdayStart.plusHours(1),
+                GameType.SINGLES), "Half of the hour should be charged as peak");
+        assertEquals((30 * 100 + 30 * 150) * 120 / 100, tariffEngine.priceInCents(grass, weekendStart,
+                weekendStart.plusHours(1), GameType.SINGLES), "Weekend should be charged on top of the peak");
+        assertEquals((30 * 100 + 30 * 150) * 90 / 100, tariffEngine.priceInCents(clay, weekdayStart,
+                weekdayStart.plusHours(1), GameType.SINGLES), "Surface rule should match the name ignoring case");
+        assertEquals((30 * 100 + 30 * 150) * 180 / 100, tariffEngine.priceInCents(grass, weekdayStart,
+                weekdayStart.plusHours(1), GameType.DOUBLES), "Doubles should be charged with their percentage");
+    }
+
+    @Test
+    @DisplayName("Price is rounded to cents once, not minute by minute")
+    void priceInCents_fractionalMinutePrices_roundTotalOnce() {
+
+        // Arrange
+        TariffProperties rules = new TariffProperties();
+        rules.setPeakPercent(150);
+        tariffEngine = new TariffEngineImpl(rules);
+        SurfaceTypeResponseDTO cheap = new SurfaceTypeResponseDTO(4L, "Cheap", new BigDecimal("0.01"), 0);
+
+        // Act
+        long cents = tariffEngine.priceInCents(cheap, MONDAY.atTime(17, 0), MONDAY.atTime(17, 3), GameType.SINGLES);
+
+        // Assert
+        assertEquals(5, cents, "Three minutes of 1.5 cents should round half up to 5 cents");
+    }
+
+    @Test
+    @DisplayName("Surface type priced with a new version is compiled again with its new minute price")
+    void priceInCents_newSurfaceTypeVersion_useNewMinutePrice() {
+
+        // Arrange
+        LocalDateTime startTime = MONDAY.atTime(10, 0);
+        tariffEngine.priceInCents(clay, startTime, startTime.plusHours(1), GameType.SINGLES);
+        SurfaceTypeResponseDTO changedClay = new SurfaceTypeResponseDTO(1L, "Clay", new BigDecimal("2.00"), 1);
+
+        // Act
+        long changedPrice = tariffEngine.priceInCents(changedClay, startTime, startTime.plusHours(1), GameType.SINGLES);
+        long stalePrice = tariffEngine.priceInCents(clay, startTime, startTime.plusHours(1), GameType.SINGLES);
+
+        // Assert
+        assertEquals(12_000, changedPrice, "New version should be priced with the new minute price");
+        assertEquals(6_000, stalePrice, "Caller with the old version should get the price it has seen");
+        assertEquals(12_000, tariffEngine.priceInCents(changedClay, startTime, startTime.plusHours(1),
+                GameType.SINGLES), "Old version should not replace the compiled new version");
+    }
+
+    @Test
+    @DisplayName("Negative percentage should throw IllegalArgumentException")
+    void constructor_negativePercentage_throwIllegalArgumentException() {
+
+        // Arrange
+        TariffProperties rules = new TariffProperties();
+        rules.setWeekendPercent(-10);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new TariffEngineImpl(rules),
+                "Should throw IllegalArgumentException");
+    }
+
+    @Test
+    @DisplayName("Peak hours ending before they start should throw IllegalArgumentException")
+    void constructor_reversedPeakHours_throwIllegalArgumentException() {
+
+        // Arrange
+        TariffProperties rules = new TariffProperties();
+        rules.setPeakStart(LocalTime.of(20, 0));
+        rules.setPeakEnd(LocalTime.of(18, 0));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new TariffEngineImpl(rules),
+                "Should throw IllegalArgumentException");
+    }
+
+    @Test
+    @DisplayName("Interval reaching into the next day should throw IllegalArgumentException")
+    void priceInCents_overMidnight_throwIllegalArgumentException() {
+
+        // Arrange
+        LocalDateTime startTime = MONDAY.atTime(23, 30);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> tariffEngine.priceInCents(grass, startTime,
+                startTime.plusHours(1), GameType.SINGLES), "Should throw IllegalArgumentException");
+    }
+}